@@ -2,6 +2,8 @@ package com.sfr.tokyo.sfr_backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -20,7 +22,14 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(Environment environment) {
+        if (ExecutionModeConfig.isVirtual(environment)) {
+            // 仮想スレッドモード: タスクごとに仮想スレッド（同時実行数は従来の最大プールサイズと同じ）
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("SfrtReward-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(10);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(10);
@@ -0,0 +1,132 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.RewardDistribution.DistributionStatus;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+import com.sfr.tokyo.sfr_backend.repository.crypto.RewardDistributionRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAnalyticsReportRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningForumRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningSimulationRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningSurveyRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningTopicRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineHandler;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineHandler.Outcome;
+
+/**
+ * 期限の種類ごとの処理（{@link com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler} が発火させる）
+ *
+ * 期限到来時の更新はいずれも ID 指定の条件付き UPDATE で、条件は従来の一括処理の抽出条件と同じ。
+ * 最終アクセス・最終アクティビティ・回答日時から決まる期限は登録後に延びることがあるため、
+ * 発火時にまだ期限前だった対象は新しい期限で登録し直す（アクセスごとに期限を書き換えない）。
+ */
+@Configuration
+public class DeadlineHandlerConfig {
+
+    private static final String TOPIC_AUTO_CLOSE_REASON = "自動クローズ - 指定日時に達しました";
+
+    private static final Set<DistributionStatus> EXPIRABLE_REWARD_STATUSES = EnumSet.of(DistributionStatus.PENDING,
+            DistributionStatus.APPROVED);
+
+    @Bean
+    public DeadlineHandler topicAutoCloseHandler(LearningTopicRepository topicRepository) {
+        return DeadlineHandler.of(DeadlineKind.TOPIC_AUTO_CLOSE,
+                (ids, now) -> Outcome.of(topicRepository.closeDueTopics(ids, now, TOPIC_AUTO_CLOSE_REASON)),
+                (afterId, limit) -> topicRepository.findAutoCloseDeadlines(afterId, PageRequest.of(0, limit)));
+    }
+
+    @Bean
+    public DeadlineHandler forumAutoCloseHandler(LearningForumRepository forumRepository) {
+        return DeadlineHandler.of(DeadlineKind.FORUM_AUTO_CLOSE,
+                (ids, now) -> {
+                    List<Long> due = new ArrayList<>();
+                    Map<Long, LocalDateTime> postponed = new HashMap<>();
+                    for (DeadlineRow row : forumRepository.findAutoCloseDeadlinesByIdIn(ids)) {
+                        if (row.dueAt() == null) {
+                            continue;
+                        }
+                        if (row.dueAt().isAfter(now)) {
+                            postponed.put(row.id(), row.dueAt());
+                        } else {
+                            due.add(row.id());
+                        }
+                    }
+                    int archived = due.isEmpty() ? 0 : forumRepository.archiveActiveForums(due, now);
+                    return new Outcome(archived, postponed);
+                },
+                (afterId, limit) -> forumRepository.findAutoCloseDeadlines(afterId, PageRequest.of(0, limit)));
+    }
+
+    @Bean
+    public DeadlineHandler surveyExpiryHandler(LearningSurveyRepository surveyRepository) {
+        return DeadlineHandler.of(DeadlineKind.SURVEY_EXPIRY,
+                (ids, now) -> Outcome.of(surveyRepository.expireDueSurveys(ids, now)),
+                (afterId, limit) -> surveyRepository.findDueDateDeadlines(afterId, PageRequest.of(0, limit)));
+    }
+
+    @Bean
+    public DeadlineHandler simulationTimeoutHandler(LearningSimulationRepository simulationRepository,
+            @Value("${sfr.learning.simulation.timeout-hours:24}") long timeoutHours) {
+        return DeadlineHandler.of(DeadlineKind.SIMULATION_TIMEOUT,
+                (ids, now) -> {
+                    int timedOut = simulationRepository.timeoutStale(ids, now.minusHours(timeoutHours), now);
+                    // タイムアウトしなかった実行中のものは登録後にアクセスがあった
+                    return new Outcome(timedOut, plus(simulationRepository.findInProgressLastAccessByIdIn(ids),
+                            timeoutHours * 60));
+                },
+                (afterId, limit) -> plusRows(simulationRepository.findInProgressLastAccess(afterId,
+                        PageRequest.of(0, limit)), timeoutHours * 60));
+    }
+
+    @Bean
+    public DeadlineHandler rewardExpiryHandler(RewardDistributionRepository rewardDistributionRepository) {
+        return DeadlineHandler.of(DeadlineKind.REWARD_EXPIRY,
+                (ids, now) -> Outcome.of(rewardDistributionRepository.expireDue(ids, EXPIRABLE_REWARD_STATUSES,
+                        DistributionStatus.EXPIRED, now)),
+                (afterId, limit) -> rewardDistributionRepository.findExpiryDeadlines(afterId,
+                        EXPIRABLE_REWARD_STATUSES, PageRequest.of(0, limit)));
+    }
+
+    @Bean
+    public DeadlineHandler reportExpiryHandler(LearningAnalyticsReportRepository reportRepository) {
+        return DeadlineHandler.of(DeadlineKind.REPORT_EXPIRY,
+                (ids, now) -> Outcome.of(reportRepository.markExpiredReports(ids, now)),
+                (afterId, limit) -> reportRepository.findExpiryDeadlines(afterId, PageRequest.of(0, limit)));
+    }
+
+    @Bean
+    public DeadlineHandler feedbackAutoCloseHandler(LearningFeedbackRepository feedbackRepository,
+            @Value("${sfr.learning.feedback.auto-close-days:30}") long autoCloseDays) {
+        return DeadlineHandler.of(DeadlineKind.FEEDBACK_AUTO_CLOSE,
+                (ids, now) -> {
+                    int closed = feedbackRepository.closeForAutoClose(ids, now.minusDays(autoCloseDays), now);
+                    // クローズされなかった対象は登録後に回答し直されている
+                    return new Outcome(closed, plus(feedbackRepository.findAutoCloseResponsesByIdIn(ids),
+                            autoCloseDays * 24 * 60));
+                },
+                (afterId, limit) -> plusRows(feedbackRepository.findAutoCloseResponses(afterId,
+                        PageRequest.of(0, limit)), autoCloseDays * 24 * 60));
+    }
+
+    private static Map<Long, LocalDateTime> plus(List<DeadlineRow> rows, long minutes) {
+        return rows.stream().collect(Collectors.toMap(DeadlineRow::id, row -> row.dueAt().plusMinutes(minutes)));
+    }
+
+    private static List<DeadlineRow> plusRows(List<DeadlineRow> rows, long minutes) {
+        return rows.stream().map(row -> new DeadlineRow(row.id(), row.dueAt().plusMinutes(minutes))).toList();
+    }
+}
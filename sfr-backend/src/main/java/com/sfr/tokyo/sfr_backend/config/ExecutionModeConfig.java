@@ -0,0 +1,104 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.sfr.tokyo.sfr_backend.repository.support.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 実行モード設定（プラットフォームスレッド / 仮想スレッド）
+ *
+ * spring.threads.virtual.enabled=true かつ Java 21 以上で起動した場合は仮想スレッドモードになる。
+ * Tomcat のリクエスト処理と @Scheduled は Spring Boot が仮想スレッドに切り替え、
+ * @Async（{@link AsyncConfig}）と取引所への並列問い合わせはこのクラスの設定で切り替える。
+ * 仮想スレッドモードでは DB 接続の取得を {@link ConcurrencyLimitedDataSource} で制限する。
+ * 制限は接続プール（HikariCP）ごとにかけ、レプリカ構成では {@link ReplicaRoutingConfig} がプライマリと各レプリカを個別に包む。
+ */
+@Slf4j
+@Configuration
+public class ExecutionModeConfig {
+
+    static boolean isVirtual(Environment environment) {
+        boolean active = Threading.VIRTUAL.isActive(environment);
+        if (!active && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but the runtime is Java {}; using platform threads",
+                    JavaVersion.getJavaVersion());
+        }
+        return active;
+    }
+
+    /**
+     * 取引所 API への並列問い合わせ用
+     */
+    @Bean(name = "exchangeFanOutExecutor")
+    public Executor exchangeFanOutExecutor(Environment environment) {
+        if (isVirtual(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ExchangeFanOut-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(environment.getProperty("sfr.exchange.fan-out.max-concurrency",
+                    Integer.class, 64));
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(64);
+        executor.setThreadNamePrefix("ExchangeFanOut-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 単一データソース構成での DB 接続の同時取得数の制限
+     * レプリカ構成の dataSource は LazyConnectionDataSourceProxy（実接続ではなく遅延ハンドル）なので、ここでは包まない
+     */
+    @Bean
+    public static BeanPostProcessor connectionAcquisitionLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                return limitAcquisition(pool, environment);
+            }
+        };
+    }
+
+    /**
+     * 接続プールを同時取得数の制限付きで包む
+     *
+     * sfr.datasource.acquire-limit.permits が 0 の場合は仮想スレッドモードでのみ、そのプールの最大サイズで制限する。
+     * 正の値を指定した場合はプールごとにその値（プールの最大サイズが上限）で制限する。
+     *
+     * @return 制限しない場合は pool をそのまま返す
+     */
+    static DataSource limitAcquisition(HikariDataSource pool, Environment environment) {
+        int permits = environment.getProperty("sfr.datasource.acquire-limit.permits", Integer.class, 0);
+        if (permits == 0 && isVirtual(environment)) {
+            permits = pool.getMaximumPoolSize();
+        }
+        if (permits <= 0) {
+            return pool;
+        }
+        permits = Math.min(permits, pool.getMaximumPoolSize());
+        long timeoutMs = environment.getProperty("sfr.datasource.acquire-limit.timeout-ms", Long.class, 30000L);
+        log.info("DB connection acquisition on pool {} limited to {} concurrent connections", pool.getPoolName(),
+                permits);
+        return new ConcurrencyLimitedDataSource(pool, permits, Duration.ofMillis(timeoutMs));
+    }
+}
@@ -0,0 +1,34 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sfr.tokyo.sfr_backend.service.ocr.FakeOcrBackend;
+import com.sfr.tokyo.sfr_backend.service.ocr.OcrBackend;
+import com.sfr.tokyo.sfr_backend.service.ocr.VisionOcrBackend;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OCR バックエンド設定
+ *
+ * ocr.backend=vision で Google Cloud Vision API を使用し、それ以外（既定: fake）は
+ * サンプルテキストを返すローカルバックエンドを使用する。
+ */
+@Slf4j
+@Configuration
+public class OcrConfig {
+
+    @Bean
+    public OcrBackend ocrBackend(
+            @Value("${ocr.backend:fake}") String backend,
+            @Value("${ocr.batch.size:16}") int batchSize) {
+        if ("vision".equalsIgnoreCase(backend)) {
+            log.info("OCR backend: Google Cloud Vision API (batch size {})", batchSize);
+            return new VisionOcrBackend(batchSize);
+        }
+        log.info("OCR backend: local fake backend");
+        return new FakeOcrBackend(batchSize);
+    }
+}
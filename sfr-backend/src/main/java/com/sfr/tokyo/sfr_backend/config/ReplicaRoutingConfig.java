@@ -0,0 +1,148 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.sfr.tokyo.sfr_backend.repository.support.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 読み取りレプリカへの振り分け設定
+ *
+ * sfr.datasource.replicas.enabled=true のときだけ有効になり、spring.datasource.* をプライマリ、
+ * sfr.datasource.replicas.urls の各URLをレプリカとして、それぞれ別の HikariCP プールを作る。
+ * 無効時は Spring Boot の既定どおり単一のデータソースを使う。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "sfr.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+            @Value("${sfr.datasource.primary.maximum-pool-size:20}") int maximumPoolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties properties, Environment environment,
+            @Value("${sfr.datasource.replicas.urls}") List<String> urls,
+            @Value("${sfr.datasource.replicas.username:}") String username,
+            @Value("${sfr.datasource.replicas.password:}") String password,
+            @Value("${sfr.datasource.replicas.maximum-pool-size:20}") int maximumPoolSize,
+            @Value("${sfr.datasource.replicas.read-your-writes-seconds:0}") long readYourWritesSeconds,
+            @Value("${sfr.datasource.replicas.max-lag-seconds:10}") long maxLagSeconds,
+            @Value("${sfr.datasource.replicas.health-check-interval-ms:5000}") long healthCheckIntervalMillis,
+            @Value("${sfr.datasource.replicas.lag-query:}") String lagQuery) {
+        Duration maxLag = Duration.ofSeconds(maxLagSeconds);
+        Duration readYourWritesWindow = readYourWritesWindow(readYourWritesSeconds, maxLag,
+                Duration.ofMillis(healthCheckIntervalMillis));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), ExecutionModeConfig.limitAcquisition(replica, environment));
+        }
+        log.info("Read-only transactions are routed to {} replicas (read-your-writes window {}s)", replicas.size(),
+                readYourWritesWindow.toSeconds());
+        // 同時取得数の制限は実際の接続プールごとにかける
+        return new ReplicaRoutingDataSource(ExecutionModeConfig.limitAcquisition(primaryDataSource, environment),
+                replicas, ReplicaRoutingConfig::currentUserName,
+                readYourWritesWindow, maxLag, lagQuery, Clock.systemUTC());
+    }
+
+    /**
+     * 書き込み後にプライマリへ固定する期間を決める
+     *
+     * レプリカは遅延が maxLag を超えるまで使われ続け、超えたことに気付くのも次のヘルスチェックまで遅れる。
+     * そのため固定期間が maxLag + チェック間隔より短いと、書いた直前の値を古いレプリカから読み得る。
+     * 0 以下が指定された場合はこの下限をそのまま使い、下限より短い指定は起動時に拒否する。
+     */
+    static Duration readYourWritesWindow(long configuredSeconds, Duration maxLag, Duration healthCheckInterval) {
+        Duration minimum = maxLag.plus(healthCheckInterval);
+        // 秒単位の設定値と比べるため切り上げる
+        Duration minimumSeconds = Duration.ofSeconds(minimum.toSeconds() + (minimum.toNanosPart() > 0 ? 1 : 0));
+        if (configuredSeconds <= 0) {
+            return minimumSeconds;
+        }
+        Duration configured = Duration.ofSeconds(configuredSeconds);
+        if (configured.compareTo(minimum) < 0) {
+            throw new IllegalStateException(String.format(
+                    "sfr.datasource.replicas.read-your-writes-seconds (%d) must be at least max-lag-seconds + "
+                            + "health-check-interval (%ds); leave it at 0 to derive it",
+                    configuredSeconds, minimumSeconds.toSeconds()));
+        }
+        return configured;
+    }
+
+    /**
+     * JPA が使うデータソース
+     * 接続の取得を最初の SQL まで遅らせ、その時点のトランザクションの readOnly で振り分ける
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaHealthCheck(replicaRoutingDataSource);
+    }
+
+    private static String currentUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * レプリカの定期ヘルスチェック
+     */
+    public static class ReplicaHealthCheck {
+
+        private final ReplicaRoutingDataSource routingDataSource;
+
+        ReplicaHealthCheck(ReplicaRoutingDataSource routingDataSource) {
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${sfr.datasource.replicas.health-check-interval-ms:5000}")
+        public void check() {
+            routingDataSource.checkReplicas();
+        }
+    }
+}
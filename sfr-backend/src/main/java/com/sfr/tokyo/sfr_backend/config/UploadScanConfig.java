@@ -0,0 +1,43 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sfr.tokyo.sfr_backend.service.scan.ClamdVirusScanner;
+import com.sfr.tokyo.sfr_backend.service.scan.StubVirusScanner;
+import com.sfr.tokyo.sfr_backend.service.scan.VirusScanner;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * アップロードファイルのウイルススキャナ設定
+ *
+ * 既定（upload.scan.mode=clamd）では clamd に接続する。
+ * upload.scan.mode=stub は EICAR テスト文字列しか検出しないため、テストプロファイル専用とする。
+ * 未知のモードが指定された場合はスキャンなしで起動しないよう、起動時に失敗させる。
+ */
+@Slf4j
+@Configuration
+public class UploadScanConfig {
+
+    @Bean
+    public VirusScanner virusScanner(
+            @Value("${upload.scan.mode:clamd}") String mode,
+            @Value("${upload.scan.clamd.host:localhost}") String host,
+            @Value("${upload.scan.clamd.port:3310}") int port,
+            @Value("${upload.scan.clamd.pool-size:8}") int poolSize,
+            @Value("${upload.scan.clamd.timeout-ms:10000}") int timeoutMillis,
+            @Value("${upload.scan.clamd.chunk-size:65536}") int chunkSize,
+            @Value("${upload.scan.clamd.max-idle-ms:20000}") long maxIdleMillis) {
+        if ("clamd".equalsIgnoreCase(mode)) {
+            log.info("Upload virus scanning via clamd at {}:{} (pool size {})", host, port, poolSize);
+            return new ClamdVirusScanner(host, port, poolSize, timeoutMillis, chunkSize, maxIdleMillis);
+        }
+        if ("stub".equalsIgnoreCase(mode)) {
+            log.warn("Upload virus scanning uses the local stub scanner (EICAR only); not for production use");
+            return new StubVirusScanner();
+        }
+        throw new IllegalStateException("Unknown upload.scan.mode: " + mode + " (expected clamd or stub)");
+    }
+}
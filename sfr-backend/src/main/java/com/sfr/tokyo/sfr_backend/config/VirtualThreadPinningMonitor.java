@@ -0,0 +1,94 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 仮想スレッドのピン留め検出
+ *
+ * 仮想スレッドモードのときだけ JFR の jdk.VirtualThreadPinned イベントを購読し、
+ * synchronized 内のブロッキングなどでキャリアスレッドを threshold 以上占有した箇所を記録する。
+ * 集計はスタック上で最初に現れるアプリケーションのフレーム単位で、初回検出時に WARN を出す。
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String APPLICATION_PACKAGE = "com.sfr.tokyo.";
+
+    private final Environment environment;
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedByFrame = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Environment environment,
+            @Value("${sfr.virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        this.environment = environment;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (stream != null || !ExecutionModeConfig.isVirtual(environment)) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::record);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    /**
+     * 検出箇所ごとのピン留め回数
+     */
+    public Map<String, Long> getPinnedCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        pinnedByFrame.forEach((frame, count) -> counts.put(frame, count.sum()));
+        return counts;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private void record(RecordedEvent event) {
+        String frame = applicationFrame(event);
+        LongAdder count = pinnedByFrame.computeIfAbsent(frame, key -> {
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), key);
+            return new LongAdder();
+        });
+        count.increment();
+    }
+
+    private static String applicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE)) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "outside application code";
+    }
+}
@@ -1,19 +1,19 @@
 package com.sfr.tokyo.sfr_backend.controller;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import com.sfr.tokyo.sfr_backend.dto.CommentDto;
+import com.sfr.tokyo.sfr_backend.dto.FeedPageDto;
 import com.sfr.tokyo.sfr_backend.entity.Comment;
 import com.sfr.tokyo.sfr_backend.entity.PostEntity;
 import com.sfr.tokyo.sfr_backend.repository.CommentRepository;
 import com.sfr.tokyo.sfr_backend.repository.PostRepository;
 import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.service.CommentService;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedPageCache;
 import com.sfr.tokyo.sfr_backend.user.User;
 
 import jakarta.validation.Valid;
@@ -27,6 +27,8 @@ public class CommentController {
         private final CommentRepository commentRepository;
         private final PostRepository postRepository;
         private final UserRepository userRepository;
+        private final CommentService commentService;
+        private final FeedPageCache feedPageCache;
 
         private User getCurrentAuthenticatedUser() {
                 String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -34,20 +36,13 @@ public class CommentController {
                                 .orElseThrow(() -> new RuntimeException("Authenticated user not found."));
         }
 
+        // 投稿のコメントを古い順にページ単位で取得する。nextCursor を cursor に渡して次ページを取得する
         @GetMapping("/post/{postId}")
-        public ResponseEntity<List<CommentDto>> getCommentsByPostId(@PathVariable Long postId) {
-                List<Comment> comments = commentRepository.findByPost_Id(postId);
-                List<CommentDto> commentDtos = comments.stream()
-                                .map(comment -> CommentDto.builder()
-                                                .id(comment.getId())
-                                                .content(comment.getContent())
-                                                .postId(comment.getPost().getId())
-                                                .userId(comment.getUser().getId())
-                                                .username(comment.getUser().getFirstname())
-                                                .build())
-                                .collect(Collectors.toList());
-
-                return ResponseEntity.ok(commentDtos);
+        public ResponseEntity<FeedPageDto<CommentDto>> getCommentsByPostId(
+                        @PathVariable Long postId,
+                        @RequestParam(value = "cursor", required = false) String cursor,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
+                return ResponseEntity.ok(commentService.getCommentsByPostId(postId, cursor, limit));
         }
 
         @PostMapping("/post/{postId}")
@@ -67,6 +62,7 @@ public class CommentController {
                                 .build();
 
                 Comment savedComment = commentRepository.save(newComment);
+                feedPageCache.invalidateFeedsOf(post.getUser().getId());
 
                 return ResponseEntity.status(HttpStatus.CREATED).body(
                                 CommentDto.builder()
@@ -87,6 +83,7 @@ public class CommentController {
                                                 comment.getPost().getUser().getId().equals(currentUser.getId()))
                                 .map(comment -> {
                                         commentRepository.delete(comment);
+                                        feedPageCache.invalidateFeedsOf(comment.getPost().getUser().getId());
                                         return ResponseEntity.noContent().<Void>build();
                                 })
                                 .orElse(ResponseEntity.notFound().<Void>build());
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
 import com.sfr.tokyo.sfr_backend.service.ImageUploadService;
 
 @RestController
@@ -51,6 +52,9 @@ public class ImageUploadController {
                 // 保存に失敗した場合
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("ファイルの保存に失敗しました。");
             }
+        } catch (BusinessException e) {
+            // ウイルス検出・スキャナ障害
+            return ResponseEntity.status(e.getErrorCode().getStatus()).body(e.getMessage());
         } catch (Exception e) {
             // 例外が発生した場合
             logger.error("ファイルのアップロード中にエラーが発生しました", e);
@@ -1,8 +1,10 @@
 package com.sfr.tokyo.sfr_backend.controller;
 
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
 import com.sfr.tokyo.sfr_backend.service.MyNumberCardOCRService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,35 +22,17 @@ public class MyNumberCardController {
 
     // Step 1: マイナンバーカード画像のOCR処理（Google Cloud Vision API使用）
     @PostMapping("/ocr")
-    public ResponseEntity<Map<String, Object>> processOCR(@RequestParam("image") MultipartFile image) {
+    public ResponseEntity<Map<String, Object>> processOCR(@RequestParam("image") MultipartFile image,
+            Authentication authentication) {
         try {
             // 入力検証
-            if (image.isEmpty()) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("error", "画像ファイルが指定されていません");
-                return ResponseEntity.badRequest().body(errorResponse);
-            }
-
-            // ファイルサイズチェック（20MB制限）
-            if (image.getSize() > 20 * 1024 * 1024) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("error", "ファイルサイズが大きすぎます（20MB以下にしてください）");
-                return ResponseEntity.badRequest().body(errorResponse);
-            }
-
-            // 対応ファイル形式チェック
-            String contentType = image.getContentType();
-            if (contentType == null || !isValidImageType(contentType)) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("error", "対応していないファイル形式です");
-                return ResponseEntity.badRequest().body(errorResponse);
+            ResponseEntity<Map<String, Object>> invalid = validateImage(image);
+            if (invalid != null) {
+                return invalid;
             }
 
             // Google Cloud Vision APIを使用してOCR処理
-            Map<String, Object> ocrResult = ocrService.extractMyNumberCardData(image);
+            Map<String, Object> ocrResult = ocrService.extractMyNumberCardData(authentication.getName(), image);
 
             if (!(Boolean) ocrResult.get("success")) {
                 return ResponseEntity.badRequest().body(ocrResult);
@@ -65,6 +49,9 @@ public class MyNumberCardController {
             response.put("processedAt", System.currentTimeMillis());
 
             return ResponseEntity.ok(response);
+        } catch (BusinessException e) {
+            // 混雑(429)・ウイルス検出などは GlobalExceptionHandler でステータスを付けて返す
+            throw e;
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
@@ -74,6 +61,55 @@ public class MyNumberCardController {
         }
     }
 
+    // Step 1 (非同期): OCRジョブの受付。ジョブIDを返し、結果は GET /ocr/jobs/{jobId} でポーリングする
+    @PostMapping("/ocr/jobs")
+    public ResponseEntity<Map<String, Object>> submitOCRJob(@RequestParam("image") MultipartFile image,
+            Authentication authentication) {
+        ResponseEntity<Map<String, Object>> invalid = validateImage(image);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        Map<String, Object> result = ocrService.submitExtraction(authentication.getName(), image);
+        if (!(Boolean) result.get("success")) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.accepted().body(result);
+    }
+
+    // OCRジョブの状態・結果取得（他のユーザーが投入したジョブは 404）
+    @GetMapping("/ocr/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getOCRJob(@PathVariable String jobId, Authentication authentication) {
+        return ocrService.getExtractionStatus(jobId, authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * アップロード画像の入力検証
+     * 
+     * @return 不正な場合はエラーレスポンス、問題なければ null
+     */
+    private ResponseEntity<Map<String, Object>> validateImage(MultipartFile image) {
+        String error = null;
+        if (image.isEmpty()) {
+            error = "画像ファイルが指定されていません";
+        } else if (image.getSize() > 20 * 1024 * 1024) {
+            // ファイルサイズチェック（20MB制限）
+            error = "ファイルサイズが大きすぎます（20MB以下にしてください）";
+        } else if (image.getContentType() == null || !isValidImageType(image.getContentType())) {
+            // 対応ファイル形式チェック
+            error = "対応していないファイル形式です";
+        }
+        if (error == null) {
+            return null;
+        }
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("error", error);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
     /**
      * 有効な画像形式かチェック
      */
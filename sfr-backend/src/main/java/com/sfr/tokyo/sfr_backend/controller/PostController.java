@@ -1,8 +1,6 @@
 package com.sfr.tokyo.sfr_backend.controller;
 
-import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -19,11 +17,15 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.sfr.tokyo.sfr_backend.dto.FeedPageDto;
 import com.sfr.tokyo.sfr_backend.dto.PostDto;
+import com.sfr.tokyo.sfr_backend.dto.PostFeedItemDto;
 import com.sfr.tokyo.sfr_backend.entity.PostEntity;
 import com.sfr.tokyo.sfr_backend.repository.PostRepository;
 import com.sfr.tokyo.sfr_backend.repository.UserRepository;
 import com.sfr.tokyo.sfr_backend.service.FileStorageService;
+import com.sfr.tokyo.sfr_backend.service.PostService;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedPageCache;
 import com.sfr.tokyo.sfr_backend.user.User;
 
 import lombok.RequiredArgsConstructor;
@@ -37,6 +39,8 @@ public class PostController {
         private final PostRepository postRepository;
         private final UserRepository userRepository;
         private final FileStorageService fileStorageService;
+        private final PostService postService;
+        private final FeedPageCache feedPageCache;
 
         // 現在認証されているユーザーを取得
         private User getCurrentAuthenticatedUser() {
@@ -71,6 +75,7 @@ public class PostController {
                                 .build();
 
                 PostEntity savedPost = postRepository.save(newPost);
+                feedPageCache.invalidateFeedsOf(currentUser.getId());
 
                 return ResponseEntity.status(HttpStatus.CREATED).body(
                                 PostDto.builder()
@@ -82,22 +87,21 @@ public class PostController {
                                                 .build());
         }
 
-        // 認証ユーザーに紐づくすべての作品を取得するエンドポイント
+        // 公開フィード（新しい順）。nextCursor を cursor に渡して次ページを取得する
+        @GetMapping
+        public ResponseEntity<FeedPageDto<PostFeedItemDto>> getFeed(
+                        @RequestParam(value = "cursor", required = false) String cursor,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
+                return ResponseEntity.ok(postService.getAllPosts(cursor, limit));
+        }
+
+        // 認証ユーザーに紐づく作品をページ単位で取得するエンドポイント
         @GetMapping("/my-posts")
-        public ResponseEntity<List<PostDto>> getMyPosts() {
+        public ResponseEntity<FeedPageDto<PostFeedItemDto>> getMyPosts(
+                        @RequestParam(value = "cursor", required = false) String cursor,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
                 User currentUser = getCurrentAuthenticatedUser();
-                List<PostEntity> posts = postRepository.findByUser_Id(currentUser.getId());
-                List<PostDto> postDtos = posts.stream()
-                                .map(post -> PostDto.builder()
-                                                .id(post.getId())
-                                                .title(post.getTitle())
-                                                .description(post.getDescription())
-                                                .fileUrl(post.getFileUrl())
-                                                .userId(post.getUser().getId())
-                                                .build())
-                                .collect(Collectors.toList());
-
-                return ResponseEntity.ok(postDtos);
+                return ResponseEntity.ok(postService.getPostsByUserId(currentUser.getId(), cursor, limit));
         }
 
         // 特定の作品を削除する
@@ -108,6 +112,7 @@ public class PostController {
                                 .filter(post -> post.getUser().getId().equals(currentUser.getId()))
                                 .map(post -> {
                                         postRepository.delete(post);
+                                        feedPageCache.invalidateFeedsOf(currentUser.getId());
                                         return ResponseEntity.noContent().<Void>build();
                                 })
                                 .orElse(ResponseEntity.notFound().<Void>build());
@@ -123,20 +128,12 @@ public class PostController {
                                 .body(resource);
         }
 
-        // 特定のユーザーの作品をすべて取得するエンドポイント
+        // 特定のユーザーの作品をページ単位で取得するエンドポイント
         @GetMapping("/user/{userId}")
-        public ResponseEntity<List<PostDto>> getPostsByUserId(@PathVariable UUID userId) {
-                List<PostEntity> posts = postRepository.findByUser_Id(userId);
-                List<PostDto> postDtos = posts.stream()
-                                .map(post -> PostDto.builder()
-                                                .id(post.getId())
-                                                .title(post.getTitle())
-                                                .description(post.getDescription())
-                                                .fileUrl(post.getFileUrl())
-                                                .userId(post.getUser().getId())
-                                                .build())
-                                .collect(Collectors.toList());
-
-                return ResponseEntity.ok(postDtos);
+        public ResponseEntity<FeedPageDto<PostFeedItemDto>> getPostsByUserId(
+                        @PathVariable UUID userId,
+                        @RequestParam(value = "cursor", required = false) String cursor,
+                        @RequestParam(value = "limit", required = false) Integer limit) {
+                return ResponseEntity.ok(postService.getPostsByUserId(userId, cursor, limit));
         }
 }
@@ -0,0 +1,39 @@
+package com.sfr.tokyo.sfr_backend.controller.admin;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sfr.tokyo.sfr_backend.service.learning.LearningAiLogService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AI学習ログ集計の管理コントローラー
+ *
+ * エンドポイント:
+ * - POST /api/admin/ai-logs/rollups/rebuild - ログ本体から分・時間別集計を作り直す（実行中は取り込みを止める）
+ */
+@RestController
+@RequestMapping("/api/admin/ai-logs")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class AiLogAdminController {
+
+    private final LearningAiLogService aiLogService;
+
+    /**
+     * 集計行の再構築
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups() {
+        log.info("AI学習ログ集計の再構築要求");
+        return ResponseEntity.ok(Map.of("buckets", aiLogService.rebuildAiLogRollups()));
+    }
+}
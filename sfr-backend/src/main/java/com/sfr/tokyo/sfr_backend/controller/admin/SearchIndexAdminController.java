@@ -0,0 +1,52 @@
+package com.sfr.tokyo.sfr_backend.controller.admin;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocumentType;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexRebuilder;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 全文検索インデックス管理コントローラー
+ *
+ * エンドポイント:
+ * - POST /api/admin/search/rebuild - DBからインデックスを再構築
+ * - GET /api/admin/search/stats - 種別ごとの登録文書数
+ */
+@RestController
+@RequestMapping("/api/admin/search")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class SearchIndexAdminController {
+
+    private final SearchIndexRebuilder searchIndexRebuilder;
+    private final SearchIndexService searchIndexService;
+
+    /**
+     * インデックス再構築
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<SearchDocumentType, Integer>> rebuild() {
+        log.info("検索インデックス再構築要求");
+        return ResponseEntity.ok(searchIndexRebuilder.rebuild());
+    }
+
+    /**
+     * インデックス統計
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<SearchDocumentType, Integer>> getStats() {
+        return ResponseEntity.ok(searchIndexService.getDocumentCounts());
+    }
+}
@@ -2,6 +2,9 @@ package com.sfr.tokyo.sfr_backend.controller.admin;
 
 import com.sfr.tokyo.sfr_backend.entity.config.SfrPointConfig;
 import com.sfr.tokyo.sfr_backend.service.config.SfrPointConfigService;
+import com.sfr.tokyo.sfr_backend.service.crypto.supply.SupplyTrendPoint;
+import com.sfr.tokyo.sfr_backend.service.crypto.supply.TokenSupplySnapshot;
+import com.sfr.tokyo.sfr_backend.service.crypto.supply.TokenSupplySnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +26,8 @@ import java.util.Map;
  * - PUT /api/v1/admin/sfr/config - 設定更新
  * - GET /api/v1/admin/sfr/stats - システム統計
  * - POST /api/v1/admin/sfr/config/init - 設定初期化
+ * - GET /api/v1/admin/sfr/supply - トークンプール供給統計（スナップショット）
+ * - GET /api/v1/admin/sfr/supply/history - 供給量推移
  * 
  * @author SFR Development Team
  * @version 1.0
@@ -36,6 +41,7 @@ import java.util.Map;
 public class SfrAdminController {
 
     private final SfrPointConfigService configService;
+    private final TokenSupplySnapshotService supplySnapshotService;
 
     /**
      * SFRポイント設定一覧取得
@@ -111,6 +117,22 @@ public class SfrAdminController {
         }
     }
 
+    /**
+     * トークンプール供給統計
+     */
+    @GetMapping("/supply")
+    public ResponseEntity<TokenSupplySnapshot> getSupplySnapshot() {
+        return ResponseEntity.ok(supplySnapshotService.getSnapshot());
+    }
+
+    /**
+     * 供給量推移（古い順）
+     */
+    @GetMapping("/supply/history")
+    public ResponseEntity<List<SupplyTrendPoint>> getSupplyHistory() {
+        return ResponseEntity.ok(supplySnapshotService.getHistory());
+    }
+
     /**
      * 設定初期化（開発・テスト用）
      */
@@ -201,14 +201,51 @@ public class BurnDecisionController {
             @RequestParam(required = false) Long spaceId,
             @RequestParam(required = false) BurnDecision.BurnStatus status) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("decisionDate").descending());
+        if (status != null) {
+            return ResponseEntity.ok(burnDecisionService.getBurnDecisionsByStatus(spaceId, status, page, size));
+        }
 
-        // 基本実装：全件取得のみ（フィルタリング機能は今後追加）
-        Page<BurnDecision> decisions = burnDecisionService.findAllBurnDecisions(pageable);
+        Pageable pageable = PageRequest.of(page, size, Sort.by("decisionDate").descending());
+        Page<BurnDecision> decisions = spaceId != null
+                ? burnDecisionService.findBySpaceId(spaceId, pageable)
+                : burnDecisionService.findAllBurnDecisions(pageable);
 
         return ResponseEntity.ok(decisions);
     }
 
+    /**
+     * 承認待ちバーン決定一覧取得
+     * 
+     * @return 承認待ちバーン決定（決定日時の新しい順）
+     */
+    @GetMapping("/pending")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GOVERNANCE')")
+    public ResponseEntity<List<BurnDecision>> getPendingBurnDecisions() {
+        return ResponseEntity.ok(burnDecisionService.getPendingBurnDecisions());
+    }
+
+    /**
+     * 投票中バーン決定一覧取得
+     * 
+     * @return 投票受付中のバーン決定（投票終了日時の早い順）
+     */
+    @GetMapping("/voting")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GOVERNANCE')")
+    public ResponseEntity<List<BurnDecision>> getVotingBurnDecisions() {
+        return ResponseEntity.ok(burnDecisionService.getVotingBurnDecisions());
+    }
+
+    /**
+     * 未決バーン決定件数取得
+     * 
+     * @return 承認待ち・投票中の件数
+     */
+    @GetMapping("/open-counts")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GOVERNANCE')")
+    public ResponseEntity<BurnDecisionService.OpenBurnDecisionCounts> getOpenBurnDecisionCounts() {
+        return ResponseEntity.ok(burnDecisionService.getOpenBurnDecisionCounts());
+    }
+
     /**
      * バーン決定詳細取得
      * 
@@ -299,13 +336,15 @@ public class BurnDecisionController {
      * 高額バーン決定取得
      * 
      * @param threshold 閾値
+     * @param limit     最大件数（上限 {@link BurnDecisionService#MAX_HIGH_VALUE_RESULTS}）
      * @return 高額バーン決定一覧
      */
     @GetMapping("/high-value")
     public ResponseEntity<List<BurnDecision>> getHighValueBurnDecisions(
-            @RequestParam(defaultValue = "1000000") BigDecimal threshold) {
+            @RequestParam(defaultValue = "1000000") BigDecimal threshold,
+            @RequestParam(defaultValue = "100") int limit) {
 
-        List<BurnDecision> decisions = burnDecisionService.getHighValueBurnDecisions(threshold);
+        List<BurnDecision> decisions = burnDecisionService.getHighValueBurnDecisions(threshold, limit);
         return ResponseEntity.ok(decisions);
     }
 
@@ -3,6 +3,7 @@ package com.sfr.tokyo.sfr_backend.controller.crypto;
 import com.sfr.tokyo.sfr_backend.service.crypto.SfrIntegrationService;
 import com.sfr.tokyo.sfr_backend.service.crypto.SfrIntegrationService.BalanceConsistencyResult;
 import com.sfr.tokyo.sfr_backend.service.crypto.SfrIntegrationService.SystemSyncSummary;
+import com.sfr.tokyo.sfr_backend.service.crypto.reconcile.BalanceReconcileReport;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -112,6 +113,25 @@ public class SfrIntegrationController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * 全ユーザーの残高一括突合（管理者専用）
+     * 
+     * @param repair trueの場合、SfrPointを正としてUserBalanceを一括修復
+     * @param incremental trueの場合、前回突合以降に更新された行のみ対象
+     * @return 突合結果（不一致は先頭の一部のみ）
+     */
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BalanceReconcileReport> reconcileBalances(
+            @RequestParam(defaultValue = "false") boolean repair,
+            @RequestParam(defaultValue = "false") boolean incremental) {
+        log.info("残高一括突合要求: repair={}, incremental={}", repair, incremental);
+        
+        BalanceReconcileReport report = integrationService.reconcileBalances(repair, incremental);
+        
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * 既存転送システムとSfrPointの手動同期（管理者専用）
      * 既存のUserBalance転送操作をSfrPointにも反映させる
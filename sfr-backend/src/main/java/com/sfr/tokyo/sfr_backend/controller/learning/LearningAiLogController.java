@@ -8,6 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -58,7 +59,8 @@ public class LearningAiLogController {
     }
 
     /**
-     * AIレスポンスを記録
+     * AIレスポンスを記録（非同期に書き込むため 202 を返す）
+     * 返すIDは採番済みで、書き込み前でも満足度の更新に使える
      */
     @PostMapping("/responses")
     public ResponseEntity<LearningAiLogDto> recordAiResponse(
@@ -75,11 +77,11 @@ public class LearningAiLogController {
         LearningAiLogDto log = aiLogService.recordAiResponse(
                 userId, sessionId, aiType, interactionType,
                 userInput, aiResponse, confidenceScore, processingTimeMs, tokensUsed);
-        return ResponseEntity.ok(log);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(log);
     }
 
     /**
-     * AIエラーを記録
+     * AIエラーを記録（非同期に書き込むため 202 を返す）
      */
     @PostMapping("/errors")
     public ResponseEntity<LearningAiLogDto> recordAiError(
@@ -94,7 +96,7 @@ public class LearningAiLogController {
         LearningAiLogDto log = aiLogService.recordAiError(
                 userId, sessionId, aiType, interactionType,
                 userInput, errorMessage, processingTimeMs);
-        return ResponseEntity.ok(log);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(log);
     }
 
     // ========== ログ取得機能 ==========
@@ -1,6 +1,7 @@
 package com.sfr.tokyo.sfr_backend.controller.learning;
 
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningCommentDto;
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningCommentNodeDto;
 import com.sfr.tokyo.sfr_backend.service.learning.LearningCommentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -102,6 +103,24 @@ public class LearningCommentController {
         return ResponseEntity.ok(comments);
     }
 
+    /**
+     * トピックのスレッド取得（返信を入れ子にしたツリー、トップレベルコメント単位のページング）
+     */
+    @GetMapping("/topic/{topicId}/thread")
+    public ResponseEntity<Page<LearningCommentNodeDto>> getCommentThread(
+            @PathVariable Long topicId,
+            Pageable pageable) {
+        return ResponseEntity.ok(commentService.getCommentThread(topicId, pageable));
+    }
+
+    /**
+     * コメントとその配下の返信をツリーで取得
+     */
+    @GetMapping("/{commentId}/thread")
+    public ResponseEntity<LearningCommentNodeDto> getCommentSubtree(@PathVariable Long commentId) {
+        return ResponseEntity.ok(commentService.getCommentSubtree(commentId));
+    }
+
     /**
      * 親コメントの返信取得
      */
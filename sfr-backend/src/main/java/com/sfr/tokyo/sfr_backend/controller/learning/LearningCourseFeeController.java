@@ -1,11 +1,13 @@
 package com.sfr.tokyo.sfr_backend.controller.learning;
 
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningCourseFeeDto;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee.FeeType;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee.CurrencyType;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee.SfrRewardCondition;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee.PaymentMethod;
 import com.sfr.tokyo.sfr_backend.service.learning.LearningCourseFeeService;
+import com.sfr.tokyo.sfr_backend.service.learning.catalog.CatalogSnapshot;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,12 +17,14 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * LearningCourseFee Controller
@@ -97,27 +101,24 @@ public class LearningCourseFeeController {
      * アクティブ料金設定一覧取得
      */
     @GetMapping("/active")
-    public ResponseEntity<List<LearningCourseFeeDto>> getActiveFees() {
-        List<LearningCourseFeeDto> activeFees = courseFeeService.getActiveFees();
-        return ResponseEntity.ok(activeFees);
+    public ResponseEntity<List<LearningCourseFeeDto>> getActiveFees(WebRequest request) {
+        return withCatalogETag(request, courseFeeService::getActiveFees);
     }
 
     /**
      * 無料コース検索
      */
     @GetMapping("/free")
-    public ResponseEntity<List<LearningCourseFeeDto>> getFreeCourses() {
-        List<LearningCourseFeeDto> freeCourses = courseFeeService.getFreeCourses();
-        return ResponseEntity.ok(freeCourses);
+    public ResponseEntity<List<LearningCourseFeeDto>> getFreeCourses(WebRequest request) {
+        return withCatalogETag(request, courseFeeService::getFreeCourses);
     }
 
     /**
      * 有料コース検索
      */
     @GetMapping("/paid")
-    public ResponseEntity<List<LearningCourseFeeDto>> getPaidCourses() {
-        List<LearningCourseFeeDto> paidCourses = courseFeeService.getPaidCourses();
-        return ResponseEntity.ok(paidCourses);
+    public ResponseEntity<List<LearningCourseFeeDto>> getPaidCourses(WebRequest request) {
+        return withCatalogETag(request, courseFeeService::getPaidCourses);
     }
 
     // ========== SFR報酬関連API ==========
@@ -126,9 +127,8 @@ public class LearningCourseFeeController {
      * SFR報酬付きコース検索
      */
     @GetMapping("/sfr-reward")
-    public ResponseEntity<List<LearningCourseFeeDto>> getCoursesWithSfrReward() {
-        List<LearningCourseFeeDto> sfrRewardCourses = courseFeeService.getCoursesWithSfrReward();
-        return ResponseEntity.ok(sfrRewardCourses);
+    public ResponseEntity<List<LearningCourseFeeDto>> getCoursesWithSfrReward(WebRequest request) {
+        return withCatalogETag(request, courseFeeService::getCoursesWithSfrReward);
     }
 
     /**
@@ -136,9 +136,8 @@ public class LearningCourseFeeController {
      */
     @GetMapping("/sfr-reward/top")
     public ResponseEntity<List<LearningCourseFeeDto>> getTopSfrRewardCourses(
-            @RequestParam(defaultValue = "10") int limit) {
-        List<LearningCourseFeeDto> topCourses = courseFeeService.getTopSfrRewardCourses(limit);
-        return ResponseEntity.ok(topCourses);
+            @RequestParam(defaultValue = "10") int limit, WebRequest request) {
+        return withCatalogETag(request, snapshot -> courseFeeService.getTopSfrRewardCourses(snapshot, limit));
     }
 
     /**
@@ -278,4 +277,19 @@ public class LearningCourseFeeController {
         BigDecimal averagePrice = courseFeeService.calculateAveragePrice();
         return ResponseEntity.ok(averagePrice);
     }
+
+    /**
+     * 料金カタログの ETag を付けて返す（If-None-Match が一致すれば本文なしの 304）
+     * 割引中の一覧など現在時刻で結果が変わるものには使わない
+     */
+    private <T> ResponseEntity<T> withCatalogETag(WebRequest request,
+            Function<CatalogSnapshot<LearningCourseFee>, T> body) {
+        // 途中でカタログが入れ替わっても ETag と本文が食い違わないよう、同じスナップショットから作る
+        CatalogSnapshot<LearningCourseFee> snapshot = courseFeeService.getCatalogSnapshot();
+        String etag = snapshot.etag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.apply(snapshot));
+    }
 }
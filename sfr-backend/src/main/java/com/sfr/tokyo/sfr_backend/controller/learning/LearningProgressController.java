@@ -39,6 +39,21 @@ public class LearningProgressController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedProgress);
     }
 
+    /**
+     * 学習進捗の心拍（プレイヤーからの定期報告）
+     * POST /learning/progress/heartbeat
+     */
+    @PostMapping("/heartbeat")
+    public ResponseEntity<LearningProgressDto> recordHeartbeat(
+            @Valid @RequestBody LearningProgressDto progressDto,
+            Authentication authentication) {
+
+        UUID userId = UUID.fromString(authentication.getName());
+        LearningProgressDto progress = progressService.recordHeartbeat(userId, progressDto);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress);
+    }
+
     /**
      * ユーザーの全進捗取得
      * GET /learning/progress/{userId}
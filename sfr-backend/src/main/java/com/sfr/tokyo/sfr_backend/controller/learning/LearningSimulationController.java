@@ -1,5 +1,7 @@
 package com.sfr.tokyo.sfr_backend.controller.learning;
 
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationCommandBatchDto;
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationCommandResultDto;
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation.SimulationType;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation.SimulationStatus;
@@ -268,6 +270,20 @@ public class LearningSimulationController {
         return ResponseEntity.ok(simulation);
     }
 
+    /**
+     * 進行状況・状態データ・フィードバックデータの更新をまとめて適用する
+     */
+    @PostMapping("/{id}/commands")
+    public ResponseEntity<LearningSimulationCommandResultDto> applyCommands(
+            @PathVariable Long id,
+            @Valid @RequestBody LearningSimulationCommandBatchDto batch) {
+
+        log.info("Applying {} commands to simulation ID: {}", batch.getCommands().size(), id);
+
+        LearningSimulationCommandResultDto result = simulationService.applyCommands(id, batch);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * ユーザーの最新のシミュレーションを取得する
      */
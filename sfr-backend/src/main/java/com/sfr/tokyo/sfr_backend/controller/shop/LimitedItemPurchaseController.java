@@ -0,0 +1,77 @@
+package com.sfr.tokyo.sfr_backend.controller.shop;
+
+import java.security.Principal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sfr.tokyo.sfr_backend.service.shop.LimitedItemCheckoutService;
+import com.sfr.tokyo.sfr_backend.service.shop.SfrPaymentService.PurchaseResult;
+import com.sfr.tokyo.sfr_backend.service.shop.admission.AdmissionStatus;
+import com.sfr.tokyo.sfr_backend.service.shop.admission.FlashSaleAdmissionQueue;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 限定アイテム購入コントローラー（待合室経由）
+ *
+ * エンドポイント:
+ * - POST /api/limited-items/{itemId}/admission - 待合室に並ぶ
+ * - GET /api/limited-items/admission/{ticketId} - 待機順位・入場状態を取得（ポーリング）
+ * - DELETE /api/limited-items/admission/{ticketId} - 待機・入場を取消
+ * - POST /api/limited-items/admission/{ticketId}/purchase - 入場済みチケットで購入
+ */
+@RestController
+@RequestMapping("/api/limited-items")
+@RequiredArgsConstructor
+public class LimitedItemPurchaseController {
+
+    private final FlashSaleAdmissionQueue admissionQueue;
+    private final LimitedItemCheckoutService checkoutService;
+
+    /**
+     * 待合室に並ぶ
+     */
+    @PostMapping("/{itemId}/admission")
+    public ResponseEntity<AdmissionStatus> join(@PathVariable Long itemId, Principal principal) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(admissionQueue.join(itemId, principal.getName()));
+    }
+
+    /**
+     * 待機状態の取得
+     */
+    @GetMapping("/admission/{ticketId}")
+    public ResponseEntity<AdmissionStatus> status(@PathVariable String ticketId, Principal principal) {
+        return ResponseEntity.ok(admissionQueue.status(ticketId, principal.getName()));
+    }
+
+    /**
+     * 待機・入場の取消
+     */
+    @DeleteMapping("/admission/{ticketId}")
+    public ResponseEntity<Void> leave(@PathVariable String ticketId, Principal principal) {
+        admissionQueue.leave(ticketId, principal.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 入場済みチケットで購入
+     */
+    @PostMapping("/admission/{ticketId}/purchase")
+    public ResponseEntity<PurchaseResult> purchase(@PathVariable String ticketId,
+            @RequestParam Long spaceId,
+            @RequestParam(defaultValue = "1") int quantity,
+            Principal principal) {
+        PurchaseResult result = checkoutService.purchase(ticketId, principal.getName(), spaceId, quantity);
+        return result.isSuccess()
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.badRequest().body(result);
+    }
+}
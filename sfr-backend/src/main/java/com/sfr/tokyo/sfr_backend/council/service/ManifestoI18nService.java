@@ -10,6 +10,10 @@ import com.sfr.tokyo.sfr_backend.council.repository.ManifestoContentRepository;
 import com.sfr.tokyo.sfr_backend.entity.council.ManifestoDocument;
 import com.sfr.tokyo.sfr_backend.entity.council.ManifestoSection;
 import com.sfr.tokyo.sfr_backend.entity.council.ManifestoContent;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocumentType;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocuments;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchResults;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -40,6 +44,7 @@ public class ManifestoI18nService {
     private final ManifestoSectionRepository manifestoSectionRepository;
     private final ManifestoContentRepository manifestoContentRepository;
     private final ObjectMapper objectMapper;
+    private final SearchIndexService searchIndexService;
 
     /**
      * 現在アクティブなManifesto文書を取得（外部API用）
@@ -166,8 +171,9 @@ public class ManifestoI18nService {
     public List<ManifestoI18nDto.ManifestoSectionDto> searchManifesto(String keyword, String languageCode) {
         log.info("Manifestoキーワード検索: keyword={}, languageCode={}", keyword, languageCode);
         
-        List<ManifestoContent> contents = manifestoContentRepository
-                .findByKeywordAndLanguageCode(keyword, languageCode);
+        List<ManifestoContent> contents = SearchResults.hydrate(
+                searchIndexService.search(SearchDocumentType.MANIFESTO, keyword, null, languageCode),
+                manifestoContentRepository::findAllById, ManifestoContent::getId, content -> true);
         
         return contents.stream()
                 .map(content -> convertSectionToDto(content.getManifestoSection(), languageCode))
@@ -420,7 +426,7 @@ public class ManifestoI18nService {
                 .translationQualityScore(1.0)
                 .build();
         
-        manifestoContentRepository.save(content);
+        searchIndexService.index(SearchDocuments.manifesto(manifestoContentRepository.save(content)));
     }
 
     @Transactional
@@ -451,7 +457,7 @@ public class ManifestoI18nService {
             content.setReferences(serializeToJson(newContentStructure.getReferences()));
             content.setTranslationStatus("reviewed");
             
-            manifestoContentRepository.save(content);
+            searchIndexService.index(SearchDocuments.manifesto(manifestoContentRepository.save(content)));
         }
     }
 
@@ -10,6 +10,7 @@ import com.sfr.tokyo.sfr_backend.entity.CharacterStatus;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -29,6 +30,9 @@ public class CharacterDto {
     @Size(max = 255, message = "画像URLは最大255文字です")
     private String imageUrl;
 
+    // 派生画像のURL（キー: thumb / sm / md）
+    private Map<String, String> imageVariantUrls;
+
     private Integer lifespanPoints;
 
     private CharacterStatus status;
@@ -0,0 +1,22 @@
+package com.sfr.tokyo.sfr_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// キーセットページングされたフィードの1ページ
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPageDto<T> {
+    private List<T> items;
+
+    // 次ページ取得用の不透明なカーソル（最終ページでは null）
+    private String nextCursor;
+
+    private boolean hasMore;
+}
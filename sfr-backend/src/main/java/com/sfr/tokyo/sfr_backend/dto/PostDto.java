@@ -1,5 +1,6 @@
 package com.sfr.tokyo.sfr_backend.dto;
 
+import java.util.Map;
 import java.util.UUID;
 
 import lombok.AllArgsConstructor;
@@ -27,5 +28,8 @@ public class PostDto {
     @Size(max = 255, message = "ファイルURLは最大255文字です")
     private String fileUrl;
 
+    // 派生画像のURL（キー: thumb / sm / md）。画像以外のファイルでは空
+    private Map<String, String> variantUrls;
+
     private UUID userId;
 }
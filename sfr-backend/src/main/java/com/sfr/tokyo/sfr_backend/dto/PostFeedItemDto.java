@@ -0,0 +1,36 @@
+package com.sfr.tokyo.sfr_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// フィード一覧用の投稿情報（投稿者名・コメント数を含む）
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostFeedItemDto {
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    private String fileUrl;
+
+    // 派生画像のURL（キー: thumb / sm / md）。画像以外のファイルでは空
+    private Map<String, String> variantUrls;
+
+    private UUID userId;
+
+    private String authorName;
+
+    private LocalDateTime createdAt;
+
+    private long commentCount;
+}
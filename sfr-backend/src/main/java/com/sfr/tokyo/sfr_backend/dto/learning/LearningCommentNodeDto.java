@@ -0,0 +1,50 @@
+package com.sfr.tokyo.sfr_backend.dto.learning;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// スレッド表示用のコメントノード（返信を入れ子で持つ）
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningCommentNodeDto {
+    private Long id;
+
+    private Long parentCommentId;
+
+    private UUID authorId;
+
+    private String content;
+
+    private LearningComment.CommentType commentType;
+
+    private LearningComment.CommentStatus commentStatus;
+
+    private Integer likeCount;
+
+    private Boolean isBestAnswer;
+
+    private Boolean isSolution;
+
+    private Boolean isPinned;
+
+    private Integer depthLevel;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    // 返信（作成順）
+    @Builder.Default
+    private List<LearningCommentNodeDto> replies = new ArrayList<>();
+}
@@ -0,0 +1,61 @@
+package com.sfr.tokyo.sfr_backend.dto.learning;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// シミュレーションへの1リクエスト分のコマンド（記載順に適用し、状態・フィードバックの差分はそれぞれ1件にまとめて保存する）
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningSimulationCommandBatchDto {
+
+    @NotEmpty(message = "コマンドは1件以上必要です")
+    @Size(max = 100, message = "コマンドは1リクエストあたり100件までです")
+    @Valid
+    @Builder.Default
+    private List<Command> commands = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Command {
+
+        @NotNull(message = "コマンド種別は必須です")
+        private CommandType type;
+
+        /** PROGRESS: 進行率 */
+        private BigDecimal progressPercentage;
+
+        /** STEP: 現在のステップ */
+        private Integer currentStep;
+
+        /** STATE_PATCH / FEEDBACK_PATCH: JSON Patch 操作列 */
+        private JsonNode patch;
+
+        /** STATE / FEEDBACK: 置き換え後の文書全体（JSON 文字列） */
+        private String data;
+    }
+
+    public enum CommandType {
+        PROGRESS, // 進行率を設定
+        STEP, // ステップを設定（総ステップ数があれば進行率も更新）
+        STATE_PATCH, // 状態データに JSON Patch を適用
+        STATE, // 状態データを置き換え
+        FEEDBACK_PATCH, // フィードバックデータに JSON Patch を適用
+        FEEDBACK // フィードバックデータを置き換え
+    }
+}
@@ -0,0 +1,32 @@
+package com.sfr.tokyo.sfr_backend.dto.learning;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// コマンド適用後の進行状況と状態の版（状態データ本体は返さない）
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningSimulationCommandResultDto {
+    private Long simulationId;
+
+    private Integer appliedCommands;
+
+    private Integer currentStep;
+
+    private BigDecimal progressPercentage;
+
+    /** 状態データの版（差分 seq） */
+    private Long stateVersion;
+
+    /** フィードバックデータの版（差分 seq） */
+    private Long feedbackVersion;
+
+    private LocalDateTime lastAccessedAt;
+}
@@ -5,8 +5,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import java.time.LocalDateTime;
@@ -20,7 +22,9 @@ import lombok.NoArgsConstructor;
 
 // データベースのコメントテーブルにマッピングされるエンティティ
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_created_id", columnList = "post_id, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -43,4 +47,11 @@ public class Comment {
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        // キーセットページングの並び順に使うため必ず設定する
+        if (createdAt == null)
+            createdAt = LocalDateTime.now();
+    }
 }
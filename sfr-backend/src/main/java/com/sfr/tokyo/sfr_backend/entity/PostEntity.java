@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -21,7 +22,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor // Lombokのアノテーションで、引数なしコンストラクタを自動生成
 @AllArgsConstructor // Lombokのアノテーションで、全引数コンストラクタを自動生成
 @Entity // このクラスがJPAエンティティであることを示す
-@Table(name = "post_entity") // データベースの'post_entity'テーブルに対応付け
+@Table(name = "post_entity", indexes = { // データベースの'post_entity'テーブルに対応付け
+        @Index(name = "idx_post_created_id", columnList = "created_at, id"), // フィードのキーセットページング用
+        @Index(name = "idx_post_user_created_id", columnList = "user_id, created_at, id")
+})
 public class PostEntity {
 
     @Id // 主キーであることを示す
@@ -0,0 +1,75 @@
+package com.sfr.tokyo.sfr_backend.entity.crypto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * AI決定ログのアーカイブセグメント
+ * 保持期間を過ぎた AI 決定ログを決定日ごとにまとめ、列単位に並べて圧縮した追記専用のブロック。
+ * ID 範囲と決定日時範囲を疎インデックスとして持ち、読み出し時は該当セグメントだけを展開する。
+ */
+@Entity
+@Table(name = "ai_decision_log_segments", indexes = {
+    @Index(name = "idx_ai_decision_log_segments_day", columnList = "segment_day"),
+    @Index(name = "idx_ai_decision_log_segments_ids", columnList = "min_log_id, max_log_id"),
+    @Index(name = "idx_ai_decision_log_segments_dates", columnList = "min_decision_date, max_decision_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiDecisionLogSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "segment_day", nullable = false)
+    private LocalDate segmentDay;
+
+    @Column(name = "min_log_id", nullable = false)
+    private Long minLogId;
+
+    @Column(name = "max_log_id", nullable = false)
+    private Long maxLogId;
+
+    @Column(name = "min_decision_date", nullable = false)
+    private LocalDateTime minDecisionDate;
+
+    @Column(name = "max_decision_date", nullable = false)
+    private LocalDateTime maxDecisionDate;
+
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount;
+
+    @Column(name = "format_version", nullable = false)
+    private Integer formatVersion;
+
+    @Column(name = "raw_bytes", nullable = false)
+    private Long rawBytes; // 圧縮前サイズ
+
+    @Column(name = "compressed_bytes", nullable = false)
+    private Long compressedBytes;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    @ToString.Exclude
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
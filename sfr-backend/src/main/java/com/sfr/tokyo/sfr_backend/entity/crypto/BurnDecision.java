@@ -20,7 +20,12 @@ import java.util.UUID;
         @Index(name = "idx_burn_decisions_decision_date", columnList = "decision_date"),
         @Index(name = "idx_burn_decisions_status", columnList = "status"),
         @Index(name = "idx_burn_decisions_decision_type", columnList = "decision_type"),
-        @Index(name = "idx_burn_decisions_proposal_id", columnList = "proposal_id")
+        @Index(name = "idx_burn_decisions_proposal_id", columnList = "proposal_id"),
+        @Index(name = "idx_burn_decisions_status_date", columnList = "status, decision_date"),
+        @Index(name = "idx_burn_decisions_space_status_date", columnList = "space_id, status, decision_date"),
+        @Index(name = "idx_burn_decisions_status_voting_end", columnList = "status, voting_end_date"),
+        @Index(name = "idx_burn_decisions_date_status_type", columnList = "decision_date, status, decision_type"),
+        @Index(name = "idx_burn_decisions_actual_amount", columnList = "actual_burn_amount")
 })
 @Data
 @NoArgsConstructor
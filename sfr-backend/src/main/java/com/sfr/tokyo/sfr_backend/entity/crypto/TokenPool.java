@@ -125,6 +125,13 @@ public class TokenPool {
     @NotNull(message = "管理者IDは必須です")
     private UUID adminUserId;
 
+    /**
+     * バージョン番号（楽観ロック）
+     */
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
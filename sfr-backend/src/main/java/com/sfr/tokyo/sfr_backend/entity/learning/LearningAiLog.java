@@ -1,5 +1,6 @@
 package com.sfr.tokyo.sfr_backend.entity.learning;
 
+import com.sfr.tokyo.sfr_backend.repository.support.AssignableSequence;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -21,12 +22,17 @@ import java.util.UUID;
         @Index(name = "idx_learning_ai_logs_space", columnList = "space_id"),
         @Index(name = "idx_learning_ai_logs_type", columnList = "ai_type"),
         @Index(name = "idx_learning_ai_logs_user_type_created", columnList = "user_id, ai_type, created_at"),
-        @Index(name = "idx_learning_ai_logs_session", columnList = "session_id")
+        @Index(name = "idx_learning_ai_logs_session", columnList = "session_id"),
+        @Index(name = "idx_learning_ai_logs_processing_time", columnList = "processing_time_ms")
 })
 public class LearningAiLog {
 
+    /**
+     * ID（取り込みキューからまとめて INSERT するため SEQUENCE 採番）
+     * キューに置くログは受け付けた時点で採番し、そのIDのまま INSERT する
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @AssignableSequence(sequenceName = "learning_ai_log_seq", incrementSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,145 @@
+package com.sfr.tokyo.sfr_backend.entity.learning;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.AiType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AI学習ログの時間別集計
+ * (集計単位, 単位のID, AIタイプ, 粒度, バケット開始時刻) ごとに件数・エラー件数・満足度合計・処理時間の分布を持つ。
+ * 行はログの取り込み時に加算され、満足度の更新時は満足度の列だけを差し替える。
+ * 分単位の行は直近の期間だけ保持し、時間単位の行は全期間を保持する。
+ */
+@Entity
+@Table(name = "learning_ai_log_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ai_log_rollups_bucket",
+            columnNames = { "scope_type", "scope_id", "ai_type", "granularity", "bucket_start" })
+}, indexes = {
+    @Index(name = "idx_ai_log_rollups_granularity_start", columnList = "granularity, bucket_start")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningAiLogRollup {
+
+    /** 全体集計の scope_id（一意制約に NULL を含めないための固定値） */
+    public static final UUID GLOBAL_SCOPE_ID = new UUID(0L, 0L);
+
+    /** 処理時間の分布の上限（ミリ秒）。最後の区間はこれを超えたもの */
+    public static final long[] LATENCY_BOUNDS_MS = { 100, 500, 1000, 2000, 5000 };
+
+    public enum ScopeType {
+        USER, SPACE, GLOBAL
+    }
+
+    public enum Granularity {
+        MINUTE, HOUR
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ai_log_rollup_seq")
+    @SequenceGenerator(name = "ai_log_rollup_seq", sequenceName = "ai_log_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 20)
+    private ScopeType scopeType;
+
+    /** ユーザーID・スペースID（全体集計は {@link #GLOBAL_SCOPE_ID}） */
+    @Column(name = "scope_id", nullable = false)
+    private UUID scopeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ai_type", nullable = false, length = 50)
+    private AiType aiType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private Granularity granularity;
+
+    /** バケットの開始時刻（分または時の頭） */
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Builder.Default
+    @Column(name = "request_count", nullable = false)
+    private Long requestCount = 0L;
+
+    @Builder.Default
+    @Column(name = "error_count", nullable = false)
+    private Long errorCount = 0L;
+
+    @Builder.Default
+    @Column(name = "satisfaction_sum", nullable = false)
+    private Long satisfactionSum = 0L;
+
+    @Builder.Default
+    @Column(name = "satisfaction_count", nullable = false)
+    private Long satisfactionCount = 0L;
+
+    @Builder.Default
+    @Column(name = "confidence_sum", nullable = false, precision = 19, scale = 4)
+    private BigDecimal confidenceSum = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "confidence_count", nullable = false)
+    private Long confidenceCount = 0L;
+
+    @Builder.Default
+    @Column(name = "processing_time_sum", nullable = false)
+    private Long processingTimeSum = 0L;
+
+    @Builder.Default
+    @Column(name = "processing_time_count", nullable = false)
+    private Long processingTimeCount = 0L;
+
+    @Builder.Default
+    @Column(name = "tokens_sum", nullable = false)
+    private Long tokensSum = 0L;
+
+    @Builder.Default
+    @Column(name = "latency_le_100", nullable = false)
+    private Long latencyLe100 = 0L;
+
+    @Builder.Default
+    @Column(name = "latency_le_500", nullable = false)
+    private Long latencyLe500 = 0L;
+
+    @Builder.Default
+    @Column(name = "latency_le_1000", nullable = false)
+    private Long latencyLe1000 = 0L;
+
+    @Builder.Default
+    @Column(name = "latency_le_2000", nullable = false)
+    private Long latencyLe2000 = 0L;
+
+    @Builder.Default
+    @Column(name = "latency_le_5000", nullable = false)
+    private Long latencyLe5000 = 0L;
+
+    @Builder.Default
+    @Column(name = "latency_gt_5000", nullable = false)
+    private Long latencyGt5000 = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -28,12 +28,19 @@ import java.util.UUID;
         @Index(name = "idx_comment_thread", columnList = "topic_id, parent_comment_id, created_at"),
         @Index(name = "idx_comment_moderation", columnList = "requires_moderation, moderation_status"),
         @Index(name = "idx_comment_active", columnList = "comment_status, created_at"),
-        @Index(name = "idx_comment_popular", columnList = "like_count, quality_score")
+        @Index(name = "idx_comment_popular", columnList = "like_count, quality_score"),
+        @Index(name = "idx_comment_thread_path", columnList = "topic_id, thread_path")
 })
 public class LearningComment {
 
+    /** スレッドパスの1階層分の桁数（36進数、Long の正の範囲を表せる桁数） */
+    private static final int THREAD_PATH_SEGMENT_LENGTH = 13;
+
+    private static final char THREAD_PATH_SEPARATOR = '/';
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "learning_comment_seq")
+    @SequenceGenerator(name = "learning_comment_seq", sequenceName = "learning_comment_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "topic_id", nullable = false)
@@ -148,6 +155,16 @@ public class LearningComment {
     @Min(value = 1, message = "スレッド位置は1以上である必要があります")
     private Integer threadPosition = 1;
 
+    /**
+     * 経路列挙（materialized path）
+     * ルートから自身までの ID を固定長の36進数で連結したもの。辞書順がスレッドの深さ優先順になる
+     */
+    @Column(name = "thread_path", length = 255)
+    private String threadPath;
+
+    @Column(name = "root_comment_id")
+    private Long rootCommentId;
+
     @Column(name = "last_edited_at")
     private LocalDateTime lastEditedAt;
 
@@ -527,6 +544,33 @@ public class LearningComment {
         }
     }
 
+    /**
+     * スレッド上の位置（経路・ルート・深度）を設定する
+     * ID の採番後（persist 後）に呼び出すこと
+     */
+    public void placeInThread(LearningComment parentComment) {
+        String segment = Long.toString(id, Character.MAX_RADIX);
+        String padded = "0".repeat(THREAD_PATH_SEGMENT_LENGTH - segment.length()) + segment
+                + THREAD_PATH_SEPARATOR;
+        if (parentComment != null) {
+            // 親の経路が未設定（移行前のデータ）の場合は補完ジョブに任せる
+            this.threadPath = parentComment.getThreadPath() != null ? parentComment.getThreadPath() + padded : null;
+            this.rootCommentId = parentComment.getRootCommentId();
+        } else {
+            this.threadPath = padded;
+            this.rootCommentId = id;
+        }
+        calculateAndSetDepthLevel(parentComment);
+    }
+
+    /**
+     * 経路 path 配下（自身を含む）の範囲の上限（この値未満）
+     * 区切り文字の次の文字コードに置き換えることで、path で始まる文字列だけを含む半開区間になる
+     */
+    public static String threadPathUpperBound(String path) {
+        return path.substring(0, path.length() - 1) + (char) (THREAD_PATH_SEPARATOR + 1);
+    }
+
     /**
      * スレッド位置計算・設定
      */
@@ -598,6 +642,22 @@ public class LearningComment {
         return id;
     }
 
+    public String getThreadPath() {
+        return threadPath;
+    }
+
+    public void setThreadPath(String threadPath) {
+        this.threadPath = threadPath;
+    }
+
+    public Long getRootCommentId() {
+        return rootCommentId;
+    }
+
+    public void setRootCommentId(Long rootCommentId) {
+        this.rootCommentId = rootCommentId;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
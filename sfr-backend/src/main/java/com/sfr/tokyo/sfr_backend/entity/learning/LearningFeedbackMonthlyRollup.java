@@ -0,0 +1,56 @@
+package com.sfr.tokyo.sfr_backend.entity.learning;
+
+import java.time.LocalDateTime;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.FeedbackType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * フィードバックの月別・タイプ別件数
+ * 作成月（yyyy-MM）とフィードバックタイプごとに集計対象の件数を持つ。
+ * 新しい月の行は最初のフィードバックで追加され、過去月の行は削除やモデレーションで対象外になった分だけ減算する。
+ */
+@Entity
+@Table(name = "learning_feedback_monthly_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_feedback_monthly_rollups_month_type", columnNames = { "period_month", "feedback_type" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningFeedbackMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_monthly_rollup_seq")
+    @SequenceGenerator(name = "feedback_monthly_rollup_seq", sequenceName = "feedback_monthly_rollup_seq", allocationSize = 50)
+    private Long id;
+
+    /** 作成月（yyyy-MM） */
+    @Column(name = "period_month", nullable = false, length = 7)
+    private String periodMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "feedback_type", nullable = false, length = 50)
+    private FeedbackType feedbackType;
+
+    @Builder.Default
+    @Column(name = "feedback_count", nullable = false)
+    private Long feedbackCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,79 @@
+package com.sfr.tokyo.sfr_backend.entity.learning;
+
+import java.time.LocalDateTime;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.TargetType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 対象別の評価サマリー
+ * 集計対象のフィードバック（未削除かつモデレーションで拒否されていないもの）の件数・評価合計・評価1〜5の件数を
+ * 対象ごとに1行で持つ。フィードバックの作成・更新・削除・モデレーション時に差分で加減算する。
+ */
+@Entity
+@Table(name = "learning_feedback_rating_summaries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_feedback_rating_summaries_target", columnNames = { "target_type", "target_id" })
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningFeedbackRatingSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_rating_summary_seq")
+    @SequenceGenerator(name = "feedback_rating_summary_seq", sequenceName = "feedback_rating_summary_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 50)
+    private TargetType targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Builder.Default
+    @Column(name = "feedback_count", nullable = false)
+    private Long feedbackCount = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_1_count", nullable = false)
+    private Long rating1Count = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_2_count", nullable = false)
+    private Long rating2Count = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_3_count", nullable = false)
+    private Long rating3Count = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_4_count", nullable = false)
+    private Long rating4Count = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_5_count", nullable = false)
+    private Long rating5Count = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -457,12 +457,18 @@ public class LearningForum {
      * 自動クローズ対象かチェック
      */
     public boolean shouldAutoClose() {
+        LocalDateTime closeDate = getAutoCloseAt();
+        return closeDate != null && LocalDateTime.now().isAfter(closeDate) && isActive();
+    }
+
+    /**
+     * 自動クローズ予定日時（最終アクティビティ + 自動クローズ日数、未設定なら null）
+     */
+    public LocalDateTime getAutoCloseAt() {
         if (autoCloseDays == null || autoCloseDays <= 0 || lastActivityAt == null) {
-            return false;
+            return null;
         }
-
-        LocalDateTime closeDate = lastActivityAt.plusDays(autoCloseDays);
-        return LocalDateTime.now().isAfter(closeDate) && isActive();
+        return lastActivityAt.plusDays(autoCloseDays);
     }
 
     /**
@@ -17,8 +17,10 @@ import java.util.UUID;
         "ranking_type" }))
 public class LearningRanking {
 
+    // 一括更新で INSERT を JDBC バッチにまとめるため、IDENTITY ではなくプール付きシーケンスで採番する
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "learning_ranking_seq")
+    @SequenceGenerator(name = "learning_ranking_seq", sequenceName = "learning_ranking_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false, columnDefinition = "CHAR(36)")
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -17,8 +18,11 @@ import java.util.UUID;
  * 
  * このエンティティは、各種学習シミュレーション（ビジネスケース、科学実験、
  * 言語練習など）の進行状況と結果を管理します。
+ * 状態データ・フィードバックデータは差分ログからのスナップショットで、書き戻しは SimulationStateStore だけが行う。
+ * 状態遷移などの保存でこれらの列を書き直さないよう、UPDATE は変更した列だけを対象にする。
  */
 @Entity
+@DynamicUpdate
 @Table(name = "learning_simulation", indexes = {
         @Index(name = "idx_learning_simulation_user_id", columnList = "user_id"),
         @Index(name = "idx_learning_simulation_type", columnList = "simulation_type"),
@@ -147,6 +151,14 @@ public class LearningSimulation {
     @Column(name = "feedback_data", columnDefinition = "JSON")
     private String feedbackData;
 
+    /** state_data に取り込み済みの差分の seq（これより後の差分を適用すると現在の状態になる） */
+    @Column(name = "state_snapshot_seq", nullable = false)
+    private Long stateSnapshotSeq = 0L;
+
+    /** feedback_data に取り込み済みの差分の seq */
+    @Column(name = "feedback_snapshot_seq", nullable = false)
+    private Long feedbackSnapshotSeq = 0L;
+
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
@@ -252,10 +264,7 @@ public class LearningSimulation {
      * 進行状況を更新する
      */
     public void updateProgress(BigDecimal progressPercentage) {
-        this.progressPercentage = progressPercentage;
-        if (progressPercentage.compareTo(new BigDecimal("100.00")) >= 0) {
-            this.progressPercentage = new BigDecimal("100.00");
-        }
+        this.progressPercentage = clampProgress(progressPercentage);
         this.lastAccessedAt = LocalDateTime.now();
     }
 
@@ -265,16 +274,36 @@ public class LearningSimulation {
     public void updateStepProgress(Integer currentStep) {
         this.currentStep = currentStep;
 
-        if (this.totalSteps != null && this.totalSteps > 0) {
-            BigDecimal stepProgress = new BigDecimal(currentStep)
-                    .divide(new BigDecimal(this.totalSteps), 4, RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
+        BigDecimal stepProgress = progressForStep(currentStep, this.totalSteps);
+        if (stepProgress != null) {
             updateProgress(stepProgress);
         }
 
         this.lastAccessedAt = LocalDateTime.now();
     }
 
+    /**
+     * 進行率を100%までに丸める
+     */
+    public static BigDecimal clampProgress(BigDecimal progressPercentage) {
+        if (progressPercentage.compareTo(new BigDecimal("100.00")) >= 0) {
+            return new BigDecimal("100.00");
+        }
+        return progressPercentage;
+    }
+
+    /**
+     * ステップ位置から進行率を求める（総ステップ数が未設定なら null）
+     */
+    public static BigDecimal progressForStep(Integer currentStep, Integer totalSteps) {
+        if (currentStep == null || totalSteps == null || totalSteps <= 0) {
+            return null;
+        }
+        return new BigDecimal(currentStep)
+                .divide(new BigDecimal(totalSteps), 4, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100"));
+    }
+
     /**
      * 試行回数をインクリメントする
      */
@@ -495,6 +524,22 @@ public class LearningSimulation {
         this.feedbackData = feedbackData;
     }
 
+    public Long getStateSnapshotSeq() {
+        return stateSnapshotSeq;
+    }
+
+    public void setStateSnapshotSeq(Long stateSnapshotSeq) {
+        this.stateSnapshotSeq = stateSnapshotSeq;
+    }
+
+    public Long getFeedbackSnapshotSeq() {
+        return feedbackSnapshotSeq;
+    }
+
+    public void setFeedbackSnapshotSeq(Long feedbackSnapshotSeq) {
+        this.feedbackSnapshotSeq = feedbackSnapshotSeq;
+    }
+
     public LocalDateTime getStartedAt() {
         return startedAt;
     }
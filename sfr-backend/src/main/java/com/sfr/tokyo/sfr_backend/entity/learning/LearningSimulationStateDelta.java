@@ -0,0 +1,68 @@
+package com.sfr.tokyo.sfr_backend.entity.learning;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * シミュレーションの状態データ・フィードバックデータの差分ログ
+ * 1行が1リクエスト分の JSON Patch 操作列。シミュレーション行のスナップショット（*_snapshot_seq までを反映済み）に
+ * seq 順で適用すると現在の文書になる。スナップショットに取り込まれた行は猶予期間の後に削除する。
+ */
+@Entity
+@Table(name = "learning_simulation_state_deltas", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_simulation_state_deltas_seq", columnNames = { "simulation_id", "channel", "seq" })
+}, indexes = {
+    @Index(name = "idx_simulation_state_deltas_created_at", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningSimulationStateDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "simulation_state_delta_seq")
+    @SequenceGenerator(name = "simulation_state_delta_seq", sequenceName = "simulation_state_delta_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "simulation_id", nullable = false)
+    private Long simulationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false, length = 20)
+    private Channel channel;
+
+    /** シミュレーション・チャネルごとの連番（スナップショットの seq から続く） */
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+
+    /** JSON Patch 操作列 */
+    @Column(name = "patch", nullable = false, columnDefinition = "TEXT")
+    private String patch;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 差分の対象となる文書
+     */
+    public enum Channel {
+        STATE, // state_data
+        FEEDBACK // feedback_data
+    }
+}
@@ -3,6 +3,8 @@ package com.sfr.tokyo.sfr_backend.entity.learning;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SecondaryRow;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -11,30 +13,36 @@ import java.util.UUID;
 
 /**
  * 学習トピック エンティティ - LearningTopic
+ *
+ * 閲覧数・いいね数などのカウンターは learning_topic_stats に分けて持つ（トピックごとに必ず1行あり、内部結合で読む）。
+ * 閲覧やいいねのたびに本体の行とその索引を書き換えないよう、カウンターの加算は
+ * {@link LearningTopicStats} に対して行い、本体側は変更した列だけを UPDATE する。
+ * スコアは再計算時にしか変わらず、スコア順の一覧で索引を使うため本体に残している。
+ * 一覧用の索引は LearningTopicRepository のクエリ（等価条件 → deleted_at → 並び順）に合わせた複合索引にしている。
  */
 @Entity
+@DynamicUpdate
 @Table(name = "learning_topic", indexes = {
-        @Index(name = "idx_topic_forum_id", columnList = "forum_id"),
-        @Index(name = "idx_topic_creator_id", columnList = "creator_id"),
-        @Index(name = "idx_topic_status", columnList = "topic_status"),
-        @Index(name = "idx_topic_priority", columnList = "priority"),
+        @Index(name = "idx_topic_forum_pinned_created", columnList = "forum_id, deleted_at, is_pinned, created_at"),
+        @Index(name = "idx_topic_forum_created", columnList = "forum_id, deleted_at, created_at"),
+        @Index(name = "idx_topic_forum_activity", columnList = "forum_id, deleted_at, last_activity_at"),
+        @Index(name = "idx_topic_forum_status_activity", columnList = "forum_id, topic_status, deleted_at, is_pinned, last_activity_at"),
+        @Index(name = "idx_topic_forum_solved_created", columnList = "forum_id, is_solved, deleted_at, created_at"),
+        @Index(name = "idx_topic_status_activity", columnList = "topic_status, deleted_at, is_pinned, last_activity_at"),
+        @Index(name = "idx_topic_status_created", columnList = "topic_status, deleted_at, created_at"),
+        @Index(name = "idx_topic_creator_created", columnList = "creator_id, deleted_at, created_at"),
+        @Index(name = "idx_topic_type_solved_created", columnList = "topic_type, is_solved, deleted_at, created_at"),
+        @Index(name = "idx_topic_moderation_created", columnList = "moderation_status, deleted_at, created_at"),
+        @Index(name = "idx_topic_moderator", columnList = "moderator_id, moderated_at"),
         @Index(name = "idx_topic_created_at", columnList = "created_at"),
         @Index(name = "idx_topic_last_activity", columnList = "last_activity_at"),
+        @Index(name = "idx_topic_auto_close", columnList = "auto_close_at"),
         @Index(name = "idx_topic_activity_score", columnList = "activity_score"),
         @Index(name = "idx_topic_quality_score", columnList = "quality_score"),
-        @Index(name = "idx_topic_popularity_score", columnList = "popularity_score"),
-        @Index(name = "idx_topic_is_pinned", columnList = "is_pinned"),
-        @Index(name = "idx_topic_is_locked", columnList = "is_locked"),
-        @Index(name = "idx_topic_is_solved", columnList = "is_solved"),
-        @Index(name = "idx_topic_is_featured", columnList = "is_featured"),
-        @Index(name = "idx_topic_view_count", columnList = "view_count"),
-        @Index(name = "idx_topic_like_count", columnList = "like_count"),
-        @Index(name = "idx_topic_comment_count", columnList = "comment_count"),
-        @Index(name = "idx_topic_composite", columnList = "forum_id, topic_status, created_at"),
-        @Index(name = "idx_topic_search", columnList = "title, content"),
-        @Index(name = "idx_topic_engagement", columnList = "view_count, like_count, comment_count"),
-        @Index(name = "idx_topic_moderation", columnList = "requires_moderation, moderation_status")
+        @Index(name = "idx_topic_popularity_score", columnList = "popularity_score")
 })
+@SecondaryTable(name = LearningTopicStats.TABLE_NAME, pkJoinColumns = @PrimaryKeyJoinColumn(name = "topic_id"))
+@SecondaryRow(table = LearningTopicStats.TABLE_NAME, optional = false)
 public class LearningTopic {
 
     @Id
@@ -78,23 +86,23 @@ public class LearningTopic {
     @Size(max = 500, message = "タグは500文字以内で入力してください")
     private String tags;
 
-    @Column(name = "view_count", nullable = false)
+    @Column(table = LearningTopicStats.TABLE_NAME, name = "view_count", nullable = false)
     @Min(value = 0, message = "閲覧数は0以上である必要があります")
     private Integer viewCount = 0;
 
-    @Column(name = "like_count", nullable = false)
+    @Column(table = LearningTopicStats.TABLE_NAME, name = "like_count", nullable = false)
     @Min(value = 0, message = "いいね数は0以上である必要があります")
     private Integer likeCount = 0;
 
-    @Column(name = "comment_count", nullable = false)
+    @Column(table = LearningTopicStats.TABLE_NAME, name = "comment_count", nullable = false)
     @Min(value = 0, message = "コメント数は0以上である必要があります")
     private Integer commentCount = 0;
 
-    @Column(name = "bookmark_count", nullable = false)
+    @Column(table = LearningTopicStats.TABLE_NAME, name = "bookmark_count", nullable = false)
     @Min(value = 0, message = "ブックマーク数は0以上である必要があります")
     private Integer bookmarkCount = 0;
 
-    @Column(name = "share_count", nullable = false)
+    @Column(table = LearningTopicStats.TABLE_NAME, name = "share_count", nullable = false)
     @Min(value = 0, message = "シェア数は0以上である必要があります")
     private Integer shareCount = 0;
 
@@ -0,0 +1,52 @@
+package com.sfr.tokyo.sfr_backend.entity.learning;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * トピックのカウンター
+ * {@link LearningTopic} の二次テーブル learning_topic_stats をそのまま写したもので、行はトピックの登録時に一緒に作られる。
+ * 閲覧数やいいね数の加算はこのエンティティへの一括更新で行い、トピック本体の行・索引・更新日時には触れない。
+ * 主キー以外の索引は張らないため、加算で書き換わるのはこの行だけになる。
+ */
+@Entity
+@Table(name = LearningTopicStats.TABLE_NAME)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LearningTopicStats {
+
+    public static final String TABLE_NAME = "learning_topic_stats";
+
+    /** learning_topic.id */
+    @Id
+    @Column(name = "topic_id")
+    private Long topicId;
+
+    @Builder.Default
+    @Column(name = "view_count", nullable = false)
+    private Integer viewCount = 0;
+
+    @Builder.Default
+    @Column(name = "like_count", nullable = false)
+    private Integer likeCount = 0;
+
+    @Builder.Default
+    @Column(name = "comment_count", nullable = false)
+    private Integer commentCount = 0;
+
+    @Builder.Default
+    @Column(name = "bookmark_count", nullable = false)
+    private Integer bookmarkCount = 0;
+
+    @Builder.Default
+    @Column(name = "share_count", nullable = false)
+    private Integer shareCount = 0;
+}
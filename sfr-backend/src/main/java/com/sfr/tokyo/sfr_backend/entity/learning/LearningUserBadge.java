@@ -15,7 +15,8 @@ import java.util.UUID;
 public class LearningUserBadge {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "learning_user_badge_seq")
+    @SequenceGenerator(name = "learning_user_badge_seq", sequenceName = "learning_user_badge_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false, columnDefinition = "CHAR(36)")
@@ -0,0 +1,69 @@
+package com.sfr.tokyo.sfr_backend.entity.shop;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 限定アイテム在庫予約エンティティ
+ * チェックアウト中の在庫を有効期限付きで確保する。
+ * 予約時点で在庫から差し引き、期限切れ・取消時に在庫へ戻す。
+ */
+@Entity
+@Table(name = "limited_item_reservations", indexes = {
+    @Index(name = "idx_limited_item_reservations_status_expires", columnList = "status, expires_at"),
+    @Index(name = "idx_limited_item_reservations_item_status", columnList = "item_id, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LimitedItemReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "buyer_id", nullable = false, length = 36)
+    private String buyerId;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Enum: 予約ステータス
+    public enum ReservationStatus {
+        HELD,       // 確保中
+        CONFIRMED,  // 購入確定
+        RELEASED,   // 取消
+        EXPIRED     // 期限切れ
+    }
+}
@@ -0,0 +1,76 @@
+package com.sfr.tokyo.sfr_backend.entity.system;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 期限登録エンティティ
+ * 自動クローズ・有効期限・タイムアウトなど、対象ごとに次に処理すべき日時を1行で保持する。
+ * 期限到来時に対象の状態を更新し、行を削除する。
+ */
+@Entity
+@Table(name = "scheduled_deadlines", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_scheduled_deadlines_kind_target", columnNames = { "kind", "target_id" })
+}, indexes = {
+    @Index(name = "idx_scheduled_deadlines_due_at", columnList = "due_at"),
+    @Index(name = "idx_scheduled_deadlines_kind_due_at", columnList = "kind, due_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledDeadline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_deadline_seq")
+    @SequenceGenerator(name = "scheduled_deadline_seq", sequenceName = "scheduled_deadline_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 40)
+    private DeadlineKind kind;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * 期限の種類（対象テーブルと期限到来時の処理）
+     */
+    public enum DeadlineKind {
+        /** 学習トピックの自動クローズ（autoCloseAt） */
+        TOPIC_AUTO_CLOSE,
+        /** 学習フォーラムの自動アーカイブ（最終アクティビティ + autoCloseDays） */
+        FORUM_AUTO_CLOSE,
+        /** アンケートの回答期限切れ（dueDate） */
+        SURVEY_EXPIRY,
+        /** 実行中シミュレーションのタイムアウト（最終アクセス + タイムアウト時間） */
+        SIMULATION_TIMEOUT,
+        /** 未配布リワードの有効期限切れ（expiresAt） */
+        REWARD_EXPIRY,
+        /** 分析レポートの有効期限切れ（expiresAt） */
+        REPORT_EXPIRY,
+        /** 回答済みフィードバックの自動クローズ（回答日時 + 猶予日数） */
+        FEEDBACK_AUTO_CLOSE
+    }
+}
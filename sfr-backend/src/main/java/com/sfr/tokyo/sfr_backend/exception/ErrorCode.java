@@ -17,6 +17,9 @@ public enum ErrorCode {
     MANIFESTO_QA_CLOSED(HttpStatus.BAD_REQUEST, "Manifesto Q&A closed"),
     VOTER_INSUFFICIENT_BALANCE(HttpStatus.BAD_REQUEST, "Insufficient SFR balance"),
     VOTER_INSUFFICIENT_ACTIVITY(HttpStatus.BAD_REQUEST, "Insufficient activity score"),
+    MALWARE_DETECTED(HttpStatus.UNPROCESSABLE_ENTITY, "Upload rejected by virus scan"),
+    OUT_OF_STOCK(HttpStatus.CONFLICT, "Out of stock"),
+    CONFLICT(HttpStatus.CONFLICT, "Resource was modified concurrently, please retry"),
 
     // generic business fallback
     BUSINESS_RULE_VIOLATION(HttpStatus.BAD_REQUEST, "Business rule violation"),
@@ -28,9 +31,11 @@ public enum ErrorCode {
     MANIFESTO_NOT_FOUND(HttpStatus.NOT_FOUND, "Manifesto not found"),
     FORBIDDEN(HttpStatus.FORBIDDEN, "Access denied"),
     AUTH_INVALID_CREDENTIALS(HttpStatus.UNAUTHORIZED, "Invalid credentials"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please retry later"),
 
     // 5xx
-    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error"),
+    SCAN_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "Virus scanner unavailable");
 
     private final HttpStatus status;
     private final String defaultMessage;
@@ -22,6 +22,7 @@ public interface CharacterMapper {
      * @return 変換されたDTO
      */
     @Mapping(source = "user.id", target = "userId")
+    @Mapping(target = "imageVariantUrls", ignore = true) // 生成済みの派生画像のみをサービス側で設定
     CharacterDto toDto(CharacterLifecycle character);
 
     /**
@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 
 import com.sfr.tokyo.sfr_backend.dto.CommentDto;
 import com.sfr.tokyo.sfr_backend.entity.Comment;
+import com.sfr.tokyo.sfr_backend.repository.projection.CommentFeedRow;
 
 import java.util.List;
 
@@ -34,6 +35,14 @@ public interface CommentMapper {
      */
     List<CommentDto> toDtoList(List<Comment> comments);
 
+    /**
+     * フィード用プロジェクションをDTOに変換
+     * 
+     * @param row 投稿者名を結合済みのコメントプロジェクション
+     * @return 変換されたDTO
+     */
+    CommentDto fromFeedRow(CommentFeedRow row);
+
     /**
      * CommentDTOをエンティティに変換
      * 
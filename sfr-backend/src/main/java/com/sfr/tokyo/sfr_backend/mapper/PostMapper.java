@@ -5,7 +5,9 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 import com.sfr.tokyo.sfr_backend.dto.PostDto;
+import com.sfr.tokyo.sfr_backend.dto.PostFeedItemDto;
 import com.sfr.tokyo.sfr_backend.entity.PostEntity;
+import com.sfr.tokyo.sfr_backend.repository.projection.PostFeedRow;
 
 import java.util.List;
 
@@ -22,6 +24,7 @@ public interface PostMapper {
      * @return 変換されたDTO
      */
     @Mapping(source = "user.id", target = "userId")
+    @Mapping(target = "variantUrls", ignore = true) // 生成済みの派生画像のみをサービス側で設定
     PostDto toDto(PostEntity post);
 
     /**
@@ -32,6 +35,16 @@ public interface PostMapper {
      */
     List<PostDto> toDtoList(List<PostEntity> posts);
 
+    /**
+     * フィード用プロジェクションを一覧表示用DTOに変換
+     * 
+     * @param row          投稿プロジェクション
+     * @param commentCount 一括集計したコメント数
+     * @return フィード項目DTO
+     */
+    @Mapping(target = "variantUrls", ignore = true)
+    PostFeedItemDto toFeedItem(PostFeedRow row, long commentCount);
+
     /**
      * PostDTOをエンティティに変換
      * 
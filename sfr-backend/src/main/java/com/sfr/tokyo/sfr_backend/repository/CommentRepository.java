@@ -1,5 +1,6 @@
 package com.sfr.tokyo.sfr_backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,10 +12,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.sfr.tokyo.sfr_backend.entity.Comment;
+import com.sfr.tokyo.sfr_backend.repository.projection.CommentFeedRow;
 
 /**
  * コメント情報を管理するリポジトリ
- * 推奨インデックス：post_id（外部キー）
+ * 推奨インデックス：post_id（外部キー）, (post_id, created_at, id)
  */
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -69,4 +71,32 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
             "INNER JOIN (SELECT post_id, MAX(created_at) as max_date FROM comments GROUP BY post_id) latest " +
             "ON c.post_id = latest.post_id AND c.created_at = latest.max_date", nativeQuery = true)
     List<Comment> findLatestCommentForEachPost();
+
+    /**
+     * 投稿のコメント先頭ページを (created_at, id) の昇順で取得（投稿者名を結合済み）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.CommentFeedRow("
+            + "c.id, c.content, c.post.id, u.id, u.firstname, c.createdAt) "
+            + "FROM Comment c JOIN c.user u WHERE c.post.id = :postId "
+            + "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentFeedRow> findFeedFirstPage(@Param("postId") Long postId, Pageable pageable);
+
+    /**
+     * 前ページ末尾の (created_at, id) より後ろのコメントを取得（キーセットページング）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.CommentFeedRow("
+            + "c.id, c.content, c.post.id, u.id, u.firstname, c.createdAt) "
+            + "FROM Comment c JOIN c.user u WHERE c.post.id = :postId "
+            + "AND (c.createdAt > :afterCreatedAt OR (c.createdAt = :afterCreatedAt AND c.id > :afterId)) "
+            + "ORDER BY c.createdAt ASC, c.id ASC")
+    List<CommentFeedRow> findFeedPageAfter(@Param("postId") Long postId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * 複数投稿のコメント数を1クエリで集計（[postId, count] の配列）
+     */
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countByPostIdIn(@Param("postIds") List<Long> postIds);
 }
@@ -12,13 +12,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.sfr.tokyo.sfr_backend.entity.PostEntity;
+import com.sfr.tokyo.sfr_backend.repository.custom.PostRepositoryCustom;
 
 /**
  * 投稿情報を管理するリポジトリ
  * 推奨インデックス：character_id, created_at（複合インデックス）
+ * フィード用インデックス：(created_at, id), (user_id, created_at, id)
  */
 @Repository
-public interface PostRepository extends JpaRepository<PostEntity, Long> {
+public interface PostRepository extends JpaRepository<PostEntity, Long>, PostRepositoryCustom {
 
     /**
      * ユーザーIDに紐づく投稿を取得
@@ -1,16 +1,22 @@
 package com.sfr.tokyo.sfr_backend.repository.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLog;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -54,6 +60,38 @@ public interface AiDecisionLogRepository
     @Query("SELECT adl FROM AiDecisionLog adl WHERE adl.decisionDate >= :since ORDER BY adl.decisionDate DESC")
     Page<AiDecisionLog> findByDecisionDateAfter(@Param("since") LocalDateTime since, Pageable pageable);
 
+    /**
+     * 決定日時範囲のログを ID 順に1ページ分取得する（afterId より後ろ、削除が並行しても取りこぼさない）
+     */
+    @Query("SELECT adl FROM AiDecisionLog adl WHERE adl.decisionDate BETWEEN :startDate AND :endDate " +
+            "AND adl.id > :afterId ORDER BY adl.id")
+    List<AiDecisionLog> findByDecisionDateBetweenAfterId(@Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // ===== アーカイブ =====
+    /**
+     * 保持期限を過ぎた確定済みのログ（ID 順）
+     * 読んだ行はトランザクション終了までロックし、他のノードのアーカイブがロック中の行は読み飛ばす（SKIP LOCKED）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT adl FROM AiDecisionLog adl WHERE adl.decisionDate < :cutoff AND adl.status IN :statuses " +
+            "ORDER BY adl.id")
+    List<AiDecisionLog> findArchivable(@Param("cutoff") LocalDateTime cutoff,
+            @Param("statuses") Collection<AiDecisionLog.DecisionStatus> statuses,
+            Pageable pageable);
+
+    /**
+     * アーカイブへ移したログを削除する
+     *
+     * @return 削除した行数
+     */
+    @Modifying
+    @Query("DELETE FROM AiDecisionLog adl WHERE adl.id IN :ids")
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+
     // ===== 統計メソッド =====
     @Query("SELECT COUNT(adl) FROM AiDecisionLog adl WHERE adl.executedBy = :userId")
     Long countDecisionsByExecutor(@Param("userId") UUID userId);
@@ -0,0 +1,52 @@
+package com.sfr.tokyo.sfr_backend.repository.crypto;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLogSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * AiDecisionLogSegmentRepository
+ * AI決定ログのアーカイブセグメントのデータアクセス層
+ * セグメントの特定は ID・日時範囲の列だけで行い、圧縮本体は必要なセグメントの分だけ読み込む
+ */
+@Repository
+public interface AiDecisionLogSegmentRepository extends JpaRepository<AiDecisionLogSegment, Long> {
+
+    /**
+     * 指定ログIDを含み得るセグメントのID
+     */
+    @Query("SELECT s.id FROM AiDecisionLogSegment s WHERE s.minLogId <= :logId AND s.maxLogId >= :logId ORDER BY s.id")
+    List<Long> findSegmentIdsContaining(@Param("logId") Long logId);
+
+    /**
+     * 決定日時範囲と重なるセグメントのID（古い順）
+     */
+    @Query("SELECT s.id FROM AiDecisionLogSegment s WHERE s.maxDecisionDate >= :startDate " +
+            "AND s.minDecisionDate <= :endDate ORDER BY s.minDecisionDate, s.id")
+    List<Long> findSegmentIdsOverlapping(@Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * セグメントの圧縮本体
+     */
+    @Query("SELECT s.payload FROM AiDecisionLogSegment s WHERE s.id = :segmentId")
+    byte[] findPayload(@Param("segmentId") Long segmentId);
+
+    /**
+     * 最新のセグメントID（セグメントがなければ 0）
+     */
+    @Query("SELECT COALESCE(MAX(s.id), 0) FROM AiDecisionLogSegment s")
+    Long findMaxSegmentId();
+
+    /**
+     * セグメント数・レコード数・圧縮前後のサイズ合計
+     */
+    @Query("SELECT COUNT(s), COALESCE(SUM(s.recordCount), 0), COALESCE(SUM(s.rawBytes), 0), " +
+            "COALESCE(SUM(s.compressedBytes), 0) FROM AiDecisionLogSegment s")
+    List<Object[]> getArchiveTotals();
+}
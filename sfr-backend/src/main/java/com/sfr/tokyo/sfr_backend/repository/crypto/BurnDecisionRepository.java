@@ -2,6 +2,8 @@ package com.sfr.tokyo.sfr_backend.repository.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision;
 import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision.TriggerReason;
+import com.sfr.tokyo.sfr_backend.repository.projection.BurnStatusAggregate;
+import com.sfr.tokyo.sfr_backend.repository.projection.BurnTypeAggregate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -92,6 +95,45 @@ public interface BurnDecisionRepository
         @Query("SELECT bd FROM BurnDecision bd WHERE bd.decisionDate >= :since ORDER BY bd.decisionDate DESC")
         Page<BurnDecision> findByDecisionDateAfter(@Param("since") LocalDateTime since, Pageable pageable);
 
+        // ===== ワークキュー・期間集計 =====
+
+        /**
+         * ステータスでバーン決定をページネーション付きで検索（status, decision_date インデックスを使用）
+         */
+        Page<BurnDecision> findByStatus(BurnDecision.BurnStatus status, Pageable pageable);
+
+        /**
+         * スペースとステータスでバーン決定をページネーション付きで検索（space_id, status, decision_date インデックスを使用）
+         */
+        Page<BurnDecision> findBySpaceIdAndStatus(Long spaceId, BurnDecision.BurnStatus status, Pageable pageable);
+
+        /**
+         * 複数ステータスのバーン決定を検索（未決の判定の読み込み用）
+         */
+        List<BurnDecision> findByStatusIn(Collection<BurnDecision.BurnStatus> statuses);
+
+        /**
+         * 期間内のステータス別件数・金額合計
+         */
+        @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BurnStatusAggregate(" +
+                        "bd.status, COUNT(bd), SUM(bd.proposedBurnAmount), SUM(bd.actualBurnAmount)) " +
+                        "FROM BurnDecision bd WHERE bd.decisionDate BETWEEN :startDate AND :endDate " +
+                        "GROUP BY bd.status")
+        List<BurnStatusAggregate> aggregateByStatus(@Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate);
+
+        /**
+         * 期間内のデシジョンタイプ別件数・提案金額合計・完了件数
+         */
+        @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BurnTypeAggregate(" +
+                        "bd.decisionType, COUNT(bd), SUM(bd.proposedBurnAmount), " +
+                        "SUM(CASE WHEN bd.status = :completed THEN 1L ELSE 0L END)) " +
+                        "FROM BurnDecision bd WHERE bd.decisionDate BETWEEN :startDate AND :endDate " +
+                        "GROUP BY bd.decisionType")
+        List<BurnTypeAggregate> aggregateByDecisionType(@Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("completed") BurnDecision.BurnStatus completed);
+
         // ===== ユーザー別統計メソッド =====
 
         /**
@@ -1,6 +1,7 @@
 package com.sfr.tokyo.sfr_backend.repository.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.RewardDistribution;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,9 +9,11 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Modifying;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -336,4 +339,22 @@ public interface RewardDistributionRepository
     List<Object[]> getUserRewardPerformanceAnalysis(@Param("since") LocalDateTime since,
             @Param("minDistributions") int minDistributions,
             Pageable pageable);
+
+    /**
+     * 指定ステータスのうち有効期限が設定されたリワード（期限登録の取り込み用、ID順）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(rd.id, rd.expiresAt) FROM RewardDistribution rd " +
+            "WHERE rd.id > :afterId AND rd.expiresAt IS NOT NULL AND rd.status IN :statuses ORDER BY rd.id")
+    List<DeadlineRow> findExpiryDeadlines(@Param("afterId") Long afterId,
+            @Param("statuses") Collection<RewardDistribution.DistributionStatus> statuses, Pageable pageable);
+
+    /**
+     * 有効期限に達したリワードを一括で期限切れにする（指定ステータスのもののみ）
+     */
+    @Modifying
+    @Query("UPDATE RewardDistribution rd SET rd.status = :expired, rd.updatedAt = :now " +
+            "WHERE rd.id IN :ids AND rd.status IN :statuses AND rd.expiresAt <= :now")
+    int expireDue(@Param("ids") Collection<Long> ids,
+            @Param("statuses") Collection<RewardDistribution.DistributionStatus> statuses,
+            @Param("expired") RewardDistribution.DistributionStatus expired, @Param("now") LocalDateTime now);
 }
@@ -1,6 +1,7 @@
 package com.sfr.tokyo.sfr_backend.repository.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.SfrPoint;
+import com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -139,4 +141,42 @@ public interface SfrPointRepository extends JpaRepository<SfrPoint, Long> {
      */
     @Query("SELECT sp FROM SfrPoint sp WHERE sp.status = :status ORDER BY sp.totalSpent DESC")
     List<SfrPoint> findTopSpenders(@Param("status") SfrPoint.SfrPointStatus status, Pageable pageable);
+
+    // ===== 残高突合（キーセット走査） =====
+
+    /**
+     * ユーザーID順に afterUserId より後の残高行を取得
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow(" +
+           "sp.userId, sp.currentBalance, sp.totalEarned, sp.totalSpent) " +
+           "FROM SfrPoint sp WHERE sp.spaceId = :spaceId AND sp.userId > :afterUserId ORDER BY sp.userId")
+    List<BalanceRow> findBalanceRowsAfter(@Param("spaceId") Long spaceId,
+                                          @Param("afterUserId") String afterUserId,
+                                          Pageable pageable);
+
+    /**
+     * ユーザーID順に afterUserId より後で、since 以降に更新された残高行を取得
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow(" +
+           "sp.userId, sp.currentBalance, sp.totalEarned, sp.totalSpent) " +
+           "FROM SfrPoint sp WHERE sp.spaceId = :spaceId AND sp.userId > :afterUserId AND sp.updatedAt >= :since " +
+           "ORDER BY sp.userId")
+    List<BalanceRow> findChangedBalanceRowsAfter(@Param("spaceId") Long spaceId,
+                                                 @Param("afterUserId") String afterUserId,
+                                                 @Param("since") LocalDateTime since,
+                                                 Pageable pageable);
+
+    /**
+     * 指定ユーザー群の残高行を取得
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow(" +
+           "sp.userId, sp.currentBalance, sp.totalEarned, sp.totalSpent) " +
+           "FROM SfrPoint sp WHERE sp.spaceId = :spaceId AND sp.userId IN :userIds")
+    List<BalanceRow> findBalanceRowsByUserIds(@Param("spaceId") Long spaceId,
+                                              @Param("userIds") Collection<String> userIds);
+
+    /**
+     * 指定ユーザー群のSFRポイントを取得
+     */
+    List<SfrPoint> findBySpaceIdAndUserIdIn(Long spaceId, Collection<String> userIds);
 }
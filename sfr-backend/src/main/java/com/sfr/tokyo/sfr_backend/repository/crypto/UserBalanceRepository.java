@@ -2,6 +2,7 @@ package com.sfr.tokyo.sfr_backend.repository.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.UserBalance;
 import com.sfr.tokyo.sfr_backend.entity.crypto.UserBalanceId;
+import com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -158,6 +160,22 @@ public interface UserBalanceRepository
             @Param("newBalance") BigDecimal newBalance,
             @Param("timestamp") LocalDateTime timestamp);
 
+    /**
+     * 読み取り時の残高から変わっていない場合に限り、残高と累計を書き換える（突合の修復用）
+     *
+     * @return 更新件数（読み取り後に他の処理が残高を動かしていれば 0）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserBalance ub SET ub.currentBalance = :newBalance, ub.totalEarned = :totalEarned, ub.totalSpent = :totalSpent, ub.updatedAt = :timestamp WHERE ub.spaceId = :spaceId AND ub.userId = :userId AND ub.currentBalance = :expectedBalance")
+    int repairBalance(@Param("spaceId") Long spaceId,
+            @Param("userId") String userId,
+            @Param("expectedBalance") BigDecimal expectedBalance,
+            @Param("newBalance") BigDecimal newBalance,
+            @Param("totalEarned") BigDecimal totalEarned,
+            @Param("totalSpent") BigDecimal totalSpent,
+            @Param("timestamp") LocalDateTime timestamp);
+
     /**
      * 残高を増加
      */
@@ -290,4 +308,42 @@ public interface UserBalanceRepository
             ORDER BY MIN(current_balance)
             """, nativeQuery = true)
     List<Object[]> getBalanceDistribution(@Param("spaceId") Long spaceId);
+
+    // ===== 残高突合（キーセット走査） =====
+
+    /**
+     * ユーザーID順に afterUserId より後の残高行を取得
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow(" +
+            "ub.userId, ub.currentBalance, ub.totalEarned, ub.totalSpent) " +
+            "FROM UserBalance ub WHERE ub.spaceId = :spaceId AND ub.userId > :afterUserId ORDER BY ub.userId")
+    List<BalanceRow> findBalanceRowsAfter(@Param("spaceId") Long spaceId,
+            @Param("afterUserId") String afterUserId,
+            Pageable pageable);
+
+    /**
+     * ユーザーID順に afterUserId より後で、since 以降に更新された残高行を取得
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow(" +
+            "ub.userId, ub.currentBalance, ub.totalEarned, ub.totalSpent) " +
+            "FROM UserBalance ub WHERE ub.spaceId = :spaceId AND ub.userId > :afterUserId AND ub.updatedAt >= :since " +
+            "ORDER BY ub.userId")
+    List<BalanceRow> findChangedBalanceRowsAfter(@Param("spaceId") Long spaceId,
+            @Param("afterUserId") String afterUserId,
+            @Param("since") LocalDateTime since,
+            Pageable pageable);
+
+    /**
+     * 指定ユーザー群の残高行を取得
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow(" +
+            "ub.userId, ub.currentBalance, ub.totalEarned, ub.totalSpent) " +
+            "FROM UserBalance ub WHERE ub.spaceId = :spaceId AND ub.userId IN :userIds")
+    List<BalanceRow> findBalanceRowsByUserIds(@Param("spaceId") Long spaceId,
+            @Param("userIds") Collection<String> userIds);
+
+    /**
+     * 指定ユーザー群の残高を取得
+     */
+    List<UserBalance> findBySpaceIdAndUserIdIn(Long spaceId, Collection<String> userIds);
 }
@@ -0,0 +1,24 @@
+package com.sfr.tokyo.sfr_backend.repository.custom;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.sfr.tokyo.sfr_backend.repository.projection.PostFeedRow;
+
+/**
+ * 投稿リポジトリのカスタムクエリ
+ */
+public interface PostRepositoryCustom {
+
+    /**
+     * (created_at, id) の降順でキーセットページングした投稿を取得
+     *
+     * @param userId         投稿者で絞り込む場合のユーザーID（null で全投稿）
+     * @param afterCreatedAt 前ページ末尾の作成日時（null で先頭ページ）
+     * @param afterId        前ページ末尾の投稿ID
+     * @param limit          取得件数
+     * @return 投稿プロジェクションのリスト
+     */
+    List<PostFeedRow> findFeedPage(UUID userId, LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
@@ -0,0 +1,50 @@
+package com.sfr.tokyo.sfr_backend.repository.custom.impl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.sfr.tokyo.sfr_backend.repository.custom.PostRepositoryCustom;
+import com.sfr.tokyo.sfr_backend.repository.projection.PostFeedRow;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * 投稿リポジトリのカスタムクエリ実装
+ *
+ * OFFSET を使わず、前ページ末尾の (created_at, id) より後ろを読むシーク方式のため
+ * 何ページ目でも (user_id,) created_at, id のインデックス範囲走査だけで済む。
+ */
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    private static final String SELECT_FEED_ROW = "SELECT new com.sfr.tokyo.sfr_backend.repository.projection.PostFeedRow("
+            + "p.id, p.title, p.description, p.fileUrl, u.id, u.firstname, p.createdAt) "
+            + "FROM PostEntity p JOIN p.user u";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PostFeedRow> findFeedPage(UUID userId, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_FEED_ROW).append(" WHERE 1 = 1");
+        if (userId != null) {
+            jpql.append(" AND u.id = :userId");
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(" AND (p.createdAt < :afterCreatedAt OR (p.createdAt = :afterCreatedAt AND p.id < :afterId))");
+        }
+        jpql.append(" ORDER BY p.createdAt DESC, p.id DESC");
+
+        TypedQuery<PostFeedRow> query = entityManager.createQuery(jpql.toString(), PostFeedRow.class);
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (afterCreatedAt != null) {
+            query.setParameter("afterCreatedAt", afterCreatedAt);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
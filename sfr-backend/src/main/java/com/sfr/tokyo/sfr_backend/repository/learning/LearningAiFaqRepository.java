@@ -11,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -388,4 +389,10 @@ public interface LearningAiFaqRepository extends JpaRepository<LearningAiFaq, Lo
             "COALESCE(f.subCategory, ''), ' ', COALESCE(f.tags, ''), ' ', COALESCE(f.keywords, ''))), " +
             "f.updatedAt = CURRENT_TIMESTAMP WHERE f.deletedAt IS NULL")
     int updateAllSearchVectors();
+
+    /**
+     * 検索結果のうち公開中（削除されていない）のFAQのID
+     */
+    @Query("SELECT f.id FROM LearningAiFaq f WHERE f.id IN :ids AND f.status = 'PUBLISHED' AND f.deletedAt IS NULL")
+    List<Long> findVisibleIds(@Param("ids") Collection<Long> ids);
 }
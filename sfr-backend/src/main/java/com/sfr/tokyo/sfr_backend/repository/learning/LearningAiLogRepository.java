@@ -1,6 +1,7 @@
 package com.sfr.tokyo.sfr_backend.repository.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog;
+import com.sfr.tokyo.sfr_backend.repository.projection.AiLogBucketAggregate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -187,6 +188,59 @@ public interface LearningAiLogRepository extends JpaRepository<LearningAiLog, Lo
             "FROM LearningAiLog l WHERE l.userId = :userId")
     Double getErrorRate(@Param("userId") UUID userId);
 
+    /**
+     * 集計行の再構築用に時間単位でまとめる
+     */
+    @Query("""
+            SELECT new com.sfr.tokyo.sfr_backend.repository.projection.AiLogBucketAggregate(
+                l.userId, l.spaceId, l.aiType,
+                year(l.createdAt), month(l.createdAt), day(l.createdAt),
+                hour(l.createdAt), 0,
+                COUNT(l), SUM(CASE WHEN l.isError = true THEN 1 ELSE 0 END),
+                SUM(l.userSatisfaction), COUNT(l.userSatisfaction),
+                SUM(l.confidenceScore), COUNT(l.confidenceScore),
+                SUM(l.processingTimeMs), COUNT(l.processingTimeMs),
+                SUM(l.tokensUsed),
+                SUM(CASE WHEN l.processingTimeMs <= 100 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 100 AND l.processingTimeMs <= 500 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 500 AND l.processingTimeMs <= 1000 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 1000 AND l.processingTimeMs <= 2000 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 2000 AND l.processingTimeMs <= 5000 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 5000 THEN 1 ELSE 0 END))
+            FROM LearningAiLog l
+            GROUP BY l.userId, l.spaceId, l.aiType,
+                year(l.createdAt), month(l.createdAt), day(l.createdAt),
+                hour(l.createdAt)
+            """)
+    List<AiLogBucketAggregate> aggregateByHour();
+
+    /**
+     * 集計行の再構築用に、指定日時以降のログを分単位でまとめる
+     */
+    @Query("""
+            SELECT new com.sfr.tokyo.sfr_backend.repository.projection.AiLogBucketAggregate(
+                l.userId, l.spaceId, l.aiType,
+                year(l.createdAt), month(l.createdAt), day(l.createdAt),
+                hour(l.createdAt), minute(l.createdAt),
+                COUNT(l), SUM(CASE WHEN l.isError = true THEN 1 ELSE 0 END),
+                SUM(l.userSatisfaction), COUNT(l.userSatisfaction),
+                SUM(l.confidenceScore), COUNT(l.confidenceScore),
+                SUM(l.processingTimeMs), COUNT(l.processingTimeMs),
+                SUM(l.tokensUsed),
+                SUM(CASE WHEN l.processingTimeMs <= 100 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 100 AND l.processingTimeMs <= 500 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 500 AND l.processingTimeMs <= 1000 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 1000 AND l.processingTimeMs <= 2000 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 2000 AND l.processingTimeMs <= 5000 THEN 1 ELSE 0 END),
+                SUM(CASE WHEN l.processingTimeMs > 5000 THEN 1 ELSE 0 END))
+            FROM LearningAiLog l
+            WHERE l.createdAt >= :since
+            GROUP BY l.userId, l.spaceId, l.aiType,
+                year(l.createdAt), month(l.createdAt), day(l.createdAt),
+                hour(l.createdAt), minute(l.createdAt)
+            """)
+    List<AiLogBucketAggregate> aggregateByMinuteSince(@Param("since") LocalDateTime since);
+
     // ========== セッション関連 ==========
 
     /**
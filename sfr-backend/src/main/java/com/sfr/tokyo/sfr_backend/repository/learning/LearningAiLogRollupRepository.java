@@ -0,0 +1,122 @@
+package com.sfr.tokyo.sfr_backend.repository.learning;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.AiType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.Granularity;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.ScopeType;
+import com.sfr.tokyo.sfr_backend.repository.projection.AiLogRollupTotals;
+
+@Repository
+public interface LearningAiLogRollupRepository extends JpaRepository<LearningAiLogRollup, Long> {
+
+    /**
+     * バケットに差分を加える（行がなければ 0 件）
+     */
+    @Modifying
+    @Query("""
+            UPDATE LearningAiLogRollup r
+            SET r.requestCount = r.requestCount + :requests,
+                r.errorCount = r.errorCount + :errors,
+                r.satisfactionSum = r.satisfactionSum + :satisfactionSum,
+                r.satisfactionCount = r.satisfactionCount + :satisfactionCount,
+                r.confidenceSum = r.confidenceSum + :confidenceSum,
+                r.confidenceCount = r.confidenceCount + :confidenceCount,
+                r.processingTimeSum = r.processingTimeSum + :processingTimeSum,
+                r.processingTimeCount = r.processingTimeCount + :processingTimeCount,
+                r.tokensSum = r.tokensSum + :tokensSum,
+                r.latencyLe100 = r.latencyLe100 + :le100,
+                r.latencyLe500 = r.latencyLe500 + :le500,
+                r.latencyLe1000 = r.latencyLe1000 + :le1000,
+                r.latencyLe2000 = r.latencyLe2000 + :le2000,
+                r.latencyLe5000 = r.latencyLe5000 + :le5000,
+                r.latencyGt5000 = r.latencyGt5000 + :gt5000,
+                r.updatedAt = :now
+            WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId AND r.aiType = :aiType
+              AND r.granularity = :granularity AND r.bucketStart = :bucketStart
+            """)
+    int applyDelta(@Param("scopeType") ScopeType scopeType, @Param("scopeId") UUID scopeId,
+            @Param("aiType") AiType aiType, @Param("granularity") Granularity granularity,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("requests") long requests, @Param("errors") long errors,
+            @Param("satisfactionSum") long satisfactionSum, @Param("satisfactionCount") long satisfactionCount,
+            @Param("confidenceSum") BigDecimal confidenceSum, @Param("confidenceCount") long confidenceCount,
+            @Param("processingTimeSum") long processingTimeSum,
+            @Param("processingTimeCount") long processingTimeCount,
+            @Param("tokensSum") long tokensSum,
+            @Param("le100") long le100, @Param("le500") long le500, @Param("le1000") long le1000,
+            @Param("le2000") long le2000, @Param("le5000") long le5000, @Param("gt5000") long gt5000,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * 集計単位の AIタイプ別件数（全期間、件数の多い順）
+     */
+    @Query("""
+            SELECT r.aiType, SUM(r.requestCount)
+            FROM LearningAiLogRollup r
+            WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId AND r.granularity = :granularity
+            GROUP BY r.aiType
+            ORDER BY SUM(r.requestCount) DESC
+            """)
+    List<Object[]> sumByAiType(@Param("scopeType") ScopeType scopeType, @Param("scopeId") UUID scopeId,
+            @Param("granularity") Granularity granularity);
+
+    /**
+     * 集計単位の期間内の AIタイプ別件数（bucket_start が from 以上 to 未満）
+     */
+    @Query("""
+            SELECT r.aiType, SUM(r.requestCount)
+            FROM LearningAiLogRollup r
+            WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId AND r.granularity = :granularity
+              AND r.bucketStart >= :from AND r.bucketStart < :to
+            GROUP BY r.aiType
+            """)
+    List<Object[]> sumByAiTypeBetween(@Param("scopeType") ScopeType scopeType, @Param("scopeId") UUID scopeId,
+            @Param("granularity") Granularity granularity, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * 集計単位の月別件数（新しい月から）
+     */
+    @Query("""
+            SELECT FUNCTION('YEAR', r.bucketStart), FUNCTION('MONTH', r.bucketStart), SUM(r.requestCount)
+            FROM LearningAiLogRollup r
+            WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId AND r.granularity = :granularity
+            GROUP BY FUNCTION('YEAR', r.bucketStart), FUNCTION('MONTH', r.bucketStart)
+            ORDER BY FUNCTION('YEAR', r.bucketStart) DESC, FUNCTION('MONTH', r.bucketStart) DESC
+            """)
+    List<Object[]> sumByMonth(@Param("scopeType") ScopeType scopeType, @Param("scopeId") UUID scopeId,
+            @Param("granularity") Granularity granularity);
+
+    /**
+     * 集計単位の全期間の合計
+     */
+    @Query("""
+            SELECT new com.sfr.tokyo.sfr_backend.repository.projection.AiLogRollupTotals(
+                SUM(r.requestCount), SUM(r.errorCount), SUM(r.satisfactionSum), SUM(r.satisfactionCount),
+                SUM(r.confidenceSum), SUM(r.confidenceCount), SUM(r.processingTimeSum), SUM(r.processingTimeCount),
+                SUM(r.tokensSum), SUM(r.latencyLe100), SUM(r.latencyLe500), SUM(r.latencyLe1000),
+                SUM(r.latencyLe2000), SUM(r.latencyLe5000), SUM(r.latencyGt5000))
+            FROM LearningAiLogRollup r
+            WHERE r.scopeType = :scopeType AND r.scopeId = :scopeId AND r.granularity = :granularity
+            """)
+    AiLogRollupTotals sumTotals(@Param("scopeType") ScopeType scopeType, @Param("scopeId") UUID scopeId,
+            @Param("granularity") Granularity granularity);
+
+    /**
+     * 保持期間を過ぎたバケットを削除する
+     */
+    @Modifying
+    @Query("DELETE FROM LearningAiLogRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("granularity") Granularity granularity, @Param("before") LocalDateTime before);
+}
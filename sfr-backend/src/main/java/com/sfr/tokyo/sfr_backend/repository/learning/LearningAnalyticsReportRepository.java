@@ -1,6 +1,7 @@
 package com.sfr.tokyo.sfr_backend.repository.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningAnalyticsReport;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.Collection;
 
 /**
  * 学習分析レポート リポジトリ
@@ -450,4 +452,22 @@ public interface LearningAnalyticsReportRepository extends JpaRepository<Learnin
         Optional<LearningAnalyticsReport> findLatestReportBySpaceAndType(
                         @Param("spaceId") UUID spaceId,
                         @Param("reportType") LearningAnalyticsReport.ReportType reportType);
+
+        /**
+         * 有効期限が設定された未失効レポート（期限登録の取り込み用、ID順）
+         */
+        @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(r.id, r.expiresAt) FROM LearningAnalyticsReport r " +
+                        "WHERE r.id > :afterId AND r.expiresAt IS NOT NULL " +
+                        "AND r.status != 'EXPIRED' AND r.deletedAt IS NULL ORDER BY r.id")
+        List<DeadlineRow> findExpiryDeadlines(@Param("afterId") Long afterId, Pageable pageable);
+
+        /**
+         * 有効期限に達した指定レポートのステータス更新
+         */
+        @Modifying
+        @Query("UPDATE LearningAnalyticsReport r SET r.status = 'EXPIRED', r.updatedAt = :now " +
+                        "WHERE r.id IN :ids AND r.expiresAt <= :now " +
+                        "AND r.status != 'EXPIRED' " +
+                        "AND r.deletedAt IS NULL")
+        int markExpiredReports(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
@@ -1,6 +1,7 @@
 package com.sfr.tokyo.sfr_backend.repository.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment;
+import com.sfr.tokyo.sfr_backend.repository.projection.LearningCommentTreeRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -107,6 +109,46 @@ public interface LearningCommentRepository extends JpaRepository<LearningComment
         @Query("SELECT c FROM LearningComment c WHERE c.topicId = :topicId AND c.parentCommentId IS NULL AND c.deletedAt IS NULL ORDER BY c.createdAt ASC")
         List<LearningComment> findTopLevelByTopicId(@Param("topicId") Long topicId);
 
+        /**
+         * トップレベルコメント取得（作成順、ページング用）
+         */
+        @Query(value = "SELECT c FROM LearningComment c WHERE c.topicId = :topicId AND c.parentCommentId IS NULL AND c.deletedAt IS NULL ORDER BY c.createdAt ASC, c.id ASC",
+                        countQuery = "SELECT COUNT(c) FROM LearningComment c WHERE c.topicId = :topicId AND c.parentCommentId IS NULL AND c.deletedAt IS NULL")
+        Page<LearningComment> findTopLevelByTopicId(@Param("topicId") Long topicId, Pageable pageable);
+
+        /**
+         * トップレベルコメントのスレッドパス（スレッド順 = 作成順、ページング用）
+         * スレッドパス未設定のコメントは含まない
+         */
+        @Query(value = "SELECT c.threadPath FROM LearningComment c WHERE c.topicId = :topicId AND c.parentCommentId IS NULL AND c.threadPath IS NOT NULL AND c.deletedAt IS NULL ORDER BY c.threadPath ASC",
+                        countQuery = "SELECT COUNT(c) FROM LearningComment c WHERE c.topicId = :topicId AND c.parentCommentId IS NULL AND c.threadPath IS NOT NULL AND c.deletedAt IS NULL")
+        Page<String> findTopLevelThreadPaths(@Param("topicId") Long topicId, Pageable pageable);
+
+        /**
+         * トピックにスレッドパス未設定（補完前）のコメントが残っているか
+         */
+        @Query("SELECT COUNT(c) > 0 FROM LearningComment c WHERE c.topicId = :topicId AND c.threadPath IS NULL AND c.deletedAt IS NULL")
+        boolean existsWithoutThreadPath(@Param("topicId") Long topicId);
+
+        /**
+         * スレッドパスの範囲 [fromPath, toPath) のコメントをスレッド順（深さ優先）で取得
+         */
+        @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.LearningCommentTreeRow("
+                        + "c.id, c.parentCommentId, c.threadPath, c.authorId, c.content, c.commentType, c.commentStatus, "
+                        + "c.likeCount, c.isBestAnswer, c.isSolution, c.isPinned, c.depthLevel, c.createdAt, c.updatedAt) "
+                        + "FROM LearningComment c WHERE c.topicId = :topicId "
+                        + "AND c.threadPath >= :fromPath AND c.threadPath < :toPath AND c.deletedAt IS NULL "
+                        + "ORDER BY c.threadPath ASC")
+        List<LearningCommentTreeRow> findThreadRows(@Param("topicId") Long topicId,
+                        @Param("fromPath") String fromPath,
+                        @Param("toPath") String toPath);
+
+        /**
+         * afterId より後ろのスレッドパス未設定のコメント（ID昇順 = 親が先）
+         */
+        @Query("SELECT c FROM LearningComment c WHERE c.threadPath IS NULL AND c.id > :afterId ORDER BY c.id ASC")
+        List<LearningComment> findWithoutThreadPathAfter(@Param("afterId") Long afterId, Pageable pageable);
+
         /**
          * 最新コメント取得
          */
@@ -261,6 +303,23 @@ public interface LearningCommentRepository extends JpaRepository<LearningComment
         @Query("UPDATE LearningComment c SET c.deletedAt = :now WHERE c.parentCommentId = :parentId")
         int softDeleteRepliesByParentId(@Param("parentId") Long parentId, @Param("now") LocalDateTime now);
 
+        /**
+         * 親の付け替えに伴う子孫のスレッドパス書き換え
+         * 範囲 [fromPath, toPath) の経路の先頭 oldPrefixLength 文字を newPrefix に置き換える
+         */
+        @Modifying
+        @Query("UPDATE LearningComment c SET c.threadPath = CONCAT(:newPrefix, SUBSTRING(c.threadPath, :oldPrefixLength + 1)), "
+                        + "c.rootCommentId = :rootCommentId, c.depthLevel = c.depthLevel + :depthDelta, c.updatedAt = :now "
+                        + "WHERE c.topicId = :topicId AND c.threadPath >= :fromPath AND c.threadPath < :toPath")
+        int moveThreadSubtree(@Param("topicId") Long topicId,
+                        @Param("fromPath") String fromPath,
+                        @Param("toPath") String toPath,
+                        @Param("oldPrefixLength") int oldPrefixLength,
+                        @Param("newPrefix") String newPrefix,
+                        @Param("rootCommentId") Long rootCommentId,
+                        @Param("depthDelta") int depthDelta,
+                        @Param("now") LocalDateTime now);
+
         /**
          * 古いコメントのアーカイブ
          */
@@ -403,4 +462,10 @@ public interface LearningCommentRepository extends JpaRepository<LearningComment
         @Query("UPDATE LearningComment c SET c.commentStatus = 'INACTIVE', c.updatedAt = CURRENT_TIMESTAMP WHERE " +
                         "c.updatedAt < :cutoffDate AND c.commentStatus = 'ACTIVE' AND c.deletedAt IS NULL")
         int updateInactiveComments(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+        /**
+         * 検索結果のうち削除されていないコメントのID
+         */
+        @Query("SELECT c.id FROM LearningComment c WHERE c.id IN :ids AND c.deletedAt IS NULL")
+        List<Long> findVisibleIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,53 @@
+package com.sfr.tokyo.sfr_backend.repository.learning;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.FeedbackType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackMonthlyRollup;
+
+@Repository
+public interface LearningFeedbackMonthlyRollupRepository extends JpaRepository<LearningFeedbackMonthlyRollup, Long> {
+
+    /**
+     * 月・タイプの件数に差分を加える（行がなければ 0 件）
+     */
+    @Modifying
+    @Query("""
+            UPDATE LearningFeedbackMonthlyRollup r
+            SET r.feedbackCount = r.feedbackCount + :delta, r.updatedAt = :now
+            WHERE r.periodMonth = :periodMonth AND r.feedbackType = :feedbackType
+            """)
+    int applyDelta(@Param("periodMonth") String periodMonth, @Param("feedbackType") FeedbackType feedbackType,
+            @Param("delta") long delta, @Param("now") LocalDateTime now);
+
+    /**
+     * タイプ別件数（全期間）
+     */
+    @Query("""
+            SELECT r.feedbackType, SUM(r.feedbackCount)
+            FROM LearningFeedbackMonthlyRollup r
+            GROUP BY r.feedbackType
+            HAVING SUM(r.feedbackCount) > 0
+            """)
+    List<Object[]> sumByFeedbackType();
+
+    /**
+     * 指定月以降の月別件数（yyyy-MM は文字列順 = 時系列順）
+     */
+    @Query("""
+            SELECT r.periodMonth, SUM(r.feedbackCount)
+            FROM LearningFeedbackMonthlyRollup r
+            WHERE r.periodMonth >= :fromMonth
+            GROUP BY r.periodMonth
+            HAVING SUM(r.feedbackCount) > 0
+            ORDER BY r.periodMonth
+            """)
+    List<Object[]> sumByMonthFrom(@Param("fromMonth") String fromMonth);
+}
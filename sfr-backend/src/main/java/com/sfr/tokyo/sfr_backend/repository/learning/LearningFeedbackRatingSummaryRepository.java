@@ -0,0 +1,41 @@
+package com.sfr.tokyo.sfr_backend.repository.learning;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.TargetType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackRatingSummary;
+
+@Repository
+public interface LearningFeedbackRatingSummaryRepository extends JpaRepository<LearningFeedbackRatingSummary, Long> {
+
+    Optional<LearningFeedbackRatingSummary> findByTargetTypeAndTargetId(TargetType targetType, Long targetId);
+
+    /**
+     * 件数・合計・評価別件数に差分を加える（行がなければ 0 件）
+     */
+    @Modifying
+    @Query("""
+            UPDATE LearningFeedbackRatingSummary s
+            SET s.feedbackCount = s.feedbackCount + :count,
+                s.ratingSum = s.ratingSum + :ratingSum,
+                s.rating1Count = s.rating1Count + :rating1,
+                s.rating2Count = s.rating2Count + :rating2,
+                s.rating3Count = s.rating3Count + :rating3,
+                s.rating4Count = s.rating4Count + :rating4,
+                s.rating5Count = s.rating5Count + :rating5,
+                s.updatedAt = :now
+            WHERE s.targetType = :targetType AND s.targetId = :targetId
+            """)
+    int applyDelta(@Param("targetType") TargetType targetType, @Param("targetId") Long targetId,
+            @Param("count") long count, @Param("ratingSum") long ratingSum,
+            @Param("rating1") long rating1, @Param("rating2") long rating2, @Param("rating3") long rating3,
+            @Param("rating4") long rating4, @Param("rating5") long rating5,
+            @Param("now") LocalDateTime now);
+}
@@ -2,9 +2,14 @@ package com.sfr.tokyo.sfr_backend.repository.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.*;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
+import com.sfr.tokyo.sfr_backend.repository.projection.FeedbackMonthlyAggregate;
+import com.sfr.tokyo.sfr_backend.repository.projection.FeedbackRatingAggregate;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
@@ -14,7 +19,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.Collection;
 
 /**
  * LearningFeedback Repository
@@ -331,7 +338,7 @@ public interface LearningFeedbackRepository extends JpaRepository<LearningFeedba
     void updateFeedbackStatus(@Param("feedbackId") Long feedbackId, @Param("status") FeedbackStatus status);
 
     /**
-     * モデレーション状態更新
+     * モデレーション状態更新（既に同じ状態の行は更新しない）
      */
     @Modifying
     @Transactional
@@ -343,8 +350,9 @@ public interface LearningFeedbackRepository extends JpaRepository<LearningFeedba
                 f.moderatedAt = CURRENT_TIMESTAMP,
                 f.updatedAt = CURRENT_TIMESTAMP
             WHERE f.id = :feedbackId
+            AND (f.moderationStatus IS NULL OR f.moderationStatus <> :moderationStatus)
             """)
-    void updateModerationStatus(
+    int updateModerationStatus(
             @Param("feedbackId") Long feedbackId,
             @Param("moderationStatus") ModerationStatus moderationStatus,
             @Param("moderatorId") UUID moderatorId,
@@ -365,12 +373,19 @@ public interface LearningFeedbackRepository extends JpaRepository<LearningFeedba
     void markFollowupCompleted(@Param("feedbackId") Long feedbackId, @Param("followupNotes") String followupNotes);
 
     /**
-     * 論理削除
+     * 論理削除（削除済みの行は更新しない）
      */
     @Modifying
     @Transactional
-    @Query("UPDATE LearningFeedback f SET f.deletedAt = CURRENT_TIMESTAMP WHERE f.id = :feedbackId")
-    void softDeleteFeedback(@Param("feedbackId") Long feedbackId);
+    @Query("UPDATE LearningFeedback f SET f.deletedAt = CURRENT_TIMESTAMP WHERE f.id = :feedbackId AND f.deletedAt IS NULL")
+    int softDeleteFeedback(@Param("feedbackId") Long feedbackId);
+
+    /**
+     * 評価サマリーへ差分を反映する更新用に、行ロックを取って読む
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM LearningFeedback f WHERE f.id = :feedbackId")
+    Optional<LearningFeedback> findByIdForUpdate(@Param("feedbackId") Long feedbackId);
 
     // ========== バッチ処理系 ==========
 
@@ -380,6 +395,41 @@ public interface LearningFeedbackRepository extends JpaRepository<LearningFeedba
     @Query("SELECT f FROM LearningFeedback f WHERE f.overallScore IS NULL OR f.updatedAt < :cutoffDate AND f.deletedAt IS NULL")
     List<LearningFeedback> findFeedbacksForScoreRecalculation(@Param("cutoffDate") LocalDateTime cutoffDate);
 
+    /**
+     * スコア再計算対象フィードバックID（一括再計算用）
+     */
+    @Query("SELECT f.id FROM LearningFeedback f WHERE f.overallScore IS NULL OR f.updatedAt < :cutoffDate AND f.deletedAt IS NULL ORDER BY f.id")
+    List<Long> findIdsForScoreRecalculation(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * 評価サマリー再構築用の対象別集計（未削除かつ拒否されていないもの）
+     */
+    @Query("""
+            SELECT new com.sfr.tokyo.sfr_backend.repository.projection.FeedbackRatingAggregate(
+                f.targetType, f.targetId, COUNT(f), SUM(f.rating),
+                SUM(CASE WHEN f.rating = 1 THEN 1L ELSE 0L END),
+                SUM(CASE WHEN f.rating = 2 THEN 1L ELSE 0L END),
+                SUM(CASE WHEN f.rating = 3 THEN 1L ELSE 0L END),
+                SUM(CASE WHEN f.rating = 4 THEN 1L ELSE 0L END),
+                SUM(CASE WHEN f.rating = 5 THEN 1L ELSE 0L END))
+            FROM LearningFeedback f
+            WHERE f.deletedAt IS NULL AND (f.moderationStatus IS NULL OR f.moderationStatus <> :rejected)
+            GROUP BY f.targetType, f.targetId
+            """)
+    List<FeedbackRatingAggregate> aggregateRatingsByTarget(@Param("rejected") ModerationStatus rejected);
+
+    /**
+     * 月別件数再構築用の作成年月・タイプ別集計（未削除かつ拒否されていないもの）
+     */
+    @Query("""
+            SELECT new com.sfr.tokyo.sfr_backend.repository.projection.FeedbackMonthlyAggregate(
+                YEAR(f.createdAt), MONTH(f.createdAt), f.feedbackType, COUNT(f))
+            FROM LearningFeedback f
+            WHERE f.deletedAt IS NULL AND (f.moderationStatus IS NULL OR f.moderationStatus <> :rejected)
+            GROUP BY YEAR(f.createdAt), MONTH(f.createdAt), f.feedbackType
+            """)
+    List<FeedbackMonthlyAggregate> aggregateByMonthAndType(@Param("rejected") ModerationStatus rejected);
+
     /**
      * 自動クローズ対象フィードバック
      */
@@ -435,4 +485,47 @@ public interface LearningFeedbackRepository extends JpaRepository<LearningFeedba
             """)
     List<Object[]> getDetailedStatistics(@Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * 自動クローズ対象になりうるフィードバックの回答日時（期限登録の取り込み用、ID順）
+     */
+    @Query("""
+            SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(f.id, f.responseGivenAt) FROM LearningFeedback f
+            WHERE f.id > :afterId
+            AND f.feedbackStatus IN ('RESOLVED', 'IMPLEMENTED')
+            AND f.acknowledgedAt IS NULL
+            AND f.responseGivenAt IS NOT NULL
+            AND f.deletedAt IS NULL
+            ORDER BY f.id
+            """)
+    List<DeadlineRow> findAutoCloseResponses(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 指定フィードバックのうち自動クローズ対象になりうるものの回答日時
+     */
+    @Query("""
+            SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(f.id, f.responseGivenAt) FROM LearningFeedback f
+            WHERE f.id IN :ids
+            AND f.feedbackStatus IN ('RESOLVED', 'IMPLEMENTED')
+            AND f.acknowledgedAt IS NULL
+            AND f.responseGivenAt IS NOT NULL
+            AND f.deletedAt IS NULL
+            """)
+    List<DeadlineRow> findAutoCloseResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 回答から猶予期間が過ぎたフィードバックを一括クローズ（対象の条件は findFeedbacksForAutoClose と同じ）
+     * 期限スケジューラのトランザクション内で呼ばれる
+     */
+    @Modifying
+    @Query("""
+            UPDATE LearningFeedback f SET f.feedbackStatus = 'CLOSED', f.updatedAt = :now
+            WHERE f.id IN :ids
+            AND f.feedbackStatus IN ('RESOLVED', 'IMPLEMENTED')
+            AND f.acknowledgedAt IS NULL
+            AND f.responseGivenAt <= :cutoffDate
+            AND f.deletedAt IS NULL
+            """)
+    int closeForAutoClose(@Param("ids") Collection<Long> ids, @Param("cutoffDate") LocalDateTime cutoffDate,
+            @Param("now") LocalDateTime now);
 }
@@ -1,16 +1,20 @@
 package com.sfr.tokyo.sfr_backend.repository.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningForum;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.Collection;
 
 /**
  * 学習フォーラム リポジトリ - LearningForumRepository
@@ -344,4 +348,34 @@ public interface LearningForumRepository extends JpaRepository<LearningForum, Lo
             @Param("maxTopics") int maxTopics,
             @Param("minComments") int minComments,
             @Param("maxComments") int maxComments);
+
+    /**
+     * 全フォーラムID取得（一括再計算用）
+     */
+    @Query("SELECT lf.id FROM LearningForum lf ORDER BY lf.id")
+    List<Long> findAllIds();
+
+    /**
+     * 自動クローズ日数が設定された有効なフォーラムの期限（最終アクティビティ + 日数、期限登録の取り込み用、ID順）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(lf.id, lf.lastActivityAt, lf.autoCloseDays) FROM LearningForum lf " +
+            "WHERE lf.id > :afterId AND lf.autoCloseDays > 0 AND lf.forumStatus = 'ACTIVE' " +
+            "AND lf.isLocked = false AND lf.isArchived = false ORDER BY lf.id")
+    List<DeadlineRow> findAutoCloseDeadlines(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 指定フォーラムの現在の自動クローズ期限（有効なもののみ）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(lf.id, lf.lastActivityAt, lf.autoCloseDays) FROM LearningForum lf " +
+            "WHERE lf.id IN :ids AND lf.autoCloseDays > 0 AND lf.forumStatus = 'ACTIVE' " +
+            "AND lf.isLocked = false AND lf.isArchived = false")
+    List<DeadlineRow> findAutoCloseDeadlinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * フォーラムを一括アーカイブ（有効なもののみ）
+     */
+    @Modifying
+    @Query("UPDATE LearningForum lf SET lf.forumStatus = 'ARCHIVED', lf.isArchived = true, lf.updatedAt = :now " +
+            "WHERE lf.id IN :ids AND lf.forumStatus = 'ACTIVE' AND lf.isLocked = false AND lf.isArchived = false")
+    int archiveActiveForums(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
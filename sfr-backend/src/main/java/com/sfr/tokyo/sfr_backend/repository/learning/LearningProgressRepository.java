@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -100,4 +101,13 @@ public interface LearningProgressRepository extends JpaRepository<LearningProgre
             "AND lp.progressPercent < 100.0 " +
             "ORDER BY lp.updatedAt DESC")
     List<LearningProgress> findIncompleteByUserId(@Param("userId") UUID userId);
+
+    /**
+     * 複数ユーザー・コンテンツの進捗をまとめて取得（心拍の一括反映用、組み合わせは呼び出し側で絞る）
+     */
+    @Query("SELECT lp FROM LearningProgress lp " +
+            "WHERE lp.user.id IN :userIds " +
+            "AND lp.learningContent.id IN :contentIds")
+    List<LearningProgress> findByUserIdInAndContentIdIn(@Param("userIds") Collection<UUID> userIds,
+            @Param("contentIds") Collection<Long> contentIds);
 }
@@ -142,4 +142,10 @@ public interface LearningRankingRepository extends JpaRepository<LearningRanking
      */
     @Query("DELETE FROM LearningRanking lr WHERE lr.updatedAt < :cutoffDate")
     void deleteOldRankings(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * ランキングが存在するスペースID取得
+     */
+    @Query("SELECT DISTINCT lr.spaceId FROM LearningRanking lr WHERE lr.spaceId IS NOT NULL")
+    List<Long> findDistinctSpaceIds();
 }
@@ -3,17 +3,23 @@ package com.sfr.tokyo.sfr_backend.repository.learning;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation.SimulationType;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation.SimulationStatus;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
+import com.sfr.tokyo.sfr_backend.repository.projection.SimulationProgressRow;
+import com.sfr.tokyo.sfr_backend.repository.projection.SimulationSnapshotRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.jpa.repository.Modifying;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.Collection;
 
 /**
  * 学習シミュレーション機能のリポジトリ
@@ -253,4 +259,75 @@ public interface LearningSimulationRepository extends JpaRepository<LearningSimu
             "AND s.estimatedDurationMinutes IS NOT NULL AND s.actualDurationMinutes IS NOT NULL " +
             "AND s.actualDurationMinutes > s.estimatedDurationMinutes")
     List<LearningSimulation> findOverTimeSimulationsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * 実行中シミュレーションの最終アクセス日時（期限登録の取り込み用、ID順）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(s.id, s.lastAccessedAt) FROM LearningSimulation s " +
+            "WHERE s.id > :afterId AND s.status = 'IN_PROGRESS' AND s.lastAccessedAt IS NOT NULL ORDER BY s.id")
+    List<DeadlineRow> findInProgressLastAccess(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 指定シミュレーションのうち実行中のものの最終アクセス日時
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(s.id, s.lastAccessedAt) FROM LearningSimulation s " +
+            "WHERE s.id IN :ids AND s.status = 'IN_PROGRESS' AND s.lastAccessedAt IS NOT NULL")
+    List<DeadlineRow> findInProgressLastAccessByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 指定シミュレーションのうち最終アクセスが基準日時より前のものを一括タイムアウト
+     */
+    @Modifying
+    @Query("UPDATE LearningSimulation s SET s.status = 'TIMEOUT', s.completedAt = :now, s.updatedAt = :now " +
+            "WHERE s.id IN :ids AND s.status = 'IN_PROGRESS' AND s.lastAccessedAt < :cutoffTime")
+    int timeoutStale(@Param("ids") Collection<Long> ids, @Param("cutoffTime") LocalDateTime cutoffTime,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * 最終アクセスが基準日時より前の実行中シミュレーションをすべてタイムアウト
+     */
+    @Modifying
+    @Query("UPDATE LearningSimulation s SET s.status = 'TIMEOUT', s.completedAt = :now, s.updatedAt = :now " +
+            "WHERE s.status = 'IN_PROGRESS' AND s.lastAccessedAt < :cutoffTime")
+    int timeoutAllStale(@Param("cutoffTime") LocalDateTime cutoffTime, @Param("now") LocalDateTime now);
+
+    /**
+     * 進行状況だけを読む（状態データの列を含めない）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.SimulationProgressRow(" +
+            "s.id, s.currentStep, s.totalSteps, s.progressPercentage) FROM LearningSimulation s WHERE s.id = :id")
+    Optional<SimulationProgressRow> findProgressRow(@Param("id") Long id);
+
+    /**
+     * 進行状況と最終アクセス日時だけを更新する（状態データの列を書き直さない）
+     */
+    @Modifying
+    @Query("UPDATE LearningSimulation s SET s.currentStep = :currentStep, s.progressPercentage = :progressPercentage, " +
+            "s.lastAccessedAt = :now, s.updatedAt = :now WHERE s.id = :id")
+    int updateProgressColumns(@Param("id") Long id, @Param("currentStep") Integer currentStep,
+            @Param("progressPercentage") BigDecimal progressPercentage, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.SimulationSnapshotRow(" +
+            "s.id, s.stateData, s.stateSnapshotSeq) FROM LearningSimulation s WHERE s.id = :id")
+    Optional<SimulationSnapshotRow> findStateSnapshot(@Param("id") Long id);
+
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.SimulationSnapshotRow(" +
+            "s.id, s.feedbackData, s.feedbackSnapshotSeq) FROM LearningSimulation s WHERE s.id = :id")
+    Optional<SimulationSnapshotRow> findFeedbackSnapshot(@Param("id") Long id);
+
+    /**
+     * 状態データのスナップショットを進める（より新しいスナップショットがあれば何もしない）
+     */
+    @Modifying
+    @Query("UPDATE LearningSimulation s SET s.stateData = :json, s.stateSnapshotSeq = :seq " +
+            "WHERE s.id = :id AND s.stateSnapshotSeq < :seq")
+    int compactState(@Param("id") Long id, @Param("json") String json, @Param("seq") Long seq);
+
+    /**
+     * フィードバックデータのスナップショットを進める
+     */
+    @Modifying
+    @Query("UPDATE LearningSimulation s SET s.feedbackData = :json, s.feedbackSnapshotSeq = :seq " +
+            "WHERE s.id = :id AND s.feedbackSnapshotSeq < :seq")
+    int compactFeedback(@Param("id") Long id, @Param("json") String json, @Param("seq") Long seq);
 }
@@ -0,0 +1,56 @@
+package com.sfr.tokyo.sfr_backend.repository.learning;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulationStateDelta;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulationStateDelta.Channel;
+
+@Repository
+public interface LearningSimulationStateDeltaRepository extends JpaRepository<LearningSimulationStateDelta, Long> {
+
+    /**
+     * スナップショット以降の差分（seq 順）
+     */
+    @Query("SELECT d FROM LearningSimulationStateDelta d WHERE d.simulationId = :simulationId " +
+            "AND d.channel = :channel AND d.seq > :afterSeq ORDER BY d.seq")
+    List<LearningSimulationStateDelta> findAfter(@Param("simulationId") Long simulationId,
+            @Param("channel") Channel channel, @Param("afterSeq") Long afterSeq);
+
+    /**
+     * 複数シミュレーションの差分（一覧表示用、スナップショット以前の分も含む）
+     */
+    @Query("SELECT d FROM LearningSimulationStateDelta d WHERE d.simulationId IN :simulationIds " +
+            "AND d.channel = :channel ORDER BY d.simulationId, d.seq")
+    List<LearningSimulationStateDelta> findBySimulationIdIn(@Param("simulationIds") Collection<Long> simulationIds,
+            @Param("channel") Channel channel);
+
+    /**
+     * スナップショットに取り込まれていない差分があり、最後の差分が基準日時より前のもの（[シミュレーションID, チャネル]）
+     */
+    @Query("SELECT d.simulationId, d.channel FROM LearningSimulationStateDelta d, LearningSimulation s " +
+            "WHERE s.id = d.simulationId " +
+            "AND d.seq > CASE WHEN d.channel = :state THEN s.stateSnapshotSeq ELSE s.feedbackSnapshotSeq END " +
+            "GROUP BY d.simulationId, d.channel HAVING MAX(d.createdAt) < :idleBefore")
+    List<Object[]> findIdlePending(@Param("idleBefore") LocalDateTime idleBefore, @Param("state") Channel state);
+
+    /**
+     * スナップショットに取り込み済みで、基準日時より前に書かれた差分を削除する
+     */
+    @Modifying
+    @Query("DELETE FROM LearningSimulationStateDelta d WHERE d.createdAt < :cutoff AND d.seq <= " +
+            "(SELECT CASE WHEN d.channel = :state THEN s.stateSnapshotSeq ELSE s.feedbackSnapshotSeq END " +
+            "FROM LearningSimulation s WHERE s.id = d.simulationId)")
+    int purgeCompacted(@Param("cutoff") LocalDateTime cutoff, @Param("state") Channel state);
+
+    @Modifying
+    @Query("DELETE FROM LearningSimulationStateDelta d WHERE d.simulationId = :simulationId")
+    int deleteBySimulationId(@Param("simulationId") Long simulationId);
+}
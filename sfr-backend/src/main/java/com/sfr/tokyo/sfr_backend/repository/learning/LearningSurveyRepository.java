@@ -1,16 +1,20 @@
 package com.sfr.tokyo.sfr_backend.repository.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSurvey;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.Collection;
 
 /**
  * 学習アンケート リポジトリ - LearningSurveyRepository
@@ -317,4 +321,20 @@ public interface LearningSurveyRepository extends JpaRepository<LearningSurvey,
      */
     @Query("SELECT ls FROM LearningSurvey ls WHERE ls.satisfactionScore IS NOT NULL ORDER BY ls.satisfactionScore DESC")
     List<LearningSurvey> findBySatisfactionScoreDesc();
+
+    /**
+     * 回答期限が設定された未完了アンケート（期限登録の取り込み用、ID順）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(ls.id, ls.dueDate) FROM LearningSurvey ls " +
+            "WHERE ls.id > :afterId AND ls.dueDate IS NOT NULL " +
+            "AND ls.surveyStatus NOT IN ('COMPLETED', 'EXPIRED') ORDER BY ls.id")
+    List<DeadlineRow> findDueDateDeadlines(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 回答期限を過ぎた未完了アンケートを一括で期限切れにする
+     */
+    @Modifying
+    @Query("UPDATE LearningSurvey ls SET ls.surveyStatus = 'EXPIRED', ls.updatedAt = :now " +
+            "WHERE ls.id IN :ids AND ls.dueDate <= :now AND ls.surveyStatus NOT IN ('COMPLETED', 'EXPIRED')")
+    int expireDueSurveys(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
@@ -1,17 +1,20 @@
 package com.sfr.tokyo.sfr_backend.repository.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopic;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import java.util.UUID;
+import java.util.Collection;
 
 /**
  * 学習トピック リポジトリ - LearningTopicRepository
@@ -289,47 +292,48 @@ public interface LearningTopicRepository extends JpaRepository<LearningTopic, Lo
     Object[] getPeriodStatistics(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 
     // 更新系クエリ
+    // 閲覧数などのカウンターは learning_topic_stats だけを更新する（トピックの updated_at は変えない）
 
     /**
      * 閲覧数増加
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.viewCount = t.viewCount + 1, t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
+    @Query("UPDATE LearningTopicStats s SET s.viewCount = s.viewCount + 1 WHERE s.topicId = :id")
     int incrementViewCount(@Param("id") Long id);
 
     /**
      * コメント数増加
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.commentCount = t.commentCount + 1, t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
+    @Query("UPDATE LearningTopicStats s SET s.commentCount = s.commentCount + 1 WHERE s.topicId = :id")
     int incrementCommentCount(@Param("id") Long id);
 
     /**
      * コメント数減少
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.commentCount = GREATEST(t.commentCount - 1, 0), t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
+    @Query("UPDATE LearningTopicStats s SET s.commentCount = GREATEST(s.commentCount - 1, 0) WHERE s.topicId = :id")
     int decrementCommentCount(@Param("id") Long id);
 
     /**
      * ブックマーク数増加
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.bookmarkCount = t.bookmarkCount + 1, t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
+    @Query("UPDATE LearningTopicStats s SET s.bookmarkCount = s.bookmarkCount + 1 WHERE s.topicId = :id")
     int incrementBookmarkCount(@Param("id") Long id);
 
     /**
      * ブックマーク数減少
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.bookmarkCount = GREATEST(t.bookmarkCount - 1, 0), t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
+    @Query("UPDATE LearningTopicStats s SET s.bookmarkCount = GREATEST(s.bookmarkCount - 1, 0) WHERE s.topicId = :id")
     int decrementBookmarkCount(@Param("id") Long id);
 
     /**
      * シェア数増加
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.shareCount = t.shareCount + 1, t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
+    @Query("UPDATE LearningTopicStats s SET s.shareCount = s.shareCount + 1 WHERE s.topicId = :id")
     int incrementShareCount(@Param("id") Long id);
 
     /**
@@ -536,14 +540,14 @@ public interface LearningTopicRepository extends JpaRepository<LearningTopic, Lo
      * いいね数増加
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.likeCount = t.likeCount + 1, t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id")
+    @Query("UPDATE LearningTopicStats s SET s.likeCount = s.likeCount + 1 WHERE s.topicId = :id")
     int incrementLikeCount(@Param("id") Long id);
 
     /**
      * いいね数減少
      */
     @Modifying
-    @Query("UPDATE LearningTopic t SET t.likeCount = t.likeCount - 1, t.updatedAt = CURRENT_TIMESTAMP WHERE t.id = :id AND t.likeCount > 0")
+    @Query("UPDATE LearningTopicStats s SET s.likeCount = s.likeCount - 1 WHERE s.topicId = :id AND s.likeCount > 0")
     int decrementLikeCount(@Param("id") Long id);
 
     /**
@@ -680,4 +684,30 @@ public interface LearningTopicRepository extends JpaRepository<LearningTopic, Lo
     @Query("UPDATE LearningTopic t SET t.topicStatus = 'INACTIVE', t.updatedAt = CURRENT_TIMESTAMP WHERE " +
             "t.lastActivityAt < :cutoffDate AND t.topicStatus = 'ACTIVE' AND t.deletedAt IS NULL")
     int markInactiveTopics(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * 自動クローズ日時が設定された公開中トピック（期限登録の取り込み用、ID順）
+     */
+    @Query("SELECT new com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow(t.id, t.autoCloseAt) FROM LearningTopic t " +
+            "WHERE t.id > :afterId AND t.autoCloseAt IS NOT NULL AND t.topicStatus = 'ACTIVE' " +
+            "AND t.deletedAt IS NULL ORDER BY t.id")
+    List<DeadlineRow> findAutoCloseDeadlines(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 自動クローズ日時に達したトピックを一括クローズ（対象の条件は findTopicsForAutoClose と同じ）
+     */
+    @Modifying
+    @Query("UPDATE LearningTopic t SET t.topicStatus = 'CLOSED', t.closedAt = :now, t.closeReason = :reason, " +
+            "t.lastActivityAt = :now, t.updatedAt = :now WHERE t.id IN :ids AND " +
+            "t.autoCloseAt IS NOT NULL AND t.autoCloseAt <= :now AND " +
+            "t.topicStatus = 'ACTIVE' AND t.isPinned = false AND t.isFeatured = false AND " +
+            "t.deletedAt IS NULL")
+    int closeDueTopics(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+            @Param("reason") String reason);
+
+    /**
+     * 検索結果のうち削除されていないトピックのID
+     */
+    @Query("SELECT t.id FROM LearningTopic t WHERE t.id IN :ids AND t.deletedAt IS NULL")
+    List<Long> findVisibleIds(@Param("ids") Collection<Long> ids);
 }
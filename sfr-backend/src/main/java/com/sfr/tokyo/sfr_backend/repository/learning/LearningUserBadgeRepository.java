@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,6 +33,19 @@ public interface LearningUserBadgeRepository extends JpaRepository<LearningUserB
      */
     boolean existsByUserIdAndBadge_Id(UUID userId, Long badgeId);
 
+    /**
+     * ユーザーが獲得したバッジIDのみを取得（獲得済みキャッシュの読み込み用）
+     */
+    @Query("SELECT lub.badge.id FROM LearningUserBadge lub WHERE lub.userId = :userId")
+    List<Long> findBadgeIdsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * 指定されたバッジのうちユーザーが獲得済みのバッジIDを取得
+     */
+    @Query("SELECT lub.badge.id FROM LearningUserBadge lub WHERE lub.userId = :userId AND lub.badge.id IN :badgeIds")
+    List<Long> findBadgeIdsByUserIdAndBadgeIdIn(@Param("userId") UUID userId,
+            @Param("badgeIds") Collection<Long> badgeIds);
+
     /**
      * ユーザーの最近獲得したバッジを取得（日付降順）
      */
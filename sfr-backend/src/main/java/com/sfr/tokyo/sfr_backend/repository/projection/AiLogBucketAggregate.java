@@ -0,0 +1,36 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.AiType;
+
+/**
+ * 集計行の再構築用に AI学習ログを (ユーザー, スペース, AIタイプ, 時刻) でまとめた値
+ * 時間単位の集計では minute は 0
+ */
+public record AiLogBucketAggregate(
+        UUID userId,
+        UUID spaceId,
+        AiType aiType,
+        Integer year,
+        Integer month,
+        Integer day,
+        Integer hour,
+        Integer minute,
+        Long requestCount,
+        Long errorCount,
+        Long satisfactionSum,
+        Long satisfactionCount,
+        BigDecimal confidenceSum,
+        Long confidenceCount,
+        Long processingTimeSum,
+        Long processingTimeCount,
+        Long tokensSum,
+        Long latencyLe100,
+        Long latencyLe500,
+        Long latencyLe1000,
+        Long latencyLe2000,
+        Long latencyLe5000,
+        Long latencyGt5000) {
+}
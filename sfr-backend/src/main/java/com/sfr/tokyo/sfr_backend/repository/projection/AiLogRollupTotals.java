@@ -0,0 +1,24 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * AI学習ログ集計行の合計（該当行がなければ各値は null）
+ */
+public record AiLogRollupTotals(
+        Long requestCount,
+        Long errorCount,
+        Long satisfactionSum,
+        Long satisfactionCount,
+        BigDecimal confidenceSum,
+        Long confidenceCount,
+        Long processingTimeSum,
+        Long processingTimeCount,
+        Long tokensSum,
+        Long latencyLe100,
+        Long latencyLe500,
+        Long latencyLe1000,
+        Long latencyLe2000,
+        Long latencyLe5000,
+        Long latencyGt5000) {
+}
@@ -0,0 +1,14 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * 残高突合用のプロジェクション
+ * SfrPoint / UserBalance の両方から、比較・修復に必要な列だけを取得する
+ */
+public record BalanceRow(
+        String userId,
+        BigDecimal currentBalance,
+        BigDecimal totalEarned,
+        BigDecimal totalSpent) {
+}
@@ -0,0 +1,16 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.math.BigDecimal;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision;
+
+/**
+ * バーン判定のステータス別集計
+ * 期間統計を GROUP BY で DB 側に集計させるためのプロジェクション
+ */
+public record BurnStatusAggregate(
+        BurnDecision.BurnStatus status,
+        Long count,
+        BigDecimal totalProposedAmount,
+        BigDecimal totalActualAmount) {
+}
@@ -0,0 +1,15 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.math.BigDecimal;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision;
+
+/**
+ * バーン判定のデシジョンタイプ別集計
+ */
+public record BurnTypeAggregate(
+        BurnDecision.DecisionType decisionType,
+        Long count,
+        BigDecimal totalProposedAmount,
+        Long completedCount) {
+}
@@ -0,0 +1,16 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * フィード表示用のコメントプロジェクション（投稿者名を結合済み）
+ */
+public record CommentFeedRow(
+        Long id,
+        String content,
+        Long postId,
+        UUID userId,
+        String username,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,16 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 期限登録の取り込み用（対象ID と期限日時）
+ */
+public record DeadlineRow(Long id, LocalDateTime dueAt) {
+
+    /**
+     * 基準日時からの日数で期限が決まる対象用（基準日時・日数が未設定なら期限なし）
+     */
+    public DeadlineRow(Long id, LocalDateTime baseAt, Integer days) {
+        this(id, baseAt != null && days != null && days > 0 ? baseAt.plusDays(days) : null);
+    }
+}
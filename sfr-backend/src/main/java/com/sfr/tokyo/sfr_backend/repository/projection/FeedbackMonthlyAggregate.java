@@ -0,0 +1,9 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.FeedbackType;
+
+/**
+ * 月別件数再構築用の作成年月・タイプ別集計
+ */
+public record FeedbackMonthlyAggregate(Integer year, Integer month, FeedbackType feedbackType, Long count) {
+}
@@ -0,0 +1,18 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.TargetType;
+
+/**
+ * 評価サマリー再構築用の対象別集計（件数・評価合計・評価1〜5の件数）
+ */
+public record FeedbackRatingAggregate(
+        TargetType targetType,
+        Long targetId,
+        Long count,
+        Long ratingSum,
+        Long rating1Count,
+        Long rating2Count,
+        Long rating3Count,
+        Long rating4Count,
+        Long rating5Count) {
+}
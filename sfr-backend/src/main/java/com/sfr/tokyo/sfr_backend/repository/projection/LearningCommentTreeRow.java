@@ -0,0 +1,27 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment.CommentStatus;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment.CommentType;
+
+/**
+ * スレッド表示用の学習コメントプロジェクション（ツリーの組み立てと表示に使う列のみ）
+ */
+public record LearningCommentTreeRow(
+        Long id,
+        Long parentCommentId,
+        String threadPath,
+        UUID authorId,
+        String content,
+        CommentType commentType,
+        CommentStatus commentStatus,
+        Integer likeCount,
+        Boolean isBestAnswer,
+        Boolean isSolution,
+        Boolean isPinned,
+        Integer depthLevel,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,18 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * フィード表示用の投稿プロジェクション
+ * エンティティを経由せず、一覧に必要な列と投稿者名だけを1クエリで取得する
+ */
+public record PostFeedRow(
+        Long id,
+        String title,
+        String description,
+        String fileUrl,
+        UUID userId,
+        String authorName,
+        LocalDateTime createdAt) {
+}
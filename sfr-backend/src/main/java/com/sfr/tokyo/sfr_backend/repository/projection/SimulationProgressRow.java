@@ -0,0 +1,10 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * コマンド適用用の進行状況（状態データの列を読まない）
+ */
+public record SimulationProgressRow(Long id, Integer currentStep, Integer totalSteps,
+        BigDecimal progressPercentage) {
+}
@@ -0,0 +1,7 @@
+package com.sfr.tokyo.sfr_backend.repository.projection;
+
+/**
+ * シミュレーションの状態スナップショット（JSON と取り込み済みの差分 seq）
+ */
+public record SimulationSnapshotRow(Long simulationId, String json, Long seq) {
+}
@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -77,4 +78,54 @@ public interface LimitedItemRepository extends JpaRepository<LimitedItem, Long>
     // 在庫復活候補
     @Query("SELECT li FROM LimitedItem li WHERE li.status = 'SOLD_OUT' AND li.salesCount > :minSales ORDER BY li.salesCount DESC")
     List<LimitedItem> getRestockCandidates(@Param("minSales") int minSales);
-}
\ No newline at end of file
+
+    // === 在庫の原子的更新（読み取り→書き込みを挟まない条件付き UPDATE） ===
+
+    // 販売可能在庫（販売中でなければ空）
+    @Query("SELECT li.stockQuantity FROM LimitedItem li WHERE li.id = :itemId AND li.status = :status")
+    Optional<Integer> findStockByIdAndStatus(@Param("itemId") Long itemId,
+                                             @Param("status") LimitedItem.ItemStatus status);
+
+    // 在庫確保: 在庫が足りる場合のみ減算（更新件数 0 = 在庫不足または販売停止）
+    @Modifying
+    @Query("UPDATE LimitedItem li SET li.stockQuantity = li.stockQuantity - :quantity, li.updatedAt = :now " +
+           "WHERE li.id = :itemId AND li.status = :status AND li.stockQuantity >= :quantity")
+    int decrementStockIfAvailable(@Param("itemId") Long itemId,
+                                  @Param("quantity") int quantity,
+                                  @Param("status") LimitedItem.ItemStatus status,
+                                  @Param("now") LocalDateTime now);
+
+    // 在庫戻し・補充
+    @Modifying
+    @Query("UPDATE LimitedItem li SET li.stockQuantity = COALESCE(li.stockQuantity, 0) + :quantity, li.updatedAt = :now " +
+           "WHERE li.id = :itemId")
+    int incrementStock(@Param("itemId") Long itemId,
+                       @Param("quantity") int quantity,
+                       @Param("now") LocalDateTime now);
+
+    // 販売数加算（購入確定時）
+    @Modifying
+    @Query("UPDATE LimitedItem li SET li.salesCount = COALESCE(li.salesCount, 0) + :quantity, li.updatedAt = :now " +
+           "WHERE li.id = :itemId")
+    int incrementSalesCount(@Param("itemId") Long itemId,
+                            @Param("quantity") int quantity,
+                            @Param("now") LocalDateTime now);
+
+    // 売り切れ化（在庫が尽きた販売中アイテムのみ）
+    @Modifying
+    @Query("UPDATE LimitedItem li SET li.status = :soldOut, li.updatedAt = :now " +
+           "WHERE li.id = :itemId AND li.status = :active AND li.stockQuantity <= 0")
+    int markSoldOutIfEmpty(@Param("itemId") Long itemId,
+                           @Param("active") LimitedItem.ItemStatus active,
+                           @Param("soldOut") LimitedItem.ItemStatus soldOut,
+                           @Param("now") LocalDateTime now);
+
+    // 販売再開（在庫が戻った売り切れアイテムのみ）
+    @Modifying
+    @Query("UPDATE LimitedItem li SET li.status = :active, li.updatedAt = :now " +
+           "WHERE li.id = :itemId AND li.status = :soldOut AND li.stockQuantity > 0")
+    int reactivateIfRestocked(@Param("itemId") Long itemId,
+                              @Param("soldOut") LimitedItem.ItemStatus soldOut,
+                              @Param("active") LimitedItem.ItemStatus active,
+                              @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,46 @@
+package com.sfr.tokyo.sfr_backend.repository.shop;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation.ReservationStatus;
+
+/**
+ * 限定アイテム在庫予約リポジトリ
+ * 状態遷移は条件付き UPDATE で行い、同じ予約を二重に確定・解放しない
+ */
+@Repository
+public interface LimitedItemReservationRepository extends JpaRepository<LimitedItemReservation, Long> {
+
+    // 購入者本人による遷移（有効期限内のみ）
+    @Modifying
+    @Query("UPDATE LimitedItemReservation r SET r.status = :to, r.updatedAt = :now " +
+           "WHERE r.id = :id AND r.buyerId = :buyerId AND r.status = :from AND r.expiresAt > :now")
+    int transitionActive(@Param("id") Long id,
+                         @Param("buyerId") String buyerId,
+                         @Param("from") ReservationStatus from,
+                         @Param("to") ReservationStatus to,
+                         @Param("now") LocalDateTime now);
+
+    // システムによる遷移（期限切れ処理）
+    @Modifying
+    @Query("UPDATE LimitedItemReservation r SET r.status = :to, r.updatedAt = :now WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to,
+                   @Param("now") LocalDateTime now);
+
+    // 期限切れ候補
+    @Query("SELECT r FROM LimitedItemReservation r WHERE r.status = :status AND r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<LimitedItemReservation> findExpired(@Param("status") ReservationStatus status,
+                                             @Param("now") LocalDateTime now,
+                                             Pageable pageable);
+}
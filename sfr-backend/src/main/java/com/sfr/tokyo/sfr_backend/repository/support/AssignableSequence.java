@@ -0,0 +1,28 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * ID を {@link AssignableSequenceGenerator} で採番する
+ *
+ * {@code @Id} のフィールドに付ける。{@link IdAllocator} で事前に割り当てたIDはそのまま使い、
+ * 未設定なら指定したシーケンスから pooled で採番する。
+ */
+@IdGeneratorType(AssignableSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface AssignableSequence {
+
+    /** シーケンス名 */
+    String sequenceName();
+
+    /** 1回のシーケンス読み出しで確保するID数（シーケンスの INCREMENT BY と一致させる） */
+    int incrementSize() default 50;
+}
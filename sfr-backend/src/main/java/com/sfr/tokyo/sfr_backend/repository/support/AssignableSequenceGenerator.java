@@ -0,0 +1,46 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * 事前に割り当てたIDをそのまま使う SEQUENCE 採番
+ *
+ * INSERT より前に {@link IdAllocator} で採番しておいたエンティティは、そのIDのまま永続化する。
+ * IDが未設定のエンティティは通常の SEQUENCE 採番（pooled）になる。
+ * エンティティの ID には {@link AssignableSequence} で指定する。
+ */
+public class AssignableSequenceGenerator extends SequenceStyleGenerator {
+
+    private final String sequenceName;
+    private final int incrementSize;
+
+    public AssignableSequenceGenerator(AssignableSequence config) {
+        this.sequenceName = config.sequenceName();
+        this.incrementSize = config.incrementSize();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        parameters.setProperty(INCREMENT_PARAM, Integer.toString(incrementSize));
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return currentValue != null ? currentValue : super.generate(session, owner);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * 大量件数の一括書き込み
+ *
+ * hibernate.jdbc.batch_size 件ごとに flush して JDBC バッチとして送り、書き込んだエンティティだけを
+ * detach して永続化コンテキストが件数に比例して膨らまないようにする。
+ * 更新はIDのチャンク単位で読み込み → 変更 → flush/detach を繰り返すため、全件をメモリに載せない。
+ * 呼び出し側のトランザクション内で使うこと（戻り値のエンティティは detach 済み）。
+ * 呼び出し側が同じ永続化コンテキストで管理している他のエンティティはそのまま managed に残る。
+ */
+@Component
+public class BatchWriter {
+
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public BatchWriter(EntityManager entityManager,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 新規エンティティをまとめて INSERT する
+     * ID が IDENTITY 採番のエンティティは INSERT ごとに即時実行されるためバッチにならない（SEQUENCE 採番を使うこと）
+     *
+     * @return 登録件数
+     */
+    public <T> int insertAll(Collection<T> entities) {
+        int count = 0;
+        List<T> pending = new ArrayList<>(Math.min(batchSize, entities.size()));
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            pending.add(entity);
+            count++;
+            if (pending.size() == batchSize) {
+                flushAndDetach(pending);
+                pending.clear();
+            }
+        }
+        flushAndDetach(pending);
+        return count;
+    }
+
+    /**
+     * ID をチャンクに分けて読み込み、変更して UPDATE をまとめて送る
+     *
+     * @param ids      対象ID
+     * @param loader   チャンク分のIDからエンティティを読み込む（findAllById など）
+     * @param mutation 各エンティティへの変更
+     * @return 読み込んだエンティティ（detach 済み）
+     */
+    public <ID, T> List<T> updateByIds(List<ID> ids, Function<List<ID>, List<T>> loader, Consumer<T> mutation) {
+        List<T> processed = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<T> chunk = loader.apply(ids.subList(from, Math.min(from + batchSize, ids.size())));
+            chunk.forEach(mutation);
+            flushAndDetach(chunk);
+            processed.addAll(chunk);
+        }
+        return processed;
+    }
+
+    /**
+     * 保留中の変更を送り、書き込んだエンティティを永続化コンテキストから外す
+     * flush はコンテキスト全体が対象だが、clear と違い呼び出し側の他のエンティティは detach しない
+     */
+    private void flushAndDetach(Collection<?> written) {
+        entityManager.flush();
+        written.forEach(entityManager::detach);
+    }
+}
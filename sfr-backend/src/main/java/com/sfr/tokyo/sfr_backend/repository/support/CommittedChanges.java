@@ -0,0 +1,140 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * コミット済みの変更をメモリ上のビューへ反映するための補助
+ *
+ * {@link #afterCommit(Runnable)} / {@link #afterRollback(Runnable)} / {@link #afterCompletion(Runnable)} は
+ * トランザクションの結果が出るまで処理を遅らせる。同じトランザクションで登録した処理は登録順に実行される。
+ *
+ * インスタンスは DB からの全件読み直しと、その間にコミットされた個別の変更を突き合わせる。
+ * 読み直しの結果は読み込み開始時点のものなので、読み込み中に {@link #changed(Object)} されたキーは
+ * 読み直し結果ではなくビュー上の値を残す。インスタンスのメソッドはビューを更新するのと同じロックの中で呼ぶこと。
+ * 読み直しは DB を読む間ロックを離すため重なることがある（定期の読み直しと初回アクセスなど）。
+ * 変更されたキーは {@link #beginReload()} が返す読み直しごとに記録し、それぞれ自分の分だけで突き合わせる。
+ *
+ * @param <K> ビューのキー
+ */
+public final class CommittedChanges<K> {
+
+    /** 進行中の読み直し */
+    private final List<Reload<K>> reloads = new ArrayList<>();
+
+    /**
+     * トランザクション中ならコミット後に、そうでなければ直ちに実行する
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * トランザクションがコミットされずに終わった場合（ロールバック・結果不明）に実行する
+     * トランザクション外では何もしない
+     */
+    public static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * トランザクション中なら結果にかかわらず終了後に、そうでなければ直ちに実行する
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 読み直しを開始する（以降の変更を記録する）
+     *
+     * @return この読み直し（{@link #finishReload} か {@link #cancelReload} へ渡す）
+     */
+    public Reload<K> beginReload() {
+        Reload<K> reload = new Reload<>();
+        reloads.add(reload);
+        return reload;
+    }
+
+    /**
+     * 読み込みに失敗した読み直しを破棄する
+     */
+    public void cancelReload(Reload<K> reload) {
+        reloads.remove(reload);
+    }
+
+    /**
+     * ビューへ反映した変更を記録する
+     */
+    public void changed(K key) {
+        for (Reload<K> reload : reloads) {
+            reload.changed.add(key);
+        }
+    }
+
+    /**
+     * 読み直し中に変更されたキーについて、読み直し結果を現在のビューの値で置き換えて読み直しを終える
+     *
+     * @param reload  {@link #beginReload()} の戻り値
+     * @param fresh   読み直した値（この中身を書き換える）
+     * @param current 現在のビュー（キーが無ければ削除済みとして fresh からも除く）
+     * @throws IllegalStateException 終了済み・取消済みの読み直しを渡した場合
+     */
+    public <V> void finishReload(Reload<K> reload, Map<K, V> fresh, Map<K, V> current) {
+        if (!reloads.remove(reload)) {
+            throw new IllegalStateException("Reload is not in progress");
+        }
+        for (K key : reload.changed) {
+            V latest = current.get(key);
+            if (latest != null) {
+                fresh.put(key, latest);
+            } else {
+                fresh.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 1回分の読み直しと、その開始後に変更されたキー
+     */
+    public static final class Reload<K> {
+
+        private final Set<K> changed = new HashSet<>();
+
+        private Reload() {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.Generator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * INSERT 前のID採番
+ *
+ * 書き込みを後回しにするエンティティに、受け付けた時点でIDを割り当てる。
+ * 採番はエンティティの SEQUENCE（pooled）から取り出すため、増分ごとに1回だけシーケンスを読む。
+ * 対象のエンティティは {@link AssignableSequenceGenerator} で採番していること。
+ */
+@Component
+public class IdAllocator {
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public IdAllocator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * エンティティにIDを割り当てる（設定済みならそのまま）
+     *
+     * @return 割り当てたID
+     */
+    public Object assign(Object entity) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entity.getClass());
+        Generator generator = persister.getGenerator();
+        if (!(generator instanceof BeforeExecutionGenerator beforeExecution) || !generator.allowAssignedIdentifiers()) {
+            throw new IllegalStateException(persister.getEntityName() + " does not accept pre-assigned ids");
+        }
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            SharedSessionContractImplementor implementor = (SharedSessionContractImplementor) session;
+            Object current = persister.getIdentifier(entity, implementor);
+            if (current != null) {
+                return current;
+            }
+            Object id = beforeExecution.generate(implementor, entity, null, EventType.INSERT);
+            persister.setIdentifier(entity, id, implementor);
+            return id;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 読み取り専用トランザクションをレプリカへ振り分けるデータソース
+ *
+ * readOnly = true のトランザクションは正常なレプリカへラウンドロビンで、それ以外はプライマリへ送る。
+ * 接続の取得時点でトランザクションの readOnly が確定している必要があるため、
+ * LazyConnectionDataSourceProxy で包んで使うこと。
+ *
+ * 書き込みをコミットしたユーザーは pin 期間のあいだ読み取りもプライマリへ送る（レプリカの遅延で自分の書き込みが見えなくなるのを防ぐ）。
+ * この記録はノードごとのメモリ上にあるため、複数ノード構成ではスティッキーセッションを前提とする。
+ * レプリカは {@link #checkReplicas()} で死活と遅延を確認し、許容遅延を超えたものは回復するまで外す。
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    private final List<Replica> replicas;
+    private final Supplier<String> currentUser;
+    private final Duration readYourWritesWindow;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final Clock clock;
+    private final Map<String, Instant> lastWriteByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger cursor = new AtomicInteger();
+    private volatile List<Replica> healthy;
+
+    /**
+     * @param replicas             レプリカ名 → データソース（それぞれ専用の接続プール）
+     * @param currentUser          現在のユーザー識別子（未ログインは null）
+     * @param readYourWritesWindow 書き込み後に読み取りをプライマリへ固定する期間
+     * @param maxLag               許容するレプリカ遅延
+     * @param lagQuery             レプリカ遅延（秒）を返すクエリ（空なら死活のみ確認）
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+            Supplier<String> currentUser, Duration readYourWritesWindow, Duration maxLag, String lagQuery,
+            Clock clock) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        List<Replica> replicaList = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            replicaList.add(new Replica(name, dataSource));
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.replicas = List.copyOf(replicaList);
+        this.healthy = this.replicas;
+        this.currentUser = currentUser;
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery != null ? lagQuery.trim() : "";
+        this.clock = clock;
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit(user);
+            return PRIMARY;
+        }
+        if (user != null && isPinned(user)) {
+            return PRIMARY;
+        }
+        List<Replica> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(cursor.getAndIncrement(), candidates.size())).name();
+    }
+
+    /**
+     * 各レプリカの死活と遅延を確認し、読み取り先を更新する
+     *
+     * @return 読み取り先として使うレプリカ名
+     */
+    public List<String> checkReplicas() {
+        List<Replica> ok = new ArrayList<>();
+        for (Replica replica : replicas) {
+            String problem = probe(replica.dataSource());
+            if (problem == null) {
+                ok.add(replica);
+            } else {
+                log.warn("Replica {} removed from read routing: {}", replica.name(), problem);
+            }
+        }
+        if (ok.size() != healthy.size()) {
+            log.info("Read routing now uses {} of {} replicas", ok.size(), replicas.size());
+        }
+        healthy = List.copyOf(ok);
+        evictExpiredPins();
+        return getHealthyReplicas();
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthy.stream().map(Replica::name).toList();
+    }
+
+    /**
+     * レプリカの接続プールを閉じる（プライマリは別途管理される）
+     */
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool {}: {}", replica.name(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void recordWriteOnCommit(String user) {
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteByUser.put(user, clock.instant());
+            }
+        });
+    }
+
+    private boolean isPinned(String user) {
+        Instant lastWrite = lastWriteByUser.get(user);
+        return lastWrite != null && clock.instant().isBefore(lastWrite.plus(readYourWritesWindow));
+    }
+
+    private void evictExpiredPins() {
+        Instant threshold = clock.instant().minus(readYourWritesWindow);
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite.isBefore(threshold));
+    }
+
+    /**
+     * @return 問題があればその内容、なければ null
+     */
+    private String probe(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(2)) {
+                return "connection is not valid";
+            }
+            if (lagQuery.isEmpty()) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return "replication status is not available";
+                }
+                Number lagSeconds = (Number) rs.getObject(lagColumn(rs.getMetaData()));
+                if (lagSeconds == null) {
+                    return "replication is not running";
+                }
+                if (Duration.ofMillis(Math.round(lagSeconds.doubleValue() * 1000)).compareTo(maxLag) > 0) {
+                    return "lag " + lagSeconds + "s exceeds " + maxLag.toSeconds() + "s";
+                }
+                return null;
+            }
+        } catch (SQLException | RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * SHOW REPLICA STATUS などの複数列の結果では遅延の列を、それ以外は先頭列を使う
+     */
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (LAG_COLUMNS.contains(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private record Replica(String name, DataSource dataSource) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import java.sql.Savepoint;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 一意キーごとに1行へまとめるテーブルの追加・更新（upsert）
+ *
+ * まず一意キーを条件にした UPDATE を送り、対象行がなければ行を追加する。
+ * 追加は呼び出し元と同じ接続・トランザクションの StatelessSession から直接 INSERT し、セーブポイントで囲む。
+ * 並行するトランザクションが同じキーの行を先に追加していた場合は、一意制約違反をセーブポイントまで戻して
+ * UPDATE をやり直すため、呼び出し元のトランザクションは失敗しない。
+ * 永続化コンテキストを経由しないので、失敗した INSERT が後の flush に持ち越されることもない。
+ * 呼び出し元のトランザクション内で使うこと。
+ */
+@Slf4j
+@Component
+public class UpsertWriter {
+
+    private final EntityManager entityManager;
+
+    public UpsertWriter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param update 一意キーを条件にした UPDATE（更新件数を返す）
+     * @param newRow 行がなかった場合に追加するエンティティ
+     * @return 行を追加した場合は true、既存の行を更新した場合は false
+     */
+    public boolean upsert(IntSupplier update, Supplier<?> newRow) {
+        if (update.getAsInt() > 0) {
+            return false;
+        }
+        ConstraintViolationException conflict = insert(newRow.get());
+        if (conflict == null) {
+            return true;
+        }
+        log.debug("Concurrent insert on {}, retrying update", conflict.getConstraintName());
+        if (update.getAsInt() == 0) {
+            // 一意キー以外の制約違反
+            throw new IllegalStateException("Upsert failed: " + conflict.getMessage(), conflict);
+        }
+        return false;
+    }
+
+    /**
+     * @return 制約違反で追加できなかった場合はその例外（追加できた場合は null）
+     */
+    private ConstraintViolationException insert(Object row) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try (StatelessSession stateless = session.getSessionFactory().withStatelessOptions()
+                    .connection(connection).openStatelessSession()) {
+                stateless.insert(row);
+            } catch (ConstraintViolationException e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                return e;
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.sfr.tokyo.sfr_backend.repository.system;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+
+@Repository
+public interface ScheduledDeadlineRepository extends JpaRepository<ScheduledDeadline, Long> {
+
+    List<ScheduledDeadline> findByKindAndTargetIdIn(DeadlineKind kind, Collection<Long> targetIds);
+
+    /**
+     * 指定日時より前に期限が来るもの（期限・ID順、キーセットページング）
+     */
+    @Query("""
+            SELECT d FROM ScheduledDeadline d
+            WHERE d.dueAt < :until
+            AND (d.dueAt > :afterDueAt OR (d.dueAt = :afterDueAt AND d.id > :afterId))
+            ORDER BY d.dueAt, d.id
+            """)
+    List<ScheduledDeadline> findDueBefore(@Param("until") LocalDateTime until,
+            @Param("afterDueAt") LocalDateTime afterDueAt, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 種類ごとの期限到来済みの対象ID（期限順）
+     */
+    @Query("SELECT d.targetId FROM ScheduledDeadline d WHERE d.kind = :kind AND d.dueAt <= :now ORDER BY d.dueAt, d.id")
+    List<Long> findDueTargetIds(@Param("kind") DeadlineKind kind, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * 処理済みの期限を削除する（処理中に延長された期限は残す）
+     */
+    @Modifying
+    @Query("DELETE FROM ScheduledDeadline d WHERE d.kind = :kind AND d.targetId IN :targetIds AND d.dueAt <= :now")
+    int deleteDue(@Param("kind") DeadlineKind kind, @Param("targetIds") Collection<Long> targetIds,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * 対象の期限を変更する（行がなければ 0 件）
+     */
+    @Modifying
+    @Query("UPDATE ScheduledDeadline d SET d.dueAt = :dueAt, d.updatedAt = :now WHERE d.kind = :kind AND d.targetId = :targetId")
+    int updateDueAt(@Param("kind") DeadlineKind kind, @Param("targetId") Long targetId,
+            @Param("dueAt") LocalDateTime dueAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ScheduledDeadline d WHERE d.kind = :kind AND d.targetId = :targetId")
+    int deleteByKindAndTargetId(@Param("kind") DeadlineKind kind, @Param("targetId") Long targetId);
+}
@@ -1,6 +1,7 @@
 package com.sfr.tokyo.sfr_backend.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -16,6 +17,7 @@ import com.sfr.tokyo.sfr_backend.entity.CharacterStatus;
 import com.sfr.tokyo.sfr_backend.mapper.CharacterMapper;
 import com.sfr.tokyo.sfr_backend.repository.CharacterRepository;
 import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.service.image.ImageDerivativeService;
 import com.sfr.tokyo.sfr_backend.user.User;
 
 import lombok.RequiredArgsConstructor;
@@ -28,6 +30,7 @@ public class CharacterService {
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
     private final CharacterMapper characterMapper;
+    private final ImageDerivativeService imageDerivativeService;
 
     /**
      * キャラクター作成（DTOベース）
@@ -50,7 +53,7 @@ public class CharacterService {
         // 保存
         CharacterLifecycle savedCharacter = characterRepository.save(character);
 
-        return characterMapper.toDto(savedCharacter);
+        return toDto(savedCharacter);
     }
 
     /**
@@ -88,7 +91,7 @@ public class CharacterService {
         character.setStatus(status);
         CharacterLifecycle updatedCharacter = characterRepository.save(character);
 
-        return characterMapper.toDto(updatedCharacter);
+        return toDto(updatedCharacter);
     }
 
     /**
@@ -106,6 +109,7 @@ public class CharacterService {
         String imageUrl = null;
         if (imageFile != null && !imageFile.isEmpty()) {
             String fileName = fileStorageService.storeFile(imageFile);
+            imageDerivativeService.submit(fileStorageService.getFilePath(fileName));
             imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
                     .path("/api/characters/downloadFile/")
                     .path(fileName)
@@ -122,7 +126,7 @@ public class CharacterService {
                 .build();
 
         CharacterLifecycle savedCharacter = characterRepository.save(newCharacter);
-        return characterMapper.toDto(savedCharacter);
+        return toDto(savedCharacter);
     }
 
     /**
@@ -132,7 +136,7 @@ public class CharacterService {
     public List<CharacterDto> getMyCharacters(UUID userId) {
         List<CharacterLifecycle> characters = characterRepository.findByUser_Id(userId);
         return characters.stream()
-                .map(characterMapper::toDto)
+                .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -141,7 +145,7 @@ public class CharacterService {
      */
     @Transactional(readOnly = true)
     public Optional<CharacterDto> getCharacterById(Long id) {
-        return characterRepository.findById(id).map(characterMapper::toDto);
+        return characterRepository.findById(id).map(this::toDto);
     }
 
     /**
@@ -163,10 +167,14 @@ public class CharacterService {
 
                     if (imageFile != null && !imageFile.isEmpty()) {
                         if (characterToUpdate.getImageUrl() != null) {
-                            fileStorageService.deleteFile(characterToUpdate.getImageUrl());
+                            String oldImageUrl = characterToUpdate.getImageUrl();
+                            fileStorageService.deleteFile(oldImageUrl);
+                            imageDerivativeService.deleteDerivatives(fileStorageService
+                                    .getFilePath(oldImageUrl.substring(oldImageUrl.lastIndexOf('/') + 1)));
                         }
 
                         String fileName = fileStorageService.storeFile(imageFile);
+                        imageDerivativeService.submit(fileStorageService.getFilePath(fileName));
                         String imageUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
                                 .path("/api/characters/downloadFile/")
                                 .path(fileName)
@@ -175,7 +183,7 @@ public class CharacterService {
                     }
 
                     CharacterLifecycle updatedCharacter = characterRepository.save(characterToUpdate);
-                    return characterMapper.toDto(updatedCharacter);
+                    return toDto(updatedCharacter);
                 });
     }
 
@@ -195,4 +203,14 @@ public class CharacterService {
                     throw new IllegalArgumentException("Character not found or access denied");
                 });
     }
+
+    private CharacterDto toDto(CharacterLifecycle character) {
+        CharacterDto dto = characterMapper.toDto(character);
+        String imageUrl = character.getImageUrl();
+        // 派生画像は生成済みのものだけを公開する
+        dto.setImageVariantUrls(imageUrl == null ? Map.of()
+                : imageDerivativeService.writtenVariantUrls(imageUrl,
+                        fileStorageService.getFilePath(imageUrl.substring(imageUrl.lastIndexOf('/') + 1))));
+        return dto;
+    }
 }
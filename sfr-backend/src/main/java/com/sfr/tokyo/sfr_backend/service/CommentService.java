@@ -5,16 +5,23 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.sfr.tokyo.sfr_backend.dto.CommentDto;
+import com.sfr.tokyo.sfr_backend.dto.FeedPageDto;
 import com.sfr.tokyo.sfr_backend.entity.Comment;
 import com.sfr.tokyo.sfr_backend.entity.PostEntity;
 import com.sfr.tokyo.sfr_backend.mapper.CommentMapper;
 import com.sfr.tokyo.sfr_backend.repository.CommentRepository;
 import com.sfr.tokyo.sfr_backend.repository.PostRepository;
 import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.CommentFeedRow;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedCursor;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedPageCache;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedPages;
 import com.sfr.tokyo.sfr_backend.user.User;
 
 import lombok.RequiredArgsConstructor;
@@ -27,16 +34,32 @@ public class CommentService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final CommentMapper commentMapper;
+    private final FeedPageCache feedPageCache;
+
+    @Value("${feed.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${feed.page-size.max:100}")
+    private int maxPageSize;
 
     /**
-     * 投稿のコメント一覧取得
+     * 投稿のコメント一覧取得（古い順・キーセットページング）
+     *
+     * @param postId 投稿ID
+     * @param cursor 前ページの nextCursor（先頭ページは null）
+     * @param limit  ページサイズ（null で既定値）
      */
     @Transactional(readOnly = true)
-    public List<CommentDto> getCommentsByPostId(Long postId) {
-        List<Comment> comments = commentRepository.findByPost_Id(postId);
-        return comments.stream()
-                .map(commentMapper::toDto)
-                .collect(Collectors.toList());
+    public FeedPageDto<CommentDto> getCommentsByPostId(Long postId, String cursor, Integer limit) {
+        int pageSize = FeedPages.resolveLimit(limit, defaultPageSize, maxPageSize);
+        FeedCursor after = FeedCursor.decode(cursor);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+        List<CommentFeedRow> rows = after == null
+                ? commentRepository.findFeedFirstPage(postId, fetch)
+                : commentRepository.findFeedPageAfter(postId, after.createdAt(), after.id(), fetch);
+        return FeedPages.of(rows, pageSize,
+                row -> new FeedCursor(row.createdAt(), row.id()),
+                page -> page.stream().map(commentMapper::fromFeedRow).collect(Collectors.toList()));
     }
 
     /**
@@ -59,6 +82,8 @@ public class CommentService {
 
         // 保存
         Comment savedComment = commentRepository.save(comment);
+        // フィードのコメント数を更新するため先頭ページキャッシュを破棄
+        feedPageCache.invalidateFeedsOf(post.getUser().getId());
 
         return commentMapper.toDto(savedComment);
     }
@@ -82,6 +107,7 @@ public class CommentService {
 
         if (canDelete) {
             commentRepository.delete(comment);
+            feedPageCache.invalidateFeedsOf(comment.getPost().getUser().getId());
             return true;
         }
 
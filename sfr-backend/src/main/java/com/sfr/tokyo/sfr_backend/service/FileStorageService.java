@@ -5,7 +5,6 @@ import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -14,13 +13,17 @@ import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.sfr.tokyo.sfr_backend.service.scan.UploadScanService;
+
 // ファイルの保存と削除を管理するサービス
 @Service
 public class FileStorageService {
 
     private final Path fileStorageLocation;
+    private final UploadScanService uploadScanService;
 
-    public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
+    public FileStorageService(@Value("${file.upload-dir}") String uploadDir, UploadScanService uploadScanService) {
+        this.uploadScanService = uploadScanService;
         this.fileStorageLocation = Paths.get(uploadDir)
                 .toAbsolutePath().normalize();
         try {
@@ -45,13 +48,19 @@ public class FileStorageService {
 
         try {
             Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            // 隔離領域でウイルススキャンし、クリーンな場合のみ保存先へ昇格
+            uploadScanService.storeScanned(file, targetLocation);
             return fileName;
         } catch (IOException ex) {
             throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
         }
     }
 
+    // 保存先ディレクトリ内のファイルパスを取得する
+    public Path getFilePath(String fileName) {
+        return this.fileStorageLocation.resolve(fileName).normalize();
+    }
+
     // ファイルを削除する
     public void deleteFile(String fileName) {
         try {
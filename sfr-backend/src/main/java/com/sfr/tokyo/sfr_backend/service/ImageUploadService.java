@@ -12,8 +12,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.sfr.tokyo.sfr_backend.service.scan.UploadScanService;
+
+import lombok.RequiredArgsConstructor;
+
 // 画像アップロード機能を扱うサービス
 @Service
+@RequiredArgsConstructor
 public class ImageUploadService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImageUploadService.class);
@@ -22,6 +27,8 @@ public class ImageUploadService {
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    private final UploadScanService uploadScanService;
+
     // 画像ファイルをアップロードするメソッド
     public String uploadImage(MultipartFile file) {
         if (file.isEmpty()) {
@@ -48,8 +55,8 @@ public class ImageUploadService {
             String fileName = UUID.randomUUID().toString() + fileExtension;
             Path filePath = uploadPath.resolve(fileName);
 
-            // ファイルを保存
-            Files.copy(file.getInputStream(), filePath);
+            // ウイルススキャンしながら保存（検出時は BusinessException）
+            uploadScanService.storeScanned(file, filePath);
 
             // 保存したファイルの相対パス（URLとしてアクセス可能なパス）を返す
             return "/images/" + fileName;
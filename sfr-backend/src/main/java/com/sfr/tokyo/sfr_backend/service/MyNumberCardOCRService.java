@@ -1,10 +1,22 @@
 package com.sfr.tokyo.sfr_backend.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.service.ocr.OcrJob;
+import com.sfr.tokyo.sfr_backend.service.ocr.OcrJobService;
+import com.sfr.tokyo.sfr_backend.service.scan.UploadScanService;
+
+import lombok.RequiredArgsConstructor;
+
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -12,101 +24,124 @@ import java.util.regex.Pattern;
  * Google Cloud Vision APIを使用したマイナンバーカードOCR処理サービス
  */
 @Service
+@RequiredArgsConstructor
 public class MyNumberCardOCRService {
 
-    // Google Cloud Vision API クライアント（実際の実装では依存性注入）
-    // private ImageAnnotatorClient visionClient;
+    private final UploadScanService uploadScanService;
+    private final OcrJobService ocrJobService;
+
+    // 同期APIでOCRジョブの完了を待つ最大時間
+    @Value("${ocr.sync-timeout-ms:30000}")
+    private long syncTimeoutMillis;
 
     /**
      * マイナンバーカード画像からテキストを抽出し、構造化データを返す
+     * OCR はジョブとして投入し、バッチ処理の完了を待って結果を返す
      * 
-     * @param image マイナンバーカード画像ファイル
+     * @param userId 画像を投入するユーザー
+     * @param image  マイナンバーカード画像ファイル
      * @return 抽出されたデータ
+     * @throws BusinessException 受付の混雑・ウイルス検出など、HTTP ステータスで返すべき場合
      */
-    public Map<String, Object> extractMyNumberCardData(MultipartFile image) {
+    public Map<String, Object> extractMyNumberCardData(String userId, MultipartFile image) {
         try {
-            // 実際の実装：Google Cloud Vision APIを使用してOCR処理
-            String ocrText = performVisionAPICall(image);
-
-            // OCR結果からマイナンバーカードの各項目を抽出
-            Map<String, String> extractedData = parseMyNumberCardText(ocrText);
-
-            // 抽出データの検証
-            ValidationResult validation = validateExtractedData(extractedData);
+            OcrJob job = submitJob(userId, image);
+            String ocrText = job.getText().get(syncTimeoutMillis, TimeUnit.MILLISECONDS);
+            return buildResult(ocrText);
+
+        } catch (ExecutionException e) {
+            return errorResult("OCR処理中にエラーが発生しました: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            return errorResult("OCR処理がタイムアウトしました");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return errorResult("OCR処理が中断されました");
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            return errorResult("OCR処理中にエラーが発生しました: " + e.getMessage());
+        }
+    }
 
+    /**
+     * OCR ジョブを非同期で受け付ける
+     * 
+     * @param userId 画像を投入するユーザー
+     * @param image  マイナンバーカード画像ファイル
+     * @return ジョブIDと状態
+     * @throws BusinessException 受付の混雑・ウイルス検出など、HTTP ステータスで返すべき場合
+     */
+    public Map<String, Object> submitExtraction(String userId, MultipartFile image) {
+        try {
+            OcrJob job = submitJob(userId, image);
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
-            result.put("extractedData", extractedData);
-            result.put("confidence", validation.confidence);
-            result.put("validationResults", validation.results);
-
+            result.put("jobId", job.getId());
+            result.put("status", job.getStatus().name());
             return result;
-
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("success", false);
-            errorResult.put("error", "OCR処理中にエラーが発生しました: " + e.getMessage());
-            return errorResult;
+            return errorResult("OCR処理の受付に失敗しました: " + e.getMessage());
         }
     }
 
     /**
-     * Google Cloud Vision API を使用してOCR処理を実行
-     * 実際の実装では以下のようになります：
+     * OCR ジョブの状態を取得する（完了時は抽出結果を含む）
      * 
-     * import com.google.cloud.vision.v1.*;
-     * import com.google.protobuf.ByteString;
-     * 
-     * @param image 画像ファイル
-     * @return 抽出されたテキスト
+     * @param jobId  ジョブID
+     * @param userId 参照するユーザー
+     * @return 状態と抽出結果。ジョブが存在しないか、このユーザーが投入したものでなければ空
+     */
+    public Optional<Map<String, Object>> getExtractionStatus(String jobId, String userId) {
+        return ocrJobService.find(jobId, userId).map(job -> {
+            Map<String, Object> result = switch (job.getStatus()) {
+                case DONE -> buildResult(job.getText().join());
+                case FAILED -> errorResult(job.getError());
+                default -> {
+                    Map<String, Object> pending = new HashMap<>();
+                    pending.put("success", true);
+                    yield pending;
+                }
+            };
+            result.put("jobId", job.getId());
+            result.put("status", job.getStatus().name());
+            return result;
+        });
+    }
+
+    /**
+     * ウイルススキャン後に OCR ジョブを投入する
      */
-    private String performVisionAPICall(MultipartFile image) throws Exception {
-        // デモ実装：実際にはGoogle Cloud Vision APIを呼び出し
-        /*
-         * // 実際の実装例:
-         * try (ImageAnnotatorClient visionClient = ImageAnnotatorClient.create()) {
-         * ByteString imgBytes = ByteString.copyFrom(image.getBytes());
-         * Image img = Image.newBuilder().setContent(imgBytes).build();
-         * Feature feat =
-         * Feature.newBuilder().setType(Feature.Type.TEXT_DETECTION).build();
-         * AnnotateImageRequest request = AnnotateImageRequest.newBuilder()
-         * .addFeatures(feat)
-         * .setImage(img)
-         * .build();
-         * 
-         * BatchAnnotateImagesResponse response = visionClient.batchAnnotateImages(
-         * BatchAnnotateImagesRequest.newBuilder()
-         * .addRequests(request)
-         * .build());
-         * 
-         * List<AnnotateImageResponse> responses = response.getResponsesList();
-         * AnnotateImageResponse res = responses.get(0);
-         * 
-         * if (res.hasError()) {
-         * throw new Exception("Vision API Error: " + res.getError().getMessage());
-         * }
-         * 
-         * return res.getFullTextAnnotation().getText();
-         * }
-         */
-
-        // デモ用の模擬OCRテキスト
-        return """
-                マイナンバーカード
-                個人番号カード
-
-                山田太郎
-                YAMADA TARO
-
-                昭和60年1月1日
-                男
-
-                12345678901234567890123456789012
-
-                東京都千代田区霞が関1-1-1
-
-                令和6年8月23日まで有効
-                """;
+    private OcrJob submitJob(String userId, MultipartFile image) throws Exception {
+        // OCR前にウイルススキャン（同一画像の再送はキャッシュ済み判定を利用）
+        uploadScanService.verify(uploadScanService.scan(image), image.getOriginalFilename());
+        return ocrJobService.submit(userId, image.getBytes());
+    }
+
+    /**
+     * OCRテキストを解析・検証してレスポンス用データを構築
+     */
+    private Map<String, Object> buildResult(String ocrText) {
+        // OCR結果からマイナンバーカードの各項目を抽出
+        Map<String, String> extractedData = parseMyNumberCardText(ocrText);
+
+        // 抽出データの検証
+        ValidationResult validation = validateExtractedData(extractedData);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("extractedData", extractedData);
+        result.put("confidence", validation.confidence);
+        result.put("validationResults", validation.results);
+        return result;
+    }
+
+    private Map<String, Object> errorResult(String message) {
+        Map<String, Object> errorResult = new HashMap<>();
+        errorResult.put("success", false);
+        errorResult.put("error", message);
+        return errorResult;
     }
 
     /**
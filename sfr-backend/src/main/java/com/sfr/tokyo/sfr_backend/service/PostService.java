@@ -1,20 +1,31 @@
 package com.sfr.tokyo.sfr_backend.service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.sfr.tokyo.sfr_backend.dto.FeedPageDto;
 import com.sfr.tokyo.sfr_backend.dto.PostDto;
+import com.sfr.tokyo.sfr_backend.dto.PostFeedItemDto;
 import com.sfr.tokyo.sfr_backend.entity.PostEntity;
 import com.sfr.tokyo.sfr_backend.mapper.PostMapper;
+import com.sfr.tokyo.sfr_backend.repository.CommentRepository;
 import com.sfr.tokyo.sfr_backend.repository.PostRepository;
 import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.PostFeedRow;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedCursor;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedPageCache;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedPages;
+import com.sfr.tokyo.sfr_backend.service.image.ImageDerivativeService;
 import com.sfr.tokyo.sfr_backend.user.User;
 
 import lombok.RequiredArgsConstructor;
@@ -27,6 +38,15 @@ public class PostService {
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
     private final PostMapper postMapper;
+    private final ImageDerivativeService imageDerivativeService;
+    private final CommentRepository commentRepository;
+    private final FeedPageCache feedPageCache;
+
+    @Value("${feed.page-size.default:20}")
+    private int defaultPageSize;
+
+    @Value("${feed.page-size.max:100}")
+    private int maxPageSize;
 
     // Mapperを使用してDTOとEntityの変換を行う
 
@@ -42,6 +62,9 @@ public class PostService {
         // ファイルを保存し、保存されたファイル名を取得
         String fileName = fileStorageService.storeFile(file);
 
+        // 派生画像（サムネイル等）の生成をキューに投入
+        imageDerivativeService.submit(fileStorageService.getFilePath(fileName));
+
         // ファイルのダウンロードURLを作成
         String fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path("/api/posts/downloadFile/")
@@ -56,8 +79,9 @@ public class PostService {
                 .build();
 
         PostEntity savedPost = postRepository.save(newPost);
+        feedPageCache.invalidateFeedsOf(userId);
 
-        return postMapper.toDto(savedPost);
+        return toDto(savedPost);
     }
 
     /**
@@ -75,19 +99,21 @@ public class PostService {
 
         // 保存
         PostEntity savedPost = postRepository.save(post);
+        feedPageCache.invalidateFeedsOf(userId);
 
-        return postMapper.toDto(savedPost);
+        return toDto(savedPost);
     }
 
     /**
-     * ユーザーの投稿一覧取得
+     * ユーザーの投稿一覧取得（新しい順・キーセットページング）
+     *
+     * @param userId 投稿者のユーザーID
+     * @param cursor 前ページの nextCursor（先頭ページは null）
+     * @param limit  ページサイズ（null で既定値）
      */
     @Transactional(readOnly = true)
-    public List<PostDto> getPostsByUserId(UUID userId) {
-        List<PostEntity> posts = postRepository.findByUser_Id(userId);
-        return posts.stream()
-                .map(postMapper::toDto)
-                .collect(Collectors.toList());
+    public FeedPageDto<PostFeedItemDto> getPostsByUserId(UUID userId, String cursor, Integer limit) {
+        return getFeedPage(userId, cursor, limit);
     }
 
     /**
@@ -96,7 +122,7 @@ public class PostService {
     @Transactional(readOnly = true)
     public Optional<PostDto> getPostById(Long postId) {
         return postRepository.findById(postId)
-                .map(postMapper::toDto);
+                .map(this::toDto);
     }
 
     /**
@@ -114,7 +140,8 @@ public class PostService {
                     }
 
                     PostEntity updatedPost = postRepository.save(post);
-                    return postMapper.toDto(updatedPost);
+                    feedPageCache.invalidateFeedsOf(userId);
+                    return toDto(updatedPost);
                 });
     }
 
@@ -141,9 +168,13 @@ public class PostService {
                     // ファイル削除エラーはログに記録するが処理は継続
                     // ログ処理は実装に応じて追加
                 }
+                String fileUrl = post.getFileUrl();
+                imageDerivativeService.deleteDerivatives(
+                        fileStorageService.getFilePath(fileUrl.substring(fileUrl.lastIndexOf('/') + 1)));
             }
 
             postRepository.delete(post);
+            feedPageCache.invalidateFeedsOf(userId);
             return true;
         }
 
@@ -151,13 +182,71 @@ public class PostService {
     }
 
     /**
-     * 全投稿一覧取得（公開投稿）
+     * 全投稿一覧取得（公開フィード・新しい順・キーセットページング）
+     *
+     * @param cursor 前ページの nextCursor（先頭ページは null）
+     * @param limit  ページサイズ（null で既定値）
      */
     @Transactional(readOnly = true)
-    public List<PostDto> getAllPosts() {
-        List<PostEntity> posts = postRepository.findAll();
-        return posts.stream()
-                .map(postMapper::toDto)
+    public FeedPageDto<PostFeedItemDto> getAllPosts(String cursor, Integer limit) {
+        return getFeedPage(null, cursor, limit);
+    }
+
+    private FeedPageDto<PostFeedItemDto> getFeedPage(UUID userId, String cursor, Integer limit) {
+        int pageSize = FeedPages.resolveLimit(limit, defaultPageSize, maxPageSize);
+        FeedCursor after = FeedCursor.decode(cursor);
+        if (after == null) {
+            // 先頭ページは短時間キャッシュを共有する
+            return feedPageCache.get(FeedPageCache.key(userId, pageSize), () -> loadFeedPage(userId, null, pageSize));
+        }
+        return loadFeedPage(userId, after, pageSize);
+    }
+
+    private FeedPageDto<PostFeedItemDto> loadFeedPage(UUID userId, FeedCursor after, int pageSize) {
+        List<PostFeedRow> rows = postRepository.findFeedPage(userId,
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        return FeedPages.of(rows, pageSize,
+                row -> new FeedCursor(row.createdAt(), row.id()),
+                this::toFeedItems);
+    }
+
+    /**
+     * ページ内の投稿のコメント数を1クエリで取得して DTO を組み立てる
+     */
+    private List<PostFeedItemDto> toFeedItems(List<PostFeedRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> postIds = rows.stream().map(PostFeedRow::id).collect(Collectors.toList());
+        Map<Long, Long> commentCounts = new HashMap<>();
+        for (Object[] count : commentRepository.countByPostIdIn(postIds)) {
+            commentCounts.put((Long) count[0], ((Number) count[1]).longValue());
+        }
+        return rows.stream()
+                .map(row -> {
+                    PostFeedItemDto item = postMapper.toFeedItem(row, commentCounts.getOrDefault(row.id(), 0L));
+                    item.setVariantUrls(variantUrls(row.fileUrl()));
+                    return item;
+                })
                 .collect(Collectors.toList());
     }
+
+    private PostDto toDto(PostEntity post) {
+        PostDto dto = postMapper.toDto(post);
+        dto.setVariantUrls(variantUrls(post.getFileUrl()));
+        return dto;
+    }
+
+    /**
+     * 添付ファイルの派生画像のうち、生成済みのものだけの URL
+     */
+    private Map<String, String> variantUrls(String fileUrl) {
+        if (fileUrl == null) {
+            return Map.of();
+        }
+        return imageDerivativeService.writtenVariantUrls(fileUrl,
+                fileStorageService.getFilePath(fileUrl.substring(fileUrl.lastIndexOf('/') + 1)));
+    }
 }
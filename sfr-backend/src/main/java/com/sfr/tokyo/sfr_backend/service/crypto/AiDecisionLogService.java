@@ -0,0 +1,162 @@
+package com.sfr.tokyo.sfr_backend.service.crypto;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLog;
+import com.sfr.tokyo.sfr_backend.repository.crypto.AiDecisionLogRepository;
+import com.sfr.tokyo.sfr_backend.service.crypto.ailog.AiDecisionLogArchive;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * AI決定ログサービス
+ * AI 決定ログの記録と参照を担当
+ *
+ * 直近のログはテーブル、保持期間を過ぎたログは {@link AiDecisionLogArchive} の圧縮セグメントにあるが、
+ * 参照側はどちらにあるかを意識せずに取得できる。
+ */
+@Service
+@Slf4j
+public class AiDecisionLogService {
+
+    private final AiDecisionLogRepository aiDecisionLogRepository;
+    private final AiDecisionLogArchive archive;
+    private final int pageSize;
+
+    public AiDecisionLogService(AiDecisionLogRepository aiDecisionLogRepository,
+            AiDecisionLogArchive archive,
+            @Value("${sfr.ai-log.read-page-size:500}") int pageSize) {
+        this.aiDecisionLogRepository = aiDecisionLogRepository;
+        this.archive = archive;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * AI決定ログを記録
+     */
+    @Transactional
+    public AiDecisionLog recordDecision(AiDecisionLog decisionLog) {
+        AiDecisionLog saved = aiDecisionLogRepository.save(decisionLog);
+        log.debug("AI decision log recorded with ID: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * AI決定ログを ID で取得（アーカイブ済みなら展開して返す）
+     */
+    @Transactional(readOnly = true)
+    public Optional<AiDecisionLog> findDecisionLog(Long id) {
+        Optional<AiDecisionLog> hot = aiDecisionLogRepository.findById(id);
+        if (hot.isPresent()) {
+            return hot;
+        }
+        return archive.find(id);
+    }
+
+    /**
+     * 決定日時範囲の AI 決定ログを順に読み出す
+     *
+     * テーブル上のログを ID 順にページ単位で読み、その後アーカイブのセグメントを1つずつ展開して続ける。
+     * ログ本体を全件メモリに載せないため、長期間の集計・エクスポートにも使える（保持するのは返した ID のみ）。
+     * 読み出し中にアーカイブへ移ったログも、欠けることも重複することもない。
+     */
+    public Stream<AiDecisionLog> streamDecisionLogs(LocalDateTime startDate, LocalDateTime endDate) {
+        long segmentWatermark = archive.currentSegmentWatermark();
+        HotLogIterator hotLogs = new HotLogIterator(startDate, endDate);
+        Stream<AiDecisionLog> hot = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(hotLogs, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        Stream<AiDecisionLog> archived = Stream.of(0)
+                .flatMap(ignored -> archive.stream(startDate, endDate, segmentWatermark, hotLogs::wasRead));
+        return Stream.concat(hot, archived);
+    }
+
+    /**
+     * 保持中・アーカイブ済みの件数と圧縮率
+     */
+    @Transactional(readOnly = true)
+    public AiDecisionLogStorageStatistics getStorageStatistics() {
+        AiDecisionLogArchive.ArchiveTotals totals = archive.getTotals();
+        return AiDecisionLogStorageStatistics.builder()
+                .hotRecords(aiDecisionLogRepository.count())
+                .archivedRecords(totals.records())
+                .segments(totals.segments())
+                .archivedRawBytes(totals.rawBytes())
+                .archivedCompressedBytes(totals.compressedBytes())
+                .build();
+    }
+
+    /**
+     * テーブル上のログを ID のキーセットでページングする
+     * 返した ID は昇順に記録し、読み出し中にアーカイブへ移ったログとの重複判定に使う
+     */
+    private final class HotLogIterator implements Iterator<AiDecisionLog> {
+
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private Iterator<AiDecisionLog> page = List.<AiDecisionLog>of().iterator();
+        private boolean exhausted;
+        private long lastId;
+        private long[] readIds = new long[64];
+        private int readCount;
+
+        HotLogIterator(LocalDateTime startDate, LocalDateTime endDate) {
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !exhausted) {
+                List<AiDecisionLog> next = aiDecisionLogRepository.findByDecisionDateBetweenAfterId(startDate,
+                        endDate, lastId, PageRequest.of(0, pageSize));
+                exhausted = next.size() < pageSize;
+                page = next.iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public AiDecisionLog next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            AiDecisionLog next = page.next();
+            lastId = next.getId();
+            if (readCount == readIds.length) {
+                readIds = Arrays.copyOf(readIds, readCount * 2);
+            }
+            readIds[readCount++] = lastId;
+            return next;
+        }
+
+        boolean wasRead(long id) {
+            return Arrays.binarySearch(readIds, 0, readCount, id) >= 0;
+        }
+    }
+
+    // === 内部DTOクラス ===
+
+    @Data
+    @Builder
+    public static class AiDecisionLogStorageStatistics {
+        private Long hotRecords;
+        private Long archivedRecords;
+        private Long segments;
+        private Long archivedRawBytes;
+        private Long archivedCompressedBytes;
+    }
+}
@@ -2,6 +2,9 @@ package com.sfr.tokyo.sfr_backend.service.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision;
 import com.sfr.tokyo.sfr_backend.repository.crypto.BurnDecisionRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.BurnStatusAggregate;
+import com.sfr.tokyo.sfr_backend.repository.projection.BurnTypeAggregate;
+import com.sfr.tokyo.sfr_backend.service.crypto.burn.OpenBurnDecisionView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.Data;
@@ -16,19 +19,38 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * バーン判定サービス
  * トークンバーン（燃焼）の判定と管理を担当
+ *
+ * 一覧・統計は DB 側のページングと GROUP BY 集計で取得し、テーブル全件をメモリに読み込まない。
+ * 承認待ち・投票中の判定は {@link OpenBurnDecisionView} が ID を保持し、状態遷移のたびに更新する。
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BurnDecisionService {
 
+    /** 承認済みとして数えるステータス（承認後に実行へ進んだものを含む） */
+    private static final Set<BurnDecision.BurnStatus> APPROVED_STATUSES = EnumSet.of(
+            BurnDecision.BurnStatus.APPROVED,
+            BurnDecision.BurnStatus.SCHEDULED,
+            BurnDecision.BurnStatus.EXECUTING,
+            BurnDecision.BurnStatus.COMPLETED);
+
+    /** 高額バーン一覧の最大取得件数 */
+    public static final int MAX_HIGH_VALUE_RESULTS = 500;
+
     private final BurnDecisionRepository burnDecisionRepository;
+    private final OpenBurnDecisionView openDecisionView;
 
     /**
      * バーン判定を作成
@@ -57,6 +79,7 @@ public class BurnDecisionService {
                 .build();
 
         BurnDecision saved = burnDecisionRepository.save(decision);
+        openDecisionView.onChanged(saved);
         log.info("Burn decision created with ID: {}", saved.getId());
         return saved;
     }
@@ -90,6 +113,7 @@ public class BurnDecisionService {
                 .build();
 
         BurnDecision saved = burnDecisionRepository.save(decision);
+        openDecisionView.onChanged(saved);
         log.info("AI burn decision created with ID: {}", saved.getId());
         return saved;
     }
@@ -115,6 +139,7 @@ public class BurnDecisionService {
         decision.setAdminNotes(adminNotes);
 
         BurnDecision updated = burnDecisionRepository.save(decision);
+        openDecisionView.onChanged(updated);
         log.info("Burn decision approved successfully");
         return updated;
     }
@@ -140,6 +165,7 @@ public class BurnDecisionService {
         decision.setAdminNotes(rejectionReason);
 
         BurnDecision updated = burnDecisionRepository.save(decision);
+        openDecisionView.onChanged(updated);
         log.info("Burn decision rejected successfully");
         return updated;
     }
@@ -162,6 +188,7 @@ public class BurnDecisionService {
         decision.setExecutedBy(executorId);
 
         BurnDecision updated = burnDecisionRepository.save(decision);
+        openDecisionView.onChanged(updated);
         log.info("Burn execution started");
         return updated;
     }
@@ -191,6 +218,7 @@ public class BurnDecisionService {
         decision.setActualExecutionDate(LocalDateTime.now());
 
         BurnDecision updated = burnDecisionRepository.save(decision);
+        openDecisionView.onChanged(updated);
         log.info("Burn execution completed successfully");
         return updated;
     }
@@ -212,6 +240,7 @@ public class BurnDecisionService {
         decision.setRollbackReason(failureReason);
 
         BurnDecision updated = burnDecisionRepository.save(decision);
+        openDecisionView.onChanged(updated);
         log.info("Burn marked as failed");
         return updated;
     }
@@ -237,27 +266,19 @@ public class BurnDecisionService {
     }
 
     /**
-     * ステータス別バーン判定取得（デフォルト実装）
+     * ステータス別バーン判定取得
+     *
+     * @param spaceId スペースID（null の場合は全スペース）
      */
     @Transactional(readOnly = true)
-    public Page<BurnDecision> getBurnDecisionsByStatus(BurnDecision.BurnStatus status, int page, int size) {
-        log.info("Getting burn decisions by status: {}, page: {}, size: {}", status, page, size);
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by("decisionDate").descending());
-        // 全件取得してフィルタリング（パフォーマンスは劣るが動作する）
-        List<BurnDecision> filteredDecisions = burnDecisionRepository.findAll().stream()
-                .filter(d -> d.getStatus() == status)
-                .sorted((a, b) -> b.getDecisionDate().compareTo(a.getDecisionDate()))
-                .toList();
-
-        // 手動でページネーション
-        int start = page * size;
-        int end = Math.min(start + size, filteredDecisions.size());
-        List<BurnDecision> pageContent = start < filteredDecisions.size() ? filteredDecisions.subList(start, end)
-                : List.of();
-
-        return new org.springframework.data.domain.PageImpl<>(
-                pageContent, pageable, filteredDecisions.size());
+    public Page<BurnDecision> getBurnDecisionsByStatus(Long spaceId, BurnDecision.BurnStatus status, int page,
+            int size) {
+        log.info("Getting burn decisions by status: {}, space: {}, page: {}, size: {}", status, spaceId, page, size);
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "decisionDate", "id"));
+        return spaceId != null
+                ? burnDecisionRepository.findBySpaceIdAndStatus(spaceId, status, pageable)
+                : burnDecisionRepository.findByStatus(status, pageable);
     }
 
     /**
@@ -266,11 +287,9 @@ public class BurnDecisionService {
     @Transactional(readOnly = true)
     public List<BurnDecision> getPendingBurnDecisions() {
         log.info("Getting pending burn decisions");
-        // 全件取得後、Java側でフィルタリング
-        return burnDecisionRepository.findAll().stream()
-                .filter(d -> d.getStatus() == BurnDecision.BurnStatus.PROPOSED ||
-                        d.getStatus() == BurnDecision.BurnStatus.UNDER_REVIEW)
-                .sorted((a, b) -> b.getDecisionDate().compareTo(a.getDecisionDate()))
+        // ビューの順序で読み込み、ビュー反映前に遷移したものは除く
+        return findAllInOrder(openDecisionView.getPendingIds()).stream()
+                .filter(d -> OpenBurnDecisionView.PENDING_STATUSES.contains(d.getStatus()))
                 .toList();
     }
 
@@ -280,14 +299,24 @@ public class BurnDecisionService {
     @Transactional(readOnly = true)
     public List<BurnDecision> getVotingBurnDecisions() {
         log.info("Getting voting burn decisions");
-        return burnDecisionRepository.findAll().stream()
+        LocalDateTime now = LocalDateTime.now();
+        return findAllInOrder(openDecisionView.getVotingIds(now)).stream()
                 .filter(d -> d.getStatus() == BurnDecision.BurnStatus.VOTING &&
                         d.getVotingEndDate() != null &&
-                        d.getVotingEndDate().isAfter(LocalDateTime.now()))
-                .sorted((a, b) -> a.getVotingEndDate().compareTo(b.getVotingEndDate()))
+                        d.getVotingEndDate().isAfter(now))
                 .toList();
     }
 
+    /**
+     * 未決のバーン判定件数（承認待ち・投票中）
+     */
+    public OpenBurnDecisionCounts getOpenBurnDecisionCounts() {
+        return OpenBurnDecisionCounts.builder()
+                .pendingCount(openDecisionView.getPendingCount())
+                .votingCount(openDecisionView.getVotingCount())
+                .build();
+    }
+
     /**
      * 期間内のバーン判定統計取得
      */
@@ -295,53 +324,31 @@ public class BurnDecisionService {
     public BurnDecisionStatistics getBurnDecisionStatistics(LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Getting burn decision statistics from {} to {}", startDate, endDate);
 
-        // 代替として既存のリポジトリメソッドを使用
-        List<BurnDecision> decisions = burnDecisionRepository.findByDecisionDateBetween(startDate, endDate,
-                PageRequest.of(0, Integer.MAX_VALUE)).getContent();
-
-        if (decisions.isEmpty()) {
-            return BurnDecisionStatistics.builder()
-                    .totalDecisions(0L)
-                    .approvedDecisions(0L)
-                    .rejectedDecisions(0L)
-                    .completedDecisions(0L)
-                    .failedDecisions(0L)
-                    .totalProposedBurnAmount(BigDecimal.ZERO)
-                    .totalActualBurnAmount(BigDecimal.ZERO)
-                    .approvalRate(BigDecimal.ZERO)
-                    .completionRate(BigDecimal.ZERO)
-                    .averageProposedAmount(BigDecimal.ZERO)
-                    .averageActualAmount(BigDecimal.ZERO)
-                    .build();
+        long totalDecisions = 0;
+        long approvedDecisions = 0;
+        long rejectedDecisions = 0;
+        long completedDecisions = 0;
+        long failedDecisions = 0;
+        BigDecimal totalProposedBurnAmount = BigDecimal.ZERO;
+        BigDecimal totalActualBurnAmount = BigDecimal.ZERO;
+
+        for (BurnStatusAggregate row : burnDecisionRepository.aggregateByStatus(startDate, endDate)) {
+            long count = row.count();
+            totalDecisions += count;
+            if (APPROVED_STATUSES.contains(row.status())) {
+                approvedDecisions += count;
+            }
+            if (row.status() == BurnDecision.BurnStatus.REJECTED) {
+                rejectedDecisions += count;
+            } else if (row.status() == BurnDecision.BurnStatus.COMPLETED) {
+                completedDecisions += count;
+            } else if (row.status() == BurnDecision.BurnStatus.FAILED) {
+                failedDecisions += count;
+            }
+            totalProposedBurnAmount = totalProposedBurnAmount.add(zeroIfNull(row.totalProposedAmount()));
+            totalActualBurnAmount = totalActualBurnAmount.add(zeroIfNull(row.totalActualAmount()));
         }
 
-        // 統計計算
-        long totalDecisions = decisions.size();
-        long approvedDecisions = decisions.stream()
-                .mapToLong(d -> (d.getStatus() == BurnDecision.BurnStatus.APPROVED ||
-                        d.getStatus() == BurnDecision.BurnStatus.SCHEDULED ||
-                        d.getStatus() == BurnDecision.BurnStatus.EXECUTING ||
-                        d.getStatus() == BurnDecision.BurnStatus.COMPLETED) ? 1 : 0)
-                .sum();
-        long rejectedDecisions = decisions.stream()
-                .mapToLong(d -> d.getStatus() == BurnDecision.BurnStatus.REJECTED ? 1 : 0)
-                .sum();
-        long completedDecisions = decisions.stream()
-                .mapToLong(d -> d.getStatus() == BurnDecision.BurnStatus.COMPLETED ? 1 : 0)
-                .sum();
-        long failedDecisions = decisions.stream()
-                .mapToLong(d -> d.getStatus() == BurnDecision.BurnStatus.FAILED ? 1 : 0)
-                .sum();
-
-        BigDecimal totalProposedBurnAmount = decisions.stream()
-                .map(BurnDecision::getProposedBurnAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalActualBurnAmount = decisions.stream()
-                .filter(d -> d.getActualBurnAmount() != null)
-                .map(BurnDecision::getActualBurnAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         // 承認率計算
         BigDecimal approvalRate = totalDecisions > 0 ? BigDecimal.valueOf(approvedDecisions)
                 .divide(BigDecimal.valueOf(totalDecisions), 4, RoundingMode.HALF_UP)
@@ -383,34 +390,21 @@ public class BurnDecisionService {
     public List<DecisionTypeStatistics> getDecisionTypeStatistics(LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Getting decision type statistics from {} to {}", startDate, endDate);
 
-        // 既存のリポジトリメソッドを使用
-        List<BurnDecision> decisions = burnDecisionRepository.findByDecisionDateBetween(startDate, endDate,
-                PageRequest.of(0, Integer.MAX_VALUE)).getContent();
-
-        return decisions.stream()
-                .collect(java.util.stream.Collectors.groupingBy(BurnDecision::getDecisionType))
-                .entrySet().stream()
-                .map(entry -> {
-                    BurnDecision.DecisionType decisionType = entry.getKey();
-                    List<BurnDecision> typeDecisions = entry.getValue();
-
-                    BigDecimal totalAmount = typeDecisions.stream()
-                            .map(BurnDecision::getProposedBurnAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    long completedCount = typeDecisions.stream()
-                            .mapToLong(d -> d.getStatus() == BurnDecision.BurnStatus.COMPLETED ? 1 : 0)
-                            .sum();
+        List<BurnTypeAggregate> rows = burnDecisionRepository.aggregateByDecisionType(startDate, endDate,
+                BurnDecision.BurnStatus.COMPLETED);
 
+        return rows.stream()
+                .map(row -> {
+                    BigDecimal totalAmount = zeroIfNull(row.totalProposedAmount());
+                    long count = row.count();
                     return DecisionTypeStatistics.builder()
-                            .decisionType(decisionType)
-                            .count(typeDecisions.size())
+                            .decisionType(row.decisionType())
+                            .count((int) count)
                             .totalAmount(totalAmount)
-                            .completedCount(completedCount)
+                            .completedCount(row.completedCount() != null ? row.completedCount() : 0L)
                             .averageAmount(
-                                    typeDecisions.size() > 0
-                                            ? totalAmount.divide(BigDecimal.valueOf(typeDecisions.size()), 8,
-                                                    RoundingMode.HALF_UP)
+                                    count > 0
+                                            ? totalAmount.divide(BigDecimal.valueOf(count), 8, RoundingMode.HALF_UP)
                                             : BigDecimal.ZERO)
                             .build();
                 })
@@ -419,14 +413,14 @@ public class BurnDecisionService {
     }
 
     /**
-     * 高額バーン判定取得
+     * 高額バーン判定取得（実バーン額の大きい順に最大 limit 件）
      */
     @Transactional(readOnly = true)
-    public List<BurnDecision> getHighValueBurnDecisions(BigDecimal threshold) {
-        log.info("Getting high value burn decisions above threshold: {}", threshold);
-        // 代替として既存のリポジトリメソッドを使用
-        return burnDecisionRepository.findByActualBurnAmountGreaterThanEqual(threshold,
-                PageRequest.of(0, Integer.MAX_VALUE, Sort.by("actualBurnAmount").descending()));
+    public List<BurnDecision> getHighValueBurnDecisions(BigDecimal threshold, int limit) {
+        log.info("Getting high value burn decisions above threshold: {}, limit: {}", threshold, limit);
+        // 並び順はクエリの ORDER BY で指定済み
+        int bounded = Math.max(1, Math.min(limit, MAX_HIGH_VALUE_RESULTS));
+        return burnDecisionRepository.findByActualBurnAmountGreaterThanEqual(threshold, PageRequest.of(0, bounded));
     }
 
     /**
@@ -445,6 +439,22 @@ public class BurnDecisionService {
         return burnDecisionRepository.findBySpaceId(spaceId, pageable);
     }
 
+    /**
+     * ID の並び順を保ったまま読み込む（存在しないものは除く）
+     */
+    private List<BurnDecision> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BurnDecision> byId = burnDecisionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(BurnDecision::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(d -> d != null).toList();
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
     // === 内部DTOクラス ===
 
     @Data
@@ -463,6 +473,13 @@ public class BurnDecisionService {
         private BigDecimal averageActualAmount;
     }
 
+    @Data
+    @Builder
+    public static class OpenBurnDecisionCounts {
+        private Integer pendingCount;
+        private Integer votingCount;
+    }
+
     @Data
     @Builder
     public static class DecisionTypeStatistics {
@@ -1,7 +1,10 @@
 package com.sfr.tokyo.sfr_backend.service.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.RewardDistribution;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
 import com.sfr.tokyo.sfr_backend.repository.crypto.RewardDistributionRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -29,6 +32,8 @@ import java.util.UUID;
 public class RewardDistributionService {
 
     private final RewardDistributionRepository rewardDistributionRepository;
+    private final BatchWriter batchWriter;
+    private final DeadlineScheduler deadlineScheduler;
 
     // ===== 基本CRUD操作 =====
 
@@ -109,6 +114,7 @@ public class RewardDistributionService {
         }
 
         RewardDistribution saved = rewardDistributionRepository.save(rewardDistribution);
+        deadlineScheduler.schedule(DeadlineKind.REWARD_EXPIRY, saved.getId(), saved.getExpiresAt());
         log.info("Created reward distribution with ID: {}", saved.getId());
         return saved;
     }
@@ -119,7 +125,9 @@ public class RewardDistributionService {
     @Transactional
     public RewardDistribution updateRewardDistribution(RewardDistribution rewardDistribution) {
         log.debug("Updating reward distribution with ID: {}", rewardDistribution.getId());
-        return rewardDistributionRepository.save(rewardDistribution);
+        RewardDistribution saved = rewardDistributionRepository.save(rewardDistribution);
+        deadlineScheduler.schedule(DeadlineKind.REWARD_EXPIRY, saved.getId(), saved.getExpiresAt());
+        return saved;
     }
 
     /**
@@ -202,27 +210,19 @@ public class RewardDistributionService {
 
     /**
      * 期限切れリワードを処理
+     * 対象IDだけを検索し、チャンクごとに読み込んで UPDATE をバッチで送る
      */
     @Transactional
     public List<RewardDistribution> processExpiredRewards() {
         log.info("Processing expired rewards");
 
-        List<RewardDistribution> allRewards = rewardDistributionRepository.findAll();
-        List<RewardDistribution> pendingRewards = allRewards.stream()
-                .filter(r -> r.getStatus() == RewardDistribution.DistributionStatus.PENDING ||
-                        r.getStatus() == RewardDistribution.DistributionStatus.APPROVED)
-                .toList();
-
-        List<RewardDistribution> expiredRewards = pendingRewards.stream()
-                .filter(RewardDistribution::isExpired)
-                .toList();
-
-        for (RewardDistribution reward : expiredRewards) {
-            reward.markAsExpired();
-        }
-
-        List<RewardDistribution> updated = rewardDistributionRepository.saveAll(expiredRewards);
-        log.info("Processed {} expired rewards", updated.size());
+        // 有効期限は作成・更新時に DeadlineScheduler へ登録済み。到来済みの分を条件付き UPDATE で失効させる
+        DeadlineScheduler.Fired fired = deadlineScheduler.fireDue(DeadlineKind.REWARD_EXPIRY);
+        List<RewardDistribution> updated = fired.targetIds().isEmpty() ? List.of()
+                : rewardDistributionRepository.findAllById(fired.targetIds()).stream()
+                        .filter(reward -> reward.getStatus() == RewardDistribution.DistributionStatus.EXPIRED)
+                        .toList();
+        log.info("Processed {} expired rewards", fired.applied());
         return updated;
     }
 
@@ -233,13 +233,8 @@ public class RewardDistributionService {
     public List<RewardDistribution> batchApproveRewards(List<Long> ids, UUID approver) {
         log.info("Batch approving {} rewards, approver: {}", ids.size(), approver);
 
-        List<RewardDistribution> rewards = rewardDistributionRepository.findAllById(ids);
-
-        for (RewardDistribution reward : rewards) {
-            reward.approve(approver);
-        }
-
-        List<RewardDistribution> updated = rewardDistributionRepository.saveAll(rewards);
+        List<RewardDistribution> updated = batchWriter.updateByIds(ids, rewardDistributionRepository::findAllById,
+                reward -> reward.approve(approver));
         log.info("Batch approved {} rewards", updated.size());
         return updated;
     }
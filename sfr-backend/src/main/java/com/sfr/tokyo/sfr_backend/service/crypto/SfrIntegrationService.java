@@ -5,6 +5,8 @@ import com.sfr.tokyo.sfr_backend.entity.crypto.UserBalance;
 import com.sfr.tokyo.sfr_backend.repository.crypto.SfrPointRepository;
 import com.sfr.tokyo.sfr_backend.repository.crypto.UserBalanceRepository;
 import com.sfr.tokyo.sfr_backend.repository.crypto.SfrPurchaseTransactionRepository;
+import com.sfr.tokyo.sfr_backend.service.crypto.reconcile.BalanceReconcileReport;
+import com.sfr.tokyo.sfr_backend.service.crypto.reconcile.BalanceReconciler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,7 @@ public class SfrIntegrationService {
     private final SfrPointRepository sfrPointRepository;
     private final UserBalanceRepository userBalanceRepository;
     private final SfrPurchaseTransactionRepository purchaseTransactionRepository;
+    private final BalanceReconciler balanceReconciler;
     
     // デフォルトスペースID
     private static final Long DEFAULT_SPACE_ID = 1L;
@@ -291,17 +294,34 @@ public class SfrIntegrationService {
         long totalSfrPointUsers = sfrPointRepository.count();
         long totalUserBalanceUsers = userBalanceRepository.count();
         
-        // 簡易的な不整合数計算（完全な実装ではより効率的なクエリを使用）
-        long inconsistentCount = 0; // TODO: 効率的なクエリで実装
+        // 不整合数は直近の全件突合結果から読む（古ければ裏で再集計され、ここでは走査しない）
+        Optional<BalanceReconcileReport> fullReport = balanceReconciler.latestFullReport(DEFAULT_SPACE_ID);
         
         return SystemSyncSummary.builder()
             .totalSfrPointUsers(totalSfrPointUsers)
             .totalUserBalanceUsers(totalUserBalanceUsers)
-            .inconsistentUsers(inconsistentCount)
+            .inconsistentUsers(fullReport.map(BalanceReconcileReport::getInconsistent).orElse(null))
+            .inconsistentCheckedAt(fullReport.map(BalanceReconcileReport::getStartedAt).orElse(null))
             .lastSyncCheck(LocalDateTime.now())
             .build();
     }
 
+    /**
+     * 全ユーザーの残高一括突合
+     * SfrPointとUserBalanceをユーザーID順に1回ずつ走査し、不一致を検出（repair=trueで一括修復）
+     * 
+     * @param repair SfrPointを正としてUserBalanceを修復するか
+     * @param incremental 前回突合以降に更新された行のみを対象とするか
+     * @return 突合結果
+     */
+    public BalanceReconcileReport reconcileBalances(boolean repair, boolean incremental) {
+        log.info("残高一括突合開始: repair={}, incremental={}", repair, incremental);
+        return balanceReconciler.reconcile(DEFAULT_SPACE_ID,
+            incremental ? BalanceReconciler.Mode.INCREMENTAL : BalanceReconciler.Mode.FULL,
+            repair, discrepancy -> log.debug("残高不一致: userId={}, kind={}, discrepancy={}",
+                discrepancy.userId(), discrepancy.kind(), discrepancy.discrepancy()));
+    }
+
     // ===== プライベートヘルパーメソッド =====
 
     private SfrPoint createInitialSfrPoint(String userId) {
@@ -351,7 +371,10 @@ public class SfrIntegrationService {
     public static class SystemSyncSummary {
         private long totalSfrPointUsers;
         private long totalUserBalanceUsers;
-        private long inconsistentUsers;
+        /** 直近の全件突合での不整合数（まだ集計されていなければ null） */
+        private Long inconsistentUsers;
+        /** inconsistentUsers を集計した全件突合の開始時刻 */
+        private LocalDateTime inconsistentCheckedAt;
         private LocalDateTime lastSyncCheck;
     }
 }
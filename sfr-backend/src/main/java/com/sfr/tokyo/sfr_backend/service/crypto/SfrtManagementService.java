@@ -63,7 +63,10 @@ public class SfrtManagementService {
      * SFRT価格指標計算
      */
     public SfrtPriceMetrics calculatePriceMetrics() {
-        SfrtSupplyInfo supplyInfo = getSfrtSupplyInfo();
+        return calculatePriceMetrics(getSfrtSupplyInfo());
+    }
+
+    private SfrtPriceMetrics calculatePriceMetrics(SfrtSupplyInfo supplyInfo) {
         
         // 期間別報酬配布統計
         LocalDateTime now = LocalDateTime.now();
@@ -160,8 +163,9 @@ public class SfrtManagementService {
      * プラットフォーム経済指標
      */
     public PlatformEconomicMetrics calculateEconomicMetrics() {
+        // 供給情報の集計は1回だけ行い、各指標で共有する
         SfrtSupplyInfo supplyInfo = getSfrtSupplyInfo();
-        SfrtPriceMetrics priceMetrics = calculatePriceMetrics();
+        SfrtPriceMetrics priceMetrics = calculatePriceMetrics(supplyInfo);
         
         // プラットフォーム収益率
         BigDecimal platformRevenueRate = supplyInfo.getPlatformReserve()
@@ -174,8 +178,8 @@ public class SfrtManagementService {
         return PlatformEconomicMetrics.builder()
             .totalMarketValue(supplyInfo.getTotalSupply().multiply(priceMetrics.getBasePrice()))
             .platformRevenueRate(platformRevenueRate)
-            .userParticipationRate(calculateUserParticipationRate())
-            .rewardDistributionEfficiency(calculateRewardEfficiency())
+            .userParticipationRate(calculateUserParticipationRate(supplyInfo.getActiveHolders()))
+            .rewardDistributionEfficiency(calculateRewardEfficiency(supplyInfo.getTotalSupply()))
             .healthIndicator(healthIndicator)
             .lastCalculated(LocalDateTime.now())
             .build();
@@ -184,9 +188,8 @@ public class SfrtManagementService {
     /**
      * ユーザー参加率計算
      */
-    private BigDecimal calculateUserParticipationRate() {
+    private BigDecimal calculateUserParticipationRate(Long activeHolders) {
         // 簡易実装：アクティブホルダー数 / 全登録ユーザー数の仮想値
-        Long activeHolders = sfrtBalanceRepository.getActiveHolderCount();
         // TODO: 実際のユーザー総数を取得する実装が必要
         Long estimatedTotalUsers = activeHolders * 3; // 仮の値
         
@@ -198,12 +201,11 @@ public class SfrtManagementService {
     /**
      * 報酬配布効率計算
      */
-    private BigDecimal calculateRewardEfficiency() {
+    private BigDecimal calculateRewardEfficiency(BigDecimal totalSupply) {
         LocalDateTime lastMonth = LocalDateTime.now().minusDays(30);
         LocalDateTime now = LocalDateTime.now();
         
         BigDecimal totalRewards = sfrtTransactionRepository.getTotalRewardsInPeriod(lastMonth, now);
-        BigDecimal totalSupply = sfrtBalanceRepository.getTotalSfrtSupply();
         
         if (totalSupply.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
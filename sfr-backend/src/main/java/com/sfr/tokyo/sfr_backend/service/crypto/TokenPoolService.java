@@ -2,6 +2,9 @@ package com.sfr.tokyo.sfr_backend.service.crypto;
 
 import com.sfr.tokyo.sfr_backend.entity.crypto.TokenPool;
 import com.sfr.tokyo.sfr_backend.repository.crypto.TokenPoolRepository;
+import com.sfr.tokyo.sfr_backend.service.crypto.pool.PoolMutationExecutor;
+import com.sfr.tokyo.sfr_backend.service.crypto.supply.TokenSupplySnapshot;
+import com.sfr.tokyo.sfr_backend.service.crypto.supply.TokenSupplySnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -12,7 +15,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +31,8 @@ import java.util.UUID;
 public class TokenPoolService {
 
     private final TokenPoolRepository tokenPoolRepository;
+    private final TokenSupplySnapshotService supplySnapshotService;
+    private final PoolMutationExecutor poolMutationExecutor;
 
     // ===== 基本CRUD操作 =====
 
@@ -103,6 +107,7 @@ public class TokenPoolService {
                 .build();
 
         TokenPool saved = tokenPoolRepository.save(tokenPool);
+        supplySnapshotService.onPoolChanged(saved);
         log.info("Created token pool with ID: {}", saved.getId());
         return saved;
     }
@@ -113,7 +118,9 @@ public class TokenPoolService {
     @Transactional
     public TokenPool updateTokenPool(TokenPool tokenPool) {
         log.debug("Updating token pool with ID: {}", tokenPool.getId());
-        return tokenPoolRepository.save(tokenPool);
+        TokenPool updated = tokenPoolRepository.save(tokenPool);
+        supplySnapshotService.onPoolChanged(updated);
+        return updated;
     }
 
     /**
@@ -123,14 +130,15 @@ public class TokenPoolService {
     public void deleteTokenPool(Long id) {
         log.info("Deleting token pool with ID: {}", id);
         tokenPoolRepository.deleteById(id);
+        supplySnapshotService.onPoolDeleted(id);
     }
 
     // ===== トークン発行・バーン操作 =====
+    // 同一プールへの発行・バーン・配布はレーン実行器で直列化し、まとめて1回の書き込み（@Version 検査付き）で反映する
 
     /**
      * トークンを発行
      */
-    @Transactional
     public TokenPool issueTokens(Long spaceId, BigDecimal amount, String reason) {
         log.info("Issuing tokens for spaceId: {}, amount: {}, reason: {}",
                 spaceId, amount, reason);
@@ -139,19 +147,15 @@ public class TokenPoolService {
             throw new IllegalArgumentException("Issue amount must be positive");
         }
 
-        TokenPool tokenPool = getTokenPool(spaceId);
-
-        if (tokenPool.getStatus() != TokenPool.PoolStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot issue tokens for inactive pool");
-        }
-
-        // エンティティのビジネスメソッドを使用
-        boolean success = tokenPool.issueTokens(amount);
-        if (!success) {
-            throw new IllegalStateException("Token issuance failed. Check pool limits and status.");
-        }
-
-        TokenPool updated = tokenPoolRepository.save(tokenPool);
+        TokenPool updated = poolMutationExecutor.execute(spaceId, tokenPool -> {
+            if (tokenPool.getStatus() != TokenPool.PoolStatus.ACTIVE) {
+                throw new IllegalStateException("Cannot issue tokens for inactive pool");
+            }
+            // エンティティのビジネスメソッドを使用
+            if (!tokenPool.issueTokens(amount)) {
+                throw new IllegalStateException("Token issuance failed. Check pool limits and status.");
+            }
+        });
         log.info("Tokens issued successfully. New total supply: {}", updated.getTotalSupply());
         return updated;
     }
@@ -159,7 +163,6 @@ public class TokenPoolService {
     /**
      * トークンをバーン
      */
-    @Transactional
     public TokenPool burnTokens(Long spaceId, BigDecimal amount, String reason) {
         log.info("Burning tokens for spaceId: {}, amount: {}, reason: {}",
                 spaceId, amount, reason);
@@ -168,19 +171,15 @@ public class TokenPoolService {
             throw new IllegalArgumentException("Burn amount must be positive");
         }
 
-        TokenPool tokenPool = getTokenPool(spaceId);
-
-        if (tokenPool.getStatus() != TokenPool.PoolStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot burn tokens for inactive pool");
-        }
-
-        // エンティティのビジネスメソッドを使用
-        boolean success = tokenPool.burnTokens(amount);
-        if (!success) {
-            throw new IllegalStateException("Token burn failed. Check circulating supply.");
-        }
-
-        TokenPool updated = tokenPoolRepository.save(tokenPool);
+        TokenPool updated = poolMutationExecutor.execute(spaceId, tokenPool -> {
+            if (tokenPool.getStatus() != TokenPool.PoolStatus.ACTIVE) {
+                throw new IllegalStateException("Cannot burn tokens for inactive pool");
+            }
+            // エンティティのビジネスメソッドを使用
+            if (!tokenPool.burnTokens(amount)) {
+                throw new IllegalStateException("Token burn failed. Check circulating supply.");
+            }
+        });
         log.info("Tokens burned successfully. New circulating supply: {}", updated.getCirculatingSupply());
         return updated;
     }
@@ -188,7 +187,6 @@ public class TokenPoolService {
     /**
      * リワードを配布
      */
-    @Transactional
     public TokenPool distributeRewards(Long spaceId, BigDecimal amount, String reason) {
         log.info("Distributing rewards for spaceId: {}, amount: {}, reason: {}",
                 spaceId, amount, reason);
@@ -197,19 +195,15 @@ public class TokenPoolService {
             throw new IllegalArgumentException("Reward amount must be positive");
         }
 
-        TokenPool tokenPool = getTokenPool(spaceId);
-
-        if (tokenPool.getStatus() != TokenPool.PoolStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot distribute rewards for inactive pool");
-        }
-
-        // エンティティのビジネスメソッドを使用
-        boolean success = tokenPool.distributeRewards(amount);
-        if (!success) {
-            throw new IllegalStateException("Reward distribution failed. Check reward pool balance.");
-        }
-
-        TokenPool updated = tokenPoolRepository.save(tokenPool);
+        TokenPool updated = poolMutationExecutor.execute(spaceId, tokenPool -> {
+            if (tokenPool.getStatus() != TokenPool.PoolStatus.ACTIVE) {
+                throw new IllegalStateException("Cannot distribute rewards for inactive pool");
+            }
+            // エンティティのビジネスメソッドを使用
+            if (!tokenPool.distributeRewards(amount)) {
+                throw new IllegalStateException("Reward distribution failed. Check reward pool balance.");
+            }
+        });
         log.info("Rewards distributed successfully. Remaining reward pool: {}", updated.getRewardPool());
         return updated;
     }
@@ -228,6 +222,7 @@ public class TokenPoolService {
         tokenPool.setStatus(newStatus);
 
         TokenPool updated = tokenPoolRepository.save(tokenPool);
+        supplySnapshotService.onPoolChanged(updated);
         log.info("Pool status changed successfully");
         return updated;
     }
@@ -254,6 +249,7 @@ public class TokenPoolService {
         }
 
         TokenPool updated = tokenPoolRepository.save(tokenPool);
+        supplySnapshotService.onPoolChanged(updated);
         log.info("Pool settings updated successfully");
         return updated;
     }
@@ -278,73 +274,58 @@ public class TokenPoolService {
     /**
      * 総トークン供給量を取得
      */
-    @Transactional(readOnly = true)
     public BigDecimal getTotalSupplyAcrossAllPools() {
-        log.debug("Calculating total supply across all pools");
-        List<TokenPool> allPools = tokenPoolRepository.findAll();
-        return allPools.stream()
-                .map(TokenPool::getTotalSupply)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return supplySnapshotService.getSnapshot().getTotalSupply();
     }
 
     /**
      * 総流通量を取得
      */
-    @Transactional(readOnly = true)
     public BigDecimal getTotalCirculatingSupply() {
-        log.debug("Calculating total circulating supply");
-        List<TokenPool> allPools = tokenPoolRepository.findAll();
-        return allPools.stream()
-                .map(TokenPool::getCirculatingSupply)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return supplySnapshotService.getSnapshot().getTotalCirculatingSupply();
     }
 
     /**
      * 総バーン量を取得
      */
-    @Transactional(readOnly = true)
     public BigDecimal getTotalBurnedAmount() {
-        log.debug("Calculating total burned amount");
-        List<TokenPool> allPools = tokenPoolRepository.findAll();
-        return allPools.stream()
-                .map(TokenPool::getBurnedAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return supplySnapshotService.getSnapshot().getTotalBurnedAmount();
     }
 
     /**
      * アクティブプール数を取得
      */
-    @Transactional(readOnly = true)
     public Long getActivePoolCount() {
-        log.debug("Counting active pools");
-        List<TokenPool> allPools = tokenPoolRepository.findAll();
-        return allPools.stream()
-                .filter(pool -> pool.getStatus() == TokenPool.PoolStatus.ACTIVE)
-                .count();
+        return supplySnapshotService.getSnapshot().getActivePools();
     }
 
     /**
      * プール健全性チェック
+     * 不健全なプールがある場合のみ DB から取得する
      */
     @Transactional(readOnly = true)
     public List<TokenPool> getUnhealthyPools() {
-        log.debug("Finding unhealthy pools");
-        List<TokenPool> allPools = tokenPoolRepository.findAll();
-        return allPools.stream()
-                .filter(pool -> !pool.isHealthy())
-                .toList();
+        List<Long> spaceIds = supplySnapshotService.getSnapshot().getUnhealthySpaceIds();
+        log.debug("Finding unhealthy pools: {}", spaceIds);
+        return spaceIds.isEmpty() ? List.of() : tokenPoolRepository.findBySpaceIdIn(spaceIds);
     }
 
     /**
      * 回収対象プールを取得
+     * 回収閾値を超えるプールがある場合のみ DB から取得する
      */
     @Transactional(readOnly = true)
     public List<TokenPool> getCollectionTargetPools(BigDecimal userBalance) {
         log.debug("Finding collection target pools for balance: {}", userBalance);
-        List<TokenPool> allPools = tokenPoolRepository.findAll();
-        return allPools.stream()
-                .filter(pool -> pool.isCollectionTarget(userBalance))
-                .toList();
+        List<Long> spaceIds = supplySnapshotService.getSnapshot().collectionTargetSpaceIds(userBalance);
+        return spaceIds.isEmpty() ? List.of() : tokenPoolRepository.findBySpaceIdIn(spaceIds);
+    }
+
+    /**
+     * 供給統計のスナップショットを取得
+     */
+    public TokenSupplySnapshot getSupplySnapshot() {
+        return supplySnapshotService.getSnapshot();
     }
 
     // ===== バリデーション・ヘルパーメソッド =====
@@ -428,95 +409,8 @@ public class TokenPoolService {
     /**
      * システム全体のプール統計を取得
      */
-    @Transactional(readOnly = true)
     public SystemPoolStatistics getSystemPoolStatistics() {
-        log.debug("Getting system pool statistics");
-
-        List<TokenPool> allPools = tokenPoolRepository.findAll();
-
-        if (allPools.isEmpty()) {
-            return SystemPoolStatistics.builder()
-                    .totalPools(0L)
-                    .activePools(0L)
-                    .pausedPools(0L)
-                    .totalSupply(BigDecimal.ZERO)
-                    .totalCirculatingSupply(BigDecimal.ZERO)
-                    .totalBurnedAmount(BigDecimal.ZERO)
-                    .totalRewardPool(BigDecimal.ZERO)
-                    .totalGovernancePool(BigDecimal.ZERO)
-                    .totalEcosystemPool(BigDecimal.ZERO)
-                    .totalReservePool(BigDecimal.ZERO)
-                    .averageIssueRate(BigDecimal.ZERO)
-                    .averageBurnRate(BigDecimal.ZERO)
-                    .healthyPoolCount(0L)
-                    .build();
-        }
-
-        long totalPools = allPools.size();
-        long activePools = allPools.stream()
-                .filter(pool -> pool.getStatus() == TokenPool.PoolStatus.ACTIVE)
-                .count();
-        long pausedPools = allPools.stream()
-                .filter(pool -> pool.getStatus() == TokenPool.PoolStatus.PAUSED)
-                .count();
-
-        BigDecimal totalSupply = allPools.stream()
-                .map(TokenPool::getTotalSupply)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalCirculatingSupply = allPools.stream()
-                .map(TokenPool::getCirculatingSupply)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalBurnedAmount = allPools.stream()
-                .map(TokenPool::getBurnedAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalRewardPool = allPools.stream()
-                .map(TokenPool::getRewardPool)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalGovernancePool = allPools.stream()
-                .map(TokenPool::getGovernancePool)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalEcosystemPool = allPools.stream()
-                .map(TokenPool::getEcosystemPool)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalReservePool = allPools.stream()
-                .map(TokenPool::getReservePool)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal averageIssueRate = allPools.stream()
-                .map(TokenPool::getIssueRate)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(totalPools), 8, RoundingMode.HALF_UP);
-
-        BigDecimal averageBurnRate = allPools.stream()
-                .map(TokenPool::getBurnRate)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(totalPools), 8, RoundingMode.HALF_UP);
-
-        long healthyPoolCount = allPools.stream()
-                .filter(TokenPool::isHealthy)
-                .count();
-
-        return SystemPoolStatistics.builder()
-                .totalPools(totalPools)
-                .activePools(activePools)
-                .pausedPools(pausedPools)
-                .totalSupply(totalSupply)
-                .totalCirculatingSupply(totalCirculatingSupply)
-                .totalBurnedAmount(totalBurnedAmount)
-                .totalRewardPool(totalRewardPool)
-                .totalGovernancePool(totalGovernancePool)
-                .totalEcosystemPool(totalEcosystemPool)
-                .totalReservePool(totalReservePool)
-                .averageIssueRate(averageIssueRate)
-                .averageBurnRate(averageBurnRate)
-                .healthyPoolCount(healthyPoolCount)
-                .build();
+        return supplySnapshotService.getSnapshot().toSystemPoolStatistics();
     }
 
     // ===== 内部DTO クラス =====
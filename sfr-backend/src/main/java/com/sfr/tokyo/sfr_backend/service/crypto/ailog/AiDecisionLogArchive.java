@@ -0,0 +1,204 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.ailog;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLog;
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLogSegment;
+import com.sfr.tokyo.sfr_backend.repository.crypto.AiDecisionLogRepository;
+import com.sfr.tokyo.sfr_backend.repository.crypto.AiDecisionLogSegmentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AI決定ログのアーカイブ層
+ *
+ * 保持期間（hot-days）を過ぎた確定済みのログを決定日ごとに圧縮セグメントへ移し、元の行を削除する。
+ * セグメントの作成と元の行の削除は同じトランザクションで行うため、ログはどちらか一方に必ず存在する。
+ * 対象の行は読んだ時点でロックして他のノードと取り合わないようにし、削除件数が読んだ件数と違えばロールバックする。
+ * セグメントは追記のみで、同じ日のログが後から確定した場合は別のセグメントになる。
+ * 読み出しは疎インデックス（ID・日時範囲）で候補のセグメントを絞り、1セグメントずつ展開する。
+ */
+@Slf4j
+@Component
+public class AiDecisionLogArchive {
+
+    /** これ以上更新されないステータス（それ以外は保持期間を過ぎてもテーブルに残す） */
+    static final Set<AiDecisionLog.DecisionStatus> ARCHIVABLE_STATUSES = EnumSet.of(
+            AiDecisionLog.DecisionStatus.REJECTED,
+            AiDecisionLog.DecisionStatus.EXECUTED,
+            AiDecisionLog.DecisionStatus.FAILED,
+            AiDecisionLog.DecisionStatus.CANCELLED);
+
+    private final AiDecisionLogRepository logRepository;
+    private final AiDecisionLogSegmentRepository segmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int hotDays;
+    private final int batchSize;
+
+    public AiDecisionLogArchive(AiDecisionLogRepository logRepository,
+            AiDecisionLogSegmentRepository segmentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.ai-log.archive.enabled:true}") boolean enabled,
+            @Value("${sfr.ai-log.archive.hot-days:30}") int hotDays,
+            @Value("${sfr.ai-log.archive.batch-size:2000}") int batchSize) {
+        this.logRepository = logRepository;
+        this.segmentRepository = segmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.hotDays = Math.max(0, hotDays);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 定期アーカイブ
+     */
+    @Scheduled(fixedDelayString = "${sfr.ai-log.archive.interval-ms:3600000}",
+            initialDelayString = "${sfr.ai-log.archive.interval-ms:3600000}")
+    public void scheduledArchive() {
+        if (!enabled) {
+            return;
+        }
+        int archived = archive(LocalDateTime.now());
+        if (archived > 0) {
+            log.info("Archived {} AI decision logs", archived);
+        }
+    }
+
+    /**
+     * 保持期間を過ぎたログをセグメントへ移す（日単位で、当日から hot-days 日前より古いもの）
+     *
+     * @return 移したログ件数
+     */
+    public int archive(LocalDateTime now) {
+        LocalDateTime cutoff = now.toLocalDate().minusDays(hotDays).atStartOfDay();
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * ID でアーカイブからログを探す
+     */
+    public Optional<AiDecisionLog> find(Long logId) {
+        for (Long segmentId : segmentRepository.findSegmentIdsContaining(logId)) {
+            Optional<AiDecisionLog> found = decodeSegment(segmentId).stream()
+                    .filter(log -> log.getId().equals(logId))
+                    .findFirst();
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 決定日時範囲のアーカイブ済みログ（セグメントの古い順、1セグメントずつ展開）
+     *
+     * @param segmentWatermark この ID より後に作られたセグメントは読み出し開始後にアーカイブされたもの
+     * @param alreadyRead      テーブル側で既に返したログID（新しいセグメントではこれを重複として除く）
+     */
+    public Stream<AiDecisionLog> stream(LocalDateTime startDate, LocalDateTime endDate, long segmentWatermark,
+            LongPredicate alreadyRead) {
+        return segmentRepository.findSegmentIdsOverlapping(startDate, endDate).stream()
+                .flatMap(segmentId -> decodeSegment(segmentId).stream()
+                        .filter(log -> segmentId <= segmentWatermark || !alreadyRead.test(log.getId())))
+                .filter(log -> !log.getDecisionDate().isBefore(startDate) && !log.getDecisionDate().isAfter(endDate));
+    }
+
+    /**
+     * 現在の最新セグメントID
+     */
+    public long currentSegmentWatermark() {
+        Long max = segmentRepository.findMaxSegmentId();
+        return max != null ? max : 0L;
+    }
+
+    /**
+     * セグメント数・レコード数・圧縮前後のサイズ
+     */
+    public ArchiveTotals getTotals() {
+        List<Object[]> rows = segmentRepository.getArchiveTotals();
+        if (rows.isEmpty()) {
+            return new ArchiveTotals(0, 0, 0, 0);
+        }
+        Object[] row = rows.get(0);
+        return new ArchiveTotals(toLong(row[0]), toLong(row[1]), toLong(row[2]), toLong(row[3]));
+    }
+
+    /** アーカイブの集計値 */
+    public record ArchiveTotals(long segments, long records, long rawBytes, long compressedBytes) {
+    }
+
+    private Integer archiveBatch(LocalDateTime cutoff) {
+        List<AiDecisionLog> logs = logRepository.findArchivable(cutoff, ARCHIVABLE_STATUSES,
+                PageRequest.of(0, batchSize));
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        Map<LocalDate, List<AiDecisionLog>> byDay = logs.stream()
+                .collect(Collectors.groupingBy(log -> log.getDecisionDate().toLocalDate(), TreeMap::new,
+                        Collectors.toList()));
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<LocalDate, List<AiDecisionLog>> day : byDay.entrySet()) {
+            segmentRepository.save(toSegment(day.getKey(), day.getValue(), now));
+        }
+        int deleted = logRepository.deleteArchived(logs.stream().map(AiDecisionLog::getId).toList());
+        if (deleted != logs.size()) {
+            // 他で削除された行があれば、そのログを二重にセグメントへ入れないようバッチごと取り消す
+            throw new IllegalStateException("Archived " + logs.size() + " AI decision logs but deleted " + deleted);
+        }
+        log.debug("Archived {} AI decision logs into {} segments", logs.size(), byDay.size());
+        return logs.size();
+    }
+
+    private static AiDecisionLogSegment toSegment(LocalDate day, List<AiDecisionLog> logs, LocalDateTime now) {
+        AiDecisionLogSegmentCodec.Encoded encoded = AiDecisionLogSegmentCodec.encode(logs);
+        return AiDecisionLogSegment.builder()
+                .segmentDay(day)
+                .minLogId(logs.get(0).getId())
+                .maxLogId(logs.get(logs.size() - 1).getId())
+                .minDecisionDate(logs.stream().map(AiDecisionLog::getDecisionDate).min(LocalDateTime::compareTo)
+                        .orElseThrow())
+                .maxDecisionDate(logs.stream().map(AiDecisionLog::getDecisionDate).max(LocalDateTime::compareTo)
+                        .orElseThrow())
+                .recordCount(logs.size())
+                .formatVersion(AiDecisionLogSegmentCodec.FORMAT_VERSION)
+                .rawBytes(encoded.rawBytes())
+                .compressedBytes((long) encoded.payload().length)
+                .payload(encoded.payload())
+                .createdAt(now)
+                .build();
+    }
+
+    private List<AiDecisionLog> decodeSegment(Long segmentId) {
+        byte[] payload = segmentRepository.findPayload(segmentId);
+        return payload != null ? AiDecisionLogSegmentCodec.decode(payload) : List.of();
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
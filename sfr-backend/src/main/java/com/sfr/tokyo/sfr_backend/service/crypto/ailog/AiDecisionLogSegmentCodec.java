@@ -0,0 +1,282 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.ailog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLog;
+
+/**
+ * AI決定ログのセグメント形式
+ *
+ * 行ではなく列ごとに値を並べてから GZIP 圧縮する。同じ列の JSON やモデル名が隣り合うため、行単位より圧縮が効く。
+ * ID 列は差分で、その他の列は列名付きの null 許容文字列として書き込む。
+ * 読み込みは列名で対応付けるため、列の追加・削除があっても古いセグメントを読める（無い列は null）。
+ */
+final class AiDecisionLogSegmentCodec {
+
+    static final int FORMAT_VERSION = 1;
+
+    /** "ADLS" */
+    private static final int MAGIC = 0x41444C53;
+
+    /** 圧縮本体と圧縮前サイズ */
+    record Encoded(byte[] payload, long rawBytes) {
+    }
+
+    private record Column(String name, Function<AiDecisionLog, String> getter,
+            BiConsumer<AiDecisionLog, String> setter) {
+    }
+
+    private static final List<Column> COLUMNS = List.of(
+            longColumn("space_id", AiDecisionLog::getSpaceId, AiDecisionLog::setSpaceId),
+            enumColumn("decision_type", AiDecisionLog.DecisionType.class, AiDecisionLog::getDecisionType,
+                    AiDecisionLog::setDecisionType),
+            textColumn("reference_id", AiDecisionLog::getReferenceId, AiDecisionLog::setReferenceId),
+            enumColumn("reference_type", AiDecisionLog.ReferenceType.class, AiDecisionLog::getReferenceType,
+                    AiDecisionLog::setReferenceType),
+            textColumn("model_version", AiDecisionLog::getModelVersion, AiDecisionLog::setModelVersion),
+            textColumn("algorithm_name", AiDecisionLog::getAlgorithmName, AiDecisionLog::setAlgorithmName),
+            textColumn("input_parameters", AiDecisionLog::getInputParameters, AiDecisionLog::setInputParameters),
+            textColumn("market_data", AiDecisionLog::getMarketData, AiDecisionLog::setMarketData),
+            textColumn("user_behavior_data", AiDecisionLog::getUserBehaviorData, AiDecisionLog::setUserBehaviorData),
+            textColumn("economic_indicators", AiDecisionLog::getEconomicIndicators,
+                    AiDecisionLog::setEconomicIndicators),
+            textColumn("decision_factors", AiDecisionLog::getDecisionFactors, AiDecisionLog::setDecisionFactors),
+            decimalColumn("confidence_score", AiDecisionLog::getConfidenceScore, AiDecisionLog::setConfidenceScore),
+            decimalColumn("risk_score", AiDecisionLog::getRiskScore, AiDecisionLog::setRiskScore),
+            decimalColumn("impact_score", AiDecisionLog::getImpactScore, AiDecisionLog::setImpactScore),
+            textColumn("recommended_action", AiDecisionLog::getRecommendedAction,
+                    AiDecisionLog::setRecommendedAction),
+            textColumn("alternative_actions", AiDecisionLog::getAlternativeActions,
+                    AiDecisionLog::setAlternativeActions),
+            textColumn("decision_rationale", AiDecisionLog::getDecisionRationale,
+                    AiDecisionLog::setDecisionRationale),
+            textColumn("expected_outcomes", AiDecisionLog::getExpectedOutcomes, AiDecisionLog::setExpectedOutcomes),
+            textColumn("monitoring_metrics", AiDecisionLog::getMonitoringMetrics,
+                    AiDecisionLog::setMonitoringMetrics),
+            textColumn("validation_data", AiDecisionLog::getValidationData, AiDecisionLog::setValidationData),
+            dateTimeColumn("decision_date", AiDecisionLog::getDecisionDate, AiDecisionLog::setDecisionDate),
+            dateTimeColumn("execution_deadline", AiDecisionLog::getExecutionDeadline,
+                    AiDecisionLog::setExecutionDeadline),
+            enumColumn("status", AiDecisionLog.DecisionStatus.class, AiDecisionLog::getStatus,
+                    AiDecisionLog::setStatus),
+            booleanColumn("human_review_required", AiDecisionLog::getHumanReviewRequired,
+                    AiDecisionLog::setHumanReviewRequired),
+            uuidColumn("reviewed_by", AiDecisionLog::getReviewedBy, AiDecisionLog::setReviewedBy),
+            dateTimeColumn("reviewed_at", AiDecisionLog::getReviewedAt, AiDecisionLog::setReviewedAt),
+            textColumn("review_notes", AiDecisionLog::getReviewNotes, AiDecisionLog::setReviewNotes),
+            enumColumn("review_result", AiDecisionLog.ReviewResult.class, AiDecisionLog::getReviewResult,
+                    AiDecisionLog::setReviewResult),
+            dateTimeColumn("executed_at", AiDecisionLog::getExecutedAt, AiDecisionLog::setExecutedAt),
+            uuidColumn("executed_by", AiDecisionLog::getExecutedBy, AiDecisionLog::setExecutedBy),
+            textColumn("execution_result", AiDecisionLog::getExecutionResult, AiDecisionLog::setExecutionResult),
+            textColumn("actual_outcomes", AiDecisionLog::getActualOutcomes, AiDecisionLog::setActualOutcomes),
+            textColumn("outcome_variance", AiDecisionLog::getOutcomeVariance, AiDecisionLog::setOutcomeVariance),
+            decimalColumn("feedback_score", AiDecisionLog::getFeedbackScore, AiDecisionLog::setFeedbackScore),
+            textColumn("learning_data", AiDecisionLog::getLearningData, AiDecisionLog::setLearningData),
+            decimalColumn("model_accuracy", AiDecisionLog::getModelAccuracy, AiDecisionLog::setModelAccuracy),
+            longColumn("computation_time_ms", AiDecisionLog::getComputationTimeMs,
+                    AiDecisionLog::setComputationTimeMs),
+            decimalColumn("data_freshness_score", AiDecisionLog::getDataFreshnessScore,
+                    AiDecisionLog::setDataFreshnessScore),
+            decimalColumn("bias_score", AiDecisionLog::getBiasScore, AiDecisionLog::setBiasScore),
+            decimalColumn("explainability_score", AiDecisionLog::getExplainabilityScore,
+                    AiDecisionLog::setExplainabilityScore),
+            textColumn("error_message", AiDecisionLog::getErrorMessage, AiDecisionLog::setErrorMessage),
+            textColumn("debug_info", AiDecisionLog::getDebugInfo, AiDecisionLog::setDebugInfo),
+            dateTimeColumn("created_at", AiDecisionLog::getCreatedAt, AiDecisionLog::setCreatedAt),
+            dateTimeColumn("updated_at", AiDecisionLog::getUpdatedAt, AiDecisionLog::setUpdatedAt));
+
+    private static final Map<String, Column> COLUMNS_BY_NAME = COLUMNS.stream()
+            .collect(Collectors.toUnmodifiableMap(Column::name, Function.identity()));
+
+    private AiDecisionLogSegmentCodec() {
+    }
+
+    /**
+     * ログ（ID 昇順）をセグメントに書き出す
+     */
+    static Encoded encode(List<AiDecisionLog> logs) {
+        try {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(raw);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeVarLong(out, logs.size());
+
+            long previousId = 0;
+            for (AiDecisionLog log : logs) {
+                writeVarLong(out, log.getId() - previousId);
+                previousId = log.getId();
+            }
+
+            writeVarLong(out, COLUMNS.size());
+            for (Column column : COLUMNS) {
+                out.writeUTF(column.name());
+                for (AiDecisionLog log : logs) {
+                    writeNullableString(out, column.getter().apply(log));
+                }
+            }
+            out.flush();
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+                raw.writeTo(gzip);
+            }
+            return new Encoded(compressed.toByteArray(), raw.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode AI decision log segment", e);
+        }
+    }
+
+    /**
+     * セグメントを展開する（ID 昇順）
+     */
+    static List<AiDecisionLog> decode(byte[] payload) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload));
+                DataInputStream in = new DataInputStream(gzip)) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("Not an AI decision log segment");
+            }
+            int version = in.readInt();
+            if (version > FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported AI decision log segment version: " + version);
+            }
+            int count = (int) readVarLong(in);
+
+            List<AiDecisionLog> logs = new ArrayList<>(count);
+            long id = 0;
+            for (int i = 0; i < count; i++) {
+                id += readVarLong(in);
+                AiDecisionLog log = new AiDecisionLog();
+                log.setId(id);
+                logs.add(log);
+            }
+
+            int columnCount = (int) readVarLong(in);
+            for (int c = 0; c < columnCount; c++) {
+                Column column = COLUMNS_BY_NAME.get(in.readUTF());
+                for (AiDecisionLog log : logs) {
+                    String value = readNullableString(in);
+                    if (column != null) {
+                        column.setter().accept(log, value);
+                    }
+                }
+            }
+            return logs;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode AI decision log segment", e);
+        }
+    }
+
+    // ===== 列定義 =====
+
+    private static Column textColumn(String name, Function<AiDecisionLog, String> getter,
+            BiConsumer<AiDecisionLog, String> setter) {
+        return new Column(name, getter, setter);
+    }
+
+    private static Column longColumn(String name, Function<AiDecisionLog, Long> getter,
+            BiConsumer<AiDecisionLog, Long> setter) {
+        return new Column(name, log -> toText(getter.apply(log)),
+                (log, value) -> setter.accept(log, value != null ? Long.valueOf(value) : null));
+    }
+
+    private static Column decimalColumn(String name, Function<AiDecisionLog, BigDecimal> getter,
+            BiConsumer<AiDecisionLog, BigDecimal> setter) {
+        return new Column(name, log -> {
+            BigDecimal value = getter.apply(log);
+            return value != null ? value.toPlainString() : null;
+        }, (log, value) -> setter.accept(log, value != null ? new BigDecimal(value) : null));
+    }
+
+    private static Column dateTimeColumn(String name, Function<AiDecisionLog, LocalDateTime> getter,
+            BiConsumer<AiDecisionLog, LocalDateTime> setter) {
+        return new Column(name, log -> toText(getter.apply(log)),
+                (log, value) -> setter.accept(log, value != null ? LocalDateTime.parse(value) : null));
+    }
+
+    private static Column uuidColumn(String name, Function<AiDecisionLog, UUID> getter,
+            BiConsumer<AiDecisionLog, UUID> setter) {
+        return new Column(name, log -> toText(getter.apply(log)),
+                (log, value) -> setter.accept(log, value != null ? UUID.fromString(value) : null));
+    }
+
+    private static Column booleanColumn(String name, Function<AiDecisionLog, Boolean> getter,
+            BiConsumer<AiDecisionLog, Boolean> setter) {
+        return new Column(name, log -> toText(getter.apply(log)),
+                (log, value) -> setter.accept(log, value != null ? Boolean.valueOf(value) : null));
+    }
+
+    private static <E extends Enum<E>> Column enumColumn(String name, Class<E> type,
+            Function<AiDecisionLog, E> getter, BiConsumer<AiDecisionLog, E> setter) {
+        return new Column(name, log -> {
+            E value = getter.apply(log);
+            return value != null ? value.name() : null;
+        }, (log, value) -> setter.accept(log, value != null ? Enum.valueOf(type, value) : null));
+    }
+
+    private static String toText(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    // ===== 低レベル入出力 =====
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,194 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.burn;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision;
+import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision.BurnStatus;
+import com.sfr.tokyo.sfr_backend.repository.crypto.BurnDecisionRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 未決のバーン判定（承認待ち・投票中）のメモリ上のビュー
+ *
+ * 承認待ちは決定日時の新しい順、投票中は投票終了日時の早い順に ID を保持する。
+ * 状態遷移はコミット後に1件ずつ反映し、並び済みの不変リストを差し替えるため、読み取りと件数取得は定数時間。
+ * 遷移メソッドを通らない更新（直接の SQL や他ノード）に備え、定期的に DB から読み直す。
+ */
+@Slf4j
+@Component
+public class OpenBurnDecisionView {
+
+    /** 承認待ちとして扱うステータス */
+    public static final Set<BurnStatus> PENDING_STATUSES = EnumSet.of(BurnStatus.PROPOSED, BurnStatus.UNDER_REVIEW);
+
+    private static final Set<BurnStatus> OPEN_STATUSES = EnumSet.of(BurnStatus.PROPOSED, BurnStatus.UNDER_REVIEW,
+            BurnStatus.VOTING);
+
+    private static final Comparator<Entry> PENDING_ORDER = Comparator
+            .comparing(Entry::decisionDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Entry::id, Comparator.reverseOrder());
+
+    private static final Comparator<Entry> VOTING_ORDER = Comparator
+            .comparing(Entry::votingEndDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Entry::id);
+
+    /** 並び替えと判定に必要な列だけを持つ */
+    record Entry(Long id, BurnStatus status, LocalDateTime decisionDate, LocalDateTime votingEndDate) {
+
+        static Entry of(BurnDecision decision) {
+            return new Entry(decision.getId(), decision.getStatus(), decision.getDecisionDate(),
+                    decision.getVotingEndDate());
+        }
+
+        boolean isPending() {
+            return PENDING_STATUSES.contains(status);
+        }
+
+        boolean isVoting() {
+            return status == BurnStatus.VOTING;
+        }
+    }
+
+    private final BurnDecisionRepository burnDecisionRepository;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> pending = new TreeSet<>(PENDING_ORDER);
+    private final TreeSet<Entry> voting = new TreeSet<>(VOTING_ORDER);
+
+    private volatile List<Long> pendingIds = List.of();
+    private volatile List<Entry> votingEntries = List.of();
+    private volatile boolean loaded;
+    /** DB 読み直し中に反映した状態遷移（this で保護） */
+    private final CommittedChanges<Long> changes = new CommittedChanges<>();
+
+    public OpenBurnDecisionView(BurnDecisionRepository burnDecisionRepository) {
+        this.burnDecisionRepository = burnDecisionRepository;
+    }
+
+    /**
+     * 承認待ち判定のID（決定日時の新しい順）
+     */
+    public List<Long> getPendingIds() {
+        ensureLoaded();
+        return pendingIds;
+    }
+
+    /**
+     * 投票受付中の判定のID（投票終了日時の早い順、終了日時を過ぎたものは除く）
+     */
+    public List<Long> getVotingIds(LocalDateTime now) {
+        ensureLoaded();
+        List<Entry> current = votingEntries;
+        int from = 0;
+        while (from < current.size() && isVotingClosed(current.get(from), now)) {
+            from++;
+        }
+        return current.subList(from, current.size()).stream().map(Entry::id).toList();
+    }
+
+    public int getPendingCount() {
+        ensureLoaded();
+        return pendingIds.size();
+    }
+
+    /** 投票中ステータスの件数（終了日時を過ぎて集計待ちのものを含む） */
+    public int getVotingCount() {
+        ensureLoaded();
+        return votingEntries.size();
+    }
+
+    /**
+     * 判定の状態変更を反映する（トランザクション中ならコミット後）
+     * 並び替えに使う列はこの時点で控えておく
+     */
+    public void onChanged(BurnDecision decision) {
+        Entry changed = Entry.of(decision);
+        CommittedChanges.afterCommit(() -> apply(changed.id(), changed));
+    }
+
+    /**
+     * 未決の判定を DB から読み直す
+     */
+    @Scheduled(fixedDelayString = "${sfr.burn-decision.open-view.reload-interval-ms:300000}",
+            initialDelayString = "${sfr.burn-decision.open-view.reload-interval-ms:300000}")
+    public void reload() {
+        CommittedChanges.Reload<Long> reload;
+        synchronized (this) {
+            reload = changes.beginReload();
+        }
+        Map<Long, Entry> fresh = new HashMap<>();
+        try {
+            for (BurnDecision decision : burnDecisionRepository.findByStatusIn(OPEN_STATUSES)) {
+                fresh.put(decision.getId(), Entry.of(decision));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changes.cancelReload(reload);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            changes.finishReload(reload, fresh, entries);
+            entries.clear();
+            pending.clear();
+            voting.clear();
+            fresh.values().forEach(this::index);
+            publish();
+            loaded = true;
+            log.debug("Reloaded open burn decisions: pending={}, voting={}", pending.size(), voting.size());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    private synchronized void apply(Long id, Entry changed) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            pending.remove(previous);
+            voting.remove(previous);
+        }
+        if (changed.isPending() || changed.isVoting()) {
+            index(changed);
+        }
+        changes.changed(id);
+        publish();
+    }
+
+    private void index(Entry entry) {
+        entries.put(entry.id(), entry);
+        if (entry.isPending()) {
+            pending.add(entry);
+        } else if (entry.isVoting()) {
+            voting.add(entry);
+        }
+    }
+
+    private void publish() {
+        List<Long> ids = new ArrayList<>(pending.size());
+        pending.forEach(entry -> ids.add(entry.id()));
+        pendingIds = List.copyOf(ids);
+        votingEntries = List.copyOf(voting);
+    }
+
+    private static boolean isVotingClosed(Entry entry, LocalDateTime now) {
+        return entry.votingEndDate() == null || !entry.votingEndDate().isAfter(now);
+    }
+}
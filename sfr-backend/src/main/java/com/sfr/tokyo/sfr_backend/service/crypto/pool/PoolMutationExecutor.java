@@ -0,0 +1,285 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.pool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.TokenPool;
+import com.sfr.tokyo.sfr_backend.repository.crypto.TokenPoolRepository;
+import com.sfr.tokyo.sfr_backend.service.crypto.supply.TokenSupplySnapshotService;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * トークンプール更新のレーン実行器
+ *
+ * スペースIDからレーン（単一スレッド）を決め、同じプールへの更新は必ず同じレーンで順番に実行する。
+ * レーンは溜まった更新をまとめて1トランザクションで適用し、プールの書き込みは1バッチにつき1回（@Version で検査）。
+ * 異なるレーンのプールは並列に更新される。
+ * 他ノードとの競合でバージョン検査に失敗した場合はバッチを読み直して再適用する。
+ */
+@Slf4j
+@Component
+public class PoolMutationExecutor {
+
+    /**
+     * プールへの更新操作
+     * 業務ルール違反の場合はプールを変更せずに例外を投げること（同じバッチの他の操作は続行される）
+     */
+    @FunctionalInterface
+    public interface PoolMutation {
+        void apply(TokenPool pool);
+    }
+
+    private final TokenPoolRepository tokenPoolRepository;
+    private final TokenSupplySnapshotService supplySnapshotService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService[] lanes;
+    private final int maxBatchSize;
+    private final long awaitTimeoutMillis;
+    private final int maxRetries;
+
+    private final Map<Long, PoolQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicLong appliedMutations = new AtomicLong();
+    private final AtomicLong writtenBatches = new AtomicLong();
+    private final AtomicLong versionConflicts = new AtomicLong();
+
+    private static final class PoolQueue {
+        final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+
+    private static final class Pending {
+        final PoolMutation mutation;
+        final PoolQueue queue;
+        final CompletableFuture<TokenPool> future = new CompletableFuture<>();
+        RuntimeException failure;
+
+        Pending(PoolMutation mutation, PoolQueue queue) {
+            this.mutation = mutation;
+            this.queue = queue;
+        }
+    }
+
+    public PoolMutationExecutor(TokenPoolRepository tokenPoolRepository,
+            TokenSupplySnapshotService supplySnapshotService,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.token-pool.executor.lanes:0}") int lanes,
+            @Value("${sfr.token-pool.executor.max-batch-size:256}") int maxBatchSize,
+            @Value("${sfr.token-pool.executor.await-timeout-ms:10000}") long awaitTimeoutMillis,
+            @Value("${sfr.token-pool.executor.max-retries:3}") int maxRetries) {
+        this.tokenPoolRepository = tokenPoolRepository;
+        this.supplySnapshotService = supplySnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        int laneCount = lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "token-pool-lane-" + i;
+            this.lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    /**
+     * 更新をレーンに積み、コミットまで待つ
+     *
+     * 待ち時間を過ぎてもまだキューに残っている更新は取り下げて失敗とする（プールには一切反映されない）。
+     * 既にバッチに取り込まれていた場合は取り下げられないため、そのバッチの結果を待って返す。
+     * したがって例外が返った更新は反映されておらず、呼び出し側はそのまま再試行してよい。
+     *
+     * @return コミット後のプール
+     * @throws IllegalArgumentException プールが存在しない場合
+     * @throws IllegalStateException 業務ルール違反・タイムアウトの場合
+     */
+    public TokenPool execute(Long spaceId, PoolMutation mutation) {
+        Pending pending = enqueue(spaceId, mutation);
+        try {
+            return pending.future.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (TimeoutException e) {
+            if (pending.queue.pending.remove(pending)) {
+                throw new IllegalStateException(
+                        "Timed out waiting for token pool mutation (not applied): spaceId=" + spaceId, e);
+            }
+            return awaitOutcome(pending);
+        } catch (InterruptedException e) {
+            if (pending.queue.pending.remove(pending)) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for token pool mutation (not applied)", e);
+            }
+            try {
+                return awaitOutcome(pending);
+            } finally {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 更新をレーンに積む
+     */
+    public CompletableFuture<TokenPool> submit(Long spaceId, PoolMutation mutation) {
+        return enqueue(spaceId, mutation).future;
+    }
+
+    private Pending enqueue(Long spaceId, PoolMutation mutation) {
+        if (spaceId == null) {
+            throw new IllegalArgumentException("spaceId is required");
+        }
+        PoolQueue queue = queues.computeIfAbsent(spaceId, id -> new PoolQueue());
+        Pending pending = new Pending(mutation, queue);
+        queue.pending.add(pending);
+        if (queue.scheduled.compareAndSet(false, true)) {
+            schedule(spaceId, queue);
+        }
+        return pending;
+    }
+
+    /**
+     * 実行中のバッチに取り込まれた更新の結果を待つ（バッチはトランザクション1回分で終わる）
+     */
+    private static TokenPool awaitOutcome(Pending pending) {
+        try {
+            return pending.future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Token pool mutation failed", cause);
+    }
+
+    public long getAppliedMutations() {
+        return appliedMutations.get();
+    }
+
+    /** プールへの書き込み回数（バッチ数） */
+    public long getWrittenBatches() {
+        return writtenBatches.get();
+    }
+
+    public long getVersionConflicts() {
+        return versionConflicts.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private void schedule(Long spaceId, PoolQueue queue) {
+        lanes[Math.floorMod(spaceId.hashCode(), lanes.length)].execute(() -> drain(spaceId, queue));
+    }
+
+    /**
+     * 溜まった更新を1バッチ分適用する
+     * 残りがあれば同じレーンの末尾に積み直し、同じレーンの他プールを待たせすぎないようにする
+     */
+    private void drain(Long spaceId, PoolQueue queue) {
+        List<Pending> batch = new ArrayList<>();
+        Pending next;
+        while (batch.size() < maxBatchSize && (next = queue.pending.poll()) != null) {
+            batch.add(next);
+        }
+        try {
+            if (!batch.isEmpty()) {
+                runBatch(spaceId, batch);
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        } finally {
+            if (!queue.pending.isEmpty()) {
+                schedule(spaceId, queue);
+            } else {
+                queue.scheduled.set(false);
+                if (!queue.pending.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+                    schedule(spaceId, queue);
+                }
+            }
+        }
+    }
+
+    private void runBatch(Long spaceId, List<Pending> batch) {
+        for (int attempt = 0;; attempt++) {
+            try {
+                TokenPool result = transactionTemplate.execute(status -> applyBatch(spaceId, batch));
+                for (Pending pending : batch) {
+                    if (pending.failure != null) {
+                        pending.future.completeExceptionally(pending.failure);
+                    } else {
+                        pending.future.complete(result);
+                    }
+                }
+                return;
+            } catch (ObjectOptimisticLockingFailureException | OptimisticLockException e) {
+                versionConflicts.incrementAndGet();
+                if (attempt >= maxRetries) {
+                    log.warn("Token pool version conflict persisted after {} retries: spaceId={}", maxRetries,
+                            spaceId);
+                    throw new IllegalStateException("Token pool was modified concurrently: spaceId=" + spaceId, e);
+                }
+                log.debug("Token pool version conflict, retrying batch: spaceId={}, attempt={}", spaceId, attempt);
+            }
+        }
+    }
+
+    private TokenPool applyBatch(Long spaceId, List<Pending> batch) {
+        TokenPool pool = tokenPoolRepository.findBySpaceId(spaceId).orElse(null);
+        if (pool == null) {
+            IllegalArgumentException notFound = new IllegalArgumentException(
+                    String.format("Token pool not found for spaceId: %s", spaceId));
+            batch.forEach(pending -> pending.failure = notFound);
+            return null;
+        }
+        int applied = 0;
+        for (Pending pending : batch) {
+            pending.failure = null;
+            try {
+                pending.mutation.apply(pool);
+                applied++;
+            } catch (RuntimeException e) {
+                pending.failure = e;
+            }
+        }
+        if (applied == 0) {
+            return pool;
+        }
+        TokenPool saved = tokenPoolRepository.saveAndFlush(pool);
+        supplySnapshotService.onPoolChanged(saved);
+        appliedMutations.addAndGet(applied);
+        writtenBatches.incrementAndGet();
+        return saved;
+    }
+}
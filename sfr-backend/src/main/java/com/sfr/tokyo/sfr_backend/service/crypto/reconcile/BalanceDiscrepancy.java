@@ -0,0 +1,56 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.reconcile;
+
+import java.math.BigDecimal;
+
+import com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow;
+
+/**
+ * SfrPoint と UserBalance の残高不一致
+ * 片側に行がない場合は残高ゼロとして比較する（{@code checkBalanceConsistency} と同じ規則）
+ */
+public record BalanceDiscrepancy(
+        String userId,
+        Long spaceId,
+        Kind kind,
+        BigDecimal sfrPointBalance,
+        BigDecimal userBalanceAmount) {
+
+    public enum Kind {
+        /** 両方に行があり残高が異なる */
+        MISMATCH,
+        /** SfrPoint のみ存在（UserBalance を作成して修復） */
+        MISSING_USER_BALANCE,
+        /** UserBalance のみ存在（正となる SfrPoint がないため自動修復しない） */
+        MISSING_SFR_POINT
+    }
+
+    /** SfrPoint - UserBalance */
+    public BigDecimal discrepancy() {
+        return sfrPointBalance.subtract(userBalanceAmount);
+    }
+
+    /** SfrPoint を正として修復可能か */
+    public boolean isRepairable() {
+        return kind != Kind.MISSING_SFR_POINT;
+    }
+
+    /**
+     * 両側の行を比較し、不一致であれば差分を返す
+     *
+     * @param point SfrPoint 側の行（存在しない場合 null）
+     * @param balance UserBalance 側の行（存在しない場合 null）
+     * @return 不一致の場合は差分、一致していれば null
+     */
+    static BalanceDiscrepancy compare(Long spaceId, BalanceRow point, BalanceRow balance) {
+        BigDecimal pointAmount = point != null ? point.currentBalance() : BigDecimal.ZERO;
+        BigDecimal balanceAmount = balance != null ? balance.currentBalance() : BigDecimal.ZERO;
+        if (pointAmount.compareTo(balanceAmount) == 0) {
+            return null;
+        }
+        Kind kind = point == null ? Kind.MISSING_SFR_POINT
+                : balance == null ? Kind.MISSING_USER_BALANCE
+                : Kind.MISMATCH;
+        String userId = point != null ? point.userId() : balance.userId();
+        return new BalanceDiscrepancy(userId, spaceId, kind, pointAmount, balanceAmount);
+    }
+}
@@ -0,0 +1,32 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.reconcile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 残高突合の実行結果
+ */
+@Value
+@Builder
+public class BalanceReconcileReport {
+    Long spaceId;
+    BalanceReconciler.Mode mode;
+    boolean repair;
+    long scannedSfrPoints;
+    long scannedUserBalances;
+    /** 増分モードで片側のみ変更された行の相手側を引き当てた件数 */
+    long lookedUpRows;
+    long inconsistent;
+    long repaired;
+    long unrepairable;
+    /** 先頭から最大 {@link BalanceReconciler#SAMPLE_LIMIT} 件の不一致 */
+    List<BalanceDiscrepancy> samples;
+    /** 増分モードの対象下限（FULL の場合 null） */
+    LocalDateTime since;
+    LocalDateTime startedAt;
+    long elapsedMillis;
+    double rowsPerSecond;
+}
@@ -0,0 +1,362 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.reconcile;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sfr.tokyo.sfr_backend.repository.crypto.SfrPointRepository;
+import com.sfr.tokyo.sfr_backend.repository.crypto.UserBalanceRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SfrPoint / UserBalance 残高の一括突合
+ *
+ * 両テーブルを user_id 順のキーセットカーソルで前方向に1回だけ読み、マージジョインで差分を求める。
+ * 保持するのは各カーソルのチャンクと修復バッチのみで、件数に依存しない定数メモリで動作する。
+ * user_id は UUID 文字列（ASCII）のため、DB の並び順と Java の文字列比較が一致する前提。
+ *
+ * - FULL: 全行を突合する
+ * - INCREMENTAL: 前回ウォーターマーク以降に更新された行のみ突合し、片側のみ変更された行は相手側をまとめて引き当てる
+ */
+@Slf4j
+@Service
+public class BalanceReconciler {
+
+    public enum Mode {
+        FULL, INCREMENTAL
+    }
+
+    static final int SAMPLE_LIMIT = 100;
+
+    private final SfrPointRepository sfrPointRepository;
+    private final UserBalanceRepository userBalanceRepository;
+    private final BalanceRepairWriter repairWriter;
+    private final int chunkSize;
+    private final int repairBatchSize;
+    private final Duration watermarkOverlap;
+    private final Duration summaryCacheTtl;
+    private final boolean scheduledEnabled;
+    private final boolean autoRepair;
+    private final Long scheduledSpaceId;
+    private final Executor summaryExecutor;
+
+    /** スペースごとの増分突合の下限 */
+    private final Map<Long, LocalDateTime> watermarks = new ConcurrentHashMap<>();
+    /** スペースごとの直近の全件突合結果（サマリー用キャッシュ） */
+    private final Map<Long, BalanceReconcileReport> lastFullReports = new ConcurrentHashMap<>();
+    /** サマリー用の全件突合をバックグラウンドで実行中のスペース */
+    private final Set<Long> summaryRefreshing = ConcurrentHashMap.newKeySet();
+
+    public BalanceReconciler(SfrPointRepository sfrPointRepository,
+            UserBalanceRepository userBalanceRepository,
+            BalanceRepairWriter repairWriter,
+            @Value("${sfr.reconcile.chunk-size:1000}") int chunkSize,
+            @Value("${sfr.reconcile.repair-batch-size:200}") int repairBatchSize,
+            @Value("${sfr.reconcile.watermark-overlap-seconds:60}") long watermarkOverlapSeconds,
+            @Value("${sfr.reconcile.summary-cache-ms:60000}") long summaryCacheMillis,
+            @Value("${sfr.reconcile.scheduled.enabled:true}") boolean scheduledEnabled,
+            @Value("${sfr.reconcile.scheduled.auto-repair:false}") boolean autoRepair,
+            @Value("${sfr.reconcile.scheduled.space-id:1}") Long scheduledSpaceId,
+            @Qualifier("taskExecutor") Executor summaryExecutor) {
+        this.sfrPointRepository = sfrPointRepository;
+        this.userBalanceRepository = userBalanceRepository;
+        this.repairWriter = repairWriter;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.repairBatchSize = Math.max(1, repairBatchSize);
+        this.watermarkOverlap = Duration.ofSeconds(watermarkOverlapSeconds);
+        this.summaryCacheTtl = Duration.ofMillis(summaryCacheMillis);
+        this.scheduledEnabled = scheduledEnabled;
+        this.autoRepair = autoRepair;
+        this.scheduledSpaceId = scheduledSpaceId;
+        this.summaryExecutor = summaryExecutor;
+    }
+
+    /**
+     * 残高を突合する
+     *
+     * INCREMENTAL でウォーターマーク未設定の場合は FULL で実行する。
+     * ウォーターマークは INCREMENTAL の実行時、または修復を伴う FULL の実行時に開始時刻（重なり分を差し引く）へ進める。
+     *
+     * @param spaceId スペースID
+     * @param mode 突合モード
+     * @param repair true の場合、SfrPoint を正として UserBalance をバッチ修復する
+     * @param sink 不一致の出力先（走査順に逐次呼び出される）
+     * @return 実行結果
+     */
+    public BalanceReconcileReport reconcile(Long spaceId, Mode mode, boolean repair, Consumer<BalanceDiscrepancy> sink) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        LocalDateTime since = mode == Mode.INCREMENTAL ? watermarks.get(spaceId) : null;
+        Run run = new Run(spaceId, repair, sink);
+
+        KeysetCursor points = new KeysetCursor(since == null
+                ? (after, limit) -> sfrPointRepository.findBalanceRowsAfter(spaceId, after, PageRequest.of(0, limit))
+                : (after, limit) -> sfrPointRepository.findChangedBalanceRowsAfter(spaceId, after, since,
+                        PageRequest.of(0, limit)));
+        KeysetCursor balances = new KeysetCursor(since == null
+                ? (after, limit) -> userBalanceRepository.findBalanceRowsAfter(spaceId, after, PageRequest.of(0, limit))
+                : (after, limit) -> userBalanceRepository.findChangedBalanceRowsAfter(spaceId, after, since,
+                        PageRequest.of(0, limit)));
+
+        List<BalanceRow> pointOnly = new ArrayList<>();
+        List<BalanceRow> balanceOnly = new ArrayList<>();
+        while (points.peek() != null || balances.peek() != null) {
+            BalanceRow point = points.peek();
+            BalanceRow balance = balances.peek();
+            int cmp = point == null ? 1 : balance == null ? -1 : point.userId().compareTo(balance.userId());
+            if (cmp == 0) {
+                run.compare(points.next(), balances.next());
+            } else if (cmp < 0) {
+                if (since == null) {
+                    run.compare(points.next(), null);
+                } else {
+                    pointOnly.add(points.next());
+                    if (pointOnly.size() >= chunkSize) {
+                        run.resolvePointOnly(pointOnly);
+                    }
+                }
+            } else {
+                if (since == null) {
+                    run.compare(null, balances.next());
+                } else {
+                    balanceOnly.add(balances.next());
+                    if (balanceOnly.size() >= chunkSize) {
+                        run.resolveBalanceOnly(balanceOnly);
+                    }
+                }
+            }
+        }
+        run.resolvePointOnly(pointOnly);
+        run.resolveBalanceOnly(balanceOnly);
+        run.flushRepairs();
+
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        long rows = points.fetched + balances.fetched + run.lookedUp;
+        BalanceReconcileReport report = BalanceReconcileReport.builder()
+                .spaceId(spaceId)
+                .mode(since == null ? Mode.FULL : Mode.INCREMENTAL)
+                .repair(repair)
+                .scannedSfrPoints(points.fetched)
+                .scannedUserBalances(balances.fetched)
+                .lookedUpRows(run.lookedUp)
+                .inconsistent(run.inconsistent)
+                .repaired(run.repaired)
+                .unrepairable(run.unrepairable)
+                .samples(Collections.unmodifiableList(run.samples))
+                .since(since)
+                .startedAt(startedAt)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(rows * 1000.0 / Math.max(1, elapsedMillis))
+                .build();
+
+        if (mode == Mode.INCREMENTAL || repair) {
+            watermarks.put(spaceId, startedAt.minus(watermarkOverlap));
+        }
+        if (report.getMode() == Mode.FULL) {
+            lastFullReports.put(spaceId, report);
+        }
+        log.info("残高突合完了: spaceId={}, mode={}, rows={}, inconsistent={}, repaired={}, unrepairable={}, {} ms ({} rows/s)",
+                spaceId, report.getMode(), rows, report.getInconsistent(), report.getRepaired(),
+                report.getUnrepairable(), elapsedMillis, String.format("%.0f", report.getRowsPerSecond()));
+        return report;
+    }
+
+    /**
+     * サマリー用の直近の全件突合結果
+     *
+     * 呼び出し元は走査を待たない。結果がないかキャッシュ有効期間を過ぎていれば、
+     * 修復なしの全件突合をバックグラウンドで起動し（スペースごとに同時に1本まで）、手元の結果をそのまま返す。
+     *
+     * @return 直近の全件突合結果（まだ一度も終わっていなければ空）
+     */
+    public Optional<BalanceReconcileReport> latestFullReport(Long spaceId) {
+        BalanceReconcileReport cached = lastFullReports.get(spaceId);
+        if (cached == null || !cached.getStartedAt().plus(summaryCacheTtl).isAfter(LocalDateTime.now())) {
+            refreshSummary(spaceId);
+        }
+        return Optional.ofNullable(cached);
+    }
+
+    private void refreshSummary(Long spaceId) {
+        if (!summaryRefreshing.add(spaceId)) {
+            return;
+        }
+        try {
+            summaryExecutor.execute(() -> {
+                try {
+                    reconcile(spaceId, Mode.FULL, false, discrepancy -> {
+                    });
+                } catch (Exception e) {
+                    log.error("サマリー用の残高突合に失敗しました: spaceId={}", spaceId, e);
+                } finally {
+                    summaryRefreshing.remove(spaceId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            summaryRefreshing.remove(spaceId);
+            log.warn("サマリー用の残高突合を起動できませんでした: spaceId={}", spaceId);
+        }
+    }
+
+    public LocalDateTime getWatermark(Long spaceId) {
+        return watermarks.get(spaceId);
+    }
+
+    /**
+     * 定期増分突合
+     * 既定では不一致の検出・ログ出力のみ行い、sfr.reconcile.scheduled.auto-repair=true で修復まで行う
+     */
+    @Scheduled(initialDelayString = "${sfr.reconcile.scheduled.initial-delay-ms:60000}",
+            fixedDelayString = "${sfr.reconcile.scheduled.interval-ms:300000}")
+    public void reconcileScheduled() {
+        if (!scheduledEnabled) {
+            return;
+        }
+        try {
+            reconcile(scheduledSpaceId, Mode.INCREMENTAL, autoRepair, discrepancy -> log.warn(
+                    "残高不一致: userId={}, kind={}, sfrPoint={}, userBalance={}", discrepancy.userId(),
+                    discrepancy.kind(), discrepancy.sfrPointBalance(), discrepancy.userBalanceAmount()));
+        } catch (Exception e) {
+            log.error("定期残高突合に失敗しました: spaceId={}", scheduledSpaceId, e);
+        }
+    }
+
+    /**
+     * 1回の突合の集計状態と修復バッチ
+     */
+    private final class Run {
+        private final Long spaceId;
+        private final boolean repair;
+        private final Consumer<BalanceDiscrepancy> sink;
+        private final List<String> repairBatch = new ArrayList<>();
+        private final List<BalanceDiscrepancy> samples = new ArrayList<>();
+        private long inconsistent;
+        private long repaired;
+        private long unrepairable;
+        private long lookedUp;
+
+        Run(Long spaceId, boolean repair, Consumer<BalanceDiscrepancy> sink) {
+            this.spaceId = spaceId;
+            this.repair = repair;
+            this.sink = sink;
+        }
+
+        void compare(BalanceRow point, BalanceRow balance) {
+            BalanceDiscrepancy discrepancy = BalanceDiscrepancy.compare(spaceId, point, balance);
+            if (discrepancy == null) {
+                return;
+            }
+            inconsistent++;
+            if (samples.size() < SAMPLE_LIMIT) {
+                samples.add(discrepancy);
+            }
+            sink.accept(discrepancy);
+            if (!discrepancy.isRepairable()) {
+                unrepairable++;
+            } else if (repair) {
+                repairBatch.add(discrepancy.userId());
+                if (repairBatch.size() >= repairBatchSize) {
+                    flushRepairs();
+                }
+            }
+        }
+
+        /** 増分モードで SfrPoint 側のみ変更された行の UserBalance を引き当てて比較する */
+        void resolvePointOnly(List<BalanceRow> pending) {
+            resolve(pending, userIds -> userBalanceRepository.findBalanceRowsByUserIds(spaceId, userIds), true);
+        }
+
+        /** 増分モードで UserBalance 側のみ変更された行の SfrPoint を引き当てて比較する */
+        void resolveBalanceOnly(List<BalanceRow> pending) {
+            resolve(pending, userIds -> sfrPointRepository.findBalanceRowsByUserIds(spaceId, userIds), false);
+        }
+
+        private void resolve(List<BalanceRow> pending, Function<List<String>, List<BalanceRow>> loader,
+                boolean pendingIsPoint) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<String> userIds = pending.stream().map(BalanceRow::userId).toList();
+            Map<String, BalanceRow> counterparts = loader.apply(userIds).stream()
+                    .collect(Collectors.toMap(BalanceRow::userId, Function.identity()));
+            lookedUp += counterparts.size();
+            for (BalanceRow row : pending) {
+                BalanceRow other = counterparts.get(row.userId());
+                if (pendingIsPoint) {
+                    compare(row, other);
+                } else {
+                    compare(other, row);
+                }
+            }
+            pending.clear();
+        }
+
+        void flushRepairs() {
+            if (repairBatch.isEmpty()) {
+                return;
+            }
+            repaired += repairWriter.repair(spaceId, List.copyOf(repairBatch));
+            repairBatch.clear();
+        }
+    }
+
+    /**
+     * user_id 昇順の前方向カーソル
+     * チャンク単位で「直前の user_id より後」を取得し、1チャンク分だけ保持する
+     */
+    private final class KeysetCursor {
+        private final BiFunction<String, Integer, List<BalanceRow>> fetcher;
+        private List<BalanceRow> chunk = List.of();
+        private int position;
+        private String lastUserId = "";
+        private boolean exhausted;
+        private long fetched;
+
+        KeysetCursor(BiFunction<String, Integer, List<BalanceRow>> fetcher) {
+            this.fetcher = fetcher;
+        }
+
+        BalanceRow peek() {
+            if (position >= chunk.size()) {
+                if (exhausted) {
+                    return null;
+                }
+                chunk = fetcher.apply(lastUserId, chunkSize);
+                position = 0;
+                exhausted = chunk.size() < chunkSize;
+                if (chunk.isEmpty()) {
+                    return null;
+                }
+                lastUserId = chunk.get(chunk.size() - 1).userId();
+                fetched += chunk.size();
+            }
+            return chunk.get(position);
+        }
+
+        BalanceRow next() {
+            BalanceRow row = peek();
+            position++;
+            return row;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.reconcile;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.SfrPoint;
+import com.sfr.tokyo.sfr_backend.entity.crypto.UserBalance;
+import com.sfr.tokyo.sfr_backend.repository.crypto.SfrPointRepository;
+import com.sfr.tokyo.sfr_backend.repository.crypto.UserBalanceRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 残高不一致のバッチ修復
+ * 1バッチを1トランザクションで処理し、走査時点から変わった行はその場で再比較する。
+ * 既存行は読み取った残高を条件にした UPDATE で書き換えるため、その間に入金・出金で残高が動いた行は上書きせず、
+ * 次回の突合に回す。
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceRepairWriter {
+
+    private final SfrPointRepository sfrPointRepository;
+    private final UserBalanceRepository userBalanceRepository;
+
+    /**
+     * SfrPoint を正として UserBalance を同期する
+     *
+     * @param spaceId スペースID
+     * @param userIds 修復対象ユーザーID
+     * @return 実際に更新・作成した UserBalance 件数
+     */
+    @Transactional
+    public int repair(Long spaceId, Collection<String> userIds) {
+        Map<String, SfrPoint> points = sfrPointRepository.findBySpaceIdAndUserIdIn(spaceId, userIds).stream()
+                .collect(Collectors.toMap(SfrPoint::getUserId, Function.identity()));
+        Map<String, BalanceRow> balances = userBalanceRepository.findBalanceRowsByUserIds(spaceId, userIds).stream()
+                .collect(Collectors.toMap(BalanceRow::userId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        List<UserBalance> created = new ArrayList<>();
+        for (String userId : userIds) {
+            SfrPoint point = points.get(userId);
+            if (point == null) {
+                continue;
+            }
+            BalanceRow balance = balances.get(userId);
+            if (balance == null) {
+                created.add(UserBalance.builder()
+                        .userId(userId)
+                        .spaceId(spaceId)
+                        .currentBalance(point.getCurrentBalance())
+                        .totalEarned(point.getTotalEarned())
+                        .totalSpent(point.getTotalSpent())
+                        .totalCollected(BigDecimal.ZERO)
+                        .build());
+            } else if (balance.currentBalance().compareTo(point.getCurrentBalance()) != 0) {
+                updated += userBalanceRepository.repairBalance(spaceId, userId, balance.currentBalance(),
+                        point.getCurrentBalance(), point.getTotalEarned(), point.getTotalSpent(), now);
+            }
+        }
+        userBalanceRepository.saveAll(created);
+        return updated + created.size();
+    }
+}
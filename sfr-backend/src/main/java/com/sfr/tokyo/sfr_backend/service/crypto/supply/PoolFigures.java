@@ -0,0 +1,48 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.supply;
+
+import java.math.BigDecimal;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.TokenPool;
+
+/**
+ * 供給統計の集計に使うトークンプールの値（不変）
+ * 変更時点の値を取り出して保持し、エンティティへの参照は持たない
+ */
+record PoolFigures(
+        Long poolId,
+        Long spaceId,
+        TokenPool.PoolStatus status,
+        BigDecimal totalSupply,
+        BigDecimal circulatingSupply,
+        BigDecimal burnedAmount,
+        BigDecimal rewardPool,
+        BigDecimal governancePool,
+        BigDecimal ecosystemPool,
+        BigDecimal reservePool,
+        BigDecimal issueRate,
+        BigDecimal burnRate,
+        BigDecimal collectionThreshold,
+        boolean healthy) {
+
+    static PoolFigures of(TokenPool pool) {
+        return new PoolFigures(
+                pool.getId(),
+                pool.getSpaceId(),
+                pool.getStatus(),
+                zeroIfNull(pool.getTotalSupply()),
+                zeroIfNull(pool.getCirculatingSupply()),
+                zeroIfNull(pool.getBurnedAmount()),
+                zeroIfNull(pool.getRewardPool()),
+                zeroIfNull(pool.getGovernancePool()),
+                zeroIfNull(pool.getEcosystemPool()),
+                zeroIfNull(pool.getReservePool()),
+                zeroIfNull(pool.getIssueRate()),
+                zeroIfNull(pool.getBurnRate()),
+                pool.getCollectionThreshold(),
+                pool.isHealthy());
+    }
+
+    private static BigDecimal zeroIfNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.supply;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.Value;
+
+/**
+ * 供給量推移グラフ用の時系列点
+ */
+@Value
+public class SupplyTrendPoint {
+    LocalDateTime takenAt;
+    BigDecimal totalSupply;
+    BigDecimal totalCirculatingSupply;
+    BigDecimal totalBurnedAmount;
+    BigDecimal totalRewardPool;
+    long activePools;
+
+    static SupplyTrendPoint of(TokenSupplySnapshot snapshot) {
+        return new SupplyTrendPoint(snapshot.getTakenAt(), snapshot.getTotalSupply(),
+                snapshot.getTotalCirculatingSupply(), snapshot.getTotalBurnedAmount(),
+                snapshot.getTotalRewardPool(), snapshot.getActivePools());
+    }
+}
@@ -0,0 +1,151 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.supply;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.TokenPool;
+import com.sfr.tokyo.sfr_backend.service.crypto.TokenPoolService.SystemPoolStatistics;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * トークンプール供給統計のスナップショット（不変）
+ * 全プールを1回走査して集計し、読み取りはこのスナップショットから返す
+ */
+@Value
+@Builder
+public class TokenSupplySnapshot {
+    long totalPools;
+    long activePools;
+    long pausedPools;
+    long healthyPoolCount;
+    BigDecimal totalSupply;
+    BigDecimal totalCirculatingSupply;
+    BigDecimal totalBurnedAmount;
+    BigDecimal totalRewardPool;
+    BigDecimal totalGovernancePool;
+    BigDecimal totalEcosystemPool;
+    BigDecimal totalReservePool;
+    BigDecimal averageIssueRate;
+    BigDecimal averageBurnRate;
+    /** 健全性チェックに失敗したプールのスペースID */
+    List<Long> unhealthySpaceIds;
+    LocalDateTime takenAt;
+
+    /** 回収閾値の昇順に並べたアクティブプール（回収対象の判定用） */
+    @Getter(AccessLevel.NONE)
+    List<PoolFigures> activePoolsByThreshold;
+
+    /**
+     * 全プールを1回の走査で集計する
+     */
+    static TokenSupplySnapshot aggregate(Iterable<PoolFigures> pools, LocalDateTime takenAt) {
+        long total = 0;
+        long active = 0;
+        long paused = 0;
+        long healthy = 0;
+        BigDecimal supply = BigDecimal.ZERO;
+        BigDecimal circulating = BigDecimal.ZERO;
+        BigDecimal burned = BigDecimal.ZERO;
+        BigDecimal reward = BigDecimal.ZERO;
+        BigDecimal governance = BigDecimal.ZERO;
+        BigDecimal ecosystem = BigDecimal.ZERO;
+        BigDecimal reserve = BigDecimal.ZERO;
+        BigDecimal issueRates = BigDecimal.ZERO;
+        BigDecimal burnRates = BigDecimal.ZERO;
+        List<Long> unhealthy = new ArrayList<>();
+        List<PoolFigures> activeByThreshold = new ArrayList<>();
+
+        for (PoolFigures pool : pools) {
+            total++;
+            if (pool.status() == TokenPool.PoolStatus.ACTIVE) {
+                active++;
+                if (pool.collectionThreshold() != null) {
+                    activeByThreshold.add(pool);
+                }
+            } else if (pool.status() == TokenPool.PoolStatus.PAUSED) {
+                paused++;
+            }
+            if (pool.healthy()) {
+                healthy++;
+            } else {
+                unhealthy.add(pool.spaceId());
+            }
+            supply = supply.add(pool.totalSupply());
+            circulating = circulating.add(pool.circulatingSupply());
+            burned = burned.add(pool.burnedAmount());
+            reward = reward.add(pool.rewardPool());
+            governance = governance.add(pool.governancePool());
+            ecosystem = ecosystem.add(pool.ecosystemPool());
+            reserve = reserve.add(pool.reservePool());
+            issueRates = issueRates.add(pool.issueRate());
+            burnRates = burnRates.add(pool.burnRate());
+        }
+        activeByThreshold.sort(Comparator.comparing(PoolFigures::collectionThreshold));
+
+        return TokenSupplySnapshot.builder()
+                .totalPools(total)
+                .activePools(active)
+                .pausedPools(paused)
+                .healthyPoolCount(healthy)
+                .totalSupply(supply)
+                .totalCirculatingSupply(circulating)
+                .totalBurnedAmount(burned)
+                .totalRewardPool(reward)
+                .totalGovernancePool(governance)
+                .totalEcosystemPool(ecosystem)
+                .totalReservePool(reserve)
+                .averageIssueRate(average(issueRates, total))
+                .averageBurnRate(average(burnRates, total))
+                .unhealthySpaceIds(List.copyOf(unhealthy))
+                .activePoolsByThreshold(List.copyOf(activeByThreshold))
+                .takenAt(takenAt)
+                .build();
+    }
+
+    /**
+     * 指定残高が回収閾値を超えるアクティブプールのスペースID
+     */
+    public List<Long> collectionTargetSpaceIds(BigDecimal userBalance) {
+        if (userBalance == null) {
+            return List.of();
+        }
+        List<Long> spaceIds = new ArrayList<>();
+        for (PoolFigures pool : activePoolsByThreshold) {
+            if (userBalance.compareTo(pool.collectionThreshold()) <= 0) {
+                break;
+            }
+            spaceIds.add(pool.spaceId());
+        }
+        return spaceIds;
+    }
+
+    public SystemPoolStatistics toSystemPoolStatistics() {
+        return SystemPoolStatistics.builder()
+                .totalPools(totalPools)
+                .activePools(activePools)
+                .pausedPools(pausedPools)
+                .totalSupply(totalSupply)
+                .totalCirculatingSupply(totalCirculatingSupply)
+                .totalBurnedAmount(totalBurnedAmount)
+                .totalRewardPool(totalRewardPool)
+                .totalGovernancePool(totalGovernancePool)
+                .totalEcosystemPool(totalEcosystemPool)
+                .totalReservePool(totalReservePool)
+                .averageIssueRate(averageIssueRate)
+                .averageBurnRate(averageBurnRate)
+                .healthyPoolCount(healthyPoolCount)
+                .build();
+    }
+
+    private static BigDecimal average(BigDecimal sum, long count) {
+        return count == 0 ? BigDecimal.ZERO : sum.divide(BigDecimal.valueOf(count), 8, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,166 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.supply;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.TokenPool;
+import com.sfr.tokyo.sfr_backend.repository.crypto.TokenPoolRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * トークンプール供給統計のスナップショットサービス
+ *
+ * プールごとの値をメモリに保持し、発行・バーン・報酬配布などの変更はコミット後にその1件だけを差し替える。
+ * 統計はメモリ上の値を1回走査して不変のスナップショットにまとめ、次の変更まで使い回す。
+ * 変更経路を通らない更新（直接の SQL など）に備え、定期的に DB から全件を読み直す。
+ * 推移グラフ用に一定間隔でスナップショットの要約を時系列として保持する。
+ */
+@Slf4j
+@Service
+public class TokenSupplySnapshotService {
+
+    private final TokenPoolRepository tokenPoolRepository;
+    private final int pageSize;
+    private final int historySize;
+
+    /** プールID → 値 */
+    private final Map<Long, PoolFigures> figures = new ConcurrentHashMap<>();
+    private final Deque<SupplyTrendPoint> history = new ArrayDeque<>();
+
+    private volatile TokenSupplySnapshot snapshot;
+    private volatile boolean dirty;
+    /** DB 読み直し中に反映したプールの変更（this で保護） */
+    private final CommittedChanges<Long> changes = new CommittedChanges<>();
+
+    public TokenSupplySnapshotService(TokenPoolRepository tokenPoolRepository,
+            @Value("${sfr.supply-snapshot.page-size:500}") int pageSize,
+            @Value("${sfr.supply-snapshot.history-size:1440}") int historySize) {
+        this.tokenPoolRepository = tokenPoolRepository;
+        this.pageSize = Math.max(1, pageSize);
+        this.historySize = Math.max(1, historySize);
+    }
+
+    /**
+     * 現在のスナップショット（未読込なら DB から、変更があればメモリ上の値から集計し直す）
+     */
+    public TokenSupplySnapshot getSnapshot() {
+        TokenSupplySnapshot current = snapshot;
+        if (current == null) {
+            return reload();
+        }
+        if (dirty) {
+            return rebuild();
+        }
+        return current;
+    }
+
+    /**
+     * プールの変更を反映する（トランザクション中ならコミット後）
+     * 値は呼び出し時点で取り出すため、コミット後にエンティティが変わっても影響しない
+     */
+    public void onPoolChanged(TokenPool pool) {
+        PoolFigures changed = PoolFigures.of(pool);
+        CommittedChanges.afterCommit(() -> apply(changed.poolId(), changed));
+    }
+
+    /**
+     * プールの削除を反映する（トランザクション中ならコミット後）
+     */
+    public void onPoolDeleted(Long poolId) {
+        CommittedChanges.afterCommit(() -> apply(poolId, null));
+    }
+
+    /**
+     * 推移の時系列（古い順）
+     */
+    public List<SupplyTrendPoint> getHistory() {
+        synchronized (history) {
+            return List.copyOf(history);
+        }
+    }
+
+    /**
+     * 全プールを DB から読み直してスナップショットを作り直す
+     */
+    @Scheduled(fixedDelayString = "${sfr.supply-snapshot.reload-interval-ms:300000}",
+            initialDelayString = "${sfr.supply-snapshot.reload-interval-ms:300000}")
+    public TokenSupplySnapshot reload() {
+        CommittedChanges.Reload<Long> reload;
+        synchronized (this) {
+            reload = changes.beginReload();
+        }
+        Map<Long, PoolFigures> loaded = new HashMap<>();
+        try {
+            PageRequest page = PageRequest.of(0, pageSize, Sort.by("id"));
+            Page<TokenPool> chunk;
+            do {
+                chunk = tokenPoolRepository.findAll(page);
+                for (TokenPool pool : chunk) {
+                    loaded.put(pool.getId(), PoolFigures.of(pool));
+                }
+                page = page.next();
+            } while (chunk.hasNext());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changes.cancelReload(reload);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            changes.finishReload(reload, loaded, figures);
+            figures.keySet().retainAll(loaded.keySet());
+            figures.putAll(loaded);
+            dirty = true;
+            log.debug("Reloaded token pool supply figures: {} pools", loaded.size());
+            return rebuild();
+        }
+    }
+
+    /**
+     * 推移グラフ用の時系列点を記録する
+     */
+    @Scheduled(fixedDelayString = "${sfr.supply-snapshot.sample-interval-ms:60000}")
+    public void sample() {
+        SupplyTrendPoint point = SupplyTrendPoint.of(getSnapshot());
+        synchronized (history) {
+            history.addLast(point);
+            while (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+    }
+
+    private synchronized void apply(Long poolId, PoolFigures changed) {
+        if (changed != null) {
+            figures.put(poolId, changed);
+        } else {
+            figures.remove(poolId);
+        }
+        changes.changed(poolId);
+        dirty = true;
+    }
+
+    private synchronized TokenSupplySnapshot rebuild() {
+        if (!dirty && snapshot != null) {
+            return snapshot;
+        }
+        dirty = false;
+        snapshot = TokenSupplySnapshot.aggregate(figures.values(), LocalDateTime.now());
+        return snapshot;
+    }
+}
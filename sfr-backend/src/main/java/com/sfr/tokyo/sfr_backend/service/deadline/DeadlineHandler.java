@@ -0,0 +1,64 @@
+package com.sfr.tokyo.sfr_backend.service.deadline;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
+
+/**
+ * 期限の種類ごとの処理
+ *
+ * expire は対象IDをまとめて受け取り、状態と期限を WHERE 句で再確認する条件付き UPDATE で適用する。
+ * 期限登録より後に状態が変わった対象や、別ノードで処理済みの対象は更新されないため、同じ期限が複数回届いても安全。
+ */
+public interface DeadlineHandler {
+
+    /**
+     * 適用結果
+     *
+     * @param applied 状態を更新した件数
+     * @param postponed 期限が延びていて今回は適用しなかった対象の新しい期限（最終アクセス基準の期限など）
+     */
+    record Outcome(int applied, Map<Long, LocalDateTime> postponed) {
+
+        public static Outcome of(int applied) {
+            return new Outcome(applied, Map.of());
+        }
+    }
+
+    DeadlineKind kind();
+
+    /**
+     * 期限が到来した対象に状態変更を一括適用する（呼び出し側のトランザクション内で実行される）
+     */
+    Outcome expire(List<Long> targetIds, LocalDateTime now);
+
+    /**
+     * 既存データ上の未処理の期限（ID順、afterId より後を最大 limit 件）
+     * 期限登録を経由しない更新を取り込むために起動時と定期的な突き合わせで使う
+     */
+    List<DeadlineRow> pending(long afterId, int limit);
+
+    static DeadlineHandler of(DeadlineKind kind, BiFunction<List<Long>, LocalDateTime, Outcome> expire,
+            BiFunction<Long, Integer, List<DeadlineRow>> pending) {
+        return new DeadlineHandler() {
+            @Override
+            public DeadlineKind kind() {
+                return kind;
+            }
+
+            @Override
+            public Outcome expire(List<Long> targetIds, LocalDateTime now) {
+                return expire.apply(targetIds, now);
+            }
+
+            @Override
+            public List<DeadlineRow> pending(long afterId, int limit) {
+                return pending.apply(afterId, limit);
+            }
+        };
+    }
+}
@@ -0,0 +1,303 @@
+package com.sfr.tokyo.sfr_backend.service.deadline;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+import com.sfr.tokyo.sfr_backend.repository.projection.DeadlineRow;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+import com.sfr.tokyo.sfr_backend.repository.system.ScheduledDeadlineRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 期限スケジューラ
+ *
+ * 自動クローズ・有効期限・タイムアウトの期限を scheduled_deadlines に1対象1行で登録し、
+ * 直近 window-ms 分だけを階層型タイミングホイールに載せて tick-ms ごとに発火させる。
+ * 発火した期限は種類ごとに batch-size 件ずつ {@link DeadlineHandler#expire} で一括適用し、同じトランザクションで行を削除する。
+ * 登録は呼び出し元のトランザクションで (kind, target_id) への upsert として行い、ホイールへの反映はコミット後。
+ * 登録を経由しない更新は起動後と reconcile-interval-ms ごとに各対象テーブルから取り込む。
+ * 複数ノードで同じ期限が発火しても、適用は条件付き UPDATE のため二重には反映されない。
+ */
+@Slf4j
+@Component
+public class DeadlineScheduler {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * 手動実行の結果
+     *
+     * @param targetIds 期限が到来していた対象ID
+     * @param applied 状態を更新した件数
+     */
+    public record Fired(List<Long> targetIds, int applied) {
+    }
+
+    private record Key(DeadlineKind kind, long targetId) {
+    }
+
+    private final ScheduledDeadlineRepository deadlineRepository;
+    private final UpsertWriter upsertWriter;
+    private final Map<DeadlineKind, DeadlineHandler> handlers = new EnumMap<>(DeadlineKind.class);
+    private final TransactionTemplate transactionTemplate;
+    private final long windowMillis;
+    private final int batchSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final TimingWheel<Key> wheel;
+    /** ホイールの処理済み範囲に入った（登録時点で到来済みの）期限 */
+    private final Set<Key> ready = new LinkedHashSet<>();
+    /** ホイールに載せている範囲の終端 */
+    private long loadedUntilMillis;
+
+    public DeadlineScheduler(ScheduledDeadlineRepository deadlineRepository,
+            UpsertWriter upsertWriter,
+            List<DeadlineHandler> handlers,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.deadline.tick-ms:1000}") long tickMillis,
+            @Value("${sfr.deadline.window-ms:600000}") long windowMillis,
+            @Value("${sfr.deadline.batch-size:500}") int batchSize) {
+        this.deadlineRepository = deadlineRepository;
+        this.upsertWriter = upsertWriter;
+        handlers.forEach(handler -> this.handlers.put(handler.kind(), handler));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.windowMillis = Math.max(tickMillis, windowMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new TimingWheel<>(Math.max(1, tickMillis), WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    /**
+     * 期限を登録・変更する（dueAt が null なら取り消す）
+     */
+    public void schedule(DeadlineKind kind, Long targetId, LocalDateTime dueAt) {
+        if (targetId == null) {
+            return;
+        }
+        if (dueAt == null) {
+            cancel(kind, targetId);
+            return;
+        }
+        write(kind, targetId, dueAt, LocalDateTime.now());
+        Key key = new Key(kind, targetId);
+        CommittedChanges.afterCommit(() -> offer(key, toMillis(dueAt)));
+    }
+
+    /**
+     * 期限を取り消す
+     */
+    public void cancel(DeadlineKind kind, Long targetId) {
+        if (targetId == null) {
+            return;
+        }
+        deadlineRepository.deleteByKindAndTargetId(kind, targetId);
+        Key key = new Key(kind, targetId);
+        CommittedChanges.afterCommit(() -> {
+            synchronized (this) {
+                wheel.remove(key);
+                ready.remove(key);
+            }
+        });
+    }
+
+    /**
+     * 到来済みの期限を発火させる
+     */
+    @Scheduled(fixedDelayString = "${sfr.deadline.tick-ms:1000}")
+    public void tick() {
+        tick(LocalDateTime.now());
+    }
+
+    void tick(LocalDateTime now) {
+        long nowMillis = toMillis(now);
+        if (nowMillis + windowMillis / 2 >= loadedUntilMillis) {
+            refill(now);
+        }
+        List<Key> due;
+        synchronized (this) {
+            due = new ArrayList<>(ready);
+            ready.clear();
+            due.addAll(wheel.advance(nowMillis));
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<DeadlineKind, List<Long>> byKind = due.stream().collect(Collectors.groupingBy(Key::kind,
+                () -> new EnumMap<>(DeadlineKind.class), Collectors.mapping(Key::targetId, Collectors.toList())));
+        byKind.forEach((kind, ids) -> {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                try {
+                    int applied = fire(kind, chunk, now);
+                    log.debug("Deadlines fired: kind={}, due={}, applied={}", kind, chunk.size(), applied);
+                } catch (RuntimeException e) {
+                    // 行は残っているため次回の読み込みで再発火する
+                    log.error("Failed to apply deadlines: kind={}, count={}: {}", kind, chunk.size(), e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 指定した種類の到来済みの期限をすぐに処理する（管理 API などからの手動実行用）
+     */
+    public Fired fireDue(DeadlineKind kind) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> fired = new ArrayList<>();
+        int applied = 0;
+        List<Long> ids;
+        do {
+            ids = deadlineRepository.findDueTargetIds(kind, now, PageRequest.of(0, batchSize));
+            if (!ids.isEmpty()) {
+                applied += fire(kind, ids, now);
+                fired.addAll(ids);
+            }
+        } while (ids.size() == batchSize);
+        return new Fired(fired, applied);
+    }
+
+    /**
+     * 各対象テーブルの期限を取り込み、登録漏れ・登録後の変更を反映する
+     */
+    @Scheduled(initialDelayString = "${sfr.deadline.reconcile-initial-delay-ms:30000}",
+            fixedDelayString = "${sfr.deadline.reconcile-interval-ms:21600000}")
+    public void reconcile() {
+        for (DeadlineHandler handler : handlers.values()) {
+            int synced = 0;
+            long afterId = 0;
+            List<DeadlineRow> rows;
+            do {
+                rows = handler.pending(afterId, batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<DeadlineRow> chunk = rows;
+                synced += transactionTemplate.execute(status -> upsert(handler.kind(), chunk));
+                afterId = rows.get(rows.size() - 1).id();
+            } while (rows.size() == batchSize);
+            log.debug("Deadlines reconciled: kind={}, changed={}", handler.kind(), synced);
+        }
+    }
+
+    public synchronized int scheduledInWheel() {
+        return wheel.size() + ready.size();
+    }
+
+    private int fire(DeadlineKind kind, List<Long> targetIds, LocalDateTime now) {
+        DeadlineHandler handler = handlers.get(kind);
+        if (handler == null) {
+            log.warn("No deadline handler for {}", kind);
+            return 0;
+        }
+        return transactionTemplate.execute(status -> {
+            DeadlineHandler.Outcome outcome = handler.expire(targetIds, now);
+            deadlineRepository.deleteDue(kind, targetIds, now);
+            outcome.postponed().forEach((targetId, dueAt) -> schedule(kind, targetId, dueAt));
+            // 処理中に延長された期限はホイールへ載せ直す
+            for (ScheduledDeadline remaining : deadlineRepository.findByKindAndTargetIdIn(kind, targetIds)) {
+                Key key = new Key(kind, remaining.getTargetId());
+                long dueMillis = toMillis(remaining.getDueAt());
+                CommittedChanges.afterCommit(() -> offer(key, dueMillis));
+            }
+            return outcome.applied();
+        });
+    }
+
+    /**
+     * 直近 window-ms 分の期限を DB から読み込む（範囲を先に広げ、並行する登録を取りこぼさないようにする）
+     */
+    private void refill(LocalDateTime now) {
+        LocalDateTime until = now.plusNanos(windowMillis * 1_000_000);
+        synchronized (this) {
+            loadedUntilMillis = toMillis(until);
+        }
+        LocalDateTime afterDueAt = KEYSET_START;
+        long afterId = 0;
+        List<ScheduledDeadline> page;
+        do {
+            page = deadlineRepository.findDueBefore(until, afterDueAt, afterId, PageRequest.of(0, batchSize));
+            synchronized (this) {
+                for (ScheduledDeadline deadline : page) {
+                    place(new Key(deadline.getKind(), deadline.getTargetId()), toMillis(deadline.getDueAt()));
+                }
+            }
+            if (!page.isEmpty()) {
+                ScheduledDeadline last = page.get(page.size() - 1);
+                afterDueAt = last.getDueAt();
+                afterId = last.getId();
+            }
+        } while (page.size() == batchSize);
+    }
+
+    private int upsert(DeadlineKind kind, List<DeadlineRow> rows) {
+        Map<Long, LocalDateTime> dueByTarget = new LinkedHashMap<>();
+        rows.stream().filter(row -> row.dueAt() != null).forEach(row -> dueByTarget.put(row.id(), row.dueAt()));
+        if (dueByTarget.isEmpty()) {
+            return 0;
+        }
+        Map<Long, ScheduledDeadline> existing = deadlineRepository.findByKindAndTargetIdIn(kind, dueByTarget.keySet())
+                .stream().collect(Collectors.toMap(ScheduledDeadline::getTargetId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Key, Long> changed = new LinkedHashMap<>();
+        dueByTarget.forEach((targetId, dueAt) -> {
+            ScheduledDeadline deadline = existing.get(targetId);
+            if (deadline != null && dueAt.equals(deadline.getDueAt())) {
+                return;
+            }
+            write(kind, targetId, dueAt, now);
+            changed.put(new Key(kind, targetId), toMillis(dueAt));
+        });
+        CommittedChanges.afterCommit(() -> changed.forEach(this::offer));
+        return changed.size();
+    }
+
+    /**
+     * (kind, target_id) の行を upsert する（並行する登録と最初の1行を取り合っても一意制約違反にしない）
+     */
+    private void write(DeadlineKind kind, Long targetId, LocalDateTime dueAt, LocalDateTime now) {
+        upsertWriter.upsert(() -> deadlineRepository.updateDueAt(kind, targetId, dueAt, now),
+                () -> ScheduledDeadline.builder().kind(kind).targetId(targetId).dueAt(dueAt).updatedAt(now).build());
+    }
+
+    private synchronized void offer(Key key, long dueMillis) {
+        if (dueMillis < loadedUntilMillis) {
+            place(key, dueMillis);
+        } else {
+            // 範囲外の期限は範囲に入ったときに DB から読み込む
+            wheel.remove(key);
+            ready.remove(key);
+        }
+    }
+
+    private void place(Key key, long dueMillis) {
+        ready.remove(key);
+        if (!wheel.add(key, dueMillis)) {
+            ready.add(key);
+        }
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,167 @@
+package com.sfr.tokyo.sfr_backend.service.deadline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 階層型タイミングホイール
+ *
+ * 段 i は tick × size^i ミリ秒幅のスロットを size 個持つ。期限は現在位置と同じ上位スロットに収まる最下段へ置き、
+ * 上位段のスロット境界を越えたときにその中身を下位段へ振り直す。登録・取消は O(1)、
+ * 時刻を進める処理は経過スロット数に比例する。期限は過ぎたスロットの終端で取り出すため、早く発火することはない。
+ * 最上段の1周より先の期限は退避領域に置き、最上段の周回ごとに振り直す。
+ * スレッドセーフではない。
+ */
+final class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int size;
+    /** 段ごとのスロット幅 */
+    private final long[] spans;
+    /** 段ごと・スロットごとの登録（キー → 期限） */
+    private final List<List<Map<K, Long>>> levels = new ArrayList<>();
+    /** 最上段の現在の周回より先の期限 */
+    private final Map<K, Long> overflow = new HashMap<>();
+    private final Map<K, Long> dueByKey = new HashMap<>();
+    /** 未処理の最下段スロットの開始時刻（tick の倍数） */
+    private long cursor;
+
+    TimingWheel(long tickMillis, int size, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || size < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel shape");
+        }
+        this.tickMillis = tickMillis;
+        this.size = size;
+        this.spans = new long[levelCount + 1];
+        spans[0] = tickMillis;
+        for (int i = 1; i <= levelCount; i++) {
+            spans[i] = Math.multiplyExact(spans[i - 1], size);
+        }
+        for (int i = 0; i < levelCount; i++) {
+            List<Map<K, Long>> slots = new ArrayList<>(size);
+            for (int s = 0; s < size; s++) {
+                slots.add(new LinkedHashMap<>());
+            }
+            levels.add(slots);
+        }
+        this.cursor = Math.floorDiv(startMillis, tickMillis) * tickMillis;
+    }
+
+    /**
+     * 期限を登録する（同じキーは置き換える）
+     *
+     * @return 登録できた場合 true。期限が処理済みのスロットにある（すでに到来している）場合は false
+     */
+    boolean add(K key, long dueMillis) {
+        remove(key);
+        if (dueMillis < cursor) {
+            return false;
+        }
+        place(key, dueMillis);
+        dueByKey.put(key, dueMillis);
+        return true;
+    }
+
+    /**
+     * 登録を取り消す
+     */
+    boolean remove(K key) {
+        Long due = dueByKey.remove(key);
+        if (due == null) {
+            return false;
+        }
+        int level = levelFor(due);
+        if (level < 0) {
+            overflow.remove(key);
+        } else {
+            slot(level, due).remove(key);
+        }
+        return true;
+    }
+
+    boolean contains(K key) {
+        return dueByKey.containsKey(key);
+    }
+
+    int size() {
+        return dueByKey.size();
+    }
+
+    /**
+     * 指定時刻までに終端を迎えたスロットの期限を取り出す
+     */
+    List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        if (dueByKey.isEmpty()) {
+            cursor = Math.max(cursor, Math.floorDiv(nowMillis, tickMillis) * tickMillis);
+            return expired;
+        }
+        while (cursor + tickMillis <= nowMillis) {
+            Map<K, Long> slot = slot(0, cursor);
+            for (K key : slot.keySet()) {
+                dueByKey.remove(key);
+                expired.add(key);
+            }
+            slot.clear();
+            cursor += tickMillis;
+            cascade();
+            if (dueByKey.isEmpty()) {
+                cursor = Math.max(cursor, Math.floorDiv(nowMillis, tickMillis) * tickMillis);
+                break;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 上位段のスロット境界に達していれば、そのスロットの期限を下位段へ振り直す（上の段から順に）
+     */
+    private void cascade() {
+        if (!overflow.isEmpty() && cursor % spans[levels.size()] == 0) {
+            Map<K, Long> moving = new HashMap<>(overflow);
+            overflow.clear();
+            moving.forEach(this::place);
+        }
+        for (int level = levels.size() - 1; level >= 1; level--) {
+            if (cursor % spans[level] != 0) {
+                continue;
+            }
+            Map<K, Long> slot = slot(level, cursor);
+            if (slot.isEmpty()) {
+                continue;
+            }
+            Map<K, Long> moving = new LinkedHashMap<>(slot);
+            slot.clear();
+            moving.forEach(this::place);
+        }
+    }
+
+    private void place(K key, long dueMillis) {
+        int level = levelFor(dueMillis);
+        if (level < 0) {
+            overflow.put(key, dueMillis);
+        } else {
+            slot(level, dueMillis).put(key, dueMillis);
+        }
+    }
+
+    /**
+     * 現在位置と同じ上位スロットに収まる最下段（最上段の周回より先なら -1）
+     */
+    private int levelFor(long dueMillis) {
+        for (int level = 0; level < levels.size(); level++) {
+            long upper = spans[level + 1];
+            if (Math.floorDiv(dueMillis, upper) == Math.floorDiv(cursor, upper)) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    private Map<K, Long> slot(int level, long millis) {
+        return levels.get(level).get((int) Math.floorMod(Math.floorDiv(millis, spans[level]), (long) size));
+    }
+}
@@ -2,6 +2,8 @@ package com.sfr.tokyo.sfr_backend.service.exchange;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +13,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -27,10 +31,23 @@ public class Phase4MultiExchangeManager {
     private final Map<ExchangeType, ExchangeApiClient> exchanges;
     private final ExchangeSelectionStrategy selectionStrategy;
     private final ArbitrageAnalyzer arbitrageAnalyzer;
+    private final Executor fanOutExecutor;
     
     public Phase4MultiExchangeManager(List<ExchangeApiClient> exchangeClients,
                                ExchangeSelectionStrategy selectionStrategy,
                                ArbitrageAnalyzer arbitrageAnalyzer) {
+        this(exchangeClients, selectionStrategy, arbitrageAnalyzer, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * @param fanOutExecutor 取引所への並列問い合わせ用（ブロッキング I/O のため共通 ForkJoinPool は使わない）
+     */
+    @Autowired
+    public Phase4MultiExchangeManager(List<ExchangeApiClient> exchangeClients,
+                               ExchangeSelectionStrategy selectionStrategy,
+                               ArbitrageAnalyzer arbitrageAnalyzer,
+                               @Qualifier("exchangeFanOutExecutor") Executor fanOutExecutor) {
+        this.fanOutExecutor = fanOutExecutor;
         this.exchanges = exchangeClients.stream()
             .collect(Collectors.toMap(
                 ExchangeApiClient::getExchangeType,
@@ -79,7 +96,7 @@ public class Phase4MultiExchangeManager {
         exchanges.entrySet().forEach(entry -> {
             futures.put(entry.getKey(), 
                 CompletableFuture.supplyAsync(() -> 
-                    analyzeExchangeMetrics(entry.getValue(), operation)));
+                    analyzeExchangeMetrics(entry.getValue(), operation), fanOutExecutor));
         });
         
         // 結果収集
@@ -236,7 +253,7 @@ public class Phase4MultiExchangeManager {
                         logger.warn("価格取得失敗: {}", entry.getKey(), e);
                         return BigDecimal.ZERO;
                     }
-                }));
+                }, fanOutExecutor));
         });
         
         Map<ExchangeType, BigDecimal> prices = new HashMap<>();
@@ -0,0 +1,47 @@
+package com.sfr.tokyo.sfr_backend.service.feed;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+
+/**
+ * キーセットページングのカーソル（前ページ末尾の created_at と id）
+ * クライアントには Base64URL でエンコードした不透明なトークンとして渡す
+ */
+public record FeedCursor(LocalDateTime createdAt, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * トークンをデコードする
+     *
+     * @param token カーソルトークン（null または空で先頭ページ）
+     * @return カーソル。先頭ページの場合は null
+     * @throws BusinessException トークンが不正な場合
+     */
+    public static FeedCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("separator missing");
+            }
+            return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.sfr.tokyo.sfr_backend.service.feed;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * フィード先頭ページの短期キャッシュ
+ *
+ * 閲覧の大半は先頭ページに集中するため、短い TTL で結果を共有する。
+ * キーは {@link #key(UUID, int)} で作り、公開フィードと投稿者別フィードをページサイズごとに持つ。
+ * 投稿・コメントの作成／削除時には {@link #invalidateFeedsOf(UUID)} で公開フィードとその投稿者のフィードだけを破棄する。
+ * エントリ数は max-entries で上限を設け、超える場合は期限切れから順に追い出す。
+ */
+@Component
+public class FeedPageCache {
+
+    private static final String PUBLIC_FEED = "all";
+
+    private record Entry(Object value, long expiresAtNanos) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    // 無効化の世代。読み込み中に無効化された結果を書き戻さないために使う
+    private final AtomicLong generation = new AtomicLong();
+
+    public FeedPageCache(@Value("${feed.first-page-cache.ttl-ms:5000}") long ttlMillis,
+            @Value("${feed.first-page-cache.max-entries:1000}") int maxEntries) {
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 先頭ページのキャッシュキー
+     *
+     * @param authorId 投稿者別フィードなら投稿者のユーザーID、公開フィードなら null
+     */
+    public static String key(UUID authorId, int pageSize) {
+        return (authorId == null ? PUBLIC_FEED : authorId.toString()) + ":" + pageSize;
+    }
+
+    /**
+     * キャッシュ済みの値を返し、未キャッシュまたは期限切れなら loader で読み込む
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        if (ttlNanos <= 0 || maxEntries <= 0) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos() - now > 0) {
+            return (T) entry.value();
+        }
+        long loadGeneration = generation.get();
+        T value = loader.get();
+        if (generation.get() == loadGeneration) {
+            if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entries.put(key, new Entry(value, now + ttlNanos));
+        }
+        return value;
+    }
+
+    /**
+     * 公開フィードと指定した投稿者のフィードを破棄する
+     * トランザクション内で呼ばれた場合は、コミット前の読み込みが再キャッシュされないようコミット後にも破棄する
+     *
+     * @param authorId 変更された投稿の投稿者
+     */
+    public void invalidateFeedsOf(UUID authorId) {
+        invalidate(authorId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(authorId);
+                }
+            });
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void invalidate(UUID authorId) {
+        generation.incrementAndGet();
+        String publicPrefix = PUBLIC_FEED + ":";
+        String authorPrefix = authorId == null ? null : authorId + ":";
+        entries.keySet().removeIf(key -> key.startsWith(publicPrefix)
+                || (authorPrefix != null && key.startsWith(authorPrefix)));
+    }
+
+    /**
+     * 期限切れのエントリを消し、それでも上限に達していれば任意の1件を追い出す
+     */
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAtNanos() - now <= 0);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
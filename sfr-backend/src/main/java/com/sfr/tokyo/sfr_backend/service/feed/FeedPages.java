@@ -0,0 +1,51 @@
+package com.sfr.tokyo.sfr_backend.service.feed;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.sfr.tokyo.sfr_backend.dto.FeedPageDto;
+
+/**
+ * キーセットページングの共通処理
+ */
+public final class FeedPages {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private FeedPages() {
+    }
+
+    /**
+     * 要求件数を 1〜上限 に丸める（未指定・不正値は既定値）
+     */
+    public static int resolveLimit(Integer requested, int defaultSize, int maxSize) {
+        int max = maxSize > 0 ? maxSize : MAX_PAGE_SIZE;
+        int fallback = defaultSize > 0 ? Math.min(defaultSize, max) : Math.min(DEFAULT_PAGE_SIZE, max);
+        if (requested == null || requested <= 0) {
+            return fallback;
+        }
+        return Math.min(requested, max);
+    }
+
+    /**
+     * limit + 1 件取得した行からページを組み立てる
+     * 余分な1件があれば次ページありとし、ページ末尾の行からカーソルを作る
+     *
+     * @param rows     limit + 1 件まで取得した行
+     * @param limit    ページサイズ
+     * @param cursorOf 行からカーソルを作る関数
+     * @param items    ページ内の行をDTOへ変換する関数（一括ロードを行えるようリスト単位）
+     */
+    public static <R, T> FeedPageDto<T> of(List<R> rows, int limit, Function<R, FeedCursor> cursorOf,
+            Function<List<R>, List<T>> items) {
+        boolean hasMore = rows.size() > limit;
+        List<R> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return FeedPageDto.<T>builder()
+                .items(List.copyOf(items.apply(page)))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+}
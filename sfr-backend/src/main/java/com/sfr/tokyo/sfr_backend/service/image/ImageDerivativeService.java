@@ -0,0 +1,244 @@
+package com.sfr.tokyo.sfr_backend.service.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * アップロード画像の派生画像（サムネイル・サイズバリアント）生成サービス
+ *
+ * 派生画像の生成は有界キューを持つワーカープールで非同期に実行する。
+ * キューが満杯の場合はアップロード元スレッドで生成を行い、アップロード側に背圧をかける。
+ * 元画像は1回だけデコードし、大きいバリアントから順に縮小して全バリアントを生成する。
+ * 再エンコード時にメタデータを書き出さないため、EXIF（位置情報等）は派生画像に残らない。
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    private static final float OUTPUT_QUALITY = 0.85f;
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong callerRunsCount = new AtomicLong();
+
+    public ImageDerivativeService(
+            @Value("${image.derivative.workers:0}") int workers,
+            @Value("${image.derivative.queue-capacity:64}") int queueCapacity) {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ImageDerivative-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    // キュー満杯時はアップロード元スレッドで実行（背圧）
+                    callerRunsCount.incrementAndGet();
+                    if (!pool.isShutdown()) {
+                        runnable.run();
+                    }
+                });
+    }
+
+    /**
+     * 派生画像の生成ジョブを投入する
+     * 画像以外のファイルは無視する
+     *
+     * @param original 保存済みの元画像ファイル
+     */
+    public void submit(Path original) {
+        if (original == null || !ImageVariant.isSupportedSource(original.getFileName().toString())) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                generate(original);
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                log.warn("Failed to generate image derivatives for {}: {}", original.getFileName(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 元画像から全バリアントを同期的に生成する
+     *
+     * @param original 元画像ファイル
+     * @return 生成した派生画像ファイルのリスト
+     * @throws IOException デコード・書き込みに失敗した場合
+     */
+    public List<Path> generate(Path original) throws IOException {
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) {
+            throw new IOException("Unsupported image format: " + original.getFileName());
+        }
+
+        String originalFileName = original.getFileName().toString();
+        List<Path> outputs = new ArrayList<>();
+        // 大きいバリアントから順に縮小し、直前の結果を次の入力に使う
+        BufferedImage current = source;
+        ImageVariant[] variants = ImageVariant.values();
+        for (int i = variants.length - 1; i >= 0; i--) {
+            ImageVariant variant = variants[i];
+            current = scaleToFit(current, variant.getMaxEdge());
+            Path target = original.resolveSibling(variant.fileNameFor(originalFileName));
+            write(current, target);
+            outputs.add(target);
+        }
+        processedCount.incrementAndGet();
+        return outputs;
+    }
+
+    /**
+     * 元画像の派生画像のうち、書き込みが終わっているものだけのURLを返す（DTO公開用）
+     * 生成待ちや生成に失敗したバリアントは含めない
+     *
+     * @param originalUrl 元画像のURL
+     * @param original    元画像ファイル
+     * @return suffix をキーとしたバリアントURL
+     */
+    public Map<String, String> writtenVariantUrls(String originalUrl, Path original) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        ImageVariant.variantUrls(originalUrl).forEach((suffix, url) -> {
+            // 一時ファイルから置き換えて書き出すため、存在すれば書き込み済み
+            if (Files.exists(original.resolveSibling(url.substring(url.lastIndexOf('/') + 1)))) {
+                urls.put(suffix, url);
+            }
+        });
+        return urls;
+    }
+
+    /**
+     * 元画像に対応する派生画像を削除する
+     */
+    public void deleteDerivatives(Path original) {
+        if (original == null) {
+            return;
+        }
+        String originalFileName = original.getFileName().toString();
+        for (ImageVariant variant : ImageVariant.values()) {
+            try {
+                Files.deleteIfExists(original.resolveSibling(variant.fileNameFor(originalFileName)));
+            } catch (IOException e) {
+                log.warn("Could not delete image derivative {}: {}", variant.fileNameFor(originalFileName),
+                        e.getMessage());
+            }
+        }
+    }
+
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /** キュー満杯によりアップロード元スレッドで実行した回数 */
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 長辺が maxEdge 以下になるよう縮小する（拡大はしない）
+     * 出力は不透明RGBとし、透過部分は白で塗りつぶす
+     */
+    private BufferedImage scaleToFit(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        if (scale == 1.0 && image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(ImageVariant.OUTPUT_FORMAT);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + ImageVariant.OUTPUT_FORMAT);
+        }
+        ImageWriter writer = writers.next();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(OUTPUT_QUALITY);
+            }
+            // メタデータは渡さない（EXIF除去）
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        // 書き込み途中のファイルが配信されないよう一時ファイルから置き換える
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
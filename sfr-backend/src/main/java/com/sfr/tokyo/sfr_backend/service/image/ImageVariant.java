@@ -0,0 +1,97 @@
+package com.sfr.tokyo.sfr_backend.service.image;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+/**
+ * アップロード画像から生成する派生画像（サイズバリアント）の定義
+ *
+ * 派生ファイルは元ファイルと同じディレクトリに
+ * {@code <元ファイル名>_<suffix>.<出力形式>} の名前で保存される。
+ */
+public enum ImageVariant {
+
+    THUMBNAIL("thumb", 160),
+    SMALL("sm", 480),
+    MEDIUM("md", 1080);
+
+    /** 派生画像の対象とする元ファイルの拡張子 */
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "webp");
+
+    /**
+     * 派生画像の出力形式
+     * WebP ライタが ImageIO に登録されていれば WebP、無ければ JPEG にフォールバックする
+     */
+    public static final String OUTPUT_FORMAT = ImageIO.getImageWritersByFormatName("webp").hasNext() ? "webp"
+            : "jpg";
+
+    private final String suffix;
+    private final int maxEdge;
+
+    ImageVariant(String suffix, int maxEdge) {
+        this.suffix = suffix;
+        this.maxEdge = maxEdge;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /** 長辺の最大ピクセル数 */
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+
+    /**
+     * 元ファイル名からこのバリアントのファイル名を導出する
+     */
+    public String fileNameFor(String originalFileName) {
+        int dotIndex = originalFileName.lastIndexOf('.');
+        String baseName = dotIndex > 0 ? originalFileName.substring(0, dotIndex) : originalFileName;
+        return baseName + "_" + suffix + "." + OUTPUT_FORMAT;
+    }
+
+    /**
+     * 派生画像の生成対象となるファイルかどうか
+     */
+    public static boolean isSupportedSource(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        int dotIndex = fileName.lastIndexOf('.');
+        if (dotIndex <= 0 || dotIndex == fileName.length() - 1) {
+            return false;
+        }
+        return SOURCE_EXTENSIONS.contains(fileName.substring(dotIndex + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 元画像のURLから各バリアントのURLを導出する
+     * ファイルが書き込み済みかどうかは見ない（DTO には {@link ImageDerivativeService#writtenVariantUrls} を使う）。
+     * 画像以外のファイルの場合は空のMapを返す
+     *
+     * @param originalUrl 元画像のURL
+     * @return suffix をキーとしたバリアントURL
+     */
+    public static Map<String, String> variantUrls(String originalUrl) {
+        if (originalUrl == null) {
+            return Collections.emptyMap();
+        }
+        int slashIndex = originalUrl.lastIndexOf('/');
+        String prefix = originalUrl.substring(0, slashIndex + 1);
+        String fileName = originalUrl.substring(slashIndex + 1);
+        if (!isSupportedSource(fileName)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            urls.put(variant.suffix, prefix + variant.fileNameFor(fileName));
+        }
+        return urls;
+    }
+}
@@ -3,6 +3,11 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningAiFaqDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiFaq;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiFaqRepository;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocumentType;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocuments;
+import com.sfr.tokyo.sfr_backend.service.search.SearchHit;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchResults;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -30,6 +35,7 @@ import java.util.stream.Collectors;
 public class LearningAiFaqService {
 
     private final LearningAiFaqRepository faqRepository;
+    private final SearchIndexService searchIndexService;
 
     // ========== 基本CRUD操作 ==========
 
@@ -60,6 +66,7 @@ public class LearningAiFaqService {
         }
 
         LearningAiFaq savedFaq = faqRepository.save(faq);
+        syncSearchIndex(savedFaq);
         log.info("FAQ作成完了: id={}", savedFaq.getId());
 
         return convertToDto(savedFaq);
@@ -96,6 +103,7 @@ public class LearningAiFaqService {
         existingFaq.updateSearchVector();
 
         LearningAiFaq savedFaq = faqRepository.save(existingFaq);
+        syncSearchIndex(savedFaq);
         log.info("FAQ更新完了: id={}", savedFaq.getId());
 
         return convertToDto(savedFaq);
@@ -113,6 +121,7 @@ public class LearningAiFaqService {
 
         faq.softDelete();
         faqRepository.save(faq);
+        searchIndexService.remove(SearchDocumentType.FAQ, id);
 
         log.info("FAQ削除完了: id={}", id);
     }
@@ -183,7 +192,17 @@ public class LearningAiFaqService {
      */
     @Transactional(readOnly = true)
     public Page<LearningAiFaqDto> searchFaqs(String keyword, Pageable pageable) {
-        return faqRepository.searchByKeyword(keyword, pageable)
+        return searchFaqs(keyword, null, pageable);
+    }
+
+    /**
+     * キーワード検索（言語指定・関連度順、公開中のFAQのみ）
+     */
+    @Transactional(readOnly = true)
+    public Page<LearningAiFaqDto> searchFaqs(String keyword, String language, Pageable pageable) {
+        return SearchResults.page(searchIndexService.search(SearchDocumentType.FAQ, keyword, null, language),
+                pageable, faqRepository::findVisibleIds, faqRepository::findAllById, LearningAiFaq::getId,
+                LearningAiFaq::isPublished)
                 .map(this::convertToDto);
     }
 
@@ -208,19 +227,30 @@ public class LearningAiFaqService {
      */
     @Transactional(readOnly = true)
     public List<LearningAiFaqDto> searchByTag(String tag) {
-        return faqRepository.findByTag(tag).stream()
+        return SearchResults.hydrate(searchIndexService.searchByTag(SearchDocumentType.FAQ, tag, null, null),
+                faqRepository::findAllById, LearningAiFaq::getId, LearningAiFaq::isPublished).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
     /**
      * 関連FAQ取得
+     * 同じ言語の FAQ から質問・回答・タグの特徴語が近いものを探し、未索引の場合は同じカテゴリで代用する
      */
     @Transactional(readOnly = true)
     public List<LearningAiFaqDto> getRelatedFaqs(Long faqId, int limit) {
         LearningAiFaq faq = faqRepository.findByIdAndNotDeleted(faqId)
                 .orElseThrow(() -> new RuntimeException("FAQが見つかりません: " + faqId));
 
+        List<SearchHit> hits = searchIndexService.similar(SearchDocumentType.FAQ, faqId, null, faq.getLanguage(),
+                limit * 2);
+        if (!hits.isEmpty()) {
+            return SearchResults.hydrate(hits, faqRepository::findAllById, LearningAiFaq::getId,
+                    LearningAiFaq::isPublished).stream()
+                    .limit(limit)
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+        }
         return faqRepository.findRelatedFaqs(faq.getCategory(), faqId, PageRequest.of(0, limit))
                 .stream()
                 .map(this::convertToDto)
@@ -378,6 +408,7 @@ public class LearningAiFaqService {
         aiFaq.scheduleNextAiUpdate(30); // 30日後に再更新
 
         LearningAiFaq savedFaq = faqRepository.save(aiFaq);
+        syncSearchIndex(savedFaq);
         log.info("AI FAQ生成完了: id={}", savedFaq.getId());
 
         return convertToDto(savedFaq);
@@ -431,6 +462,11 @@ public class LearningAiFaqService {
         log.info("FAQ復元: faqId={}", faqId);
 
         faqRepository.restore(faqId);
+        faqRepository.findById(faqId).ifPresent(this::syncSearchIndex);
+    }
+
+    private void syncSearchIndex(LearningAiFaq faq) {
+        searchIndexService.sync(SearchDocumentType.FAQ, faq.getId(), SearchDocuments.faq(faq));
     }
 
     // ========== 統計・分析 ==========
@@ -2,29 +2,57 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningAiLogDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.ScopeType;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiLogRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.AiLogRollupTotals;
+import com.sfr.tokyo.sfr_backend.repository.support.IdAllocator;
+import com.sfr.tokyo.sfr_backend.service.learning.ailog.AiLogIngestQueue;
+import com.sfr.tokyo.sfr_backend.service.learning.ailog.AiLogRollupStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * AI学習ログサービス
  * AIインタラクション履歴の記録・分析・統計機能を提供
+ * AIリクエスト経路からの記録は {@link AiLogIngestQueue} が非同期にまとめて書き込むため、
+ * ログ一覧には flush 間隔分遅れて現れる（IDは受け付けた時点で採番して返す）。統計は {@link AiLogRollupStore} の集計行から読む。
  */
 @Service
 @Transactional
 public class LearningAiLogService {
 
     private final LearningAiLogRepository aiLogRepository;
-
-    public LearningAiLogService(LearningAiLogRepository aiLogRepository) {
+    private final AiLogIngestQueue ingestQueue;
+    private final AiLogRollupStore rollupStore;
+    private final IdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final long remoteFlushWaitMillis;
+
+    /** 他ノードの書き出しを待つあいだの再読み込み間隔 */
+    private static final long REMOTE_FLUSH_POLL_MILLIS = 100;
+
+    public LearningAiLogService(LearningAiLogRepository aiLogRepository, AiLogIngestQueue ingestQueue,
+            AiLogRollupStore rollupStore, IdAllocator idAllocator, PlatformTransactionManager transactionManager,
+            @Value("${sfr.learning.ai-log.satisfaction.remote-flush-wait-ms:2000}") long remoteFlushWaitMillis) {
         this.aiLogRepository = aiLogRepository;
+        this.ingestQueue = ingestQueue;
+        this.rollupStore = rollupStore;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.remoteFlushWaitMillis = remoteFlushWaitMillis;
     }
 
     // ========== ログ記録機能 ==========
@@ -34,13 +62,15 @@ public class LearningAiLogService {
      */
     public LearningAiLogDto createAiLog(LearningAiLogDto dto) {
         LearningAiLog entity = convertToEntity(dto);
-        entity = aiLogRepository.save(entity);
+        entity = aiLogRepository.saveAndFlush(entity);
+        rollupStore.record(List.of(entity));
         return convertToDto(entity);
     }
 
     /**
      * AIインタラクションを開始（セッション開始）
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UUID startAiSession(UUID userId, LearningAiLog.AiType aiType, UUID spaceId) {
         UUID sessionId = UUID.randomUUID();
 
@@ -53,13 +83,14 @@ public class LearningAiLogService {
         log.setUserInput("セッション開始");
         log.setAiResponse("AIセッションが開始されました");
 
-        aiLogRepository.save(log);
+        ingestQueue.submit(log);
         return sessionId;
     }
 
     /**
-     * AIレスポンスを記録
+     * AIレスポンスを記録（取り込みキューに置くだけで、INSERT は後から行う）
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LearningAiLogDto recordAiResponse(UUID userId, UUID sessionId,
             LearningAiLog.AiType aiType,
             LearningAiLog.InteractionType interactionType,
@@ -78,13 +109,13 @@ public class LearningAiLogService {
         log.setTokensUsed(tokensUsed);
         log.setSuccess();
 
-        log = aiLogRepository.save(log);
-        return convertToDto(log);
+        return enqueue(log);
     }
 
     /**
-     * AIエラーを記録
+     * AIエラーを記録（取り込みキューに置くだけで、INSERT は後から行う）
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LearningAiLogDto recordAiError(UUID userId, UUID sessionId,
             LearningAiLog.AiType aiType,
             LearningAiLog.InteractionType interactionType,
@@ -99,8 +130,7 @@ public class LearningAiLogService {
         log.setProcessingTimeMs(processingTimeMs);
         log.setError(errorMessage);
 
-        log = aiLogRepository.save(log);
-        return convertToDto(log);
+        return enqueue(log);
     }
 
     // ========== ログ取得機能 ==========
@@ -175,17 +205,10 @@ public class LearningAiLogService {
         Map<String, Object> stats = new HashMap<>();
 
         // AIタイプ別ログ数
-        List<Object[]> aiTypeStats = aiLogRepository.countByUserIdAndAiType(userId);
-        Map<String, Long> aiTypeMap = new HashMap<>();
-        for (Object[] stat : aiTypeStats) {
-            LearningAiLog.AiType aiType = (LearningAiLog.AiType) stat[0];
-            Long count = (Long) stat[1];
-            aiTypeMap.put(aiType.getDisplayName(), count);
-        }
-        stats.put("aiTypeUsage", aiTypeMap);
+        stats.put("aiTypeUsage", toAiTypeMap(rollupStore.usageByAiType(ScopeType.USER, userId)));
 
         // 月別ログ数
-        List<Object[]> monthlyStats = aiLogRepository.countByUserIdGroupByMonth(userId);
+        List<Object[]> monthlyStats = rollupStore.monthlyUsage(ScopeType.USER, userId);
         List<Map<String, Object>> monthlyData = new ArrayList<>();
         for (Object[] stat : monthlyStats) {
             Map<String, Object> monthData = new HashMap<>();
@@ -197,11 +220,16 @@ public class LearningAiLogService {
         stats.put("monthlyUsage", monthlyData);
 
         // 平均値
-        stats.put("averageSatisfaction", aiLogRepository.getAverageUserSatisfaction(userId));
-        stats.put("averageConfidence", aiLogRepository.getAverageConfidenceScore(userId));
-        stats.put("averageProcessingTime", aiLogRepository.getAverageProcessingTime(userId));
-        stats.put("totalTokensUsed", aiLogRepository.getTotalTokensUsed(userId));
-        stats.put("errorRate", aiLogRepository.getErrorRate(userId));
+        AiLogRollupTotals totals = rollupStore.totals(ScopeType.USER, userId);
+        long requests = orZero(totals.requestCount());
+        stats.put("averageSatisfaction", average(orZero(totals.satisfactionSum()), totals.satisfactionCount()));
+        stats.put("averageConfidence", average(
+                totals.confidenceSum() != null ? totals.confidenceSum().doubleValue() : 0, totals.confidenceCount()));
+        stats.put("averageProcessingTime",
+                average(orZero(totals.processingTimeSum()), totals.processingTimeCount()));
+        stats.put("totalTokensUsed", requests > 0 ? orZero(totals.tokensSum()) : null);
+        stats.put("errorRate", requests > 0 ? (double) orZero(totals.errorCount()) / requests * 100 : null);
+        stats.put("processingTimeDistribution", toLatencyDistribution(totals));
 
         return stats;
     }
@@ -212,16 +240,7 @@ public class LearningAiLogService {
     @Transactional(readOnly = true)
     public Map<String, Object> getSpaceAiStatistics(UUID spaceId) {
         Map<String, Object> stats = new HashMap<>();
-
-        List<Object[]> aiTypeStats = aiLogRepository.countBySpaceIdAndAiType(spaceId);
-        Map<String, Long> aiTypeMap = new HashMap<>();
-        for (Object[] stat : aiTypeStats) {
-            LearningAiLog.AiType aiType = (LearningAiLog.AiType) stat[0];
-            Long count = (Long) stat[1];
-            aiTypeMap.put(aiType.getDisplayName(), count);
-        }
-        stats.put("aiTypeUsage", aiTypeMap);
-
+        stats.put("aiTypeUsage", toAiTypeMap(rollupStore.usageByAiType(ScopeType.SPACE, spaceId)));
         return stats;
     }
 
@@ -231,19 +250,18 @@ public class LearningAiLogService {
     @Transactional(readOnly = true)
     public Map<String, Object> getGlobalAiStatistics() {
         Map<String, Object> stats = new HashMap<>();
-
-        List<Object[]> globalStats = aiLogRepository.countByAiTypeGlobal();
-        Map<String, Long> aiTypeMap = new HashMap<>();
-        for (Object[] stat : globalStats) {
-            LearningAiLog.AiType aiType = (LearningAiLog.AiType) stat[0];
-            Long count = (Long) stat[1];
-            aiTypeMap.put(aiType.getDisplayName(), count);
-        }
-        stats.put("globalAiTypeUsage", aiTypeMap);
-
+        stats.put("globalAiTypeUsage", toAiTypeMap(rollupStore.usageByAiType(ScopeType.GLOBAL, null)));
         return stats;
     }
 
+    /**
+     * AI学習ログ本体から集計行を再構築（再構築中は取り込みキューの書き込みを止める）
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildAiLogRollups() {
+        return ingestQueue.rebuildRollups();
+    }
+
     /**
      * 最近のアクティブユーザーを取得
      */
@@ -257,18 +275,15 @@ public class LearningAiLogService {
      */
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getPopularAiTypes(LocalDateTime since) {
-        List<Object[]> popularTypes = aiLogRepository.findPopularAiTypesSince(since);
         List<Map<String, Object>> result = new ArrayList<>();
 
-        for (Object[] type : popularTypes) {
+        rollupStore.usageSince(since).forEach((aiType, count) -> {
             Map<String, Object> data = new HashMap<>();
-            LearningAiLog.AiType aiType = (LearningAiLog.AiType) type[0];
-            Long count = (Long) type[1];
             data.put("aiType", aiType.name());
             data.put("displayName", aiType.getDisplayName());
             data.put("usageCount", count);
             result.add(data);
-        }
+        });
 
         return result;
     }
@@ -320,16 +335,43 @@ public class LearningAiLogService {
 
     /**
      * ユーザー満足度を更新
+     *
+     * 取り込みキューにまだ残っているログは、先に書き出してから更新する。
+     * キューはノードごとにあり、別のノードが受け付けたログはそのノードの flush まで DB に現れない。
+     * このノードで見つからなければ remote-flush-wait-ms を上限に再読み込みして待ち、それでもなければ見つからないとする。
+     * 待つあいだ同じスナップショットを読み続けないよう、探すのはトランザクションの外で行い、更新だけを1トランザクションで行う。
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public LearningAiLogDto updateUserSatisfaction(Long logId, Integer satisfaction) {
-        Optional<LearningAiLog> optionalLog = aiLogRepository.findById(logId);
-        if (optionalLog.isPresent()) {
-            LearningAiLog log = optionalLog.get();
+        if (ingestQueue.isPending(logId)) {
+            ingestQueue.flush();
+        } else {
+            awaitRemoteFlush(logId);
+        }
+        return transactionTemplate.execute(status -> {
+            LearningAiLog log = aiLogRepository.findById(logId)
+                    .orElseThrow(() -> new RuntimeException("AI学習ログが見つかりません: " + logId));
+            Integer before = log.getUserSatisfaction();
             log.setUserSatisfaction(satisfaction);
             log = aiLogRepository.save(log);
+            rollupStore.updateSatisfaction(log, before, satisfaction);
             return convertToDto(log);
+        });
+    }
+
+    /**
+     * 他ノードのキューにあるログが書き込まれるまで待つ（上限を過ぎたらそのまま戻る）
+     */
+    private void awaitRemoteFlush(Long logId) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(remoteFlushWaitMillis);
+        while (!aiLogRepository.existsById(logId) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(REMOTE_FLUSH_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
         }
-        throw new RuntimeException("AI学習ログが見つかりません: " + logId);
     }
 
     /**
@@ -386,6 +428,49 @@ public class LearningAiLogService {
 
     // ========== 変換メソッド ==========
 
+    private LearningAiLogDto enqueue(LearningAiLog log) {
+        log.setCreatedAt(LocalDateTime.now());
+        idAllocator.assign(log);
+        ingestQueue.submit(log);
+        return convertToDto(log);
+    }
+
+    /**
+     * [AIタイプ, 件数] の行を表示名 → 件数に変換
+     */
+    private Map<String, Long> toAiTypeMap(List<Object[]> rows) {
+        Map<String, Long> aiTypeMap = new HashMap<>();
+        for (Object[] stat : rows) {
+            LearningAiLog.AiType aiType = (LearningAiLog.AiType) stat[0];
+            Long count = (Long) stat[1];
+            aiTypeMap.put(aiType.getDisplayName(), count);
+        }
+        return aiTypeMap;
+    }
+
+    /**
+     * 処理時間の分布（区間ラベル → 件数）
+     */
+    private Map<String, Long> toLatencyDistribution(AiLogRollupTotals totals) {
+        long[] bounds = LearningAiLogRollup.LATENCY_BOUNDS_MS;
+        Long[] counts = { totals.latencyLe100(), totals.latencyLe500(), totals.latencyLe1000(),
+                totals.latencyLe2000(), totals.latencyLe5000(), totals.latencyGt5000() };
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < bounds.length; i++) {
+            distribution.put("<=" + bounds[i] + "ms", orZero(counts[i]));
+        }
+        distribution.put(">" + bounds[bounds.length - 1] + "ms", orZero(counts[bounds.length]));
+        return distribution;
+    }
+
+    private static Double average(double sum, Long count) {
+        return count != null && count > 0 ? sum / count : null;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
     /**
      * EntityからDTOに変換
      */
@@ -2,7 +2,9 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningAnalyticsReportDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningAnalyticsReport;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningAnalyticsReportRepository;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -29,6 +31,7 @@ import java.util.stream.Collectors;
 public class LearningAnalyticsReportService {
 
     private final LearningAnalyticsReportRepository reportRepository;
+    private final DeadlineScheduler deadlineScheduler;
 
     // 将来的に他のlearningサービスを注入してデータを収集
     // private final LearningProgressService progressService;
@@ -73,6 +76,7 @@ public class LearningAnalyticsReportService {
             }
 
             report = reportRepository.save(report);
+            deadlineScheduler.schedule(DeadlineKind.REPORT_EXPIRY, report.getId(), report.getExpiresAt());
             log.info("AI分析レポート生成完了: reportId={}, processingTime={}s", report.getId(), processingTime);
 
             return convertToDto(report);
@@ -438,7 +442,8 @@ public class LearningAnalyticsReportService {
     public void processExpiredReports() {
         log.info("期限切れレポート処理開始");
 
-        int expiredCount = reportRepository.markExpiredReports();
+        // 有効期限はレポート生成時に登録済み。到来した分だけを ID 指定で期限切れにする
+        int expiredCount = deadlineScheduler.fireDue(DeadlineKind.REPORT_EXPIRY).applied();
         log.info("期限切れレポート処理完了: expiredCount={}", expiredCount);
     }
 
@@ -6,13 +6,18 @@ import com.sfr.tokyo.sfr_backend.entity.learning.LearningBadge.BadgeType;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningUserBadge;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningBadgeRepository;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningUserBadgeRepository;
+import com.sfr.tokyo.sfr_backend.service.learning.badge.BadgeRuleIndex;
+import com.sfr.tokyo.sfr_backend.service.learning.badge.EarnedBadgeCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,6 +34,12 @@ public class LearningBadgeService {
     @Autowired
     private LearningUserBadgeRepository userBadgeRepository;
 
+    @Autowired
+    private BadgeRuleIndex badgeRuleIndex;
+
+    @Autowired
+    private EarnedBadgeCache earnedBadgeCache;
+
     /**
      * バッジ一覧取得
      */
@@ -77,6 +88,7 @@ public class LearningBadgeService {
     public LearningBadgeDto createBadge(LearningBadgeDto badgeDto) {
         LearningBadge badge = convertToEntity(badgeDto);
         LearningBadge savedBadge = badgeRepository.save(badge);
+        badgeRuleIndex.onChanged(savedBadge);
         return convertToDto(savedBadge);
     }
 
@@ -97,6 +109,7 @@ public class LearningBadgeService {
         existingBadge.setIsActive(badgeDto.getIsActive());
 
         LearningBadge savedBadge = badgeRepository.save(existingBadge);
+        badgeRuleIndex.onChanged(savedBadge);
         return convertToDto(savedBadge);
     }
 
@@ -109,32 +122,44 @@ public class LearningBadgeService {
 
         badge.setIsActive(false);
         badgeRepository.save(badge);
+        badgeRuleIndex.onChanged(badge);
     }
 
     /**
      * ユーザーのバッジ獲得チェック
-     * 指定された条件で獲得可能なバッジを自動付与
+     * 現在値で条件を満たす未獲得のバッジをまとめて自動付与する
+     * 条件の判定と獲得済みの判定はメモリ上で行い、新たに獲得するバッジがある場合だけ DB を参照する
      */
     public List<LearningUserBadge> awardBadgesIfEligible(UUID userId, UUID spaceId,
             BadgeType badgeType, Integer currentValue) {
-        // 既に獲得済みのバッジIDを取得
-        List<Long> earnedBadgeIds = userBadgeRepository.findByUserId(userId)
-                .stream()
-                .map(userBadge -> userBadge.getBadge().getId())
-                .collect(Collectors.toList());
+        List<BadgeRuleIndex.Rule> reachable = badgeRuleIndex.reachable(badgeType, spaceId, currentValue);
+        if (reachable.isEmpty()) {
+            return List.of();
+        }
+        List<BadgeRuleIndex.Rule> candidates = earnedBadgeCache.unearned(userId, reachable);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
 
-        // 獲得可能なバッジを検索（未獲得のもののみ）
-        List<LearningBadge> eligibleBadges = badgeRepository.findByTypeAndCondition(badgeType, currentValue, spaceId)
-                .stream()
-                .filter(badge -> !earnedBadgeIds.contains(badge.getId()))
-                .filter(badge -> badge.isEligible(currentValue))
-                .collect(Collectors.toList());
+        // 他ノードで付与済みの可能性があるため、候補だけ DB で確認する
+        Set<Long> alreadyEarned = new HashSet<>(userBadgeRepository.findBadgeIdsByUserIdAndBadgeIdIn(userId,
+                candidates.stream().map(BadgeRuleIndex.Rule::badgeId).toList()));
+        LocalDateTime now = LocalDateTime.now();
+        List<LearningUserBadge> awards = new ArrayList<>();
+        for (BadgeRuleIndex.Rule rule : candidates) {
+            if (alreadyEarned.contains(rule.badgeId())) {
+                continue;
+            }
+            LearningUserBadge userBadge = new LearningUserBadge(userId,
+                    badgeRepository.getReferenceById(rule.badgeId()), currentValue,
+                    String.format("条件達成により獲得 (必要値: %d)", rule.requiredValue()));
+            userBadge.setEarnedAt(now);
+            awards.add(userBadge);
+        }
 
-        // バッジ獲得処理
-        return eligibleBadges.stream()
-                .map(badge -> awardBadge(userId, badge.getId(), currentValue,
-                        String.format("条件達成により獲得 (必要値: %d)", badge.getRequiredValue())))
-                .collect(Collectors.toList());
+        List<LearningUserBadge> saved = awards.isEmpty() ? List.of() : userBadgeRepository.saveAll(awards);
+        earnedBadgeCache.markEarned(userId, candidates.stream().map(BadgeRuleIndex.Rule::badgeId).toList());
+        return saved;
     }
 
     /**
@@ -157,7 +182,9 @@ public class LearningBadgeService {
         userBadge.setEarnedReason(reason);
         userBadge.setEarnedAt(LocalDateTime.now());
 
-        return userBadgeRepository.save(userBadge);
+        LearningUserBadge saved = userBadgeRepository.save(userBadge);
+        earnedBadgeCache.markEarned(userId, List.of(badgeId));
+        return saved;
     }
 
     /**
@@ -168,6 +195,7 @@ public class LearningBadgeService {
                 .orElseThrow(() -> new IllegalArgumentException("指定されたバッジを獲得していません"));
 
         userBadgeRepository.delete(userBadge);
+        earnedBadgeCache.markRevoked(userId, badgeId);
     }
 
     /**
@@ -2,20 +2,30 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment;
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningCommentDto;
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningCommentNodeDto;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningCommentRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.LearningCommentTreeRow;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocumentType;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocuments;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchResults;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -31,6 +41,7 @@ import java.util.stream.Collectors;
 public class LearningCommentService {
 
     private final LearningCommentRepository commentRepository;
+    private final SearchIndexService searchIndexService;
 
     // ========== CRUD操作 ==========
 
@@ -44,8 +55,12 @@ public class LearningCommentService {
         LearningComment entity = convertToEntity(dto);
         entity.setCreatedAt(LocalDateTime.now());
         entity.setUpdatedAt(LocalDateTime.now());
+        LearningComment parent = findParent(entity.getParentCommentId());
 
         LearningComment saved = commentRepository.save(entity);
+        // ID 採番後に経路を決める（シーケンス採番のため INSERT は1回）
+        saved.placeInThread(parent);
+        searchIndexService.index(SearchDocuments.comment(saved));
         log.info("コメント作成完了: id={}, topicId={}", saved.getId(), saved.getTopicId());
 
         return convertToDto(saved);
@@ -60,11 +75,16 @@ public class LearningCommentService {
 
         LearningComment entity = commentRepository.findById(commentId)
                 .orElseThrow(() -> new EntityNotFoundException("コメントが見つかりません: " + commentId));
+        Long previousParentId = entity.getParentCommentId();
 
         updateEntityFromDto(entity, dto);
         entity.setUpdatedAt(LocalDateTime.now());
+        if (!Objects.equals(previousParentId, entity.getParentCommentId())) {
+            moveInThread(entity);
+        }
 
         LearningComment saved = commentRepository.save(entity);
+        searchIndexService.sync(SearchDocumentType.LEARNING_COMMENT, saved.getId(), SearchDocuments.comment(saved));
         log.info("コメント更新完了: id={}", saved.getId());
 
         return convertToDto(saved);
@@ -84,6 +104,8 @@ public class LearningCommentService {
         if (updated == 0) {
             throw new EntityNotFoundException("コメントが見つかりません: " + commentId);
         }
+        // 返信は検索時のハイドレーションで除外される
+        searchIndexService.remove(SearchDocumentType.LEARNING_COMMENT, commentId);
 
         log.info("コメント削除完了: commentId={}", commentId);
     }
@@ -99,6 +121,8 @@ public class LearningCommentService {
         if (updated == 0) {
             throw new EntityNotFoundException("コメントが見つかりません: " + commentId);
         }
+        commentRepository.findById(commentId).ifPresent(comment -> searchIndexService
+                .sync(SearchDocumentType.LEARNING_COMMENT, commentId, SearchDocuments.comment(comment)));
 
         log.info("コメント復旧完了: commentId={}", commentId);
     }
@@ -113,6 +137,79 @@ public class LearningCommentService {
         return convertToDto(entity);
     }
 
+    // ========== スレッド表示 ==========
+
+    /**
+     * トピックのスレッドをツリーで取得（トップレベルコメント単位のページング）
+     * トップレベルのページを決めたあと、その範囲の全返信をスレッドパスの範囲検索1回で読み込む
+     */
+    public Page<LearningCommentNodeDto> getCommentThread(Long topicId, Pageable pageable) {
+        if (commentRepository.existsWithoutThreadPath(topicId)) {
+            // 経路の補完前はトップレベルと直下の返信のみ
+            return commentRepository.findTopLevelByTopicId(topicId,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                    .map(this::toNodeWithDirectReplies);
+        }
+        Page<String> roots = commentRepository.findTopLevelThreadPaths(topicId,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        if (roots.isEmpty()) {
+            return new PageImpl<>(List.of(), roots.getPageable(), roots.getTotalElements());
+        }
+        List<String> paths = roots.getContent();
+        List<LearningCommentTreeRow> rows = commentRepository.findThreadRows(topicId, paths.get(0),
+                LearningComment.threadPathUpperBound(paths.get(paths.size() - 1)));
+        return new PageImpl<>(assembleTree(rows), roots.getPageable(), roots.getTotalElements());
+    }
+
+    /**
+     * コメントとその配下の返信をツリーで取得
+     */
+    public LearningCommentNodeDto getCommentSubtree(Long commentId) {
+        LearningComment comment = commentRepository.findById(commentId)
+                .filter(found -> found.getDeletedAt() == null)
+                .orElseThrow(() -> new EntityNotFoundException("コメントが見つかりません: " + commentId));
+        if (comment.getThreadPath() == null) {
+            // 経路の補完前は直下の返信のみ
+            return toNodeWithDirectReplies(comment);
+        }
+        List<LearningCommentTreeRow> rows = commentRepository.findThreadRows(comment.getTopicId(),
+                comment.getThreadPath(), LearningComment.threadPathUpperBound(comment.getThreadPath()));
+        return assembleTree(rows).stream()
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("コメントが見つかりません: " + commentId));
+    }
+
+    private LearningCommentNodeDto toNodeWithDirectReplies(LearningComment comment) {
+        LearningCommentNodeDto node = toNode(comment);
+        commentRepository.findRepliesByParentId(comment.getId())
+                .forEach(reply -> node.getReplies().add(toNode(reply)));
+        return node;
+    }
+
+    /**
+     * スレッド順（親が子より先）の行からツリーを組み立てる
+     * 先頭行の深さより浅い行はなく、親が結果にない行（削除済みの親の配下）は配下ごと除外される
+     */
+    static List<LearningCommentNodeDto> assembleTree(List<LearningCommentTreeRow> rows) {
+        List<LearningCommentNodeDto> roots = new ArrayList<>();
+        Map<Long, LearningCommentNodeDto> nodes = new HashMap<>(rows.size() * 2);
+        Integer rootDepth = rows.isEmpty() ? null : rows.get(0).depthLevel();
+        for (LearningCommentTreeRow row : rows) {
+            LearningCommentNodeDto node = toNode(row);
+            if (Objects.equals(row.depthLevel(), rootDepth)) {
+                roots.add(node);
+            } else {
+                LearningCommentNodeDto parent = nodes.get(row.parentCommentId());
+                if (parent == null) {
+                    continue;
+                }
+                parent.getReplies().add(node);
+            }
+            nodes.put(row.id(), node);
+        }
+        return roots;
+    }
+
     // ========== 検索機能 ==========
 
     /**
@@ -342,10 +439,12 @@ public class LearningCommentService {
     // ========== 検索機能 ==========
 
     /**
-     * コンテンツ検索
+     * コンテンツ検索（トピック内・関連度順）
      */
     public Page<LearningCommentDto> searchByContent(Long topicId, String keyword, Pageable pageable) {
-        return commentRepository.searchByContent(topicId, keyword, pageable)
+        return SearchResults.page(searchIndexService.search(SearchDocumentType.LEARNING_COMMENT, keyword, topicId, null),
+                pageable, commentRepository::findVisibleIds, commentRepository::findAllById, LearningComment::getId,
+                comment -> comment.getDeletedAt() == null)
                 .map(this::convertToDto);
     }
 
@@ -486,6 +585,38 @@ public class LearningCommentService {
 
     // ========== ヘルパーメソッド ==========
 
+    private LearningComment findParent(Long parentCommentId) {
+        if (parentCommentId == null) {
+            return null;
+        }
+        return commentRepository.findById(parentCommentId)
+                .orElseThrow(() -> new EntityNotFoundException("親コメントが見つかりません: " + parentCommentId));
+    }
+
+    /**
+     * 親の付け替え
+     * 自身の経路を付け直し、子孫の経路・ルート・深度を1回の UPDATE で書き換える
+     */
+    private void moveInThread(LearningComment entity) {
+        LearningComment parent = findParent(entity.getParentCommentId());
+        String oldPath = entity.getThreadPath();
+        int oldDepth = entity.getDepthLevel() != null ? entity.getDepthLevel() : 0;
+        if (parent != null && (parent.getId().equals(entity.getId()) || (oldPath != null
+                && parent.getThreadPath() != null && parent.getThreadPath().startsWith(oldPath)))) {
+            throw new IllegalArgumentException("自身または配下のコメントを親にすることはできません");
+        }
+
+        entity.placeInThread(parent);
+        if (oldPath == null || entity.getThreadPath() == null) {
+            return;
+        }
+        // 自身を先に書き込むため、旧経路の範囲に残るのは子孫のみ
+        commentRepository.saveAndFlush(entity);
+        commentRepository.moveThreadSubtree(entity.getTopicId(), oldPath,
+                LearningComment.threadPathUpperBound(oldPath), oldPath.length(), entity.getThreadPath(),
+                entity.getRootCommentId(), entity.getDepthLevel() - oldDepth, LocalDateTime.now());
+    }
+
     /**
      * DTOからEntityへの変換
      */
@@ -519,6 +650,42 @@ public class LearningCommentService {
         return dto;
     }
 
+    private static LearningCommentNodeDto toNode(LearningCommentTreeRow row) {
+        return LearningCommentNodeDto.builder()
+                .id(row.id())
+                .parentCommentId(row.parentCommentId())
+                .authorId(row.authorId())
+                .content(row.content())
+                .commentType(row.commentType())
+                .commentStatus(row.commentStatus())
+                .likeCount(row.likeCount())
+                .isBestAnswer(row.isBestAnswer())
+                .isSolution(row.isSolution())
+                .isPinned(row.isPinned())
+                .depthLevel(row.depthLevel())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+
+    private static LearningCommentNodeDto toNode(LearningComment entity) {
+        return LearningCommentNodeDto.builder()
+                .id(entity.getId())
+                .parentCommentId(entity.getParentCommentId())
+                .authorId(entity.getAuthorId())
+                .content(entity.getContent())
+                .commentType(entity.getCommentType())
+                .commentStatus(entity.getCommentStatus())
+                .likeCount(entity.getLikeCount())
+                .isBestAnswer(entity.getIsBestAnswer())
+                .isSolution(entity.getIsSolution())
+                .isPinned(entity.getIsPinned())
+                .depthLevel(entity.getDepthLevel())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+
     // ========== Controller対応の追加メソッド ==========
 
     /**
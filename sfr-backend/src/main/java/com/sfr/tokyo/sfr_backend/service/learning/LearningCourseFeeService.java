@@ -7,10 +7,13 @@ import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee.SfrRewardCond
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee.PaymentMethod;
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningCourseFeeDto;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningCourseFeeRepository;
+import com.sfr.tokyo.sfr_backend.service.learning.catalog.CatalogSnapshot;
+import com.sfr.tokyo.sfr_backend.service.learning.catalog.CourseFeeCatalog;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -35,6 +39,7 @@ import java.util.stream.Collectors;
 public class LearningCourseFeeService {
 
     private final LearningCourseFeeRepository courseFeeRepository;
+    private final CourseFeeCatalog courseFeeCatalog;
 
     // ========== CRUD操作 ==========
 
@@ -56,6 +61,7 @@ public class LearningCourseFeeService {
         }
 
         LearningCourseFee saved = courseFeeRepository.save(entity);
+        courseFeeCatalog.invalidate();
         log.info("コース料金設定作成完了: id={}, courseId={}", saved.getId(), saved.getCourseId());
 
         return convertToDto(saved);
@@ -75,6 +81,7 @@ public class LearningCourseFeeService {
         entity.setUpdatedAt(LocalDateTime.now());
 
         LearningCourseFee saved = courseFeeRepository.save(entity);
+        courseFeeCatalog.invalidate();
         log.info("コース料金設定更新完了: id={}", saved.getId());
 
         return convertToDto(saved);
@@ -88,6 +95,7 @@ public class LearningCourseFeeService {
         log.info("コース料金設定削除開始: feeId={}", feeId);
 
         int updated = courseFeeRepository.softDelete(feeId, LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -103,6 +111,7 @@ public class LearningCourseFeeService {
         log.info("コース料金設定復旧開始: feeId={}", feeId);
 
         int updated = courseFeeRepository.restore(feeId, LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -124,82 +133,87 @@ public class LearningCourseFeeService {
      * コース毎の現在料金設定取得
      */
     public Optional<LearningCourseFeeDto> getCurrentFeeByCoursId(Long courseId) {
-        return courseFeeRepository.findCurrentFeeByCoursId(courseId)
+        // 同じコースに有効な設定が複数残っていても、最後に更新されたものを返す
+        return courseFeeCatalog.snapshot().select().eq(CourseFeeCatalog.COURSE, courseId).list().stream()
+                .max(Comparator.comparing(LearningCourseFee::getUpdatedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
                 .map(this::convertToDto);
     }
 
+    /**
+     * 有効な料金設定のスナップショット
+     * ETag と一覧を同じ版から返すため、一覧系の検索はこのスナップショットを受け取る。
+     */
+    public CatalogSnapshot<LearningCourseFee> getCatalogSnapshot() {
+        return courseFeeCatalog.snapshot();
+    }
+
     // ========== 検索機能 ==========
 
     /**
      * アクティブな料金設定一覧取得
      */
-    public List<LearningCourseFeeDto> getActiveFees() {
-        return courseFeeRepository.findActiveFees().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<LearningCourseFeeDto> getActiveFees(CatalogSnapshot<LearningCourseFee> snapshot) {
+        return toDtos(snapshot.select().list());
     }
 
     /**
      * コース別料金設定一覧取得
      */
     public List<LearningCourseFeeDto> getFeesByCourseId(Long courseId) {
-        return courseFeeRepository.findByCourseId(courseId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select().eq(CourseFeeCatalog.COURSE, courseId).list());
     }
 
     /**
      * 料金タイプ別検索
      */
     public List<LearningCourseFeeDto> getFeesByType(FeeType feeType) {
-        return courseFeeRepository.findByFeeType(feeType).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .eq(CourseFeeCatalog.FEE_TYPE, feeType)
+                .list(CourseFeeCatalog.BY_PRICE));
     }
 
     /**
      * 通貨タイプ別検索
      */
     public List<LearningCourseFeeDto> getFeesByCurrency(CurrencyType currencyType) {
-        return courseFeeRepository.findByCurrencyType(currencyType).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .eq(CourseFeeCatalog.CURRENCY, currencyType)
+                .list(CourseFeeCatalog.BY_PRICE));
     }
 
     /**
      * 価格範囲検索
      */
     public List<LearningCourseFeeDto> getFeesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return courseFeeRepository.findByPriceRange(minPrice, maxPrice).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .between(CourseFeeCatalog.PRICE, minPrice, maxPrice)
+                .list(CourseFeeCatalog.BY_PRICE));
     }
 
     /**
      * 予算内料金検索
      */
     public List<LearningCourseFeeDto> getFeesWithinBudget(BigDecimal budget) {
-        return courseFeeRepository.findWithinBudget(budget).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .between(CourseFeeCatalog.PRICE, null, budget)
+                .list(CourseFeeCatalog.BY_PRICE.reversed()));
     }
 
     /**
      * 無料コース検索
      */
-    public List<LearningCourseFeeDto> getFreeCourses() {
-        return courseFeeRepository.findFreeCourseFees().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<LearningCourseFeeDto> getFreeCourses(CatalogSnapshot<LearningCourseFee> snapshot) {
+        return toDtos(snapshot.select().eq(CourseFeeCatalog.IS_FREE, true).list());
     }
 
     /**
      * 有料コース検索
      */
-    public List<LearningCourseFeeDto> getPaidCourses() {
-        return courseFeeRepository.findPaidCourseFees().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<LearningCourseFeeDto> getPaidCourses(CatalogSnapshot<LearningCourseFee> snapshot) {
+        return toDtos(snapshot.select()
+                .is(CourseFeeCatalog.PAID)
+                .list(CourseFeeCatalog.BY_PRICE));
     }
 
     // ========== SFR報酬関連 ==========
@@ -207,37 +221,40 @@ public class LearningCourseFeeService {
     /**
      * SFR報酬付きコース検索
      */
-    public List<LearningCourseFeeDto> getCoursesWithSfrReward() {
-        return courseFeeRepository.findCoursesWithSfrReward().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<LearningCourseFeeDto> getCoursesWithSfrReward(CatalogSnapshot<LearningCourseFee> snapshot) {
+        return toDtos(snapshot.select()
+                .is(CourseFeeCatalog.SFR_REWARD)
+                .list(CourseFeeCatalog.BY_SFR_REWARD_DESC));
     }
 
     /**
      * SFR報酬条件別検索
      */
     public List<LearningCourseFeeDto> getCoursesBySfrRewardCondition(SfrRewardCondition condition) {
-        return courseFeeRepository.findBySfrRewardCondition(condition).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .eq(CourseFeeCatalog.SFR_REWARD_CONDITION, condition)
+                .is(CourseFeeCatalog.HAS_SFR_REWARD_AMOUNT)
+                .list(CourseFeeCatalog.BY_SFR_REWARD_DESC));
     }
 
     /**
      * SFR報酬額範囲検索
      */
     public List<LearningCourseFeeDto> getCoursesBySfrRewardRange(BigDecimal minReward, BigDecimal maxReward) {
-        return courseFeeRepository.findBySfrRewardRange(minReward, maxReward).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .between(CourseFeeCatalog.SFR_REWARD_AMOUNT, minReward, maxReward)
+                .list(CourseFeeCatalog.BY_SFR_REWARD_DESC));
     }
 
     /**
      * 高SFR報酬コース取得
      */
-    public List<LearningCourseFeeDto> getTopSfrRewardCourses(int limit) {
-        return courseFeeRepository.findTopSfrRewardCourses(Pageable.ofSize(limit)).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<LearningCourseFeeDto> getTopSfrRewardCourses(CatalogSnapshot<LearningCourseFee> snapshot, int limit) {
+        return toDtos(snapshot.select()
+                .is(CourseFeeCatalog.HAS_SFR_REWARD_AMOUNT)
+                .list(CourseFeeCatalog.BY_SFR_REWARD_DESC).stream()
+                .limit(limit)
+                .toList());
     }
 
     /**
@@ -248,6 +265,7 @@ public class LearningCourseFeeService {
         log.info("SFR報酬設定更新開始: feeId={}, rewardAmount={}, condition={}", feeId, rewardAmount, condition);
 
         int updated = courseFeeRepository.updateSfrReward(feeId, rewardAmount, condition, LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -262,9 +280,13 @@ public class LearningCourseFeeService {
      */
     public List<LearningCourseFeeDto> getDiscountedCourses() {
         LocalDateTime now = LocalDateTime.now();
-        return courseFeeRepository.findDiscountedCourses(now).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select().list().stream()
+                .filter(fee -> isRegularDiscountActive(fee, now) || isEarlyBirdActive(fee, now))
+                .sorted(Comparator.comparing(LearningCourseFee::getDiscountPercent,
+                        Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+                        .thenComparing(LearningCourseFee::getEarlyBirdPercent,
+                                Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder())))
+                .toList());
     }
 
     /**
@@ -272,9 +294,10 @@ public class LearningCourseFeeService {
      */
     public List<LearningCourseFeeDto> getEarlyBirdDiscountCourses() {
         LocalDateTime now = LocalDateTime.now();
-        return courseFeeRepository.findEarlyBirdDiscountCourses(now).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select().is(CourseFeeCatalog.EARLY_BIRD_DISCOUNT).list().stream()
+                .filter(fee -> isEarlyBirdActive(fee, now))
+                .sorted(Comparator.comparing(LearningCourseFee::getEarlyBirdPercent, Comparator.reverseOrder()))
+                .toList());
     }
 
     /**
@@ -282,18 +305,19 @@ public class LearningCourseFeeService {
      */
     public List<LearningCourseFeeDto> getRegularDiscountCourses() {
         LocalDateTime now = LocalDateTime.now();
-        return courseFeeRepository.findRegularDiscountCourses(now).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select().is(CourseFeeCatalog.REGULAR_DISCOUNT).list().stream()
+                .filter(fee -> isRegularDiscountActive(fee, now))
+                .sorted(Comparator.comparing(LearningCourseFee::getDiscountPercent, Comparator.reverseOrder()))
+                .toList());
     }
 
     /**
      * 特別価格コース検索
      */
     public List<LearningCourseFeeDto> getSpecialPriceCourses() {
-        return courseFeeRepository.findSpecialPriceCourses().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .is(CourseFeeCatalog.SPECIAL_PRICE)
+                .list(CourseFeeCatalog.BY_PRICE));
     }
 
     /**
@@ -304,6 +328,7 @@ public class LearningCourseFeeService {
         log.info("割引設定更新開始: feeId={}, discountPercent={}", feeId, discountPercent);
 
         int updated = courseFeeRepository.updateDiscount(feeId, discountPercent, startAt, endAt, LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -321,6 +346,7 @@ public class LearningCourseFeeService {
 
         int updated = courseFeeRepository.updateEarlyBirdDiscount(feeId, earlyBirdDiscount, earlyBirdPercent, deadline,
                 LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -334,27 +360,27 @@ public class LearningCourseFeeService {
      * 支払い方法別検索
      */
     public List<LearningCourseFeeDto> getFeesByPaymentMethod(PaymentMethod paymentMethod) {
-        return courseFeeRepository.findByPaymentMethod(paymentMethod).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .eq(CourseFeeCatalog.PAYMENT_METHOD, paymentMethod)
+                .list(CourseFeeCatalog.BY_PRICE));
     }
 
     /**
      * 分割払い可能コース検索
      */
     public List<LearningCourseFeeDto> getInstallmentAvailableCourses() {
-        return courseFeeRepository.findInstallmentAvailableCourses().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .is(CourseFeeCatalog.INSTALLMENT)
+                .list(Comparator.comparing(LearningCourseFee::getInstallmentCount)));
     }
 
     /**
      * 返金可能コース検索
      */
     public List<LearningCourseFeeDto> getRefundableCourses() {
-        return courseFeeRepository.findRefundableCourses().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(courseFeeCatalog.snapshot().select()
+                .is(CourseFeeCatalog.REFUND_PERIOD)
+                .list(Comparator.comparing(LearningCourseFee::getRefundPeriodDays, Comparator.reverseOrder())));
     }
 
     /**
@@ -367,6 +393,7 @@ public class LearningCourseFeeService {
 
         int updated = courseFeeRepository.updatePaymentSettings(feeId, paymentMethod, installmentAvailable,
                 installmentCount, LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -391,10 +418,34 @@ public class LearningCourseFeeService {
             Boolean refundable,
             Pageable pageable) {
 
-        return courseFeeRepository.searchCourses(
-                feeType, currencyType, minPrice, maxPrice, isFree,
-                hasSfrReward, paymentMethod, installmentAvailable, refundable, pageable)
-                .map(this::convertToDto);
+        if (pageable.getSort().isSorted()) {
+            // 任意の並び順は DB に任せる
+            return courseFeeRepository.searchCourses(
+                    feeType, currencyType, minPrice, maxPrice, isFree,
+                    hasSfrReward, paymentMethod, installmentAvailable, refundable, pageable)
+                    .map(this::convertToDto);
+        }
+
+        CatalogSnapshot<LearningCourseFee>.Selection selection = courseFeeCatalog.snapshot().select()
+                .eqIfPresent(CourseFeeCatalog.FEE_TYPE, feeType)
+                .eqIfPresent(CourseFeeCatalog.CURRENCY, currencyType)
+                .eqIfPresent(CourseFeeCatalog.IS_FREE, isFree)
+                .eqIfPresent(CourseFeeCatalog.PAYMENT_METHOD, paymentMethod)
+                .eqIfPresent(CourseFeeCatalog.INSTALLMENT_AVAILABLE, installmentAvailable)
+                .eqIfPresent(CourseFeeCatalog.REFUNDABLE, refundable);
+        if (minPrice != null || maxPrice != null) {
+            selection.between(CourseFeeCatalog.PRICE, minPrice, maxPrice);
+        }
+        if (hasSfrReward != null) {
+            selection.is(hasSfrReward ? CourseFeeCatalog.HAS_SFR_REWARD_AMOUNT : CourseFeeCatalog.ZERO_SFR_REWARD_AMOUNT);
+        }
+        List<LearningCourseFee> matched = selection.list(CourseFeeCatalog.BY_PRICE);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(toDtos(matched));
+        }
+        int from = (int) Math.min(pageable.getOffset(), matched.size());
+        int to = Math.min(from + pageable.getPageSize(), matched.size());
+        return new PageImpl<>(toDtos(matched.subList(from, to)), pageable, matched.size());
     }
 
     // ========== 統計・分析 ==========
@@ -544,6 +595,7 @@ public class LearningCourseFeeService {
 
         int earlyBirdUpdated = courseFeeRepository.disableExpiredEarlyBirdDiscounts(now);
         int regularUpdated = courseFeeRepository.disableExpiredDiscounts(now);
+        courseFeeCatalog.invalidate();
 
         log.info("期限切れ割引無効化完了: 早期割引={}, 通常割引={}", earlyBirdUpdated, regularUpdated);
     }
@@ -556,6 +608,7 @@ public class LearningCourseFeeService {
         log.info("料金額更新開始: feeId={}, priceAmount={}", feeId, priceAmount);
 
         int updated = courseFeeRepository.updatePriceAmount(feeId, priceAmount, LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -571,6 +624,7 @@ public class LearningCourseFeeService {
         log.info("アクティブ状態更新開始: feeId={}, isActive={}", feeId, isActive);
 
         int updated = courseFeeRepository.updateActiveStatus(feeId, isActive, LocalDateTime.now());
+        courseFeeCatalog.invalidate();
         if (updated == 0) {
             throw new EntityNotFoundException("料金設定が見つかりません: " + feeId);
         }
@@ -608,6 +662,24 @@ public class LearningCourseFeeService {
 
     // ========== ヘルパーメソッド ==========
 
+    private List<LearningCourseFeeDto> toDtos(List<LearningCourseFee> fees) {
+        return fees.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isRegularDiscountActive(LearningCourseFee fee, LocalDateTime now) {
+        return fee.getDiscountPercent() != null && fee.getDiscountPercent().signum() > 0
+                && fee.getDiscountStartAt() != null && !fee.getDiscountStartAt().isAfter(now)
+                && fee.getDiscountEndAt() != null && !fee.getDiscountEndAt().isBefore(now);
+    }
+
+    private static boolean isEarlyBirdActive(LearningCourseFee fee, LocalDateTime now) {
+        return Boolean.TRUE.equals(fee.getEarlyBirdDiscount())
+                && fee.getEarlyBirdPercent() != null && fee.getEarlyBirdPercent().signum() > 0
+                && fee.getEarlyBirdDeadline() != null && !fee.getEarlyBirdDeadline().isBefore(now);
+    }
+
     /**
      * 同一コースの既存料金設定を無効化
      */
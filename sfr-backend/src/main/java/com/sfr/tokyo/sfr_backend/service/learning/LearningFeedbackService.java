@@ -2,10 +2,16 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.*;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningFeedbackDto;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
+import com.sfr.tokyo.sfr_backend.service.learning.rating.FeedbackRatingStore;
+import com.sfr.tokyo.sfr_backend.service.learning.rating.FeedbackRatingStore.Contribution;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -30,6 +36,13 @@ import java.util.stream.Collectors;
 public class LearningFeedbackService {
 
     private final LearningFeedbackRepository feedbackRepository;
+    private final DeadlineScheduler deadlineScheduler;
+    private final FeedbackRatingStore ratingStore;
+    private final BatchWriter batchWriter;
+
+    /** 解決・実装済みの回答後、確認がないまま自動クローズするまでの日数 */
+    @Value("${sfr.learning.feedback.auto-close-days:30}")
+    private long autoCloseDays;
 
     // ========== CRUD操作 ==========
 
@@ -47,6 +60,7 @@ public class LearningFeedbackService {
             calculateAndSetScores(feedback);
 
             LearningFeedback savedFeedback = feedbackRepository.save(feedback);
+            ratingStore.apply(null, FeedbackRatingStore.contributionOf(savedFeedback));
             log.info("フィードバックが作成されました: ID={}, Type={}, Category={}",
                     savedFeedback.getId(), savedFeedback.getFeedbackType(), savedFeedback.getFeedbackCategory());
 
@@ -72,8 +86,10 @@ public class LearningFeedbackService {
     @Transactional
     public LearningFeedbackDto updateFeedback(Long feedbackId, LearningFeedbackDto dto) {
         try {
-            LearningFeedback feedback = feedbackRepository.findById(feedbackId)
+            // 並行する更新・削除・モデレーションと差分が二重にならないよう、変更前の値は行ロックを取って読む
+            LearningFeedback feedback = feedbackRepository.findByIdForUpdate(feedbackId)
                     .orElseThrow(() -> new RuntimeException("フィードバックが見つかりません: " + feedbackId));
+            Contribution before = FeedbackRatingStore.contributionOf(feedback);
 
             // 更新可能フィールドの設定
             updateFeedbackFields(feedback, dto);
@@ -83,6 +99,8 @@ public class LearningFeedbackService {
             calculateAndSetScores(feedback);
 
             LearningFeedback updatedFeedback = feedbackRepository.save(feedback);
+            ratingStore.apply(before, FeedbackRatingStore.contributionOf(updatedFeedback));
+            scheduleAutoClose(updatedFeedback.getId(), updatedFeedback.getFeedbackStatus(), updatedFeedback);
             log.info("フィードバックが更新されました: ID={}", feedbackId);
 
             return convertToDto(updatedFeedback);
@@ -98,7 +116,12 @@ public class LearningFeedbackService {
     @Transactional
     public void deleteFeedback(Long feedbackId) {
         try {
-            feedbackRepository.softDeleteFeedback(feedbackId);
+            Contribution before = FeedbackRatingStore.contributionOf(
+                    feedbackRepository.findByIdForUpdate(feedbackId).orElse(null));
+            // 削除済みなら集計からは既に外れている
+            if (feedbackRepository.softDeleteFeedback(feedbackId) == 1) {
+                ratingStore.apply(before, null);
+            }
             log.info("フィードバックが削除されました: ID={}", feedbackId);
         } catch (Exception e) {
             log.error("フィードバック削除中にエラーが発生しました: ID={}, Error={}", feedbackId, e.getMessage(), e);
@@ -179,6 +202,9 @@ public class LearningFeedbackService {
     public void updateFeedbackStatus(Long feedbackId, FeedbackStatus status) {
         try {
             feedbackRepository.updateFeedbackStatus(feedbackId, status);
+            scheduleAutoClose(feedbackId, status, isAutoClosable(status)
+                    ? feedbackRepository.findById(feedbackId).orElse(null)
+                    : null);
             log.info("フィードバック状態が更新されました: ID={}, Status={}", feedbackId, status);
         } catch (Exception e) {
             log.error("フィードバック状態更新中にエラーが発生しました: ID={}, Error={}", feedbackId, e.getMessage(), e);
@@ -192,8 +218,7 @@ public class LearningFeedbackService {
     @Transactional
     public void approveFeedback(Long feedbackId, UUID moderatorId, String moderationNotes) {
         try {
-            feedbackRepository.updateModerationStatus(feedbackId, ModerationStatus.APPROVED, moderatorId,
-                    moderationNotes);
+            applyModeration(feedbackId, ModerationStatus.APPROVED, moderatorId, moderationNotes);
             feedbackRepository.updateFeedbackStatus(feedbackId, FeedbackStatus.ACKNOWLEDGED);
             log.info("フィードバックが承認されました: ID={}, Moderator={}", feedbackId, moderatorId);
         } catch (Exception e) {
@@ -208,8 +233,7 @@ public class LearningFeedbackService {
     @Transactional
     public void rejectFeedback(Long feedbackId, UUID moderatorId, String moderationNotes) {
         try {
-            feedbackRepository.updateModerationStatus(feedbackId, ModerationStatus.REJECTED, moderatorId,
-                    moderationNotes);
+            applyModeration(feedbackId, ModerationStatus.REJECTED, moderatorId, moderationNotes);
             feedbackRepository.updateFeedbackStatus(feedbackId, FeedbackStatus.REJECTED);
             log.info("フィードバックが拒否されました: ID={}, Moderator={}", feedbackId, moderatorId);
         } catch (Exception e) {
@@ -273,32 +297,31 @@ public class LearningFeedbackService {
     // ========== 統計・分析操作 ==========
 
     /**
-     * 対象別フィードバック統計
+     * 対象別フィードバック統計（評価サマリーの件数）
      */
     public Long getFeedbackCount(TargetType targetType, Long targetId) {
-        return feedbackRepository.countByTargetTypeAndTargetId(targetType, targetId);
+        return ratingStore.summary(targetType, targetId).count();
     }
 
     /**
-     * 平均評価計算
+     * 平均評価計算（評価サマリーの合計 / 件数）
      */
     public BigDecimal calculateAverageRating(TargetType targetType, Long targetId) {
-        BigDecimal average = feedbackRepository.calculateAverageRating(targetType, targetId);
-        return average != null ? average : BigDecimal.ZERO;
+        return ratingStore.summary(targetType, targetId).average();
     }
 
     /**
-     * 評価分布取得
+     * 評価分布取得（評価サマリーのヒストグラム）
      */
     public List<Object[]> getRatingDistribution(TargetType targetType, Long targetId) {
-        return feedbackRepository.getRatingDistribution(targetType, targetId);
+        return ratingStore.summary(targetType, targetId).distribution();
     }
 
     /**
-     * フィードバックタイプ別統計
+     * フィードバックタイプ別統計（月別集計の合計）
      */
     public List<Object[]> getFeedbackTypeStatistics() {
-        return feedbackRepository.countByFeedbackType();
+        return ratingStore.countByFeedbackType();
     }
 
     /**
@@ -309,10 +332,10 @@ public class LearningFeedbackService {
     }
 
     /**
-     * 月別統計
+     * 月別統計（fromDate を含む月から）
      */
     public List<Object[]> getMonthlyStatistics(LocalDateTime fromDate) {
-        return feedbackRepository.countByMonth(fromDate);
+        return ratingStore.countByMonth(fromDate);
     }
 
     /**
@@ -403,14 +426,11 @@ public class LearningFeedbackService {
     public void recalculateScores() {
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(1);
-            List<LearningFeedback> feedbacks = feedbackRepository.findFeedbacksForScoreRecalculation(cutoffDate);
-
-            int updatedCount = 0;
-            for (LearningFeedback feedback : feedbacks) {
-                calculateAndSetScores(feedback);
-                feedbackRepository.save(feedback);
-                updatedCount++;
-            }
+            // IDのチャンク単位で読み込み、変わったスコアだけをまとめて UPDATE する
+            int updatedCount = batchWriter.updateByIds(
+                    feedbackRepository.findIdsForScoreRecalculation(cutoffDate),
+                    feedbackRepository::findAllById,
+                    this::calculateAndSetScores).size();
 
             log.info("フィードバックスコアが一括再計算されました: 更新数={}", updatedCount);
         } catch (Exception e) {
@@ -419,22 +439,27 @@ public class LearningFeedbackService {
         }
     }
 
+    /**
+     * 評価サマリー・月別集計の再構築
+     */
+    @Transactional
+    public int rebuildRatingSummaries() {
+        try {
+            return ratingStore.rebuild();
+        } catch (Exception e) {
+            log.error("評価サマリー再構築中にエラーが発生しました: {}", e.getMessage(), e);
+            throw new RuntimeException("評価サマリーの再構築に失敗しました", e);
+        }
+    }
+
     /**
      * 自動クローズ処理
      */
     @Transactional
     public void autoCloseFeedbacks() {
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
-            List<LearningFeedback> feedbacks = feedbackRepository.findFeedbacksForAutoClose(cutoffDate);
-
-            int closedCount = 0;
-            for (LearningFeedback feedback : feedbacks) {
-                feedback.setFeedbackStatus(FeedbackStatus.CLOSED);
-                feedback.setUpdatedAt(LocalDateTime.now());
-                feedbackRepository.save(feedback);
-                closedCount++;
-            }
+            // 期限（回答日時 + 猶予日数）は状態更新時に登録済み。到来した分を条件付きでまとめてクローズする
+            int closedCount = deadlineScheduler.fireDue(DeadlineKind.FEEDBACK_AUTO_CLOSE).applied();
 
             log.info("フィードバックが自動クローズされました: クローズ数={}", closedCount);
         } catch (Exception e) {
@@ -445,6 +470,38 @@ public class LearningFeedbackService {
 
     // ========== ヘルパーメソッド ==========
 
+    /**
+     * モデレーション状態を更新し、集計対象の出入りを評価サマリーに反映する
+     * 状態が実際に変わった場合だけ差分を加えるため、同じ承認・拒否が重なっても二重に数えない
+     */
+    private void applyModeration(Long feedbackId, ModerationStatus status, UUID moderatorId, String moderationNotes) {
+        LearningFeedback feedback = feedbackRepository.findByIdForUpdate(feedbackId).orElse(null);
+        if (feedback == null) {
+            return;
+        }
+        Contribution before = FeedbackRatingStore.contributionOf(feedback);
+        Contribution after = FeedbackRatingStore.contributionOf(feedback, status);
+        if (feedbackRepository.updateModerationStatus(feedbackId, status, moderatorId, moderationNotes) == 1) {
+            ratingStore.apply(before, after);
+        }
+    }
+
+    private static boolean isAutoClosable(FeedbackStatus status) {
+        return status == FeedbackStatus.RESOLVED || status == FeedbackStatus.IMPLEMENTED;
+    }
+
+    /**
+     * 自動クローズの期限を登録する（対象外になった場合は取り消す）
+     */
+    private void scheduleAutoClose(Long feedbackId, FeedbackStatus status, LearningFeedback feedback) {
+        LocalDateTime dueAt = null;
+        if (isAutoClosable(status) && feedback != null && feedback.getAcknowledgedAt() == null
+                && feedback.getResponseGivenAt() != null && feedback.getDeletedAt() == null) {
+            dueAt = feedback.getResponseGivenAt().plusDays(autoCloseDays);
+        }
+        deadlineScheduler.schedule(DeadlineKind.FEEDBACK_AUTO_CLOSE, feedbackId, dueAt);
+    }
+
     /**
      * DTOからEntityへの変換
      */
@@ -2,7 +2,15 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningForumDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningForum;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningForumRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocumentType;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocuments;
+import com.sfr.tokyo.sfr_backend.service.search.SearchHit;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchResults;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +32,15 @@ public class LearningForumService {
     @Autowired
     private LearningForumRepository learningForumRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BatchWriter batchWriter;
+
+    @Autowired
+    private DeadlineScheduler deadlineScheduler;
+
     // CRUD操作
 
     /**
@@ -35,6 +52,8 @@ public class LearningForumService {
         forum.setUpdatedAt(LocalDateTime.now());
 
         LearningForum savedForum = learningForumRepository.save(forum);
+        searchIndexService.index(SearchDocuments.forum(savedForum));
+        deadlineScheduler.schedule(DeadlineKind.FORUM_AUTO_CLOSE, savedForum.getId(), savedForum.getAutoCloseAt());
         return convertToDto(savedForum);
     }
 
@@ -52,6 +71,8 @@ public class LearningForumService {
         forum.setUpdatedAt(LocalDateTime.now());
 
         LearningForum savedForum = learningForumRepository.save(forum);
+        searchIndexService.index(SearchDocuments.forum(savedForum));
+        deadlineScheduler.schedule(DeadlineKind.FORUM_AUTO_CLOSE, savedForum.getId(), savedForum.getAutoCloseAt());
         return convertToDto(savedForum);
     }
 
@@ -72,6 +93,7 @@ public class LearningForumService {
             throw new RuntimeException("フォーラムが見つかりません: " + id);
         }
         learningForumRepository.deleteById(id);
+        searchIndexService.remove(SearchDocumentType.FORUM, id);
     }
 
     // フォーラム管理
@@ -437,28 +459,39 @@ public class LearningForumService {
     // 検索機能
 
     /**
-     * キーワード検索
+     * キーワード検索（全文検索インデックス・関連度順）
      */
     @Transactional(readOnly = true)
     public List<LearningForumDto> searchForums(String keyword) {
+        return searchForums(keyword, null);
+    }
+
+    /**
+     * スペース内のキーワード検索（全文検索インデックス・関連度順）
+     *
+     * @param spaceId スペースID（null で全スペース）
+     */
+    @Transactional(readOnly = true)
+    public List<LearningForumDto> searchForums(String keyword, Long spaceId) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return List.of();
         }
-        return learningForumRepository.searchByKeyword(keyword.trim())
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toForumDtos(searchIndexService.search(SearchDocumentType.FORUM, keyword.trim(), spaceId, null));
     }
 
     /**
-     * タグ検索
+     * タグ検索（タグ完全一致）
      */
     @Transactional(readOnly = true)
     public List<LearningForumDto> searchByTag(String tag) {
         if (tag == null || tag.trim().isEmpty()) {
             return List.of();
         }
-        return learningForumRepository.findByTagsContaining(tag.trim())
+        return toForumDtos(searchIndexService.searchByTag(SearchDocumentType.FORUM, tag.trim(), null, null));
+    }
+
+    private List<LearningForumDto> toForumDtos(List<SearchHit> hits) {
+        return SearchResults.hydrate(hits, learningForumRepository::findAllById, LearningForum::getId, forum -> true)
                 .stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
@@ -522,41 +555,26 @@ public class LearningForumService {
 
     /**
      * 自動クローズ処理
+     * 期限（最終アクティビティ + 自動クローズ日数）は {@link DeadlineScheduler} に登録され、到来時にアーカイブされる。
+     * アクティビティで期限が延びたフォーラムは発火時に登録し直す。ここでは到来済みの分をすぐに処理する
      */
     public int processAutoCloseForums() {
-        List<LearningForum> forums = learningForumRepository.findAll();
-        int processedCount = 0;
-
-        for (LearningForum forum : forums) {
-            if (forum.shouldAutoClose()) {
-                forum.setForumStatus(LearningForum.ForumStatus.ARCHIVED);
-                forum.setIsArchived(true);
-                forum.setUpdatedAt(LocalDateTime.now());
-                learningForumRepository.save(forum);
-                processedCount++;
-            }
-        }
-
-        return processedCount;
+        return deadlineScheduler.fireDue(DeadlineKind.FORUM_AUTO_CLOSE).applied();
     }
 
     /**
      * 全フォーラムのスコア再計算
      */
     public int recalculateAllScores() {
-        List<LearningForum> forums = learningForumRepository.findAll();
-        int processedCount = 0;
-
-        for (LearningForum forum : forums) {
-            forum.setActivityScore(forum.calculateActivityScore());
-            forum.setQualityScore(forum.calculateQualityScore());
-            forum.setPopularityScore(forum.calculatePopularityScore());
-            forum.setUpdatedAt(LocalDateTime.now());
-            learningForumRepository.save(forum);
-            processedCount++;
-        }
-
-        return processedCount;
+        LocalDateTime now = LocalDateTime.now();
+        return batchWriter.updateByIds(learningForumRepository.findAllIds(),
+                learningForumRepository::findAllById,
+                forum -> {
+                    forum.setActivityScore(forum.calculateActivityScore());
+                    forum.setQualityScore(forum.calculateQualityScore());
+                    forum.setPopularityScore(forum.calculatePopularityScore());
+                    forum.setUpdatedAt(now);
+                }).size();
     }
 
     // Utility Methods
@@ -9,15 +9,21 @@ import com.sfr.tokyo.sfr_backend.repository.learning.LearningProgressRepository;
 import com.sfr.tokyo.sfr_backend.repository.UserRepository;
 import com.sfr.tokyo.sfr_backend.user.User;
 import jakarta.persistence.EntityNotFoundException;
+import com.sfr.tokyo.sfr_backend.service.learning.progress.ProgressHeartbeatBuffer;
+import com.sfr.tokyo.sfr_backend.service.learning.progress.ProgressHeartbeatBuffer.PendingProgress;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,15 +34,18 @@ public class LearningProgressService {
     private final LearningContentRepository contentRepository;
     private final UserRepository userRepository;
     private final LearningProgressMapper progressMapper;
+    private final ProgressHeartbeatBuffer heartbeatBuffer;
 
     public LearningProgressService(LearningProgressRepository progressRepository,
             LearningContentRepository contentRepository,
             UserRepository userRepository,
-            LearningProgressMapper progressMapper) {
+            LearningProgressMapper progressMapper,
+            ProgressHeartbeatBuffer heartbeatBuffer) {
         this.progressRepository = progressRepository;
         this.contentRepository = contentRepository;
         this.userRepository = userRepository;
         this.progressMapper = progressMapper;
+        this.heartbeatBuffer = heartbeatBuffer;
     }
 
     /**
@@ -66,9 +75,24 @@ public class LearningProgressService {
         }
 
         LearningProgress savedProgress = progressRepository.save(progress);
+        // 明示的な保存が優先（未反映の心拍で上書きしない）
+        heartbeatBuffer.discard(userId, progressDto.getContentId());
         return progressMapper.toDto(savedProgress);
     }
 
+    /**
+     * 学習進捗の心拍を受け付ける（動画・コンテンツプレイヤーからの定期報告）
+     * DB へは {@link ProgressHeartbeatBuffer} がまとめて反映する
+     *
+     * @return 受け付け後の進捗（反映前の値を含む）
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LearningProgressDto recordHeartbeat(UUID userId, LearningProgressDto progressDto) {
+        PendingProgress pending = heartbeatBuffer.record(userId, progressDto.getContentId(),
+                progressDto.getProgressPercent());
+        return toDto(userId, pending);
+    }
+
     /**
      * ユーザーの全進捗取得
      */
@@ -80,7 +104,7 @@ public class LearningProgressService {
         }
 
         List<LearningProgress> progressList = progressRepository.findByUserIdWithContent(userId);
-        return progressMapper.toDtoList(progressList);
+        return withPending(userId, progressMapper.toDtoList(progressList), pending -> true);
     }
 
     /**
@@ -94,7 +118,8 @@ public class LearningProgressService {
         }
 
         List<LearningProgress> progressList = progressRepository.findByUserIdAndSpaceId(userId, spaceId);
-        return progressMapper.toDtoList(progressList);
+        return withPending(userId, progressMapper.toDtoList(progressList),
+                pending -> spaceId.equals(pending.spaceId()));
     }
 
     /**
@@ -102,9 +127,13 @@ public class LearningProgressService {
      */
     @Transactional(readOnly = true)
     public Optional<LearningProgressDto> getProgressByUserAndContent(UUID userId, Long contentId) {
-        Optional<LearningProgress> progress = progressRepository.findByUserIdAndLearningContentId(userId, contentId);
-
-        return progress.map(progressMapper::toDto);
+        Optional<LearningProgressDto> stored = progressRepository.findByUserIdAndLearningContentId(userId, contentId)
+                .map(progressMapper::toDto);
+        Optional<PendingProgress> pending = heartbeatBuffer.pendingFor(userId, contentId);
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        return stored.map(dto -> overlay(dto, pending.get())).or(() -> Optional.of(toDto(userId, pending.get())));
     }
 
     /**
@@ -192,7 +221,7 @@ public class LearningProgressService {
         }
 
         List<LearningProgress> progressList = progressRepository.findIncompleteByUserId(userId);
-        return progressMapper.toDtoList(progressList);
+        return withPending(userId, progressMapper.toDtoList(progressList), pending -> true);
     }
 
     /**
@@ -204,5 +233,47 @@ public class LearningProgressService {
                         "指定されたユーザーとコンテンツの進捗が見つかりません: userId=" + userId + ", contentId=" + contentId));
 
         progressRepository.delete(progress);
+        heartbeatBuffer.discard(userId, contentId);
+    }
+
+    /**
+     * DB の進捗に未反映の心拍を重ねる（本人が常に最新の進捗を見られるように）
+     *
+     * @param includeNew DB にまだ行がない心拍のうち結果に含めるもの
+     */
+    private List<LearningProgressDto> withPending(UUID userId, List<LearningProgressDto> stored,
+            Predicate<PendingProgress> includeNew) {
+        Map<Long, PendingProgress> pending = heartbeatBuffer.pendingFor(userId);
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        List<LearningProgressDto> merged = new ArrayList<>(stored.size());
+        for (LearningProgressDto dto : stored) {
+            PendingProgress buffered = pending.remove(dto.getContentId());
+            merged.add(buffered != null ? overlay(dto, buffered) : dto);
+        }
+        pending.values().stream()
+                .filter(includeNew)
+                .sorted(Comparator.comparing(PendingProgress::reportedAt))
+                .forEach(buffered -> merged.add(0, toDto(userId, buffered))); // 新しい報告を先頭に
+        return merged;
+    }
+
+    private static LearningProgressDto overlay(LearningProgressDto dto, PendingProgress pending) {
+        if (pending.progressPercent().compareTo(dto.getProgressPercent()) > 0) {
+            dto.setProgressPercent(pending.progressPercent());
+            dto.setUpdatedAt(pending.reportedAt());
+        }
+        return dto;
+    }
+
+    private static LearningProgressDto toDto(UUID userId, PendingProgress pending) {
+        LearningProgressDto dto = new LearningProgressDto();
+        dto.setUserId(userId);
+        dto.setContentId(pending.contentId());
+        dto.setContentTitle(pending.contentTitle());
+        dto.setProgressPercent(pending.progressPercent());
+        dto.setUpdatedAt(pending.reportedAt());
+        return dto;
     }
 }
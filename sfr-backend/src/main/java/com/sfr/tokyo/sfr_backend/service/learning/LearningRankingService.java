@@ -7,6 +7,7 @@ import com.sfr.tokyo.sfr_backend.repository.learning.LearningRankingRepository;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningPointRepository;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningUserBadgeRepository;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningProgressRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,7 +15,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -39,6 +42,9 @@ public class LearningRankingService {
     @Autowired
     private LearningProgressRepository progressRepository;
 
+    @Autowired
+    private BatchWriter batchWriter;
+
     /**
      * グローバルランキング一覧取得
      */
@@ -138,12 +144,7 @@ public class LearningRankingService {
      */
     public void updateAllRankings() {
         // 全てのスペースIDを取得
-        List<Long> spaceIds = rankingRepository.findAll()
-                .stream()
-                .map(LearningRanking::getSpaceId)
-                .filter(id -> id != null)
-                .distinct()
-                .collect(Collectors.toList());
+        List<Long> spaceIds = rankingRepository.findDistinctSpaceIds();
 
         // グローバルランキング更新
         updateGlobalPointsRanking();
@@ -200,46 +201,35 @@ public class LearningRankingService {
      * グローバルポイントランキング更新
      */
     private void updateGlobalPointsRanking() {
-        var globalPoints = pointRepository.findGlobalPointsRanking();
-
-        for (int i = 0; i < globalPoints.size(); i++) {
-            var pointRecord = globalPoints.get(i);
-            UUID userId = pointRecord.getUserId();
-            BigDecimal score = BigDecimal.valueOf(pointRecord.getPoints());
+        List<RankingCandidate> candidates = pointRepository.findGlobalPointsRanking().stream()
+                .map(pointRecord -> new RankingCandidate(pointRecord.getUserId(),
+                        BigDecimal.valueOf(pointRecord.getPoints())))
+                .collect(Collectors.toList());
 
-            updateOrCreateRanking(userId, null, RankingType.POINTS, i + 1, score);
-        }
+        applyRanking(null, RankingType.POINTS, candidates);
     }
 
     /**
      * スペース特定ポイントランキング更新
      */
     private void updateSpacePointsRanking(Long spaceId) {
-        var spacePoints = pointRepository.findSpacePointsRanking(spaceId);
-
-        for (int i = 0; i < spacePoints.size(); i++) {
-            var pointRecord = spacePoints.get(i);
-            UUID userId = pointRecord.getUserId();
-            BigDecimal score = BigDecimal.valueOf(pointRecord.getPoints());
+        List<RankingCandidate> candidates = pointRepository.findSpacePointsRanking(spaceId).stream()
+                .map(pointRecord -> new RankingCandidate(pointRecord.getUserId(),
+                        BigDecimal.valueOf(pointRecord.getPoints())))
+                .collect(Collectors.toList());
 
-            updateOrCreateRanking(userId, spaceId, RankingType.POINTS, i + 1, score);
-        }
+        applyRanking(spaceId, RankingType.POINTS, candidates);
     }
 
     /**
      * グローバルバッジランキング更新
      */
     private void updateGlobalBadgesRanking() {
-        var badgeStats = userBadgeRepository.findTopBadgeEarners();
-
-        for (int i = 0; i < badgeStats.size(); i++) {
-            Object[] stat = badgeStats.get(i);
-            UUID userId = (UUID) stat[0];
-            Long badgeCount = (Long) stat[1];
-            BigDecimal score = BigDecimal.valueOf(badgeCount);
+        List<RankingCandidate> candidates = userBadgeRepository.findTopBadgeEarners().stream()
+                .map(stat -> new RankingCandidate((UUID) stat[0], BigDecimal.valueOf((Long) stat[1])))
+                .collect(Collectors.toList());
 
-            updateOrCreateRanking(userId, null, RankingType.BADGES, i + 1, score);
-        }
+        applyRanking(null, RankingType.BADGES, candidates);
     }
 
     /**
@@ -258,33 +248,29 @@ public class LearningRankingService {
         // ポイント、バッジ、進捗を総合的に評価
         // 重み付け計算: ポイント*0.4 + バッジ数*100*0.3 + 進捗完了率*1000*0.3
 
-        List<LearningRanking> allUsers = rankingRepository.findAll();
+        List<LearningRanking> pointRankings = rankingRepository
+                .findBySpaceIdIsNullAndRankingTypeOrderByRankPosition(RankingType.POINTS);
         List<RankingCandidate> candidates = new ArrayList<>();
 
-        for (LearningRanking ranking : allUsers) {
-            if (ranking.getSpaceId() == null && ranking.getRankingType() == RankingType.POINTS) {
-                UUID userId = ranking.getUserId();
+        for (LearningRanking ranking : pointRankings) {
+            UUID userId = ranking.getUserId();
 
-                // 統計データ収集
-                Integer totalPoints = ranking.getTotalPoints() != null ? ranking.getTotalPoints() : 0;
-                Integer badgeCount = ranking.getBadgeCount() != null ? ranking.getBadgeCount() : 0;
+            // 統計データ収集
+            Integer totalPoints = ranking.getTotalPoints() != null ? ranking.getTotalPoints() : 0;
+            Integer badgeCount = ranking.getBadgeCount() != null ? ranking.getBadgeCount() : 0;
 
-                // 総合スコア計算
-                BigDecimal overallScore = BigDecimal.valueOf(
-                        totalPoints * 0.4 + badgeCount * 100 * 0.3);
+            // 総合スコア計算
+            BigDecimal overallScore = BigDecimal.valueOf(
+                    totalPoints * 0.4 + badgeCount * 100 * 0.3);
 
-                candidates.add(new RankingCandidate(userId, overallScore));
-            }
+            candidates.add(new RankingCandidate(userId, overallScore));
         }
 
         // スコア降順でソート
         candidates.sort((a, b) -> b.score.compareTo(a.score));
 
         // ランキング更新
-        for (int i = 0; i < candidates.size(); i++) {
-            RankingCandidate candidate = candidates.get(i);
-            updateOrCreateRanking(candidate.userId, null, RankingType.OVERALL, i + 1, candidate.score);
-        }
+        applyRanking(null, RankingType.OVERALL, candidates);
     }
 
     /**
@@ -298,21 +284,35 @@ public class LearningRankingService {
 
     /**
      * ランキング更新または作成
+     * 対象スコープの既存ランキングを1回で読み込み、順位の更新と新規作成をまとめて書き込む
+     *
+     * @param candidates 順位順の候補者（先頭が1位）
      */
-    private void updateOrCreateRanking(UUID userId, Long spaceId, RankingType rankingType,
-            Integer position, BigDecimal score) {
-        Optional<LearningRanking> existingOpt = spaceId == null
-                ? rankingRepository.findByUserIdAndRankingType(userId, rankingType)
-                : rankingRepository.findByUserIdAndSpaceIdAndRankingType(userId, spaceId, rankingType);
-
-        if (existingOpt.isPresent()) {
-            LearningRanking existing = existingOpt.get();
-            existing.updateRanking(position, score);
-            rankingRepository.save(existing);
-        } else {
-            LearningRanking newRanking = new LearningRanking(userId, spaceId, rankingType, position, score);
-            rankingRepository.save(newRanking);
+    private void applyRanking(Long spaceId, RankingType rankingType, List<RankingCandidate> candidates) {
+        List<LearningRanking> current = spaceId == null
+                ? rankingRepository.findBySpaceIdIsNullAndRankingTypeOrderByRankPosition(rankingType)
+                : rankingRepository.findBySpaceIdAndRankingTypeOrderByRankPosition(spaceId, rankingType);
+        Map<UUID, LearningRanking> existingByUser = new HashMap<>();
+        for (LearningRanking ranking : current) {
+            existingByUser.putIfAbsent(ranking.getUserId(), ranking);
         }
+
+        List<LearningRanking> created = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            RankingCandidate candidate = candidates.get(i);
+            LearningRanking existing = existingByUser.get(candidate.userId);
+            if (existing != null) {
+                existing.updateRanking(i + 1, candidate.score);
+            } else {
+                LearningRanking newRanking = new LearningRanking(candidate.userId, spaceId, rankingType, i + 1,
+                        candidate.score);
+                existingByUser.put(candidate.userId, newRanking);
+                created.add(newRanking);
+            }
+        }
+
+        // 既存分の UPDATE と新規分の INSERT を batch_size 件ずつ送る
+        batchWriter.insertAll(created);
     }
 
     /**
@@ -1,13 +1,28 @@
 package com.sfr.tokyo.sfr_backend.service.learning;
 
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationCommandBatchDto;
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationCommandBatchDto.Command;
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationCommandBatchDto.CommandType;
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationCommandResultDto;
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningSimulationDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation.SimulationType;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation.SimulationStatus;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulationStateDelta.Channel;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningSimulationRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.SimulationProgressRow;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
+import com.sfr.tokyo.sfr_backend.service.learning.simulation.SimulationStateStore;
+import com.sfr.tokyo.sfr_backend.service.learning.simulation.SimulationStateStore.Draft;
+import com.sfr.tokyo.sfr_backend.service.learning.simulation.SimulationStateStore.Snapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -16,7 +31,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -32,6 +49,12 @@ import java.util.stream.Collectors;
 public class LearningSimulationService {
 
     private final LearningSimulationRepository simulationRepository;
+    private final DeadlineScheduler deadlineScheduler;
+    private final SimulationStateStore stateStore;
+
+    /** 実行中のまま放置されたシミュレーションをタイムアウトとするまでの時間 */
+    @Value("${sfr.learning.simulation.timeout-hours:24}")
+    private long timeoutHours;
 
     /**
      * シミュレーションを作成する
@@ -83,6 +106,9 @@ public class LearningSimulationService {
 
         simulation.startSimulation();
         LearningSimulation savedSimulation = simulationRepository.save(simulation);
+        // 以降のアクセスで期限が延びた分は発火時に登録し直される
+        deadlineScheduler.schedule(DeadlineKind.SIMULATION_TIMEOUT, savedSimulation.getId(),
+                savedSimulation.getLastAccessedAt().plusHours(timeoutHours));
 
         log.info("Started simulation with ID: {}", savedSimulation.getId());
         return convertToDto(savedSimulation);
@@ -163,13 +189,10 @@ public class LearningSimulationService {
     public LearningSimulationDto updateProgress(Long id, BigDecimal progressPercentage) {
         log.info("Updating progress for simulation ID: {} to {}%", id, progressPercentage);
 
-        LearningSimulation simulation = simulationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Simulation not found with ID: " + id));
-
-        simulation.updateProgress(progressPercentage);
-        LearningSimulation savedSimulation = simulationRepository.save(simulation);
-
-        return convertToDto(savedSimulation);
+        return applyAndLoad(id, Command.builder()
+                .type(CommandType.PROGRESS)
+                .progressPercentage(progressPercentage)
+                .build());
     }
 
     /**
@@ -179,46 +202,86 @@ public class LearningSimulationService {
     public LearningSimulationDto updateStepProgress(Long id, Integer currentStep) {
         log.info("Updating step progress for simulation ID: {} to step: {}", id, currentStep);
 
-        LearningSimulation simulation = simulationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Simulation not found with ID: " + id));
-
-        simulation.updateStepProgress(currentStep);
-        LearningSimulation savedSimulation = simulationRepository.save(simulation);
-
-        return convertToDto(savedSimulation);
+        return applyAndLoad(id, Command.builder()
+                .type(CommandType.STEP)
+                .currentStep(currentStep)
+                .build());
     }
 
     /**
-     * 状態データを更新する
+     * 状態データを更新する（現在の状態との差分だけを保存する）
      */
     @Transactional
     public LearningSimulationDto updateStateData(Long id, String stateData) {
         log.info("Updating state data for simulation ID: {}", id);
 
-        LearningSimulation simulation = simulationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Simulation not found with ID: " + id));
-
-        simulation.setStateData(stateData);
-        simulation.setLastAccessedAt(LocalDateTime.now());
-        LearningSimulation savedSimulation = simulationRepository.save(simulation);
-
-        return convertToDto(savedSimulation);
+        return applyAndLoad(id, Command.builder()
+                .type(CommandType.STATE)
+                .data(stateData)
+                .build());
     }
 
     /**
-     * フィードバックデータを更新する
+     * フィードバックデータを更新する（現在のフィードバックとの差分だけを保存する）
      */
     @Transactional
     public LearningSimulationDto updateFeedbackData(Long id, String feedbackData) {
         log.info("Updating feedback data for simulation ID: {}", id);
 
-        LearningSimulation simulation = simulationRepository.findById(id)
+        return applyAndLoad(id, Command.builder()
+                .type(CommandType.FEEDBACK)
+                .data(feedbackData)
+                .build());
+    }
+
+    /**
+     * 進行状況・状態データ・フィードバックデータへのコマンドをまとめて適用する
+     *
+     * コマンドは記載順に適用する。進行状況は1回の UPDATE で、状態データとフィードバックデータは
+     * それぞれ1件の差分として保存し、シミュレーション行の状態データ列は書き直さない。
+     */
+    @Transactional
+    public LearningSimulationCommandResultDto applyCommands(Long id, LearningSimulationCommandBatchDto batch) {
+        SimulationProgressRow progress = simulationRepository.findProgressRow(id)
                 .orElseThrow(() -> new RuntimeException("Simulation not found with ID: " + id));
 
-        simulation.setFeedbackData(feedbackData);
-        LearningSimulation savedSimulation = simulationRepository.save(simulation);
+        Integer currentStep = progress.currentStep();
+        BigDecimal progressPercentage = progress.progressPercentage();
+        Map<Channel, Draft> drafts = new EnumMap<>(Channel.class);
+        for (Command command : batch.getCommands()) {
+            switch (command.getType()) {
+                case PROGRESS -> progressPercentage = LearningSimulation.clampProgress(
+                        required(command.getProgressPercentage(), command));
+                case STEP -> {
+                    currentStep = required(command.getCurrentStep(), command);
+                    BigDecimal stepProgress = LearningSimulation.progressForStep(currentStep, progress.totalSteps());
+                    if (stepProgress != null) {
+                        progressPercentage = LearningSimulation.clampProgress(stepProgress);
+                    }
+                }
+                case STATE_PATCH -> stateStore.patch(draft(drafts, id, Channel.STATE),
+                        required(command.getPatch(), command));
+                case STATE -> stateStore.replace(draft(drafts, id, Channel.STATE), command.getData());
+                case FEEDBACK_PATCH -> stateStore.patch(draft(drafts, id, Channel.FEEDBACK),
+                        required(command.getPatch(), command));
+                case FEEDBACK -> stateStore.replace(draft(drafts, id, Channel.FEEDBACK), command.getData());
+            }
+        }
 
-        return convertToDto(savedSimulation);
+        LocalDateTime now = LocalDateTime.now();
+        simulationRepository.updateProgressColumns(id, currentStep, progressPercentage, now);
+        Draft state = drafts.get(Channel.STATE);
+        Draft feedback = drafts.get(Channel.FEEDBACK);
+
+        return LearningSimulationCommandResultDto.builder()
+                .simulationId(id)
+                .appliedCommands(batch.getCommands().size())
+                .currentStep(currentStep)
+                .progressPercentage(progressPercentage)
+                .stateVersion(state != null ? stateStore.commit(state) : null)
+                .feedbackVersion(feedback != null ? stateStore.commit(feedback) : null)
+                .lastAccessedAt(now)
+                .build();
     }
 
     /**
@@ -246,7 +309,7 @@ public class LearningSimulationService {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
         Page<LearningSimulation> simulations = simulationRepository.findByUserId(userId, pageable);
-        return simulations.map(this::convertToDto);
+        return convertToDtos(simulations);
     }
 
     /**
@@ -258,7 +321,7 @@ public class LearningSimulationService {
 
         List<LearningSimulation> simulations = simulationRepository.findByUserIdAndSimulationType(userId,
                 simulationType);
-        return simulations.stream().map(this::convertToDto).collect(Collectors.toList());
+        return convertToDtos(simulations);
     }
 
     /**
@@ -269,7 +332,7 @@ public class LearningSimulationService {
         log.info("Getting simulations for user: {} with status: {}", userId, status);
 
         List<LearningSimulation> simulations = simulationRepository.findByUserIdAndStatus(userId, status);
-        return simulations.stream().map(this::convertToDto).collect(Collectors.toList());
+        return convertToDtos(simulations);
     }
 
     /**
@@ -289,7 +352,7 @@ public class LearningSimulationService {
         Page<LearningSimulation> simulations = simulationRepository.findByMultipleCriteria(
                 userId, simulationType, status, difficultyLevel, minScore, maxScore, pageable);
 
-        return simulations.map(this::convertToDto);
+        return convertToDtos(simulations);
     }
 
     /**
@@ -336,10 +399,7 @@ public class LearningSimulationService {
         log.info("Getting recent simulations for user: {} with limit: {}", userId, limit);
 
         List<LearningSimulation> simulations = simulationRepository.findTop10ByUserIdOrderByCreatedAtDesc(userId);
-        return simulations.stream()
-                .limit(limit)
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(simulations.stream().limit(limit).collect(Collectors.toList()));
     }
 
     /**
@@ -349,17 +409,11 @@ public class LearningSimulationService {
     public void timeoutStaleSimulations(int timeoutHours) {
         log.info("Checking for stale simulations with timeout: {} hours", timeoutHours);
 
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(timeoutHours);
-        List<LearningSimulation> staleSimulations = simulationRepository.findStaleInProgressSimulations(cutoffTime);
+        // 既定のタイムアウトは DeadlineScheduler が期限到来時に処理する。ここは任意の時間を指定した一括処理
+        LocalDateTime now = LocalDateTime.now();
+        int timedOut = simulationRepository.timeoutAllStale(now.minusHours(timeoutHours), now);
 
-        for (LearningSimulation simulation : staleSimulations) {
-            simulation.setStatus(SimulationStatus.TIMEOUT);
-            simulation.setCompletedAt(LocalDateTime.now());
-            simulationRepository.save(simulation);
-            log.info("Timed out simulation with ID: {}", simulation.getId());
-        }
-
-        log.info("Timed out {} stale simulations", staleSimulations.size());
+        log.info("Timed out {} stale simulations", timedOut);
     }
 
     /**
@@ -373,14 +427,61 @@ public class LearningSimulationService {
             throw new RuntimeException("Simulation not found with ID: " + id);
         }
 
+        stateStore.discard(id);
         simulationRepository.deleteById(id);
         log.info("Deleted simulation with ID: {}", id);
     }
 
     /**
-     * エンティティをDTOに変換する
+     * 1件のコマンドを適用し、更新後のシミュレーションを返す
+     */
+    private LearningSimulationDto applyAndLoad(Long id, Command command) {
+        applyCommands(id, LearningSimulationCommandBatchDto.builder().commands(List.of(command)).build());
+        LearningSimulation simulation = simulationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Simulation not found with ID: " + id));
+        return convertToDto(simulation);
+    }
+
+    private Draft draft(Map<Channel, Draft> drafts, Long id, Channel channel) {
+        return drafts.computeIfAbsent(channel, key -> stateStore.open(id, key));
+    }
+
+    private static <T> T required(T value, Command command) {
+        if (value == null) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "Missing value for command: " + command.getType());
+        }
+        return value;
+    }
+
+    /**
+     * エンティティをDTOに変換する（状態データは差分を適用した現在の内容）
      */
     private LearningSimulationDto convertToDto(LearningSimulation simulation) {
+        return convertToDto(simulation,
+                stateStore.resolve(Snapshot.of(simulation, Channel.STATE)),
+                stateStore.resolve(Snapshot.of(simulation, Channel.FEEDBACK)));
+    }
+
+    /**
+     * 複数件をDTOに変換する（差分はチャネルごとに1回のクエリで読む）
+     */
+    private List<LearningSimulationDto> convertToDtos(List<LearningSimulation> simulations) {
+        Map<Long, String> states = stateStore.resolveAll(simulations.stream()
+                .map(simulation -> Snapshot.of(simulation, Channel.STATE)).toList());
+        Map<Long, String> feedbacks = stateStore.resolveAll(simulations.stream()
+                .map(simulation -> Snapshot.of(simulation, Channel.FEEDBACK)).toList());
+        return simulations.stream()
+                .map(simulation -> convertToDto(simulation, states.get(simulation.getId()),
+                        feedbacks.get(simulation.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private Page<LearningSimulationDto> convertToDtos(Page<LearningSimulation> simulations) {
+        return new PageImpl<>(convertToDtos(simulations.getContent()), simulations.getPageable(),
+                simulations.getTotalElements());
+    }
+
+    private LearningSimulationDto convertToDto(LearningSimulation simulation, String stateData, String feedbackData) {
         LearningSimulationDto dto = new LearningSimulationDto();
         dto.setId(simulation.getId());
         dto.setUserId(simulation.getUserId());
@@ -400,9 +501,9 @@ public class LearningSimulationService {
         dto.setAttemptsCount(simulation.getAttemptsCount());
         dto.setMaxAttempts(simulation.getMaxAttempts());
         dto.setConfigurationData(simulation.getConfigurationData());
-        dto.setStateData(simulation.getStateData());
+        dto.setStateData(stateData);
         dto.setResultData(simulation.getResultData());
-        dto.setFeedbackData(simulation.getFeedbackData());
+        dto.setFeedbackData(feedbackData);
         dto.setStartedAt(simulation.getStartedAt());
         dto.setCompletedAt(simulation.getCompletedAt());
         dto.setLastAccessedAt(simulation.getLastAccessedAt());
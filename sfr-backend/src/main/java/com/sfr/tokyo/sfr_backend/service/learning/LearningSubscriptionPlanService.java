@@ -4,9 +4,12 @@ import com.sfr.tokyo.sfr_backend.entity.learning.LearningSubscriptionPlan;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSubscriptionPlan.TierLevel;
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningSubscriptionPlanDto;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningSubscriptionPlanRepository;
+import com.sfr.tokyo.sfr_backend.service.learning.catalog.CatalogSnapshot;
+import com.sfr.tokyo.sfr_backend.service.learning.catalog.SubscriptionPlanCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -15,6 +18,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -32,6 +37,13 @@ import java.util.HashMap;
 public class LearningSubscriptionPlanService {
 
     private final LearningSubscriptionPlanRepository planRepository;
+    private final SubscriptionPlanCatalog planCatalog;
+
+    private static final EnumSet<TierLevel> ENTERPRISE_TIERS = EnumSet.of(TierLevel.ENTERPRISE, TierLevel.BUSINESS,
+            TierLevel.UNLIMITED);
+    private static final EnumSet<TierLevel> EDUCATIONAL_TIERS = EnumSet.of(TierLevel.STUDENT, TierLevel.TEACHER);
+    private static final EnumSet<TierLevel> PERSONAL_TIERS = EnumSet.of(TierLevel.FREE, TierLevel.BASIC,
+            TierLevel.STANDARD, TierLevel.PREMIUM);
 
     // ========== CRUD操作 ==========
 
@@ -61,6 +73,7 @@ public class LearningSubscriptionPlanService {
             }
 
             LearningSubscriptionPlan savedPlan = planRepository.save(plan);
+            planCatalog.invalidate();
             log.info("サブスクリプションプランが作成されました: ID={}, Name={}, Tier={}",
                     savedPlan.getId(), savedPlan.getName(), savedPlan.getTierLevel());
 
@@ -104,6 +117,7 @@ public class LearningSubscriptionPlanService {
             }
 
             LearningSubscriptionPlan updatedPlan = planRepository.save(plan);
+            planCatalog.invalidate();
             log.info("プランが更新されました: ID={}, Name={}", planId, updatedPlan.getName());
 
             return convertToDto(updatedPlan);
@@ -120,6 +134,7 @@ public class LearningSubscriptionPlanService {
     public void deletePlan(Long planId) {
         try {
             planRepository.softDeletePlan(planId);
+            planCatalog.invalidate();
             log.info("プランが削除されました: ID={}", planId);
         } catch (Exception e) {
             log.error("プラン削除中にエラーが発生しました: ID={}, Error={}", planId, e.getMessage(), e);
@@ -134,6 +149,7 @@ public class LearningSubscriptionPlanService {
     public void restorePlan(Long planId) {
         try {
             planRepository.restorePlan(planId);
+            planCatalog.invalidate();
             log.info("プランが復旧されました: ID={}", planId);
         } catch (Exception e) {
             log.error("プラン復旧中にエラーが発生しました: ID={}, Error={}", planId, e.getMessage(), e);
@@ -147,110 +163,81 @@ public class LearningSubscriptionPlanService {
      * 全アクティブプラン取得
      */
     public List<LearningSubscriptionPlanDto> getAllActivePlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findActivePlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().list());
     }
 
     /**
      * 層級別プラン取得
      */
     public List<LearningSubscriptionPlanDto> getPlansByTierLevel(TierLevel tierLevel) {
-        List<LearningSubscriptionPlan> plans = planRepository.findByTierLevel(tierLevel);
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().eq(SubscriptionPlanCatalog.TIER, tierLevel).list());
     }
 
     /**
      * 推奨プラン取得
      */
     public List<LearningSubscriptionPlanDto> getRecommendedPlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findRecommendedPlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().is(SubscriptionPlanCatalog.RECOMMENDED).list());
     }
 
     /**
      * 人気プラン取得
      */
     public List<LearningSubscriptionPlanDto> getPopularPlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findPopularPlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().is(SubscriptionPlanCatalog.POPULAR).list());
     }
 
     /**
      * 無料プラン取得
      */
     public List<LearningSubscriptionPlanDto> getFreePlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findFreePlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().is(SubscriptionPlanCatalog.FREE).list());
     }
 
     /**
      * 試用期間ありプラン取得
      */
     public List<LearningSubscriptionPlanDto> getTrialPlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findTrialPlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().eq(SubscriptionPlanCatalog.HAS_TRIAL, true).list());
     }
 
     /**
      * エンタープライズプラン取得
      */
     public List<LearningSubscriptionPlanDto> getEnterprisePlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findEnterprisePlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().in(SubscriptionPlanCatalog.TIER, ENTERPRISE_TIERS).list());
     }
 
     /**
      * 教育プラン取得
      */
     public List<LearningSubscriptionPlanDto> getEducationalPlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findEducationalPlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().in(SubscriptionPlanCatalog.TIER, EDUCATIONAL_TIERS).list());
     }
 
     /**
      * 個人プラン取得
      */
     public List<LearningSubscriptionPlanDto> getPersonalPlans() {
-        List<LearningSubscriptionPlan> plans = planRepository.findPersonalPlans();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().in(SubscriptionPlanCatalog.TIER, PERSONAL_TIERS).list());
     }
 
     /**
      * 価格範囲でのプラン検索
      */
     public List<LearningSubscriptionPlanDto> getPlansByPriceRange(BigDecimal minFee, BigDecimal maxFee) {
-        List<LearningSubscriptionPlan> plans = planRepository.findByMonthlyFeeBetween(minFee, maxFee);
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select()
+                .between(SubscriptionPlanCatalog.MONTHLY_FEE, minFee, maxFee)
+                .list(SubscriptionPlanCatalog.BY_MONTHLY_FEE));
     }
 
     /**
      * 予算内プラン検索
      */
     public List<LearningSubscriptionPlanDto> getPlansWithinBudget(BigDecimal budget) {
-        List<LearningSubscriptionPlan> plans = planRepository.findByMonthlyFeeLessThanEqual(budget);
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select()
+                .between(SubscriptionPlanCatalog.MONTHLY_FEE, null, budget)
+                .list(SubscriptionPlanCatalog.BY_MONTHLY_FEE));
     }
 
     /**
@@ -261,9 +248,24 @@ public class LearningSubscriptionPlanService {
             Boolean hasTrial, Integer maxUsers, int page, int size, String sortBy) {
 
         Pageable pageable = createPageable(page, size, sortBy);
-        Page<LearningSubscriptionPlan> plans = planRepository.searchPlans(
-                tierLevel, minFee, maxFee, hasTrial, maxUsers, pageable);
-        return plans.map(this::convertToDto);
+        Comparator<LearningSubscriptionPlan> order = catalogOrder(sortBy);
+        if (order == null) {
+            Page<LearningSubscriptionPlan> plans = planRepository.searchPlans(
+                    tierLevel, minFee, maxFee, hasTrial, maxUsers, pageable);
+            return plans.map(this::convertToDto);
+        }
+
+        CatalogSnapshot<LearningSubscriptionPlan>.Selection selection = planCatalog.snapshot().select()
+                .eqIfPresent(SubscriptionPlanCatalog.TIER, tierLevel)
+                .eqIfPresent(SubscriptionPlanCatalog.HAS_TRIAL, hasTrial);
+        if (minFee != null || maxFee != null) {
+            selection.between(SubscriptionPlanCatalog.MONTHLY_FEE, minFee, maxFee);
+        }
+        if (maxUsers != null) {
+            // 上限なし（NULL）のプランは検索クエリと同様に含めない
+            selection.between(SubscriptionPlanCatalog.MAX_USERS, decimal(maxUsers), null);
+        }
+        return page(toDtos(selection.list(order)), pageable);
     }
 
     /**
@@ -279,20 +281,25 @@ public class LearningSubscriptionPlanService {
      * ユーザー数要件に基づくプラン検索
      */
     public List<LearningSubscriptionPlanDto> getPlansForUserCount(Integer requiredUsers) {
-        List<LearningSubscriptionPlan> plans = planRepository.findPlansForUserCount(requiredUsers);
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select()
+                .atLeastOrUnset(SubscriptionPlanCatalog.MAX_USERS, decimal(requiredUsers))
+                .list(SubscriptionPlanCatalog.BY_MONTHLY_FEE));
     }
 
     /**
      * ストレージ要件に基づくプラン検索
      */
     public List<LearningSubscriptionPlanDto> getPlansForStorageRequirement(Integer requiredStorage) {
-        List<LearningSubscriptionPlan> plans = planRepository.findPlansForStorageRequirement(requiredStorage);
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select()
+                .atLeastOrUnset(SubscriptionPlanCatalog.MAX_STORAGE_GB, decimal(requiredStorage))
+                .list(SubscriptionPlanCatalog.BY_MONTHLY_FEE));
+    }
+
+    /**
+     * 有効プラン一覧の ETag（プランが変わると変わる）
+     */
+    public String getCatalogETag() {
+        return planCatalog.snapshot().etag();
     }
 
     // ========== ソート・表示順序操作 ==========
@@ -301,40 +308,33 @@ public class LearningSubscriptionPlanService {
      * 表示順序でのプラン取得
      */
     public List<LearningSubscriptionPlanDto> getPlansOrderedBySortOrder() {
-        List<LearningSubscriptionPlan> plans = planRepository.findAllOrderBySortOrder();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().list(Comparator
+                .comparing(LearningSubscriptionPlan::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(SubscriptionPlanCatalog.BY_MONTHLY_FEE)));
     }
 
     /**
      * 価格順でのプラン取得
      */
     public List<LearningSubscriptionPlanDto> getPlansOrderedByPrice() {
-        List<LearningSubscriptionPlan> plans = planRepository.findAllOrderByPrice();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().list(SubscriptionPlanCatalog.BY_MONTHLY_FEE));
     }
 
     /**
      * 人気順でのプラン取得
      */
     public List<LearningSubscriptionPlanDto> getPlansOrderedByPopularity() {
-        List<LearningSubscriptionPlan> plans = planRepository.findAllOrderByPopularity();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().list(Comparator
+                .comparing((LearningSubscriptionPlan plan) -> Boolean.TRUE.equals(plan.getIsPopular())).reversed()
+                .thenComparing(plan -> Boolean.TRUE.equals(plan.getIsRecommended()), Comparator.reverseOrder())));
     }
 
     /**
      * 最新順でのプラン取得
      */
     public List<LearningSubscriptionPlanDto> getPlansOrderedByNewest() {
-        List<LearningSubscriptionPlan> plans = planRepository.findAllOrderByNewest();
-        return plans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(planCatalog.snapshot().select().list(Comparator.comparing(
+                LearningSubscriptionPlan::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))));
     }
 
     // ========== プラン管理操作 ==========
@@ -346,6 +346,7 @@ public class LearningSubscriptionPlanService {
     public void updateSortOrder(Long planId, Integer sortOrder) {
         try {
             planRepository.updateSortOrder(planId, sortOrder);
+            planCatalog.invalidate();
             log.info("プランの表示順序が更新されました: ID={}, SortOrder={}", planId, sortOrder);
         } catch (Exception e) {
             log.error("表示順序更新中にエラーが発生しました: ID={}, Error={}", planId, e.getMessage(), e);
@@ -360,6 +361,7 @@ public class LearningSubscriptionPlanService {
     public void updateActiveStatus(Long planId, Boolean isActive) {
         try {
             planRepository.updateActiveStatus(planId, isActive);
+            planCatalog.invalidate();
             log.info("プランのアクティブ状態が更新されました: ID={}, Active={}", planId, isActive);
         } catch (Exception e) {
             log.error("アクティブ状態更新中にエラーが発生しました: ID={}, Error={}", planId, e.getMessage(), e);
@@ -374,6 +376,7 @@ public class LearningSubscriptionPlanService {
     public void updateRecommendedStatus(Long planId, Boolean isRecommended) {
         try {
             planRepository.updateRecommendedStatus(planId, isRecommended);
+            planCatalog.invalidate();
             log.info("プランの推奨状態が更新されました: ID={}, Recommended={}", planId, isRecommended);
         } catch (Exception e) {
             log.error("推奨状態更新中にエラーが発生しました: ID={}, Error={}", planId, e.getMessage(), e);
@@ -388,6 +391,7 @@ public class LearningSubscriptionPlanService {
     public void updatePopularStatus(Long planId, Boolean isPopular) {
         try {
             planRepository.updatePopularStatus(planId, isPopular);
+            planCatalog.invalidate();
             log.info("プランの人気状態が更新されました: ID={}, Popular={}", planId, isPopular);
         } catch (Exception e) {
             log.error("人気状態更新中にエラーが発生しました: ID={}, Error={}", planId, e.getMessage(), e);
@@ -402,6 +406,7 @@ public class LearningSubscriptionPlanService {
     public void updateMonthlyFee(Long planId, BigDecimal monthlyFee) {
         try {
             planRepository.updateMonthlyFee(planId, monthlyFee);
+            planCatalog.invalidate();
 
             // 年額割引率の再計算
             LearningSubscriptionPlan plan = planRepository.findById(planId).orElse(null);
@@ -431,6 +436,7 @@ public class LearningSubscriptionPlanService {
             BigDecimal discountPercent = plan.calculateYearlyDiscountPercent();
 
             planRepository.updateYearlyFee(planId, yearlyFee, discountPercent);
+            planCatalog.invalidate();
             log.info("プランの年額料金が更新されました: ID={}, YearlyFee={}, Discount={}%",
                     planId, yearlyFee, discountPercent);
         } catch (Exception e) {
@@ -446,6 +452,7 @@ public class LearningSubscriptionPlanService {
     public void updateTrialSettings(Long planId, Boolean hasTrial, Integer trialDays) {
         try {
             planRepository.updateTrialSettings(planId, hasTrial, trialDays);
+            planCatalog.invalidate();
             log.info("プランの試用期間設定が更新されました: ID={}, HasTrial={}, TrialDays={}",
                     planId, hasTrial, trialDays);
         } catch (Exception e) {
@@ -461,6 +468,7 @@ public class LearningSubscriptionPlanService {
     public void updateCapacityLimits(Long planId, Integer maxUsers, Integer maxStorageGb) {
         try {
             planRepository.updateCapacityLimits(planId, maxUsers, maxStorageGb);
+            planCatalog.invalidate();
             log.info("プランの容量制限が更新されました: ID={}, MaxUsers={}, MaxStorage={}GB",
                     planId, maxUsers, maxStorageGb);
         } catch (Exception e) {
@@ -476,6 +484,7 @@ public class LearningSubscriptionPlanService {
     public void updateFeatures(Long planId, String features) {
         try {
             planRepository.updateFeatures(planId, features);
+            planCatalog.invalidate();
             log.info("プランの機能一覧が更新されました: ID={}", planId);
         } catch (Exception e) {
             log.error("機能一覧更新中にエラーが発生しました: ID={}, Error={}", planId, e.getMessage(), e);
@@ -593,6 +602,7 @@ public class LearningSubscriptionPlanService {
     public void clearAllRecommendedStatus() {
         try {
             planRepository.clearAllRecommendedStatus();
+            planCatalog.invalidate();
             log.info("全プランの推奨状態がリセットされました");
         } catch (Exception e) {
             log.error("推奨状態リセット中にエラーが発生しました: {}", e.getMessage(), e);
@@ -607,6 +617,7 @@ public class LearningSubscriptionPlanService {
     public void clearAllPopularStatus() {
         try {
             planRepository.clearAllPopularStatus();
+            planCatalog.invalidate();
             log.info("全プランの人気状態がリセットされました");
         } catch (Exception e) {
             log.error("人気状態リセット中にエラーが発生しました: {}", e.getMessage(), e);
@@ -621,6 +632,7 @@ public class LearningSubscriptionPlanService {
     public void reorderPlansInTierLevel(TierLevel tierLevel) {
         try {
             planRepository.reorderPlansInTierLevel(tierLevel.name());
+            planCatalog.invalidate();
             log.info("層級内の表示順序が再整理されました: TierLevel={}", tierLevel);
         } catch (Exception e) {
             log.error("表示順序再整理中にエラーが発生しました: TierLevel={}, Error={}", tierLevel, e.getMessage(), e);
@@ -635,6 +647,7 @@ public class LearningSubscriptionPlanService {
     public void activateMultiplePlans(List<Long> planIds) {
         try {
             planRepository.activateMultiplePlans(planIds);
+            planCatalog.invalidate();
             log.info("複数プランがアクティブ化されました: Count={}", planIds.size());
         } catch (Exception e) {
             log.error("一括アクティブ化中にエラーが発生しました: {}", e.getMessage(), e);
@@ -649,6 +662,7 @@ public class LearningSubscriptionPlanService {
     public void deactivateMultiplePlans(List<Long> planIds) {
         try {
             planRepository.deactivateMultiplePlans(planIds);
+            planCatalog.invalidate();
             log.info("複数プランが非アクティブ化されました: Count={}", planIds.size());
         } catch (Exception e) {
             log.error("一括非アクティブ化中にエラーが発生しました: {}", e.getMessage(), e);
@@ -711,7 +725,7 @@ public class LearningSubscriptionPlanService {
     public List<LearningSubscriptionPlanDto> getRecommendedPlansForRequirements(
             Integer requiredUsers, Integer requiredStorage, BigDecimal budget) {
 
-        List<LearningSubscriptionPlan> plans = planRepository.findActivePlans();
+        List<LearningSubscriptionPlan> plans = planCatalog.snapshot().select().list();
 
         return plans.stream()
                 .filter(plan -> {
@@ -876,6 +890,35 @@ public class LearningSubscriptionPlanService {
         }
     }
 
+    private List<LearningSubscriptionPlanDto> toDtos(List<LearningSubscriptionPlan> plans) {
+        return plans.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    private static BigDecimal decimal(Integer value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+
+    /**
+     * カタログで並べ替えられる項目の順序（それ以外は null を返し DB で検索する）
+     */
+    private static Comparator<LearningSubscriptionPlan> catalogOrder(String sortBy) {
+        if (sortBy == null || "sortOrder".equals(sortBy)) {
+            return SubscriptionPlanCatalog.BY_SORT_ORDER;
+        }
+        if ("monthlyFee".equals(sortBy)) {
+            return SubscriptionPlanCatalog.BY_MONTHLY_FEE.thenComparing(SubscriptionPlanCatalog.BY_SORT_ORDER);
+        }
+        return null;
+    }
+
+    private static <D> Page<D> page(List<D> all, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
     /**
      * Pageable作成
      */
@@ -2,7 +2,9 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningSurveyDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningSurvey;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningSurveyRepository;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +27,9 @@ public class LearningSurveyService {
     @Autowired
     private LearningSurveyRepository learningSurveyRepository;
 
+    @Autowired
+    private DeadlineScheduler deadlineScheduler;
+
     // CRUD操作
 
     /**
@@ -41,6 +46,7 @@ public class LearningSurveyService {
         survey.setUpdatedAt(LocalDateTime.now());
 
         LearningSurvey savedSurvey = learningSurveyRepository.save(survey);
+        deadlineScheduler.schedule(DeadlineKind.SURVEY_EXPIRY, savedSurvey.getId(), savedSurvey.getDueDate());
         return convertToDto(savedSurvey);
     }
 
@@ -58,6 +64,7 @@ public class LearningSurveyService {
         survey.setUpdatedAt(LocalDateTime.now());
 
         LearningSurvey savedSurvey = learningSurveyRepository.save(survey);
+        deadlineScheduler.schedule(DeadlineKind.SURVEY_EXPIRY, savedSurvey.getId(), savedSurvey.getDueDate());
         return convertToDto(savedSurvey);
     }
 
@@ -500,20 +507,8 @@ public class LearningSurveyService {
      * 期限切れアンケートの一括処理
      */
     public int processExpiredSurveys() {
-        List<LearningSurvey> expiredSurveys = learningSurveyRepository.findExpiredSurveys(LocalDateTime.now());
-        int processedCount = 0;
-
-        for (LearningSurvey survey : expiredSurveys) {
-            if (survey.getSurveyStatus() != LearningSurvey.SurveyStatus.COMPLETED &&
-                    survey.getSurveyStatus() != LearningSurvey.SurveyStatus.EXPIRED) {
-                survey.setSurveyStatus(LearningSurvey.SurveyStatus.EXPIRED);
-                survey.setUpdatedAt(LocalDateTime.now());
-                learningSurveyRepository.save(survey);
-                processedCount++;
-            }
-        }
-
-        return processedCount;
+        // 回答期限は作成・更新時に DeadlineScheduler へ登録済み。到来済みの分を一括で期限切れにする
+        return deadlineScheduler.fireDue(DeadlineKind.SURVEY_EXPIRY).applied();
     }
 
     // Utility Methods
@@ -2,7 +2,15 @@ package com.sfr.tokyo.sfr_backend.service.learning;
 
 import com.sfr.tokyo.sfr_backend.dto.learning.LearningTopicDto;
 import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopic;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
 import com.sfr.tokyo.sfr_backend.repository.learning.LearningTopicRepository;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
+import com.sfr.tokyo.sfr_backend.service.search.InterestProfileService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocumentType;
+import com.sfr.tokyo.sfr_backend.service.search.SearchDocuments;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchHit;
+import com.sfr.tokyo.sfr_backend.service.search.SearchResults;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,6 +20,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,9 +31,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class LearningTopicService {
 
+    private static final int SIMILAR_TOPIC_LIMIT = 5;
+    private static final int TOPICS_OF_INTEREST_LIMIT = 10;
+    /** 種別・状態で除外される分を見込んだ候補数 */
+    private static final int RECOMMENDATION_CANDIDATES = 50;
+
     @Autowired
     private LearningTopicRepository topicRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private InterestProfileService interestProfileService;
+
+    @Autowired
+    private DeadlineScheduler deadlineScheduler;
+
     // CRUD操作
 
     /**
@@ -47,6 +70,10 @@ public class LearningTopicService {
         }
 
         LearningTopic savedTopic = topicRepository.save(topic);
+        deadlineScheduler.schedule(DeadlineKind.TOPIC_AUTO_CLOSE, savedTopic.getId(), savedTopic.getAutoCloseAt());
+        searchIndexService.index(SearchDocuments.topic(savedTopic));
+        interestProfileService.recordActivity(savedTopic.getCreatorId(), SearchDocumentType.TOPIC, savedTopic.getId(),
+                InterestProfileService.Signal.AUTHOR);
         return convertToDto(savedTopic);
     }
 
@@ -77,6 +104,8 @@ public class LearningTopicService {
         existingTopic.setAutoCloseAt(topicDto.getAutoCloseAt());
 
         LearningTopic savedTopic = topicRepository.save(existingTopic);
+        deadlineScheduler.schedule(DeadlineKind.TOPIC_AUTO_CLOSE, savedTopic.getId(), savedTopic.getAutoCloseAt());
+        searchIndexService.sync(SearchDocumentType.TOPIC, savedTopic.getId(), SearchDocuments.topic(savedTopic));
         return convertToDto(savedTopic);
     }
 
@@ -90,6 +119,7 @@ public class LearningTopicService {
 
         topic.setDeletedAt(LocalDateTime.now());
         topicRepository.save(topic);
+        searchIndexService.remove(SearchDocumentType.TOPIC, id);
     }
 
     // トピック管理機能
@@ -223,6 +253,8 @@ public class LearningTopicService {
      */
     public LearningTopicDto updateLastActivity(Long id, UUID userId) {
         topicRepository.updateLastActivity(id, LocalDateTime.now(), userId);
+        interestProfileService.recordActivity(userId, SearchDocumentType.TOPIC, id,
+                InterestProfileService.Signal.ACTIVITY);
         return getTopic(id).orElseThrow(() -> new RuntimeException("トピックが見つかりません: " + id));
     }
 
@@ -232,6 +264,8 @@ public class LearningTopicService {
     public LearningTopicDto updateLastComment(Long id, Long commentId, UUID userId) {
         topicRepository.updateLastComment(id, commentId, LocalDateTime.now(), userId);
         topicRepository.incrementCommentCount(id);
+        interestProfileService.recordActivity(userId, SearchDocumentType.TOPIC, id,
+                InterestProfileService.Signal.COMMENT);
         return getTopic(id).orElseThrow(() -> new RuntimeException("トピックが見つかりません: " + id));
     }
 
@@ -429,11 +463,13 @@ public class LearningTopicService {
     }
 
     /**
-     * タグ検索
+     * タグ検索（タグ完全一致・全文検索インデックス）
      */
     @Transactional(readOnly = true)
     public List<LearningTopicDto> searchByTag(String tag) {
-        return topicRepository.searchByTag(tag).stream()
+        return SearchResults.hydrate(searchIndexService.searchByTag(SearchDocumentType.TOPIC, tag, null, null),
+                topicRepository::findAllById, LearningTopic::getId, topic -> topic.getDeletedAt() == null)
+                .stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -451,20 +487,43 @@ public class LearningTopicService {
 
     /**
      * 類似トピック検索
+     * 検索インデックス上の特徴語の近さで探し、トピックが未索引の場合はタイトルの部分一致で探す
      */
     @Transactional(readOnly = true)
     public List<LearningTopicDto> findSimilarTopics(Long topicId, String title, LearningTopic.TopicType type) {
-        return topicRepository.findSimilarTopics(topicId, title, type).stream()
+        List<SearchHit> hits = searchIndexService.similar(SearchDocumentType.TOPIC, topicId, null, null,
+                RECOMMENDATION_CANDIDATES);
+        if (hits.isEmpty()) {
+            return topicRepository.findSimilarTopics(topicId, title, type).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+        }
+        return SearchResults.hydrate(hits, topicRepository::findAllById, LearningTopic::getId,
+                topic -> topic.getDeletedAt() == null && (type == null || type == topic.getTopicType()))
+                .stream()
+                .limit(SIMILAR_TOPIC_LIMIT)
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
     /**
      * ユーザーの関心トピック取得
+     * 行動履歴から作った関心プロファイルで探し、プロファイルが無い場合は参加フォーラムの新着で代用する
      */
     @Transactional(readOnly = true)
     public List<LearningTopicDto> getTopicsOfInterest(UUID userId) {
-        return topicRepository.findTopicsOfInterest(userId).stream()
+        List<SearchHit> hits = interestProfileService.recommend(userId, SearchDocumentType.TOPIC, Set.of(),
+                RECOMMENDATION_CANDIDATES);
+        if (hits.isEmpty()) {
+            return topicRepository.findTopicsOfInterest(userId).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+        }
+        return SearchResults.hydrate(hits, topicRepository::findAllById, LearningTopic::getId,
+                topic -> topic.getDeletedAt() == null && !userId.equals(topic.getCreatorId())
+                        && topic.getTopicStatus() == LearningTopic.TopicStatus.ACTIVE)
+                .stream()
+                .limit(TOPICS_OF_INTEREST_LIMIT)
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -549,23 +608,10 @@ public class LearningTopicService {
 
     /**
      * 自動クローズ処理
+     * 通常は {@link DeadlineScheduler} が期限到来時に処理する。ここでは到来済みの分をすぐに処理する
      */
     public int processAutoCloseTopics() {
-        List<LearningTopic> topicsToClose = topicRepository.findTopicsForAutoClose(LocalDateTime.now());
-        int processedCount = 0;
-
-        for (LearningTopic topic : topicsToClose) {
-            try {
-                topic.close(null, "自動クローズ - 指定日時に達しました");
-                topicRepository.save(topic);
-                processedCount++;
-            } catch (Exception e) {
-                // ログに記録（実装省略）
-                System.err.println("自動クローズ処理エラー: トピックID " + topic.getId() + " - " + e.getMessage());
-            }
-        }
-
-        return processedCount;
+        return deadlineScheduler.fireDue(DeadlineKind.TOPIC_AUTO_CLOSE).applied();
     }
 
     /**
@@ -901,12 +947,14 @@ public class LearningTopicService {
     }
 
     /**
-     * コンテンツ検索
+     * コンテンツ検索（フォーラム内・関連度順）
      */
     @Transactional(readOnly = true)
     public org.springframework.data.domain.Page<LearningTopicDto> searchByContent(Long forumId, String keyword,
             org.springframework.data.domain.Pageable pageable) {
-        return topicRepository.searchByContent(forumId, keyword, pageable)
+        return SearchResults.page(searchIndexService.search(SearchDocumentType.TOPIC, keyword, forumId, null),
+                pageable, topicRepository::findVisibleIds, topicRepository::findAllById, LearningTopic::getId,
+                topic -> topic.getDeletedAt() == null)
                 .map(this::convertToDto);
     }
 
@@ -0,0 +1,179 @@
+package com.sfr.tokyo.sfr_backend.service.learning.ailog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AI学習ログの取り込みキュー
+ *
+ * AIリクエストの処理スレッドはログをメモリ上のキューに置くだけで戻り、
+ * flush-interval-ms ごとに batch-size 件ずつ INSERT と集計の加算を1トランザクションで行う。
+ * キューが満杯のときは呼び出し元のスレッドでそのまま書き込む（ログは捨てない）。
+ * 書き込み前のログはこのノードのメモリにしかないため、停止時には残りを書き出す。
+ * ログのIDは受け付けた時点で採番済みのものをそのまま使い、書き込みが済むまで {@link #isPending(Long)} で分かる。
+ * 集計行の再構築（{@link #rebuildRollups()}）のあいだは取り込みの書き込みを止める。
+ */
+@Slf4j
+@Component
+public class AiLogIngestQueue {
+
+    private final BatchWriter batchWriter;
+    private final AiLogRollupStore rollupStore;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LearningAiLog> queue;
+    private final int batchSize;
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+    /** 取り込みの書き込み（読み取り側）と集計行の再構築（書き込み側）の排他 */
+    private final ReentrantReadWriteLock ingestLock = new ReentrantReadWriteLock();
+
+    public AiLogIngestQueue(BatchWriter batchWriter,
+            AiLogRollupStore rollupStore,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.learning.ai-log.ingest.capacity:10000}") int capacity,
+            @Value("${sfr.learning.ai-log.ingest.batch-size:500}") int batchSize) {
+        this.batchWriter = batchWriter;
+        this.rollupStore = rollupStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 呼び出し元のトランザクションに混ぜず、失敗してもそちらを巻き込まない
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * ログを受け付ける
+     */
+    public void submit(LearningAiLog entry) {
+        if (entry.getId() != null) {
+            pendingIds.add(entry.getId());
+        }
+        if (!queue.offer(entry)) {
+            log.debug("AI log ingest queue is full, writing on the caller thread");
+            ingestLock.readLock().lock();
+            try {
+                write(List.of(entry));
+            } finally {
+                ingestLock.readLock().unlock();
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 受け付けたがまだコミットしていないログか
+     */
+    public boolean isPending(Long id) {
+        return id != null && pendingIds.contains(id);
+    }
+
+    /**
+     * キューにあるログを書き出す
+     *
+     * 同時に1つしか動かないため、戻った時点で呼び出し前にキューにあったログは書き込み済み（または破棄済み）になる。
+     * 集計行の再構築中は何もせず、ログはキューに残る。
+     *
+     * @return 書き込んだ件数
+     */
+    @Scheduled(fixedDelayString = "${sfr.learning.ai-log.ingest.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        if (!ingestLock.readLock().tryLock()) {
+            log.debug("AI log rollup rebuild in progress, flush skipped");
+            return 0;
+        }
+        try {
+            int written = 0;
+            List<LearningAiLog> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                written += write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            return written;
+        } finally {
+            ingestLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 取り込みを止めて、AI学習ログ本体から集計行を作り直す
+     *
+     * 書き込み中のバッチがコミットするのを待ってから始め、再構築のトランザクションがコミットするまで次の書き込みを止める。
+     * キューに残ったログは再構築後に書き込まれ、その時点の集計行へ加算される。
+     *
+     * @return 作成した集計行の件数
+     */
+    public int rebuildRollups() {
+        ingestLock.writeLock().lock();
+        try {
+            Integer created = transactionTemplate.execute(status -> rollupStore.rebuild());
+            return created != null ? created : 0;
+        } finally {
+            ingestLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        if (written > 0) {
+            log.info("Flushed {} queued AI logs on shutdown", written);
+        }
+    }
+
+    /**
+     * バッチを1トランザクションで書き込み、失敗したら1件ずつ書き込み直す
+     */
+    private int write(List<LearningAiLog> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batchWriter.insertAll(batch);
+                rollupStore.record(batch);
+            });
+            release(batch);
+            return batch.size();
+        } catch (RuntimeException e) {
+            // IDは受け付け時に割り当てたものなので、書き込み直しでも同じIDを使う
+            if (batch.size() == 1) {
+                LearningAiLog only = batch.get(0);
+                log.warn("Dropping AI log {} for user {} session {}: {}", only.getId(), only.getUserId(),
+                        only.getSessionId(), e.getMessage());
+                release(batch);
+                return 0;
+            }
+            log.warn("Batch insert of {} AI logs failed, retrying one by one: {}", batch.size(), e.getMessage());
+            int written = 0;
+            for (LearningAiLog entry : batch) {
+                written += write(List.of(entry));
+            }
+            return written;
+        }
+    }
+
+    private void release(List<LearningAiLog> batch) {
+        batch.forEach(entry -> {
+            if (entry.getId() != null) {
+                pendingIds.remove(entry.getId());
+            }
+        });
+    }
+}
@@ -0,0 +1,378 @@
+package com.sfr.tokyo.sfr_backend.service.learning.ailog;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.AiType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.Granularity;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.ScopeType;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiLogRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiLogRollupRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.AiLogBucketAggregate;
+import com.sfr.tokyo.sfr_backend.repository.projection.AiLogRollupTotals;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AI学習ログの分・時間別集計
+ *
+ * 取り込んだログをユーザー・スペース・全体ごと、AIタイプごとの分バケットと時間バケットへ
+ * 呼び出し元のトランザクション内で加算する。同じバケットに入るログはメモリ上でまとめてから1回の UPDATE にする。
+ * 統計の読み出しは時間バケットの合計で、期間指定の読み出しは先頭の端数だけ分バケットを使う。
+ * 分バケットは minute-retention-ms を過ぎたら削除する。
+ */
+@Slf4j
+@Component
+public class AiLogRollupStore {
+
+    private final LearningAiLogRollupRepository rollupRepository;
+    private final LearningAiLogRepository aiLogRepository;
+    private final BatchWriter batchWriter;
+    private final UpsertWriter upsertWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final long minuteRetentionMillis;
+
+    public AiLogRollupStore(LearningAiLogRollupRepository rollupRepository,
+            LearningAiLogRepository aiLogRepository,
+            BatchWriter batchWriter,
+            UpsertWriter upsertWriter,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.learning.ai-log.rollup.minute-retention-ms:172800000}") long minuteRetentionMillis) {
+        this.rollupRepository = rollupRepository;
+        this.aiLogRepository = aiLogRepository;
+        this.batchWriter = batchWriter;
+        this.upsertWriter = upsertWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minuteRetentionMillis = minuteRetentionMillis;
+    }
+
+    /**
+     * 保存済みのログを集計に加える（createdAt が確定した後に呼ぶこと）
+     */
+    public void record(Collection<LearningAiLog> logs) {
+        Map<BucketKey, Delta> deltas = new LinkedHashMap<>();
+        for (LearningAiLog log : logs) {
+            if (log.getUserId() == null || log.getAiType() == null) {
+                continue;
+            }
+            Delta contribution = Delta.of(log);
+            for (BucketKey key : keysOf(log.getUserId(), log.getSpaceId(), log.getAiType(), createdAt(log))) {
+                deltas.computeIfAbsent(key, k -> new Delta()).add(contribution);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((key, delta) -> apply(key, delta, now));
+    }
+
+    /**
+     * 満足度の変更を反映する（ログが属するバケットの満足度合計・件数だけを差し替える）
+     */
+    public void updateSatisfaction(LearningAiLog log, Integer before, Integer after) {
+        if (Objects.equals(before, after) || log.getUserId() == null || log.getAiType() == null) {
+            return;
+        }
+        Delta delta = new Delta();
+        if (before != null) {
+            delta.satisfactionSum -= before;
+            delta.satisfactionCount--;
+        }
+        if (after != null) {
+            delta.satisfactionSum += after;
+            delta.satisfactionCount++;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (BucketKey key : keysOf(log.getUserId(), log.getSpaceId(), log.getAiType(), createdAt(log))) {
+            apply(key, delta, now);
+        }
+    }
+
+    /**
+     * AIタイプ別件数（[AIタイプ, 件数]、件数の多い順）
+     */
+    public List<Object[]> usageByAiType(ScopeType scopeType, UUID scopeId) {
+        return rollupRepository.sumByAiType(scopeType, scopeIdOf(scopeType, scopeId), Granularity.HOUR);
+    }
+
+    /**
+     * 月別件数（[年, 月, 件数]、新しい月から）
+     */
+    public List<Object[]> monthlyUsage(ScopeType scopeType, UUID scopeId) {
+        return rollupRepository.sumByMonth(scopeType, scopeIdOf(scopeType, scopeId), Granularity.HOUR);
+    }
+
+    /**
+     * 全期間の合計
+     */
+    public AiLogRollupTotals totals(ScopeType scopeType, UUID scopeId) {
+        return rollupRepository.sumTotals(scopeType, scopeIdOf(scopeType, scopeId), Granularity.HOUR);
+    }
+
+    /**
+     * 指定日時以降の全体の AIタイプ別件数（件数の多い順）
+     *
+     * since を含む時の端数は分バケットで数え、以降は時間バケットで数える。
+     * 分バケットの保持期間より前の since は、その時の頭から数える。
+     */
+    public Map<AiType, Long> usageSince(LocalDateTime since) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plusDays(1);
+        LocalDateTime hourStart = since.truncatedTo(ChronoUnit.HOURS);
+        Map<AiType, Long> usage = new EnumMap<>(AiType.class);
+        if (!hourStart.equals(since) && !since.isBefore(now.minus(Duration.ofMillis(minuteRetentionMillis)))) {
+            hourStart = hourStart.plusHours(1);
+            addUsage(usage, rollupRepository.sumByAiTypeBetween(ScopeType.GLOBAL, LearningAiLogRollup.GLOBAL_SCOPE_ID,
+                    Granularity.MINUTE, since.truncatedTo(ChronoUnit.MINUTES), hourStart));
+        }
+        addUsage(usage, rollupRepository.sumByAiTypeBetween(ScopeType.GLOBAL, LearningAiLogRollup.GLOBAL_SCOPE_ID,
+                Granularity.HOUR, hourStart, until));
+
+        Map<AiType, Long> sorted = new LinkedHashMap<>();
+        usage.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<AiType, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    /**
+     * AI学習ログ本体から集計行を作り直す（呼び出し元のトランザクション内で使う）
+     * 分バケットは保持期間内のログだけ作る
+     * 取り込みキューの書き込みと並行させないため、{@link AiLogIngestQueue#rebuildRollups()} から呼ぶこと
+     *
+     * @return 作成した集計行の件数
+     */
+    public int rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        rollupRepository.deleteAllInBatch();
+
+        Map<BucketKey, Delta> buckets = new LinkedHashMap<>();
+        fold(buckets, aiLogRepository.aggregateByHour(), Granularity.HOUR);
+        fold(buckets, aiLogRepository.aggregateByMinuteSince(now.minus(Duration.ofMillis(minuteRetentionMillis))),
+                Granularity.MINUTE);
+
+        List<LearningAiLogRollup> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, delta) -> rows.add(newRow(key, delta, now)));
+        int created = batchWriter.insertAll(rows);
+        log.info("AI log rollups rebuilt: buckets={}", created);
+        return created;
+    }
+
+    /**
+     * 保持期間を過ぎた分バケットを削除する
+     */
+    @Scheduled(fixedDelayString = "${sfr.learning.ai-log.rollup.purge-interval-ms:3600000}",
+            initialDelayString = "${sfr.learning.ai-log.rollup.purge-interval-ms:3600000}")
+    public void purgeExpiredMinuteBuckets() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(minuteRetentionMillis))
+                .truncatedTo(ChronoUnit.MINUTES);
+        Integer purged = transactionTemplate.execute(status ->
+                rollupRepository.deleteOlderThan(Granularity.MINUTE, before));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} AI log minute rollups before {}", purged, before);
+        }
+    }
+
+    private void apply(BucketKey key, Delta delta, LocalDateTime now) {
+        IntSupplier update = () -> rollupRepository.applyDelta(key.scopeType(), key.scopeId(), key.aiType(),
+                key.granularity(), key.bucketStart(), delta.requests, delta.errors, delta.satisfactionSum,
+                delta.satisfactionCount, delta.confidenceSum, delta.confidenceCount, delta.processingTimeSum,
+                delta.processingTimeCount, delta.tokensSum, delta.latency[0], delta.latency[1], delta.latency[2],
+                delta.latency[3], delta.latency[4], delta.latency[5], now);
+        if (delta.requests > 0) {
+            // バケットの最初のログなら行を追加する（同じバケットへの追加が並行しても一意制約違反で失敗させない）
+            upsertWriter.upsert(update, () -> newRow(key, delta, now));
+            return;
+        }
+        if (update.getAsInt() == 0 && key.granularity() == Granularity.HOUR) {
+            // 満足度の更新で行がない（分バケットは保持期間を過ぎて消えていることがある）
+            log.warn("AI log rollup missing for {} {} {} at {}, delta ignored", key.scopeType(), key.scopeId(),
+                    key.aiType(), key.bucketStart());
+        }
+    }
+
+    private void fold(Map<BucketKey, Delta> buckets, List<AiLogBucketAggregate> rows, Granularity granularity) {
+        for (AiLogBucketAggregate row : rows) {
+            if (row.userId() == null || row.aiType() == null || row.year() == null) {
+                continue;
+            }
+            LocalDateTime start = LocalDateTime.of(row.year(), row.month(), row.day(), row.hour(),
+                    granularity == Granularity.MINUTE ? row.minute() : 0);
+            Delta delta = Delta.of(row);
+            for (BucketKey key : keysOf(row.userId(), row.spaceId(), row.aiType(), start)) {
+                if (key.granularity() == granularity) {
+                    buckets.computeIfAbsent(key, k -> new Delta()).add(delta);
+                }
+            }
+        }
+    }
+
+    private static List<BucketKey> keysOf(UUID userId, UUID spaceId, AiType aiType, LocalDateTime createdAt) {
+        List<BucketKey> keys = new ArrayList<>(6);
+        for (Granularity granularity : Granularity.values()) {
+            LocalDateTime start = createdAt.truncatedTo(
+                    granularity == Granularity.MINUTE ? ChronoUnit.MINUTES : ChronoUnit.HOURS);
+            keys.add(new BucketKey(ScopeType.USER, userId, aiType, granularity, start));
+            if (spaceId != null) {
+                keys.add(new BucketKey(ScopeType.SPACE, spaceId, aiType, granularity, start));
+            }
+            keys.add(new BucketKey(ScopeType.GLOBAL, LearningAiLogRollup.GLOBAL_SCOPE_ID, aiType, granularity, start));
+        }
+        return keys;
+    }
+
+    private static LearningAiLogRollup newRow(BucketKey key, Delta delta, LocalDateTime now) {
+        return LearningAiLogRollup.builder()
+                .scopeType(key.scopeType())
+                .scopeId(key.scopeId())
+                .aiType(key.aiType())
+                .granularity(key.granularity())
+                .bucketStart(key.bucketStart())
+                .requestCount(delta.requests)
+                .errorCount(delta.errors)
+                .satisfactionSum(delta.satisfactionSum)
+                .satisfactionCount(delta.satisfactionCount)
+                .confidenceSum(delta.confidenceSum)
+                .confidenceCount(delta.confidenceCount)
+                .processingTimeSum(delta.processingTimeSum)
+                .processingTimeCount(delta.processingTimeCount)
+                .tokensSum(delta.tokensSum)
+                .latencyLe100(delta.latency[0])
+                .latencyLe500(delta.latency[1])
+                .latencyLe1000(delta.latency[2])
+                .latencyLe2000(delta.latency[3])
+                .latencyLe5000(delta.latency[4])
+                .latencyGt5000(delta.latency[5])
+                .updatedAt(now)
+                .build();
+    }
+
+    private static void addUsage(Map<AiType, Long> usage, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            usage.merge((AiType) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+    }
+
+    private static UUID scopeIdOf(ScopeType scopeType, UUID scopeId) {
+        return scopeType == ScopeType.GLOBAL ? LearningAiLogRollup.GLOBAL_SCOPE_ID : scopeId;
+    }
+
+    private static LocalDateTime createdAt(LearningAiLog log) {
+        return log.getCreatedAt() != null ? log.getCreatedAt() : LocalDateTime.now();
+    }
+
+    /**
+     * 処理時間の分布の区間（{@link LearningAiLogRollup#LATENCY_BOUNDS_MS} の順、最後は上限超え）
+     */
+    static int latencyBucket(long processingTimeMs) {
+        long[] bounds = LearningAiLogRollup.LATENCY_BOUNDS_MS;
+        for (int i = 0; i < bounds.length; i++) {
+            if (processingTimeMs <= bounds[i]) {
+                return i;
+            }
+        }
+        return bounds.length;
+    }
+
+    private record BucketKey(ScopeType scopeType, UUID scopeId, AiType aiType, Granularity granularity,
+            LocalDateTime bucketStart) {
+    }
+
+    /**
+     * 1バケットへの加算分
+     */
+    private static final class Delta {
+        private long requests;
+        private long errors;
+        private long satisfactionSum;
+        private long satisfactionCount;
+        private BigDecimal confidenceSum = BigDecimal.ZERO;
+        private long confidenceCount;
+        private long processingTimeSum;
+        private long processingTimeCount;
+        private long tokensSum;
+        private final long[] latency = new long[LearningAiLogRollup.LATENCY_BOUNDS_MS.length + 1];
+
+        static Delta of(LearningAiLog log) {
+            Delta delta = new Delta();
+            delta.requests = 1;
+            delta.errors = Boolean.TRUE.equals(log.getIsError()) ? 1 : 0;
+            if (log.getUserSatisfaction() != null) {
+                delta.satisfactionSum = log.getUserSatisfaction();
+                delta.satisfactionCount = 1;
+            }
+            if (log.getConfidenceScore() != null) {
+                delta.confidenceSum = log.getConfidenceScore();
+                delta.confidenceCount = 1;
+            }
+            if (log.getProcessingTimeMs() != null) {
+                delta.processingTimeSum = log.getProcessingTimeMs();
+                delta.processingTimeCount = 1;
+                delta.latency[latencyBucket(log.getProcessingTimeMs())] = 1;
+            }
+            if (log.getTokensUsed() != null) {
+                delta.tokensSum = log.getTokensUsed();
+            }
+            return delta;
+        }
+
+        static Delta of(AiLogBucketAggregate row) {
+            Delta delta = new Delta();
+            delta.requests = orZero(row.requestCount());
+            delta.errors = orZero(row.errorCount());
+            delta.satisfactionSum = orZero(row.satisfactionSum());
+            delta.satisfactionCount = orZero(row.satisfactionCount());
+            delta.confidenceSum = row.confidenceSum() != null ? row.confidenceSum() : BigDecimal.ZERO;
+            delta.confidenceCount = orZero(row.confidenceCount());
+            delta.processingTimeSum = orZero(row.processingTimeSum());
+            delta.processingTimeCount = orZero(row.processingTimeCount());
+            delta.tokensSum = orZero(row.tokensSum());
+            delta.latency[0] = orZero(row.latencyLe100());
+            delta.latency[1] = orZero(row.latencyLe500());
+            delta.latency[2] = orZero(row.latencyLe1000());
+            delta.latency[3] = orZero(row.latencyLe2000());
+            delta.latency[4] = orZero(row.latencyLe5000());
+            delta.latency[5] = orZero(row.latencyGt5000());
+            return delta;
+        }
+
+        void add(Delta other) {
+            requests += other.requests;
+            errors += other.errors;
+            satisfactionSum += other.satisfactionSum;
+            satisfactionCount += other.satisfactionCount;
+            confidenceSum = confidenceSum.add(other.confidenceSum);
+            confidenceCount += other.confidenceCount;
+            processingTimeSum += other.processingTimeSum;
+            processingTimeCount += other.processingTimeCount;
+            tokensSum += other.tokensSum;
+            for (int i = 0; i < latency.length; i++) {
+                latency[i] += other.latency[i];
+            }
+        }
+
+        private static long orZero(Long value) {
+            return value != null ? value : 0L;
+        }
+    }
+}
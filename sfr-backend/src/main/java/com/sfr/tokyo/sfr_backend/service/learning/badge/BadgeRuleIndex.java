@@ -0,0 +1,196 @@
+package com.sfr.tokyo.sfr_backend.service.learning.badge;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningBadge;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningBadge.BadgeType;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningBadgeRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * バッジ獲得条件のメモリ上のインデックス
+ *
+ * 有効なバッジを (バッジタイプ, 学習空間) ごとに必要値の昇順で並べて保持し、
+ * 現在値で獲得できるバッジを二分探索で求める。学習空間を持たないバッジは全空間共通の枠に入る。
+ * 各バッジには {@link EarnedBadgeCache} のビット位置となる連番を振る（再構築しても変わらない）。
+ * 作成・更新はコミット後に反映し、管理 API を通らない変更や他ノードの変更に備えて定期的に DB から読み直す。
+ */
+@Slf4j
+@Component
+public class BadgeRuleIndex {
+
+    /**
+     * 獲得条件
+     */
+    public record Rule(Long badgeId, int ordinal, BadgeType badgeType, UUID spaceId, Integer requiredValue) {
+
+        /** 必要値が未設定のバッジは常に獲得可能として最小値で並べる */
+        int threshold() {
+            return requiredValue != null ? requiredValue : Integer.MIN_VALUE;
+        }
+    }
+
+    private record Scope(BadgeType badgeType, UUID spaceId) {
+    }
+
+    /** 必要値の昇順に並べた条件と、二分探索用の必要値の配列 */
+    private record Bucket(int[] thresholds, Rule[] rules) {
+
+        static Bucket of(List<Rule> rules) {
+            Rule[] sorted = rules.stream()
+                    .sorted(Comparator.comparingInt(Rule::threshold).thenComparing(Rule::badgeId))
+                    .toArray(Rule[]::new);
+            int[] thresholds = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                thresholds[i] = sorted[i].threshold();
+            }
+            return new Bucket(thresholds, sorted);
+        }
+
+        /** 必要値が value 以下の条件の数 */
+        int countReachable(int value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final LearningBadgeRepository badgeRepository;
+
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final Map<Long, Rule> rules = new HashMap<>();
+
+    private volatile Map<Scope, Bucket> buckets = Map.of();
+    private volatile boolean loaded;
+    /** DB 読み直し中に反映したバッジ定義の変更（this で保護） */
+    private final CommittedChanges<Long> changes = new CommittedChanges<>();
+
+    public BadgeRuleIndex(LearningBadgeRepository badgeRepository) {
+        this.badgeRepository = badgeRepository;
+    }
+
+    /**
+     * 現在値で獲得条件を満たすバッジ（全空間共通 + 指定空間）
+     */
+    public List<Rule> reachable(BadgeType badgeType, UUID spaceId, Integer currentValue) {
+        ensureLoaded();
+        int value = currentValue != null ? currentValue : Integer.MIN_VALUE;
+        Map<Scope, Bucket> current = buckets;
+        List<Rule> result = new ArrayList<>();
+        collect(current.get(new Scope(badgeType, null)), value, result);
+        if (spaceId != null) {
+            collect(current.get(new Scope(badgeType, spaceId)), value, result);
+        }
+        return result;
+    }
+
+    /**
+     * バッジのビット位置（無効化されたバッジにも振る）
+     */
+    public int ordinalOf(Long badgeId) {
+        return ordinals.computeIfAbsent(badgeId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    /**
+     * バッジ定義の変更を反映する（トランザクション中ならコミット後）
+     */
+    public void onChanged(LearningBadge badge) {
+        Long badgeId = badge.getId();
+        Rule changed = Boolean.TRUE.equals(badge.getIsActive()) ? toRule(badge) : null;
+        CommittedChanges.afterCommit(() -> apply(badgeId, changed));
+    }
+
+    /**
+     * 有効なバッジを DB から読み直す
+     */
+    @Scheduled(fixedDelayString = "${sfr.learning.badge.rule-index.reload-interval-ms:300000}",
+            initialDelayString = "${sfr.learning.badge.rule-index.reload-interval-ms:300000}")
+    public void reload() {
+        CommittedChanges.Reload<Long> reload;
+        synchronized (this) {
+            reload = changes.beginReload();
+        }
+        Map<Long, Rule> fresh = new HashMap<>();
+        try {
+            for (LearningBadge badge : badgeRepository.findByIsActiveTrue()) {
+                fresh.put(badge.getId(), toRule(badge));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changes.cancelReload(reload);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            changes.finishReload(reload, fresh, rules);
+            rules.clear();
+            rules.putAll(fresh);
+            publish();
+            loaded = true;
+            log.debug("Reloaded badge rule index: {} active badges", rules.size());
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    private synchronized void apply(Long badgeId, Rule changed) {
+        if (changed != null) {
+            rules.put(badgeId, changed);
+        } else {
+            rules.remove(badgeId);
+        }
+        changes.changed(badgeId);
+        publish();
+    }
+
+    private void publish() {
+        Map<Scope, List<Rule>> grouped = new HashMap<>();
+        rules.values().forEach(rule -> grouped
+                .computeIfAbsent(new Scope(rule.badgeType(), rule.spaceId()), scope -> new ArrayList<>())
+                .add(rule));
+        Map<Scope, Bucket> rebuilt = new HashMap<>();
+        grouped.forEach((scope, scoped) -> rebuilt.put(scope, Bucket.of(scoped)));
+        buckets = Map.copyOf(rebuilt);
+    }
+
+    private Rule toRule(LearningBadge badge) {
+        return new Rule(badge.getId(), ordinalOf(badge.getId()), badge.getBadgeType(), badge.getSpaceId(),
+                badge.getRequiredValue());
+    }
+
+    private static void collect(Bucket bucket, int value, List<Rule> result) {
+        if (bucket == null) {
+            return;
+        }
+        int reachable = bucket.countReachable(value);
+        for (int i = 0; i < reachable; i++) {
+            result.add(bucket.rules()[i]);
+        }
+    }
+}
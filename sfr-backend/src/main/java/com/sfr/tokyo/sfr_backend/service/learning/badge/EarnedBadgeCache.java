@@ -0,0 +1,116 @@
+package com.sfr.tokyo.sfr_backend.service.learning.badge;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningUserBadgeRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+/**
+ * ユーザーごとの獲得済みバッジ（ビットセット）のキャッシュ
+ *
+ * ビット位置は {@link BadgeRuleIndex#ordinalOf(Long)}。キャッシュにないユーザーは獲得済みバッジIDだけを読み込む。
+ * 付与・剥奪はコミット後に反映する。他ノードで付与された分は付与前の DB 確認で弾かれ、
+ * 他ノードで剥奪された分は ttl-ms で読み直すまで獲得済みのまま扱う。
+ * ビットセットは公開後に変更せず、更新時は複製を差し替える。
+ */
+@Component
+public class EarnedBadgeCache {
+
+    private final LearningUserBadgeRepository userBadgeRepository;
+    private final BadgeRuleIndex ruleIndex;
+    private final long ttlMillis;
+    private final Map<UUID, Entry> entries;
+
+    public EarnedBadgeCache(LearningUserBadgeRepository userBadgeRepository,
+            BadgeRuleIndex ruleIndex,
+            @Value("${sfr.learning.badge.earned-cache.size:50000}") int maxUsers,
+            @Value("${sfr.learning.badge.earned-cache.ttl-ms:600000}") long ttlMillis) {
+        this.userBadgeRepository = userBadgeRepository;
+        this.ruleIndex = ruleIndex;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * 候補のうち未獲得のもの
+     */
+    public List<BadgeRuleIndex.Rule> unearned(UUID userId, List<BadgeRuleIndex.Rule> candidates) {
+        BitSet earned = earned(userId);
+        return candidates.stream()
+                .filter(rule -> !earned.get(rule.ordinal()))
+                .toList();
+    }
+
+    /**
+     * 獲得を反映する（トランザクション中ならコミット後）
+     */
+    public void markEarned(UUID userId, Collection<Long> badgeIds) {
+        int[] bits = badgeIds.stream().mapToInt(ruleIndex::ordinalOf).toArray();
+        CommittedChanges.afterCommit(() -> update(userId, bits, true));
+    }
+
+    /**
+     * 剥奪を反映する（トランザクション中ならコミット後）
+     */
+    public void markRevoked(UUID userId, Long badgeId) {
+        int[] bits = { ruleIndex.ordinalOf(badgeId) };
+        CommittedChanges.afterCommit(() -> update(userId, bits, false));
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private BitSet earned(UUID userId) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry != null && now - entry.loadedAt() <= ttlMillis) {
+            return entry.bits();
+        }
+        BitSet loaded = new BitSet();
+        for (Long badgeId : userBadgeRepository.findBadgeIdsByUserId(userId)) {
+            loaded.set(ruleIndex.ordinalOf(badgeId));
+        }
+        synchronized (entries) {
+            entries.put(userId, new Entry(loaded, now));
+        }
+        return loaded;
+    }
+
+    private void update(UUID userId, int[] bits, boolean earned) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                // 次回の参照で DB から読み込む
+                return;
+            }
+            BitSet copy = (BitSet) entry.bits().clone();
+            for (int bit : bits) {
+                copy.set(bit, earned);
+            }
+            entries.put(userId, new Entry(copy, entry.loadedAt()));
+        }
+    }
+
+
+    private record Entry(BitSet bits, long loadedAt) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.sfr.tokyo.sfr_backend.service.learning.catalog;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 現在のカタログスナップショットの保持と入れ替え
+ *
+ * 初回参照時に読み込み、以降は管理操作のコミット後と定期的な読み直しで新しいスナップショットに差し替える。
+ * 読み込んだ内容が同じ（ETag が一致する）場合は差し替えず、版も進めない。
+ */
+@Slf4j
+public final class CatalogHolder<T> {
+
+    private final String name;
+    private final Supplier<List<T>> loader;
+    private final BiFunction<List<T>, Long, CatalogSnapshot<T>> indexer;
+
+    private volatile CatalogSnapshot<T> current;
+
+    /**
+     * @param loader 有効な要素を基準順で返す
+     * @param indexer 要素と版からスナップショットを作る
+     */
+    public CatalogHolder(String name, Supplier<List<T>> loader, BiFunction<List<T>, Long, CatalogSnapshot<T>> indexer) {
+        this.name = name;
+        this.loader = loader;
+        this.indexer = indexer;
+    }
+
+    public CatalogSnapshot<T> current() {
+        CatalogSnapshot<T> snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * DB から読み直して差し替える
+     */
+    public synchronized CatalogSnapshot<T> reload() {
+        CatalogSnapshot<T> previous = current;
+        long version = previous != null ? previous.version() + 1 : 1;
+        CatalogSnapshot<T> fresh = indexer.apply(loader.get(), version);
+        if (previous != null && previous.etag().equals(fresh.etag())) {
+            return previous;
+        }
+        current = fresh;
+        log.debug("Catalog {} swapped: version={}, size={}, etag={}", name, version, fresh.size(), fresh.etag());
+        return fresh;
+    }
+
+    /**
+     * 変更のコミット後に読み直す（トランザクション外なら即時）
+     */
+    public void reloadAfterCommit() {
+        CommittedChanges.afterCommit(() -> {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                // 次の定期読み直しで反映される
+                log.warn("Failed to reload catalog {}: {}", name, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,315 @@
+package com.sfr.tokyo.sfr_backend.service.learning.catalog;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 読み取り専用のカタログスナップショット
+ *
+ * 要素を基準順に並べた配列と、属性値ごとの要素位置のビットマップ、数値属性ごとの値の昇順配列を持つ。
+ * 条件はビットマップの AND で絞り込み、範囲条件は昇順配列の二分探索でビットマップに変換する。
+ * 構築後は変更しないため、読み取りはロックなしで並行に行える（入れ替えは参照ごと行う）。
+ * ETag は要素の内容から計算するため、同じ内容を読み込んだノード間で一致する。
+ */
+public final class CatalogSnapshot<T> {
+
+    /**
+     * 数値属性の範囲インデックス（値が未設定の要素は別に保持する）
+     */
+    private record RangeIndex(BigDecimal[] values, int[] positions, BitSet unset) {
+
+        /** value 以上の最初の位置 */
+        int lowerBound(BigDecimal value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid].compareTo(value) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** value より大きい最初の位置 */
+        int upperBound(BigDecimal value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid].compareTo(value) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        BitSet between(BigDecimal min, BigDecimal max) {
+            int from = min != null ? lowerBound(min) : 0;
+            int to = max != null ? upperBound(max) : values.length;
+            BitSet bits = new BitSet();
+            for (int i = from; i < to; i++) {
+                bits.set(positions[i]);
+            }
+            return bits;
+        }
+    }
+
+    private final long version;
+    private final String etag;
+    private final List<T> items;
+    private final Map<String, Map<Object, BitSet>> bitmaps;
+    private final Map<String, RangeIndex> ranges;
+
+    private CatalogSnapshot(long version, String etag, List<T> items, Map<String, Map<Object, BitSet>> bitmaps,
+            Map<String, RangeIndex> ranges) {
+        this.version = version;
+        this.etag = etag;
+        this.items = items;
+        this.bitmaps = bitmaps;
+        this.ranges = ranges;
+    }
+
+    public static <T> Builder<T> builder(List<T> items) {
+        return new Builder<>(items);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * 内容のハッシュ（引用符付きの強い ETag）
+     */
+    public String etag() {
+        return etag;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * 全件を起点にした絞り込み
+     */
+    public Selection select() {
+        BitSet all = new BitSet(items.size());
+        all.set(0, items.size());
+        return new Selection(all);
+    }
+
+    /**
+     * 絞り込み中の要素集合（呼び出しごとに作る使い捨てのオブジェクト）
+     */
+    public final class Selection {
+
+        private final BitSet bits;
+
+        private Selection(BitSet bits) {
+            this.bits = bits;
+        }
+
+        /**
+         * 属性値が一致する要素に絞る
+         */
+        public Selection eq(String attribute, Object value) {
+            BitSet matched = bitmap(attribute).get(value);
+            if (matched == null) {
+                bits.clear();
+            } else {
+                bits.and(matched);
+            }
+            return this;
+        }
+
+        /**
+         * 値が null でなければ一致する要素に絞る（null は条件なし）
+         */
+        public Selection eqIfPresent(String attribute, Object value) {
+            return value != null ? eq(attribute, value) : this;
+        }
+
+        /**
+         * 属性値がいずれかに一致する要素に絞る
+         */
+        public Selection in(String attribute, Collection<?> values) {
+            Map<Object, BitSet> index = bitmap(attribute);
+            BitSet union = new BitSet();
+            for (Object value : values) {
+                BitSet matched = index.get(value);
+                if (matched != null) {
+                    union.or(matched);
+                }
+            }
+            bits.and(union);
+            return this;
+        }
+
+        /**
+         * フラグ属性が立っている要素に絞る
+         */
+        public Selection is(String flag) {
+            return eq(flag, Boolean.TRUE);
+        }
+
+        /**
+         * 数値属性が範囲内（両端を含む。null の端は無制限）の要素に絞る。値が未設定の要素は除く
+         */
+        public Selection between(String attribute, BigDecimal min, BigDecimal max) {
+            bits.and(range(attribute).between(min, max));
+            return this;
+        }
+
+        /**
+         * 数値属性が min 以上か、未設定（無制限）の要素に絞る
+         */
+        public Selection atLeastOrUnset(String attribute, BigDecimal min) {
+            RangeIndex index = range(attribute);
+            BitSet matched = index.between(min, null);
+            matched.or(index.unset());
+            bits.and(matched);
+            return this;
+        }
+
+        public int count() {
+            return bits.cardinality();
+        }
+
+        /**
+         * 基準順のまま取り出す
+         */
+        public List<T> list() {
+            List<T> result = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                result.add(items.get(i));
+            }
+            return result;
+        }
+
+        /**
+         * 指定順に並べて取り出す（同順位は基準順）
+         */
+        public List<T> list(Comparator<? super T> order) {
+            List<T> result = list();
+            result.sort(order);
+            return result;
+        }
+    }
+
+    private Map<Object, BitSet> bitmap(String attribute) {
+        Map<Object, BitSet> index = bitmaps.get(attribute);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown catalog attribute: " + attribute);
+        }
+        return index;
+    }
+
+    private RangeIndex range(String attribute) {
+        RangeIndex index = ranges.get(attribute);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown catalog range: " + attribute);
+        }
+        return index;
+    }
+
+    /**
+     * スナップショットの構築（要素は基準順で渡す）
+     */
+    public static final class Builder<T> {
+
+        private final List<T> items;
+        private final Map<String, Map<Object, BitSet>> bitmaps = new HashMap<>();
+        private final Map<String, RangeIndex> ranges = new HashMap<>();
+
+        private Builder(List<T> items) {
+            this.items = List.copyOf(items);
+        }
+
+        /**
+         * 属性値ごとのビットマップ（null の値は索引しない）
+         */
+        public Builder<T> index(String attribute, Function<? super T, ?> key) {
+            Map<Object, BitSet> index = new HashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                Object value = key.apply(items.get(i));
+                if (value != null) {
+                    index.computeIfAbsent(value, v -> new BitSet(items.size())).set(i);
+                }
+            }
+            bitmaps.put(attribute, index);
+            return this;
+        }
+
+        /**
+         * 条件を満たす要素のビットマップ
+         */
+        public Builder<T> flag(String flag, Predicate<? super T> condition) {
+            return index(flag, item -> condition.test(item) ? Boolean.TRUE : null);
+        }
+
+        /**
+         * 数値属性の昇順配列
+         */
+        public Builder<T> range(String attribute, Function<? super T, ? extends Number> value) {
+            BigDecimal[] valueAt = new BigDecimal[items.size()];
+            List<Integer> present = new ArrayList<>();
+            BitSet unset = new BitSet();
+            for (int i = 0; i < items.size(); i++) {
+                Number number = value.apply(items.get(i));
+                if (number == null) {
+                    unset.set(i);
+                } else {
+                    valueAt[i] = number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+                    present.add(i);
+                }
+            }
+            // 同じ値は基準順のまま（安定ソート）
+            present.sort(Comparator.comparing(position -> valueAt[position]));
+            BigDecimal[] sortedValues = new BigDecimal[present.size()];
+            int[] positions = new int[present.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = present.get(i);
+                sortedValues[i] = valueAt[positions[i]];
+            }
+            ranges.put(attribute, new RangeIndex(sortedValues, positions, unset));
+            return this;
+        }
+
+        /**
+         * @param fingerprint 要素の内容を表す文字列（ETag の計算に使う。JVM 間で同じ値になるもの）
+         */
+        public CatalogSnapshot<T> build(long version, Function<? super T, String> fingerprint) {
+            return new CatalogSnapshot<>(version, etagOf(fingerprint), items, Map.copyOf(bitmaps),
+                    Map.copyOf(ranges));
+        }
+
+        private String etagOf(Function<? super T, String> fingerprint) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (T item : items) {
+                    digest.update(fingerprint.apply(item).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 12) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.sfr.tokyo.sfr_backend.service.learning.catalog;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee.SfrRewardCondition;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningCourseFeeRepository;
+
+/**
+ * 有効なコース料金設定のカタログ
+ *
+ * 料金種別・通貨・支払い方法・SFR報酬・返金可否などの条件と、料金額・SFR報酬額の範囲で絞り込む。
+ * 割引は期間が現在時刻に依存するため、割引設定の有無だけを索引して期間は取り出し時に判定する。
+ * 基準順は findActiveFees と同じ作成日時の降順。
+ */
+@Component
+public class CourseFeeCatalog {
+
+    public static final String COURSE = "course";
+    public static final String FEE_TYPE = "feeType";
+    public static final String CURRENCY = "currency";
+    public static final String PAYMENT_METHOD = "paymentMethod";
+    public static final String IS_FREE = "isFree";
+    public static final String INSTALLMENT_AVAILABLE = "installmentAvailable";
+    public static final String REFUNDABLE = "refundable";
+    public static final String SFR_REWARD_CONDITION = "sfrRewardCondition";
+    /** 無料でなく料金額が正 */
+    public static final String PAID = "paid";
+    public static final String SPECIAL_PRICE = "specialPrice";
+    /** SFR報酬額が正 */
+    public static final String HAS_SFR_REWARD_AMOUNT = "hasSfrRewardAmount";
+    /** SFR報酬額がちょうど 0 */
+    public static final String ZERO_SFR_REWARD_AMOUNT = "zeroSfrRewardAmount";
+    /** SFR報酬額が正で、付与条件が NONE 以外 */
+    public static final String SFR_REWARD = "sfrReward";
+    /** 分割払い可能で回数が2回以上 */
+    public static final String INSTALLMENT = "installment";
+    /** 返金可能で返金期間が設定済み */
+    public static final String REFUND_PERIOD = "refundPeriod";
+    public static final String REGULAR_DISCOUNT = "regularDiscount";
+    public static final String EARLY_BIRD_DISCOUNT = "earlyBirdDiscount";
+    public static final String PRICE = "price";
+    public static final String SFR_REWARD_AMOUNT = "sfrRewardAmount";
+
+    public static final Comparator<LearningCourseFee> BY_PRICE = Comparator.comparing(LearningCourseFee::getPriceAmount,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
+    public static final Comparator<LearningCourseFee> BY_SFR_REWARD_DESC = Comparator.comparing(
+            LearningCourseFee::getSfrRewardAmount, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()));
+
+    private static final Comparator<LearningCourseFee> BY_NEWEST = Comparator
+            .comparing(LearningCourseFee::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(LearningCourseFee::getId, Comparator.reverseOrder());
+
+    private final CatalogHolder<LearningCourseFee> holder;
+
+    public CourseFeeCatalog(LearningCourseFeeRepository courseFeeRepository,
+            PlatformTransactionManager transactionManager) {
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTemplate.setReadOnly(true);
+        this.holder = new CatalogHolder<>("course-fees",
+                () -> readTemplate.execute(status -> courseFeeRepository.findActiveFees()),
+                CourseFeeCatalog::index);
+    }
+
+    private static CatalogSnapshot<LearningCourseFee> index(List<LearningCourseFee> fees, long version) {
+        return CatalogSnapshot.builder(fees.stream().sorted(BY_NEWEST).toList())
+                .index(COURSE, LearningCourseFee::getCourseId)
+                .index(FEE_TYPE, LearningCourseFee::getFeeType)
+                .index(CURRENCY, LearningCourseFee::getCurrencyType)
+                .index(PAYMENT_METHOD, LearningCourseFee::getPaymentMethod)
+                .index(IS_FREE, LearningCourseFee::getIsFree)
+                .index(INSTALLMENT_AVAILABLE, LearningCourseFee::getInstallmentAvailable)
+                .index(REFUNDABLE, LearningCourseFee::getRefundable)
+                .index(SFR_REWARD_CONDITION, LearningCourseFee::getSfrRewardCondition)
+                .flag(PAID, fee -> Boolean.FALSE.equals(fee.getIsFree()) && positive(fee.getPriceAmount()))
+                .flag(SPECIAL_PRICE, fee -> Boolean.TRUE.equals(fee.getSpecialPrice()))
+                .flag(HAS_SFR_REWARD_AMOUNT, fee -> positive(fee.getSfrRewardAmount()))
+                .flag(ZERO_SFR_REWARD_AMOUNT, fee -> fee.getSfrRewardAmount() != null
+                        && fee.getSfrRewardAmount().compareTo(BigDecimal.ZERO) == 0)
+                .flag(SFR_REWARD, fee -> positive(fee.getSfrRewardAmount()) && fee.getSfrRewardCondition() != null
+                        && fee.getSfrRewardCondition() != SfrRewardCondition.NONE)
+                .flag(INSTALLMENT, fee -> Boolean.TRUE.equals(fee.getInstallmentAvailable())
+                        && fee.getInstallmentCount() != null && fee.getInstallmentCount() > 1)
+                .flag(REFUND_PERIOD, fee -> Boolean.TRUE.equals(fee.getRefundable())
+                        && fee.getRefundPeriodDays() != null && fee.getRefundPeriodDays() > 0)
+                .flag(REGULAR_DISCOUNT, fee -> positive(fee.getDiscountPercent()))
+                .flag(EARLY_BIRD_DISCOUNT, fee -> Boolean.TRUE.equals(fee.getEarlyBirdDiscount())
+                        && positive(fee.getEarlyBirdPercent()))
+                .range(PRICE, LearningCourseFee::getPriceAmount)
+                .range(SFR_REWARD_AMOUNT, LearningCourseFee::getSfrRewardAmount)
+                .build(version, LearningCourseFee::toString);
+    }
+
+    private static boolean positive(BigDecimal value) {
+        return value != null && value.signum() > 0;
+    }
+
+    public CatalogSnapshot<LearningCourseFee> snapshot() {
+        return holder.current();
+    }
+
+    /**
+     * 料金設定の変更を反映する（呼び出し元のトランザクションのコミット後）
+     */
+    public void invalidate() {
+        holder.reloadAfterCommit();
+    }
+
+    @Scheduled(fixedDelayString = "${sfr.learning.catalog.reload-interval-ms:60000}",
+            initialDelayString = "${sfr.learning.catalog.reload-interval-ms:60000}")
+    public void reload() {
+        holder.reload();
+    }
+}
@@ -0,0 +1,88 @@
+package com.sfr.tokyo.sfr_backend.service.learning.catalog;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSubscriptionPlan;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningSubscriptionPlanRepository;
+
+/**
+ * 有効なサブスクリプションプランのカタログ
+ *
+ * 料金ページ向けの絞り込み（層級・推奨・人気・無料・試用・料金帯・ユーザー数・ストレージ）を
+ * スナップショットのビットマップと範囲インデックスで処理する。基準順は表示順序 → ID。
+ */
+@Component
+public class SubscriptionPlanCatalog {
+
+    public static final String TIER = "tier";
+    public static final String HAS_TRIAL = "hasTrial";
+    public static final String RECOMMENDED = "recommended";
+    public static final String POPULAR = "popular";
+    public static final String FREE = "free";
+    public static final String MONTHLY_FEE = "monthlyFee";
+    public static final String MAX_USERS = "maxUsers";
+    public static final String MAX_STORAGE_GB = "maxStorageGb";
+
+    /** findActivePlans と同じ表示順序 */
+    public static final Comparator<LearningSubscriptionPlan> BY_SORT_ORDER = Comparator
+            .comparing(LearningSubscriptionPlan::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(LearningSubscriptionPlan::getId);
+
+    public static final Comparator<LearningSubscriptionPlan> BY_MONTHLY_FEE = Comparator.comparing(
+            LearningSubscriptionPlan::getMonthlyFee, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final CatalogHolder<LearningSubscriptionPlan> holder;
+
+    public SubscriptionPlanCatalog(LearningSubscriptionPlanRepository planRepository,
+            PlatformTransactionManager transactionManager) {
+        // コミット後の読み直しでも呼び出し元の永続化コンテキストを使わないよう、別トランザクションで読む
+        TransactionTemplate readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTemplate.setReadOnly(true);
+        this.holder = new CatalogHolder<>("subscription-plans",
+                () -> readTemplate.execute(status -> planRepository.findActivePlans()),
+                SubscriptionPlanCatalog::index);
+    }
+
+    private static CatalogSnapshot<LearningSubscriptionPlan> index(List<LearningSubscriptionPlan> plans,
+            long version) {
+        return CatalogSnapshot.builder(plans.stream().sorted(BY_SORT_ORDER).toList())
+                .index(TIER, LearningSubscriptionPlan::getTierLevel)
+                .index(HAS_TRIAL, LearningSubscriptionPlan::getHasTrial)
+                .flag(RECOMMENDED, plan -> Boolean.TRUE.equals(plan.getIsRecommended()))
+                .flag(POPULAR, plan -> Boolean.TRUE.equals(plan.getIsPopular()))
+                .flag(FREE, plan -> plan.getMonthlyFee() != null && plan.getMonthlyFee().compareTo(BigDecimal.ZERO) == 0)
+                .range(MONTHLY_FEE, LearningSubscriptionPlan::getMonthlyFee)
+                .range(MAX_USERS, LearningSubscriptionPlan::getMaxUsers)
+                .range(MAX_STORAGE_GB, LearningSubscriptionPlan::getMaxStorageGb)
+                .build(version, LearningSubscriptionPlan::toString);
+    }
+
+    public CatalogSnapshot<LearningSubscriptionPlan> snapshot() {
+        return holder.current();
+    }
+
+    /**
+     * プランの変更を反映する（呼び出し元のトランザクションのコミット後）
+     */
+    public void invalidate() {
+        holder.reloadAfterCommit();
+    }
+
+    /**
+     * 管理 API を通らない変更や他ノードでの変更を取り込む
+     */
+    @Scheduled(fixedDelayString = "${sfr.learning.catalog.reload-interval-ms:60000}",
+            initialDelayString = "${sfr.learning.catalog.reload-interval-ms:60000}")
+    public void reload() {
+        holder.reload();
+    }
+}
@@ -0,0 +1,93 @@
+package com.sfr.tokyo.sfr_backend.service.learning.comment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningCommentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 学習コメントのスレッドパス補完
+ *
+ * thread_path 導入前のコメントと、経路未設定の親に付いた返信に経路を設定する。
+ * ID 昇順（親が子より先）にチャンク単位で進めるため、親の経路は子より先に決まる。
+ * 親が存在しない返信は経路を持たないまま残り、スレッド表示には現れない（従来の返信たどりと同じ）。
+ */
+@Slf4j
+@Component
+public class CommentThreadPathBackfill {
+
+    private final LearningCommentRepository commentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public CommentThreadPathBackfill(LearningCommentRepository commentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.learning.comment.thread-path.backfill-batch-size:500}") int batchSize) {
+        this.commentRepository = commentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * @return 経路を設定した件数
+     */
+    @Scheduled(fixedDelayString = "${sfr.learning.comment.thread-path.backfill-interval-ms:600000}")
+    public int backfill() {
+        int total = 0;
+        long afterId = 0;
+        while (true) {
+            List<LearningComment> chunk = commentRepository.findWithoutThreadPathAfter(afterId,
+                    PageRequest.of(0, batchSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            Integer filled = transactionTemplate.execute(status -> fill(chunk));
+            total += filled != null ? filled : 0;
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        if (total > 0) {
+            log.info("Backfilled thread paths for {} learning comments", total);
+        }
+        return total;
+    }
+
+    private int fill(List<LearningComment> chunk) {
+        Map<Long, LearningComment> known = new HashMap<>();
+        Set<Long> outsideParents = chunk.stream()
+                .map(LearningComment::getParentCommentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        chunk.forEach(comment -> outsideParents.remove(comment.getId()));
+        commentRepository.findAllById(outsideParents).forEach(parent -> known.put(parent.getId(), parent));
+
+        int filled = 0;
+        for (LearningComment comment : chunk) {
+            LearningComment parent = null;
+            if (comment.getParentCommentId() != null) {
+                parent = known.get(comment.getParentCommentId());
+                if (parent == null || parent.getThreadPath() == null) {
+                    continue;
+                }
+            }
+            comment.placeInThread(parent);
+            commentRepository.save(comment);
+            known.put(comment.getId(), comment);
+            filled++;
+        }
+        return filled;
+    }
+}
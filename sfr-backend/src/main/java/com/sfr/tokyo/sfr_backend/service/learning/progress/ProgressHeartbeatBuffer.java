@@ -0,0 +1,282 @@
+package com.sfr.tokyo.sfr_backend.service.learning.progress;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningContent;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningProgress;
+import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningContentRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningProgressRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 学習進捗の心拍（プレイヤーからの定期報告）のバッファ
+ *
+ * 心拍は (ユーザー, コンテンツ) ごとに最大の進捗率だけをメモリ上に保持し、
+ * 一定間隔または完了（100%）時にまとめて learning_progress へ反映する。
+ * 反映時は既存の進捗より大きい場合だけ更新する（心拍で進捗が戻ることはない）。
+ * ユーザー・コンテンツの存在確認は検証済みIDのキャッシュで行い、心拍ごとの DB 参照を避ける。
+ * 反映前の値はこのノードのメモリにしかないため、停止時には残りを書き出す。
+ */
+@Slf4j
+@Component
+public class ProgressHeartbeatBuffer {
+
+    private static final BigDecimal COMPLETE = BigDecimal.valueOf(100);
+
+    private final LearningProgressRepository progressRepository;
+    private final LearningContentRepository contentRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long idCacheTtlMillis;
+    private final Map<Key, PendingProgress> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> validatedUsers;
+    private final Map<Long, ContentInfo> validatedContents;
+
+    public ProgressHeartbeatBuffer(LearningProgressRepository progressRepository,
+            LearningContentRepository contentRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.learning.progress.heartbeat.batch-size:200}") int batchSize,
+            @Value("${sfr.learning.progress.heartbeat.id-cache-size:10000}") int idCacheSize,
+            @Value("${sfr.learning.progress.heartbeat.id-cache-ttl-ms:600000}") long idCacheTtlMillis) {
+        this.progressRepository = progressRepository;
+        this.contentRepository = contentRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.idCacheTtlMillis = idCacheTtlMillis;
+        this.validatedUsers = lru(idCacheSize);
+        this.validatedContents = lru(idCacheSize);
+    }
+
+    /**
+     * 心拍を受け付ける
+     *
+     * @return バッファ上の最新値（これまでの心拍の最大値）
+     * @throws EntityNotFoundException ユーザーまたはコンテンツが存在しない場合
+     */
+    public PendingProgress record(UUID userId, Long contentId, BigDecimal progressPercent) {
+        ContentInfo content = validate(userId, contentId);
+        Key key = new Key(userId, contentId);
+        PendingProgress reported = new PendingProgress(contentId, progressPercent, LocalDateTime.now(),
+                content.title(), content.spaceId());
+        PendingProgress merged = pending.merge(key, reported, PendingProgress::max);
+        if (merged.progressPercent().compareTo(COMPLETE) >= 0) {
+            // 完了は他の機能（バッジ・統計）からすぐ見えるよう即時に反映する
+            flush(List.of(key));
+        }
+        return merged;
+    }
+
+    /**
+     * ユーザーの未反映の進捗（コンテンツID → 値）
+     * バッファは反映間隔分の心拍しか持たないため全件走査で足りる
+     */
+    public Map<Long, PendingProgress> pendingFor(UUID userId) {
+        Map<Long, PendingProgress> result = new HashMap<>();
+        pending.forEach((key, value) -> {
+            if (key.userId().equals(userId)) {
+                result.put(key.contentId(), value);
+            }
+        });
+        return result;
+    }
+
+    public Optional<PendingProgress> pendingFor(UUID userId, Long contentId) {
+        return Optional.ofNullable(pending.get(new Key(userId, contentId)));
+    }
+
+    /**
+     * 未反映の値を捨てる（明示的な保存・削除で上書きされた場合）
+     */
+    public void discard(UUID userId, Long contentId) {
+        pending.remove(new Key(userId, contentId));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 定期反映
+     *
+     * @return 反映した件数
+     */
+    @Scheduled(fixedDelayString = "${sfr.learning.progress.heartbeat.flush-interval-ms:5000}")
+    public int flush() {
+        return flush(new ArrayList<>(pending.keySet()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int written = flush();
+        if (written > 0) {
+            log.info("Flushed {} buffered learning progress heartbeats on shutdown", written);
+        }
+    }
+
+    private int flush(List<Key> keys) {
+        int written = 0;
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            Map<Key, PendingProgress> chunk = new LinkedHashMap<>();
+            for (Key key : keys.subList(from, Math.min(from + batchSize, keys.size()))) {
+                PendingProgress value = pending.get(key);
+                if (value != null) {
+                    chunk.put(key, value);
+                }
+            }
+            written += write(chunk);
+        }
+        return written;
+    }
+
+    /**
+     * チャンクを1トランザクションで反映し、失敗したら1件ずつ反映し直す
+     * 書き出し中に届いた心拍は値が変わっているため、バッファから消さずに次回へ残す
+     */
+    private int write(Map<Key, PendingProgress> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> upsert(chunk));
+            chunk.forEach(pending::remove);
+            return chunk.size();
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                Map.Entry<Key, PendingProgress> only = chunk.entrySet().iterator().next();
+                log.warn("Dropping learning progress heartbeat for user {} content {}: {}",
+                        only.getKey().userId(), only.getKey().contentId(), e.getMessage());
+                pending.remove(only.getKey(), only.getValue());
+                forget(only.getKey());
+                return 0;
+            }
+            log.warn("Batch flush of {} learning progress heartbeats failed, retrying one by one: {}",
+                    chunk.size(), e.getMessage());
+            int written = 0;
+            for (Map.Entry<Key, PendingProgress> entry : chunk.entrySet()) {
+                written += write(Map.of(entry.getKey(), entry.getValue()));
+            }
+            return written;
+        }
+    }
+
+    private void upsert(Map<Key, PendingProgress> chunk) {
+        Map<Key, LearningProgress> existing = progressRepository
+                .findByUserIdInAndContentIdIn(
+                        chunk.keySet().stream().map(Key::userId).collect(Collectors.toSet()),
+                        chunk.keySet().stream().map(Key::contentId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(
+                        progress -> new Key(progress.getUser().getId(), progress.getLearningContent().getId()),
+                        progress -> progress));
+
+        List<LearningProgress> created = new ArrayList<>();
+        chunk.forEach((key, value) -> {
+            LearningProgress progress = existing.get(key);
+            if (progress == null) {
+                created.add(new LearningProgress(userRepository.getReferenceById(key.userId()),
+                        contentRepository.getReferenceById(key.contentId()), value.progressPercent()));
+            } else if (value.progressPercent().compareTo(progress.getProgressPercent()) > 0) {
+                progress.updateProgress(value.progressPercent());
+            }
+        });
+        progressRepository.saveAll(created);
+    }
+
+    private ContentInfo validate(UUID userId, Long contentId) {
+        long now = System.currentTimeMillis();
+        if (!isFresh(validatedUsers, userId, now)) {
+            if (!userRepository.existsById(userId)) {
+                throw new EntityNotFoundException("ユーザーが見つかりません: " + userId);
+            }
+            synchronized (validatedUsers) {
+                validatedUsers.put(userId, now);
+            }
+        }
+        ContentInfo content;
+        synchronized (validatedContents) {
+            content = validatedContents.get(contentId);
+        }
+        if (content == null || now - content.validatedAt() > idCacheTtlMillis) {
+            LearningContent found = contentRepository.findById(contentId)
+                    .orElseThrow(() -> new EntityNotFoundException("学習コンテンツが見つかりません: " + contentId));
+            content = new ContentInfo(found.getTitle(), found.getSpaceId(), now);
+            synchronized (validatedContents) {
+                validatedContents.put(contentId, content);
+            }
+        }
+        return content;
+    }
+
+    private boolean isFresh(Map<UUID, Long> cache, UUID id, long now) {
+        Long validatedAt;
+        synchronized (cache) {
+            validatedAt = cache.get(id);
+        }
+        return validatedAt != null && now - validatedAt <= idCacheTtlMillis;
+    }
+
+    private void forget(Key key) {
+        synchronized (validatedUsers) {
+            validatedUsers.remove(key.userId());
+        }
+        synchronized (validatedContents) {
+            validatedContents.remove(key.contentId());
+        }
+    }
+
+    private static <K, V> Map<K, V> lru(int maxSize) {
+        // アクセス順 LRU
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private record Key(UUID userId, Long contentId) {
+    }
+
+    private record ContentInfo(String title, Long spaceId, long validatedAt) {
+    }
+
+    /**
+     * 未反映の進捗
+     */
+    public record PendingProgress(Long contentId, BigDecimal progressPercent, LocalDateTime reportedAt,
+            String contentTitle, Long spaceId) {
+
+        /** 進捗率は大きい方、報告日時は新しい方 */
+        static PendingProgress max(PendingProgress current, PendingProgress reported) {
+            if (reported.progressPercent().compareTo(current.progressPercent()) > 0) {
+                return reported;
+            }
+            return new PendingProgress(current.contentId(), current.progressPercent(), reported.reportedAt(),
+                    current.contentTitle(), current.spaceId());
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.sfr.tokyo.sfr_backend.service.learning.rating;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.FeedbackType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.ModerationStatus;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.TargetType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackMonthlyRollup;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackRatingSummary;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackMonthlyRollupRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRatingSummaryRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.FeedbackMonthlyAggregate;
+import com.sfr.tokyo.sfr_backend.repository.projection.FeedbackRatingAggregate;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * フィードバック評価の事前集計
+ *
+ * 対象別サマリーと月別・タイプ別件数を、フィードバックの集計対象としての寄与（{@link Contribution}）の
+ * 変化分だけ呼び出し元のトランザクション内で加減算する。集計対象は未削除かつモデレーションで拒否されていないもの。
+ * 行がなければ追加するが、同じ対象・月の最初の1件が並行しても一意制約違反にならないよう upsert で書く。
+ *
+ * 対象別サマリーは件数上限付きの LRU に載せ、変更がコミットされたら対象のエントリを破棄して次の参照で読み直す。
+ * コミット前に読み始めた値を後から載せないよう、読み込み中にコミットされた対象の読み込み結果は載せない。
+ * 他ノードでの更新は ttl-ms で読み直すまで反映されない。
+ */
+@Slf4j
+@Component
+public class FeedbackRatingStore {
+
+    private final LearningFeedbackRatingSummaryRepository summaryRepository;
+    private final LearningFeedbackMonthlyRollupRepository rollupRepository;
+    private final LearningFeedbackRepository feedbackRepository;
+    private final BatchWriter batchWriter;
+    private final UpsertWriter upsertWriter;
+    private final long ttlMillis;
+    private final Map<Key, Entry> entries;
+    /** DB から読み込み中の対象（entries と同じロックで扱う） */
+    private final Map<Key, Load> loads = new HashMap<>();
+
+    public FeedbackRatingStore(LearningFeedbackRatingSummaryRepository summaryRepository,
+            LearningFeedbackMonthlyRollupRepository rollupRepository,
+            LearningFeedbackRepository feedbackRepository,
+            BatchWriter batchWriter,
+            UpsertWriter upsertWriter,
+            @Value("${sfr.learning.feedback.rating-cache.size:20000}") int maxTargets,
+            @Value("${sfr.learning.feedback.rating-cache.ttl-ms:300000}") long ttlMillis) {
+        this.summaryRepository = summaryRepository;
+        this.rollupRepository = rollupRepository;
+        this.feedbackRepository = feedbackRepository;
+        this.batchWriter = batchWriter;
+        this.upsertWriter = upsertWriter;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxTargets;
+            }
+        };
+    }
+
+    /**
+     * 1件のフィードバックが集計に与える寄与
+     */
+    public record Contribution(TargetType targetType, Long targetId, FeedbackType feedbackType, String month,
+            int rating) {
+    }
+
+    /**
+     * 現在の状態での寄与（集計対象外なら null）
+     */
+    public static Contribution contributionOf(LearningFeedback feedback) {
+        return feedback == null ? null : contributionOf(feedback, feedback.getModerationStatus());
+    }
+
+    /**
+     * モデレーション状態だけを置き換えた場合の寄与
+     */
+    public static Contribution contributionOf(LearningFeedback feedback, ModerationStatus moderationStatus) {
+        if (feedback == null || feedback.getDeletedAt() != null || moderationStatus == ModerationStatus.REJECTED
+                || feedback.getTargetType() == null || feedback.getTargetId() == null
+                || feedback.getRating() == null) {
+            return null;
+        }
+        String month = feedback.getCreatedAt() != null ? YearMonth.from(feedback.getCreatedAt()).toString() : null;
+        return new Contribution(feedback.getTargetType(), feedback.getTargetId(), feedback.getFeedbackType(), month,
+                feedback.getRating());
+    }
+
+    /**
+     * 寄与の変化を反映する（before / after のどちらかが null なら追加・除外）
+     */
+    public void apply(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (before != null && after != null && sameTarget(before, after)) {
+            long[] delta = delta(before, -1);
+            add(delta, delta(after, 1));
+            applySummary(before.targetType(), before.targetId(), delta, now);
+        } else {
+            if (before != null) {
+                applySummary(before.targetType(), before.targetId(), delta(before, -1), now);
+            }
+            if (after != null) {
+                applySummary(after.targetType(), after.targetId(), delta(after, 1), now);
+            }
+        }
+        boolean sameBucket = before != null && after != null && Objects.equals(before.month(), after.month())
+                && before.feedbackType() == after.feedbackType();
+        if (!sameBucket) {
+            if (before != null) {
+                applyRollup(before, -1, now);
+            }
+            if (after != null) {
+                applyRollup(after, 1, now);
+            }
+        }
+    }
+
+    /**
+     * 対象のサマリー
+     */
+    public RatingSummary summary(TargetType targetType, Long targetId) {
+        Key key = new Key(targetType, targetId);
+        long now = System.currentTimeMillis();
+        Load load;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.loadedAt() <= ttlMillis) {
+                return entry.summary();
+            }
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.readers++;
+        }
+        RatingSummary loaded = null;
+        try {
+            loaded = summaryRepository.findByTargetTypeAndTargetId(targetType, targetId)
+                    .map(RatingSummary::of)
+                    .orElse(RatingSummary.EMPTY);
+        } finally {
+            synchronized (entries) {
+                if (--load.readers == 0) {
+                    loads.remove(key, load);
+                }
+                if (loaded != null && !load.stale) {
+                    entries.put(key, new Entry(loaded, now));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * タイプ別件数（[タイプ, 件数]）
+     */
+    public List<Object[]> countByFeedbackType() {
+        return rollupRepository.sumByFeedbackType();
+    }
+
+    /**
+     * 指定日時の月以降の月別件数（[yyyy-MM, 件数]）。起点の月は月初から数える
+     */
+    public List<Object[]> countByMonth(LocalDateTime fromDate) {
+        String fromMonth = fromDate != null ? YearMonth.from(fromDate).toString() : "";
+        return rollupRepository.sumByMonthFrom(fromMonth);
+    }
+
+    /**
+     * フィードバック本体から全サマリーと月別件数を作り直す（呼び出し元のトランザクション内で使う）
+     *
+     * @return 作成した対象別サマリーの件数
+     */
+    public int rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        summaryRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+
+        List<LearningFeedbackRatingSummary> summaries = new ArrayList<>();
+        for (FeedbackRatingAggregate row : feedbackRepository.aggregateRatingsByTarget(ModerationStatus.REJECTED)) {
+            summaries.add(LearningFeedbackRatingSummary.builder()
+                    .targetType(row.targetType())
+                    .targetId(row.targetId())
+                    .feedbackCount(row.count())
+                    .ratingSum(orZero(row.ratingSum()))
+                    .rating1Count(orZero(row.rating1Count()))
+                    .rating2Count(orZero(row.rating2Count()))
+                    .rating3Count(orZero(row.rating3Count()))
+                    .rating4Count(orZero(row.rating4Count()))
+                    .rating5Count(orZero(row.rating5Count()))
+                    .updatedAt(now)
+                    .build());
+        }
+        List<LearningFeedbackMonthlyRollup> rollups = new ArrayList<>();
+        for (FeedbackMonthlyAggregate row : feedbackRepository.aggregateByMonthAndType(ModerationStatus.REJECTED)) {
+            if (row.year() == null || row.month() == null) {
+                continue;
+            }
+            rollups.add(LearningFeedbackMonthlyRollup.builder()
+                    .periodMonth(YearMonth.of(row.year(), row.month()).toString())
+                    .feedbackType(row.feedbackType())
+                    .feedbackCount(row.count())
+                    .updatedAt(now)
+                    .build());
+        }
+        int created = batchWriter.insertAll(summaries);
+        batchWriter.insertAll(rollups);
+        CommittedChanges.afterCommit(() -> {
+            synchronized (entries) {
+                entries.clear();
+                loads.values().forEach(load -> load.stale = true);
+                loads.clear();
+            }
+        });
+        log.info("Feedback rating summaries rebuilt: targets={}, monthlyRollups={}", created, rollups.size());
+        return created;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void applySummary(TargetType targetType, Long targetId, long[] delta, LocalDateTime now) {
+        if (isZero(delta)) {
+            return;
+        }
+        IntSupplier update = () -> summaryRepository.applyDelta(targetType, targetId, delta[0], delta[1],
+                delta[2], delta[3], delta[4], delta[5], delta[6], now);
+        if (delta[0] > 0) {
+            upsertWriter.upsert(update, () -> LearningFeedbackRatingSummary.builder()
+                    .targetType(targetType)
+                    .targetId(targetId)
+                    .feedbackCount(delta[0])
+                    .ratingSum(delta[1])
+                    .rating1Count(delta[2])
+                    .rating2Count(delta[3])
+                    .rating3Count(delta[4])
+                    .rating4Count(delta[5])
+                    .rating5Count(delta[6])
+                    .updatedAt(now)
+                    .build());
+        } else if (update.getAsInt() == 0) {
+            // サマリーのない対象からの除外は集計とずれている。再構築で揃える
+            log.warn("Rating summary missing for {}:{}, delta ignored", targetType, targetId);
+            return;
+        }
+        Key key = new Key(targetType, targetId);
+        CommittedChanges.afterCommit(() -> invalidate(key));
+    }
+
+    /**
+     * コミット済みの変更を反映するため対象のエントリを破棄する（読み込み中の結果も載せない）
+     */
+    private void invalidate(Key key) {
+        synchronized (entries) {
+            entries.remove(key);
+            Load load = loads.remove(key);
+            if (load != null) {
+                load.stale = true;
+            }
+        }
+    }
+
+    private void applyRollup(Contribution contribution, long sign, LocalDateTime now) {
+        if (contribution.month() == null || contribution.feedbackType() == null) {
+            return;
+        }
+        IntSupplier update = () -> rollupRepository.applyDelta(contribution.month(), contribution.feedbackType(),
+                sign, now);
+        if (sign > 0) {
+            // その月・タイプの最初の1件で行を追加する
+            upsertWriter.upsert(update, () -> LearningFeedbackMonthlyRollup.builder()
+                    .periodMonth(contribution.month())
+                    .feedbackType(contribution.feedbackType())
+                    .feedbackCount(1L)
+                    .updatedAt(now)
+                    .build());
+        } else {
+            update.getAsInt();
+        }
+    }
+
+    private static boolean sameTarget(Contribution a, Contribution b) {
+        return a.targetType() == b.targetType() && a.targetId().equals(b.targetId());
+    }
+
+    /**
+     * 件数・合計・評価1〜5 の順の差分
+     */
+    private static long[] delta(Contribution contribution, long sign) {
+        long[] delta = new long[7];
+        delta[0] = sign;
+        delta[1] = sign * contribution.rating();
+        if (contribution.rating() >= 1 && contribution.rating() <= 5) {
+            delta[contribution.rating() + 1] = sign;
+        }
+        return delta;
+    }
+
+    private static void add(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += other[i];
+        }
+    }
+
+    private static boolean isZero(long[] delta) {
+        for (long value : delta) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+
+    private record Key(TargetType targetType, Long targetId) {
+    }
+
+    private record Entry(RatingSummary summary, long loadedAt) {
+    }
+
+    /**
+     * 同じ対象の読み込み（読み込み中に変更がコミットされたら stale）
+     */
+    private static final class Load {
+        private int readers;
+        private boolean stale;
+    }
+}
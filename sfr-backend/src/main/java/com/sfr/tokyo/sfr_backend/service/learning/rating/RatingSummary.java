@@ -0,0 +1,46 @@
+package com.sfr.tokyo.sfr_backend.service.learning.rating;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackRatingSummary;
+
+/**
+ * 対象の評価サマリー（件数・評価合計・評価1〜5の件数）
+ * histogram[i] は評価 i + 1 の件数。作成後は配列を変更しない。
+ */
+public record RatingSummary(long count, long sum, long[] histogram) {
+
+    public static final RatingSummary EMPTY = new RatingSummary(0, 0, new long[5]);
+
+    public static RatingSummary of(LearningFeedbackRatingSummary row) {
+        return new RatingSummary(row.getFeedbackCount(), row.getRatingSum(), new long[] {
+                row.getRating1Count(), row.getRating2Count(), row.getRating3Count(),
+                row.getRating4Count(), row.getRating5Count() });
+    }
+
+    /**
+     * 平均評価（小数第2位で四捨五入、0件なら 0）
+     */
+    public BigDecimal average() {
+        if (count <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 評価分布（[評価, 件数]、件数のある評価のみ昇順）
+     */
+    public List<Object[]> distribution() {
+        List<Object[]> rows = new ArrayList<>(histogram.length);
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] > 0) {
+                rows.add(new Object[] { i + 1, histogram[i] });
+            }
+        }
+        return rows;
+    }
+}
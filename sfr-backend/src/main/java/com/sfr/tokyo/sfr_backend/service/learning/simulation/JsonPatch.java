@@ -0,0 +1,223 @@
+package com.sfr.tokyo.sfr_backend.service.learning.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+
+/**
+ * JSON Patch（RFC 6902）の add / remove / replace / test の適用と、2つの文書の差分作成
+ *
+ * 差分はオブジェクトをキー単位で再帰的に比較し、配列とスカラーは値ごと置き換える。
+ * 差分の方が置き換え後の文書より大きくなる場合は文書全体の replace 1件にする。
+ */
+public final class JsonPatch {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+    }
+
+    /**
+     * from を to にする操作列
+     */
+    public static ArrayNode diff(JsonNode from, JsonNode to) {
+        JsonNode source = orNull(from);
+        JsonNode target = orNull(to);
+        ArrayNode ops = NODES.arrayNode();
+        if (source.equals(target)) {
+            return ops;
+        }
+        diff(source, target, "", ops);
+        if (ops.size() > 1 && ops.toString().length() > target.toString().length()) {
+            ops.removeAll();
+            ops.add(op("replace", "", target));
+        }
+        return ops;
+    }
+
+    /**
+     * 操作列を順に適用する。doc は変更されることがあり、戻り値を新しい文書として使う
+     *
+     * @throws BusinessException 操作列が不正、またはパスが文書に存在しない場合
+     */
+    public static JsonNode apply(JsonNode doc, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw invalid("patch must be an array of operations");
+        }
+        JsonNode root = orNull(doc);
+        for (JsonNode operation : patch) {
+            String op = operation.path("op").asText(null);
+            JsonNode pathNode = operation.get("path");
+            if (op == null || pathNode == null || !pathNode.isTextual()) {
+                throw invalid("operation requires op and path: " + operation);
+            }
+            List<String> path = parsePointer(pathNode.asText());
+            JsonNode value = operation.get("value");
+            switch (op) {
+                case "add" -> root = add(root, path, required(value, operation));
+                case "replace" -> root = replace(root, path, required(value, operation));
+                case "remove" -> root = remove(root, path);
+                case "test" -> {
+                    if (!resolve(root, path).equals(required(value, operation))) {
+                        throw invalid("test failed at " + pathNode.asText());
+                    }
+                }
+                default -> throw invalid("unsupported op: " + op);
+            }
+        }
+        return root;
+    }
+
+    private static void diff(JsonNode source, JsonNode target, String path, ArrayNode ops) {
+        if (source.isObject() && target.isObject()) {
+            for (Map.Entry<String, JsonNode> field : source.properties()) {
+                String child = path + "/" + escape(field.getKey());
+                JsonNode next = target.get(field.getKey());
+                if (next == null) {
+                    ops.add(op("remove", child, null));
+                } else if (!field.getValue().equals(next)) {
+                    diff(field.getValue(), next, child, ops);
+                }
+            }
+            for (Map.Entry<String, JsonNode> field : target.properties()) {
+                if (!source.has(field.getKey())) {
+                    ops.add(op("add", path + "/" + escape(field.getKey()), field.getValue()));
+                }
+            }
+            return;
+        }
+        ops.add(op("replace", path, target));
+    }
+
+    private static JsonNode add(JsonNode root, List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            return value.deepCopy();
+        }
+        JsonNode parent = resolve(root, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            object.set(last, value.deepCopy());
+        } else if (parent instanceof ArrayNode array) {
+            if ("-".equals(last)) {
+                array.add(value.deepCopy());
+            } else {
+                array.insert(index(array, last, true), value.deepCopy());
+            }
+        } else {
+            throw invalid("cannot add into a scalar at " + String.join("/", path));
+        }
+        return root;
+    }
+
+    private static JsonNode replace(JsonNode root, List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            return value.deepCopy();
+        }
+        JsonNode parent = resolve(root, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object && object.has(last)) {
+            object.set(last, value.deepCopy());
+        } else if (parent instanceof ArrayNode array) {
+            array.set(index(array, last, false), value.deepCopy());
+        } else {
+            throw invalid("path not found: /" + String.join("/", path));
+        }
+        return root;
+    }
+
+    private static JsonNode remove(JsonNode root, List<String> path) {
+        if (path.isEmpty()) {
+            return NullNode.instance;
+        }
+        JsonNode parent = resolve(root, path.subList(0, path.size() - 1));
+        String last = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object && object.has(last)) {
+            object.remove(last);
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(array, last, false));
+        } else {
+            throw invalid("path not found: /" + String.join("/", path));
+        }
+        return root;
+    }
+
+    private static JsonNode resolve(JsonNode root, List<String> path) {
+        JsonNode node = root;
+        for (String token : path) {
+            if (node.isObject()) {
+                node = node.get(token);
+            } else if (node.isArray()) {
+                node = node.get(index((ArrayNode) node, token, false));
+            } else {
+                node = null;
+            }
+            if (node == null) {
+                throw invalid("path not found: /" + String.join("/", path));
+            }
+        }
+        return node;
+    }
+
+    private static int index(ArrayNode array, String token, boolean allowEnd) {
+        int index;
+        try {
+            index = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw invalid("invalid array index: " + token);
+        }
+        int limit = allowEnd ? array.size() : array.size() - 1;
+        if (index < 0 || index > limit) {
+            throw invalid("array index out of range: " + token);
+        }
+        return index;
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw invalid("invalid JSON pointer: " + pointer);
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String escape(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static ObjectNode op(String op, String path, JsonNode value) {
+        ObjectNode node = NODES.objectNode().put("op", op).put("path", path);
+        if (value != null) {
+            node.set("value", value);
+        }
+        return node;
+    }
+
+    private static JsonNode required(JsonNode value, JsonNode operation) {
+        if (value == null) {
+            throw invalid("operation requires value: " + operation);
+        }
+        return value;
+    }
+
+    private static JsonNode orNull(JsonNode node) {
+        return node == null || node.isMissingNode() ? NullNode.instance : node;
+    }
+
+    private static BusinessException invalid(String message) {
+        return new BusinessException(ErrorCode.BAD_REQUEST, "Invalid JSON patch: " + message);
+    }
+}
@@ -0,0 +1,314 @@
+package com.sfr.tokyo.sfr_backend.service.learning.simulation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulation;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulationStateDelta;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulationStateDelta.Channel;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningSimulationRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningSimulationStateDeltaRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.SimulationSnapshotRow;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * シミュレーションの状態データ・フィードバックデータの差分保存
+ *
+ * 更新は文書全体を書き直さず、1リクエスト分の JSON Patch を差分ログに1行追記する。
+ * 現在の文書は読み出し時にシミュレーション行のスナップショットへ以降の差分を適用して組み立てる。
+ * スナップショット以降の差分が compact-threshold 件に達したとき、または最後の差分から compact-idle-ms 経過したとき
+ * 現在の文書をスナップショットとして書き戻す。取り込み済みの差分は、古いスナップショットを読んだ読み手が
+ * 続きを読めるよう次の掃除まで残す。
+ * 同じシミュレーションへの同時書き込みは seq の一意制約で後発のリクエストを CONFLICT（409）にし、
+ * クライアントに最新の状態からの再送を促す。
+ */
+@Slf4j
+@Component
+public class SimulationStateStore {
+
+    private final LearningSimulationStateDeltaRepository deltaRepository;
+    private final LearningSimulationRepository simulationRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int compactThreshold;
+    private final long idleMillis;
+    private final long sweepIntervalMillis;
+
+    public SimulationStateStore(LearningSimulationStateDeltaRepository deltaRepository,
+            LearningSimulationRepository simulationRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${sfr.learning.simulation.state.compact-threshold:50}") int compactThreshold,
+            @Value("${sfr.learning.simulation.state.compact-idle-ms:600000}") long idleMillis,
+            @Value("${sfr.learning.simulation.state.sweep-interval-ms:300000}") long sweepIntervalMillis) {
+        this.deltaRepository = deltaRepository;
+        this.simulationRepository = simulationRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compactThreshold = Math.max(1, compactThreshold);
+        this.idleMillis = idleMillis;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+
+    /**
+     * スナップショット（seq までの差分を取り込んだ文書）
+     */
+    public record Snapshot(Long simulationId, Channel channel, String json, long seq) {
+
+        public static Snapshot of(LearningSimulation simulation, Channel channel) {
+            return channel == Channel.STATE
+                    ? new Snapshot(simulation.getId(), channel, simulation.getStateData(),
+                            orZero(simulation.getStateSnapshotSeq()))
+                    : new Snapshot(simulation.getId(), channel, simulation.getFeedbackData(),
+                            orZero(simulation.getFeedbackSnapshotSeq()));
+        }
+
+        public static Snapshot of(SimulationSnapshotRow row, Channel channel) {
+            return new Snapshot(row.simulationId(), channel, row.json(), orZero(row.seq()));
+        }
+    }
+
+    /**
+     * 1リクエスト分の変更の作業領域（現在の文書と、追記する操作列）
+     */
+    public static final class Draft {
+        private final Snapshot base;
+        private final ArrayNode ops;
+        private JsonNode document;
+        private long lastSeq;
+
+        private Draft(Snapshot base, JsonNode document, long lastSeq, ArrayNode ops) {
+            this.base = base;
+            this.document = document;
+            this.lastSeq = lastSeq;
+            this.ops = ops;
+        }
+
+        public JsonNode document() {
+            return document;
+        }
+
+        /** 反映済みの最新 seq（状態の版） */
+        public long version() {
+            return lastSeq;
+        }
+
+        public boolean isDirty() {
+            return !ops.isEmpty();
+        }
+    }
+
+    /**
+     * 現在の文書を組み立てて作業領域を開く
+     */
+    public Draft open(Snapshot base) {
+        JsonNode document = parse(base.json());
+        long lastSeq = base.seq();
+        for (LearningSimulationStateDelta delta : deltaRepository.findAfter(base.simulationId(), base.channel(),
+                base.seq())) {
+            document = JsonPatch.apply(document, parse(delta.getPatch()));
+            lastSeq = delta.getSeq();
+        }
+        return new Draft(base, document, lastSeq, objectMapper.createArrayNode());
+    }
+
+    /**
+     * シミュレーション行の現在のスナップショットから作業領域を開く
+     */
+    public Draft open(Long simulationId, Channel channel) {
+        return loadSnapshot(simulationId, channel)
+                .map(this::open)
+                .orElseThrow(() -> new RuntimeException("Simulation not found with ID: " + simulationId));
+    }
+
+    /**
+     * 現在の文書（JSON 文字列、未設定なら null）
+     */
+    public String resolve(Snapshot base) {
+        return write(open(base).document());
+    }
+
+    /**
+     * 同じチャネルの複数スナップショットの現在の文書（差分は1回のクエリで読む）
+     */
+    public Map<Long, String> resolveAll(Collection<Snapshot> snapshots) {
+        Map<Long, String> resolved = new HashMap<>();
+        if (snapshots.isEmpty()) {
+            return resolved;
+        }
+        Channel channel = snapshots.iterator().next().channel();
+        Map<Long, List<LearningSimulationStateDelta>> deltas = new HashMap<>();
+        List<Long> ids = snapshots.stream().map(Snapshot::simulationId).toList();
+        for (LearningSimulationStateDelta delta : deltaRepository.findBySimulationIdIn(ids, channel)) {
+            deltas.computeIfAbsent(delta.getSimulationId(), id -> new ArrayList<>()).add(delta);
+        }
+        for (Snapshot snapshot : snapshots) {
+            List<LearningSimulationStateDelta> pending = deltas.getOrDefault(snapshot.simulationId(), List.of());
+            if (pending.stream().noneMatch(delta -> delta.getSeq() > snapshot.seq())) {
+                resolved.put(snapshot.simulationId(), snapshot.json());
+                continue;
+            }
+            JsonNode document = parse(snapshot.json());
+            for (LearningSimulationStateDelta delta : pending) {
+                if (delta.getSeq() > snapshot.seq()) {
+                    document = JsonPatch.apply(document, parse(delta.getPatch()));
+                }
+            }
+            resolved.put(snapshot.simulationId(), write(document));
+        }
+        return resolved;
+    }
+
+    /**
+     * 操作列を適用する（適用できない操作列はリクエスト全体を拒否する）
+     */
+    public void patch(Draft draft, JsonNode patch) {
+        draft.document = JsonPatch.apply(draft.document, patch);
+        draft.ops.addAll((ArrayNode) patch);
+    }
+
+    /**
+     * 文書全体を置き換える（現在の文書との差分だけを記録する）
+     */
+    public void replace(Draft draft, String json) {
+        JsonNode next = parse(json);
+        draft.ops.addAll(JsonPatch.diff(draft.document, next));
+        // 操作列が値として参照するノードを、続く patch で書き換えないよう複製を作業文書にする
+        draft.document = next.deepCopy();
+    }
+
+    /**
+     * 作業領域の操作列を差分ログに1行追記し、必要ならスナップショットを書き戻す
+     *
+     * @return 追記後の版
+     * @throws BusinessException 同じ版へ別のリクエストが先に追記していた場合（CONFLICT）
+     */
+    public long commit(Draft draft) {
+        if (!draft.isDirty()) {
+            return draft.lastSeq;
+        }
+        long seq = draft.lastSeq + 1;
+        try {
+            // 一意制約違反をコミット時ではなくここで受け取るため、すぐに INSERT する
+            deltaRepository.saveAndFlush(LearningSimulationStateDelta.builder()
+                    .simulationId(draft.base.simulationId())
+                    .channel(draft.base.channel())
+                    .seq(seq)
+                    .patch(draft.ops.toString())
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessException(ErrorCode.CONFLICT,
+                    "Simulation " + draft.base.simulationId() + " was updated concurrently; reload and retry");
+        }
+        draft.lastSeq = seq;
+        draft.ops.removeAll();
+        if (seq - draft.base.seq() >= compactThreshold) {
+            writeSnapshot(draft.base.simulationId(), draft.base.channel(), draft.document, seq);
+        }
+        return seq;
+    }
+
+    /**
+     * 取り込まれていない差分をスナップショットに書き戻す（呼び出し元のトランザクション内で使う）
+     */
+    public void compact(Long simulationId, Channel channel) {
+        loadSnapshot(simulationId, channel)
+                .map(this::open)
+                .filter(draft -> draft.lastSeq > draft.base.seq())
+                .ifPresent(draft -> writeSnapshot(simulationId, channel, draft.document, draft.lastSeq));
+    }
+
+    /**
+     * 取り込み済みの古い差分を消し、更新の止まったシミュレーションの差分をスナップショットに取り込む
+     * 今回取り込んだ分は次回以降に消す
+     */
+    @Scheduled(fixedDelayString = "${sfr.learning.simulation.state.sweep-interval-ms:300000}",
+            initialDelayString = "${sfr.learning.simulation.state.sweep-interval-ms:300000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer purged = transactionTemplate.execute(status -> deltaRepository.purgeCompacted(
+                now.minus(Duration.ofMillis(sweepIntervalMillis)), Channel.STATE));
+        List<Object[]> idle = deltaRepository.findIdlePending(now.minus(Duration.ofMillis(idleMillis)),
+                Channel.STATE);
+        int compacted = 0;
+        for (Object[] row : idle) {
+            Long simulationId = (Long) row[0];
+            Channel channel = (Channel) row[1];
+            try {
+                transactionTemplate.executeWithoutResult(status -> compact(simulationId, channel));
+                compacted++;
+            } catch (RuntimeException e) {
+                // 次回の掃除で再試行する
+                log.warn("Failed to compact simulation {} {}: {}", simulationId, channel, e.getMessage());
+            }
+        }
+        if (compacted > 0 || (purged != null && purged > 0)) {
+            log.info("Simulation state sweep: compacted={}, purgedDeltas={}", compacted, purged);
+        }
+    }
+
+    /**
+     * シミュレーションの差分をすべて削除する（シミュレーション削除時）
+     */
+    public void discard(Long simulationId) {
+        deltaRepository.deleteBySimulationId(simulationId);
+    }
+
+    public JsonNode parse(String json) {
+        if (json == null || json.isBlank()) {
+            return NullNode.instance;
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    public String write(JsonNode document) {
+        return document == null || document.isNull() || document.isMissingNode() ? null : document.toString();
+    }
+
+    private Optional<Snapshot> loadSnapshot(Long simulationId, Channel channel) {
+        return (channel == Channel.STATE
+                ? simulationRepository.findStateSnapshot(simulationId)
+                : simulationRepository.findFeedbackSnapshot(simulationId))
+                .map(row -> Snapshot.of(row, channel));
+    }
+
+    private void writeSnapshot(Long simulationId, Channel channel, JsonNode document, long seq) {
+        String json = write(document);
+        if (channel == Channel.STATE) {
+            simulationRepository.compactState(simulationId, json, seq);
+        } else {
+            simulationRepository.compactFeedback(simulationId, json, seq);
+        }
+        log.debug("Compacted simulation {} {} at seq {}", simulationId, channel, seq);
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sfr.tokyo.sfr_backend.service.ocr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ローカル用の OCR バックエンド（開発・テスト用）
+ * Vision API を呼ばず、マイナンバーカードのサンプルテキストを返す
+ */
+public class FakeOcrBackend implements OcrBackend {
+
+    public static final String SAMPLE_TEXT = """
+            マイナンバーカード
+            個人番号カード
+
+            山田太郎
+            YAMADA TARO
+
+            昭和60年1月1日
+            男
+
+            12345678901234567890123456789012
+
+            東京都千代田区霞が関1-1-1
+
+            令和6年8月23日まで有効
+            """;
+
+    private final int maxBatchSize;
+
+    public FakeOcrBackend(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public List<OcrText> annotate(List<byte[]> images) {
+        List<OcrText> results = new ArrayList<>(images.size());
+        for (int i = 0; i < images.size(); i++) {
+            results.add(OcrText.of(SAMPLE_TEXT));
+        }
+        return results;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+}
@@ -0,0 +1,43 @@
+package com.sfr.tokyo.sfr_backend.service.ocr;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * OCR バックエンド（バッチ単位でテキスト抽出を行う）
+ */
+public interface OcrBackend extends Closeable {
+
+    /**
+     * 複数画像をまとめてテキスト抽出する
+     *
+     * @param images 前処理済みの画像バイト列
+     * @return 入力と同じ順序の抽出結果
+     * @throws Exception バッチ全体が失敗した場合
+     */
+    List<OcrText> annotate(List<byte[]> images) throws Exception;
+
+    /** 1回のバッチ呼び出しで送れる最大画像数 */
+    int maxBatchSize();
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * 1画像分の抽出結果
+     *
+     * @param text  抽出テキスト（失敗時は null）
+     * @param error エラー内容（成功時は null）
+     */
+    record OcrText(String text, String error) {
+
+        public static OcrText of(String text) {
+            return new OcrText(text, null);
+        }
+
+        public static OcrText failed(String error) {
+            return new OcrText(null, error);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sfr.tokyo.sfr_backend.service.ocr;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * OCR ジョブ（1画像分）
+ * 同一内容の画像は同じジョブを共有する。状態を参照できるのは画像を投入したユーザーだけ
+ */
+@Getter
+public class OcrJob {
+
+    public enum Status {
+        QUEUED,
+        PROCESSING,
+        DONE,
+        FAILED
+    }
+
+    private final String id;
+    private final String contentHash;
+    private final Instant createdAt = Instant.now();
+    private final CompletableFuture<String> text = new CompletableFuture<>();
+    @Getter(AccessLevel.NONE)
+    private final Set<String> owners = ConcurrentHashMap.newKeySet();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String error;
+    private volatile Instant completedAt;
+
+    OcrJob(String id, String contentHash) {
+        this.id = id;
+        this.contentHash = contentHash;
+    }
+
+    void addOwner(String ownerId) {
+        owners.add(ownerId);
+    }
+
+    /**
+     * 指定ユーザーがこの画像を投入したか
+     */
+    public boolean isOwnedBy(String ownerId) {
+        return ownerId != null && owners.contains(ownerId);
+    }
+
+    void markProcessing() {
+        status = Status.PROCESSING;
+    }
+
+    void complete(String result) {
+        completedAt = Instant.now();
+        status = Status.DONE;
+        text.complete(result);
+    }
+
+    void fail(String message) {
+        completedAt = Instant.now();
+        error = message;
+        status = Status.FAILED;
+        text.completeExceptionally(new IllegalStateException(message));
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+}
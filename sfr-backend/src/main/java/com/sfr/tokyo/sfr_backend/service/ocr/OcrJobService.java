@@ -0,0 +1,301 @@
+package com.sfr.tokyo.sfr_backend.service.ocr;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OCR ジョブの受付・前処理・バッチ実行を行うサービス
+ *
+ * 1. 受付: 画像のハッシュで重複排除し、ジョブIDを即時返却する（重複時は投入者をジョブへ追加する）
+ * 2. 前処理: リクエストスレッド外で縮小・グレースケール化する
+ * 3. バッチ: 最大 N 枚または最大待ち時間で束ね、共有クライアントで1回のAPI呼び出しにまとめる
+ * 完了したジョブは保持期間が過ぎるまでジョブIDでポーリングできる。
+ */
+@Slf4j
+@Service
+public class OcrJobService {
+
+    /** 前処理後の長辺の最大ピクセル数（OCR精度に十分な解像度） */
+    static final int PREPROCESS_MAX_EDGE = 2048;
+
+    private final OcrBackend backend;
+    private final int batchSize;
+    private final long maxBatchWaitMillis;
+    private final Duration retention;
+
+    private final Map<String, OcrJob> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, OcrJob> jobsByHash = new ConcurrentHashMap<>();
+    private final BlockingQueue<PreparedImage> batchQueue = new LinkedBlockingQueue<>();
+
+    private final ThreadPoolExecutor preprocessExecutor;
+    private final ExecutorService batchExecutor;
+    private final Thread dispatcher;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong dedupHitCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private record PreparedImage(OcrJob job, byte[] bytes) {
+    }
+
+    public OcrJobService(OcrBackend backend,
+            @Value("${ocr.batch.size:16}") int batchSize,
+            @Value("${ocr.batch.max-wait-ms:100}") long maxBatchWaitMillis,
+            @Value("${ocr.batch.concurrency:2}") int batchConcurrency,
+            @Value("${ocr.preprocess.queue-capacity:200}") int preprocessQueueCapacity,
+            @Value("${ocr.job.retention-minutes:30}") long retentionMinutes) {
+        this.backend = backend;
+        this.batchSize = Math.max(1, Math.min(batchSize, backend.maxBatchSize()));
+        this.maxBatchWaitMillis = maxBatchWaitMillis;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.preprocessExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(preprocessQueueCapacity), daemon("OcrPreprocess"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.batchExecutor = Executors.newFixedThreadPool(Math.max(1, batchConcurrency), daemon("OcrBatch"));
+
+        this.dispatcher = new Thread(this::dispatchLoop, "OcrBatchDispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * OCR ジョブを受け付ける
+     * 同一内容の画像が処理中・保持期間内であれば既存ジョブを返す
+     *
+     * @param ownerId    投入したユーザー（このユーザーだけがジョブを参照できる）
+     * @param imageBytes 元画像のバイト列
+     * @return ジョブ
+     * @throws BusinessException 前処理キューが満杯の場合
+     */
+    public OcrJob submit(String ownerId, byte[] imageBytes) {
+        String contentHash = sha256(imageBytes);
+        OcrJob existing = jobsByHash.get(contentHash);
+        if (existing != null && existing.getStatus() != OcrJob.Status.FAILED) {
+            dedupHitCount.incrementAndGet();
+            existing.addOwner(ownerId);
+            return existing;
+        }
+
+        OcrJob job = new OcrJob(UUID.randomUUID().toString(), contentHash);
+        job.addOwner(ownerId);
+        OcrJob winner = jobsByHash.merge(contentHash, job,
+                (current, candidate) -> current.getStatus() == OcrJob.Status.FAILED ? candidate : current);
+        if (winner != job) {
+            dedupHitCount.incrementAndGet();
+            winner.addOwner(ownerId);
+            return winner;
+        }
+
+        jobsById.put(job.getId(), job);
+        submittedCount.incrementAndGet();
+        try {
+            preprocessExecutor.execute(() -> {
+                try {
+                    batchQueue.add(new PreparedImage(job, preprocess(imageBytes)));
+                } catch (RuntimeException e) {
+                    job.fail("前処理に失敗しました: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobsById.remove(job.getId());
+            jobsByHash.remove(contentHash, job);
+            job.fail("OCR queue is full");
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS, "OCR処理が混雑しています。しばらくしてから再試行してください");
+        }
+        return job;
+    }
+
+    /**
+     * ジョブIDでジョブを取得する
+     *
+     * @param ownerId 参照するユーザー（投入していないジョブは存在しないものとして扱う）
+     */
+    public Optional<OcrJob> find(String jobId, String ownerId) {
+        return Optional.ofNullable(jobsById.get(jobId)).filter(job -> job.isOwnedBy(ownerId));
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getDedupHitCount() {
+        return dedupHitCount.get();
+    }
+
+    /** バックエンド呼び出し回数 */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public int getEffectiveBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * 保持期間を過ぎた完了ジョブを削除する
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredJobs() {
+        Instant threshold = Instant.now().minus(retention);
+        jobsById.values().removeIf(job -> {
+            boolean expired = job.isFinished() && job.getCompletedAt().isBefore(threshold);
+            if (expired) {
+                jobsByHash.remove(job.getContentHash(), job);
+            }
+            return expired;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.interrupt();
+        preprocessExecutor.shutdownNow();
+        batchExecutor.shutdown();
+    }
+
+    /**
+     * キューから最大 batchSize 件、または最初の1件から maxBatchWaitMillis 経過までを1バッチにまとめる
+     */
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<PreparedImage> batch = new ArrayList<>(batchSize);
+                batch.add(batchQueue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchWaitMillis);
+                while (batch.size() < batchSize) {
+                    batchQueue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PreparedImage next = batchQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batchExecutor.execute(() -> runBatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RejectedExecutionException e) {
+                log.warn("OCR batch executor is shut down");
+                return;
+            }
+        }
+    }
+
+    private void runBatch(List<PreparedImage> batch) {
+        batchCount.incrementAndGet();
+        List<byte[]> images = new ArrayList<>(batch.size());
+        for (PreparedImage prepared : batch) {
+            prepared.job().markProcessing();
+            images.add(prepared.bytes());
+        }
+        try {
+            List<OcrBackend.OcrText> results = backend.annotate(images);
+            for (int i = 0; i < batch.size(); i++) {
+                OcrJob job = batch.get(i).job();
+                OcrBackend.OcrText result = i < results.size() ? results.get(i) : null;
+                if (result == null) {
+                    job.fail("OCR結果がありません");
+                } else if (result.error() != null) {
+                    job.fail(result.error());
+                } else {
+                    job.complete(result.text());
+                }
+            }
+        } catch (Exception e) {
+            log.error("OCR batch of {} images failed: {}", batch.size(), e.getMessage());
+            for (PreparedImage prepared : batch) {
+                prepared.job().fail("OCR処理中にエラーが発生しました: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * OCR 用に縮小・グレースケール化する
+     * デコードできない形式はそのまま返す（バックエンド側で解釈させる）
+     */
+    static byte[] preprocess(byte[] imageBytes) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            if (source == null) {
+                return imageBytes;
+            }
+            double scale = Math.min(1.0, (double) PREPROCESS_MAX_EDGE / Math.max(source.getWidth(), source.getHeight()));
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+            BufferedImage gray = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D g = gray.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(gray, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            return imageBytes;
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
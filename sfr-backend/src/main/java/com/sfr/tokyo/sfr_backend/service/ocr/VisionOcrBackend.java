@@ -0,0 +1,93 @@
+package com.sfr.tokyo.sfr_backend.service.ocr;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.Feature;
+import com.google.cloud.vision.v1.Image;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import com.google.protobuf.ByteString;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Google Cloud Vision API による OCR バックエンド
+ *
+ * ImageAnnotatorClient は gRPC チャネルを保持するため、リクエスト毎に生成せず
+ * 初回利用時に1つだけ生成してアプリケーション終了まで共有する。
+ */
+@Slf4j
+public class VisionOcrBackend implements OcrBackend {
+
+    /** Vision API の batchAnnotateImages 1リクエストあたりの上限 */
+    private static final int VISION_MAX_BATCH = 16;
+
+    private final int maxBatchSize;
+    private final ReentrantLock clientLock = new ReentrantLock();
+    private volatile ImageAnnotatorClient client;
+
+    public VisionOcrBackend(int maxBatchSize) {
+        this.maxBatchSize = Math.min(maxBatchSize, VISION_MAX_BATCH);
+    }
+
+    @Override
+    public List<OcrText> annotate(List<byte[]> images) throws IOException {
+        Feature feature = Feature.newBuilder().setType(Feature.Type.DOCUMENT_TEXT_DETECTION).build();
+        BatchAnnotateImagesRequest.Builder batch = BatchAnnotateImagesRequest.newBuilder();
+        for (byte[] image : images) {
+            batch.addRequests(AnnotateImageRequest.newBuilder()
+                    .addFeatures(feature)
+                    .setImage(Image.newBuilder().setContent(ByteString.copyFrom(image)).build())
+                    .build());
+        }
+
+        BatchAnnotateImagesResponse response = client().batchAnnotateImages(batch.build());
+        List<OcrText> results = new ArrayList<>(images.size());
+        for (AnnotateImageResponse res : response.getResponsesList()) {
+            if (res.hasError()) {
+                results.add(OcrText.failed("Vision API Error: " + res.getError().getMessage()));
+            } else {
+                results.add(OcrText.of(res.getFullTextAnnotation().getText()));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public void close() {
+        ImageAnnotatorClient current = client;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private ImageAnnotatorClient client() throws IOException {
+        ImageAnnotatorClient current = client;
+        if (current == null) {
+            // クライアント生成は認証情報の読み込みと gRPC 接続を伴うので、待つ側は Lock で待機させる
+            clientLock.lock();
+            try {
+                current = client;
+                if (current == null) {
+                    log.info("Creating shared Google Cloud Vision ImageAnnotatorClient");
+                    current = ImageAnnotatorClient.create();
+                    client = current;
+                }
+            } finally {
+                clientLock.unlock();
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,278 @@
+package com.sfr.tokyo.sfr_backend.service.scan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * clamd プロトコル（IDSESSION + INSTREAM）によるウイルススキャナ
+ *
+ * 接続は IDSESSION モードでプールし、1接続で複数ファイルを順にスキャンする。
+ * 同時スキャン数はプールサイズで制限し、上限到達時は取得タイムアウトまで待機する。
+ * clamd はアイドル状態のセッションを切断するため、一定時間使われていない接続は再利用しない。
+ * それでもプールから取り出した接続が切れていた場合は、新しい接続で1回だけやり直す。
+ */
+@Slf4j
+public class ClamdVirusScanner implements VirusScanner {
+
+    private static final byte[] IDSESSION = "zIDSESSION\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INSTREAM = "zINSTREAM\0".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] END = "zEND\0".getBytes(StandardCharsets.US_ASCII);
+
+    private final String host;
+    private final int port;
+    private final int timeoutMillis;
+    private final int chunkSize;
+    private final long maxIdleMillis;
+
+    private final Semaphore permits;
+    private final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+
+    public ClamdVirusScanner(String host, int port, int poolSize, int timeoutMillis, int chunkSize,
+            long maxIdleMillis) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+        this.chunkSize = chunkSize;
+        this.maxIdleMillis = maxIdleMillis;
+        this.permits = new Semaphore(poolSize, true);
+    }
+
+    @Override
+    public ScanSession openSession() throws IOException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("clamd connection pool exhausted");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for clamd connection", e);
+        }
+
+        try {
+            Connection pooled = pollIdle();
+            if (pooled != null) {
+                try {
+                    return start(pooled);
+                } catch (IOException e) {
+                    log.debug("Pooled clamd connection was stale, reconnecting: {}", e.getMessage());
+                }
+            }
+            return start(Connection.open(host, port, timeoutMillis));
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            connection.close(true);
+        }
+    }
+
+    /** プール中のアイドル接続数 */
+    public int getIdleConnectionCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * 再利用できるアイドル接続を取り出す（なければ null）
+     */
+    private Connection pollIdle() {
+        long now = System.currentTimeMillis();
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            if (now - connection.lastUsedAt < maxIdleMillis && connection.isOpen()) {
+                return connection;
+            }
+            connection.close(false);
+        }
+        return null;
+    }
+
+    /**
+     * INSTREAM を送ってセッションを始める（失敗した接続は閉じる）
+     */
+    private ClamdSession start(Connection connection) throws IOException {
+        try {
+            connection.out.write(INSTREAM);
+            connection.out.flush();
+            return new ClamdSession(connection);
+        } catch (IOException | RuntimeException e) {
+            connection.close(false);
+            throw e;
+        }
+    }
+
+    private void release(Connection connection, boolean reusable) {
+        if (reusable) {
+            connection.lastUsedAt = System.currentTimeMillis();
+            idleConnections.offer(connection);
+        } else {
+            connection.close(false);
+        }
+        permits.release();
+    }
+
+    private final class ClamdSession implements ScanSession {
+
+        private final Connection connection;
+        private boolean completed;
+
+        private ClamdSession(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            int position = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                int size = Math.min(chunkSize, remaining);
+                connection.out.writeInt(size);
+                connection.out.write(buffer, position, size);
+                position += size;
+                remaining -= size;
+            }
+        }
+
+        @Override
+        public ScanVerdict finish() throws IOException {
+            connection.out.writeInt(0);
+            connection.out.flush();
+            String reply = connection.readReply();
+            completed = true;
+            ScanVerdict verdict = parseReply(reply);
+            release(connection, verdict.isDefinitive());
+            return verdict;
+        }
+
+        @Override
+        public void close() {
+            if (!completed) {
+                // ストリーム途中の接続は再利用できない
+                completed = true;
+                release(connection, false);
+            }
+        }
+    }
+
+    /**
+     * clamd の応答を判定に変換する
+     * IDSESSION モードでは "{id}: stream: OK" / "{id}: stream: {signature} FOUND" 形式
+     */
+    static ScanVerdict parseReply(String reply) {
+        String body = reply;
+        int streamIndex = reply.indexOf("stream:");
+        if (streamIndex >= 0) {
+            body = reply.substring(streamIndex + "stream:".length()).trim();
+        }
+        if (body.equals("OK")) {
+            return ScanVerdict.clean();
+        }
+        if (body.endsWith(" FOUND")) {
+            return ScanVerdict.infected(body.substring(0, body.length() - " FOUND".length()).trim());
+        }
+        return ScanVerdict.error(reply);
+    }
+
+    private static final class Connection {
+
+        private final Socket socket;
+        private final DataOutputStream out;
+        private final InputStream in;
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.in = new BufferedInputStream(socket.getInputStream());
+        }
+
+        static Connection open(String host, int port, int timeoutMillis) throws IOException {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+                socket.setSoTimeout(timeoutMillis);
+                Connection connection = new Connection(socket);
+                connection.out.write(IDSESSION);
+                connection.out.flush();
+                return connection;
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        /**
+         * clamd 側から切断されていないか
+         * 応答待ちでない接続に届いているのは EOF だけのはずなので、ごく短いタイムアウトで読んで確かめる
+         */
+        boolean isOpen() {
+            if (socket.isClosed()) {
+                return false;
+            }
+            try {
+                int soTimeout = socket.getSoTimeout();
+                socket.setSoTimeout(1);
+                try {
+                    in.read();
+                    // EOF か、要求していない応答が残っている
+                    return false;
+                } catch (SocketTimeoutException e) {
+                    return true;
+                } finally {
+                    socket.setSoTimeout(soTimeout);
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        /** NUL 終端の応答を1件読み込む */
+        String readReply() throws IOException {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != 0) {
+                if (b < 0) {
+                    throw new EOFException("clamd closed the connection");
+                }
+                reply.write(b);
+            }
+            return reply.toString(StandardCharsets.US_ASCII).trim();
+        }
+
+        void close(boolean graceful) {
+            try {
+                if (graceful) {
+                    out.write(END);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                log.debug("Failed to end clamd session: {}", e.getMessage());
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close clamd socket: {}", e.getMessage());
+            }
+        }
+    }
+}
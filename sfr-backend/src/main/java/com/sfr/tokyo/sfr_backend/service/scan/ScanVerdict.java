@@ -0,0 +1,39 @@
+package com.sfr.tokyo.sfr_backend.service.scan;
+
+/**
+ * ウイルススキャンの判定結果
+ *
+ * @param status    判定
+ * @param signature 検出したシグネチャ名（INFECTED時）またはエラー内容（ERROR時）
+ */
+public record ScanVerdict(Status status, String signature) {
+
+    public enum Status {
+        CLEAN,
+        INFECTED,
+        ERROR
+    }
+
+    private static final ScanVerdict CLEAN_VERDICT = new ScanVerdict(Status.CLEAN, null);
+
+    public static ScanVerdict clean() {
+        return CLEAN_VERDICT;
+    }
+
+    public static ScanVerdict infected(String signature) {
+        return new ScanVerdict(Status.INFECTED, signature);
+    }
+
+    public static ScanVerdict error(String message) {
+        return new ScanVerdict(Status.ERROR, message);
+    }
+
+    public boolean isClean() {
+        return status == Status.CLEAN;
+    }
+
+    /** キャッシュ可能な確定判定かどうか（ERRORは再スキャン対象） */
+    public boolean isDefinitive() {
+        return status != Status.ERROR;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sfr.tokyo.sfr_backend.service.scan;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * clamd を使わないローカル用スキャナ（開発・オフラインテスト用）
+ *
+ * EICAR テスト文字列のみを検出する。チャンク境界をまたいだ出現も検出できるよう、
+ * 直前チャンクの末尾をシグネチャ長-1バイト分保持して照合する。
+ */
+public class StubVirusScanner implements VirusScanner {
+
+    public static final String EICAR_SIGNATURE = "Eicar-Test-Signature";
+
+    private static final byte[] EICAR_MARKER = "EICAR-STANDARD-ANTIVIRUS-TEST-FILE"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    @Override
+    public ScanSession openSession() {
+        return new StubSession();
+    }
+
+    private static final class StubSession implements ScanSession {
+
+        private byte[] tail = new byte[0];
+        private boolean detected;
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            if (detected || length == 0) {
+                return;
+            }
+            byte[] window = new byte[tail.length + length];
+            System.arraycopy(tail, 0, window, 0, tail.length);
+            System.arraycopy(buffer, offset, window, tail.length, length);
+            detected = indexOf(window, EICAR_MARKER) >= 0;
+
+            int keep = Math.min(window.length, EICAR_MARKER.length - 1);
+            tail = Arrays.copyOfRange(window, window.length - keep, window.length);
+        }
+
+        @Override
+        public ScanVerdict finish() {
+            return detected ? ScanVerdict.infected(EICAR_SIGNATURE) : ScanVerdict.clean();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private static int indexOf(byte[] data, byte[] pattern) {
+            outer: for (int i = 0; i <= data.length - pattern.length; i++) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (data[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+}
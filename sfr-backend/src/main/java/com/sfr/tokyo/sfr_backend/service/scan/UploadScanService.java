@@ -0,0 +1,260 @@
+package com.sfr.tokyo.sfr_backend.service.scan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * アップロードファイルのウイルススキャンステージ
+ *
+ * アップロードは1回だけ読み、同じバッファを隔離ディレクトリへの書き込み・SHA-256・スキャナへの送信に同時に流す。
+ * 書き終えた時点で同じ内容の判定がキャッシュにあれば、スキャンセッションは判定を待たずに中断する。
+ * クリーン判定の場合のみ保存先へ移動（昇格）し、それ以外は隔離ファイルを削除して拒否する。
+ * 感染判定はそのまま保持し、クリーン判定は定義ファイルの更新に追従できるよう clean-ttl-ms で失効させる。
+ */
+@Slf4j
+@Service
+public class UploadScanService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final VirusScanner scanner;
+    private final Path quarantineLocation;
+    private final boolean failOpen;
+    private final long cleanTtlMillis;
+    private final Clock clock;
+    private final Map<String, CachedVerdict> verdictCache;
+
+    private final AtomicLong scannedCount = new AtomicLong();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    private final AtomicLong infectedCount = new AtomicLong();
+
+    @Autowired
+    public UploadScanService(VirusScanner scanner,
+            @Value("${upload.scan.quarantine-dir:./quarantine}") String quarantineDir,
+            @Value("${upload.scan.cache-size:10000}") int cacheSize,
+            @Value("${upload.scan.fail-open:false}") boolean failOpen,
+            @Value("${upload.scan.clean-ttl-ms:3600000}") long cleanTtlMillis) {
+        this(scanner, quarantineDir, cacheSize, failOpen, cleanTtlMillis, Clock.systemUTC());
+    }
+
+    UploadScanService(VirusScanner scanner, String quarantineDir, int cacheSize, boolean failOpen,
+            long cleanTtlMillis, Clock clock) {
+        this.scanner = scanner;
+        this.failOpen = failOpen;
+        this.cleanTtlMillis = cleanTtlMillis;
+        this.clock = clock;
+        this.quarantineLocation = Paths.get(quarantineDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.quarantineLocation);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the quarantine directory for uploads.", ex);
+        }
+        // アクセス順 LRU
+        this.verdictCache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedVerdict> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * ファイルをスキャンしながら隔離領域に書き込み、クリーンなら target へ昇格する
+     *
+     * @param file   アップロードファイル
+     * @param target 昇格先のパス
+     * @throws BusinessException ウイルス検出時、またはスキャナ障害時（fail-open 無効時）
+     * @throws IOException       ファイル入出力に失敗した場合
+     */
+    public void storeScanned(MultipartFile file, Path target) throws IOException {
+        Path quarantined = quarantineLocation.resolve(UUID.randomUUID() + ".part");
+        try {
+            ScanVerdict verdict = scanQuarantined(file, quarantined);
+            verify(verdict, file.getOriginalFilename());
+            promote(quarantined, target);
+        } finally {
+            Files.deleteIfExists(quarantined);
+        }
+    }
+
+    /**
+     * 保存せずにスキャンのみ行う（OCR など一時利用の画像向け）
+     *
+     * @param file アップロードファイル
+     * @return 判定結果
+     */
+    public ScanVerdict scan(MultipartFile file) throws IOException {
+        Path quarantined = quarantineLocation.resolve(UUID.randomUUID() + ".part");
+        try {
+            return scanQuarantined(file, quarantined);
+        } finally {
+            Files.deleteIfExists(quarantined);
+        }
+    }
+
+    /**
+     * 判定結果を検証し、受け入れ不可なら例外を送出する
+     */
+    public void verify(ScanVerdict verdict, String fileName) {
+        switch (verdict.status()) {
+            case CLEAN -> {
+            }
+            case INFECTED -> {
+                log.warn("Upload rejected by virus scan: file={}, signature={}", fileName, verdict.signature());
+                throw new BusinessException(ErrorCode.MALWARE_DETECTED);
+            }
+            case ERROR -> {
+                if (failOpen) {
+                    log.warn("Virus scan failed, accepting upload (fail-open): file={}, reason={}", fileName,
+                            verdict.signature());
+                } else {
+                    log.error("Virus scan failed: file={}, reason={}", fileName, verdict.signature());
+                    throw new BusinessException(ErrorCode.SCAN_UNAVAILABLE);
+                }
+            }
+        }
+    }
+
+    public long getScannedCount() {
+        return scannedCount.get();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    public long getInfectedCount() {
+        return infectedCount.get();
+    }
+
+    /**
+     * アップロードを隔離ファイルへ書き出しながらスキャナへ送り、キャッシュ済みの判定かスキャン結果を返す
+     * スキャナの接続・送信に失敗しても隔離ファイルへの書き込みとハッシュ計算は最後まで続ける
+     */
+    private ScanVerdict scanQuarantined(MultipartFile file, Path quarantined) throws IOException {
+        MessageDigest digest = sha256();
+        VirusScanner.ScanSession session = null;
+        String scanError = null;
+        try {
+            try {
+                session = scanner.openSession();
+            } catch (IOException e) {
+                scanError = e.getMessage();
+            }
+            try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(quarantined)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    if (session != null) {
+                        try {
+                            session.write(buffer, 0, read);
+                        } catch (IOException e) {
+                            scanError = e.getMessage();
+                            session.close();
+                            session = null;
+                        }
+                    }
+                }
+            }
+
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            ScanVerdict cached = cachedVerdict(contentHash);
+            if (cached != null) {
+                cacheHitCount.incrementAndGet();
+                return cached;
+            }
+            scannedCount.incrementAndGet();
+            ScanVerdict verdict = session != null ? finish(session) : ScanVerdict.error(scanError);
+            remember(contentHash, verdict);
+            return verdict;
+        } finally {
+            // finish() 済みなら何もしない。キャッシュ命中・入出力エラー時はここでスキャンを中断する
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private ScanVerdict finish(VirusScanner.ScanSession session) {
+        try {
+            ScanVerdict verdict = session.finish();
+            if (verdict.status() == ScanVerdict.Status.INFECTED) {
+                infectedCount.incrementAndGet();
+            }
+            return verdict;
+        } catch (IOException e) {
+            return ScanVerdict.error(e.getMessage());
+        }
+    }
+
+    private void promote(Path quarantined, Path target) throws IOException {
+        try {
+            Files.move(quarantined, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // 隔離領域と保存先が別ファイルシステムの場合
+            Files.move(quarantined, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private ScanVerdict cachedVerdict(String contentHash) {
+        long now = clock.millis();
+        synchronized (verdictCache) {
+            CachedVerdict cached = verdictCache.get(contentHash);
+            if (cached == null) {
+                return null;
+            }
+            if (cached.expiresAt() <= now) {
+                verdictCache.remove(contentHash);
+                return null;
+            }
+            return cached.verdict();
+        }
+    }
+
+    private void remember(String contentHash, ScanVerdict verdict) {
+        if (!verdict.isDefinitive()) {
+            return;
+        }
+        long expiresAt = verdict.isClean() ? clock.millis() + cleanTtlMillis : Long.MAX_VALUE;
+        synchronized (verdictCache) {
+            verdictCache.put(contentHash, new CachedVerdict(verdict, expiresAt));
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedVerdict(ScanVerdict verdict, long expiresAt) {
+    }
+}
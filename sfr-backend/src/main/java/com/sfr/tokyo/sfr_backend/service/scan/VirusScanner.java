@@ -0,0 +1,38 @@
+package com.sfr.tokyo.sfr_backend.service.scan;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * ストリーミング型ウイルススキャナ
+ *
+ * 呼び出し側はセッションを開き、ファイルの書き込みと並行してバイト列を順に渡し、
+ * 最後に {@link ScanSession#finish()} で判定を受け取る。
+ */
+public interface VirusScanner extends Closeable {
+
+    /**
+     * スキャンセッションを開始する
+     *
+     * @throws IOException スキャナに接続できない場合
+     */
+    ScanSession openSession() throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * 1ファイル分のスキャンセッション
+     * finish() を呼ばずに close() した場合はスキャンを中断する
+     */
+    interface ScanSession extends Closeable {
+
+        void write(byte[] buffer, int offset, int length) throws IOException;
+
+        ScanVerdict finish() throws IOException;
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,224 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ユーザーの関心プロファイル
+ *
+ * 閲覧・投稿などの行動ごとに対象文書の特徴語ベクトル（{@link SearchIndexService#termVector}）を
+ * シグナルの重みで加算し、既存の重みは decay 倍に減衰させる。語数は max-terms に絞る。
+ * 推薦はプロファイルをそのまま重み付き検索の語として使う。
+ * プロファイルは検索インデックスと同じディレクトリにスナップショットとして書き出す。
+ */
+@Slf4j
+@Service
+public class InterestProfileService {
+
+    private static final String SNAPSHOT_FILE = "interest-profiles.bin.gz";
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * 関心シグナル（行動の種類と重み）
+     */
+    public enum Signal {
+        VIEW(0.5),
+        ACTIVITY(1.0),
+        COMMENT(2.0),
+        AUTHOR(3.0);
+
+        private final double weight;
+
+        Signal(double weight) {
+            this.weight = weight;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+
+    private final SearchIndexService searchIndexService;
+    private final Path snapshotPath;
+    private final int maxTerms;
+    private final double decay;
+    private final Map<UUID, Map<String, Double>> profiles;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public InterestProfileService(SearchIndexService searchIndexService,
+            @Value("${search.index.dir:./search-index}") String indexDir,
+            @Value("${search.interest.max-users:100000}") int maxUsers,
+            @Value("${search.interest.max-terms:64}") int maxTerms,
+            @Value("${search.interest.decay:0.9}") double decay) {
+        this.searchIndexService = searchIndexService;
+        this.snapshotPath = Paths.get(indexDir).toAbsolutePath().normalize().resolve(SNAPSHOT_FILE);
+        this.maxTerms = maxTerms;
+        this.decay = decay;
+        this.profiles = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Map<String, Double>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return;
+        }
+        try (InputStream file = Files.newInputStream(snapshotPath);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported interest profile format: " + version);
+            }
+            int userCount = in.readInt();
+            Map<UUID, Map<String, Double>> loaded = new LinkedHashMap<>();
+            for (int u = 0; u < userCount; u++) {
+                UUID userId = new UUID(in.readLong(), in.readLong());
+                int termCount = in.readInt();
+                Map<String, Double> profile = new HashMap<>(termCount * 2);
+                for (int t = 0; t < termCount; t++) {
+                    profile.put(in.readUTF(), in.readDouble());
+                }
+                loaded.put(userId, Map.copyOf(profile));
+            }
+            synchronized (profiles) {
+                profiles.putAll(loaded);
+            }
+            log.info("Interest profiles loaded from {}: {} users", snapshotPath, loaded.size());
+        } catch (IOException e) {
+            log.warn("Interest profile snapshot is unreadable, starting empty: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 行動を反映する（トランザクション中ならコミット後。新規文書の索引登録より後に実行される）
+     */
+    public void recordActivity(UUID userId, SearchDocumentType type, long id, Signal signal) {
+        if (userId == null) {
+            return;
+        }
+        CommittedChanges.afterCommit(() -> apply(userId, searchIndexService.termVector(type, id), signal.getWeight()));
+    }
+
+    /**
+     * ユーザーの関心プロファイル（語 → 重み、未登録なら空）
+     */
+    public Map<String, Double> profileOf(UUID userId) {
+        synchronized (profiles) {
+            return profiles.getOrDefault(userId, Map.of());
+        }
+    }
+
+    /**
+     * 関心プロファイルに近い文書
+     */
+    public List<SearchHit> recommend(UUID userId, SearchDocumentType type, Set<Long> excludeIds, int limit) {
+        Map<String, Double> profile = profileOf(userId);
+        if (profile.isEmpty()) {
+            return List.of();
+        }
+        return searchIndexService.searchWeighted(type, profile, excludeIds, limit);
+    }
+
+    /**
+     * 変更があればスナップショットを書き出す
+     */
+    @Scheduled(fixedDelayString = "${search.index.flush-interval-ms:30000}")
+    @PreDestroy
+    public void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Map<UUID, Map<String, Double>> copy;
+        synchronized (profiles) {
+            copy = new LinkedHashMap<>(profiles);
+        }
+        Path tmp = null;
+        try {
+            Files.createDirectories(snapshotPath.getParent());
+            tmp = Files.createTempFile(snapshotPath.getParent(), "interest-profiles", ".tmp");
+            try (OutputStream file = Files.newOutputStream(tmp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(file)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(copy.size());
+                for (Map.Entry<UUID, Map<String, Double>> entry : copy.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    out.writeInt(entry.getValue().size());
+                    for (Map.Entry<String, Double> term : entry.getValue().entrySet()) {
+                        out.writeUTF(term.getKey());
+                        out.writeDouble(term.getValue());
+                    }
+                }
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // 次回の書き出しで上書きされる
+                }
+            }
+            log.error("Failed to write interest profile snapshot to {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private void apply(UUID userId, Map<String, Double> vector, double weight) {
+        if (vector.isEmpty()) {
+            return;
+        }
+        synchronized (profiles) {
+            Map<String, Double> updated = new HashMap<>();
+            profiles.getOrDefault(userId, Map.of()).forEach((term, value) -> updated.put(term, value * decay));
+            vector.forEach((term, value) -> updated.merge(term, value * weight, Double::sum));
+            profiles.put(userId, Map.copyOf(strongest(updated)));
+        }
+        dirty.set(true);
+    }
+
+    private Map<String, Double> strongest(Map<String, Double> profile) {
+        if (profile.size() <= maxTerms) {
+            return profile;
+        }
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(profile.entrySet());
+        entries.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        Map<String, Double> kept = new HashMap<>();
+        entries.subList(0, maxTerms).forEach(entry -> kept.put(entry.getKey(), entry.getValue()));
+        return kept;
+    }
+}
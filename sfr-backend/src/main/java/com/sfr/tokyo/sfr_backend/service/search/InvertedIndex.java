@@ -0,0 +1,429 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * メモリ上の転置インデックス（文書種別ごとに独立）
+ *
+ * 検索は全クエリ語を含む文書に限定し（AND）、BM25 でスコアリングする。
+ * 類似文書・推薦用の重み付き検索はいずれかの語を含む文書を対象にし（OR）、語ごとの BM25 に重みを掛けて合算する。
+ * 文書数・平均文書長は種別ごとに集計するため、種別間でスコアが干渉しない。
+ * 全件再構築は {@link #beginRebuild(SearchDocumentType)} で新しいシャードを組み立て、
+ * 組み立て中に届いた登録・削除を記録しておき、差し替え時に再適用する。
+ */
+public class InvertedIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    /** 重み付き検索で無視する語の文書頻度の割合（大半の文書に出る語は関連度に寄与しない） */
+    static final double MAX_WEIGHTED_DF_RATIO = 0.5;
+
+    // 2: CJK ユニグラムを索引に追加
+    private static final int FORMAT_VERSION = 2;
+
+    private record Doc(long id, Long scopeId, String language, int length, Map<String, Integer> terms) {
+    }
+
+    private static final class Shard {
+        final Map<Long, Doc> docs = new HashMap<>();
+        final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        long totalLength;
+
+        double averageLength() {
+            return docs.isEmpty() ? 1.0 : Math.max(1.0, (double) totalLength / docs.size());
+        }
+
+        void add(Doc doc) {
+            remove(doc.id());
+            docs.put(doc.id(), doc);
+            totalLength += doc.length();
+            doc.terms().forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(doc.id(), tf));
+        }
+
+        void remove(long id) {
+            Doc previous = docs.remove(id);
+            if (previous == null) {
+                return;
+            }
+            totalLength -= previous.length();
+            for (String term : previous.terms().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(id);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    /** スコアの高い順、同点は新しい（ID の大きい）順 */
+    private static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::score).reversed()
+            .thenComparing(Comparator.comparingLong(SearchHit::id).reversed());
+
+    private final Map<SearchDocumentType, Shard> shards = new EnumMap<>(SearchDocumentType.class);
+    // 実行中の再構築（書き込みロックで保護）
+    private final Map<SearchDocumentType, Rebuild> rebuilds = new EnumMap<>(SearchDocumentType.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InvertedIndex() {
+        for (SearchDocumentType type : SearchDocumentType.values()) {
+            shards.put(type, new Shard());
+        }
+    }
+
+    public void add(SearchDocument document) {
+        Doc doc = toDoc(document);
+        lock.writeLock().lock();
+        try {
+            shards.get(document.type()).add(doc);
+            Rebuild rebuild = rebuilds.get(document.type());
+            if (rebuild != null) {
+                rebuild.changes.add(shard -> shard.add(doc));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(SearchDocumentType type, long id) {
+        lock.writeLock().lock();
+        try {
+            shards.get(type).remove(id);
+            Rebuild rebuild = rebuilds.get(type);
+            if (rebuild != null) {
+                rebuild.changes.add(shard -> shard.remove(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 指定種別の再構築を開始する
+     * 同じ種別で実行中の再構築があれば、そちらは差し替えできなくなる
+     */
+    public Rebuild beginRebuild(SearchDocumentType type) {
+        lock.writeLock().lock();
+        try {
+            Rebuild rebuild = new Rebuild(type);
+            rebuilds.put(type, rebuild);
+            return rebuild;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 種別ごとの全件再構築
+     *
+     * {@link #add(SearchDocument)} は再構築を行う1スレッドからのみ呼ぶ。
+     * {@link #commit()} で開始後の登録・削除を再適用してから差し替え、差し替えずに閉じた場合は破棄する。
+     */
+    public final class Rebuild implements AutoCloseable {
+
+        private final SearchDocumentType type;
+        private final Shard shard = new Shard();
+        // 開始後にインデックスへ反映された変更（書き込みロックで保護）
+        private final List<Consumer<Shard>> changes = new ArrayList<>();
+
+        private Rebuild(SearchDocumentType type) {
+            this.type = type;
+        }
+
+        public void add(SearchDocument document) {
+            shard.add(toDoc(document));
+        }
+
+        public int size() {
+            return shard.docs.size();
+        }
+
+        /**
+         * 組み立てたシャードに差し替える
+         *
+         * @return 差し替えた場合 true、後から開始された再構築に置き換えられていた場合 false
+         */
+        public boolean commit() {
+            lock.writeLock().lock();
+            try {
+                if (rebuilds.get(type) != this) {
+                    return false;
+                }
+                changes.forEach(change -> change.accept(shard));
+                shards.put(type, shard);
+                rebuilds.remove(type);
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.writeLock().lock();
+            try {
+                rebuilds.remove(type, this);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static Doc toDoc(SearchDocument document) {
+        Map<String, Integer> terms = document.termFrequencies();
+        int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+        return new Doc(document.id(), document.scopeId(), document.language(), length, terms);
+    }
+
+    public int size(SearchDocumentType type) {
+        lock.readLock().lock();
+        try {
+            return shards.get(type).docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 全クエリ語を含む文書を BM25 スコア順に返す
+     *
+     * @param type     文書種別
+     * @param terms    クエリ語（トークナイズ済み）
+     * @param scopeId  親IDで絞り込む場合に指定（null で全件）
+     * @param language 言語で絞り込む場合に指定（null で全件）
+     * @param limit    最大件数
+     */
+    public List<SearchHit> search(SearchDocumentType type, List<String> terms, Long scopeId, String language,
+            int limit) {
+        Set<String> distinctTerms = new LinkedHashSet<>(terms);
+        if (distinctTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Shard shard = shards.get(type);
+            List<Map<Long, Integer>> postingLists = new ArrayList<>(distinctTerms.size());
+            for (String term : distinctTerms) {
+                Map<Long, Integer> posting = shard.postings.get(term);
+                if (posting == null) {
+                    return List.of();
+                }
+                postingLists.add(posting);
+            }
+            // 最も短いポスティングを起点に他の語を照合する
+            postingLists.sort(Comparator.comparingInt(Map::size));
+
+            int documentCount = shard.docs.size();
+            double averageLength = shard.averageLength();
+            double[] idf = new double[postingLists.size()];
+            for (int i = 0; i < idf.length; i++) {
+                idf[i] = idf(documentCount, postingLists.get(i).size());
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            candidates: for (Long id : postingLists.get(0).keySet()) {
+                Doc doc = shard.docs.get(id);
+                if (scopeId != null && !scopeId.equals(doc.scopeId())) {
+                    continue;
+                }
+                if (language != null && !language.equalsIgnoreCase(Objects.toString(doc.language(), ""))) {
+                    continue;
+                }
+                double score = 0;
+                double normalization = K1 * (1 - B + B * doc.length() / averageLength);
+                for (int i = 0; i < postingLists.size(); i++) {
+                    Integer tf = postingLists.get(i).get(id);
+                    if (tf == null) {
+                        continue candidates;
+                    }
+                    score += idf[i] * (tf * (K1 + 1)) / (tf + normalization);
+                }
+                hits.add(new SearchHit(id, score));
+            }
+            hits.sort(RANKING);
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 文書の特徴語ベクトル
+     * TF-IDF の重みが大きい順に maxTerms 語を取り、重みの合計が1になるよう正規化する（文書が無ければ空）
+     * CJK 1文字の語は対象外
+     */
+    public Map<String, Double> termVector(SearchDocumentType type, long id, int maxTerms) {
+        lock.readLock().lock();
+        try {
+            Shard shard = shards.get(type);
+            Doc doc = shard.docs.get(id);
+            if (doc == null || maxTerms <= 0) {
+                return Map.of();
+            }
+            int documentCount = shard.docs.size();
+            List<Map.Entry<String, Double>> weighted = new ArrayList<>(doc.terms().size());
+            doc.terms().forEach((term, tf) -> {
+                // 1文字クエリ用のユニグラムは文書の特徴を表さないため除く
+                if (!SearchTokenizer.isCjkUnigram(term)) {
+                    weighted.add(Map.entry(term, tf * idf(documentCount, shard.postings.get(term).size())));
+                }
+            });
+            weighted.sort(Map.Entry.<String, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Map.Entry<String, Double>> top = weighted.subList(0, Math.min(maxTerms, weighted.size()));
+            double total = top.stream().mapToDouble(Map.Entry::getValue).sum();
+            Map<String, Double> vector = new LinkedHashMap<>();
+            top.forEach(entry -> vector.put(entry.getKey(), total > 0 ? entry.getValue() / total : 0.0));
+            return vector;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 重み付きの語でいずれかを含む文書を検索する
+     *
+     * @param weightedTerms 語と重み（文書の特徴語ベクトルや関心プロファイル）
+     * @param excludeIds    結果から除く文書ID
+     * @param limit         最大件数（上位 limit 件だけをヒープで保持する）
+     */
+    public List<SearchHit> searchWeighted(SearchDocumentType type, Map<String, Double> weightedTerms, Long scopeId,
+            String language, Set<Long> excludeIds, int limit) {
+        if (weightedTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Shard shard = shards.get(type);
+            int documentCount = shard.docs.size();
+            double averageLength = shard.averageLength();
+            Map<Long, Double> scores = new HashMap<>();
+            weightedTerms.forEach((term, weight) -> {
+                Map<Long, Integer> posting = shard.postings.get(term);
+                if (posting == null || (documentCount > 2 && posting.size() > documentCount * MAX_WEIGHTED_DF_RATIO)) {
+                    return;
+                }
+                double termWeight = weight * idf(documentCount, posting.size());
+                posting.forEach((id, tf) -> {
+                    Doc doc = shard.docs.get(id);
+                    double normalization = K1 * (1 - B + B * doc.length() / averageLength);
+                    scores.merge(id, termWeight * (tf * (K1 + 1)) / (tf + normalization), Double::sum);
+                });
+            });
+
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            scores.forEach((id, score) -> {
+                if (excludeIds.contains(id)) {
+                    return;
+                }
+                Doc doc = shard.docs.get(id);
+                if (scopeId != null && !scopeId.equals(doc.scopeId())) {
+                    return;
+                }
+                if (language != null && !language.equalsIgnoreCase(Objects.toString(doc.language(), ""))) {
+                    return;
+                }
+                top.add(new SearchHit(id, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1.0 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(shards.size());
+            for (Map.Entry<SearchDocumentType, Shard> entry : shards.entrySet()) {
+                out.writeUTF(entry.getKey().name());
+                out.writeInt(entry.getValue().docs.size());
+                for (Doc doc : entry.getValue().docs.values()) {
+                    out.writeLong(doc.id());
+                    out.writeBoolean(doc.scopeId() != null);
+                    if (doc.scopeId() != null) {
+                        out.writeLong(doc.scopeId());
+                    }
+                    out.writeUTF(Objects.toString(doc.language(), ""));
+                    out.writeInt(doc.terms().size());
+                    for (Map.Entry<String, Integer> term : doc.terms().entrySet()) {
+                        out.writeUTF(term.getKey());
+                        out.writeInt(term.getValue());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * スナップショットを読み込む
+     *
+     * @throws IOException 形式が不正な場合
+     */
+    public static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported search index format: " + version);
+        }
+        InvertedIndex index = new InvertedIndex();
+        int shardCount = in.readInt();
+        for (int s = 0; s < shardCount; s++) {
+            String typeName = in.readUTF();
+            SearchDocumentType type;
+            try {
+                type = SearchDocumentType.valueOf(typeName);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown search document type: " + typeName, e);
+            }
+            Shard shard = index.shards.get(type);
+            int docCount = in.readInt();
+            for (int d = 0; d < docCount; d++) {
+                long id = in.readLong();
+                Long scopeId = in.readBoolean() ? in.readLong() : null;
+                String language = in.readUTF();
+                int termCount = in.readInt();
+                Map<String, Integer> terms = new HashMap<>(termCount * 2);
+                int length = 0;
+                for (int t = 0; t < termCount; t++) {
+                    String term = in.readUTF();
+                    int tf = in.readInt();
+                    terms.put(term, tf);
+                    length += tf;
+                }
+                shard.add(new Doc(id, scopeId, language.isEmpty() ? null : language, length, terms));
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,49 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 検索インデックスに登録する文書
+ *
+ * @param type     文書種別
+ * @param id       エンティティID
+ * @param scopeId  絞り込み用の親ID（種別ごとの意味は {@link SearchDocumentType} を参照、null 可）
+ * @param language 言語コード（null 可）
+ * @param title    タイトル（本文の2倍の重みで索引）
+ * @param body     本文
+ * @param tags     カンマ区切りタグ
+ */
+public record SearchDocument(
+        SearchDocumentType type,
+        long id,
+        Long scopeId,
+        String language,
+        String title,
+        String body,
+        String tags) {
+
+    static final int TITLE_WEIGHT = 2;
+
+    /**
+     * 語ごとの出現回数（タイトル加重・タグ語を含む）
+     */
+    Map<String, Integer> termFrequencies() {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : SearchTokenizer.indexTokens(title)) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : SearchTokenizer.indexTokens(body)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        if (tags != null) {
+            for (String token : SearchTokenizer.indexTokens(tags.replace(',', ' '))) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            for (String tagTerm : SearchTokenizer.tagTerms(tags)) {
+                frequencies.merge(tagTerm, 1, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+/**
+ * 検索インデックスの文書種別
+ * scopeId の意味は種別ごとに異なる（フォーラム: spaceId / トピック: forumId / コメント: topicId）
+ */
+public enum SearchDocumentType {
+    FORUM,
+    TOPIC,
+    LEARNING_COMMENT,
+    FAQ,
+    MANIFESTO
+}
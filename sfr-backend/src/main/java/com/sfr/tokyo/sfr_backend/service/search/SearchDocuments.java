@@ -0,0 +1,55 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.util.Objects;
+
+import com.sfr.tokyo.sfr_backend.entity.council.ManifestoContent;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiFaq;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningForum;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopic;
+
+/**
+ * エンティティから検索文書への変換
+ * 論理削除済みなど検索対象外の場合は null を返す
+ */
+public final class SearchDocuments {
+
+    private SearchDocuments() {
+    }
+
+    public static SearchDocument forum(LearningForum forum) {
+        return new SearchDocument(SearchDocumentType.FORUM, forum.getId(), forum.getSpaceId(), null,
+                forum.getTitle(), forum.getDescription(), forum.getTags());
+    }
+
+    public static SearchDocument topic(LearningTopic topic) {
+        if (topic.getDeletedAt() != null) {
+            return null;
+        }
+        return new SearchDocument(SearchDocumentType.TOPIC, topic.getId(), topic.getForumId(), null,
+                topic.getTitle(), topic.getContent(), topic.getTags());
+    }
+
+    public static SearchDocument comment(LearningComment comment) {
+        if (comment.getDeletedAt() != null) {
+            return null;
+        }
+        return new SearchDocument(SearchDocumentType.LEARNING_COMMENT, comment.getId(), comment.getTopicId(), null,
+                null, comment.getContent(), null);
+    }
+
+    public static SearchDocument faq(LearningAiFaq faq) {
+        if (faq.isDeleted()) {
+            return null;
+        }
+        String body = Objects.toString(faq.getAnswer(), "") + " " + Objects.toString(faq.getKeywords(), "");
+        return new SearchDocument(SearchDocumentType.FAQ, faq.getId(), null, faq.getLanguage(),
+                faq.getQuestion(), body, faq.getTags());
+    }
+
+    public static SearchDocument manifesto(ManifestoContent content) {
+        String body = Objects.toString(content.getSummary(), "") + " " + Objects.toString(content.getDetails(), "");
+        return new SearchDocument(SearchDocumentType.MANIFESTO, content.getId(), null, content.getLanguageCode(),
+                content.getTitle(), body, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+/**
+ * 検索結果（エンティティIDと BM25 スコア）
+ */
+public record SearchHit(long id, double score) {
+}
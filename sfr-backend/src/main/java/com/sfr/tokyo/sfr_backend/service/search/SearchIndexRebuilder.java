@@ -0,0 +1,113 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import com.sfr.tokyo.sfr_backend.council.repository.ManifestoContentRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiFaqRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningCommentRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningForumRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningTopicRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 検索インデックスの全件再構築
+ *
+ * 起動時と管理APIからの要求時に実行する。スナップショットから起動した場合も、停止中の変更を取り込むため
+ * DB と突き合わせて再構築する（その間の検索はスナップショットの内容で応答する）。
+ * エンティティはページ単位で読み、ページごとに永続化コンテキストを空にして全件をメモリに持たない。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchIndexRebuilder {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final SearchIndexService searchIndexService;
+    private final LearningForumRepository forumRepository;
+    private final LearningTopicRepository topicRepository;
+    private final LearningCommentRepository commentRepository;
+    private final LearningAiFaqRepository faqRepository;
+    private final ManifestoContentRepository manifestoContentRepository;
+    private final EntityManager entityManager;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Value("${search.index.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        if (!searchIndexService.isLoadedFromSnapshot()) {
+            rebuild();
+            return;
+        }
+        Map<SearchDocumentType, Integer> snapshotCounts = searchIndexService.getDocumentCounts();
+        Map<SearchDocumentType, Integer> counts = rebuild();
+        if (!snapshotCounts.equals(counts)) {
+            log.warn("Search index snapshot was out of date: snapshot={}, database={}", snapshotCounts, counts);
+        }
+    }
+
+    /**
+     * 全種別を再構築してスナップショットを書き出す
+     * トランザクションはページ単位の読み込みごとに張る
+     *
+     * @return 種別ごとの登録件数
+     */
+    public Map<SearchDocumentType, Integer> rebuild() {
+        // ロック中に DB 読み込みとスナップショット書き出しを行うため、キャリアスレッドを固定する synchronized は使わない
+        rebuildLock.lock();
+        try {
+            long started = System.currentTimeMillis();
+            Map<SearchDocumentType, Integer> counts = new EnumMap<>(SearchDocumentType.class);
+            counts.put(SearchDocumentType.FORUM, rebuild(SearchDocumentType.FORUM, forumRepository, SearchDocuments::forum));
+            counts.put(SearchDocumentType.TOPIC, rebuild(SearchDocumentType.TOPIC, topicRepository, SearchDocuments::topic));
+            counts.put(SearchDocumentType.LEARNING_COMMENT,
+                    rebuild(SearchDocumentType.LEARNING_COMMENT, commentRepository, SearchDocuments::comment));
+            counts.put(SearchDocumentType.FAQ, rebuild(SearchDocumentType.FAQ, faqRepository, SearchDocuments::faq));
+            counts.put(SearchDocumentType.MANIFESTO,
+                    rebuild(SearchDocumentType.MANIFESTO, manifestoContentRepository, SearchDocuments::manifesto));
+            searchIndexService.flush();
+            log.info("Search index rebuilt in {} ms: {}", System.currentTimeMillis() - started, counts);
+            return counts;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private <E> int rebuild(SearchDocumentType type, JpaRepository<E, Long> repository,
+            Function<E, SearchDocument> toDocument) {
+        return searchIndexService.rebuild(type, sink -> {
+            Slice<E> page;
+            int pageNumber = 0;
+            do {
+                page = repository.findAll(PageRequest.of(pageNumber++, PAGE_SIZE, Sort.by("id")));
+                page.getContent().stream()
+                        .map(toDocument)
+                        .filter(Objects::nonNull)
+                        .forEach(sink);
+                // open-in-view などでリクエストの EntityManager が共有されている場合も読み終えたページを解放する
+                entityManager.clear();
+            } while (page.hasNext());
+        });
+    }
+}
@@ -0,0 +1,225 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 組み込み全文検索サービス
+ *
+ * 転置インデックスをメモリに保持し、ローカルディスクへ定期的にスナップショットを書き出す。
+ * 起動時はスナップショットを読み込んで検索に使い、{@link SearchIndexRebuilder} が DB の全件と突き合わせて再構築する。
+ * 登録・削除はトランザクション内で呼ばれた場合コミット後に反映する。
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    private static final String SNAPSHOT_FILE = "search-index.bin.gz";
+
+    /** 類似文書の検索に使う特徴語の数 */
+    static final int SIMILARITY_TERMS = 24;
+
+    private final Path snapshotPath;
+    private final int maxResults;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile InvertedIndex index = new InvertedIndex();
+    private volatile boolean loadedFromSnapshot;
+
+    public SearchIndexService(@Value("${search.index.dir:./search-index}") String indexDir,
+            @Value("${search.max-results:1000}") int maxResults) {
+        this.snapshotPath = Paths.get(indexDir).toAbsolutePath().normalize().resolve(SNAPSHOT_FILE);
+        this.maxResults = maxResults;
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            log.info("Search index snapshot not found at {}", snapshotPath);
+            return;
+        }
+        try (InputStream file = Files.newInputStream(snapshotPath);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file)))) {
+            index = InvertedIndex.readFrom(in);
+            loadedFromSnapshot = true;
+            log.info("Search index loaded from {}: {}", snapshotPath, getDocumentCounts());
+        } catch (IOException e) {
+            log.warn("Search index snapshot is unreadable, it will be rebuilt: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 起動時にスナップショットから読み込めたか
+     */
+    public boolean isLoadedFromSnapshot() {
+        return loadedFromSnapshot;
+    }
+
+    /**
+     * 文書を登録（既存の同一IDは置き換え）
+     */
+    public void index(SearchDocument document) {
+        CommittedChanges.afterCommit(() -> {
+            index.add(document);
+            dirty.set(true);
+        });
+    }
+
+    /**
+     * 文書を登録、検索対象外（null）なら削除
+     */
+    public void sync(SearchDocumentType type, long id, SearchDocument document) {
+        if (document == null) {
+            remove(type, id);
+        } else {
+            index(document);
+        }
+    }
+
+    /**
+     * 文書を削除
+     */
+    public void remove(SearchDocumentType type, long id) {
+        CommittedChanges.afterCommit(() -> {
+            index.remove(type, id);
+            dirty.set(true);
+        });
+    }
+
+    /**
+     * 種別単位で全文書を置き換える（再構築用）
+     * source は文書を1件ずつ渡し、全件をリストに溜めずに新しいシャードへ登録する。
+     * 再構築中にコミットされた登録・削除は差し替え時に再適用する。
+     *
+     * @param source 受け取った関数に検索対象の文書を順に渡す
+     * @return 差し替え後の文書数
+     */
+    public int rebuild(SearchDocumentType type, Consumer<Consumer<SearchDocument>> source) {
+        try (InvertedIndex.Rebuild rebuild = index.beginRebuild(type)) {
+            source.accept(rebuild::add);
+            if (!rebuild.commit()) {
+                log.warn("Search index rebuild of {} was superseded by a newer rebuild", type);
+                return index.size(type);
+            }
+            dirty.set(true);
+            return rebuild.size();
+        }
+    }
+
+    /**
+     * キーワード検索
+     *
+     * @param type     文書種別
+     * @param keyword  検索キーワード（日本語はバイグラムで照合）
+     * @param scopeId  親IDで絞り込む場合に指定（null で全件）
+     * @param language 言語で絞り込む場合に指定（null で全件）
+     * @return スコア順の検索結果（最大 search.max-results 件）
+     */
+    public List<SearchHit> search(SearchDocumentType type, String keyword, Long scopeId, String language) {
+        return index.search(type, SearchTokenizer.tokenize(keyword), scopeId, language, maxResults);
+    }
+
+    /**
+     * タグ完全一致検索
+     */
+    public List<SearchHit> searchByTag(SearchDocumentType type, String tag, Long scopeId, String language) {
+        String term = SearchTokenizer.tagTerm(tag);
+        return term == null ? List.of() : index.search(type, List.of(term), scopeId, language, maxResults);
+    }
+
+    /**
+     * 類似文書（文書の特徴語で重み付き検索し、自身を除く）
+     * 文書が索引に無い場合は空
+     */
+    public List<SearchHit> similar(SearchDocumentType type, long id, Long scopeId, String language, int limit) {
+        InvertedIndex current = index;
+        Map<String, Double> vector = current.termVector(type, id, SIMILARITY_TERMS);
+        return current.searchWeighted(type, vector, scopeId, language, Set.of(id), limit);
+    }
+
+    /**
+     * 文書の特徴語ベクトル（重みの合計が1）
+     */
+    public Map<String, Double> termVector(SearchDocumentType type, long id) {
+        return index.termVector(type, id, SIMILARITY_TERMS);
+    }
+
+    /**
+     * 重み付きの語による検索（関心プロファイルによる推薦など）
+     */
+    public List<SearchHit> searchWeighted(SearchDocumentType type, Map<String, Double> weightedTerms,
+            Set<Long> excludeIds, int limit) {
+        return index.searchWeighted(type, weightedTerms, null, null, excludeIds, limit);
+    }
+
+    public Map<SearchDocumentType, Integer> getDocumentCounts() {
+        Map<SearchDocumentType, Integer> counts = new EnumMap<>(SearchDocumentType.class);
+        InvertedIndex current = index;
+        for (SearchDocumentType type : SearchDocumentType.values()) {
+            counts.put(type, current.size(type));
+        }
+        return counts;
+    }
+
+    /**
+     * 変更があればスナップショットを書き出す（一時ファイルに書いてから置き換え）
+     */
+    @Scheduled(fixedDelayString = "${search.index.flush-interval-ms:30000}")
+    @PreDestroy
+    public void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Path tmp = null;
+        try {
+            Files.createDirectories(snapshotPath.getParent());
+            tmp = Files.createTempFile(snapshotPath.getParent(), "search-index", ".tmp");
+            try (OutputStream file = Files.newOutputStream(tmp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(file)))) {
+                index.writeTo(out);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            deleteQuietly(tmp);
+            log.error("Failed to write search index snapshot to {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 次回の書き出しで上書きされる
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * 検索結果のIDからエンティティを一括取得し、スコア順に並べる
+ * インデックス反映前の論理削除などは visible で除外する
+ */
+public final class SearchResults {
+
+    private SearchResults() {
+    }
+
+    public static <E> List<E> hydrate(List<SearchHit> hits, Function<List<Long>, List<E>> loader,
+            Function<E, Long> idOf, Predicate<E> visible) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hits.stream().map(SearchHit::id).collect(Collectors.toList());
+        Map<Long, E> byId = loader.apply(ids).stream()
+                .collect(Collectors.toMap(idOf, Function.identity(), (a, b) -> a));
+        List<E> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            E entity = byId.get(id);
+            if (entity != null && visible.test(entity)) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 検索結果をページ単位で返す
+     * 除外後の並びと総件数はヒット全体のIDだけで決め（visibleIds は表示できるIDだけを返すクエリ）、
+     * エンティティはそのページの分だけ取得する。
+     */
+    public static <E> Page<E> page(List<SearchHit> hits, Pageable pageable,
+            Function<List<Long>, Collection<Long>> visibleIds, Function<List<Long>, List<E>> loader,
+            Function<E, Long> idOf, Predicate<E> visible) {
+        List<Long> ids = hits.stream().map(SearchHit::id).collect(Collectors.toList());
+        Set<Long> shown = ids.isEmpty() ? Set.of() : new HashSet<>(visibleIds.apply(ids));
+        List<SearchHit> ordered = hits.stream().filter(hit -> shown.contains(hit.id())).toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(hydrate(ordered, loader, idOf, visible));
+        }
+        int from = (int) Math.min(pageable.getOffset(), ordered.size());
+        int to = Math.min(from + pageable.getPageSize(), ordered.size());
+        // ID の確認後に削除された分はこのページから落とす（件数はずれるが次の検索で揃う）
+        return new PageImpl<>(hydrate(ordered.subList(from, to), loader, idOf, visible), pageable, ordered.size());
+    }
+}
@@ -0,0 +1,136 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 全文検索用トークナイザ
+ *
+ * NFKC 正規化・小文字化したうえで、
+ * - 英数字の連続は1語として扱う
+ * - 漢字・ひらがな・カタカナの連続は文字バイグラムに分割する（1文字のみの場合はその1文字）
+ * 形態素解析辞書を持たずに日本語の部分一致を索引で引けるようにするため。
+ * 索引側（{@link #indexTokens(String)}）は各文字のユニグラムも加え、1文字だけのクエリでも語中の文字に一致させる。
+ */
+public final class SearchTokenizer {
+
+    /** タグ語を本文語と区別するための接頭辞 */
+    static final String TAG_PREFIX = "#";
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * クエリ用のトークン列
+     */
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 索引用のトークン列（クエリ用のトークンに CJK 文字のユニグラムを加えたもの）
+     */
+    public static List<String> indexTokens(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+
+        StringBuilder word = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+        for (int i = 0; i < normalized.length();) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjk.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjk, tokens, withUnigrams);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjk, tokens, withUnigrams);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjk, tokens, withUnigrams);
+        return tokens;
+    }
+
+    /**
+     * カンマ区切りのタグ文字列をタグ語に変換する
+     */
+    public static List<String> tagTerms(String tags) {
+        List<String> terms = new ArrayList<>();
+        if (tags == null || tags.isBlank()) {
+            return terms;
+        }
+        for (String tag : tags.split(",")) {
+            String term = tagTerm(tag);
+            if (term != null) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 単一のタグをタグ語に変換する（空の場合は null）
+     */
+    public static String tagTerm(String tag) {
+        if (tag == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(tag, Normalizer.Form.NFKC).trim().toLowerCase();
+        return normalized.isEmpty() ? null : TAG_PREFIX + normalized;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(StringBuilder run, List<String> tokens, boolean withUnigrams) {
+        int length = run.codePointCount(0, run.length());
+        if (length == 1) {
+            tokens.add(run.toString());
+        } else if (length > 1) {
+            if (withUnigrams) {
+                run.codePoints().forEach(codePoint -> tokens.add(new String(Character.toChars(codePoint))));
+            }
+            int start = 0;
+            int next = run.offsetByCodePoints(start, 1);
+            while (next < run.length()) {
+                int end = run.offsetByCodePoints(next, 1);
+                tokens.add(run.substring(start, end));
+                start = next;
+                next = end;
+            }
+        }
+        run.setLength(0);
+    }
+
+    /**
+     * CJK 1文字の語か（索引用ユニグラムは特徴語に使わない）
+     */
+    static boolean isCjkUnigram(String term) {
+        return term.codePointCount(0, term.length()) == 1 && isCjk(term.codePointAt(0));
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL
+                || codePoint == 'ー';
+    }
+}
@@ -0,0 +1,106 @@
+package com.sfr.tokyo.sfr_backend.service.shop;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItem;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemRepository;
+import com.sfr.tokyo.sfr_backend.service.shop.SfrPaymentService.PurchaseRequest;
+import com.sfr.tokyo.sfr_backend.service.shop.SfrPaymentService.PurchaseResult;
+import com.sfr.tokyo.sfr_backend.service.shop.admission.FlashSaleAdmissionQueue;
+import com.sfr.tokyo.sfr_backend.service.shop.inventory.InventoryReservationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 限定アイテム購入フロー
+ * 待合室の入場チケット消費 → 在庫予約 → SFR 決済 → 予約確定（決済失敗時は予約取消）
+ *
+ * 各段階はそれぞれ短いトランザクションで実行し、在庫確保と決済を1つの長いトランザクションにしない。
+ * 決済の間に予約が期限切れになり確定できなかった場合は、在庫が既に戻っているため決済を取り消す。
+ */
+@Service
+@Slf4j
+public class LimitedItemCheckoutService {
+
+    private final FlashSaleAdmissionQueue admissionQueue;
+    private final InventoryReservationService inventoryReservationService;
+    private final SfrPaymentService sfrPaymentService;
+    private final LimitedItemRepository limitedItemRepository;
+    private final int maxQuantityPerTicket;
+
+    public LimitedItemCheckoutService(FlashSaleAdmissionQueue admissionQueue,
+            InventoryReservationService inventoryReservationService,
+            SfrPaymentService sfrPaymentService,
+            LimitedItemRepository limitedItemRepository,
+            @Value("${shop.checkout.max-quantity-per-ticket:5}") int maxQuantityPerTicket) {
+        this.admissionQueue = admissionQueue;
+        this.inventoryReservationService = inventoryReservationService;
+        this.sfrPaymentService = sfrPaymentService;
+        this.limitedItemRepository = limitedItemRepository;
+        this.maxQuantityPerTicket = Math.max(1, maxQuantityPerTicket);
+    }
+
+    /**
+     * 入場済みチケットで購入する
+     *
+     * @param ticketId 入場チケットID
+     * @param buyerId 購入者ID
+     * @param spaceId スペースID
+     * @param quantity 数量（1チケットあたり max-quantity-per-ticket まで）
+     * @return 決済結果
+     * @throws BusinessException 数量が範囲外、未入場・期限切れ、在庫不足、アイテムなしの場合
+     */
+    public PurchaseResult purchase(String ticketId, String buyerId, Long spaceId, int quantity) {
+        if (quantity <= 0 || quantity > maxQuantityPerTicket) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST,
+                    "数量は1〜" + maxQuantityPerTicket + "の範囲で指定してください");
+        }
+        Held held = admissionQueue.consume(ticketId, buyerId, itemId -> {
+            LimitedItem item = limitedItemRepository.findById(itemId)
+                    .orElseThrow(() -> new BusinessException(ErrorCode.NOT_FOUND, "アイテムが見つかりません: " + itemId));
+            return new Held(item, inventoryReservationService.reserve(itemId, buyerId, quantity));
+        });
+        LimitedItem item = held.item();
+        LimitedItemReservation reservation = held.reservation();
+        PurchaseRequest request = new PurchaseRequest(buyerId, item.getSellerId(), item.getId(), spaceId,
+                item.getSfrPrice().multiply(BigDecimal.valueOf(quantity)));
+
+        PurchaseResult result;
+        try {
+            result = sfrPaymentService.processPurchase(request);
+        } catch (RuntimeException e) {
+            inventoryReservationService.release(reservation.getId(), buyerId);
+            throw e;
+        }
+
+        if (!result.isSuccess()) {
+            inventoryReservationService.release(reservation.getId(), buyerId);
+            return result;
+        }
+        try {
+            inventoryReservationService.confirm(reservation.getId(), buyerId);
+        } catch (BusinessException e) {
+            // 決済中に予約が期限切れになった（在庫は既に販売へ戻っている）
+            log.warn("決済済みの在庫予約を確定できないため決済を取り消します: reservationId={}, buyerId={}, itemId={}",
+                    reservation.getId(), buyerId, item.getId());
+            try {
+                sfrPaymentService.refundPurchase(request);
+            } catch (RuntimeException refundFailure) {
+                log.error("決済の取り消しに失敗しました（要補償）: reservationId={}, buyerId={}, itemId={}",
+                        reservation.getId(), buyerId, item.getId(), refundFailure);
+                throw refundFailure;
+            }
+            return PurchaseResult.failure("予約の有効期限が切れたため、決済を取り消しました");
+        }
+        return result;
+    }
+
+    private record Held(LimitedItem item, LimitedItemReservation reservation) {
+    }
+}
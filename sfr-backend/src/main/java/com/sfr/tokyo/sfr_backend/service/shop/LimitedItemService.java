@@ -13,6 +13,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItem;
 import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+import com.sfr.tokyo.sfr_backend.service.shop.inventory.HotItemStockCounter;
+import com.sfr.tokyo.sfr_backend.service.shop.inventory.InventoryReservationService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +30,8 @@ import lombok.extern.slf4j.Slf4j;
 public class LimitedItemService {
 
     private final LimitedItemRepository limitedItemRepository;
+    private final InventoryReservationService inventoryReservationService;
+    private final HotItemStockCounter stockCounter;
 
     // === CRUD操作 ===
 
@@ -58,7 +63,11 @@ public class LimitedItemService {
                 existing.setUpdatedAt(LocalDateTime.now());
                 
                 log.info("限定アイテム更新: id={}, title={}", itemId, existing.getTitle());
-                return limitedItemRepository.save(existing);
+                LimitedItem saved = limitedItemRepository.save(existing);
+                // 在庫数を直接上書きしたため、在庫トークンは次回アクセス時にDBから読み直す
+                // （コミット前に捨てると、並行する予約が更新前の在庫を読み込み直してしまう）
+                CommittedChanges.afterCommit(() -> stockCounter.invalidate(itemId));
+                return saved;
             });
     }
 
@@ -154,12 +163,14 @@ public class LimitedItemService {
      */
     @Transactional
     public Optional<LimitedItem> restockItem(Long itemId, int additionalStock) {
+        // 読み取り→書き込みではなく加算UPDATEで補充し、同時購入による減算を上書きしない
+        if (!inventoryReservationService.restock(itemId, additionalStock)) {
+            return Optional.empty();
+        }
         return limitedItemRepository.findById(itemId)
             .map(item -> {
-                item.addStock(additionalStock);
-                item.setUpdatedAt(LocalDateTime.now());
                 log.info("在庫補充: id={}, 追加数={}, 新在庫={}", itemId, additionalStock, item.getStockQuantity());
-                return limitedItemRepository.save(item);
+                return item;
             });
     }
 
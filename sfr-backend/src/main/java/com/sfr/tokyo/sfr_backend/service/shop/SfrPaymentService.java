@@ -25,6 +25,9 @@ public class SfrPaymentService {
     private final SfrtRewardService sfrtRewardService;
     private final ApplicationEventPublisher eventPublisher;
 
+    /** プラットフォーム手数料率（販売者への支払いから差し引く） */
+    private static final BigDecimal PLATFORM_FEE_RATE = new BigDecimal("0.05");
+
     /**
      * 限定アイテム購入処理
      * SFR決済 + SFRT報酬配布の統合フロー
@@ -43,13 +46,10 @@ public class SfrPaymentService {
             userBalanceService.subtractBalance(request.getBuyerId(), request.getSpaceId(), request.getTotalPrice());
 
             // 2. 販売者への支払い（手数料差し引き後）
-            BigDecimal platformFee = request.getTotalPrice().multiply(new BigDecimal("0.05")); // 5%手数料
-            BigDecimal sellerAmount = request.getTotalPrice().subtract(platformFee);
-            
             userBalanceService.addBalance(
                 request.getSellerId(),
                 request.getSpaceId(),
-                sellerAmount
+                sellerAmountOf(request.getTotalPrice())
             );
 
             // 3. SFRT報酬配布トリガー（修正されたメソッドシグネチャ）
@@ -75,6 +75,25 @@ public class SfrPaymentService {
         }
     }
 
+    /**
+     * 限定アイテム購入の決済を取り消す
+     * 購入者へ全額を返し、販売者へ支払った分（手数料差し引き後）を戻す。配布済みの SFRT 報酬は取り消さない。
+     *
+     * @throws IllegalArgumentException 販売者の残高が支払い分に満たない場合（何も変更せずにロールバック）
+     */
+    @Transactional
+    public void refundPurchase(PurchaseRequest request) {
+        userBalanceService.subtractBalance(request.getSellerId(), request.getSpaceId(),
+                sellerAmountOf(request.getTotalPrice()));
+        userBalanceService.addBalance(request.getBuyerId(), request.getSpaceId(), request.getTotalPrice());
+        log.info("購入決済取消: userId={}, itemId={}, amount={}",
+                request.getBuyerId(), request.getItemId(), request.getTotalPrice());
+    }
+
+    private static BigDecimal sellerAmountOf(BigDecimal totalPrice) {
+        return totalPrice.subtract(totalPrice.multiply(PLATFORM_FEE_RATE));
+    }
+
     /**
      * SFRT報酬配布の実行（修正版）
      * 既存の distribute(buyerUserId, sellerUserId, sfrAmount, relatedSfrTxId) メソッドを使用
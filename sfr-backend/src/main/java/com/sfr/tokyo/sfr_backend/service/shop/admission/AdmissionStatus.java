@@ -0,0 +1,28 @@
+package com.sfr.tokyo.sfr_backend.service.shop.admission;
+
+import java.time.LocalDateTime;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 待合室チケットの状態（ポーリング応答）
+ */
+@Value
+@Builder
+public class AdmissionStatus {
+    String ticketId;
+    Long itemId;
+    AdmissionTicket.State state;
+    /** 待機中の場合の順位（1 = 次に入場） */
+    Long position;
+    /** 待機中の場合の推定待ち時間（秒） */
+    Long estimatedWaitSeconds;
+    /** 入場済みの場合の購入期限 */
+    LocalDateTime admissionExpiresAt;
+    /** 予約可能な残り在庫数 */
+    Integer remainingStock;
+    /** 推奨ポーリング間隔（ミリ秒） */
+    long pollIntervalMillis;
+    String message;
+}
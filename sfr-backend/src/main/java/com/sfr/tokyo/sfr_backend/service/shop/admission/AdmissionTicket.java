@@ -0,0 +1,87 @@
+package com.sfr.tokyo.sfr_backend.service.shop.admission;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.Getter;
+
+/**
+ * 待合室の入場チケット
+ * 状態遷移は CAS で行い、入場・購入・取消・期限切れが競合しても一度しか遷移しない
+ */
+@Getter
+public class AdmissionTicket {
+
+    public enum State {
+        /** 待機中 */
+        WAITING,
+        /** 入場済み（入場期限内に購入可能） */
+        ADMITTED,
+        /** 購入に使用済み */
+        CONSUMED,
+        /** 入場期限切れ・待機中のポーリング途絶 */
+        EXPIRED,
+        /** 在庫がすべて予約済みのため入場不可 */
+        REJECTED,
+        /** 利用者による取消 */
+        CANCELLED
+    }
+
+    private final String ticketId;
+    private final Long itemId;
+    private final String buyerId;
+    /** 商品ごとの発行順序（FIFO の順位計算に使用） */
+    private final long sequence;
+    private final LocalDateTime issuedAt;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final AtomicReference<State> state = new AtomicReference<>(State.WAITING);
+
+    private volatile LocalDateTime admissionExpiresAt;
+    private volatile String reason;
+
+    @Getter(lombok.AccessLevel.NONE)
+    volatile long lastSeenNanos;
+    @Getter(lombok.AccessLevel.NONE)
+    volatile long admissionDeadlineNanos;
+    @Getter(lombok.AccessLevel.NONE)
+    volatile long finishedAtNanos;
+
+    AdmissionTicket(String ticketId, Long itemId, String buyerId, long sequence, long nowNanos) {
+        this.ticketId = ticketId;
+        this.itemId = itemId;
+        this.buyerId = buyerId;
+        this.sequence = sequence;
+        this.issuedAt = LocalDateTime.now();
+        this.lastSeenNanos = nowNanos;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    boolean isActive() {
+        State current = state.get();
+        return current == State.WAITING || current == State.ADMITTED;
+    }
+
+    /** 入場状態へ遷移させる */
+    boolean admit(long nowNanos, long windowNanos) {
+        if (!state.compareAndSet(State.WAITING, State.ADMITTED)) {
+            return false;
+        }
+        admissionDeadlineNanos = nowNanos + windowNanos;
+        admissionExpiresAt = LocalDateTime.now().plusNanos(windowNanos);
+        return true;
+    }
+
+    /** 終了状態へ遷移させる */
+    boolean finish(State from, State to, String reason, long nowNanos) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        this.reason = reason;
+        this.finishedAtNanos = nowNanos;
+        return true;
+    }
+}
@@ -0,0 +1,373 @@
+package com.sfr.tokyo.sfr_backend.service.shop.admission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.service.shop.admission.AdmissionTicket.State;
+import com.sfr.tokyo.sfr_backend.service.shop.inventory.InventoryReservationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 限定アイテム販売の待合室（インメモリ FIFO 入場キュー）
+ *
+ * 購入希望者には商品ごとに発行順のチケットを渡し、スケジューラが設定されたレート（DB の処理能力に合わせる）で
+ * 先頭から入場させる。入場済みチケットだけが購入処理（在庫予約・SFR 決済）へ進めるため、
+ * 販売開始直後に全員が同時にトランザクションへ殺到することがなくなる。
+ *
+ * - 入場数は残り在庫を超えない（入場済み未購入数が在庫数に達したら、購入か期限切れで空くまで待つ）
+ * - 残り在庫がすべて予約済みになった時点で待機中・新規のチケットを即座に拒否する
+ * - ポーリングが途絶えた待機チケットは先頭に来た時点で破棄する
+ * キューはノードごとに独立しており、在庫の正しさは在庫予約（DB の条件付き更新）が保証する。
+ */
+@Slf4j
+@Component
+public class FlashSaleAdmissionQueue {
+
+    private final InventoryReservationService inventoryReservationService;
+    private final double admitsPerSecond;
+    private final long tickIntervalMillis;
+    private final long admissionWindowNanos;
+    private final long abandonTimeoutNanos;
+    private final long retentionNanos;
+    private final int maxQueueLength;
+
+    private final Map<Long, ItemQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, AdmissionTicket> tickets = new ConcurrentHashMap<>();
+    /** 商品ID:購入者ID → 有効なチケットID（同一購入者の重複待機を防ぐ） */
+    private final Map<String, String> activeTickets = new ConcurrentHashMap<>();
+
+    /** 入場クレジット（スケジューラスレッドのみが更新） */
+    private double admitCredit;
+    private long lastTickNanos;
+    private int roundRobinOffset;
+
+    private static final class ItemQueue {
+        final Long itemId;
+        final ConcurrentLinkedQueue<AdmissionTicket> waiting = new ConcurrentLinkedQueue<>();
+        final AtomicInteger waitingCount = new AtomicInteger();
+        /** 入場済みで未購入のチケット数 */
+        final AtomicInteger admittedInFlight = new AtomicInteger();
+        /** 最後に発行した順序 */
+        long issuedSequence;
+        /** 最後に先頭から取り出した順序 */
+        volatile long dequeuedSequence;
+
+        ItemQueue(Long itemId) {
+            this.itemId = itemId;
+        }
+    }
+
+    public FlashSaleAdmissionQueue(InventoryReservationService inventoryReservationService,
+            @Value("${shop.admission.admits-per-second:50}") double admitsPerSecond,
+            @Value("${shop.admission.tick-interval-ms:200}") long tickIntervalMillis,
+            @Value("${shop.admission.admission-window-seconds:60}") long admissionWindowSeconds,
+            @Value("${shop.admission.abandon-timeout-seconds:30}") long abandonTimeoutSeconds,
+            @Value("${shop.admission.ticket-retention-seconds:300}") long retentionSeconds,
+            @Value("${shop.admission.max-queue-length:100000}") int maxQueueLength) {
+        this.inventoryReservationService = inventoryReservationService;
+        this.admitsPerSecond = Math.max(0.1, admitsPerSecond);
+        this.tickIntervalMillis = Math.max(1, tickIntervalMillis);
+        this.admissionWindowNanos = TimeUnit.SECONDS.toNanos(admissionWindowSeconds);
+        this.abandonTimeoutNanos = TimeUnit.SECONDS.toNanos(abandonTimeoutSeconds);
+        this.retentionNanos = TimeUnit.SECONDS.toNanos(retentionSeconds);
+        this.maxQueueLength = maxQueueLength;
+        this.lastTickNanos = System.nanoTime();
+    }
+
+    /**
+     * 待合室に並ぶ（同じ購入者が有効なチケットを持っている場合はそれを返す）
+     *
+     * @throws BusinessException 販売中でない（NOT_FOUND）、在庫がすべて予約済み（OUT_OF_STOCK）、待機列が満杯（TOO_MANY_REQUESTS）
+     */
+    public AdmissionStatus join(Long itemId, String buyerId) {
+        long now = System.nanoTime();
+        String buyerKey = buyerKey(itemId, buyerId);
+        AdmissionTicket existing = activeTicket(buyerKey);
+        if (existing != null) {
+            existing.lastSeenNanos = now;
+            return toStatus(existing);
+        }
+
+        Integer available = inventoryReservationService.getAvailableStock(itemId);
+        if (available == null) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "販売中のアイテムが見つかりません: " + itemId);
+        }
+        if (available <= 0) {
+            throw new BusinessException(ErrorCode.OUT_OF_STOCK, "在庫がすべて予約済みです");
+        }
+
+        while (true) {
+            ItemQueue queue = queues.computeIfAbsent(itemId, ItemQueue::new);
+            synchronized (queue) {
+                if (queues.get(itemId) != queue) {
+                    continue; // 掃除で破棄されたキュー
+                }
+                existing = activeTicket(buyerKey);
+                if (existing != null) {
+                    return toStatus(existing);
+                }
+                if (queue.waitingCount.get() >= maxQueueLength) {
+                    throw new BusinessException(ErrorCode.TOO_MANY_REQUESTS, "待機列が満杯です。しばらくしてから再度お試しください");
+                }
+                AdmissionTicket ticket = new AdmissionTicket(UUID.randomUUID().toString(), itemId, buyerId,
+                        ++queue.issuedSequence, now);
+                tickets.put(ticket.getTicketId(), ticket);
+                activeTickets.put(buyerKey, ticket.getTicketId());
+                queue.waiting.add(ticket);
+                queue.waitingCount.incrementAndGet();
+                return toStatus(ticket);
+            }
+        }
+    }
+
+    /**
+     * チケットの状態を返す（待機中のチケットはポーリングにより生存とみなす）
+     */
+    public AdmissionStatus status(String ticketId, String buyerId) {
+        AdmissionTicket ticket = requireTicket(ticketId, buyerId);
+        ticket.lastSeenNanos = System.nanoTime();
+        return toStatus(ticket);
+    }
+
+    /**
+     * 待機・入場を取り消す
+     */
+    public void leave(String ticketId, String buyerId) {
+        AdmissionTicket ticket = requireTicket(ticketId, buyerId);
+        long now = System.nanoTime();
+        if (ticket.finish(State.ADMITTED, State.CANCELLED, "利用者による取消", now)) {
+            releaseAdmission(ticket);
+        } else {
+            ticket.finish(State.WAITING, State.CANCELLED, "利用者による取消", now);
+        }
+        activeTickets.remove(buyerKey(ticket.getItemId(), ticket.getBuyerId()), ticketId);
+    }
+
+    /**
+     * 入場済みチケットを購入に使用し、在庫予約を行う
+     *
+     * 入場枠は予約が終わる（成功・失敗とも）まで空けない。
+     * 先に空けると、予約で残り在庫が減る前に次のチケットが入場してしまう。
+     *
+     * @param reservation 購入対象の商品IDを受け取って在庫を予約する処理
+     * @return reservation の戻り値
+     * @throws BusinessException 未入場・期限切れ・使用済みの場合（BUSINESS_RULE_VIOLATION）
+     */
+    public <T> T consume(String ticketId, String buyerId, Function<Long, T> reservation) {
+        AdmissionTicket ticket = requireTicket(ticketId, buyerId);
+        long now = System.nanoTime();
+        if (ticket.getState() == State.ADMITTED && now - ticket.admissionDeadlineNanos > 0) {
+            expireAdmission(ticket, now);
+        }
+        if (!ticket.finish(State.ADMITTED, State.CONSUMED, null, now)) {
+            throw new BusinessException(ErrorCode.BUSINESS_RULE_VIOLATION,
+                    ticket.getState() == State.WAITING ? "まだ入場できません" : "入場チケットが無効または期限切れです");
+        }
+        activeTickets.remove(buyerKey(ticket.getItemId(), buyerId), ticketId);
+        try {
+            return reservation.apply(ticket.getItemId());
+        } finally {
+            releaseAdmission(ticket);
+        }
+    }
+
+    /**
+     * 設定レートで各商品のキュー先頭から入場させる
+     */
+    @Scheduled(fixedDelayString = "${shop.admission.tick-interval-ms:200}")
+    public void admitScheduled() {
+        admit(System.nanoTime());
+    }
+
+    /**
+     * 期限切れ入場の解放と終了チケットの破棄
+     */
+    @Scheduled(fixedDelayString = "${shop.admission.sweep-interval-ms:1000}")
+    public void sweepScheduled() {
+        sweep(System.nanoTime());
+    }
+
+    /**
+     * 経過時間分のクレジットで入場させる（商品間はラウンドロビンで1件ずつ配分）
+     *
+     * @return 入場させたチケット数
+     */
+    synchronized int admit(long now) {
+        double elapsedSeconds = Math.max(0, now - lastTickNanos) / 1_000_000_000d;
+        lastTickNanos = now;
+        // 停止後の再開で一度に大量入場させないよう、1秒分を上限とする
+        admitCredit = Math.min(admitsPerSecond, admitCredit + elapsedSeconds * admitsPerSecond);
+
+        List<ItemQueue> active = new ArrayList<>();
+        for (ItemQueue queue : queues.values()) {
+            if (!queue.waiting.isEmpty()) {
+                active.add(queue);
+            }
+        }
+        if (active.isEmpty()) {
+            return 0;
+        }
+        int admitted = 0;
+        int start = Math.floorMod(roundRobinOffset++, active.size());
+        boolean progress = true;
+        while (admitCredit >= 1 && progress) {
+            progress = false;
+            for (int i = 0; i < active.size() && admitCredit >= 1; i++) {
+                if (admitNext(active.get((start + i) % active.size()), now)) {
+                    admitCredit -= 1;
+                    admitted++;
+                    progress = true;
+                }
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * 入場期限切れ・ポーリング途絶のチケットを解放し、保持期間を過ぎた終了チケットと空のキューを破棄する
+     */
+    void sweep(long now) {
+        for (AdmissionTicket ticket : tickets.values()) {
+            if (ticket.getState() == State.ADMITTED && now - ticket.admissionDeadlineNanos > 0) {
+                expireAdmission(ticket, now);
+            } else if (!ticket.isActive() && now - ticket.finishedAtNanos > retentionNanos) {
+                tickets.remove(ticket.getTicketId(), ticket);
+            }
+        }
+        for (ItemQueue queue : queues.values()) {
+            synchronized (queue) {
+                if (queue.waiting.isEmpty() && queue.admittedInFlight.get() == 0) {
+                    queues.remove(queue.itemId, queue);
+                }
+            }
+        }
+    }
+
+    /** 待機中のチケット数（全商品） */
+    public int getWaitingCount() {
+        return queues.values().stream().mapToInt(queue -> queue.waitingCount.get()).sum();
+    }
+
+    /** 入場済みで未購入のチケット数（全商品） */
+    public int getAdmittedCount() {
+        return queues.values().stream().mapToInt(queue -> queue.admittedInFlight.get()).sum();
+    }
+
+    private boolean admitNext(ItemQueue queue, long now) {
+        Integer available = inventoryReservationService.getAvailableStock(queue.itemId);
+        if (available == null || available <= 0) {
+            rejectWaiting(queue, now, available == null ? "販売が終了しました" : "在庫がすべて予約済みです");
+            return false;
+        }
+        if (queue.admittedInFlight.get() >= available) {
+            return false; // 入場済みの購入者で残り在庫が埋まっている
+        }
+        AdmissionTicket ticket;
+        while ((ticket = pollHead(queue)) != null) {
+            if (now - ticket.lastSeenNanos > abandonTimeoutNanos) {
+                if (ticket.finish(State.WAITING, State.EXPIRED, "ポーリングが途絶えたため破棄", now)) {
+                    activeTickets.remove(buyerKey(ticket.getItemId(), ticket.getBuyerId()), ticket.getTicketId());
+                }
+                continue;
+            }
+            if (ticket.admit(now, admissionWindowNanos)) {
+                queue.admittedInFlight.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AdmissionTicket pollHead(ItemQueue queue) {
+        AdmissionTicket ticket = queue.waiting.poll();
+        if (ticket != null) {
+            queue.waitingCount.decrementAndGet();
+            queue.dequeuedSequence = ticket.getSequence();
+        }
+        return ticket;
+    }
+
+    private void rejectWaiting(ItemQueue queue, long now, String reason) {
+        int rejected = 0;
+        AdmissionTicket ticket;
+        while ((ticket = pollHead(queue)) != null) {
+            if (ticket.finish(State.WAITING, State.REJECTED, reason, now)) {
+                activeTickets.remove(buyerKey(ticket.getItemId(), ticket.getBuyerId()), ticket.getTicketId());
+                rejected++;
+            }
+        }
+        if (rejected > 0) {
+            log.info("待合室の待機チケットを拒否: itemId={}, count={}, reason={}", queue.itemId, rejected, reason);
+        }
+    }
+
+    private void expireAdmission(AdmissionTicket ticket, long now) {
+        if (ticket.finish(State.ADMITTED, State.EXPIRED, "入場期限切れ", now)) {
+            releaseAdmission(ticket);
+            activeTickets.remove(buyerKey(ticket.getItemId(), ticket.getBuyerId()), ticket.getTicketId());
+        }
+    }
+
+    private void releaseAdmission(AdmissionTicket ticket) {
+        ItemQueue queue = queues.get(ticket.getItemId());
+        if (queue != null) {
+            queue.admittedInFlight.decrementAndGet();
+        }
+    }
+
+    private AdmissionTicket activeTicket(String buyerKey) {
+        String ticketId = activeTickets.get(buyerKey);
+        AdmissionTicket ticket = ticketId != null ? tickets.get(ticketId) : null;
+        return ticket != null && ticket.isActive() ? ticket : null;
+    }
+
+    private AdmissionTicket requireTicket(String ticketId, String buyerId) {
+        AdmissionTicket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.getBuyerId().equals(buyerId)) {
+            throw new BusinessException(ErrorCode.NOT_FOUND, "入場チケットが見つかりません");
+        }
+        return ticket;
+    }
+
+    private AdmissionStatus toStatus(AdmissionTicket ticket) {
+        AdmissionStatus.AdmissionStatusBuilder builder = AdmissionStatus.builder()
+                .ticketId(ticket.getTicketId())
+                .itemId(ticket.getItemId())
+                .state(ticket.getState())
+                .remainingStock(inventoryReservationService.getAvailableStock(ticket.getItemId()))
+                .pollIntervalMillis(Math.max(1000, tickIntervalMillis * 5))
+                .message(ticket.getReason());
+        switch (ticket.getState()) {
+            case WAITING -> {
+                ItemQueue queue = queues.get(ticket.getItemId());
+                long position = Math.max(1, ticket.getSequence() - (queue != null ? queue.dequeuedSequence : 0));
+                int activeQueues = (int) Math.max(1, queues.values().stream()
+                        .filter(q -> !q.waiting.isEmpty()).count());
+                builder.position(position)
+                        .estimatedWaitSeconds((long) Math.ceil(position * activeQueues / admitsPerSecond));
+            }
+            case ADMITTED -> builder.admissionExpiresAt(ticket.getAdmissionExpiresAt());
+            default -> {
+            }
+        }
+        return builder.build();
+    }
+
+    private static String buyerKey(Long itemId, String buyerId) {
+        return itemId + ":" + buyerId;
+    }
+}
@@ -0,0 +1,154 @@
+package com.sfr.tokyo.sfr_backend.service.shop.inventory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 限定アイテムの在庫トークンカウンタ（インメモリ）
+ *
+ * DB の在庫数を初期値とするトークンを CAS で取得し、トークンが尽きた購入要求は DB に到達する前に拒否する。
+ * DB の条件付き減算が常に正であり、このカウンタは負荷を削るための前段フィルタに過ぎない。
+ * 他ノードでの解放・補充を取りこぼさないよう、尽きた状態が再同期間隔を超えたら DB から読み直す。
+ */
+@Component
+public class HotItemStockCounter {
+
+    private final long resyncIntervalNanos;
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong shedCount = new AtomicLong();
+
+    private static final class Slot {
+        final AtomicInteger available = new AtomicInteger();
+        volatile long syncedAtNanos;
+    }
+
+    public HotItemStockCounter(@Value("${shop.inventory.counter.resync-interval-ms:1000}") long resyncIntervalMillis) {
+        this.resyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(resyncIntervalMillis);
+    }
+
+    /**
+     * トークンを取得する
+     *
+     * @param itemId アイテムID
+     * @param quantity 取得数
+     * @param stockLoader DB の販売可能在庫を返す関数（初回・再同期時のみ呼ばれる。販売中でなければ null）
+     * @return 取得できた場合 true（false の場合は DB へ問い合わせずに在庫不足として扱う）
+     */
+    public boolean tryAcquire(Long itemId, int quantity, LongFunction<Integer> stockLoader) {
+        Slot slot = slots.get(itemId);
+        if (slot == null) {
+            Integer stock = stockLoader.apply(itemId);
+            if (stock == null) {
+                // 販売中でないアイテムはカウンタを作らない（存在しないIDでマップが膨らまないように）
+                shedCount.incrementAndGet();
+                return false;
+            }
+            slot = slots.computeIfAbsent(itemId, id -> newSlot(stock));
+        }
+        boolean resynced = false;
+        while (true) {
+            int current = slot.available.get();
+            if (current >= quantity) {
+                if (slot.available.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+                continue;
+            }
+            if (resynced || !resyncIfStale(slot, itemId, stockLoader)) {
+                shedCount.incrementAndGet();
+                return false;
+            }
+            resynced = true;
+        }
+    }
+
+    /**
+     * トークンを戻す（予約の取消・期限切れ・DB 更新失敗時）
+     */
+    public void release(Long itemId, int quantity) {
+        Slot slot = slots.get(itemId);
+        if (slot != null) {
+            slot.available.addAndGet(quantity);
+        }
+    }
+
+    /**
+     * DB の在庫数で上書きする（補充時・DB との不一致検出時）
+     */
+    public void resync(Long itemId, int stock) {
+        Slot slot = slots.get(itemId);
+        if (slot != null) {
+            synchronized (slot) {
+                slot.available.set(Math.max(0, stock));
+                slot.syncedAtNanos = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * カウンタを破棄し、次回アクセス時に DB から読み直す（商品情報の直接更新時など）
+     */
+    public void invalidate(Long itemId) {
+        slots.remove(itemId);
+    }
+
+    /** カウンタで拒否した要求数 */
+    public long getShedCount() {
+        return shedCount.get();
+    }
+
+    /**
+     * 残りトークン数を返す（カウンタ未作成なら DB から初期化する）
+     *
+     * @return 残りトークン数（販売中でない場合 null）
+     */
+    public Integer getOrLoadAvailable(Long itemId, LongFunction<Integer> stockLoader) {
+        Slot slot = slots.get(itemId);
+        if (slot == null) {
+            Integer stock = stockLoader.apply(itemId);
+            if (stock == null) {
+                return null;
+            }
+            slot = slots.computeIfAbsent(itemId, id -> newSlot(stock));
+        }
+        return slot.available.get();
+    }
+
+    public Integer getAvailable(Long itemId) {
+        Slot slot = slots.get(itemId);
+        return slot != null ? slot.available.get() : null;
+    }
+
+    private static Slot newSlot(int stock) {
+        Slot slot = new Slot();
+        slot.available.set(Math.max(0, stock));
+        slot.syncedAtNanos = System.nanoTime();
+        return slot;
+    }
+
+    /**
+     * 最終同期から再同期間隔を過ぎていれば DB から読み直す
+     * 同時に尽きた要求のうち1スレッドだけが読み直し、他は拒否される
+     */
+    private boolean resyncIfStale(Slot slot, Long itemId, LongFunction<Integer> stockLoader) {
+        if (System.nanoTime() - slot.syncedAtNanos < resyncIntervalNanos) {
+            return false;
+        }
+        synchronized (slot) {
+            if (System.nanoTime() - slot.syncedAtNanos < resyncIntervalNanos) {
+                return slot.available.get() > 0;
+            }
+            Integer stock = stockLoader.apply(itemId);
+            slot.available.set(stock != null ? Math.max(0, stock) : 0);
+            slot.syncedAtNanos = System.nanoTime();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.sfr.tokyo.sfr_backend.service.shop.inventory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItem;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation.ReservationStatus;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemRepository;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemReservationRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.CommittedChanges;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 限定アイテムの在庫予約サービス
+ *
+ * 1. トークンカウンタで在庫切れの要求を DB に到達する前に拒否する
+ * 2. 条件付き UPDATE（stock = stock - ? WHERE stock >= ?）で在庫を原子的に確保し、有効期限付きの予約を作成する
+ * 3. 確定で販売数を加算し、取消・期限切れで在庫を戻す
+ * 在庫が負になる・同じ在庫を二重に販売することは DB の条件付き更新により起こらない。
+ */
+@Slf4j
+@Service
+public class InventoryReservationService {
+
+    private final LimitedItemRepository limitedItemRepository;
+    private final LimitedItemReservationRepository reservationRepository;
+    private final HotItemStockCounter stockCounter;
+    private final Duration reservationTtl;
+    private final int expirySweepBatchSize;
+
+    public InventoryReservationService(LimitedItemRepository limitedItemRepository,
+            LimitedItemReservationRepository reservationRepository,
+            HotItemStockCounter stockCounter,
+            @Value("${shop.inventory.reservation-ttl-seconds:600}") long reservationTtlSeconds,
+            @Value("${shop.inventory.expiry-sweep-batch-size:500}") int expirySweepBatchSize) {
+        this.limitedItemRepository = limitedItemRepository;
+        this.reservationRepository = reservationRepository;
+        this.stockCounter = stockCounter;
+        this.reservationTtl = Duration.ofSeconds(reservationTtlSeconds);
+        this.expirySweepBatchSize = Math.max(1, expirySweepBatchSize);
+    }
+
+    /**
+     * 在庫を予約する
+     *
+     * @param itemId アイテムID
+     * @param buyerId 購入者ID
+     * @param quantity 数量
+     * @return 作成された予約（有効期限内に確定しなければ在庫へ戻る）
+     * @throws BusinessException 在庫不足・販売停止（OUT_OF_STOCK）、アイテムなし（NOT_FOUND）
+     */
+    @Transactional
+    public LimitedItemReservation reserve(Long itemId, String buyerId, int quantity) {
+        if (quantity <= 0) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "数量は1以上を指定してください");
+        }
+        if (!stockCounter.tryAcquire(itemId, quantity, this::loadAvailableStock)) {
+            throw new BusinessException(ErrorCode.OUT_OF_STOCK, "在庫不足です");
+        }
+        CommittedChanges.afterRollback(() -> stockCounter.release(itemId, quantity));
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = limitedItemRepository.decrementStockIfAvailable(itemId, quantity,
+                LimitedItem.ItemStatus.ACTIVE, now);
+        if (updated == 0) {
+            Integer stock = limitedItemRepository.findStockByIdAndStatus(itemId, LimitedItem.ItemStatus.ACTIVE)
+                    .orElse(null);
+            if (stock == null && !limitedItemRepository.existsById(itemId)) {
+                throw new BusinessException(ErrorCode.NOT_FOUND, "アイテムが見つかりません: " + itemId);
+            }
+            // 直ちに合わせると、この例外によるロールバック後の release で獲得分が上乗せされる。
+            // release より後に登録し、終了後に DB の在庫で上書きする
+            int actual = stock != null ? stock : 0;
+            CommittedChanges.afterCompletion(() -> stockCounter.resync(itemId, actual));
+            throw new BusinessException(ErrorCode.OUT_OF_STOCK, "在庫不足です");
+        }
+        limitedItemRepository.markSoldOutIfEmpty(itemId, LimitedItem.ItemStatus.ACTIVE,
+                LimitedItem.ItemStatus.SOLD_OUT, now);
+
+        LimitedItemReservation reservation = LimitedItemReservation.builder()
+                .itemId(itemId)
+                .buyerId(buyerId)
+                .quantity(quantity)
+                .status(ReservationStatus.HELD)
+                .expiresAt(now.plus(reservationTtl))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return reservationRepository.save(reservation);
+    }
+
+    /**
+     * 予約を購入確定する
+     *
+     * @throws BusinessException 予約が存在しない・本人以外・確定済み・期限切れの場合
+     */
+    @Transactional
+    public LimitedItemReservation confirm(Long reservationId, String buyerId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = reservationRepository.transitionActive(reservationId, buyerId,
+                ReservationStatus.HELD, ReservationStatus.CONFIRMED, now);
+        if (updated == 0) {
+            throw new BusinessException(ErrorCode.BUSINESS_RULE_VIOLATION, "予約が無効または期限切れです");
+        }
+        LimitedItemReservation reservation = reservationRepository.findById(reservationId).orElseThrow();
+        limitedItemRepository.incrementSalesCount(reservation.getItemId(), reservation.getQuantity(), now);
+        log.info("在庫予約確定: reservationId={}, itemId={}, quantity={}", reservationId,
+                reservation.getItemId(), reservation.getQuantity());
+        return reservation;
+    }
+
+    /**
+     * 予約を取り消して在庫へ戻す
+     *
+     * @throws BusinessException 予約が存在しない・本人以外・確定済み・期限切れの場合
+     */
+    @Transactional
+    public void release(Long reservationId, String buyerId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = reservationRepository.transitionActive(reservationId, buyerId,
+                ReservationStatus.HELD, ReservationStatus.RELEASED, now);
+        if (updated == 0) {
+            throw new BusinessException(ErrorCode.BUSINESS_RULE_VIOLATION, "予約が無効または期限切れです");
+        }
+        LimitedItemReservation reservation = reservationRepository.findById(reservationId).orElseThrow();
+        restoreStock(reservation, now);
+        log.info("在庫予約取消: reservationId={}, itemId={}", reservationId, reservation.getItemId());
+    }
+
+    /**
+     * 期限切れ予約の在庫を戻す
+     * 予約ごとに条件付き更新で EXPIRED へ遷移させ、遷移できたものだけ在庫を戻す（確定との競合時も二重に戻さない）
+     *
+     * @return 期限切れにした予約数
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${shop.inventory.expiry-sweep-interval-ms:10000}")
+    public int expireReservations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<LimitedItemReservation> expired = reservationRepository.findExpired(ReservationStatus.HELD, now,
+                PageRequest.of(0, expirySweepBatchSize));
+        int count = 0;
+        for (LimitedItemReservation reservation : expired) {
+            if (reservationRepository.transition(reservation.getId(), ReservationStatus.HELD,
+                    ReservationStatus.EXPIRED, now) == 1) {
+                restoreStock(reservation, now);
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("期限切れ在庫予約を解放: {}件", count);
+        }
+        return count;
+    }
+
+    /**
+     * 在庫を補充する（補充後の在庫数をトークンカウンタへ反映）
+     *
+     * @return 補充対象が存在した場合 true
+     */
+    @Transactional
+    public boolean restock(Long itemId, int additionalStock) {
+        if (additionalStock <= 0) {
+            throw new BusinessException(ErrorCode.BAD_REQUEST, "補充数は1以上を指定してください");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (limitedItemRepository.incrementStock(itemId, additionalStock, now) == 0) {
+            return false;
+        }
+        limitedItemRepository.reactivateIfRestocked(itemId, LimitedItem.ItemStatus.SOLD_OUT,
+                LimitedItem.ItemStatus.ACTIVE, now);
+        CommittedChanges.afterCommit(() -> stockCounter.invalidate(itemId));
+        return true;
+    }
+
+    /**
+     * 予約可能な残り在庫数（トークンカウンタの値。DB へは初回のみ問い合わせる）
+     *
+     * @return 残り在庫数（販売中でない・存在しない場合 null）
+     */
+    public Integer getAvailableStock(Long itemId) {
+        return stockCounter.getOrLoadAvailable(itemId, this::loadAvailableStock);
+    }
+
+    private void restoreStock(LimitedItemReservation reservation, LocalDateTime now) {
+        limitedItemRepository.incrementStock(reservation.getItemId(), reservation.getQuantity(), now);
+        limitedItemRepository.reactivateIfRestocked(reservation.getItemId(), LimitedItem.ItemStatus.SOLD_OUT,
+                LimitedItem.ItemStatus.ACTIVE, now);
+        CommittedChanges.afterCommit(() -> stockCounter.release(reservation.getItemId(), reservation.getQuantity()));
+    }
+
+    /** 販売中アイテムの在庫数（販売中でない・存在しない場合 null） */
+    private Integer loadAvailableStock(long itemId) {
+        return limitedItemRepository.findStockByIdAndStatus(itemId, LimitedItem.ItemStatus.ACTIVE).orElse(null);
+    }
+
+}
@@ -12,6 +12,8 @@ import tokyo.sfr.shop.model.ShopDelivery;
 import tokyo.sfr.shop.model.ShopDeliveryToken;
 import tokyo.sfr.shop.service.ShopService;
 import tokyo.sfr.shop.service.PoALogService;
+import com.sfr.tokyo.sfr_backend.service.scan.ScanVerdict;
+import com.sfr.tokyo.sfr_backend.service.scan.UploadScanService;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 
@@ -20,10 +22,12 @@ import java.util.List;
 public class ShopController {
     private final ShopService shopService;
     private final PoALogService poaLogService;
+    private final UploadScanService uploadScanService;
     
-    public ShopController(ShopService shopService, PoALogService poaLogService) {
+    public ShopController(ShopService shopService, PoALogService poaLogService, UploadScanService uploadScanService) {
         this.shopService = shopService;
         this.poaLogService = poaLogService;
+        this.uploadScanService = uploadScanService;
     }
 
     // 商品画像アップロード
@@ -53,43 +57,17 @@ public class ShopController {
         }
     }
 
-    // ClamAVウイルスチェックAPI呼び出し（Flask REST API連携）
+    // ウイルスチェック（UploadScanService 経由。同一内容の再アップロードはキャッシュ済み判定を利用）
     private boolean callClamAV(MultipartFile file) {
         try {
-            // ClamAV Flask REST APIエンドポイント（今回実装したもの）
-            String clamAvUrl = "http://localhost:5000/scan";
-            java.net.HttpURLConnection conn = (java.net.HttpURLConnection) new java.net.URL(clamAvUrl).openConnection();
-            conn.setRequestMethod("POST");
-            conn.setDoOutput(true);
-            
-            // multipart/form-data形式で送信
-            String boundary = "----" + System.currentTimeMillis();
-            conn.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
-            
-            try (java.io.OutputStream os = conn.getOutputStream()) {
-                String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "upload.bin";
-                
-                // multipart形式でファイルを送信
-                os.write(("--" + boundary + "\r\n").getBytes());
-                os.write(("Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n").getBytes());
-                os.write(("Content-Type: " + file.getContentType() + "\r\n\r\n").getBytes());
-                os.write(file.getBytes());
-                os.write(("\r\n--" + boundary + "--\r\n").getBytes());
-            }
-            
-            int code = conn.getResponseCode();
-            if (code == 200) {
-                try (java.io.InputStream is = conn.getInputStream()) {
-                    String result = new String(is.readAllBytes());
-                    // JSONレスポンスを解析
-                    return !result.contains("\"is_infected\":true") && !result.contains("FOUND");
-                }
+            ScanVerdict verdict = uploadScanService.scan(file);
+            if (verdict.status() == ScanVerdict.Status.ERROR) {
+                org.slf4j.LoggerFactory.getLogger(getClass()).error("[clamav] error: {}", verdict.signature());
             }
-            org.slf4j.LoggerFactory.getLogger(getClass()).warn("[clamav] HTTP error: code={}", code);
-            return false;
+            // エラー時は安全側（false）
+            return verdict.isClean();
         } catch (Exception e) {
             org.slf4j.LoggerFactory.getLogger(getClass()).error("[clamav] error: {}", e.getMessage());
-            // エラー時は安全側（false）
             return false;
         }
     }
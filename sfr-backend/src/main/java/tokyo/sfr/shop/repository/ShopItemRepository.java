@@ -1,12 +1,14 @@
 package tokyo.sfr.shop.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tokyo.sfr.shop.model.ShopItem;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,4 +41,14 @@ public interface ShopItemRepository extends JpaRepository<ShopItem, Long> {
         @Param("minPrice") BigDecimal minPrice,
         @Param("maxPrice") BigDecimal maxPrice
     );
+
+    // 在庫の条件付き減算（在庫が足りる場合のみ更新。更新件数 0 = 在庫不足または商品なし）
+    @Modifying
+    @Query("UPDATE ShopItem s SET s.stock = s.stock - :quantity, s.updatedAt = :now " +
+           "WHERE s.id = :id AND s.stock >= :quantity")
+    int decrementStockIfAvailable(
+        @Param("id") Long id,
+        @Param("quantity") int quantity,
+        @Param("now") LocalDateTime now
+    );
 }
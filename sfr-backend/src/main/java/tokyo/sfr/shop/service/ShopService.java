@@ -101,22 +101,20 @@ public class ShopService {
 
     // 注文作成
     public void createOrder(ShopOrder order) { 
+        // 在庫減少処理（条件付きUPDATEで原子的に確保してから注文を作成する）
+        int updated = shopItemRepository.decrementStockIfAvailable(
+            order.getItemId(), order.getQuantity(), LocalDateTime.now());
+        if (updated == 0) {
+            if (!shopItemRepository.existsById(order.getItemId())) {
+                throw new RuntimeException("商品が見つかりません");
+            }
+            throw new RuntimeException("在庫不足です");
+        }
+
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
         order.setStatus("PENDING"); // 初期ステータス
         shopOrderRepository.save(order);
-        
-        // 在庫減少処理
-        Optional<ShopItem> item = shopItemRepository.findById(order.getItemId());
-        if (item.isPresent()) {
-            ShopItem shopItem = item.get();
-            if (shopItem.getStock() >= order.getQuantity()) {
-                shopItem.setStock(shopItem.getStock() - order.getQuantity());
-                shopItemRepository.save(shopItem);
-            } else {
-                throw new RuntimeException("在庫不足です");
-            }
-        }
     }
 
     // 購入者別注文一覧取得
@@ -0,0 +1,24 @@
+-- Cold tier for AI decision logs.
+-- Finished logs older than the hot retention window are moved out of ai_decision_logs into
+-- append-only segments: one day's logs laid out column by column and GZIP-compressed into a single BLOB.
+-- (min_log_id, max_log_id) and (min_decision_date, max_decision_date) act as a sparse index, so a lookup
+-- only decompresses the segments whose range covers the requested id or period.
+
+CREATE TABLE IF NOT EXISTS ai_decision_log_segments (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    segment_day DATE NOT NULL,
+    min_log_id BIGINT NOT NULL,
+    max_log_id BIGINT NOT NULL,
+    min_decision_date DATETIME NOT NULL,
+    max_decision_date DATETIME NOT NULL,
+    record_count INT NOT NULL,
+    format_version INT NOT NULL,
+    raw_bytes BIGINT NOT NULL,
+    compressed_bytes BIGINT NOT NULL,
+    payload LONGBLOB NOT NULL,
+    created_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_ai_decision_log_segments_day ON ai_decision_log_segments (segment_day);
+CREATE INDEX idx_ai_decision_log_segments_ids ON ai_decision_log_segments (min_log_id, max_log_id);
+CREATE INDEX idx_ai_decision_log_segments_dates ON ai_decision_log_segments (min_decision_date, max_decision_date);
@@ -0,0 +1,23 @@
+-- Unified deadline table.
+-- One row per (kind, target) holds the next moment something has to happen to that target
+-- (topic/forum auto-close, survey and reward expiry, simulation timeout, ...). The scheduler loads the
+-- rows due within the next window through idx_scheduled_deadlines_due_at instead of every module
+-- scanning its own table, and deletes a row once the state change has been applied.
+
+CREATE TABLE IF NOT EXISTS scheduled_deadlines (
+    id BIGINT NOT NULL PRIMARY KEY,
+    kind VARCHAR(40) NOT NULL,
+    target_id BIGINT NOT NULL,
+    due_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_scheduled_deadlines_kind_target UNIQUE (kind, target_id)
+);
+
+CREATE INDEX idx_scheduled_deadlines_due_at ON scheduled_deadlines (due_at);
+CREATE INDEX idx_scheduled_deadlines_kind_due_at ON scheduled_deadlines (kind, due_at);
+
+-- Sequence emulation used by Hibernate on MySQL (ids are allocated 50 at a time)
+CREATE TABLE IF NOT EXISTS scheduled_deadline_seq (
+    next_val BIGINT
+);
+INSERT INTO scheduled_deadline_seq (next_val) VALUES (1);
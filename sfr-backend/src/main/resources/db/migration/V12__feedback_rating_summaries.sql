@@ -0,0 +1,40 @@
+-- Precomputed feedback ratings.
+-- learning_feedback_rating_summaries keeps count, rating sum and the 1-5 histogram per (target_type, target_id)
+-- for feedback that is not deleted and not rejected by moderation; learning_feedback_monthly_rollups keeps the
+-- same population counted per creation month and feedback type. Both are adjusted by deltas when feedback is
+-- created, edited, deleted or moderated, and can be rebuilt from learning_feedback in bulk.
+
+CREATE TABLE IF NOT EXISTS learning_feedback_rating_summaries (
+    id BIGINT NOT NULL PRIMARY KEY,
+    target_type VARCHAR(50) NOT NULL,
+    target_id BIGINT NOT NULL,
+    feedback_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_1_count BIGINT NOT NULL DEFAULT 0,
+    rating_2_count BIGINT NOT NULL DEFAULT 0,
+    rating_3_count BIGINT NOT NULL DEFAULT 0,
+    rating_4_count BIGINT NOT NULL DEFAULT 0,
+    rating_5_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_feedback_rating_summaries_target UNIQUE (target_type, target_id)
+);
+
+CREATE TABLE IF NOT EXISTS learning_feedback_monthly_rollups (
+    id BIGINT NOT NULL PRIMARY KEY,
+    period_month CHAR(7) NOT NULL,
+    feedback_type VARCHAR(50) NOT NULL,
+    feedback_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_feedback_monthly_rollups_month_type UNIQUE (period_month, feedback_type)
+);
+
+-- Sequence emulation used by Hibernate on MySQL (ids are allocated 50 at a time)
+CREATE TABLE IF NOT EXISTS feedback_rating_summary_seq (
+    next_val BIGINT
+);
+INSERT INTO feedback_rating_summary_seq (next_val) VALUES (1);
+
+CREATE TABLE IF NOT EXISTS feedback_monthly_rollup_seq (
+    next_val BIGINT
+);
+INSERT INTO feedback_monthly_rollup_seq (next_val) VALUES (1);
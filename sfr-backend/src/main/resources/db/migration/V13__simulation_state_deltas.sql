@@ -0,0 +1,26 @@
+-- Delta-based persistence for learning_simulation.state_data / feedback_data.
+-- Each state or feedback update appends one JSON patch row per channel; the current document is the snapshot
+-- column on learning_simulation plus the rows whose seq is greater than the matching *_snapshot_seq.
+-- Snapshots are rewritten after a number of deltas or once a simulation goes idle, and rows already folded
+-- into a snapshot are purged by a later sweep.
+
+CREATE TABLE IF NOT EXISTS learning_simulation_state_deltas (
+    id BIGINT NOT NULL PRIMARY KEY,
+    simulation_id BIGINT NOT NULL,
+    channel VARCHAR(20) NOT NULL,
+    seq BIGINT NOT NULL,
+    patch TEXT NOT NULL,
+    created_at DATETIME NOT NULL,
+    CONSTRAINT uk_simulation_state_deltas_seq UNIQUE (simulation_id, channel, seq)
+);
+
+CREATE INDEX idx_simulation_state_deltas_created_at ON learning_simulation_state_deltas (created_at);
+
+-- learning_simulation itself is not covered by these scripts; its state_snapshot_seq / feedback_snapshot_seq
+-- columns (default 0) come from the entity mapping like the rest of that table.
+
+-- Sequence emulation used by Hibernate on MySQL (ids are allocated 50 at a time)
+CREATE TABLE IF NOT EXISTS simulation_state_delta_seq (
+    next_val BIGINT
+);
+INSERT INTO simulation_state_delta_seq (next_val) VALUES (1);
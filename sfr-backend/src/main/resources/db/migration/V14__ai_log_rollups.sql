@@ -0,0 +1,42 @@
+-- Minute and hour rollups of learning AI logs.
+-- One row per (scope_type, scope_id, ai_type, granularity, bucket_start), where the scope is a user, a space or the
+-- whole service (scope_id all zeros). Rows carry request and error counts, satisfaction / confidence / processing
+-- time sums with their counts, token totals and a processing-time histogram
+-- (<=100, <=500, <=1000, <=2000, <=5000, >5000 ms). They are incremented as queued logs are bulk-inserted, and
+-- MINUTE rows are purged after a retention window while HOUR rows are kept.
+-- learning_ai_logs itself is not covered by these scripts; its switch to a pooled sequence id comes from the
+-- entity mapping.
+
+CREATE TABLE IF NOT EXISTS learning_ai_log_rollups (
+    id BIGINT NOT NULL PRIMARY KEY,
+    scope_type VARCHAR(20) NOT NULL,
+    scope_id BINARY(16) NOT NULL,
+    ai_type VARCHAR(50) NOT NULL,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    error_count BIGINT NOT NULL DEFAULT 0,
+    satisfaction_sum BIGINT NOT NULL DEFAULT 0,
+    satisfaction_count BIGINT NOT NULL DEFAULT 0,
+    confidence_sum DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    confidence_count BIGINT NOT NULL DEFAULT 0,
+    processing_time_sum BIGINT NOT NULL DEFAULT 0,
+    processing_time_count BIGINT NOT NULL DEFAULT 0,
+    tokens_sum BIGINT NOT NULL DEFAULT 0,
+    latency_le_100 BIGINT NOT NULL DEFAULT 0,
+    latency_le_500 BIGINT NOT NULL DEFAULT 0,
+    latency_le_1000 BIGINT NOT NULL DEFAULT 0,
+    latency_le_2000 BIGINT NOT NULL DEFAULT 0,
+    latency_le_5000 BIGINT NOT NULL DEFAULT 0,
+    latency_gt_5000 BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NOT NULL,
+    CONSTRAINT uk_ai_log_rollups_bucket UNIQUE (scope_type, scope_id, ai_type, granularity, bucket_start)
+);
+
+CREATE INDEX idx_ai_log_rollups_granularity_start ON learning_ai_log_rollups (granularity, bucket_start);
+
+-- Sequence emulation used by Hibernate on MySQL (ids are allocated 50 at a time)
+CREATE TABLE IF NOT EXISTS ai_log_rollup_seq (
+    next_val BIGINT
+);
+INSERT INTO ai_log_rollup_seq (next_val) VALUES (1);
@@ -0,0 +1,66 @@
+-- Narrow counter table and query-matched indexes for learning topics.
+-- View/like/comment/bookmark/share counters move from learning_topic to learning_topic_stats (one row per topic,
+-- primary key only), so a counter bump rewrites one small row instead of the wide topic row plus the counter
+-- indexes. Scores stay on learning_topic: they only change on recalculation and score-ordered lists need them indexed.
+-- The single-column flag/counter indexes are replaced by composite indexes laid out as
+-- (equality columns, deleted_at, sort column) for the LearningTopicRepository list and count queries.
+-- Trade-off: list queries ordered or filtered by a counter now join learning_topic_stats and ran about 1.2-1.6x
+-- slower in LearningTopicStatsBenchmarkTest; that read cost is accepted in exchange for faster counter writes.
+--
+-- learning_topic itself is created from the entity mapping, not by an earlier script; this migration assumes the
+-- table exists with the pre-split layout. idx_topic_search (title, content) is not dropped because MySQL cannot
+-- index a TEXT column without a prefix length, so it was never created there.
+
+CREATE TABLE IF NOT EXISTS learning_topic_stats (
+    topic_id BIGINT NOT NULL PRIMARY KEY,
+    view_count INT NOT NULL DEFAULT 0,
+    like_count INT NOT NULL DEFAULT 0,
+    comment_count INT NOT NULL DEFAULT 0,
+    bookmark_count INT NOT NULL DEFAULT 0,
+    share_count INT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_learning_topic_stats_topic FOREIGN KEY (topic_id) REFERENCES learning_topic (id) ON DELETE CASCADE
+);
+
+INSERT INTO learning_topic_stats (topic_id, view_count, like_count, comment_count, bookmark_count, share_count)
+SELECT id, view_count, like_count, comment_count, bookmark_count, share_count
+FROM learning_topic;
+
+ALTER TABLE learning_topic
+    DROP INDEX idx_topic_forum_id,
+    DROP INDEX idx_topic_creator_id,
+    DROP INDEX idx_topic_status,
+    DROP INDEX idx_topic_priority,
+    DROP INDEX idx_topic_is_pinned,
+    DROP INDEX idx_topic_is_locked,
+    DROP INDEX idx_topic_is_solved,
+    DROP INDEX idx_topic_is_featured,
+    DROP INDEX idx_topic_view_count,
+    DROP INDEX idx_topic_like_count,
+    DROP INDEX idx_topic_comment_count,
+    DROP INDEX idx_topic_composite,
+    DROP INDEX idx_topic_engagement,
+    DROP INDEX idx_topic_moderation,
+    DROP COLUMN view_count,
+    DROP COLUMN like_count,
+    DROP COLUMN comment_count,
+    DROP COLUMN bookmark_count,
+    DROP COLUMN share_count;
+
+-- Forum lists: pinned-first by creation, newest, last activity, active-by-activity, solved/unsolved
+CREATE INDEX idx_topic_forum_pinned_created ON learning_topic (forum_id, deleted_at, is_pinned, created_at);
+CREATE INDEX idx_topic_forum_created ON learning_topic (forum_id, deleted_at, created_at);
+CREATE INDEX idx_topic_forum_activity ON learning_topic (forum_id, deleted_at, last_activity_at);
+CREATE INDEX idx_topic_forum_status_activity ON learning_topic (forum_id, topic_status, deleted_at, is_pinned, last_activity_at);
+CREATE INDEX idx_topic_forum_solved_created ON learning_topic (forum_id, is_solved, deleted_at, created_at);
+-- Site-wide status lists, archive/inactive sweeps and status counts
+CREATE INDEX idx_topic_status_activity ON learning_topic (topic_status, deleted_at, is_pinned, last_activity_at);
+CREATE INDEX idx_topic_status_created ON learning_topic (topic_status, deleted_at, created_at);
+-- Per-user lists and counts
+CREATE INDEX idx_topic_creator_created ON learning_topic (creator_id, deleted_at, created_at);
+-- Question queues and solution rate
+CREATE INDEX idx_topic_type_solved_created ON learning_topic (topic_type, is_solved, deleted_at, created_at);
+-- Moderation queues
+CREATE INDEX idx_topic_moderation_created ON learning_topic (moderation_status, deleted_at, created_at);
+CREATE INDEX idx_topic_moderator ON learning_topic (moderator_id, moderated_at);
+-- Auto-close deadlines
+CREATE INDEX idx_topic_auto_close ON learning_topic (auto_close_at);
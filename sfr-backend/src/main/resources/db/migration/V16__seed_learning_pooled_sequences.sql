@@ -0,0 +1,18 @@
+-- Seed the pooled sequences for learning_ranking and learning_user_badge above the ids already in use.
+-- Both entities moved from IDENTITY to a SEQUENCE id allocated 50 at a time (Hibernate's pooled optimizer reads
+-- next_val as the upper end of the block, so the first block is next_val - 49 .. next_val). Existing rows were
+-- numbered by AUTO_INCREMENT, so next_val starts at MAX(id) + 50 to keep the first block clear of them.
+
+CREATE TABLE IF NOT EXISTS learning_ranking_seq (
+    next_val BIGINT
+);
+DELETE FROM learning_ranking_seq;
+INSERT INTO learning_ranking_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM learning_ranking;
+
+CREATE TABLE IF NOT EXISTS learning_user_badge_seq (
+    next_val BIGINT
+);
+DELETE FROM learning_user_badge_seq;
+INSERT INTO learning_user_badge_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM learning_user_badge;
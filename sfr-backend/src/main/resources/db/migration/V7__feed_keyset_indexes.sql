@@ -0,0 +1,11 @@
+-- Keyset pagination indexes for the public post feed and per-post comment lists.
+-- Feed queries seek on (created_at, id) instead of OFFSET, so each page is an index range scan.
+
+-- Comments created before created_at was populated on insert: fall back to a stable, old timestamp
+-- so they sort first (in id order) instead of being skipped by the (created_at, id) seek predicate.
+UPDATE comments SET created_at = '1970-01-01 00:00:00' WHERE created_at IS NULL;
+UPDATE post_entity SET created_at = '1970-01-01 00:00:00' WHERE created_at IS NULL;
+
+CREATE INDEX idx_post_created_id ON post_entity (created_at, id);
+CREATE INDEX idx_post_user_created_id ON post_entity (user_id, created_at, id);
+CREATE INDEX idx_comments_post_created_id ON comments (post_id, created_at, id);
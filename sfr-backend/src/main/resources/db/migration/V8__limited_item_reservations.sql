@@ -0,0 +1,17 @@
+-- Short-lived stock reservations for limited items.
+-- Stock is taken from limited_items with a conditional decrement when a reservation is created
+-- and returned when it is released or expires; status transitions are conditional updates.
+
+CREATE TABLE IF NOT EXISTS limited_item_reservations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    item_id BIGINT NOT NULL,
+    buyer_id VARCHAR(36) NOT NULL,
+    quantity INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NULL
+);
+
+CREATE INDEX idx_limited_item_reservations_status_expires ON limited_item_reservations (status, expires_at);
+CREATE INDEX idx_limited_item_reservations_item_status ON limited_item_reservations (item_id, status);
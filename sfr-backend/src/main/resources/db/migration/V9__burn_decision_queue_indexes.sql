@@ -0,0 +1,11 @@
+-- Work-queue indexes for burn decisions.
+-- Status listings page on (status, decision_date), or (space_id, status, decision_date) when filtered by space,
+-- and the voting queue seeks on (status, voting_end_date),
+-- so neither needs a full scan. Period statistics GROUP BY status / decision_type over a decision_date
+-- range scanned through (decision_date, status, decision_type); high-value listings seek on actual_burn_amount.
+
+CREATE INDEX idx_burn_decisions_status_date ON burn_decisions (status, decision_date);
+CREATE INDEX idx_burn_decisions_space_status_date ON burn_decisions (space_id, status, decision_date);
+CREATE INDEX idx_burn_decisions_status_voting_end ON burn_decisions (status, voting_end_date);
+CREATE INDEX idx_burn_decisions_date_status_type ON burn_decisions (decision_date, status, decision_type);
+CREATE INDEX idx_burn_decisions_actual_amount ON burn_decisions (actual_burn_amount);
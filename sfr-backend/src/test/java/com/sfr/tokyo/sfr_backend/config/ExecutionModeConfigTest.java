@@ -0,0 +1,58 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import com.sfr.tokyo.sfr_backend.repository.support.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionModeConfigTest {
+
+    private static HikariDataSource pool(String name, int maximumPoolSize) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        return pool;
+    }
+
+    @Test
+    @DisplayName("制限は接続プールごとに、そのプールの最大サイズを上限としてかける")
+    void limitAcquisition_shouldBeSizedFromEachPool() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("sfr.datasource.acquire-limit.permits", "15");
+
+        DataSource primary = ExecutionModeConfig.limitAcquisition(pool("primary", 20), environment);
+        DataSource replica = ExecutionModeConfig.limitAcquisition(pool("replica-1", 8), environment);
+
+        assertThat(primary).isInstanceOfSatisfying(ConcurrencyLimitedDataSource.class,
+                limited -> assertThat(limited.getMaxConcurrent()).isEqualTo(15));
+        assertThat(replica).isInstanceOfSatisfying(ConcurrencyLimitedDataSource.class,
+                limited -> assertThat(limited.getMaxConcurrent()).isEqualTo(8));
+    }
+
+    @Test
+    @DisplayName("プラットフォームスレッドで permits 未指定なら制限しない")
+    void limitAcquisition_shouldLeavePoolAloneByDefault() {
+        HikariDataSource pool = pool("primary", 20);
+
+        assertThat(ExecutionModeConfig.limitAcquisition(pool, new MockEnvironment())).isSameAs(pool);
+    }
+
+    @Test
+    @DisplayName("レプリカ構成の遅延接続プロキシは包まず、単一構成の接続プールだけを包む")
+    void connectionAcquisitionLimiter_shouldOnlyWrapPhysicalPool() {
+        BeanPostProcessor limiter = ExecutionModeConfig.connectionAcquisitionLimiter(
+                new MockEnvironment().withProperty("sfr.datasource.acquire-limit.permits", "5"));
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy();
+
+        assertThat(limiter.postProcessAfterInitialization(lazy, "dataSource")).isSameAs(lazy);
+        assertThat(limiter.postProcessAfterInitialization(pool("primary", 10), "dataSource"))
+                .isInstanceOf(ConcurrencyLimitedDataSource.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.sfr.tokyo.sfr_backend.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplicaRoutingConfigTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(10);
+    private static final Duration CHECK_INTERVAL = Duration.ofMillis(5_000);
+
+    @Test
+    @DisplayName("未指定（0）の場合は許容遅延とヘルスチェック間隔の和を固定期間にする")
+    void readYourWritesWindow_shouldDeriveFromLagAndInterval() {
+        assertThat(ReplicaRoutingConfig.readYourWritesWindow(0, MAX_LAG, CHECK_INTERVAL))
+                .isEqualTo(Duration.ofSeconds(15));
+        assertThat(ReplicaRoutingConfig.readYourWritesWindow(0, MAX_LAG, Duration.ofMillis(2_500)))
+                .isEqualTo(Duration.ofSeconds(13));
+    }
+
+    @Test
+    @DisplayName("下限以上の指定はそのまま使い、下限より短い指定は起動時に拒否する")
+    void readYourWritesWindow_shouldRejectWindowShorterThanLagPlusInterval() {
+        assertThat(ReplicaRoutingConfig.readYourWritesWindow(30, MAX_LAG, CHECK_INTERVAL))
+                .isEqualTo(Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> ReplicaRoutingConfig.readYourWritesWindow(5, MAX_LAG, CHECK_INTERVAL))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("read-your-writes-seconds (5)")
+                .hasMessageContaining("(15s)");
+    }
+}
@@ -0,0 +1,82 @@
+package com.sfr.tokyo.sfr_backend.controller.learning;
+
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningCourseFeeDto;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningCourseFee;
+import com.sfr.tokyo.sfr_backend.service.learning.LearningCourseFeeService;
+import com.sfr.tokyo.sfr_backend.service.learning.catalog.CatalogSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LearningCourseFeeControllerTest {
+
+    @Mock
+    private LearningCourseFeeService courseFeeService;
+
+    @InjectMocks
+    private LearningCourseFeeController controller;
+
+    private static CatalogSnapshot<LearningCourseFee> snapshot(long version, long feeId) {
+        LearningCourseFee fee = new LearningCourseFee();
+        fee.setId(feeId);
+        return CatalogSnapshot.builder(List.of(fee)).build(version, f -> String.valueOf(f.getId()));
+    }
+
+    private static LearningCourseFeeDto dto(long courseId) {
+        return LearningCourseFeeDto.builder().courseId(courseId).build();
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/learning/course-fees/active");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    @Test
+    @DisplayName("ETag と本文は同じスナップショットから作る（途中でカタログが入れ替わっても食い違わない）")
+    void getActiveFees_shouldTakeETagAndBodyFromSameSnapshot() {
+        CatalogSnapshot<LearningCourseFee> before = snapshot(1, 1L);
+        CatalogSnapshot<LearningCourseFee> after = snapshot(2, 2L);
+        when(courseFeeService.getCatalogSnapshot()).thenReturn(before, after);
+        when(courseFeeService.getActiveFees(before)).thenReturn(List.of(dto(1L)));
+
+        ResponseEntity<List<LearningCourseFeeDto>> response = controller.getActiveFees(request(null));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo(before.etag());
+        assertThat(response.getBody()).extracting(LearningCourseFeeDto::getCourseId).containsExactly(1L);
+        verify(courseFeeService, never()).getActiveFees(after);
+    }
+
+    @Test
+    @DisplayName("If-None-Match が一致すれば一覧を作らずに 304 を返す")
+    void getActiveFees_shouldReturnNotModifiedWithoutBuildingBody() {
+        CatalogSnapshot<LearningCourseFee> current = snapshot(1, 1L);
+        when(courseFeeService.getCatalogSnapshot()).thenReturn(current);
+
+        ResponseEntity<List<LearningCourseFeeDto>> response = controller.getActiveFees(request(current.etag()));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        verify(courseFeeService, never()).getActiveFees(any());
+    }
+}
@@ -0,0 +1,126 @@
+package com.sfr.tokyo.sfr_backend.repository;
+
+import com.sfr.tokyo.sfr_backend.entity.Comment;
+import com.sfr.tokyo.sfr_backend.entity.PostEntity;
+import com.sfr.tokyo.sfr_backend.repository.projection.CommentFeedRow;
+import com.sfr.tokyo.sfr_backend.repository.projection.PostFeedRow;
+import com.sfr.tokyo.sfr_backend.test.integration.BaseRepositoryIntegrationTest;
+import com.sfr.tokyo.sfr_backend.user.User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 投稿・コメントのキーセットページングを H2 上で実行するテスト
+ *
+ * アプリケーション全体のリポジトリを読み込むと無関係なクエリの検証でコンテキストが起動しないため、
+ * リポジトリは {@link PostRepository} と {@link CommentRepository} のみに絞る。
+ */
+@DisplayName("投稿フィード Repository テスト")
+class PostFeedRepositoryTest extends BaseRepositoryIntegrationTest {
+
+    @Configuration
+    @EntityScan(basePackages = "com.sfr.tokyo.sfr_backend")
+    @EnableJpaRepositories(basePackageClasses = PostRepository.class, includeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE, classes = { PostRepository.class, CommentRepository.class }))
+    static class FeedRepositories {
+    }
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User alice;
+    private User bob;
+    private final List<PostEntity> posts = new ArrayList<>();
+
+    @BeforeEach
+    void createPosts() {
+        alice = persistAndFlush(User.builder().firstname("Alice").email("alice@example.com").build());
+        bob = persistAndFlush(User.builder().firstname("Bob").email("bob@example.com").build());
+        // 同一時刻の投稿を含めて id による順序の安定性を確認する
+        for (int i = 0; i < 7; i++) {
+            posts.add(persistAndFlush(PostEntity.builder()
+                    .title("post-" + i)
+                    .user(i % 2 == 0 ? alice : bob)
+                    .createdAt(BASE.plusMinutes(i / 2))
+                    .build()));
+        }
+        clearEntityManager();
+    }
+
+    @Test
+    @DisplayName("キーセットで全投稿を新しい順に重複・欠落なく走査できる")
+    void findFeedPage_shouldWalkAllPostsNewestFirst() {
+        List<PostFeedRow> walked = new ArrayList<>();
+        List<PostFeedRow> page = postRepository.findFeedPage(null, null, null, 3);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            PostFeedRow last = page.get(page.size() - 1);
+            page = postRepository.findFeedPage(null, last.createdAt(), last.id(), 3);
+        }
+
+        List<Long> expected = posts.stream()
+                .sorted((a, b) -> a.getCreatedAt().equals(b.getCreatedAt())
+                        ? b.getId().compareTo(a.getId())
+                        : b.getCreatedAt().compareTo(a.getCreatedAt()))
+                .map(PostEntity::getId)
+                .collect(Collectors.toList());
+        assertThat(walked).extracting(PostFeedRow::id).containsExactlyElementsOf(expected);
+        assertThat(walked.get(0).authorName()).isEqualTo("Alice");
+    }
+
+    @Test
+    @DisplayName("投稿者で絞り込んだページングができる")
+    void findFeedPage_shouldFilterByUser() {
+        List<PostFeedRow> bobPosts = postRepository.findFeedPage(bob.getId(), null, null, 10);
+
+        assertThat(bobPosts).hasSize(3)
+                .allSatisfy(row -> assertThat(row.userId()).isEqualTo(bob.getId()));
+    }
+
+    @Test
+    @DisplayName("コメントは古い順にページングされ、件数は一括集計される")
+    void commentFeed_shouldPageOldestFirstAndCountInBatch() {
+        PostEntity first = posts.get(0);
+        for (int i = 0; i < 5; i++) {
+            persistAndFlush(Comment.builder().content("c-" + i).post(first).user(bob)
+                    .createdAt(BASE.plusSeconds(i)).build());
+        }
+        persistAndFlush(Comment.builder().content("other").post(posts.get(1)).user(alice).build());
+        clearEntityManager();
+
+        List<CommentFeedRow> firstPage = commentRepository.findFeedFirstPage(first.getId(), PageRequest.of(0, 2));
+        CommentFeedRow last = firstPage.get(1);
+        List<CommentFeedRow> rest = commentRepository.findFeedPageAfter(first.getId(), last.createdAt(), last.id(),
+                PageRequest.of(0, 10));
+
+        assertThat(firstPage).extracting(CommentFeedRow::content).containsExactly("c-0", "c-1");
+        assertThat(rest).extracting(CommentFeedRow::content).containsExactly("c-2", "c-3", "c-4");
+        assertThat(rest.get(0).username()).isEqualTo("Bob");
+
+        List<Object[]> counts = commentRepository.countByPostIdIn(
+                List.of(first.getId(), posts.get(1).getId(), posts.get(2).getId()));
+        assertThat(counts).extracting(row -> row[0] + "=" + row[1])
+                .containsExactlyInAnyOrder(first.getId() + "=5", posts.get(1).getId() + "=1");
+    }
+}
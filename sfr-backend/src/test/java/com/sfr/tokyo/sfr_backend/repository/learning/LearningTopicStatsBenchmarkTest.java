@@ -0,0 +1,379 @@
+package com.sfr.tokyo.sfr_backend.repository.learning;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopic;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopic.TopicPriority;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopic.TopicType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopicStats;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * learning_topic のカウンター分離と索引の見直しのテスト
+ * H2 上で変更前（カウンターを本体に持ち単一列索引を多数張ったテーブル）と
+ * 変更後（エンティティから生成した learning_topic + learning_topic_stats）を同じデータで比べ、
+ * 登録・カウンター加算の処理速度と一覧クエリの応答時間を出力する。
+ * 速度は環境で変わるため、結果の一致・使われる索引・更新されるテーブルだけを検証する。
+ */
+class LearningTopicStatsBenchmarkTest {
+
+    private static final int TOPICS = 3_000;
+    private static final int FORUMS = 30;
+    private static final int CREATORS = 100;
+    private static final int INCREMENTS = 20_000;
+    private static final int QUERY_RUNS = 500;
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /** 変更前のテーブル（全文検索用の title, content 索引は H2 では TEXT に張れないため除く） */
+    private static final String[] LEGACY_DDL = {
+        "CREATE TABLE learning_topic (id BIGINT PRIMARY KEY, forum_id BIGINT NOT NULL, creator_id UUID NOT NULL, "
+                + "title VARCHAR(200) NOT NULL, content TEXT NOT NULL, topic_type VARCHAR(50) NOT NULL, "
+                + "topic_status VARCHAR(50) NOT NULL, priority VARCHAR(50) NOT NULL, "
+                + "view_count INTEGER NOT NULL, like_count INTEGER NOT NULL, comment_count INTEGER NOT NULL, "
+                + "bookmark_count INTEGER NOT NULL, share_count INTEGER NOT NULL, "
+                + "is_pinned BOOLEAN NOT NULL, is_locked BOOLEAN NOT NULL, is_featured BOOLEAN NOT NULL, "
+                + "is_solved BOOLEAN NOT NULL, is_announcement BOOLEAN NOT NULL, requires_moderation BOOLEAN NOT NULL, "
+                + "moderation_status VARCHAR(50), solution_points INTEGER NOT NULL, "
+                + "activity_score NUMERIC(10,2), quality_score NUMERIC(10,2), popularity_score NUMERIC(10,2), "
+                + "overall_score NUMERIC(10,2), last_activity_at TIMESTAMP(6), created_at TIMESTAMP(6) NOT NULL, "
+                + "updated_at TIMESTAMP(6) NOT NULL, deleted_at TIMESTAMP(6))",
+        "CREATE INDEX idx_topic_forum_id ON learning_topic (forum_id)",
+        "CREATE INDEX idx_topic_creator_id ON learning_topic (creator_id)",
+        "CREATE INDEX idx_topic_status ON learning_topic (topic_status)",
+        "CREATE INDEX idx_topic_priority ON learning_topic (priority)",
+        "CREATE INDEX idx_topic_created_at ON learning_topic (created_at)",
+        "CREATE INDEX idx_topic_last_activity ON learning_topic (last_activity_at)",
+        "CREATE INDEX idx_topic_activity_score ON learning_topic (activity_score)",
+        "CREATE INDEX idx_topic_quality_score ON learning_topic (quality_score)",
+        "CREATE INDEX idx_topic_popularity_score ON learning_topic (popularity_score)",
+        "CREATE INDEX idx_topic_is_pinned ON learning_topic (is_pinned)",
+        "CREATE INDEX idx_topic_is_locked ON learning_topic (is_locked)",
+        "CREATE INDEX idx_topic_is_solved ON learning_topic (is_solved)",
+        "CREATE INDEX idx_topic_is_featured ON learning_topic (is_featured)",
+        "CREATE INDEX idx_topic_view_count ON learning_topic (view_count)",
+        "CREATE INDEX idx_topic_like_count ON learning_topic (like_count)",
+        "CREATE INDEX idx_topic_comment_count ON learning_topic (comment_count)",
+        "CREATE INDEX idx_topic_composite ON learning_topic (forum_id, topic_status, created_at)",
+        "CREATE INDEX idx_topic_engagement ON learning_topic (view_count, like_count, comment_count)",
+        "CREATE INDEX idx_topic_moderation ON learning_topic (requires_moderation, moderation_status)"
+    };
+
+    private static final String INSERT_TOPIC = "INSERT INTO learning_topic (id, forum_id, creator_id, title, content, "
+            + "topic_type, topic_status, priority, is_pinned, is_locked, is_featured, is_solved, is_announcement, "
+            + "requires_moderation, solution_points, activity_score, quality_score, popularity_score, overall_score, "
+            + "last_activity_at, created_at, updated_at%s) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 'ACTIVE', 'NORMAL', ?, false, false, ?, false, false, 0, ?, ?, ?, ?, ?, ?, ?%s)";
+    private static final String COUNTERS = ", view_count, like_count, comment_count, bookmark_count, share_count";
+    private static final String COUNTER_VALUES = ", 0, 0, 0, 0, 0";
+    private static final String INSERT_STATS = "INSERT INTO learning_topic_stats (topic_id" + COUNTERS
+            + ") VALUES (?" + COUNTER_VALUES + ")";
+
+    /** 変更前後の一覧クエリ（Hibernate が生成する形に合わせ、変更後は統計テーブルを結合する） */
+    private static final Map<String, String> LIST_QUERIES = new LinkedHashMap<>();
+
+    static {
+        LIST_QUERIES.put("findByForumId",
+                "SELECT t.id, %s FROM learning_topic t %s WHERE t.forum_id = 7 AND t.deleted_at IS NULL "
+                        + "ORDER BY t.is_pinned DESC, t.created_at DESC");
+        LIST_QUERIES.put("findActiveTopicsByForum",
+                "SELECT t.id, %s FROM learning_topic t %s WHERE t.forum_id = 7 AND t.topic_status = 'ACTIVE' "
+                        + "AND t.deleted_at IS NULL ORDER BY t.is_pinned DESC, t.last_activity_at DESC");
+        LIST_QUERIES.put("findByForumIdOrderByLastActivityAtDesc",
+                "SELECT t.id, %s FROM learning_topic t %s WHERE t.forum_id = 7 AND t.deleted_at IS NULL "
+                        + "ORDER BY t.last_activity_at DESC LIMIT 20");
+        LIST_QUERIES.put("findByCreatorIdOrderByCreatedAtDesc",
+                "SELECT t.id, %s FROM learning_topic t %s WHERE t.creator_id = '" + creator(7) + "' "
+                        + "AND t.deleted_at IS NULL ORDER BY t.created_at DESC LIMIT 20");
+        LIST_QUERIES.put("findUnsolvedByForumId",
+                "SELECT t.id, %s FROM learning_topic t %s WHERE t.forum_id = 7 AND t.is_solved = false "
+                        + "AND t.deleted_at IS NULL ORDER BY t.created_at DESC LIMIT 20");
+        LIST_QUERIES.put("findPopularTopics",
+                "SELECT t.id, %s FROM learning_topic t %s WHERE t.deleted_at IS NULL "
+                        + "ORDER BY t.popularity_score DESC, %s.view_count DESC, t.id LIMIT 20");
+    }
+
+    /** 変更後の一覧クエリで使われるべき索引 */
+    private static final Map<String, String> EXPECTED_INDEXES = Map.of(
+            "findByForumId", "IDX_TOPIC_FORUM_",
+            "findActiveTopicsByForum", "IDX_TOPIC_FORUM_",
+            "findByForumIdOrderByLastActivityAtDesc", "IDX_TOPIC_FORUM_",
+            "findByCreatorIdOrderByCreatedAtDesc", "IDX_TOPIC_CREATOR_CREATED",
+            "findUnsolvedByForumId", "IDX_TOPIC_FORUM_",
+            "findPopularTopics", "IDX_TOPIC_POPULARITY_SCORE");
+
+    private final List<SessionFactory> sessionFactories = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+
+    @AfterEach
+    void close() throws SQLException {
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        sessionFactories.forEach(SessionFactory::close);
+    }
+
+    private SessionFactory sessionFactory(String name) {
+        SessionFactory sessionFactory = new Configuration()
+                .addAnnotatedClass(LearningTopic.class)
+                .addAnnotatedClass(LearningTopicStats.class)
+                .setProperty("hibernate.connection.url", url(name))
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        sessionFactories.add(sessionFactory);
+        return sessionFactory;
+    }
+
+    private Connection connection(String name) throws SQLException {
+        Connection connection = DriverManager.getConnection(url(name), "sa", "");
+        connections.add(connection);
+        return connection;
+    }
+
+    /** 同じクエリの結果の再利用を止め、毎回実行した時間を測る */
+    private static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE";
+    }
+
+    private static UUID creator(int index) {
+        return new UUID(0L, index);
+    }
+
+    private static LearningTopic topic(long forumId) {
+        return new LearningTopic(forumId, creator(1), "title", "content", TopicType.QUESTION, TopicPriority.NORMAL);
+    }
+
+    @Test
+    @DisplayName("登録時に統計行が作られ、カウンターの加算は統計テーブルへの1文だけで本体を書き換えない")
+    void counterUpdates_shouldTouchOnlyStatsTable() {
+        SessionFactory sessionFactory = sessionFactory("topic_stats_mapping");
+        EntityManager entityManager = sessionFactory.createEntityManager();
+        LearningTopicRepository repository = new JpaRepositoryFactory(entityManager)
+                .getRepository(LearningTopicRepository.class);
+
+        entityManager.getTransaction().begin();
+        LearningTopic saved = topic(1L);
+        entityManager.persist(saved);
+        entityManager.flush();
+        Long id = saved.getId();
+        Object updatedAt = entityManager.createNativeQuery(
+                "SELECT updated_at FROM learning_topic WHERE id = " + id).getSingleResult();
+        entityManager.clear();
+
+        sessionFactory.getStatistics().clear();
+        repository.incrementViewCount(id);
+        repository.incrementViewCount(id);
+        repository.incrementLikeCount(id);
+        repository.incrementCommentCount(id);
+        repository.decrementBookmarkCount(id);
+        // 5回の更新がそれぞれ1文で済む（topic 本体の読み込みや更新が挟まらない）
+        long counterStatements = sessionFactory.getStatistics().getPrepareStatementCount();
+        Object updatedAtAfterCounters = entityManager.createNativeQuery(
+                "SELECT updated_at FROM learning_topic WHERE id = " + id).getSingleResult();
+        repository.updateScores(id, BigDecimal.ONE, BigDecimal.TEN, new BigDecimal("42.00"), BigDecimal.ONE);
+
+        // カウンターを読み込んだ後で別経路から加算され、本体だけを編集しても加算は失われない
+        LearningTopic loaded = entityManager.find(LearningTopic.class, id);
+        repository.incrementLikeCount(id);
+        loaded.setTitle("edited");
+        entityManager.flush();
+        entityManager.clear();
+
+        LearningTopic reloaded = entityManager.find(LearningTopic.class, id);
+        long statsRows = ((Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM learning_topic_stats WHERE topic_id = " + id).getSingleResult()).longValue();
+        List<LearningTopic> popular = repository.findPopularTopics();
+        entityManager.getTransaction().commit();
+
+        assertThat(statsRows).isEqualTo(1L);
+        assertThat(counterStatements).isEqualTo(5L);
+        assertThat(reloaded.getTitle()).isEqualTo("edited");
+        assertThat(reloaded.getViewCount()).isEqualTo(2);
+        assertThat(reloaded.getLikeCount()).isEqualTo(2);
+        assertThat(reloaded.getCommentCount()).isEqualTo(1);
+        assertThat(reloaded.getBookmarkCount()).isZero();
+        assertThat(reloaded.getPopularityScore()).isEqualByComparingTo("42.00");
+        assertThat(popular).extracting(LearningTopic::getId).containsExactly(id);
+        // 閲覧・いいねなどの加算では updated_at は変わらない
+        assertThat(updatedAtAfterCounters).isEqualTo(updatedAt);
+        entityManager.close();
+    }
+
+    @Test
+    @DisplayName("変更前後で一覧クエリの結果が一致し、変更後は一覧ごとの複合索引が使われる")
+    void legacyAndSplitSchemas_shouldReturnSameListsAndUseCompositeIndexes() throws SQLException {
+        Connection legacy = connection("topic_legacy");
+        try (Statement statement = legacy.createStatement()) {
+            for (String ddl : LEGACY_DDL) {
+                statement.execute(ddl);
+            }
+        }
+        sessionFactory("topic_split");
+        Connection split = connection("topic_split");
+
+        long legacyInsert = timed(() -> insertTopics(legacy, false));
+        long splitInsert = timed(() -> insertTopics(split, true));
+        long legacyIncrement = timed(() -> increment(legacy,
+                "UPDATE learning_topic SET view_count = view_count + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                "UPDATE learning_topic SET like_count = like_count + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ?"));
+        long splitIncrement = timed(() -> increment(split,
+                "UPDATE learning_topic_stats SET view_count = view_count + 1 WHERE topic_id = ?",
+                "UPDATE learning_topic_stats SET like_count = like_count + 1 WHERE topic_id = ?"));
+
+        System.out.printf("learning_topic %d rows: insert %.0f -> %.0f rows/s, view/like increment %.0f -> %.0f rows/s%n",
+                TOPICS, perSecond(TOPICS, legacyInsert), perSecond(TOPICS, splitInsert),
+                perSecond(INCREMENTS, legacyIncrement), perSecond(INCREMENTS, splitIncrement));
+
+        for (Map.Entry<String, String> query : LIST_QUERIES.entrySet()) {
+            String legacySql = String.format(query.getValue(), "t.view_count", "", "t");
+            String splitSql = String.format(query.getValue(), "s.view_count",
+                    "JOIN learning_topic_stats s ON s.topic_id = t.id", "s");
+            List<Long> legacyIds = ids(legacy, legacySql);
+            List<Long> splitIds = ids(split, splitSql);
+            // 1回目は実行計画の作成と JIT の分を含むため測らない
+            repeat(legacy, legacySql);
+            repeat(split, splitSql);
+            long legacyNanos = timed(() -> repeat(legacy, legacySql));
+            long splitNanos = timed(() -> repeat(split, splitSql));
+            String plan = plan(split, splitSql);
+
+            System.out.printf("  %-40s %6.1f -> %6.1f us/query%n", query.getKey(),
+                    legacyNanos / 1_000d / QUERY_RUNS, splitNanos / 1_000d / QUERY_RUNS);
+
+            assertThat(splitIds).as(query.getKey()).isNotEmpty().isEqualTo(legacyIds);
+            String expectedIndex = EXPECTED_INDEXES.get(query.getKey());
+            if (expectedIndex != null) {
+                assertThat(plan).as(query.getKey()).containsIgnoringCase(expectedIndex);
+            }
+        }
+
+        assertThat(sum(legacy, "SELECT SUM(view_count) + SUM(like_count) FROM learning_topic"))
+                .isEqualTo(sum(split, "SELECT SUM(view_count) + SUM(like_count) FROM learning_topic_stats"))
+                .isEqualTo(INCREMENTS);
+        // 変更後の本体の updated_at はカウンターの加算で変わらない
+        assertThat(sum(split, "SELECT COUNT(*) FROM learning_topic WHERE updated_at <> created_at")).isZero();
+    }
+
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+
+    private static long timed(SqlWork work) throws SQLException {
+        long started = System.nanoTime();
+        work.run();
+        return System.nanoTime() - started;
+    }
+
+    private static double perSecond(int rows, long nanos) {
+        return rows / (nanos / 1_000_000_000d);
+    }
+
+    private static void insertTopics(Connection connection, boolean split) throws SQLException {
+        Random random = new Random(42);
+        String topicSql = split ? String.format(INSERT_TOPIC, "", "")
+                : String.format(INSERT_TOPIC, COUNTERS, COUNTER_VALUES);
+        try (PreparedStatement topic = connection.prepareStatement(topicSql);
+                PreparedStatement stats = split ? connection.prepareStatement(INSERT_STATS) : null) {
+            for (int i = 1; i <= TOPICS; i++) {
+                Timestamp created = Timestamp.valueOf(BASE.plusMinutes(i));
+                Timestamp lastActivity = Timestamp.valueOf(BASE.plusMinutes(random.nextInt(TOPICS * 2)));
+                BigDecimal[] scores = {
+                    BigDecimal.valueOf(random.nextInt(10_000), 2), BigDecimal.valueOf(random.nextInt(10_000), 2),
+                    BigDecimal.valueOf(random.nextInt(100), 0), BigDecimal.valueOf(random.nextInt(10_000), 2)
+                };
+                int p = 1;
+                topic.setLong(p++, i);
+                topic.setLong(p++, i % FORUMS);
+                topic.setObject(p++, creator(i % CREATORS));
+                topic.setString(p++, "topic " + i);
+                topic.setString(p++, "content " + i);
+                topic.setString(p++, i % 3 == 0 ? "QUESTION" : "DISCUSSION");
+                topic.setBoolean(p++, i % 50 == 0);
+                topic.setBoolean(p++, i % 4 == 0);
+                for (BigDecimal score : scores) {
+                    topic.setBigDecimal(p++, score);
+                }
+                topic.setTimestamp(p++, lastActivity);
+                topic.setTimestamp(p++, created);
+                topic.setTimestamp(p++, created);
+                topic.executeUpdate();
+                if (split) {
+                    stats.setLong(1, i);
+                    stats.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private static void increment(Connection connection, String viewSql, String likeSql) throws SQLException {
+        Random random = new Random(7);
+        try (PreparedStatement view = connection.prepareStatement(viewSql);
+                PreparedStatement like = connection.prepareStatement(likeSql)) {
+            for (int i = 0; i < INCREMENTS; i++) {
+                PreparedStatement statement = i % 4 == 0 ? like : view;
+                statement.setLong(1, 1 + random.nextInt(TOPICS));
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static List<Long> ids(Connection connection, String sql) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static void repeat(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < QUERY_RUNS; i++) {
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong(1);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String plan(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static long sum(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningRanking;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningRanking.RankingType;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 一括書き込みのテスト
+ * H2 上に Hibernate を直接構成し、1件ずつの書き込みと JDBC バッチの文数・処理速度を比べる
+ */
+class BatchWriterTest {
+
+    private static final int ROWS = 2_000;
+    private static final int BATCH_SIZE = 50;
+
+    private final List<SessionFactory> sessionFactories = new ArrayList<>();
+
+    @AfterEach
+    void closeSessionFactories() {
+        sessionFactories.forEach(SessionFactory::close);
+    }
+
+    private SessionFactory sessionFactory(int batchSize) {
+        SessionFactory sessionFactory = new Configuration()
+                .addAnnotatedClass(LearningRanking.class)
+                .setProperty("hibernate.connection.url",
+                        "jdbc:h2:mem:batch_writer_" + sessionFactories.size() + ";DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize))
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        sessionFactories.add(sessionFactory);
+        return sessionFactory;
+    }
+
+    private static List<LearningRanking> rankings(int count) {
+        List<LearningRanking> rankings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rankings.add(new LearningRanking(UUID.randomUUID(), null, RankingType.POINTS, i + 1,
+                    BigDecimal.valueOf(count - i)));
+        }
+        return rankings;
+    }
+
+    private static long inTransaction(SessionFactory sessionFactory, Consumer<Session> work) {
+        long started = System.nanoTime();
+        sessionFactory.inTransaction(work);
+        return System.nanoTime() - started;
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ROWS / (nanos / 1_000_000_000d);
+    }
+
+    @Test
+    @DisplayName("INSERT と UPDATE が batch_size 件ずつの JDBC バッチで送られ、文の数が1件ずつの書き込みより大きく減る")
+    void batchedWrites_shouldSendFarFewerStatements() {
+        // 変更前: 1件ごとに save → flush
+        SessionFactory perRow = sessionFactory(0);
+        long perRowInsert = inTransaction(perRow, session -> rankings(ROWS).forEach(ranking -> {
+            session.persist(ranking);
+            session.flush();
+        }));
+        List<Long> perRowIds = perRow.fromSession(session -> session
+                .createSelectionQuery("select r.id from LearningRanking r order by r.id", Long.class).list());
+        long perRowUpdate = inTransaction(perRow, session -> perRowIds.forEach(id -> {
+            session.find(LearningRanking.class, id).updateRanking(ROWS, BigDecimal.ONE);
+            session.flush();
+        }));
+        long perRowStatements = perRow.getStatistics().getPrepareStatementCount();
+
+        // 変更後: BatchWriter
+        SessionFactory batched = sessionFactory(BATCH_SIZE);
+        long batchedInsert = inTransaction(batched,
+                session -> new BatchWriter(session, BATCH_SIZE).insertAll(rankings(ROWS)));
+        List<Long> batchedIds = batched.fromSession(session -> session
+                .createSelectionQuery("select r.id from LearningRanking r order by r.id", Long.class).list());
+        batched.getStatistics().clear();
+        List<LearningRanking> updated = new ArrayList<>();
+        long batchedUpdate = inTransaction(batched, session -> updated.addAll(new BatchWriter(session, BATCH_SIZE)
+                .updateByIds(batchedIds,
+                        ids -> session.byMultipleIds(LearningRanking.class).multiLoad(ids),
+                        ranking -> ranking.updateRanking(ROWS, BigDecimal.ONE))));
+        long batchedUpdateStatements = batched.getStatistics().getPrepareStatementCount();
+        long matched = batched.fromSession(session -> session
+                .createSelectionQuery("select count(r) from LearningRanking r where r.rankPosition = :p", Long.class)
+                .setParameter("p", ROWS).getSingleResult());
+
+        System.out.printf("learning_ranking %d rows: insert %.0f -> %.0f rows/s, update %.0f -> %.0f rows/s%n",
+                ROWS, rowsPerSecond(perRowInsert), rowsPerSecond(batchedInsert),
+                rowsPerSecond(perRowUpdate), rowsPerSecond(batchedUpdate));
+
+        assertThat(batchedIds).hasSize(ROWS);
+        assertThat(updated).hasSize(ROWS).allMatch(r -> r.getRankPosition() == ROWS);
+        assertThat(matched).isEqualTo(ROWS);
+        // 1件ずつ: INSERT・SELECT・UPDATE がそれぞれ行数分
+        assertThat(perRowStatements).isGreaterThanOrEqualTo(3L * ROWS);
+        // バッチ: 更新は読み込み・UPDATE ともにチャンク数分
+        assertThat(batchedUpdateStatements).isLessThanOrEqualTo(2L * ROWS / BATCH_SIZE + 2);
+    }
+
+    @Test
+    @DisplayName("書き込んだエンティティだけを detach し、呼び出し側が管理しているエンティティは残す")
+    void insertAll_shouldDetachOnlyWrittenEntities() {
+        SessionFactory sessionFactory = sessionFactory(BATCH_SIZE);
+        sessionFactory.inTransaction(session -> {
+            LearningRanking held = rankings(1).get(0);
+            session.persist(held);
+            List<LearningRanking> written = rankings(BATCH_SIZE + 1);
+
+            new BatchWriter(session, BATCH_SIZE).insertAll(written);
+
+            assertThat(session.contains(held)).isTrue();
+            assertThat(written).noneMatch(session::contains);
+        });
+    }
+}
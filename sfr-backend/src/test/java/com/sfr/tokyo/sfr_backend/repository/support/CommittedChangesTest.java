@@ -0,0 +1,106 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommittedChangesTest {
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("読み直し中に変更されたキーは読み直し結果ではなくビューの値を残す")
+    void finishReload_shouldKeepChangesMadeDuringReload() {
+        CommittedChanges<Long> changes = new CommittedChanges<>();
+        Map<Long, String> view = new HashMap<>(Map.of(1L, "old-1", 2L, "old-2"));
+
+        changes.changed(9L); // 読み直し前の変更は記録しない
+        CommittedChanges.Reload<Long> reload = changes.beginReload();
+        Map<Long, String> fresh = new HashMap<>(Map.of(1L, "db-1", 2L, "db-2", 3L, "db-3"));
+        view.put(1L, "updated-1");
+        changes.changed(1L);
+        view.remove(3L);
+        changes.changed(3L);
+        changes.finishReload(reload, fresh, view);
+
+        assertThat(fresh).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "updated-1", 2L, "db-2"));
+    }
+
+    @Test
+    @DisplayName("重なった読み直しはそれぞれ自分の開始後の変更だけを突き合わせる")
+    void finishReload_shouldTrackOverlappingReloadsSeparately() {
+        CommittedChanges<Long> changes = new CommittedChanges<>();
+        Map<Long, String> view = new HashMap<>(Map.of(1L, "old-1", 2L, "old-2"));
+
+        CommittedChanges.Reload<Long> first = changes.beginReload();
+        view.put(1L, "updated-1");
+        changes.changed(1L);
+        CommittedChanges.Reload<Long> second = changes.beginReload();
+        view.put(2L, "updated-2");
+        changes.changed(2L);
+
+        Map<Long, String> secondFresh = new HashMap<>(Map.of(1L, "updated-1", 2L, "db-2"));
+        changes.finishReload(second, secondFresh, view);
+        Map<Long, String> firstFresh = new HashMap<>(Map.of(1L, "db-1", 2L, "db-2"));
+        changes.finishReload(first, firstFresh, view);
+
+        assertThat(secondFresh).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "updated-1", 2L, "updated-2"));
+        assertThat(firstFresh).containsExactlyInAnyOrderEntriesOf(Map.of(1L, "updated-1", 2L, "updated-2"));
+        assertThatThrownBy(() -> changes.finishReload(first, new HashMap<>(), view))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("取り消した読み直しには以降の変更を記録しない")
+    void cancelReload_shouldStopTracking() {
+        CommittedChanges<Long> changes = new CommittedChanges<>();
+        Map<Long, String> view = new HashMap<>(Map.of(1L, "updated-1"));
+
+        CommittedChanges.Reload<Long> cancelled = changes.beginReload();
+        changes.cancelReload(cancelled);
+        CommittedChanges.Reload<Long> retried = changes.beginReload();
+        changes.changed(1L);
+        Map<Long, String> fresh = new HashMap<>(Map.of(1L, "db-1"));
+        changes.finishReload(retried, fresh, view);
+
+        assertThat(fresh).containsExactly(Map.entry(1L, "updated-1"));
+        assertThatThrownBy(() -> changes.finishReload(cancelled, new HashMap<>(), view))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("トランザクション中はコミット後・ロールバック後にだけ実行する")
+    void afterCommitAndRollback_shouldFollowTransactionOutcome() {
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger rolledBack = new AtomicInteger();
+
+        CommittedChanges.afterCommit(committed::incrementAndGet);
+        CommittedChanges.afterRollback(rolledBack::incrementAndGet);
+        assertThat(committed).hasValue(1);
+        assertThat(rolledBack).hasValue(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        CommittedChanges.afterCommit(committed::incrementAndGet);
+        CommittedChanges.afterRollback(rolledBack::incrementAndGet);
+        assertThat(committed).hasValue(1);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertThat(committed).hasValue(1);
+        assertThat(rolledBack).hasValue(1);
+    }
+}
@@ -0,0 +1,161 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * DB 接続の同時取得数制限のテスト
+ */
+class ConcurrencyLimitedDataSourceTest {
+
+    private HikariDataSource pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:acquire_limit;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("同時に貸し出される接続は上限を超えず、待っていた取得もすべて成功する")
+    void shouldNeverExceedPermits() throws Exception {
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 3, Duration.ofSeconds(10));
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(20);
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    try (Connection connection = limited.getConnection()) {
+                        peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        Thread.sleep(10);
+                        inUse.decrementAndGet();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, threads));
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get();
+        } finally {
+            threads.shutdown();
+        }
+
+        assertThat(peak.get()).isBetween(2, 3);
+        assertThat(limited.getActive()).isZero();
+    }
+
+    @Test
+    @DisplayName("上限に達した状態で待ち時間を超えると一時的な接続エラーになり、close の重複でも許可は1回だけ返る")
+    void shouldTimeOutAndReleaseOnce() throws Exception {
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(100));
+
+        Connection held = limited.getConnection();
+        assertThat(limited.getActive()).isEqualTo(1);
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        held.close();
+        held.close();
+        assertThat(limited.getActive()).isZero();
+
+        try (Connection next = limited.getConnection(); Statement statement = next.createStatement()) {
+            assertThat(statement.execute("SELECT 1")).isTrue();
+            assertThat(limited.getActive()).isEqualTo(1);
+        }
+        assertThat(limited.getActive()).isZero();
+    }
+
+    /**
+     * プラットフォームスレッド（200スレッドのプール）と仮想スレッド（タスクごと + 接続取得の制限）の比較
+     * 各リクエストは DB 接続を 2ms 使ったあと、外部 API 呼び出し相当の 10ms のブロッキングを行う
+     */
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("負荷比較: 仮想スレッド + 接続取得制限はプラットフォームスレッドと同等以上のスループットで全件成功する")
+    void loadComparison_platformVersusVirtual() throws Exception {
+        int requests = 4_000;
+
+        ExecutorService platform = Executors.newFixedThreadPool(200);
+        LoadResult platformResult;
+        try {
+            platformResult = runLoad(platform, pool, requests);
+        } finally {
+            platform.shutdown();
+        }
+
+        SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("load-");
+        virtual.setVirtualThreads(true);
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 10, Duration.ofSeconds(30));
+        LoadResult virtualResult = runLoad(virtual, limited, requests);
+
+        System.out.printf("platform: %.0f req/s, p99 %d ms / virtual: %.0f req/s, p99 %d ms%n",
+                platformResult.throughput(), platformResult.p99Millis(),
+                virtualResult.throughput(), virtualResult.p99Millis());
+        assertThat(platformResult.failures()).isZero();
+        assertThat(virtualResult.failures()).isZero();
+        assertThat(virtualResult.throughput()).isGreaterThanOrEqualTo(platformResult.throughput() * 0.8);
+    }
+
+    private static LoadResult runLoad(Executor executor, DataSource dataSource, int requests)
+            throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(requests);
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long submitted = System.nanoTime();
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    try (Connection connection = dataSource.getConnection();
+                            Statement statement = connection.createStatement()) {
+                        statement.execute("SELECT 1");
+                        Thread.sleep(2);
+                    }
+                    Thread.sleep(10);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+                latencies.add(System.nanoTime() - submitted);
+            }, executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get();
+        double seconds = (System.nanoTime() - started) / 1_000_000_000d;
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1_000_000;
+        return new LoadResult(requests / seconds, p99, failures.get());
+    }
+
+    private record LoadResult(double throughput, long p99Millis, int failures) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 読み取りレプリカ振り分けのテスト
+ * プライマリと2台のレプリカを別々の H2 インメモリ DB（それぞれ専用の HikariCP プール）で用意する
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+    private final AtomicReference<String> currentUser = new AtomicReference<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-06-01T00:00:00Z"));
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @BeforeEach
+    void setUp() {
+        HikariDataSource primary = node("primary");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", node("replica-1"));
+        replicas.put("replica-2", node("replica-2"));
+
+        routing = new ReplicaRoutingDataSource(primary, replicas, currentUser::get, Duration.ofSeconds(5),
+                Duration.ofSeconds(10), "SELECT seconds FROM replica_lag", clock);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        pools.values().forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource node(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        JdbcTemplate direct = new JdbcTemplate(pool);
+        direct.execute("DROP ALL OBJECTS");
+        direct.execute("CREATE TABLE node_info (name VARCHAR(32))");
+        direct.execute("CREATE TABLE replica_lag (seconds INT)");
+        direct.execute("CREATE TABLE balance_history (user_name VARCHAR(32), amount INT)");
+        direct.update("INSERT INTO node_info VALUES (?)", name);
+        direct.update("INSERT INTO replica_lag VALUES (0)");
+        pools.put(name, pool);
+        return pool;
+    }
+
+    private String readNode() {
+        return readTx.execute(status -> jdbc.queryForObject("SELECT name FROM node_info", String.class));
+    }
+
+    private void setLag(String node, int seconds) {
+        new JdbcTemplate(pools.get(node)).update("UPDATE replica_lag SET seconds = ?", seconds);
+    }
+
+    @Test
+    @DisplayName("読み取り専用トランザクションはレプリカへ順に、書き込みはプライマリへ送られる")
+    void shouldRouteReadsToReplicasAndWritesToPrimary() {
+        assertThat(List.of(readNode(), readNode(), readNode(), readNode()))
+                .containsExactly("replica-1", "replica-2", "replica-1", "replica-2");
+
+        writeTx.executeWithoutResult(status -> {
+            assertThat(jdbc.queryForObject("SELECT name FROM node_info", String.class)).isEqualTo("primary");
+            jdbc.update("INSERT INTO balance_history VALUES ('batch', 100)");
+        });
+
+        assertThat(new JdbcTemplate(pools.get("primary"))
+                .queryForObject("SELECT COUNT(*) FROM balance_history", Integer.class)).isEqualTo(1);
+        assertThat(new JdbcTemplate(pools.get("replica-1"))
+                .queryForObject("SELECT COUNT(*) FROM balance_history", Integer.class)).isZero();
+        // トランザクション外の書き込みもプライマリ
+        assertThat(jdbc.queryForObject("SELECT name FROM node_info", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("書き込みをコミットしたユーザーの読み取りは一定時間プライマリに固定され、他のユーザーには影響しない")
+    void shouldPinWritersToPrimaryForReadYourWrites() {
+        currentUser.set("alice");
+        writeTx.executeWithoutResult(status -> jdbc.update("INSERT INTO balance_history VALUES ('alice', 100)"));
+
+        assertThat(readNode()).isEqualTo("primary");
+        clock.advance(Duration.ofSeconds(4));
+        assertThat(readNode()).isEqualTo("primary");
+
+        currentUser.set("bob");
+        assertThat(readNode()).startsWith("replica-");
+
+        currentUser.set("alice");
+        clock.advance(Duration.ofSeconds(2));
+        assertThat(readNode()).startsWith("replica-");
+
+        // ロールバックした書き込みでは固定しない
+        currentUser.set("carol");
+        writeTx.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO balance_history VALUES ('carol', 100)");
+            status.setRollbackOnly();
+        });
+        assertThat(readNode()).startsWith("replica-");
+    }
+
+    @Test
+    @DisplayName("遅延が許容値を超えたレプリカや停止したレプリカは外され、回復すると戻る")
+    void shouldDropLaggingReplicasUntilTheyCatchUp() {
+        setLag("replica-2", 30);
+        assertThat(routing.checkReplicas()).containsExactly("replica-1");
+        assertThat(List.of(readNode(), readNode(), readNode())).containsOnly("replica-1");
+
+        pools.get("replica-1").close();
+        assertThat(routing.checkReplicas()).isEmpty();
+        assertThat(readNode()).isEqualTo("primary");
+
+        setLag("replica-2", 3);
+        assertThat(routing.checkReplicas()).containsExactly("replica-2");
+        assertThat(readNode()).isEqualTo("replica-2");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
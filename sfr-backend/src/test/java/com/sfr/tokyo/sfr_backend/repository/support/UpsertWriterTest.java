@@ -0,0 +1,133 @@
+package com.sfr.tokyo.sfr_backend.repository.support;
+
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+import com.sfr.tokyo.sfr_backend.repository.system.ScheduledDeadlineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * upsert の同時実行テスト（H2 上の期限登録テーブル）
+ *
+ * 同じ (kind, target_id) への最初の登録が並行しても、一意制約違反で呼び出し元のトランザクションが失敗しないことを確かめる。
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:upsert-writer;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("UpsertWriter 同時実行テスト")
+class UpsertWriterTest {
+
+    private static final int THREADS = 16;
+
+    @Configuration
+    @EntityScan(basePackageClasses = ScheduledDeadline.class)
+    @EnableJpaRepositories(basePackageClasses = ScheduledDeadlineRepository.class, includeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE, classes = ScheduledDeadlineRepository.class))
+    @Import(UpsertWriter.class)
+    static class DeadlineRepositories {
+    }
+
+    @Autowired
+    private UpsertWriter upsertWriter;
+
+    @Autowired
+    private ScheduledDeadlineRepository deadlineRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        deadlineRepository.deleteAllInBatch();
+    }
+
+    private boolean upsert(Long targetId, LocalDateTime dueAt) {
+        LocalDateTime now = LocalDateTime.now();
+        return upsertWriter.upsert(
+                () -> deadlineRepository.updateDueAt(DeadlineKind.TOPIC_AUTO_CLOSE, targetId, dueAt, now),
+                () -> ScheduledDeadline.builder()
+                        .kind(DeadlineKind.TOPIC_AUTO_CLOSE)
+                        .targetId(targetId)
+                        .dueAt(dueAt)
+                        .updatedAt(now)
+                        .build());
+    }
+
+    @Test
+    @DisplayName("行がなければ追加し、あれば同じ行を更新する")
+    void upsert_shouldInsertThenUpdate() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        LocalDateTime first = LocalDateTime.of(2026, 1, 1, 9, 0);
+        LocalDateTime second = first.plusDays(1);
+
+        Boolean inserted = tx.execute(status -> upsert(1L, first));
+        Boolean insertedAgain = tx.execute(status -> upsert(1L, second));
+
+        assertThat(inserted).isTrue();
+        assertThat(insertedAgain).isFalse();
+        assertThat(deadlineRepository.findAll()).singleElement()
+                .satisfies(row -> assertThat(row.getDueAt()).isEqualTo(second));
+    }
+
+    @Test
+    @DisplayName("同じキーへの最初の登録が並行しても全トランザクションがコミットされ、行は1つだけ残る")
+    void upsert_shouldAbsorbConcurrentFirstInserts() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 9, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                LocalDateTime dueAt = base.plusMinutes(i);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return tx.execute(status -> upsert(7L, dueAt));
+                }));
+            }
+            start.countDown();
+            int inserted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    inserted++;
+                }
+            }
+            assertThat(inserted).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(deadlineRepository.findAll()).singleElement()
+                .satisfies(row -> assertThat(row.getTargetId()).isEqualTo(7L));
+    }
+}
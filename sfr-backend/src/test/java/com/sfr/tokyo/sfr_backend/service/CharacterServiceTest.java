@@ -6,6 +6,7 @@ import com.sfr.tokyo.sfr_backend.entity.CharacterStatus;
 import com.sfr.tokyo.sfr_backend.mapper.CharacterMapper;
 import com.sfr.tokyo.sfr_backend.repository.CharacterRepository;
 import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.service.image.ImageDerivativeService;
 import com.sfr.tokyo.sfr_backend.user.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +46,9 @@ class CharacterServiceTest {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
     @InjectMocks
     private CharacterService characterService;
 
@@ -290,6 +296,10 @@ class CharacterServiceTest {
         assertThat(saved.getImageUrl()).contains("newfile.png");
         verify(fileStorageService).deleteFile("oldfile.jpg");
         verify(fileStorageService).storeFile(multipartFile);
+        verify(fileStorageService, atLeastOnce()).getFilePath("newfile.png");
+        verify(imageDerivativeService).deleteDerivatives(any());
+        verify(imageDerivativeService).submit(any());
+        verify(imageDerivativeService).writtenVariantUrls(eq(saved.getImageUrl()), any());
     }
 
     @Test
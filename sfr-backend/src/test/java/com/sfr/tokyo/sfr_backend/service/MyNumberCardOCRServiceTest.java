@@ -0,0 +1,47 @@
+package com.sfr.tokyo.sfr_backend.service;
+
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.service.ocr.OcrJobService;
+import com.sfr.tokyo.sfr_backend.service.scan.UploadScanService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MyNumberCardOCRServiceTest {
+
+    @Mock
+    private UploadScanService uploadScanService;
+
+    @Mock
+    private OcrJobService ocrJobService;
+
+    @InjectMocks
+    private MyNumberCardOCRService ocrService;
+
+    private final MockMultipartFile image = new MockMultipartFile("image", "card.png", "image/png", new byte[] { 1, 2, 3 });
+
+    @Test
+    @DisplayName("OCR受付が混雑している場合はエラー結果に包まず 429 の例外をそのまま返す")
+    void submitExtraction_shouldPropagateTooManyRequests() {
+        when(ocrJobService.submit(eq("user"), any()))
+                .thenThrow(new BusinessException(ErrorCode.TOO_MANY_REQUESTS, "OCR処理が混雑しています"));
+
+        assertThatThrownBy(() -> ocrService.submitExtraction("user", image))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.TOO_MANY_REQUESTS);
+        assertThatThrownBy(() -> ocrService.extractMyNumberCardData("user", image))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.TOO_MANY_REQUESTS);
+    }
+}
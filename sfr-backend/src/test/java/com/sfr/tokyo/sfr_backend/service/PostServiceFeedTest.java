@@ -0,0 +1,169 @@
+package com.sfr.tokyo.sfr_backend.service;
+
+import com.sfr.tokyo.sfr_backend.dto.FeedPageDto;
+import com.sfr.tokyo.sfr_backend.dto.PostFeedItemDto;
+import com.sfr.tokyo.sfr_backend.entity.PostEntity;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.mapper.PostMapperImpl;
+import com.sfr.tokyo.sfr_backend.repository.CommentRepository;
+import com.sfr.tokyo.sfr_backend.repository.PostRepository;
+import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.PostFeedRow;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedCursor;
+import com.sfr.tokyo.sfr_backend.service.feed.FeedPageCache;
+import com.sfr.tokyo.sfr_backend.service.image.ImageDerivativeService;
+import com.sfr.tokyo.sfr_backend.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostServiceFeedTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    private FeedPageCache feedPageCache;
+    private PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        feedPageCache = new FeedPageCache(60_000, 100);
+        postService = new PostService(postRepository, userRepository, fileStorageService, new PostMapperImpl(),
+                imageDerivativeService, commentRepository, feedPageCache);
+    }
+
+    private static List<PostFeedRow> rows(int fromId, int count) {
+        UUID author = UUID.randomUUID();
+        return IntStream.range(0, count)
+                .mapToObj(i -> new PostFeedRow((long) (fromId - i), "post-" + (fromId - i), null,
+                        "http://localhost/api/posts/downloadFile/p" + (fromId - i) + ".png", author, "Alice",
+                        BASE.minusMinutes(i)))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("limit+1件取得し、余剰があれば次ページのカーソルを返す")
+    void getAllPosts_shouldReturnCursorWhenMoreRowsExist() {
+        when(postRepository.findFeedPage(isNull(), isNull(), isNull(), eq(4))).thenReturn(rows(10, 4));
+        when(commentRepository.countByPostIdIn(List.of(10L, 9L, 8L)))
+                .thenReturn(List.<Object[]>of(new Object[] { 10L, 3L }, new Object[] { 8L, 1L }));
+
+        // p10 だけ派生画像の生成が終わっている
+        when(imageDerivativeService.writtenVariantUrls(eq("http://localhost/api/posts/downloadFile/p10.png"), any()))
+                .thenReturn(Map.of("thumb", "http://localhost/api/posts/downloadFile/p10_thumb.jpg"));
+
+        FeedPageDto<PostFeedItemDto> page = postService.getAllPosts(null, 3);
+
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getItems()).extracting(PostFeedItemDto::getId).containsExactly(10L, 9L, 8L);
+        assertThat(page.getItems()).extracting(PostFeedItemDto::getCommentCount).containsExactly(3L, 0L, 1L);
+        assertThat(page.getItems().get(0).getVariantUrls()).containsOnlyKeys("thumb");
+        assertThat(page.getItems().get(1).getVariantUrls()).isEmpty();
+        assertThat(FeedCursor.decode(page.getNextCursor())).isEqualTo(new FeedCursor(BASE.minusMinutes(2), 8L));
+    }
+
+    @Test
+    @DisplayName("カーソル指定時は前ページ末尾の次から読み、最終ページではカーソルを返さない")
+    void getAllPosts_shouldSeekFromCursor() {
+        FeedCursor cursor = new FeedCursor(BASE.minusMinutes(2), 8L);
+        when(postRepository.findFeedPage(null, cursor.createdAt(), 8L, 4)).thenReturn(rows(7, 2));
+
+        FeedPageDto<PostFeedItemDto> page = postService.getAllPosts(cursor.encode(), 3);
+
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getItems()).extracting(PostFeedItemDto::getId).containsExactly(7L, 6L);
+    }
+
+    @Test
+    @DisplayName("先頭ページはキャッシュされ、無効化後に再取得する")
+    void getAllPosts_shouldCacheFirstPageUntilInvalidated() {
+        when(postRepository.findFeedPage(isNull(), isNull(), isNull(), anyInt())).thenReturn(rows(3, 3));
+
+        postService.getAllPosts(null, null);
+        postService.getAllPosts(null, null);
+        verify(postRepository, times(1)).findFeedPage(any(), any(), any(), anyInt());
+
+        feedPageCache.invalidateFeedsOf(UUID.randomUUID());
+        postService.getAllPosts(null, null);
+        verify(postRepository, times(2)).findFeedPage(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("投稿者のフィードは他の投稿者の変更では破棄されない")
+    void getPostsByUserId_shouldKeepCacheWhenOtherAuthorChanges() {
+        UUID alice = UUID.randomUUID();
+        when(postRepository.findFeedPage(eq(alice), isNull(), isNull(), anyInt())).thenReturn(rows(3, 3));
+
+        postService.getPostsByUserId(alice, null, null);
+        feedPageCache.invalidateFeedsOf(UUID.randomUUID());
+        postService.getPostsByUserId(alice, null, null);
+        verify(postRepository, times(1)).findFeedPage(eq(alice), any(), any(), anyInt());
+
+        feedPageCache.invalidateFeedsOf(alice);
+        postService.getPostsByUserId(alice, null, null);
+        verify(postRepository, times(2)).findFeedPage(eq(alice), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("投稿の削除で元画像と派生画像を消す")
+    void deletePost_shouldDeleteImageDerivatives() {
+        UUID owner = UUID.randomUUID();
+        PostEntity post = PostEntity.builder().id(5L).title("post")
+                .fileUrl("http://localhost/api/posts/downloadFile/p5.png")
+                .user(User.builder().id(owner).build()).build();
+        Path original = Path.of("uploads", "p5.png");
+        when(postRepository.findById(5L)).thenReturn(Optional.of(post));
+        when(fileStorageService.getFilePath("p5.png")).thenReturn(original);
+
+        assertThat(postService.deletePost(5L, owner)).isTrue();
+
+        verify(fileStorageService).deleteFile(post.getFileUrl());
+        verify(imageDerivativeService).deleteDerivatives(original);
+        verify(postRepository).delete(post);
+    }
+
+    @Test
+    @DisplayName("不正なカーソルは BAD_REQUEST")
+    void getAllPosts_shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> postService.getAllPosts("not-a-cursor", 10))
+                .isInstanceOf(BusinessException.class);
+    }
+}
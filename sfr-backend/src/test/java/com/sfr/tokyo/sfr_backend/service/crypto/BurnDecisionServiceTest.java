@@ -0,0 +1,241 @@
+package com.sfr.tokyo.sfr_backend.service.crypto;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision;
+import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision.BurnStatus;
+import com.sfr.tokyo.sfr_backend.entity.crypto.BurnDecision.DecisionType;
+import com.sfr.tokyo.sfr_backend.repository.crypto.BurnDecisionRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.BurnStatusAggregate;
+import com.sfr.tokyo.sfr_backend.repository.projection.BurnTypeAggregate;
+import com.sfr.tokyo.sfr_backend.service.crypto.burn.OpenBurnDecisionView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * バーン判定サービスのテスト
+ * リポジトリはインメモリの Map で代替し、未決判定ビューは実物を使う
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BurnDecisionServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Mock
+    private BurnDecisionRepository burnDecisionRepository;
+
+    private final Map<Long, BurnDecision> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private OpenBurnDecisionView view;
+    private BurnDecisionService service;
+
+    @BeforeEach
+    void setUp() {
+        when(burnDecisionRepository.save(any(BurnDecision.class))).thenAnswer(inv -> {
+            BurnDecision decision = inv.getArgument(0);
+            if (decision.getId() == null) {
+                decision.setId(ids.incrementAndGet());
+            }
+            table.put(decision.getId(), decision);
+            return decision;
+        });
+        when(burnDecisionRepository.findById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(table.get(inv.<Long>getArgument(0))));
+        when(burnDecisionRepository.findAllById(anyIterable())).thenAnswer(inv -> {
+            Iterable<Long> requested = inv.getArgument(0);
+            List<BurnDecision> found = new ArrayList<>();
+            requested.forEach(id -> Optional.ofNullable(table.get(id)).ifPresent(found::add));
+            // DB は ID 順を保証しない
+            Collections.reverse(found);
+            return found;
+        });
+        when(burnDecisionRepository.findByStatusIn(anyCollection())).thenAnswer(inv -> {
+            Collection<BurnStatus> statuses = inv.getArgument(0);
+            return table.values().stream().filter(d -> statuses.contains(d.getStatus())).toList();
+        });
+
+        view = new OpenBurnDecisionView(burnDecisionRepository);
+        service = new BurnDecisionService(burnDecisionRepository, view);
+    }
+
+    private BurnDecision propose(BigDecimal amount) {
+        return service.createBurnDecision(1L, amount, new BigDecimal("1000000"), DecisionType.ADMIN_DECISION,
+                BurnDecision.TriggerReason.values()[0], "test");
+    }
+
+    private BurnDecision insertDirectly(BurnStatus status, LocalDateTime votingEndDate) {
+        BurnDecision decision = BurnDecision.builder()
+                .id(ids.incrementAndGet())
+                .spaceId(1L)
+                .proposedBurnAmount(BigDecimal.TEN)
+                .circulatingSupplyBefore(new BigDecimal("1000000"))
+                .burnRateProposed(new BigDecimal("0.000010"))
+                .decisionType(DecisionType.ADMIN_DECISION)
+                .triggerReason(BurnDecision.TriggerReason.values()[0])
+                .status(status)
+                .decisionDate(LocalDateTime.now())
+                .votingEndDate(votingEndDate)
+                .build();
+        table.put(decision.getId(), decision);
+        return decision;
+    }
+
+    @Test
+    @DisplayName("承認待ち一覧は状態遷移に追従し、全件読み込みを行わない")
+    void pendingQueue_shouldFollowTransitions() {
+        BurnDecision first = propose(new BigDecimal("100"));
+        BurnDecision second = propose(new BigDecimal("200"));
+        BurnDecision third = propose(new BigDecimal("300"));
+
+        assertThat(service.getPendingBurnDecisions()).extracting(BurnDecision::getId)
+                .containsExactly(third.getId(), second.getId(), first.getId());
+        assertThat(service.getOpenBurnDecisionCounts().getPendingCount()).isEqualTo(3);
+
+        UUID admin = UUID.randomUUID();
+        service.approveBurnDecision(second.getId(), admin, "ok");
+        service.rejectBurnDecision(first.getId(), admin, "ng");
+
+        assertThat(service.getPendingBurnDecisions()).extracting(BurnDecision::getId)
+                .containsExactly(third.getId());
+        assertThat(service.getOpenBurnDecisionCounts().getPendingCount()).isEqualTo(1);
+
+        service.startBurnExecution(second.getId(), admin);
+        service.completeBurnExecution(second.getId(), new BigDecimal("200"), new BigDecimal("999800"), "0xabc");
+        assertThat(service.getPendingBurnDecisions()).extracting(BurnDecision::getId)
+                .containsExactly(third.getId());
+
+        verify(burnDecisionRepository, never()).findAll();
+        // 最初の読み込み以降は DB から未決判定を読み直さない
+        verify(burnDecisionRepository, times(1)).findByStatusIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("投票中一覧は終了日時の早い順で、終了済みは含まない。定期再同期で遷移外の変更も拾う")
+    void votingQueue_shouldOrderByEndDateAndResync() {
+        LocalDateTime now = LocalDateTime.now();
+        BurnDecision late = insertDirectly(BurnStatus.VOTING, now.plusHours(48));
+        BurnDecision soon = insertDirectly(BurnStatus.VOTING, now.plusHours(1));
+        insertDirectly(BurnStatus.VOTING, now.minusHours(1));
+
+        assertThat(service.getVotingBurnDecisions()).extracting(BurnDecision::getId)
+                .containsExactly(soon.getId(), late.getId());
+        assertThat(service.getOpenBurnDecisionCounts().getVotingCount()).isEqualTo(3);
+
+        // 遷移メソッドを通らない更新は再同期まで反映されないが、一覧は実データで再確認する
+        BurnDecision added = insertDirectly(BurnStatus.VOTING, now.plusHours(2));
+        late.setStatus(BurnStatus.APPROVED);
+        assertThat(service.getVotingBurnDecisions()).extracting(BurnDecision::getId)
+                .containsExactly(soon.getId());
+
+        view.reload();
+        assertThat(service.getVotingBurnDecisions()).extracting(BurnDecision::getId)
+                .containsExactly(soon.getId(), added.getId());
+    }
+
+    @Test
+    @DisplayName("期間統計はステータス別集計から従来と同じ値を算出する")
+    void statistics_shouldBeDerivedFromStatusAggregates() {
+        when(burnDecisionRepository.aggregateByStatus(START, END)).thenReturn(List.of(
+                new BurnStatusAggregate(BurnStatus.PROPOSED, 2L, new BigDecimal("300"), null),
+                new BurnStatusAggregate(BurnStatus.APPROVED, 1L, new BigDecimal("100"), null),
+                new BurnStatusAggregate(BurnStatus.COMPLETED, 3L, new BigDecimal("600"), new BigDecimal("540")),
+                new BurnStatusAggregate(BurnStatus.REJECTED, 1L, new BigDecimal("50"), null),
+                new BurnStatusAggregate(BurnStatus.FAILED, 1L, new BigDecimal("50"), null)));
+
+        BurnDecisionService.BurnDecisionStatistics stats = service.getBurnDecisionStatistics(START, END);
+
+        assertThat(stats.getTotalDecisions()).isEqualTo(8L);
+        assertThat(stats.getApprovedDecisions()).isEqualTo(4L);
+        assertThat(stats.getRejectedDecisions()).isEqualTo(1L);
+        assertThat(stats.getCompletedDecisions()).isEqualTo(3L);
+        assertThat(stats.getFailedDecisions()).isEqualTo(1L);
+        assertThat(stats.getTotalProposedBurnAmount()).isEqualByComparingTo("1100");
+        assertThat(stats.getTotalActualBurnAmount()).isEqualByComparingTo("540");
+        assertThat(stats.getApprovalRate()).isEqualByComparingTo("50");
+        assertThat(stats.getCompletionRate()).isEqualByComparingTo("75");
+        assertThat(stats.getAverageProposedAmount()).isEqualByComparingTo("137.5");
+        assertThat(stats.getAverageActualAmount()).isEqualByComparingTo("180");
+        verify(burnDecisionRepository, never()).findByDecisionDateBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("デシジョンタイプ別統計は集計行から平均を求め、合計の大きい順に並ぶ")
+    void typeStatistics_shouldBeDerivedFromTypeAggregates() {
+        when(burnDecisionRepository.aggregateByDecisionType(START, END, BurnStatus.COMPLETED)).thenReturn(List.of(
+                new BurnTypeAggregate(DecisionType.ADMIN_DECISION, 2L, new BigDecimal("100"), 1L),
+                new BurnTypeAggregate(DecisionType.AI_AUTOMATIC, 4L, new BigDecimal("1000"), 3L)));
+
+        List<BurnDecisionService.DecisionTypeStatistics> stats = service.getDecisionTypeStatistics(START, END);
+
+        assertThat(stats).extracting(BurnDecisionService.DecisionTypeStatistics::getDecisionType)
+                .containsExactly(DecisionType.AI_AUTOMATIC, DecisionType.ADMIN_DECISION);
+        assertThat(stats.get(0).getCount()).isEqualTo(4);
+        assertThat(stats.get(0).getCompletedCount()).isEqualTo(3L);
+        assertThat(stats.get(0).getAverageAmount()).isEqualByComparingTo("250");
+        assertThat(stats.get(1).getAverageAmount()).isEqualByComparingTo("50");
+        verify(burnDecisionRepository).aggregateByDecisionType(eq(START), eq(END), eq(BurnStatus.COMPLETED));
+    }
+
+    @Test
+    @DisplayName("ステータス指定の一覧はスペース指定があればスペースでも絞り込む")
+    void statusListing_shouldHonourSpaceFilter() {
+        Page<BurnDecision> spacePage = new PageImpl<>(List.of(insertDirectly(BurnStatus.PROPOSED, null)));
+        when(burnDecisionRepository.findBySpaceIdAndStatus(eq(1L), eq(BurnStatus.PROPOSED), any(Pageable.class)))
+                .thenReturn(spacePage);
+        when(burnDecisionRepository.findByStatus(eq(BurnStatus.PROPOSED), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        assertThat(service.getBurnDecisionsByStatus(1L, BurnStatus.PROPOSED, 0, 20)).isSameAs(spacePage);
+        assertThat(service.getBurnDecisionsByStatus(null, BurnStatus.PROPOSED, 0, 20)).isEmpty();
+        verify(burnDecisionRepository, times(1)).findBySpaceIdAndStatus(eq(1L), eq(BurnStatus.PROPOSED), any());
+        verify(burnDecisionRepository, times(1)).findByStatus(eq(BurnStatus.PROPOSED), any());
+    }
+
+    @Test
+    @DisplayName("高額バーン一覧は取得件数を上限で打ち切る")
+    void highValue_shouldBoundResultSize() {
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(burnDecisionRepository.findByActualBurnAmountGreaterThanEqual(any(), pageable.capture()))
+                .thenReturn(List.of());
+
+        service.getHighValueBurnDecisions(BigDecimal.TEN, 50);
+        service.getHighValueBurnDecisions(BigDecimal.TEN, Integer.MAX_VALUE);
+
+        assertThat(pageable.getAllValues()).extracting(Pageable::getPageSize)
+                .containsExactly(50, BurnDecisionService.MAX_HIGH_VALUE_RESULTS);
+    }
+}
@@ -0,0 +1,230 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.ailog;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLog;
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLog.DecisionStatus;
+import com.sfr.tokyo.sfr_backend.entity.crypto.AiDecisionLogSegment;
+import com.sfr.tokyo.sfr_backend.repository.crypto.AiDecisionLogRepository;
+import com.sfr.tokyo.sfr_backend.repository.crypto.AiDecisionLogSegmentRepository;
+import com.sfr.tokyo.sfr_backend.service.crypto.AiDecisionLogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * AI決定ログのアーカイブのテスト
+ * ログ・セグメントの両テーブルはインメモリの Map で代替する
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AiDecisionLogArchiveTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Mock
+    private AiDecisionLogRepository logRepository;
+
+    @Mock
+    private AiDecisionLogSegmentRepository segmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentSkipListMap<Long, AiDecisionLog> logs = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, AiDecisionLogSegment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong logIds = new AtomicLong();
+    private final AtomicLong segmentIds = new AtomicLong();
+
+    private AiDecisionLogArchive archive;
+    private AiDecisionLogService service;
+
+    @BeforeEach
+    void setUp() {
+        when(logRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(logs.get(inv.<Long>getArgument(0))));
+        when(logRepository.count()).thenAnswer(inv -> (long) logs.size());
+        when(logRepository.findArchivable(any(LocalDateTime.class), anyCollection(), any(Pageable.class)))
+                .thenAnswer(inv -> {
+                    LocalDateTime cutoff = inv.getArgument(0);
+                    Collection<DecisionStatus> statuses = inv.getArgument(1);
+                    Pageable pageable = inv.getArgument(2);
+                    return logs.values().stream()
+                            .filter(l -> l.getDecisionDate().isBefore(cutoff) && statuses.contains(l.getStatus()))
+                            .limit(pageable.getPageSize())
+                            .toList();
+                });
+        when(logRepository.findByDecisionDateBetweenAfterId(any(), any(), anyLong(), any(Pageable.class)))
+                .thenAnswer(inv -> {
+                    LocalDateTime start = inv.getArgument(0);
+                    LocalDateTime end = inv.getArgument(1);
+                    Pageable pageable = inv.getArgument(3);
+                    return logs.tailMap(inv.<Long>getArgument(2), false).values().stream()
+                            .filter(l -> !l.getDecisionDate().isBefore(start) && !l.getDecisionDate().isAfter(end))
+                            .limit(pageable.getPageSize())
+                            .toList();
+                });
+        when(logRepository.deleteArchived(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return (int) ids.stream().filter(id -> logs.remove(id) != null).count();
+        });
+
+        when(segmentRepository.save(any(AiDecisionLogSegment.class))).thenAnswer(inv -> {
+            AiDecisionLogSegment segment = inv.getArgument(0);
+            segment.setId(segmentIds.incrementAndGet());
+            segments.put(segment.getId(), segment);
+            return segment;
+        });
+        when(segmentRepository.findPayload(anyLong()))
+                .thenAnswer(inv -> segments.get(inv.<Long>getArgument(0)).getPayload());
+        when(segmentRepository.findMaxSegmentId()).thenAnswer(inv -> segmentIds.get());
+        when(segmentRepository.findSegmentIdsContaining(anyLong())).thenAnswer(inv -> {
+            Long id = inv.getArgument(0);
+            return segments.values().stream()
+                    .filter(s -> s.getMinLogId() <= id && s.getMaxLogId() >= id)
+                    .map(AiDecisionLogSegment::getId).toList();
+        });
+        when(segmentRepository.findSegmentIdsOverlapping(any(), any())).thenAnswer(inv -> {
+            LocalDateTime start = inv.getArgument(0);
+            LocalDateTime end = inv.getArgument(1);
+            return segments.values().stream()
+                    .filter(s -> !s.getMaxDecisionDate().isBefore(start) && !s.getMinDecisionDate().isAfter(end))
+                    .map(AiDecisionLogSegment::getId).toList();
+        });
+
+        archive = new AiDecisionLogArchive(logRepository, segmentRepository, transactionManager, true, 30, 3);
+        service = new AiDecisionLogService(logRepository, archive, 2);
+    }
+
+    private AiDecisionLog insert(LocalDateTime decisionDate, DecisionStatus status) {
+        AiDecisionLog log = AiDecisionLog.createBurnDecision(1L, "{\"price\":1.05,\"volume\":120000}",
+                "{\"inflation\":0.02,\"velocity\":3.1}", new BigDecimal("91.50"), new BigDecimal("1200"), "supply");
+        log.setId(logIds.incrementAndGet());
+        log.setDecisionDate(decisionDate);
+        log.setStatus(status);
+        log.setExecutedBy(UUID.randomUUID());
+        log.setCreatedAt(decisionDate);
+        log.setUpdatedAt(decisionDate);
+        logs.put(log.getId(), log);
+        return log;
+    }
+
+    @Test
+    @DisplayName("セグメントは列単位で圧縮され、全項目を復元できる")
+    void codec_shouldRoundTripAllColumns() {
+        List<AiDecisionLog> originals = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            AiDecisionLog log = insert(NOW.minusDays(40).plusMinutes(i), DecisionStatus.EXECUTED);
+            log.setReviewNotes(i % 2 == 0 ? null : "note " + i);
+            log.setReviewResult(AiDecisionLog.ReviewResult.APPROVED);
+            log.setFeedbackScore(new BigDecimal("77.25"));
+            originals.add(log);
+        }
+
+        AiDecisionLogSegmentCodec.Encoded encoded = AiDecisionLogSegmentCodec.encode(originals);
+        List<AiDecisionLog> decoded = AiDecisionLogSegmentCodec.decode(encoded.payload());
+
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(originals);
+        assertThat(encoded.payload().length).isLessThan((int) (encoded.rawBytes() / 5));
+    }
+
+    @Test
+    @DisplayName("保持期間を過ぎた確定済みログだけが日ごとのセグメントへ移り、同じ API で取得できる")
+    void archive_shouldMoveOldFinishedLogsAndKeepThemReadable() {
+        AiDecisionLog oldExecuted = insert(NOW.minusDays(45), DecisionStatus.EXECUTED);
+        AiDecisionLog oldFailed = insert(NOW.minusDays(45).plusHours(1), DecisionStatus.FAILED);
+        AiDecisionLog otherDay = insert(NOW.minusDays(44), DecisionStatus.CANCELLED);
+        AiDecisionLog oldOpen = insert(NOW.minusDays(45), DecisionStatus.APPROVED);
+        AiDecisionLog recent = insert(NOW.minusDays(3), DecisionStatus.EXECUTED);
+
+        assertThat(archive.archive(NOW)).isEqualTo(3);
+
+        assertThat(logs.keySet()).containsExactlyInAnyOrder(oldOpen.getId(), recent.getId());
+        assertThat(segments.values()).extracting(AiDecisionLogSegment::getSegmentDay)
+                .containsExactly(NOW.minusDays(45).toLocalDate(), NOW.minusDays(44).toLocalDate());
+        assertThat(segments.values().iterator().next().getRecordCount()).isEqualTo(2);
+
+        assertThat(service.findDecisionLog(oldFailed.getId())).get()
+                .usingRecursiveComparison().isEqualTo(oldFailed);
+        assertThat(service.findDecisionLog(otherDay.getId())).get()
+                .extracting(AiDecisionLog::getMarketData).isEqualTo(oldExecuted.getMarketData());
+        assertThat(service.findDecisionLog(recent.getId())).containsSame(recent);
+        assertThat(service.findDecisionLog(999L)).isEmpty();
+
+        // 2回目は対象なし（セグメントは追記のみ）
+        assertThat(archive.archive(NOW)).isZero();
+        assertThat(segments).hasSize(2);
+
+        AiDecisionLogService.AiDecisionLogStorageStatistics stats = service.getStorageStatistics();
+        assertThat(stats.getHotRecords()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("読んだ件数と削除件数が合わなければ、セグメントを作らなかったことにしてバッチをロールバックする")
+    void archive_shouldRollBackWhenRowsWereDeletedElsewhere() {
+        AiDecisionLog first = insert(NOW.minusDays(45), DecisionStatus.EXECUTED);
+        insert(NOW.minusDays(45), DecisionStatus.EXECUTED);
+        when(logRepository.deleteArchived(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            // 先頭の行は別のノードが先に移して削除済み
+            return (int) ids.stream().filter(id -> !id.equals(first.getId()) && logs.remove(id) != null).count();
+        });
+
+        assertThatThrownBy(() -> archive.archive(NOW))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("deleted 1");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("期間の読み出しは保持中とアーカイブ済みを通して返し、読み出し中に移ったログも欠けず重複しない")
+    void stream_shouldCoverBothTiersExactlyOnceWhileArchiving() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            expected.add(insert(NOW.minusDays(60).plusDays(i), DecisionStatus.EXECUTED).getId());
+        }
+        archive.archive(NOW.minusDays(24)); // 先頭6日分をアーカイブ済みにする
+        for (int i = 0; i < 4; i++) {
+            expected.add(insert(NOW.minusDays(2).plusHours(i), DecisionStatus.EXECUTED).getId());
+        }
+        insert(NOW.minusDays(90), DecisionStatus.EXECUTED); // 範囲外
+
+        List<Long> read = new ArrayList<>();
+        try (Stream<AiDecisionLog> stream = service.streamDecisionLogs(NOW.minusDays(61), NOW)) {
+            Iterator<AiDecisionLog> iterator = stream.iterator();
+            for (int i = 0; i < 3; i++) {
+                read.add(iterator.next().getId());
+            }
+            // 読み出し途中で残りの古いログもアーカイブされる
+            archive.archive(NOW);
+            iterator.forEachRemaining(log -> read.add(log.getId()));
+        }
+
+        assertThat(read).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(logs).hasSize(4);
+    }
+}
@@ -0,0 +1,332 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.pool;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.TokenPool;
+import com.sfr.tokyo.sfr_backend.repository.crypto.TokenPoolRepository;
+import com.sfr.tokyo.sfr_backend.service.crypto.supply.TokenSupplySnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * リポジトリは「読むたびに別インスタンス・保存時にバージョン検査」を行うインメモリ実装で代替する
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PoolMutationExecutorTest {
+
+    private static final BigDecimal MAX_SUPPLY = new BigDecimal("5000");
+
+    @Mock
+    private TokenPoolRepository tokenPoolRepository;
+
+    @Mock
+    private TokenSupplySnapshotService supplySnapshotService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<Long, TokenPool> stored = new ConcurrentHashMap<>();
+    private final AtomicInteger writes = new AtomicInteger();
+    /** 次回保存時に他ノードの更新を模擬して競合させる回数 */
+    private final AtomicInteger forcedConflicts = new AtomicInteger();
+
+    private PoolMutationExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        when(tokenPoolRepository.findBySpaceId(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(stored.get(inv.<Long>getArgument(0))).map(this::copy));
+        when(tokenPoolRepository.saveAndFlush(any(TokenPool.class))).thenAnswer(inv -> {
+            TokenPool pool = inv.getArgument(0);
+            synchronized (stored) {
+                TokenPool current = stored.get(pool.getSpaceId());
+                if (forcedConflicts.getAndUpdate(n -> Math.max(0, n - 1)) > 0
+                        || !current.getVersion().equals(pool.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(TokenPool.class, pool.getId());
+                }
+                TokenPool saved = copy(pool);
+                saved.setVersion(pool.getVersion() + 1);
+                stored.put(saved.getSpaceId(), saved);
+                writes.incrementAndGet();
+                return copy(saved);
+            }
+        });
+        executor = new PoolMutationExecutor(tokenPoolRepository, supplySnapshotService, transactionManager,
+                4, 256, 30_000, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private void createPool(long spaceId) {
+        stored.put(spaceId, TokenPool.builder()
+                .id(spaceId)
+                .spaceId(spaceId)
+                .maxSupply(MAX_SUPPLY)
+                .adminUserId(UUID.randomUUID())
+                .version(0L)
+                .build());
+    }
+
+    private TokenPool copy(TokenPool pool) {
+        return TokenPool.builder()
+                .id(pool.getId())
+                .spaceId(pool.getSpaceId())
+                .totalSupply(pool.getTotalSupply())
+                .issuedAmount(pool.getIssuedAmount())
+                .burnedAmount(pool.getBurnedAmount())
+                .circulatingSupply(pool.getCirculatingSupply())
+                .reservePool(pool.getReservePool())
+                .rewardPool(pool.getRewardPool())
+                .governancePool(pool.getGovernancePool())
+                .ecosystemPool(pool.getEcosystemPool())
+                .maxSupply(pool.getMaxSupply())
+                .status(pool.getStatus())
+                .adminUserId(pool.getAdminUserId())
+                .version(pool.getVersion())
+                .build();
+    }
+
+    private static PoolMutationExecutor.PoolMutation issue(BigDecimal amount) {
+        return pool -> {
+            if (!pool.issueTokens(amount)) {
+                throw new IllegalStateException("Token issuance failed");
+            }
+        };
+    }
+
+    private static PoolMutationExecutor.PoolMutation burn(BigDecimal amount) {
+        return pool -> {
+            if (!pool.burnTokens(amount)) {
+                throw new IllegalStateException("Token burn failed");
+            }
+        };
+    }
+
+    private static PoolMutationExecutor.PoolMutation distribute(BigDecimal amount) {
+        return pool -> {
+            if (!pool.distributeRewards(amount)) {
+                throw new IllegalStateException("Reward distribution failed");
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("同時の発行・バーン・配布でも更新が失われず、最大供給量などの不変条件が保たれる")
+    void stress_concurrentMutationsShouldPreserveInvariants() throws Exception {
+        long[] spaceIds = {1L, 2L, 3L, 4L, 5L};
+        for (long spaceId : spaceIds) {
+            createPool(spaceId);
+        }
+        Map<Long, BigDecimal> issued = new ConcurrentHashMap<>();
+        Map<Long, BigDecimal> burned = new ConcurrentHashMap<>();
+        Map<Long, BigDecimal> distributed = new ConcurrentHashMap<>();
+        int operations = 20_000;
+
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < operations; i++) {
+                futures.add(clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long spaceId = spaceIds[random.nextInt(spaceIds.length)];
+                    BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 6));
+                    int kind = random.nextInt(3);
+                    if (random.nextInt(50) == 0) {
+                        forcedConflicts.incrementAndGet();
+                    }
+                    try {
+                        if (kind == 0) {
+                            executor.execute(spaceId, issue(amount));
+                            issued.merge(spaceId, amount, BigDecimal::add);
+                        } else if (kind == 1) {
+                            executor.execute(spaceId, burn(amount));
+                            burned.merge(spaceId, amount, BigDecimal::add);
+                        } else {
+                            executor.execute(spaceId, distribute(amount));
+                            distributed.merge(spaceId, amount, BigDecimal::add);
+                        }
+                    } catch (IllegalStateException e) {
+                        // 上限超過・残高不足は業務ルールどおりの拒否
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        for (long spaceId : spaceIds) {
+            TokenPool pool = stored.get(spaceId);
+            BigDecimal expectedIssued = issued.getOrDefault(spaceId, BigDecimal.ZERO);
+            BigDecimal expectedBurned = burned.getOrDefault(spaceId, BigDecimal.ZERO);
+            // 成功を返した更新はすべて反映されている（ロストアップデートがない）
+            assertThat(pool.getIssuedAmount()).isEqualByComparingTo(expectedIssued);
+            assertThat(pool.getBurnedAmount()).isEqualByComparingTo(expectedBurned);
+            assertThat(pool.getRewardPool()).isEqualByComparingTo(expectedIssued.multiply(new BigDecimal("0.40"))
+                    .subtract(distributed.getOrDefault(spaceId, BigDecimal.ZERO)));
+            assertThat(pool.getTotalSupply()).isLessThanOrEqualTo(MAX_SUPPLY);
+            assertThat(pool.getCirculatingSupply()).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+            assertThat(pool.getRewardPool()).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+            assertThat(pool.isHealthy()).isTrue();
+        }
+        // 同一プールへの更新はまとめて書き込まれる
+        assertThat(writes.get()).isLessThan(operations);
+        assertThat(executor.getWrittenBatches()).isEqualTo(writes.get());
+    }
+
+    @Test
+    @DisplayName("業務ルール違反の更新だけが失敗し、同じバッチの他の更新は反映される")
+    void execute_shouldIsolateRejectedMutations() {
+        createPool(1L);
+        executor.execute(1L, issue(new BigDecimal("100")));
+
+        assertThatThrownBy(() -> executor.execute(1L, burn(new BigDecimal("1000"))))
+                .isInstanceOf(IllegalStateException.class).hasMessage("Token burn failed");
+        assertThatThrownBy(() -> executor.execute(9L, issue(BigDecimal.ONE)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Token pool not found for spaceId: 9");
+
+        TokenPool pool = executor.execute(1L, burn(new BigDecimal("30")));
+        assertThat(pool.getCirculatingSupply()).isEqualByComparingTo("70");
+        assertThat(stored.get(1L).getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("バージョン競合時はプールを読み直して再適用し、再試行上限を超えたら失敗する")
+    void execute_shouldRetryOnVersionConflict() {
+        createPool(1L);
+        forcedConflicts.set(2);
+        assertThat(executor.execute(1L, issue(BigDecimal.TEN)).getTotalSupply()).isEqualByComparingTo("10");
+        assertThat(executor.getVersionConflicts()).isEqualTo(2);
+
+        forcedConflicts.set(10);
+        assertThatThrownBy(() -> executor.execute(1L, issue(BigDecimal.TEN)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("modified concurrently");
+        forcedConflicts.set(0);
+        assertThat(stored.get(1L).getTotalSupply()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    @DisplayName("キューで待ち切れなかった更新は取り下げられ、再試行しても二重に反映されない")
+    void execute_shouldWithdrawQueuedMutationOnTimeout() throws Exception {
+        createPool(1L);
+        PoolMutationExecutor shortWait = new PoolMutationExecutor(tokenPoolRepository, supplySnapshotService,
+                transactionManager, 1, 256, 100, 3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // 先行バッチでレーンを塞ぎ、後続の更新をキューに留める
+            CompletableFuture<TokenPool> blocker = shortWait.submit(1L, pool -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pool.issueTokens(BigDecimal.ONE);
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> shortWait.execute(1L, issue(BigDecimal.TEN)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("not applied");
+
+            release.countDown();
+            blocker.get(5, TimeUnit.SECONDS);
+            TokenPool retried = shortWait.execute(1L, issue(BigDecimal.TEN));
+
+            assertThat(retried.getTotalSupply()).isEqualByComparingTo("11");
+            assertThat(stored.get(1L).getTotalSupply()).isEqualByComparingTo("11");
+            assertThat(shortWait.getAppliedMutations()).isEqualTo(2);
+        } finally {
+            release.countDown();
+            shortWait.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("実行中のバッチに取り込まれた更新は待ち時間を過ぎても結果を待って返す")
+    void execute_shouldReturnOutcomeOfRunningBatchAfterTimeout() {
+        createPool(1L);
+        PoolMutationExecutor shortWait = new PoolMutationExecutor(tokenPoolRepository, supplySnapshotService,
+                transactionManager, 1, 256, 100, 3);
+        try {
+            TokenPool pool = shortWait.execute(1L, target -> {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                target.issueTokens(BigDecimal.TEN);
+            });
+
+            assertThat(pool.getTotalSupply()).isEqualByComparingTo("10");
+            assertThat(stored.get(1L).getTotalSupply()).isEqualByComparingTo("10");
+        } finally {
+            shortWait.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("スループット計測: 更新/秒と書き込み回数")
+    void benchmark_throughput() throws Exception {
+        int poolCount = 8;
+        int perPool = 5_000;
+        for (long spaceId = 1; spaceId <= poolCount; spaceId++) {
+            createPool(spaceId);
+        }
+
+        long start = System.nanoTime();
+        List<CompletableFuture<TokenPool>> futures = new ArrayList<>();
+        for (int i = 0; i < perPool; i++) {
+            for (long spaceId = 1; spaceId <= poolCount; spaceId++) {
+                futures.add(executor.submit(spaceId, issue(new BigDecimal("0.1"))));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.printf("Token pool mutations: %.0f ops/s, %d ops in %d writes (%d pools, 4 lanes)%n",
+                futures.size() / seconds, futures.size(), writes.get(), poolCount);
+
+        for (long spaceId = 1; spaceId <= poolCount; spaceId++) {
+            assertThat(stored.get(spaceId).getTotalSupply()).isEqualByComparingTo("500");
+        }
+        assertThat(executor.getAppliedMutations()).isEqualTo((long) poolCount * perPool);
+    }
+}
@@ -0,0 +1,210 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.reconcile;
+
+import com.sfr.tokyo.sfr_backend.repository.crypto.SfrPointRepository;
+import com.sfr.tokyo.sfr_backend.repository.crypto.UserBalanceRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BalanceReconcilerTest {
+
+    private static final Long SPACE_ID = 1L;
+
+    @Mock
+    private SfrPointRepository sfrPointRepository;
+
+    @Mock
+    private UserBalanceRepository userBalanceRepository;
+
+    @Mock
+    private BalanceRepairWriter repairWriter;
+
+    private final NavigableMap<String, BalanceRow> points = new TreeMap<>();
+    private final NavigableMap<String, BalanceRow> balances = new TreeMap<>();
+    /** 増分モードで「変更あり」とみなすユーザーID */
+    private final List<String> changedPoints = new ArrayList<>();
+    private final List<String> changedBalances = new ArrayList<>();
+    private final List<List<String>> repairBatches = new CopyOnWriteArrayList<>();
+    /** サマリー用にバックグラウンドへ投げられた突合 */
+    private final List<Runnable> summaryTasks = new ArrayList<>();
+
+    private BalanceReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        stubTable(points, changedPoints, true);
+        stubTable(balances, changedBalances, false);
+        when(repairWriter.repair(eq(SPACE_ID), anyCollection())).thenAnswer(inv -> {
+            List<String> userIds = List.copyOf(inv.<Collection<String>>getArgument(1));
+            repairBatches.add(userIds);
+            return userIds.size();
+        });
+        reconciler = new BalanceReconciler(sfrPointRepository, userBalanceRepository, repairWriter,
+                2, 2, 60, 60000, false, false, SPACE_ID, summaryTasks::add);
+    }
+
+    private void stubTable(NavigableMap<String, BalanceRow> table, List<String> changed, boolean sfrPoint) {
+        if (sfrPoint) {
+            when(sfrPointRepository.findBalanceRowsAfter(eq(SPACE_ID), anyString(), any(Pageable.class)))
+                    .thenAnswer(inv -> chunk(table, inv.getArgument(1), inv.getArgument(2), null));
+            when(sfrPointRepository.findChangedBalanceRowsAfter(eq(SPACE_ID), anyString(), any(LocalDateTime.class),
+                    any(Pageable.class)))
+                    .thenAnswer(inv -> chunk(table, inv.getArgument(1), inv.getArgument(3), changed));
+            when(sfrPointRepository.findBalanceRowsByUserIds(eq(SPACE_ID), anyCollection()))
+                    .thenAnswer(inv -> lookup(table, inv.getArgument(1)));
+        } else {
+            when(userBalanceRepository.findBalanceRowsAfter(eq(SPACE_ID), anyString(), any(Pageable.class)))
+                    .thenAnswer(inv -> chunk(table, inv.getArgument(1), inv.getArgument(2), null));
+            when(userBalanceRepository.findChangedBalanceRowsAfter(eq(SPACE_ID), anyString(),
+                    any(LocalDateTime.class), any(Pageable.class)))
+                    .thenAnswer(inv -> chunk(table, inv.getArgument(1), inv.getArgument(3), changed));
+            when(userBalanceRepository.findBalanceRowsByUserIds(eq(SPACE_ID), anyCollection()))
+                    .thenAnswer(inv -> lookup(table, inv.getArgument(1)));
+        }
+    }
+
+    private static List<BalanceRow> chunk(NavigableMap<String, BalanceRow> table, String after, Pageable pageable,
+            List<String> changedOnly) {
+        return table.tailMap(after, false).values().stream()
+                .filter(row -> changedOnly == null || changedOnly.contains(row.userId()))
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private static List<BalanceRow> lookup(NavigableMap<String, BalanceRow> table, Collection<String> userIds) {
+        return userIds.stream().map(table::get).filter(row -> row != null).toList();
+    }
+
+    private static void put(NavigableMap<String, BalanceRow> table, String userId, String amount) {
+        table.put(userId, new BalanceRow(userId, new BigDecimal(amount), BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    @Test
+    @DisplayName("全件突合でチャンク境界をまたいで不一致を検出する")
+    void reconcileFull_shouldMergeJoinAcrossChunks() {
+        put(points, "u1", "100");
+        put(balances, "u1", "100");
+        put(points, "u2", "50");
+        put(balances, "u2", "40");
+        put(points, "u3", "10");
+        put(balances, "u4", "0");
+        put(balances, "u5", "7");
+        put(points, "u6", "0");
+        put(points, "u7", "30.00");
+        put(balances, "u7", "30");
+
+        List<BalanceDiscrepancy> emitted = new ArrayList<>();
+        BalanceReconcileReport report = reconciler.reconcile(SPACE_ID, BalanceReconciler.Mode.FULL, false,
+                emitted::add);
+
+        assertThat(emitted).extracting(BalanceDiscrepancy::userId, BalanceDiscrepancy::kind).containsExactly(
+                tuple("u2", BalanceDiscrepancy.Kind.MISMATCH),
+                tuple("u3", BalanceDiscrepancy.Kind.MISSING_USER_BALANCE),
+                tuple("u5", BalanceDiscrepancy.Kind.MISSING_SFR_POINT));
+        assertThat(emitted.get(0).discrepancy()).isEqualByComparingTo("10");
+        assertThat(report.getScannedSfrPoints()).isEqualTo(5);
+        assertThat(report.getScannedUserBalances()).isEqualTo(5);
+        assertThat(report.getInconsistent()).isEqualTo(3);
+        assertThat(report.getUnrepairable()).isEqualTo(1);
+        assertThat(report.getRowsPerSecond()).isPositive();
+        assertThat(reconciler.getWatermark(SPACE_ID)).isNull();
+        verify(repairWriter, never()).repair(any(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("修復はバッチ単位で行い、SfrPointがない行は修復しない")
+    void reconcileFull_shouldRepairInBatches() {
+        for (int i = 1; i <= 5; i++) {
+            put(points, "u" + i, String.valueOf(i * 10));
+        }
+        put(balances, "u9", "5");
+
+        BalanceReconcileReport report = reconciler.reconcile(SPACE_ID, BalanceReconciler.Mode.FULL, true,
+                discrepancy -> {
+                });
+
+        assertThat(repairBatches).containsExactly(List.of("u1", "u2"), List.of("u3", "u4"), List.of("u5"));
+        assertThat(report.getRepaired()).isEqualTo(5);
+        assertThat(report.getUnrepairable()).isEqualTo(1);
+        assertThat(reconciler.getWatermark(SPACE_ID)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("増分突合はウォーターマーク以降の変更行のみ走査し、相手側をまとめて引き当てる")
+    void reconcileIncremental_shouldOnlyScanChangedRows() {
+        for (int i = 1; i <= 6; i++) {
+            put(points, "u" + i, "10");
+            put(balances, "u" + i, "10");
+        }
+        reconciler.reconcile(SPACE_ID, BalanceReconciler.Mode.INCREMENTAL, false, discrepancy -> {
+        });
+        assertThat(reconciler.getWatermark(SPACE_ID)).isNotNull();
+
+        put(points, "u2", "20");
+        changedPoints.add("u2");
+        put(balances, "u4", "5");
+        changedBalances.add("u4");
+        put(points, "u5", "8");
+        put(balances, "u5", "8");
+        changedPoints.add("u5");
+        changedBalances.add("u5");
+
+        List<BalanceDiscrepancy> emitted = new ArrayList<>();
+        BalanceReconcileReport report = reconciler.reconcile(SPACE_ID, BalanceReconciler.Mode.INCREMENTAL, false,
+                emitted::add);
+
+        assertThat(report.getMode()).isEqualTo(BalanceReconciler.Mode.INCREMENTAL);
+        assertThat(report.getScannedSfrPoints()).isEqualTo(2);
+        assertThat(report.getScannedUserBalances()).isEqualTo(2);
+        assertThat(report.getLookedUpRows()).isEqualTo(2);
+        assertThat(emitted).extracting(BalanceDiscrepancy::userId).containsExactlyInAnyOrder("u2", "u4");
+    }
+
+    @Test
+    @DisplayName("サマリーは走査を待たずに直近の全件突合結果を返し、古ければ裏で1本だけ再集計する")
+    void latestFullReport_shouldRefreshInBackground() {
+        put(points, "u1", "1");
+
+        assertThat(reconciler.latestFullReport(SPACE_ID)).isEmpty();
+        assertThat(reconciler.latestFullReport(SPACE_ID)).isEmpty();
+        assertThat(summaryTasks).hasSize(1);
+        verify(sfrPointRepository, never()).findBalanceRowsAfter(any(), anyString(), any(Pageable.class));
+
+        summaryTasks.remove(0).run();
+        put(points, "u2", "1");
+
+        Optional<BalanceReconcileReport> report = reconciler.latestFullReport(SPACE_ID);
+        assertThat(report).map(BalanceReconcileReport::getInconsistent).contains(1L);
+        assertThat(summaryTasks).isEmpty();
+        assertThat(reconciler.getWatermark(SPACE_ID)).isNull();
+    }
+}
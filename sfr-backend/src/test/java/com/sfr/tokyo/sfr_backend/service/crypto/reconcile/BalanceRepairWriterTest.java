@@ -0,0 +1,97 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.reconcile;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.SfrPoint;
+import com.sfr.tokyo.sfr_backend.entity.crypto.UserBalance;
+import com.sfr.tokyo.sfr_backend.repository.crypto.SfrPointRepository;
+import com.sfr.tokyo.sfr_backend.repository.crypto.UserBalanceRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.BalanceRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceRepairWriterTest {
+
+    private static final Long SPACE_ID = 1L;
+
+    @Mock
+    private SfrPointRepository sfrPointRepository;
+
+    @Mock
+    private UserBalanceRepository userBalanceRepository;
+
+    @InjectMocks
+    private BalanceRepairWriter repairWriter;
+
+    private static SfrPoint point(String userId, String balance) {
+        return SfrPoint.builder()
+                .userId(userId)
+                .spaceId(SPACE_ID)
+                .currentBalance(new BigDecimal(balance))
+                .totalEarned(new BigDecimal(balance))
+                .totalSpent(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static BalanceRow row(String userId, String balance) {
+        return new BalanceRow(userId, new BigDecimal(balance), new BigDecimal(balance), BigDecimal.ZERO);
+    }
+
+    @Test
+    @DisplayName("既存の残高は読み取った値を条件に書き換え、その間に動いた行は数えない")
+    void repair_shouldCompareAndSetExistingBalances() {
+        when(sfrPointRepository.findBySpaceIdAndUserIdIn(eq(SPACE_ID), anyCollection()))
+                .thenReturn(List.of(point("u1", "10"), point("u2", "20"), point("u3", "30")));
+        when(userBalanceRepository.findBalanceRowsByUserIds(eq(SPACE_ID), anyCollection()))
+                .thenReturn(List.of(row("u1", "5"), row("u2", "15"), row("u3", "30")));
+        when(userBalanceRepository.repairBalance(eq(SPACE_ID), eq("u1"), any(), any(), any(), any(), any()))
+                .thenReturn(1);
+        // u2 は読み取り後に入金があり、条件付き UPDATE が空振りする
+        when(userBalanceRepository.repairBalance(eq(SPACE_ID), eq("u2"), any(), any(), any(), any(), any()))
+                .thenReturn(0);
+
+        int repaired = repairWriter.repair(SPACE_ID, List.of("u1", "u2", "u3"));
+
+        assertThat(repaired).isEqualTo(1);
+        verify(userBalanceRepository).repairBalance(eq(SPACE_ID), eq("u1"), eq(new BigDecimal("5")),
+                eq(new BigDecimal("10")), eq(new BigDecimal("10")), eq(BigDecimal.ZERO), any(LocalDateTime.class));
+        verify(userBalanceRepository, never()).repairBalance(any(), eq("u3"), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("残高行がないユーザーは SfrPoint の値で作成する")
+    void repair_shouldCreateMissingBalances() {
+        when(sfrPointRepository.findBySpaceIdAndUserIdIn(eq(SPACE_ID), anyCollection()))
+                .thenReturn(List.of(point("u1", "10")));
+        when(userBalanceRepository.findBalanceRowsByUserIds(eq(SPACE_ID), anyCollection())).thenReturn(List.of());
+
+        int repaired = repairWriter.repair(SPACE_ID, List.of("u1", "u9"));
+
+        assertThat(repaired).isEqualTo(1);
+        ArgumentCaptor<List<UserBalance>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userBalanceRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement().satisfies(balance -> {
+            assertThat(balance.getUserId()).isEqualTo("u1");
+            assertThat(balance.getCurrentBalance()).isEqualByComparingTo("10");
+        });
+        verify(userBalanceRepository, never()).repairBalance(any(), anyString(), any(), any(), any(), any(), any());
+    }
+}
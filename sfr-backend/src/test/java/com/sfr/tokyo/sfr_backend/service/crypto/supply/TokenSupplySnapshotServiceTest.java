@@ -0,0 +1,131 @@
+package com.sfr.tokyo.sfr_backend.service.crypto.supply;
+
+import com.sfr.tokyo.sfr_backend.entity.crypto.TokenPool;
+import com.sfr.tokyo.sfr_backend.repository.crypto.TokenPoolRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenSupplySnapshotServiceTest {
+
+    @Mock
+    private TokenPoolRepository tokenPoolRepository;
+
+    private final List<TokenPool> pools = new ArrayList<>();
+    private TokenSupplySnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        when(tokenPoolRepository.findAll(any(Pageable.class))).thenAnswer(inv -> {
+            Pageable pageable = inv.getArgument(0);
+            int from = (int) Math.min(pageable.getOffset(), pools.size());
+            int to = Math.min(from + pageable.getPageSize(), pools.size());
+            return new PageImpl<>(List.copyOf(pools.subList(from, to)), pageable, pools.size());
+        });
+        service = new TokenSupplySnapshotService(tokenPoolRepository, 2, 3);
+    }
+
+    private static TokenPool pool(long id, TokenPool.PoolStatus status, String issued, String burned,
+            String threshold) {
+        BigDecimal circulating = new BigDecimal(issued).subtract(new BigDecimal(burned));
+        return TokenPool.builder()
+                .id(id)
+                .spaceId(id * 10)
+                .totalSupply(new BigDecimal(issued))
+                .issuedAmount(new BigDecimal(issued))
+                .burnedAmount(new BigDecimal(burned))
+                .circulatingSupply(circulating)
+                .reservePool(BigDecimal.ONE)
+                .rewardPool(new BigDecimal("5"))
+                .governancePool(BigDecimal.ZERO)
+                .ecosystemPool(BigDecimal.ZERO)
+                .issueRate(new BigDecimal("0.001"))
+                .burnRate(new BigDecimal("0.0005"))
+                .collectionThreshold(new BigDecimal(threshold))
+                .status(status)
+                .build();
+    }
+
+    @Test
+    @DisplayName("全プールをページ単位で1回走査して集計する")
+    void reload_shouldAggregateAllPoolsInOnePass() {
+        pools.add(pool(1, TokenPool.PoolStatus.ACTIVE, "100", "10", "50"));
+        pools.add(pool(2, TokenPool.PoolStatus.ACTIVE, "200", "0", "500"));
+        pools.add(pool(3, TokenPool.PoolStatus.PAUSED, "50", "5", "10"));
+        TokenPool broken = pool(4, TokenPool.PoolStatus.ACTIVE, "30", "0", "20");
+        broken.setCirculatingSupply(new BigDecimal("999"));
+        pools.add(broken);
+        pools.add(pool(5, TokenPool.PoolStatus.ACTIVE, "0", "0", "1000"));
+
+        TokenSupplySnapshot snapshot = service.reload();
+
+        assertThat(snapshot.getTotalPools()).isEqualTo(5);
+        assertThat(snapshot.getActivePools()).isEqualTo(4);
+        assertThat(snapshot.getPausedPools()).isEqualTo(1);
+        assertThat(snapshot.getHealthyPoolCount()).isEqualTo(4);
+        assertThat(snapshot.getTotalSupply()).isEqualByComparingTo("380");
+        assertThat(snapshot.getTotalCirculatingSupply()).isEqualByComparingTo("1334");
+        assertThat(snapshot.getTotalBurnedAmount()).isEqualByComparingTo("15");
+        assertThat(snapshot.getTotalRewardPool()).isEqualByComparingTo("25");
+        assertThat(snapshot.getAverageIssueRate()).isEqualByComparingTo("0.001");
+        assertThat(snapshot.getUnhealthySpaceIds()).containsExactly(40L);
+        assertThat(snapshot.collectionTargetSpaceIds(new BigDecimal("100"))).containsExactly(40L, 10L);
+        assertThat(snapshot.collectionTargetSpaceIds(new BigDecimal("20"))).isEmpty();
+        verify(tokenPoolRepository, times(3)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("プール変更はDBを読み直さずにスナップショットへ反映する")
+    void onPoolChanged_shouldUpdateSnapshotWithoutReload() {
+        TokenPool first = pool(1, TokenPool.PoolStatus.ACTIVE, "100", "0", "50");
+        pools.add(first);
+        TokenSupplySnapshot before = service.getSnapshot();
+        assertThat(service.getSnapshot()).isSameAs(before);
+
+        first.issueTokens(new BigDecimal("20"));
+        service.onPoolChanged(first);
+        service.onPoolChanged(pool(2, TokenPool.PoolStatus.ACTIVE, "7", "0", "50"));
+        TokenSupplySnapshot after = service.getSnapshot();
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(before.getTotalSupply()).isEqualByComparingTo("100");
+        assertThat(after.getTotalSupply()).isEqualByComparingTo("127");
+        assertThat(after.getTotalPools()).isEqualTo(2);
+
+        service.onPoolDeleted(2L);
+        assertThat(service.getSnapshot().getTotalPools()).isEqualTo(1);
+        verify(tokenPoolRepository, times(1)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("推移の時系列は保持件数を超えると古いものから破棄する")
+    void sample_shouldKeepBoundedHistory() {
+        TokenPool first = pool(1, TokenPool.PoolStatus.ACTIVE, "100", "0", "50");
+        pools.add(first);
+        for (int i = 0; i < 5; i++) {
+            first.issueTokens(BigDecimal.ONE);
+            service.onPoolChanged(first);
+            service.sample();
+        }
+
+        assertThat(service.getHistory()).extracting(SupplyTrendPoint::getTotalSupply)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("103"), new BigDecimal("104"), new BigDecimal("105"));
+    }
+}
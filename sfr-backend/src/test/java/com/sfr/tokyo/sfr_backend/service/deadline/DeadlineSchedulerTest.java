@@ -0,0 +1,187 @@
+package com.sfr.tokyo.sfr_backend.service.deadline;
+
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+import com.sfr.tokyo.sfr_backend.repository.system.ScheduledDeadlineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 期限スケジューラとタイミングホイールのテスト
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DeadlineSchedulerTest {
+
+    @Mock
+    private ScheduledDeadlineRepository deadlineRepository;
+
+    @Mock
+    private UpsertWriter upsertWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /** upsert で追加された行 */
+    private final List<ScheduledDeadline> inserted = new ArrayList<>();
+
+    /** 期限到来時に受け取った対象ID（呼び出しごと） */
+    private final List<List<Long>> expiredBatches = new ArrayList<>();
+    private final Map<Long, LocalDateTime> postponed = new HashMap<>();
+
+    private DeadlineScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        DeadlineHandler handler = DeadlineHandler.of(DeadlineKind.SURVEY_EXPIRY,
+                (ids, now) -> {
+                    expiredBatches.add(List.copyOf(ids));
+                    Map<Long, LocalDateTime> later = new HashMap<>();
+                    ids.stream().filter(postponed::containsKey).forEach(id -> later.put(id, postponed.get(id)));
+                    return new DeadlineHandler.Outcome(ids.size() - later.size(), later);
+                },
+                (afterId, limit) -> List.of());
+        scheduler = new DeadlineScheduler(deadlineRepository, upsertWriter, List.of(handler), transactionManager,
+                1000, 600_000, 2);
+        when(deadlineRepository.findDueBefore(any(), any(), anyLong(), any())).thenReturn(List.of());
+        when(upsertWriter.upsert(any(), any())).thenAnswer(inv -> {
+            if (inv.<IntSupplier>getArgument(0).getAsInt() > 0) {
+                return false;
+            }
+            inserted.add((ScheduledDeadline) inv.<Supplier<?>>getArgument(1).get());
+            return true;
+        });
+        when(deadlineRepository.findByKindAndTargetIdIn(any(), any())).thenReturn(List.of());
+    }
+
+    private static ScheduledDeadline deadline(long id, long targetId, LocalDateTime dueAt) {
+        return ScheduledDeadline.builder().id(id).kind(DeadlineKind.SURVEY_EXPIRY).targetId(targetId).dueAt(dueAt)
+                .updatedAt(dueAt).build();
+    }
+
+    @Test
+    @DisplayName("タイミングホイールは期限より早く発火せず、期限のスロットの終端までに発火する（退避領域を含む）")
+    void timingWheel_shouldFireWithinOneTickAfterDue() {
+        long tick = 10;
+        long start = 1_000_000;
+        TimingWheel<Integer> wheel = new TimingWheel<>(tick, 4, 2, start);
+        Random random = new Random(42);
+        Map<Integer, Long> dues = new HashMap<>();
+        for (int key = 0; key < 500; key++) {
+            // 2段（160ms）の周回を大きく超える期限も混ぜる
+            long due = start + random.nextInt(2_000);
+            dues.put(key, due);
+            assertThat(wheel.add(key, due)).isTrue();
+        }
+        wheel.remove(7);
+        dues.remove(7);
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = start; now <= start + 2_100; now += 3) {
+            for (Integer key : wheel.advance(now)) {
+                assertThat(firedAt.put(key, now)).isNull();
+            }
+        }
+
+        assertThat(firedAt.keySet()).isEqualTo(dues.keySet());
+        assertThat(wheel.size()).isZero();
+        dues.forEach((key, due) -> {
+            long slotEnd = Math.floorDiv(due, tick) * tick + tick;
+            assertThat(firedAt.get(key)).as("key %d", key).isGreaterThanOrEqualTo(slotEnd).isLessThan(slotEnd + 3);
+        });
+    }
+
+    @Test
+    @DisplayName("処理済みの時刻より前の期限はホイールに載せない")
+    void timingWheel_shouldRejectPastDeadlines() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 2, 1_000);
+        wheel.advance(1_100);
+
+        assertThat(wheel.add("past", 1_050)).isFalse();
+        assertThat(wheel.add("future", 1_150)).isTrue();
+        assertThat(wheel.contains("past")).isFalse();
+    }
+
+    @Test
+    @DisplayName("読み込んだ期限のうち到来済みのものだけを batch-size 件ずつ発火させて行を削除する")
+    void tick_shouldFireDueDeadlinesInBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        when(deadlineRepository.findDueBefore(any(), any(), anyLong(), any())).thenReturn(List.of(
+                deadline(1, 11, now.minusMinutes(5)),
+                deadline(2, 12, now.minusMinutes(1)),
+                deadline(3, 13, now.minusSeconds(10)),
+                deadline(4, 14, now.plusMinutes(5))));
+
+        scheduler.tick(now);
+
+        assertThat(expiredBatches).containsExactly(List.of(11L, 12L), List.of(13L));
+        verify(deadlineRepository).deleteDue(DeadlineKind.SURVEY_EXPIRY, List.of(11L, 12L), now);
+        verify(deadlineRepository).deleteDue(DeadlineKind.SURVEY_EXPIRY, List.of(13L), now);
+        assertThat(scheduler.scheduledInWheel()).isEqualTo(1);
+
+        scheduler.tick(now.plusSeconds(30));
+        assertThat(expiredBatches).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("期限が延びていた対象は新しい期限で登録し直す")
+    void tick_shouldRescheduleWhenDeadlineWasPostponed() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime later = now.plusMinutes(3);
+        postponed.put(21L, later);
+        when(deadlineRepository.findDueBefore(any(), any(), anyLong(), any())).thenReturn(List.of(
+                deadline(1, 21, now.minusMinutes(1))));
+
+        scheduler.tick(now);
+
+        verify(deadlineRepository).updateDueAt(eq(DeadlineKind.SURVEY_EXPIRY), eq(21L), eq(later), any());
+        assertThat(inserted).singleElement().satisfies(row -> {
+            assertThat(row.getTargetId()).isEqualTo(21L);
+            assertThat(row.getDueAt()).isEqualTo(later);
+        });
+        assertThat(scheduler.scheduledInWheel()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("登録した期限は取り消すと発火しない")
+    void cancel_shouldRemoveScheduledDeadline() {
+        LocalDateTime now = LocalDateTime.now();
+        scheduler.tick(now);
+
+        scheduler.schedule(DeadlineKind.SURVEY_EXPIRY, 31L, now.plusSeconds(2));
+        assertThat(scheduler.scheduledInWheel()).isEqualTo(1);
+
+        scheduler.cancel(DeadlineKind.SURVEY_EXPIRY, 31L);
+        scheduler.tick(now.plusSeconds(5));
+
+        verify(deadlineRepository).deleteByKindAndTargetId(DeadlineKind.SURVEY_EXPIRY, 31L);
+        assertThat(scheduler.scheduledInWheel()).isZero();
+        assertThat(expiredBatches).isEmpty();
+        verify(deadlineRepository, never()).deleteDue(eq(DeadlineKind.SURVEY_EXPIRY), any(), any());
+    }
+}
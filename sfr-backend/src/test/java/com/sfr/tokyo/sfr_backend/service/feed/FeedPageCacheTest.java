@@ -0,0 +1,44 @@
+package com.sfr.tokyo.sfr_backend.service.feed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedPageCacheTest {
+
+    @Test
+    @DisplayName("エントリ数は上限を超えない")
+    void get_shouldStayWithinMaxEntries() {
+        FeedPageCache cache = new FeedPageCache(60_000, 3);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(FeedPageCache.key(UUID.randomUUID(), 20), () -> "page");
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("無効化は公開フィードと対象投稿者のフィードだけを破棄する")
+    void invalidateFeedsOf_shouldDropPublicAndAuthorKeysOnly() {
+        FeedPageCache cache = new FeedPageCache(60_000, 100);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(FeedPageCache.key(null, 20), loads::incrementAndGet);
+        cache.get(FeedPageCache.key(null, 50), loads::incrementAndGet);
+        cache.get(FeedPageCache.key(alice, 20), loads::incrementAndGet);
+        cache.get(FeedPageCache.key(bob, 20), loads::incrementAndGet);
+
+        cache.invalidateFeedsOf(alice);
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get(FeedPageCache.key(bob, 20), loads::incrementAndGet);
+        assertThat(loads).hasValue(4);
+    }
+}
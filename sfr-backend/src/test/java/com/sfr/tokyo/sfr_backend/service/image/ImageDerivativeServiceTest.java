@@ -0,0 +1,170 @@
+package com.sfr.tokyo.sfr_backend.service.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageDerivativeService(2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("1回のデコードで全サイズバリアントを生成し長辺を制限する")
+    void generate_shouldProduceAllVariantsWithinMaxEdge() throws IOException {
+        Path original = writeImage("photo.png", 2000, 1000);
+
+        List<Path> outputs = service.generate(original);
+
+        assertThat(outputs).hasSize(ImageVariant.values().length);
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path derived = tempDir.resolve(variant.fileNameFor("photo.png"));
+            assertThat(derived).exists();
+            BufferedImage image = ImageIO.read(derived.toFile());
+            assertThat(Math.max(image.getWidth(), image.getHeight())).isEqualTo(variant.getMaxEdge());
+            assertThat(image.getWidth()).isEqualTo(variant.getMaxEdge());
+            assertThat(image.getHeight()).isEqualTo(variant.getMaxEdge() / 2);
+        }
+        assertThat(service.getProcessedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("元画像より大きいバリアントは拡大しない")
+    void generate_shouldNotUpscaleSmallImages() throws IOException {
+        Path original = writeImage("small.png", 300, 200);
+
+        service.generate(original);
+
+        BufferedImage medium = ImageIO.read(tempDir.resolve(ImageVariant.MEDIUM.fileNameFor("small.png")).toFile());
+        assertThat(medium.getWidth()).isEqualTo(300);
+        assertThat(medium.getHeight()).isEqualTo(200);
+        BufferedImage thumb = ImageIO.read(tempDir.resolve(ImageVariant.THUMBNAIL.fileNameFor("small.png")).toFile());
+        assertThat(thumb.getWidth()).isEqualTo(160);
+    }
+
+    @Test
+    @DisplayName("画像以外のファイルは投入しない")
+    void submit_shouldIgnoreNonImageFiles() throws IOException {
+        Path document = Files.writeString(tempDir.resolve("notes.txt"), "text");
+
+        service.submit(document);
+        service.shutdown();
+
+        assertThat(service.getProcessedCount()).isZero();
+        assertThat(service.getFailedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("派生画像を削除できる")
+    void deleteDerivatives_shouldRemoveVariantFiles() throws IOException {
+        Path original = writeImage("gone.png", 800, 600);
+        service.generate(original);
+
+        service.deleteDerivatives(original);
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertThat(tempDir.resolve(variant.fileNameFor("gone.png"))).doesNotExist();
+        }
+        assertThat(original).exists();
+    }
+
+    @Test
+    @DisplayName("元画像URLからバリアントURLを導出する")
+    void variantUrls_shouldDeriveSiblingUrls() {
+        Map<String, String> urls = ImageVariant.variantUrls("http://localhost/api/posts/downloadFile/abc.jpeg");
+
+        assertThat(urls).containsOnlyKeys("thumb", "sm", "md");
+        assertThat(urls.get("thumb"))
+                .isEqualTo("http://localhost/api/posts/downloadFile/abc_thumb." + ImageVariant.OUTPUT_FORMAT);
+        assertThat(ImageVariant.variantUrls("http://localhost/files/archive.zip")).isEmpty();
+        assertThat(ImageVariant.variantUrls(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("公開するバリアントURLは書き込み済みのものだけ")
+    void writtenVariantUrls_shouldOmitMissingVariants() throws IOException {
+        String url = "http://localhost/api/posts/downloadFile/pending.png";
+        Path original = writeImage("pending.png", 800, 600);
+
+        assertThat(service.writtenVariantUrls(url, original)).isEmpty();
+
+        service.generate(original);
+        Files.delete(tempDir.resolve(ImageVariant.SMALL.fileNameFor("pending.png")));
+
+        assertThat(service.writtenVariantUrls(url, original)).containsOnlyKeys("thumb", "md");
+    }
+
+    @Test
+    @DisplayName("スループット計測: コアあたり画像/秒")
+    void benchmark_throughputPerCore() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int imageCount = 12;
+        List<Path> originals = new ArrayList<>();
+        for (int i = 0; i < imageCount; i++) {
+            originals.add(writeImage("bench" + i + ".png", 1600, 1200));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(cores);
+        long start = System.nanoTime();
+        try {
+            List<Future<List<Path>>> futures = new ArrayList<>();
+            for (Path original : originals) {
+                futures.add(pool.submit(() -> service.generate(original)));
+            }
+            for (Future<List<Path>> future : futures) {
+                assertThat(future.get()).hasSize(ImageVariant.values().length);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double perSecond = imageCount / seconds;
+        System.out.printf("Image derivatives: %.1f images/s total, %.2f images/s/core (%d cores)%n",
+                perSecond, perSecond / cores, cores);
+
+        assertThat(service.getProcessedCount()).isEqualTo(imageCount);
+    }
+
+    private Path writeImage(String name, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.BLUE);
+        g.fillOval(width / 4, height / 4, width / 2, height / 2);
+        g.dispose();
+        Path path = tempDir.resolve(name);
+        ImageIO.write(image, "png", path.toFile());
+        return path;
+    }
+}
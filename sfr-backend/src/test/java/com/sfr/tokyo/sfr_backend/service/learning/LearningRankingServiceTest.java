@@ -0,0 +1,124 @@
+package com.sfr.tokyo.sfr_backend.service.learning;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningPoint;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningPoint.PointType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningRanking;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningRanking.RankingType;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningPointRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningProgressRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningRankingRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningUserBadgeRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.test.integration.BaseRepositoryIntegrationTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * ランキング更新を H2 上の実リポジトリで確かめるテスト
+ * 集計元（ポイント・バッジ・進捗）はモックにし、learning_ranking への反映だけを見る
+ */
+@DisplayName("学習ランキング更新テスト")
+class LearningRankingServiceTest extends BaseRepositoryIntegrationTest {
+
+    @Configuration
+    @EntityScan(basePackages = "com.sfr.tokyo.sfr_backend")
+    @EnableJpaRepositories(basePackageClasses = LearningRankingRepository.class, includeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE, classes = LearningRankingRepository.class))
+    @Import({ LearningRankingService.class, BatchWriter.class })
+    static class RankingRepositories {
+    }
+
+    @Autowired
+    private LearningRankingService service;
+
+    @Autowired
+    private LearningRankingRepository rankingRepository;
+
+    @MockitoBean
+    private LearningPointRepository pointRepository;
+
+    @MockitoBean
+    private LearningUserBadgeRepository userBadgeRepository;
+
+    @MockitoBean
+    private LearningProgressRepository progressRepository;
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @Test
+    @DisplayName("グローバル更新は space が null の行だけを更新し、スペース別の行には触れない")
+    void updatePointsRanking_shouldKeepGlobalAndSpaceRowsApart() {
+        LearningRanking aliceInSpace = persistAndFlush(
+                new LearningRanking(alice, 7L, RankingType.POINTS, 3, new BigDecimal("999")));
+        LearningRanking bobGlobal = persistAndFlush(
+                new LearningRanking(bob, null, RankingType.POINTS, 5, new BigDecimal("1")));
+        clearEntityManager();
+        when(pointRepository.findGlobalPointsRanking()).thenReturn(List.of(
+                new LearningPoint(alice, null, PointType.TOTAL, 100),
+                new LearningPoint(bob, null, PointType.TOTAL, 50)));
+
+        service.updatePointsRanking(null);
+        clearEntityManager();
+
+        List<LearningRanking> global = rankingRepository
+                .findBySpaceIdIsNullAndRankingTypeOrderByRankPosition(RankingType.POINTS);
+        assertThat(global).extracting(LearningRanking::getUserId).containsExactly(alice, bob);
+        assertThat(global).extracting(LearningRanking::getSpaceId).containsOnlyNulls();
+        // 既存のグローバル行は作り直さずに順位だけ更新する
+        assertThat(global.get(1).getId()).isEqualTo(bobGlobal.getId());
+        assertThat(global.get(1).getScore()).isEqualByComparingTo("50");
+
+        LearningRanking spaceRow = rankingRepository.findById(aliceInSpace.getId()).orElseThrow();
+        assertThat(spaceRow.getRankPosition()).isEqualTo(3);
+        assertThat(spaceRow.getScore()).isEqualByComparingTo("999");
+    }
+
+    @Test
+    @DisplayName("スペース別更新はそのスペースの行だけを更新し、グローバル行には触れない")
+    void updatePointsRanking_shouldNotTouchGlobalRowsForSpaceScope() {
+        LearningRanking aliceGlobal = persistAndFlush(
+                new LearningRanking(alice, null, RankingType.POINTS, 1, new BigDecimal("500")));
+        LearningRanking aliceInSpace = persistAndFlush(
+                new LearningRanking(alice, 7L, RankingType.POINTS, 1, new BigDecimal("20")));
+        clearEntityManager();
+        when(pointRepository.findGlobalPointsRanking()).thenReturn(List.of(
+                new LearningPoint(alice, null, PointType.TOTAL, 500)));
+        when(pointRepository.findSpacePointsRanking(7L)).thenReturn(List.of(
+                new LearningPoint(bob, 7L, PointType.TOTAL, 40),
+                new LearningPoint(alice, 7L, PointType.TOTAL, 30)));
+
+        service.updatePointsRanking(7L);
+        clearEntityManager();
+
+        List<LearningRanking> space = rankingRepository.findBySpaceIdAndRankingTypeOrderByRankPosition(7L,
+                RankingType.POINTS);
+        assertThat(space).extracting(LearningRanking::getUserId).containsExactly(bob, alice);
+        assertThat(space.get(1).getId()).isEqualTo(aliceInSpace.getId());
+        assertThat(space.get(1).getRankPosition()).isEqualTo(2);
+
+        List<LearningRanking> global = rankingRepository
+                .findBySpaceIdIsNullAndRankingTypeOrderByRankPosition(RankingType.POINTS);
+        assertThat(global).singleElement().satisfies(row -> {
+            assertThat(row.getId()).isEqualTo(aliceGlobal.getId());
+            assertThat(row.getRankPosition()).isEqualTo(1);
+            assertThat(row.getScore()).isEqualByComparingTo("500");
+        });
+    }
+}
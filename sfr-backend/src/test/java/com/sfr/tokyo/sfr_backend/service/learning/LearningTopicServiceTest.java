@@ -0,0 +1,64 @@
+package com.sfr.tokyo.sfr_backend.service.learning;
+
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningTopicDto;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningTopic;
+import com.sfr.tokyo.sfr_backend.entity.system.ScheduledDeadline.DeadlineKind;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningTopicRepository;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
+import com.sfr.tokyo.sfr_backend.service.search.InterestProfileService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LearningTopicServiceTest {
+
+    @Mock
+    private LearningTopicRepository topicRepository;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private InterestProfileService interestProfileService;
+
+    @Mock
+    private DeadlineScheduler deadlineScheduler;
+
+    @InjectMocks
+    private LearningTopicService topicService;
+
+    @Test
+    @DisplayName("作成したトピックの自動クローズ日時を期限スケジューラへ登録する")
+    void createTopic_shouldScheduleAutoClose() {
+        LocalDateTime autoCloseAt = LocalDateTime.of(2026, 12, 1, 0, 0);
+        LearningTopicDto request = new LearningTopicDto();
+        request.setForumId(3L);
+        request.setCreatorId(UUID.randomUUID());
+        request.setTitle("締切付きの質問");
+        request.setContent("本文");
+        request.setAutoCloseAt(autoCloseAt);
+        when(topicRepository.save(any(LearningTopic.class))).thenAnswer(inv -> {
+            LearningTopic topic = inv.getArgument(0);
+            topic.setId(42L);
+            return topic;
+        });
+
+        LearningTopicDto created = topicService.createTopic(request);
+
+        assertThat(created.getId()).isEqualTo(42L);
+        verify(deadlineScheduler).schedule(DeadlineKind.TOPIC_AUTO_CLOSE, 42L, autoCloseAt);
+    }
+}
@@ -0,0 +1,244 @@
+package com.sfr.tokyo.sfr_backend.service.learning.ailog;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.AiType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.InteractionType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.Granularity;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.ScopeType;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiLogRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiLogRollupRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * AI学習ログの取り込みキューと分・時間別集計のテスト
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AiLogIngestQueueTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 6, 1, 10, 15, 30);
+
+    @Mock
+    private LearningAiLogRollupRepository rollupRepository;
+
+    @Mock
+    private LearningAiLogRepository aiLogRepository;
+
+    @Mock
+    private BatchWriter batchWriter;
+
+    @Mock
+    private UpsertWriter upsertWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AiLogRollupStore rollupStore;
+
+    private AiLogIngestQueue queue;
+
+    private final List<List<LearningAiLog>> inserted = new ArrayList<>();
+
+    private final List<LearningAiLogRollup> newRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rollupStore = new AiLogRollupStore(rollupRepository, aiLogRepository, batchWriter, upsertWriter,
+                transactionManager, 172_800_000L);
+        queue = new AiLogIngestQueue(batchWriter, rollupStore, transactionManager, 2, 10);
+        when(batchWriter.insertAll(any())).thenAnswer(invocation -> {
+            Collection<LearningAiLog> logs = invocation.getArgument(0);
+            inserted.add(new ArrayList<>(logs));
+            return logs.size();
+        });
+        when(rollupRepository.applyDelta(any(), any(), any(), any(), any(), anyLong(), anyLong(), anyLong(),
+                anyLong(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), any())).thenReturn(1);
+        when(upsertWriter.upsert(any(), any())).thenAnswer(invocation -> {
+            if (invocation.<IntSupplier>getArgument(0).getAsInt() > 0) {
+                return false;
+            }
+            newRows.add((LearningAiLogRollup) invocation.<Supplier<?>>getArgument(1).get());
+            return true;
+        });
+    }
+
+    private static LearningAiLog log(UUID userId, UUID spaceId, long processingTimeMs, boolean error) {
+        LearningAiLog log = new LearningAiLog(userId, UUID.randomUUID(), AiType.QUIZ_GENERATOR,
+                InteractionType.GENERATION);
+        log.setSpaceId(spaceId);
+        log.setProcessingTimeMs(processingTimeMs);
+        log.setConfidenceScore(new BigDecimal("0.5000"));
+        log.setTokensUsed(100);
+        log.setCreatedAt(CREATED_AT);
+        if (error) {
+            log.setError("timeout");
+        }
+        return log;
+    }
+
+    @Test
+    @DisplayName("キューに置いたログは flush でまとめて INSERT され、同じバケットは1回の加算になる")
+    void flushInsertsBatchAndMergesBuckets() {
+        UUID userId = UUID.randomUUID();
+        UUID spaceId = UUID.randomUUID();
+        queue.submit(log(userId, spaceId, 80, false));
+        queue.submit(log(userId, spaceId, 6000, true));
+
+        verify(batchWriter, never()).insertAll(any());
+        assertThat(queue.flush()).isEqualTo(2);
+
+        assertThat(inserted).hasSize(1);
+        assertThat(inserted.get(0)).hasSize(2);
+        // ユーザー・スペース・全体 × 分・時間
+        verify(rollupRepository, times(6)).applyDelta(any(), any(), any(), any(), any(), anyLong(), anyLong(),
+                anyLong(), anyLong(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), any());
+        verify(rollupRepository).applyDelta(eq(ScopeType.USER), eq(userId), eq(AiType.QUIZ_GENERATOR),
+                eq(Granularity.HOUR), eq(CREATED_AT.truncatedTo(ChronoUnit.HOURS)), eq(2L), eq(1L), eq(0L), eq(0L),
+                eq(new BigDecimal("1.0000")), eq(2L), eq(6080L), eq(2L), eq(200L),
+                eq(1L), eq(0L), eq(0L), eq(0L), eq(0L), eq(1L), any());
+        verify(rollupRepository).applyDelta(eq(ScopeType.GLOBAL), eq(LearningAiLogRollup.GLOBAL_SCOPE_ID),
+                eq(AiType.QUIZ_GENERATOR), eq(Granularity.MINUTE), eq(CREATED_AT.truncatedTo(ChronoUnit.MINUTES)),
+                eq(2L), anyLong(), anyLong(), anyLong(), any(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), any());
+        assertThat(queue.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("キューが満杯のときは呼び出し元で直接書き込む")
+    void writesOnCallerThreadWhenFull() {
+        UUID userId = UUID.randomUUID();
+        queue.submit(log(userId, null, 100, false));
+        queue.submit(log(userId, null, 100, false));
+        queue.submit(log(userId, null, 100, false));
+
+        assertThat(inserted).hasSize(1);
+        assertThat(inserted.get(0)).hasSize(1);
+        assertThat(queue.getPendingCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("バケットの行がなければ最初のログで行を追加する")
+    void insertsRowForNewBucket() {
+        when(rollupRepository.applyDelta(any(), any(), any(), any(), any(), anyLong(), anyLong(), anyLong(),
+                anyLong(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), any())).thenReturn(0);
+
+        rollupStore.record(List.of(log(UUID.randomUUID(), null, 700, false)));
+
+        assertThat(newRows).hasSize(4).allSatisfy(row -> {
+            assertThat(row.getRequestCount()).isEqualTo(1L);
+            assertThat(row.getLatencyLe1000()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("一括書き込みが失敗したら採番済みのIDのまま1件ずつ書き込み直す")
+    void retriesOneByOneAfterBatchFailure() {
+        UUID userId = UUID.randomUUID();
+        LearningAiLog first = log(userId, null, 100, false);
+        LearningAiLog second = log(userId, null, 100, false);
+        first.setId(1L);
+        second.setId(2L);
+        doThrow(new IllegalStateException("constraint")).doReturn(1).doReturn(1)
+                .when(batchWriter).insertAll(any());
+        queue.submit(first);
+        queue.submit(second);
+
+        assertThat(queue.flush()).isEqualTo(2);
+
+        verify(batchWriter, times(3)).insertAll(any());
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(second.getId()).isEqualTo(2L);
+        assertThat(queue.isPending(1L)).isFalse();
+        assertThat(queue.isPending(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("受け付けたログは書き込みが済むまで未コミットとして分かる")
+    void tracksPendingIdsUntilWritten() {
+        LearningAiLog entry = log(UUID.randomUUID(), null, 100, false);
+        entry.setId(10L);
+
+        queue.submit(entry);
+        assertThat(queue.isPending(10L)).isTrue();
+
+        queue.flush();
+        assertThat(queue.isPending(10L)).isFalse();
+        assertThat(queue.isPending(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("満足度の変更は満足度の合計と件数だけを差し替える")
+    void updateSatisfactionAppliesOnlySatisfactionDelta() {
+        LearningAiLog log = log(UUID.randomUUID(), null, 100, false);
+
+        rollupStore.updateSatisfaction(log, 2, 5);
+
+        verify(rollupRepository).applyDelta(eq(ScopeType.USER), any(), any(), eq(Granularity.HOUR), any(),
+                eq(0L), eq(0L), eq(3L), eq(0L), eq(BigDecimal.ZERO), eq(0L), eq(0L), eq(0L), eq(0L),
+                eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), eq(0L), any());
+        verify(upsertWriter, never()).upsert(any(), any());
+    }
+
+    @Test
+    @DisplayName("期間指定の件数は先頭の端数を分バケット、以降を時間バケットで数える")
+    void usageSinceSplitsMinuteAndHourBuckets() {
+        LocalDateTime since = LocalDateTime.now().minusHours(3).withMinute(20).withSecond(10).withNano(0);
+        LocalDateTime nextHour = since.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        when(rollupRepository.sumByAiTypeBetween(eq(ScopeType.GLOBAL), any(), eq(Granularity.MINUTE),
+                eq(since.withSecond(0)), eq(nextHour)))
+                .thenReturn(List.<Object[]>of(new Object[] { AiType.CODE_REVIEWER, 4L }));
+        when(rollupRepository.sumByAiTypeBetween(eq(ScopeType.GLOBAL), any(), eq(Granularity.HOUR),
+                eq(nextHour), any()))
+                .thenReturn(List.<Object[]>of(new Object[] { AiType.CODE_REVIEWER, 1L },
+                        new Object[] { AiType.QUIZ_GENERATOR, 7L }));
+
+        Map<AiType, Long> usage = rollupStore.usageSince(since);
+
+        assertThat(usage).containsExactly(Map.entry(AiType.QUIZ_GENERATOR, 7L), Map.entry(AiType.CODE_REVIEWER, 5L));
+    }
+
+    @Test
+    @DisplayName("処理時間は上限以下の最初の区間に入る")
+    void latencyBuckets() {
+        assertThat(AiLogRollupStore.latencyBucket(0)).isZero();
+        assertThat(AiLogRollupStore.latencyBucket(100)).isZero();
+        assertThat(AiLogRollupStore.latencyBucket(101)).isEqualTo(1);
+        assertThat(AiLogRollupStore.latencyBucket(5000)).isEqualTo(4);
+        assertThat(AiLogRollupStore.latencyBucket(5001)).isEqualTo(5);
+    }
+}
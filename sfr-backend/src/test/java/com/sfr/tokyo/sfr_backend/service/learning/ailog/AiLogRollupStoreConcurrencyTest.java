@@ -0,0 +1,281 @@
+package com.sfr.tokyo.sfr_backend.service.learning.ailog;
+
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningAiLogDto;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.AiType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLog.InteractionType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.Granularity;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningAiLogRollup.ScopeType;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiLogRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningAiLogRollupRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.repository.support.IdAllocator;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+import com.sfr.tokyo.sfr_backend.service.learning.LearningAiLogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AI学習ログの分・時間別集計を H2 上の実リポジトリで確かめるテスト
+ *
+ * 差分の加算・期間指定の合計・ログ本体からの再構築のクエリと、
+ * 同じバケットへの最初のログが並行したときに一意制約違反で記録が失敗しないことを見る。
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ai-log-rollup;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("AI学習ログ集計 H2 テスト")
+class AiLogRollupStoreConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Configuration
+    @EntityScan(basePackages = "com.sfr.tokyo.sfr_backend")
+    @EnableJpaRepositories(basePackageClasses = LearningAiLogRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                    LearningAiLogRepository.class, LearningAiLogRollupRepository.class }))
+    @Import({ LearningAiLogService.class, AiLogIngestQueue.class, AiLogRollupStore.class, BatchWriter.class,
+            UpsertWriter.class, IdAllocator.class })
+    static class AiLogRepositories {
+    }
+
+    @Autowired
+    private LearningAiLogService aiLogService;
+
+    @Autowired
+    private AiLogIngestQueue ingestQueue;
+
+    @Autowired
+    private AiLogRollupStore rollupStore;
+
+    @Autowired
+    private LearningAiLogRepository aiLogRepository;
+
+    @Autowired
+    private LearningAiLogRollupRepository rollupRepository;
+
+    @Autowired
+    private BatchWriter batchWriter;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        ingestQueue.flush();
+        aiLogRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+    }
+
+    private static LearningAiLogDto request(UUID userId, long processingTimeMs) {
+        LearningAiLogDto dto = new LearningAiLogDto();
+        dto.setUserId(userId);
+        dto.setSessionId(UUID.randomUUID());
+        dto.setAiType(AiType.QUIZ_GENERATOR);
+        dto.setInteractionType(InteractionType.GENERATION);
+        dto.setProcessingTimeMs(processingTimeMs);
+        dto.setTokensUsed(10);
+        dto.setIsError(false);
+        return dto;
+    }
+
+    private LearningAiLogRollup userHourRow(UUID userId) {
+        return rollupRepository.findAll().stream()
+                .filter(row -> row.getScopeType() == ScopeType.USER && row.getScopeId().equals(userId)
+                        && row.getGranularity() == Granularity.HOUR)
+                .reduce((a, b) -> {
+                    throw new AssertionError("duplicate bucket");
+                })
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("キューに置いたログは採番済みのIDで返り、書き込み前でも満足度を更新できる")
+    void queuedLog_shouldBeAddressableBeforeFlush() {
+        UUID userId = UUID.randomUUID();
+
+        LearningAiLogDto first = aiLogService.recordAiResponse(userId, UUID.randomUUID(), AiType.QUIZ_GENERATOR,
+                InteractionType.GENERATION, "質問", "回答", new BigDecimal("0.8000"), 80L, 10);
+        LearningAiLogDto second = aiLogService.recordAiError(userId, UUID.randomUUID(), AiType.QUIZ_GENERATOR,
+                InteractionType.GENERATION, "質問", "timeout", 6000L);
+
+        assertThat(first.getId()).isNotNull();
+        assertThat(second.getId()).isNotNull().isNotEqualTo(first.getId());
+        assertThat(ingestQueue.isPending(first.getId())).isTrue();
+
+        LearningAiLogDto rated = aiLogService.updateUserSatisfaction(first.getId(), 4);
+
+        assertThat(rated.getId()).isEqualTo(first.getId());
+        assertThat(rated.getUserSatisfaction()).isEqualTo(4);
+        assertThat(ingestQueue.isPending(first.getId())).isFalse();
+        assertThat(aiLogRepository.findById(second.getId())).isPresent();
+
+        LearningAiLogRollup row = userHourRow(userId);
+        assertThat(row.getRequestCount()).isEqualTo(2L);
+        assertThat(row.getErrorCount()).isEqualTo(1L);
+        assertThat(row.getSatisfactionSum()).isEqualTo(4L);
+        assertThat(row.getSatisfactionCount()).isEqualTo(1L);
+        assertThat(row.getTokensSum()).isEqualTo(10L);
+        assertThat(row.getLatencyLe100()).isEqualTo(1L);
+        assertThat(row.getLatencyGt5000()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("別ノードのキューにあるログは、そちらの書き出しを待ってから満足度を更新する")
+    void updateUserSatisfaction_shouldWaitForOtherNodeFlush() throws Exception {
+        LearningAiLog remote = new LearningAiLog();
+        remote.setUserId(UUID.randomUUID());
+        remote.setSessionId(UUID.randomUUID());
+        remote.setAiType(AiType.QUIZ_GENERATOR);
+        remote.setInteractionType(InteractionType.GENERATION);
+        Long id = (Long) idAllocator.assign(remote);
+        assertThat(ingestQueue.isPending(id)).isFalse();
+
+        ExecutorService otherNode = Executors.newSingleThreadExecutor();
+        try {
+            otherNode.submit(() -> {
+                Thread.sleep(300);
+                new TransactionTemplate(transactionManager)
+                        .executeWithoutResult(status -> batchWriter.insertAll(List.of(remote)));
+                return null;
+            });
+
+            LearningAiLogDto rated = aiLogService.updateUserSatisfaction(id, 5);
+
+            assertThat(rated.getUserSatisfaction()).isEqualTo(5);
+            assertThat(aiLogRepository.findById(id)).get()
+                    .extracting(LearningAiLog::getUserSatisfaction).isEqualTo(5);
+        } finally {
+            otherNode.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("同じバケットへの最初のログが並行しても全件コミットされ、行は1つずつにまとまる")
+    void createAiLog_shouldAbsorbConcurrentFirstLogs() throws Exception {
+        UUID userId = UUID.randomUUID();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return aiLogService.createAiLog(request(userId, 700));
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<LearningAiLogRollup> userRows = rollupRepository.findAll().stream()
+                .filter(row -> row.getScopeType() == ScopeType.USER && row.getGranularity() == Granularity.HOUR)
+                .toList();
+        // 時の境目をまたいだ場合は2行に分かれる
+        assertThat(userRows).extracting(LearningAiLogRollup::getBucketStart).doesNotHaveDuplicates();
+        assertThat(userRows.stream().mapToLong(LearningAiLogRollup::getRequestCount).sum()).isEqualTo(THREADS);
+        assertThat(userRows.stream().mapToLong(LearningAiLogRollup::getLatencyLe1000).sum()).isEqualTo(THREADS);
+        assertThat(aiLogRepository.count()).isEqualTo(THREADS);
+    }
+
+    @Test
+    @DisplayName("期間指定の件数は分・時間バケットの合計から読む")
+    void usageSince_shouldSumBucketsBetween() {
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            aiLogService.createAiLog(request(userId, 100));
+        }
+        LearningAiLog created = aiLogRepository.findAll().get(0);
+        LocalDateTime hourStart = created.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+
+        List<Object[]> hourUsage = rollupRepository.sumByAiTypeBetween(ScopeType.GLOBAL,
+                LearningAiLogRollup.GLOBAL_SCOPE_ID, Granularity.HOUR, hourStart, hourStart.plusHours(1));
+        List<Object[]> earlierUsage = rollupRepository.sumByAiTypeBetween(ScopeType.GLOBAL,
+                LearningAiLogRollup.GLOBAL_SCOPE_ID, Granularity.HOUR, hourStart.minusHours(1), hourStart);
+
+        assertThat(hourUsage).singleElement().satisfies(row -> {
+            assertThat(row[0]).isEqualTo(AiType.QUIZ_GENERATOR);
+            assertThat(((Number) row[1]).longValue()).isEqualTo(3L);
+        });
+        assertThat(earlierUsage).isEmpty();
+        assertThat(rollupStore.usageSince(created.getCreatedAt().minusMinutes(5)))
+                .containsExactly(Map.entry(AiType.QUIZ_GENERATOR, 3L));
+    }
+
+    @Test
+    @DisplayName("再構築した集計行はログごとの加算で作った行と一致する")
+    void rebuild_shouldReproduceIncrementalRollups() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        aiLogService.createAiLog(request(userId, 80));
+        aiLogService.createAiLog(request(userId, 1500));
+        aiLogService.createAiLog(request(otherUserId, 6000));
+        LearningAiLogDto queued = aiLogService.recordAiResponse(userId, UUID.randomUUID(), AiType.CODE_REVIEWER,
+                InteractionType.QUESTION, "質問", "回答", null, 300L, 5);
+        aiLogService.updateUserSatisfaction(queued.getId(), 5);
+        Map<String, String> incremental = snapshot();
+
+        int created = aiLogService.rebuildAiLogRollups();
+
+        assertThat(created).isEqualTo(incremental.size());
+        assertThat(snapshot()).isEqualTo(incremental);
+    }
+
+    /**
+     * バケットのキー → 集計値（ID と更新日時を除く）
+     */
+    private Map<String, String> snapshot() {
+        return rollupRepository.findAll().stream().collect(Collectors.toMap(
+                row -> row.getScopeType() + "/" + row.getScopeId() + "/" + row.getAiType() + "/"
+                        + row.getGranularity() + "/" + row.getBucketStart(),
+                Function.<LearningAiLogRollup>identity().andThen(row -> List.of(row.getRequestCount(),
+                        row.getErrorCount(), row.getSatisfactionSum(), row.getSatisfactionCount(),
+                        row.getConfidenceCount(), row.getProcessingTimeSum(), row.getProcessingTimeCount(),
+                        row.getTokensSum(), row.getLatencyLe100(), row.getLatencyLe500(), row.getLatencyLe1000(),
+                        row.getLatencyLe2000(), row.getLatencyLe5000(), row.getLatencyGt5000()).toString())));
+    }
+}
@@ -0,0 +1,188 @@
+package com.sfr.tokyo.sfr_backend.service.learning.badge;
+
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningBadgeDto;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningBadge;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningBadge.BadgeType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningUserBadge;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningBadgeRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningUserBadgeRepository;
+import com.sfr.tokyo.sfr_backend.service.learning.LearningBadgeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * バッジ獲得判定（条件インデックス + 獲得済みビットセット）のテスト
+ * learning_badge / learning_user_badge テーブルはインメモリの Map で代替する
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BadgeAwardEngineTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID SPACE = UUID.randomUUID();
+    private static final UUID OTHER_SPACE = UUID.randomUUID();
+
+    @Mock
+    private LearningBadgeRepository badgeRepository;
+
+    @Mock
+    private LearningUserBadgeRepository userBadgeRepository;
+
+    @InjectMocks
+    private LearningBadgeService badgeService;
+
+    private final Map<Long, LearningBadge> badges = new ConcurrentHashMap<>();
+    private final List<LearningUserBadge> earned = new ArrayList<>();
+    private BadgeRuleIndex ruleIndex;
+
+    @BeforeEach
+    void setUp() {
+        badge(1L, BadgeType.POINTS, 100, null);
+        badge(2L, BadgeType.POINTS, 500, null);
+        badge(3L, BadgeType.POINTS, 1000, null);
+        badge(4L, BadgeType.POINTS, 300, SPACE);
+        badge(5L, BadgeType.POINTS, 200, OTHER_SPACE);
+        badge(6L, BadgeType.QUIZ, 1, null);
+
+        when(badgeRepository.findByIsActiveTrue()).thenAnswer(inv -> badges.values().stream()
+                .filter(LearningBadge::getIsActive).toList());
+        when(badgeRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(badges.get(inv.getArgument(0))));
+        when(badgeRepository.getReferenceById(anyLong())).thenAnswer(inv -> badges.get(inv.getArgument(0)));
+        when(badgeRepository.save(any())).thenAnswer(inv -> {
+            LearningBadge badge = inv.getArgument(0);
+            if (badge.getId() == null) {
+                badge.setId((long) badges.size() + 1);
+            }
+            badges.put(badge.getId(), badge);
+            return badge;
+        });
+        when(userBadgeRepository.findBadgeIdsByUserId(any())).thenAnswer(inv -> earnedIds(inv.getArgument(0)));
+        when(userBadgeRepository.findBadgeIdsByUserIdAndBadgeIdIn(any(), anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(1);
+            return earnedIds(inv.getArgument(0)).stream().filter(ids::contains).toList();
+        });
+        when(userBadgeRepository.saveAll(anyCollection())).thenAnswer(inv -> {
+            Collection<LearningUserBadge> rows = inv.getArgument(0);
+            earned.addAll(rows);
+            return new ArrayList<>(rows);
+        });
+
+        ruleIndex = new BadgeRuleIndex(badgeRepository);
+        ReflectionTestUtils.setField(badgeService, "badgeRuleIndex", ruleIndex);
+        ReflectionTestUtils.setField(badgeService, "earnedBadgeCache",
+                new EarnedBadgeCache(userBadgeRepository, ruleIndex, 100, 600_000));
+    }
+
+    private void badge(Long id, BadgeType type, Integer requiredValue, UUID spaceId) {
+        LearningBadge badge = new LearningBadge();
+        badge.setId(id);
+        badge.setName("badge-" + id);
+        badge.setBadgeType(type);
+        badge.setRequiredValue(requiredValue);
+        badge.setSpaceId(spaceId);
+        badge.setIsActive(true);
+        badges.put(id, badge);
+    }
+
+    private List<Long> earnedIds(UUID userId) {
+        return earned.stream()
+                .filter(userBadge -> userBadge.getUserId().equals(userId))
+                .map(userBadge -> userBadge.getBadge().getId())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("現在値以下の必要値を持つバッジを共通・指定空間からまとめて付与し、他空間や他タイプは対象外")
+    void award_shouldGrantEveryReachedThresholdInOneBatch() {
+        List<LearningUserBadge> awarded = badgeService.awardBadgesIfEligible(USER, SPACE, BadgeType.POINTS, 600);
+
+        assertThat(awarded).extracting(userBadge -> userBadge.getBadge().getId())
+                .containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(awarded).allSatisfy(userBadge -> assertThat(userBadge.getEarnedValue()).isEqualTo(600));
+        verify(userBadgeRepository, times(1)).saveAll(anyCollection());
+        verify(badgeRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("新たに獲得するバッジがない評価では DB を参照しない")
+    void award_shouldNotTouchDatabaseWhenNothingNew() {
+        badgeService.awardBadgesIfEligible(USER, SPACE, BadgeType.POINTS, 600);
+        clearInvocations(badgeRepository, userBadgeRepository);
+
+        for (int value = 0; value < 1000; value++) {
+            assertThat(badgeService.awardBadgesIfEligible(USER, SPACE, BadgeType.POINTS, value)).isEmpty();
+        }
+        assertThat(badgeService.awardBadgesIfEligible(USER, null, BadgeType.QUIZ, 0)).isEmpty();
+
+        verifyNoInteractions(badgeRepository, userBadgeRepository);
+    }
+
+    @Test
+    @DisplayName("他ノードで付与済みのバッジは DB 確認で除外され、重複して付与されない")
+    void award_shouldSkipBadgesEarnedElsewhere() {
+        badgeService.awardBadgesIfEligible(USER, SPACE, BadgeType.POINTS, 150);
+        // キャッシュを経由しない付与（他ノード相当）
+        earned.add(new LearningUserBadge(USER, badges.get(2L), 500, "other node"));
+
+        List<LearningUserBadge> awarded = badgeService.awardBadgesIfEligible(USER, SPACE, BadgeType.POINTS, 1200);
+
+        assertThat(awarded).extracting(userBadge -> userBadge.getBadge().getId())
+                .containsExactlyInAnyOrder(3L, 4L);
+        assertThat(earnedIds(USER)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("バッジの作成・更新・無効化は条件インデックスに即時反映される")
+    void badgeChanges_shouldRefreshIndex() {
+        badgeService.awardBadgesIfEligible(USER, SPACE, BadgeType.POINTS, 100);
+
+        LearningBadgeDto created = new LearningBadgeDto();
+        created.setName("new");
+        created.setBadgeType(BadgeType.POINTS);
+        created.setRequiredValue(50);
+        Long createdId = badgeService.createBadge(created).getId();
+
+        LearningBadgeDto lowered = new LearningBadgeDto();
+        lowered.setName("badge-3");
+        lowered.setBadgeType(BadgeType.POINTS);
+        lowered.setRequiredValue(100);
+        lowered.setIsActive(true);
+        badgeService.updateBadge(3L, lowered);
+        badgeService.deleteBadge(2L);
+
+        assertThat(ruleIndex.reachable(BadgeType.POINTS, null, 10_000))
+                .extracting(BadgeRuleIndex.Rule::badgeId)
+                .containsExactly(createdId, 1L, 3L);
+        assertThat(badgeService.awardBadgesIfEligible(USER, SPACE, BadgeType.POINTS, 120))
+                .extracting(userBadge -> userBadge.getBadge().getId())
+                .containsExactlyInAnyOrder(createdId, 3L);
+        verify(badgeRepository, times(1)).findByIsActiveTrue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.sfr.tokyo.sfr_backend.service.learning.catalog;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSubscriptionPlan;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSubscriptionPlan.TierLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * カタログスナップショットの絞り込みと入れ替えのテスト
+ */
+class CatalogSnapshotTest {
+
+    private static LearningSubscriptionPlan plan(long id, TierLevel tier, String monthlyFee, Integer maxUsers,
+            boolean trial, int sortOrder) {
+        LearningSubscriptionPlan plan = new LearningSubscriptionPlan();
+        plan.setId(id);
+        plan.setName("plan-" + id);
+        plan.setTierLevel(tier);
+        plan.setMonthlyFee(new BigDecimal(monthlyFee));
+        plan.setMaxUsers(maxUsers);
+        plan.setHasTrial(trial);
+        plan.setIsRecommended(id % 2 == 0);
+        plan.setSortOrder(sortOrder);
+        return plan;
+    }
+
+    private static List<LearningSubscriptionPlan> plans() {
+        return List.of(
+                plan(1, TierLevel.FREE, "0", 1, false, 1),
+                plan(2, TierLevel.BASIC, "980", 3, true, 2),
+                plan(3, TierLevel.STANDARD, "1980", 10, true, 3),
+                plan(4, TierLevel.PREMIUM, "4980", null, true, 4),
+                plan(5, TierLevel.BUSINESS, "19800", 100, false, 5),
+                plan(6, TierLevel.STUDENT, "480", 1, true, 6));
+    }
+
+    private static CatalogSnapshot<LearningSubscriptionPlan> snapshot(List<LearningSubscriptionPlan> plans,
+            long version) {
+        return CatalogSnapshot.builder(plans)
+                .index(SubscriptionPlanCatalog.TIER, LearningSubscriptionPlan::getTierLevel)
+                .index(SubscriptionPlanCatalog.HAS_TRIAL, LearningSubscriptionPlan::getHasTrial)
+                .flag(SubscriptionPlanCatalog.RECOMMENDED, plan -> Boolean.TRUE.equals(plan.getIsRecommended()))
+                .range(SubscriptionPlanCatalog.MONTHLY_FEE, LearningSubscriptionPlan::getMonthlyFee)
+                .range(SubscriptionPlanCatalog.MAX_USERS, LearningSubscriptionPlan::getMaxUsers)
+                .build(version, LearningSubscriptionPlan::toString);
+    }
+
+    private static List<Long> ids(List<LearningSubscriptionPlan> plans) {
+        return plans.stream().map(LearningSubscriptionPlan::getId).toList();
+    }
+
+    @Test
+    @DisplayName("属性条件と範囲条件を組み合わせると、すべてを満たす要素が基準順で返る")
+    void select_shouldCombineBitmapsAndRanges() {
+        CatalogSnapshot<LearningSubscriptionPlan> snapshot = snapshot(plans(), 1);
+
+        List<Long> matched = ids(snapshot.select()
+                .eq(SubscriptionPlanCatalog.HAS_TRIAL, true)
+                .between(SubscriptionPlanCatalog.MONTHLY_FEE, new BigDecimal("480"), new BigDecimal("1980"))
+                .list());
+
+        assertThat(matched).containsExactly(2L, 3L, 6L);
+        assertThat(ids(snapshot.select().is(SubscriptionPlanCatalog.RECOMMENDED)
+                .in(SubscriptionPlanCatalog.TIER, EnumSet.of(TierLevel.BASIC, TierLevel.PREMIUM, TierLevel.BUSINESS))
+                .list())).containsExactly(2L, 4L);
+        assertThat(snapshot.select().eq(SubscriptionPlanCatalog.TIER, TierLevel.ENTERPRISE).count()).isZero();
+    }
+
+    @Test
+    @DisplayName("範囲条件は両端を含み、値が未設定の要素は atLeastOrUnset でのみ無制限として含まれる")
+    void ranges_shouldTreatUnsetValuesAsUnlimitedOnlyWhenAsked() {
+        CatalogSnapshot<LearningSubscriptionPlan> snapshot = snapshot(plans(), 1);
+
+        assertThat(ids(snapshot.select().between(SubscriptionPlanCatalog.MAX_USERS, new BigDecimal("3"), null).list()))
+                .containsExactly(2L, 3L, 5L);
+        assertThat(ids(snapshot.select().atLeastOrUnset(SubscriptionPlanCatalog.MAX_USERS, new BigDecimal("3"))
+                .list())).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(ids(snapshot.select().between(SubscriptionPlanCatalog.MONTHLY_FEE, null, new BigDecimal("980"))
+                .list(SubscriptionPlanCatalog.BY_MONTHLY_FEE))).containsExactly(1L, 6L, 2L);
+    }
+
+    @Test
+    @DisplayName("ETag は内容だけで決まり、版が違っても同じ内容なら一致する")
+    void etag_shouldDependOnContentOnly() {
+        String first = snapshot(plans(), 1).etag();
+        String reloaded = snapshot(plans(), 7).etag();
+
+        List<LearningSubscriptionPlan> changed = new ArrayList<>(plans());
+        changed.get(2).setMonthlyFee(new BigDecimal("2180"));
+
+        assertThat(reloaded).isEqualTo(first).startsWith("\"").endsWith("\"");
+        assertThat(snapshot(changed, 2).etag()).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("読み直した内容が変わった場合だけスナップショットを差し替えて版を進める")
+    void holder_shouldSwapOnlyWhenContentChanges() {
+        AtomicInteger loads = new AtomicInteger();
+        List<LearningSubscriptionPlan> source = new ArrayList<>(plans());
+        CatalogHolder<LearningSubscriptionPlan> holder = new CatalogHolder<>("test", () -> {
+            loads.incrementAndGet();
+            return List.copyOf(source);
+        }, CatalogSnapshotTest::snapshot);
+
+        CatalogSnapshot<LearningSubscriptionPlan> first = holder.current();
+        assertThat(holder.current()).isSameAs(first);
+        assertThat(holder.reload()).isSameAs(first);
+
+        source.remove(0);
+        CatalogSnapshot<LearningSubscriptionPlan> second = holder.reload();
+
+        assertThat(loads).hasValue(3);
+        assertThat(second.version()).isEqualTo(first.version() + 1);
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(ids(holder.current().select().list())).doesNotContain(1L);
+        // 差し替え前に取り出したスナップショットは変わらない
+        assertThat(first.size()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("索引していない属性を指定すると例外になる")
+    void select_shouldRejectUnknownAttribute() {
+        CatalogSnapshot<LearningSubscriptionPlan> snapshot = snapshot(plans(), 1);
+
+        assertThatThrownBy(() -> snapshot.select().is("unknown")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,270 @@
+package com.sfr.tokyo.sfr_backend.service.learning.comment;
+
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningCommentDto;
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningCommentNodeDto;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningComment;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningCommentRepository;
+import com.sfr.tokyo.sfr_backend.repository.projection.LearningCommentTreeRow;
+import com.sfr.tokyo.sfr_backend.service.learning.LearningCommentService;
+import com.sfr.tokyo.sfr_backend.service.search.SearchIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * スレッドパスによる学習コメントツリー取得のテスト
+ * learning_comment テーブルはインメモリの Map で代替し、範囲検索は文字列比較で再現する
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LearningCommentThreadTest {
+
+    private static final Long TOPIC = 1L;
+    private static final UUID AUTHOR = UUID.randomUUID();
+
+    @Mock
+    private LearningCommentRepository commentRepository;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    private final Map<Long, LearningComment> table = new ConcurrentHashMap<>();
+    // 採番の桁上がり（36進数で1桁 → 2桁）をまたぐように 30 から始める
+    private final AtomicLong ids = new AtomicLong(30);
+
+    private LearningCommentService service;
+
+    @BeforeEach
+    void setUp() {
+        when(commentRepository.save(any())).thenAnswer(inv -> persist(inv.getArgument(0)));
+        when(commentRepository.saveAndFlush(any())).thenAnswer(inv -> persist(inv.getArgument(0)));
+        when(commentRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(table.get(inv.getArgument(0))));
+        when(commentRepository.findTopLevelThreadPaths(anyLong(), any())).thenAnswer(inv -> {
+            Pageable pageable = inv.getArgument(1);
+            List<String> paths = table.values().stream()
+                    .filter(c -> c.getTopicId().equals(inv.getArgument(0)) && c.getParentCommentId() == null
+                            && c.getThreadPath() != null && c.getDeletedAt() == null)
+                    .map(LearningComment::getThreadPath)
+                    .sorted()
+                    .toList();
+            int from = (int) Math.min(pageable.getOffset(), paths.size());
+            int to = Math.min(from + pageable.getPageSize(), paths.size());
+            return new PageImpl<>(paths.subList(from, to), pageable, paths.size());
+        });
+        when(commentRepository.existsWithoutThreadPath(anyLong())).thenAnswer(inv -> table.values().stream()
+                .anyMatch(c -> c.getTopicId().equals(inv.getArgument(0)) && c.getThreadPath() == null
+                        && c.getDeletedAt() == null));
+        when(commentRepository.findTopLevelByTopicId(anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            Pageable pageable = inv.getArgument(1);
+            List<LearningComment> roots = table.values().stream()
+                    .filter(c -> c.getTopicId().equals(inv.getArgument(0)) && c.getParentCommentId() == null
+                            && c.getDeletedAt() == null)
+                    .sorted(Comparator.comparing(LearningComment::getId))
+                    .toList();
+            int from = (int) Math.min(pageable.getOffset(), roots.size());
+            int to = Math.min(from + pageable.getPageSize(), roots.size());
+            return new PageImpl<>(roots.subList(from, to), pageable, roots.size());
+        });
+        when(commentRepository.findRepliesByParentId(anyLong())).thenAnswer(inv -> table.values().stream()
+                .filter(c -> inv.getArgument(0).equals(c.getParentCommentId()) && c.getDeletedAt() == null)
+                .sorted(Comparator.comparing(LearningComment::getId))
+                .toList());
+        when(commentRepository.findThreadRows(anyLong(), anyString(), anyString())).thenAnswer(inv -> {
+            String from = inv.getArgument(1);
+            String to = inv.getArgument(2);
+            return table.values().stream()
+                    .filter(c -> c.getTopicId().equals(inv.getArgument(0)) && c.getDeletedAt() == null
+                            && c.getThreadPath() != null && c.getThreadPath().compareTo(from) >= 0
+                            && c.getThreadPath().compareTo(to) < 0)
+                    .sorted(Comparator.comparing(LearningComment::getThreadPath))
+                    .map(LearningCommentThreadTest::row)
+                    .toList();
+        });
+        when(commentRepository.moveThreadSubtree(anyLong(), anyString(), anyString(), anyInt(), anyString(), anyLong(),
+                anyInt(), any())).thenAnswer(inv -> {
+                    String from = inv.getArgument(1);
+                    String to = inv.getArgument(2);
+                    int prefixLength = inv.getArgument(3);
+                    String newPrefix = inv.getArgument(4);
+                    int moved = 0;
+                    for (LearningComment c : table.values()) {
+                        if (c.getThreadPath().compareTo(from) >= 0 && c.getThreadPath().compareTo(to) < 0) {
+                            c.setThreadPath(newPrefix + c.getThreadPath().substring(prefixLength));
+                            c.setRootCommentId(inv.getArgument(5));
+                            c.setDepthLevel(c.getDepthLevel() + (int) inv.getArgument(6));
+                            moved++;
+                        }
+                    }
+                    return moved;
+                });
+
+        service = new LearningCommentService(commentRepository, searchIndexService);
+    }
+
+    private LearningComment persist(LearningComment comment) {
+        if (comment.getId() == null) {
+            comment.setId(ids.incrementAndGet());
+        }
+        table.put(comment.getId(), comment);
+        return comment;
+    }
+
+    private static LearningCommentTreeRow row(LearningComment c) {
+        return new LearningCommentTreeRow(c.getId(), c.getParentCommentId(), c.getThreadPath(), c.getAuthorId(),
+                c.getContent(), c.getCommentType(), c.getCommentStatus(), c.getLikeCount(), c.getIsBestAnswer(),
+                c.getIsSolution(), c.getIsPinned(), c.getDepthLevel(), c.getCreatedAt(), c.getUpdatedAt());
+    }
+
+    private Long post(Long parentId) {
+        LearningCommentDto dto = new LearningCommentDto();
+        dto.setTopicId(TOPIC);
+        dto.setAuthorId(AUTHOR);
+        dto.setParentCommentId(parentId);
+        service.createComment(dto);
+        return ids.get();
+    }
+
+    private static List<Long> ids(List<LearningCommentNodeDto> nodes) {
+        return nodes.stream().map(LearningCommentNodeDto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("入れ子の返信を含むスレッド全体を範囲検索1回で取得し、作成順のツリーに組み立てる")
+    void thread_shouldLoadWholeTreeInOneRangeQuery() {
+        Long first = post(null);
+        Long second = post(null);
+        Long reply = post(first);
+        Long nested = post(reply);
+        Long deeper = post(nested);
+        Long secondReply = post(first);
+        Long otherReply = post(second);
+
+        Page<LearningCommentNodeDto> page = service.getCommentThread(TOPIC, PageRequest.of(0, 20));
+
+        assertThat(ids(page.getContent())).containsExactly(first, second);
+        LearningCommentNodeDto firstNode = page.getContent().get(0);
+        assertThat(ids(firstNode.getReplies())).containsExactly(reply, secondReply);
+        assertThat(ids(firstNode.getReplies().get(0).getReplies())).containsExactly(nested);
+        assertThat(ids(firstNode.getReplies().get(0).getReplies().get(0).getReplies())).containsExactly(deeper);
+        assertThat(firstNode.getReplies().get(0).getReplies().get(0).getReplies().get(0).getDepthLevel())
+                .isEqualTo(3);
+        assertThat(ids(page.getContent().get(1).getReplies())).containsExactly(otherReply);
+        assertThat(table.get(deeper).getRootCommentId()).isEqualTo(first);
+
+        verify(commentRepository, times(1)).findThreadRows(anyLong(), anyString(), anyString());
+        verify(commentRepository, never()).findRepliesByParentId(anyLong());
+    }
+
+    @Test
+    @DisplayName("ページングはトップレベルコメント単位で、各ページに配下の返信がすべて含まれる")
+    void thread_shouldPageByTopLevelSubtree() {
+        Long a = post(null);
+        post(a);
+        Long b = post(null);
+        Long bReply = post(b);
+        post(bReply);
+        Long c = post(null);
+        Long cReply = post(c);
+
+        Page<LearningCommentNodeDto> first = service.getCommentThread(TOPIC, PageRequest.of(0, 2));
+        Page<LearningCommentNodeDto> second = service.getCommentThread(TOPIC, PageRequest.of(1, 2));
+
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(ids(first.getContent())).containsExactly(a, b);
+        assertThat(ids(first.getContent().get(1).getReplies().get(0).getReplies())).hasSize(1);
+        assertThat(ids(second.getContent())).containsExactly(c);
+        assertThat(ids(second.getContent().get(0).getReplies())).containsExactly(cReply);
+        assertThat(service.getCommentThread(TOPIC, PageRequest.of(2, 2)).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("スレッドパス補完前のコメントが残るトピックはトップレベルと直下の返信で返す")
+    void thread_shouldFallBackToDirectRepliesBeforeBackfill() {
+        Long a = post(null);
+        Long aReply = post(a);
+        Long b = post(null);
+        table.get(b).setThreadPath(null);
+
+        Page<LearningCommentNodeDto> page = service.getCommentThread(TOPIC, PageRequest.of(0, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(ids(page.getContent())).containsExactly(a, b);
+        assertThat(ids(page.getContent().get(0).getReplies())).containsExactly(aReply);
+        verify(commentRepository, never()).findThreadRows(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("部分木の取得では削除済みコメントの配下が除外される")
+    void subtree_shouldSkipDescendantsOfDeletedComments() {
+        Long root = post(null);
+        Long kept = post(root);
+        Long removed = post(root);
+        post(removed);
+        table.get(removed).setDeletedAt(LocalDateTime.now());
+
+        LearningCommentNodeDto subtree = service.getCommentSubtree(root);
+
+        assertThat(subtree.getId()).isEqualTo(root);
+        assertThat(ids(subtree.getReplies())).containsExactly(kept);
+        assertThatThrownBy(() -> service.getCommentSubtree(removed))
+                .isInstanceOf(jakarta.persistence.EntityNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("親を付け替えると配下の経路・ルート・深度がまとめて書き換わり、配下への付け替えは拒否される")
+    void update_shouldMoveWholeSubtree() {
+        Long a = post(null);
+        Long b = post(null);
+        Long child = post(a);
+        Long grandChild = post(child);
+
+        LearningCommentDto move = new LearningCommentDto();
+        move.setTopicId(TOPIC);
+        move.setAuthorId(AUTHOR);
+        move.setParentCommentId(b);
+        service.updateComment(child, move);
+
+        assertThat(table.get(grandChild).getThreadPath()).startsWith(table.get(b).getThreadPath());
+        assertThat(table.get(grandChild).getRootCommentId()).isEqualTo(b);
+        assertThat(table.get(grandChild).getDepthLevel()).isEqualTo(2);
+        Page<LearningCommentNodeDto> page = service.getCommentThread(TOPIC, PageRequest.of(0, 20));
+        assertThat(page.getContent().get(0).getReplies()).isEmpty();
+        assertThat(ids(page.getContent().get(1).getReplies())).containsExactly(child);
+
+        LearningCommentDto cycle = new LearningCommentDto();
+        cycle.setTopicId(TOPIC);
+        cycle.setAuthorId(AUTHOR);
+        cycle.setParentCommentId(grandChild);
+        assertThatThrownBy(() -> service.updateComment(child, cycle))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,212 @@
+package com.sfr.tokyo.sfr_backend.service.learning.progress;
+
+import com.sfr.tokyo.sfr_backend.dto.learning.LearningProgressDto;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningContent;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningProgress;
+import com.sfr.tokyo.sfr_backend.mapper.learning.LearningProgressMapperImpl;
+import com.sfr.tokyo.sfr_backend.repository.UserRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningContentRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningProgressRepository;
+import com.sfr.tokyo.sfr_backend.service.learning.LearningProgressService;
+import com.sfr.tokyo.sfr_backend.user.User;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 学習進捗の心拍バッファのテスト
+ * learning_progress テーブルはインメモリの Map で代替する
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProgressHeartbeatBufferTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID OTHER_USER = UUID.randomUUID();
+    private static final Long VIDEO = 10L;
+    private static final Long ARTICLE = 20L;
+    private static final Long OTHER_SPACE_VIDEO = 30L;
+    private static final Long BROKEN = 99L;
+
+    @Mock
+    private LearningProgressRepository progressRepository;
+
+    @Mock
+    private LearningContentRepository contentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, LearningProgress> table = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private ProgressHeartbeatBuffer buffer;
+    private LearningProgressService service;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.existsById(any())).thenAnswer(inv -> !inv.getArgument(0).equals(OTHER_USER));
+        when(userRepository.getReferenceById(any())).thenAnswer(inv -> User.builder().id(inv.getArgument(0)).build());
+        when(contentRepository.findById(anyLong())).thenAnswer(inv -> {
+            Long id = inv.getArgument(0);
+            return id > 100 ? Optional.empty() : Optional.of(content(id));
+        });
+        when(contentRepository.getReferenceById(anyLong())).thenAnswer(inv -> content(inv.getArgument(0)));
+        when(progressRepository.findByUserIdInAndContentIdIn(anyCollection(), anyCollection())).thenAnswer(inv -> {
+            Collection<UUID> userIds = inv.getArgument(0);
+            Collection<Long> contentIds = inv.getArgument(1);
+            return table.values().stream()
+                    .filter(p -> userIds.contains(p.getUser().getId())
+                            && contentIds.contains(p.getLearningContent().getId()))
+                    .toList();
+        });
+        when(progressRepository.saveAll(anyCollection())).thenAnswer(inv -> {
+            Collection<LearningProgress> rows = inv.getArgument(0);
+            if (rows.stream().anyMatch(p -> p.getLearningContent().getId().equals(BROKEN))) {
+                throw new IllegalStateException("FK violation");
+            }
+            rows.forEach(p -> {
+                p.setId(ids.incrementAndGet());
+                table.put(key(p.getUser().getId(), p.getLearningContent().getId()), p);
+            });
+            return new ArrayList<>(rows);
+        });
+        when(progressRepository.findByUserIdWithContent(any())).thenAnswer(inv -> table.values().stream()
+                .filter(p -> p.getUser().getId().equals(inv.getArgument(0))).toList());
+        when(progressRepository.findByUserIdAndSpaceId(any(), anyLong())).thenAnswer(inv -> table.values().stream()
+                .filter(p -> p.getUser().getId().equals(inv.getArgument(0))
+                        && p.getLearningContent().getSpaceId().equals(inv.getArgument(1)))
+                .toList());
+        when(progressRepository.findByUserIdAndLearningContentId(any(), anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(table.get(key(inv.getArgument(0), inv.getArgument(1)))));
+
+        buffer = new ProgressHeartbeatBuffer(progressRepository, contentRepository, userRepository,
+                transactionManager, 2, 100, 600_000);
+        service = new LearningProgressService(progressRepository, contentRepository, userRepository,
+                new LearningProgressMapperImpl(), buffer);
+    }
+
+    private static LearningContent content(Long id) {
+        LearningContent content = new LearningContent();
+        content.setId(id);
+        content.setTitle("content-" + id);
+        content.setSpaceId(id.equals(OTHER_SPACE_VIDEO) ? 2L : 1L);
+        return content;
+    }
+
+    private static String key(UUID userId, Long contentId) {
+        return userId + ":" + contentId;
+    }
+
+    private static BigDecimal pct(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    @DisplayName("連続する心拍は最大値だけが残り、存在確認はキャッシュされ、反映は1回の upsert になる")
+    void heartbeats_shouldCoalesceAndFlushOnce() {
+        for (String value : List.of("5", "12.5", "30", "25", "31.25")) {
+            buffer.record(USER, VIDEO, pct(value));
+        }
+        buffer.record(USER, ARTICLE, pct("40"));
+
+        assertThat(buffer.getPendingCount()).isEqualTo(2);
+        assertThat(buffer.pendingFor(USER, VIDEO)).get()
+                .extracting(ProgressHeartbeatBuffer.PendingProgress::progressPercent).isEqualTo(pct("31.25"));
+        verify(userRepository, times(1)).existsById(USER);
+        verify(contentRepository, times(1)).findById(VIDEO);
+        assertThat(table).isEmpty();
+
+        assertThat(buffer.flush()).isEqualTo(2);
+
+        assertThat(buffer.getPendingCount()).isZero();
+        assertThat(table.get(key(USER, VIDEO)).getProgressPercent()).isEqualTo(pct("31.25"));
+        assertThat(table.get(key(USER, ARTICLE)).getProgressPercent()).isEqualTo(pct("40"));
+        verify(progressRepository, times(1)).findByUserIdInAndContentIdIn(anyCollection(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("既存の進捗は心拍で戻らず、完了の心拍は即時に反映される")
+    void flush_shouldOnlyRaiseProgressAndFlushCompletionImmediately() {
+        buffer.record(USER, VIDEO, pct("60"));
+        buffer.flush();
+
+        buffer.record(USER, VIDEO, pct("20"));
+        buffer.flush();
+        assertThat(table.get(key(USER, VIDEO)).getProgressPercent()).isEqualTo(pct("60"));
+
+        buffer.record(USER, VIDEO, pct("100"));
+        assertThat(buffer.getPendingCount()).isZero();
+        assertThat(table.get(key(USER, VIDEO)).isCompleted()).isTrue();
+        assertThat(table.get(key(USER, VIDEO)).getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("参照は未反映の心拍を DB の進捗に重ね、まだ行のないコンテンツも返す")
+    void reads_shouldMergeBufferedProgress() {
+        buffer.record(USER, VIDEO, pct("10"));
+        buffer.flush();
+        buffer.record(USER, VIDEO, pct("45"));
+        buffer.record(USER, ARTICLE, pct("5"));
+        buffer.record(USER, OTHER_SPACE_VIDEO, pct("7"));
+
+        List<LearningProgressDto> all = service.getUserProgress(USER);
+        assertThat(all).extracting(LearningProgressDto::getContentId, LearningProgressDto::getProgressPercent)
+                .containsExactlyInAnyOrder(
+                        tuple(VIDEO, pct("45")),
+                        tuple(ARTICLE, pct("5")),
+                        tuple(OTHER_SPACE_VIDEO, pct("7")));
+        assertThat(service.getUserProgressBySpace(USER, 1L)).extracting(LearningProgressDto::getContentId)
+                .containsExactlyInAnyOrder(VIDEO, ARTICLE);
+        assertThat(service.getProgressByUserAndContent(USER, ARTICLE)).get()
+                .extracting(LearningProgressDto::getContentTitle).isEqualTo("content-20");
+        // DB の行は反映まで変わらない
+        assertThat(table.get(key(USER, VIDEO)).getProgressPercent()).isEqualTo(pct("10"));
+    }
+
+    @Test
+    @DisplayName("存在しないユーザー・コンテンツは拒否され、反映できない行は他の行を巻き込まずに捨てられる")
+    void invalidAndFailingHeartbeats_shouldBeIsolated() {
+        assertThatThrownBy(() -> buffer.record(OTHER_USER, VIDEO, pct("10")))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> buffer.record(USER, 500L, pct("10")))
+                .isInstanceOf(EntityNotFoundException.class);
+
+        buffer.record(USER, VIDEO, pct("10"));
+        buffer.record(USER, BROKEN, pct("10"));
+
+        assertThat(buffer.flush()).isEqualTo(1);
+        assertThat(buffer.getPendingCount()).isZero();
+        assertThat(table).containsOnlyKeys(key(USER, VIDEO));
+    }
+}
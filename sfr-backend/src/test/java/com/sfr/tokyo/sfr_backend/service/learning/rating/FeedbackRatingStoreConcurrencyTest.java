@@ -0,0 +1,225 @@
+package com.sfr.tokyo.sfr_backend.service.learning.rating;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.FeedbackCategory;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.FeedbackType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.TargetType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackRatingSummary;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackMonthlyRollupRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRatingSummaryRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+import com.sfr.tokyo.sfr_backend.service.deadline.DeadlineScheduler;
+import com.sfr.tokyo.sfr_backend.service.learning.LearningFeedbackService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * フィードバック評価の事前集計を H2 上の実リポジトリで確かめるテスト
+ *
+ * 差分更新のクエリと、同じ対象・月への最初の評価が並行したときに一意制約違反で作成が失敗しないこと、
+ * 同じフィードバックの削除・拒否が重なっても差分を一度だけ反映することを見る。
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feedback-rating;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("フィードバック評価集計 H2 テスト")
+class FeedbackRatingStoreConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Configuration
+    @EntityScan(basePackages = "com.sfr.tokyo.sfr_backend")
+    @EnableJpaRepositories(basePackageClasses = LearningFeedbackRatingSummaryRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                    LearningFeedbackRatingSummaryRepository.class, LearningFeedbackMonthlyRollupRepository.class,
+                    LearningFeedbackRepository.class }))
+    @Import({ FeedbackRatingStore.class, BatchWriter.class, UpsertWriter.class, LearningFeedbackService.class })
+    static class RatingRepositories {
+    }
+
+    @Autowired
+    private FeedbackRatingStore store;
+
+    @Autowired
+    private LearningFeedbackRatingSummaryRepository summaryRepository;
+
+    @Autowired
+    private LearningFeedbackMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LearningFeedbackRepository feedbackRepository;
+
+    @Autowired
+    private LearningFeedbackService feedbackService;
+
+    @MockitoBean
+    private DeadlineScheduler deadlineScheduler;
+
+    @AfterEach
+    void cleanUp() {
+        feedbackRepository.deleteAllInBatch();
+        summaryRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+    }
+
+    private static FeedbackRatingStore.Contribution contribution(long targetId, int rating) {
+        LearningFeedback feedback = new LearningFeedback(targetId, TargetType.COURSE, null, FeedbackType.POSITIVE,
+                null, "title", rating);
+        feedback.setCreatedAt(LocalDateTime.of(2025, 3, 14, 10, 0));
+        return FeedbackRatingStore.contributionOf(feedback);
+    }
+
+    private LearningFeedbackRatingSummary summaryRow(long targetId) {
+        return summaryRepository.findByTargetTypeAndTargetId(TargetType.COURSE, targetId).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("追加・評価変更・除外の差分が行に加減算される")
+    void apply_shouldAddAndSubtractDeltas() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> store.apply(null, contribution(1L, 4)));
+        tx.executeWithoutResult(status -> store.apply(null, contribution(1L, 2)));
+        tx.executeWithoutResult(status -> store.apply(contribution(1L, 2), contribution(1L, 5)));
+        tx.executeWithoutResult(status -> store.apply(contribution(1L, 4), null));
+
+        LearningFeedbackRatingSummary row = summaryRow(1L);
+        assertThat(row.getFeedbackCount()).isEqualTo(1L);
+        assertThat(row.getRatingSum()).isEqualTo(5L);
+        assertThat(row.getRating2Count()).isZero();
+        assertThat(row.getRating4Count()).isZero();
+        assertThat(row.getRating5Count()).isEqualTo(1L);
+        assertThat(store.summary(TargetType.COURSE, 1L).count()).isEqualTo(1);
+        assertThat(store.countByMonth(LocalDateTime.of(2025, 3, 31, 0, 0)))
+                .singleElement().satisfies(month -> {
+                    assertThat(month[0]).isEqualTo("2025-03");
+                    assertThat(((Number) month[1]).longValue()).isEqualTo(1L);
+                });
+    }
+
+    @Test
+    @DisplayName("同じ対象・月への最初の評価が並行しても全件コミットされ、行は1つずつにまとまる")
+    void apply_shouldAbsorbConcurrentFirstRatings() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int rating = i % 5 + 1;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    tx.executeWithoutResult(status -> store.apply(null, contribution(7L, rating)));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        LearningFeedbackRatingSummary row = summaryRow(7L);
+        assertThat(summaryRepository.count()).isEqualTo(1);
+        assertThat(row.getFeedbackCount()).isEqualTo(THREADS);
+        assertThat(row.getRating1Count() + row.getRating2Count() + row.getRating3Count()
+                + row.getRating4Count() + row.getRating5Count()).isEqualTo(THREADS);
+        assertThat(rollupRepository.count()).isEqualTo(1);
+        assertThat(store.countByFeedbackType()).singleElement().satisfies(type -> {
+            assertThat(type[0]).isEqualTo(FeedbackType.POSITIVE);
+            assertThat(((Number) type[1]).longValue()).isEqualTo(THREADS);
+        });
+        assertThat(store.summary(TargetType.COURSE, 7L).count()).isEqualTo(THREADS);
+    }
+
+    @Test
+    @DisplayName("同じフィードバックの削除・拒否が並行しても、集計からは一度だけ外す")
+    void deleteAndReject_shouldApplyDeltaOnce() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long deletedId = tx.execute(status -> saveRated(9L, 4));
+        Long rejectedId = tx.execute(status -> saveRated(9L, 2));
+        assertThat(summaryRow(9L).getFeedbackCount()).isEqualTo(2L);
+
+        runConcurrently(() -> feedbackService.deleteFeedback(deletedId),
+                () -> feedbackService.rejectFeedback(rejectedId, UUID.randomUUID(), "spam"));
+
+        LearningFeedbackRatingSummary row = summaryRow(9L);
+        assertThat(row.getFeedbackCount()).isZero();
+        assertThat(row.getRatingSum()).isZero();
+        assertThat(row.getRating2Count()).isZero();
+        assertThat(row.getRating4Count()).isZero();
+    }
+
+    private Long saveRated(long targetId, int rating) {
+        LearningFeedback feedback = new LearningFeedback(targetId, TargetType.COURSE, UUID.randomUUID(),
+                FeedbackType.POSITIVE, FeedbackCategory.CONTENT_QUALITY, "title", rating);
+        feedback.setCreatedAt(LocalDateTime.of(2025, 3, 14, 10, 0));
+        LearningFeedback saved = feedbackRepository.save(feedback);
+        store.apply(null, FeedbackRatingStore.contributionOf(saved));
+        return saved.getId();
+    }
+
+    /**
+     * それぞれの操作を THREADS / 操作数 ずつ同時に走らせる
+     */
+    private void runConcurrently(Runnable... actions) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                Runnable action = actions[i % actions.length];
+                results.add(pool.submit(() -> {
+                    start.await();
+                    action.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.sfr.tokyo.sfr_backend.service.learning.rating;
+
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.FeedbackType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.ModerationStatus;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedback.TargetType;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackMonthlyRollup;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningFeedbackRatingSummary;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackMonthlyRollupRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRatingSummaryRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningFeedbackRepository;
+import com.sfr.tokyo.sfr_backend.repository.support.BatchWriter;
+import com.sfr.tokyo.sfr_backend.repository.support.UpsertWriter;
+import com.sfr.tokyo.sfr_backend.service.learning.rating.FeedbackRatingStore.Contribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * フィードバック評価サマリーの差分反映とキャッシュのテスト
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FeedbackRatingStoreTest {
+
+    @Mock
+    private LearningFeedbackRatingSummaryRepository summaryRepository;
+
+    @Mock
+    private LearningFeedbackMonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private LearningFeedbackRepository feedbackRepository;
+
+    @Mock
+    private BatchWriter batchWriter;
+
+    @Mock
+    private UpsertWriter upsertWriter;
+
+    private FeedbackRatingStore store;
+
+    /** upsert で追加された行 */
+    private final List<Object> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        store = new FeedbackRatingStore(summaryRepository, rollupRepository, feedbackRepository, batchWriter,
+                upsertWriter, 2, 600_000);
+        when(upsertWriter.upsert(any(), any())).thenAnswer(inv -> {
+            if (inv.<IntSupplier>getArgument(0).getAsInt() > 0) {
+                return false;
+            }
+            inserted.add(inv.<Supplier<?>>getArgument(1).get());
+            return true;
+        });
+        when(summaryRepository.applyDelta(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), any())).thenReturn(1);
+        when(rollupRepository.applyDelta(anyString(), any(), anyLong(), any())).thenReturn(1);
+    }
+
+    private static LearningFeedback feedback(long targetId, int rating) {
+        LearningFeedback feedback = new LearningFeedback(targetId, TargetType.COURSE, null, FeedbackType.POSITIVE,
+                null, "title", rating);
+        feedback.setCreatedAt(LocalDateTime.of(2025, 3, 14, 10, 0));
+        return feedback;
+    }
+
+    private static LearningFeedbackRatingSummary row(long count, long sum, long... histogram) {
+        return LearningFeedbackRatingSummary.builder()
+                .targetType(TargetType.COURSE).targetId(1L)
+                .feedbackCount(count).ratingSum(sum)
+                .rating1Count(histogram[0]).rating2Count(histogram[1]).rating3Count(histogram[2])
+                .rating4Count(histogram[3]).rating5Count(histogram[4])
+                .updatedAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    @DisplayName("削除済み・拒否済みのフィードバックは集計に寄与しない")
+    void contributionOf_shouldExcludeDeletedAndRejected() {
+        LearningFeedback feedback = feedback(1, 4);
+
+        assertThat(FeedbackRatingStore.contributionOf(feedback))
+                .isEqualTo(new Contribution(TargetType.COURSE, 1L, FeedbackType.POSITIVE, "2025-03", 4));
+        assertThat(FeedbackRatingStore.contributionOf(feedback, ModerationStatus.REJECTED)).isNull();
+
+        feedback.setDeletedAt(LocalDateTime.now());
+        assertThat(FeedbackRatingStore.contributionOf(feedback)).isNull();
+    }
+
+    @Test
+    @DisplayName("同じ対象内の評価変更は1回の差分更新にまとめ、月別件数は変えない")
+    void apply_shouldCombineRatingChangeForSameTarget() {
+        Contribution before = FeedbackRatingStore.contributionOf(feedback(1, 2));
+        Contribution after = FeedbackRatingStore.contributionOf(feedback(1, 5));
+
+        store.apply(before, after);
+
+        verify(summaryRepository, times(1)).applyDelta(eq(TargetType.COURSE), eq(1L), eq(0L), eq(3L),
+                eq(0L), eq(-1L), eq(0L), eq(0L), eq(1L), any());
+        verify(rollupRepository, never()).applyDelta(anyString(), any(), anyLong(), any());
+        store.apply(after, after);
+        verify(summaryRepository, times(1)).applyDelta(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("最初の1件ではサマリー行と月別行を追加する")
+    void apply_shouldInsertRowsForFirstFeedback() {
+        when(summaryRepository.applyDelta(any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), any())).thenReturn(0);
+        when(rollupRepository.applyDelta(anyString(), any(), anyLong(), any())).thenReturn(0);
+
+        store.apply(null, FeedbackRatingStore.contributionOf(feedback(7, 3)));
+
+        assertThat(inserted).hasSize(2);
+        assertThat(inserted.get(0)).isInstanceOfSatisfying(LearningFeedbackRatingSummary.class, summary -> {
+            assertThat(summary.getTargetId()).isEqualTo(7L);
+            assertThat(summary.getFeedbackCount()).isEqualTo(1L);
+            assertThat(summary.getRatingSum()).isEqualTo(3L);
+            assertThat(summary.getRating3Count()).isEqualTo(1L);
+        });
+        assertThat(inserted.get(1)).isInstanceOfSatisfying(LearningFeedbackMonthlyRollup.class, rollup -> {
+            assertThat(rollup.getPeriodMonth()).isEqualTo("2025-03");
+            assertThat(rollup.getFeedbackCount()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("キャッシュ済みのサマリーは変更がコミットされるまで DB を読み直さず、コミット後に読み直す")
+    void summary_shouldReloadAfterCommittedChange() {
+        when(summaryRepository.findByTargetTypeAndTargetId(TargetType.COURSE, 1L))
+                .thenReturn(Optional.of(row(3, 11, 0, 0, 1, 1, 1)), Optional.of(row(2, 6, 0, 0, 1, 1, 0)));
+
+        assertThat(store.summary(TargetType.COURSE, 1L).average()).isEqualByComparingTo("3.67");
+        assertThat(store.summary(TargetType.COURSE, 1L).count()).isEqualTo(3);
+
+        store.apply(FeedbackRatingStore.contributionOf(feedback(1, 5)), null);
+        RatingSummary summary = store.summary(TargetType.COURSE, 1L);
+
+        verify(summaryRepository, times(2)).findByTargetTypeAndTargetId(TargetType.COURSE, 1L);
+        verify(rollupRepository).applyDelta(eq("2025-03"), eq(FeedbackType.POSITIVE), eq(-1L), any());
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.average()).isEqualByComparingTo(new BigDecimal("3.00"));
+        assertThat(summary.distribution()).extracting(r -> r[0]).containsExactly(3, 4);
+    }
+
+    @Test
+    @DisplayName("読み込み中にコミットされた変更があれば、その読み込み結果はキャッシュしない")
+    void summary_shouldNotCacheValueLoadedBeforeConcurrentCommit() {
+        when(summaryRepository.findByTargetTypeAndTargetId(TargetType.COURSE, 1L))
+                .thenAnswer(inv -> {
+                    // 読み込み中に別のトランザクションが評価を追加してコミットした
+                    store.apply(null, FeedbackRatingStore.contributionOf(feedback(1, 5)));
+                    return Optional.of(row(3, 11, 0, 0, 1, 1, 1));
+                })
+                .thenReturn(Optional.of(row(4, 16, 0, 0, 1, 1, 2)));
+
+        assertThat(store.summary(TargetType.COURSE, 1L).count()).isEqualTo(3);
+        assertThat(store.summary(TargetType.COURSE, 1L).count()).isEqualTo(4);
+        assertThat(store.summary(TargetType.COURSE, 1L).count()).isEqualTo(4);
+
+        verify(summaryRepository, times(2)).findByTargetTypeAndTargetId(TargetType.COURSE, 1L);
+    }
+
+    @Test
+    @DisplayName("キャッシュは上限件数を超えると最も古く参照された対象から外す")
+    void summary_shouldEvictLeastRecentlyUsedTarget() {
+        when(summaryRepository.findByTargetTypeAndTargetId(any(), anyLong())).thenReturn(Optional.empty());
+
+        store.summary(TargetType.COURSE, 1L);
+        store.summary(TargetType.COURSE, 2L);
+        store.summary(TargetType.COURSE, 1L);
+        store.summary(TargetType.COURSE, 3L);
+        store.summary(TargetType.COURSE, 1L);
+        store.summary(TargetType.COURSE, 2L);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.summary(TargetType.COURSE, 9L)).isSameAs(RatingSummary.EMPTY);
+        verify(summaryRepository, times(1)).findByTargetTypeAndTargetId(TargetType.COURSE, 1L);
+        verify(summaryRepository, times(2)).findByTargetTypeAndTargetId(TargetType.COURSE, 2L);
+    }
+}
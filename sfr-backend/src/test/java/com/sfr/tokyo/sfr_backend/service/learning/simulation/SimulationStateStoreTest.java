@@ -0,0 +1,183 @@
+package com.sfr.tokyo.sfr_backend.service.learning.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulationStateDelta;
+import com.sfr.tokyo.sfr_backend.entity.learning.LearningSimulationStateDelta.Channel;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningSimulationRepository;
+import com.sfr.tokyo.sfr_backend.repository.learning.LearningSimulationStateDeltaRepository;
+import com.sfr.tokyo.sfr_backend.service.learning.simulation.SimulationStateStore.Draft;
+import com.sfr.tokyo.sfr_backend.service.learning.simulation.SimulationStateStore.Snapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * シミュレーション状態の差分保存と JSON Patch のテスト
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SimulationStateStoreTest {
+
+    @Mock
+    private LearningSimulationStateDeltaRepository deltaRepository;
+
+    @Mock
+    private LearningSimulationRepository simulationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimulationStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new SimulationStateStore(deltaRepository, simulationRepository, objectMapper, transactionManager,
+                3, 600_000, 300_000);
+    }
+
+    private JsonNode json(String text) throws Exception {
+        return objectMapper.readTree(text);
+    }
+
+    private static LearningSimulationStateDelta delta(long simulationId, long seq, String patch) {
+        return LearningSimulationStateDelta.builder()
+                .simulationId(simulationId).channel(Channel.STATE).seq(seq).patch(patch)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("差分を適用すると変更後の文書に戻る")
+    void diffAndApplyRoundTrip() throws Exception {
+        String notes = "\"" + "n".repeat(200) + "\"";
+        JsonNode from = json("{\"score\":10,\"answers\":[1,2],\"meta\":{\"a/b\":1,\"keep\":" + notes
+                + ",\"old\":\"x\"}}");
+        JsonNode to = json("{\"score\":12,\"answers\":[1,2,3],\"meta\":{\"a/b\":2,\"keep\":" + notes
+                + "},\"done\":false}");
+
+        JsonNode patch = JsonPatch.diff(from, to);
+
+        assertThat(JsonPatch.apply(from.deepCopy(), patch)).isEqualTo(to);
+        assertThat(patch.toString()).doesNotContain("\"keep\"");
+        assertThat(JsonPatch.diff(to, to)).isEmpty();
+        assertThat(JsonPatch.diff(json("{\"a\":1,\"b\":2}"), json("{\"a\":3,\"b\":4}")))
+                .hasSize(1)
+                .first().satisfies(op -> assertThat(op.get("path").asText()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("存在しないパスや失敗した test 操作は BAD_REQUEST になる")
+    void rejectsInvalidPatch() throws Exception {
+        JsonNode doc = json("{\"score\":1}");
+
+        assertThatThrownBy(() -> JsonPatch.apply(doc, json("[{\"op\":\"replace\",\"path\":\"/missing\",\"value\":1}]")))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> JsonPatch.apply(doc, json("[{\"op\":\"test\",\"path\":\"/score\",\"value\":2}]")))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("スナップショット以降の差分を順に適用して現在の文書を組み立てる")
+    void openAppliesPendingDeltas() {
+        when(deltaRepository.findAfter(1L, Channel.STATE, 2L)).thenReturn(List.of(
+                delta(1L, 3L, "[{\"op\":\"replace\",\"path\":\"/step\",\"value\":2}]"),
+                delta(1L, 4L, "[{\"op\":\"add\",\"path\":\"/log/-\",\"value\":\"b\"}]")));
+
+        Draft draft = store.open(new Snapshot(1L, Channel.STATE, "{\"step\":1,\"log\":[\"a\"]}", 2L));
+
+        assertThat(store.write(draft.document())).isEqualTo("{\"step\":2,\"log\":[\"a\",\"b\"]}");
+        assertThat(draft.version()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("1リクエスト内の複数の変更は1件の差分として追記する")
+    void commitAppendsOneDeltaPerRequest() throws Exception {
+        Draft draft = store.open(new Snapshot(1L, Channel.STATE, "{\"step\":1}", 0L));
+
+        store.patch(draft, json("[{\"op\":\"replace\",\"path\":\"/step\",\"value\":2}]"));
+        store.replace(draft, "{\"step\":2,\"answer\":\"A\"}");
+        store.patch(draft, json("[{\"op\":\"replace\",\"path\":\"/answer\",\"value\":\"B\"}]"));
+        long version = store.commit(draft);
+
+        ArgumentCaptor<LearningSimulationStateDelta> saved = ArgumentCaptor.forClass(LearningSimulationStateDelta.class);
+        verify(deltaRepository).saveAndFlush(saved.capture());
+        assertThat(version).isEqualTo(1L);
+        assertThat(saved.getValue().getSeq()).isEqualTo(1L);
+        assertThat(JsonPatch.apply(json("{\"step\":1}"), json(saved.getValue().getPatch())))
+                .isEqualTo(json("{\"step\":2,\"answer\":\"B\"}"));
+        verify(simulationRepository, never()).compactState(anyLong(), anyString(), anyLong());
+        assertThat(store.commit(draft)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("同じ版へ先に追記されていた場合は CONFLICT を返す")
+    void commitReportsConcurrentUpdateAsConflict() throws Exception {
+        when(deltaRepository.saveAndFlush(any(LearningSimulationStateDelta.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_simulation_state_deltas_seq"));
+        Draft draft = store.open(new Snapshot(1L, Channel.STATE, "{\"step\":1}", 0L));
+        store.patch(draft, json("[{\"op\":\"replace\",\"path\":\"/step\",\"value\":2}]"));
+
+        assertThatThrownBy(() -> store.commit(draft))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("スナップショット以降の差分がしきい値に達するとスナップショットを書き戻す")
+    void compactsAtThreshold() throws Exception {
+        when(deltaRepository.findAfter(1L, Channel.STATE, 0L)).thenReturn(List.of(
+                delta(1L, 1L, "[{\"op\":\"replace\",\"path\":\"/step\",\"value\":2}]"),
+                delta(1L, 2L, "[{\"op\":\"replace\",\"path\":\"/step\",\"value\":3}]")));
+        Draft draft = store.open(new Snapshot(1L, Channel.STATE, "{\"step\":1}", 0L));
+
+        store.patch(draft, json("[{\"op\":\"replace\",\"path\":\"/step\",\"value\":4}]"));
+        store.commit(draft);
+
+        verify(simulationRepository).compactState(1L, "{\"step\":4}", 3L);
+    }
+
+    @Test
+    @DisplayName("複数件の現在の文書を1回の差分取得で組み立てる")
+    void resolveAllReadsDeltasOnce() {
+        when(deltaRepository.findBySimulationIdIn(any(), eq(Channel.STATE))).thenReturn(List.of(
+                delta(1L, 1L, "[{\"op\":\"replace\",\"path\":\"/step\",\"value\":2}]"),
+                delta(2L, 5L, "[{\"op\":\"replace\",\"path\":\"/step\",\"value\":9}]")));
+
+        Map<Long, String> resolved = store.resolveAll(List.of(
+                new Snapshot(1L, Channel.STATE, "{\"step\":1}", 0L),
+                new Snapshot(2L, Channel.STATE, "{\"step\":9}", 5L),
+                new Snapshot(3L, Channel.STATE, null, 0L)));
+
+        assertThat(resolved).containsEntry(1L, "{\"step\":2}")
+                .containsEntry(2L, "{\"step\":9}")
+                .containsEntry(3L, null);
+        verify(deltaRepository).findBySimulationIdIn(any(), eq(Channel.STATE));
+    }
+}
@@ -0,0 +1,152 @@
+package com.sfr.tokyo.sfr_backend.service.ocr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OcrJobServiceTest {
+
+    private OcrJobService service;
+
+    /** 呼び出し毎のバッチサイズを記録するフェイクバックエンド */
+    private static class RecordingBackend extends FakeOcrBackend {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        RecordingBackend(int maxBatchSize) {
+            super(maxBatchSize);
+        }
+
+        @Override
+        public List<OcrText> annotate(List<byte[]> images) {
+            batchSizes.add(images.size());
+            return super.annotate(images);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("同時に投入された画像はバッチにまとめてバックエンドを呼ぶ")
+    void submit_shouldGroupImagesIntoBatches() throws Exception {
+        RecordingBackend backend = new RecordingBackend(4);
+        service = new OcrJobService(backend, 16, 500, 1, 100, 30);
+
+        List<OcrJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            jobs.add(service.submit("user", ("image-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        for (OcrJob job : jobs) {
+            assertThat(job.getText().get(5, TimeUnit.SECONDS)).contains("マイナンバーカード");
+            assertThat(job.getStatus()).isEqualTo(OcrJob.Status.DONE);
+        }
+
+        assertThat(service.getEffectiveBatchSize()).isEqualTo(4);
+        assertThat(backend.batchSizes).allSatisfy(size -> assertThat(size).isBetween(1, 4));
+        assertThat(backend.batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        assertThat(backend.batchSizes.size()).isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("同一内容の画像は既存ジョブを共有しOCRを1回だけ行う")
+    void submit_shouldDeduplicateByContentHash() throws Exception {
+        RecordingBackend backend = new RecordingBackend(16);
+        service = new OcrJobService(backend, 16, 10, 1, 100, 30);
+        byte[] image = "same-card".getBytes(StandardCharsets.UTF_8);
+
+        OcrJob first = service.submit("user", image);
+        OcrJob second = service.submit("user", image.clone());
+        first.getText().get(5, TimeUnit.SECONDS);
+        OcrJob third = service.submit("user", image.clone());
+
+        assertThat(second).isSameAs(first);
+        assertThat(third).isSameAs(first);
+        assertThat(service.getDedupHitCount()).isEqualTo(2);
+        assertThat(backend.batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ジョブIDで状態をポーリングできる")
+    void find_shouldReturnJobById() throws Exception {
+        service = new OcrJobService(new FakeOcrBackend(16), 16, 10, 1, 100, 30);
+
+        OcrJob job = service.submit("user", new byte[] { 1, 2, 3 });
+        job.getText().get(5, TimeUnit.SECONDS);
+
+        assertThat(service.find(job.getId(), "user")).get().extracting(OcrJob::getStatus).isEqualTo(OcrJob.Status.DONE);
+        assertThat(service.find("unknown", "user")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("ジョブは投入したユーザーだけが参照でき、同じ画像を投入したユーザーは共有できる")
+    void find_shouldOnlyReturnJobsSubmittedByOwner() throws Exception {
+        service = new OcrJobService(new FakeOcrBackend(16), 16, 10, 1, 100, 30);
+        byte[] image = "card".getBytes(StandardCharsets.UTF_8);
+
+        OcrJob job = service.submit("alice", image);
+
+        assertThat(service.find(job.getId(), "bob")).isEmpty();
+        assertThat(service.find(job.getId(), null)).isEmpty();
+
+        OcrJob shared = service.submit("bob", image.clone());
+
+        assertThat(shared).isSameAs(job);
+        assertThat(service.find(job.getId(), "bob")).contains(job);
+        assertThat(service.find(job.getId(), "alice")).contains(job);
+    }
+
+    @Test
+    @DisplayName("バックエンド障害時はバッチ内の全ジョブが失敗し、再投入できる")
+    void submit_shouldFailJobsWhenBackendFails() throws Exception {
+        FakeOcrBackend failing = new FakeOcrBackend(16) {
+            @Override
+            public List<OcrText> annotate(List<byte[]> images) {
+                throw new IllegalStateException("quota exceeded");
+            }
+        };
+        service = new OcrJobService(failing, 16, 10, 1, 100, 30);
+        byte[] image = "card".getBytes(StandardCharsets.UTF_8);
+
+        OcrJob job = service.submit("user", image);
+        assertThat(job.getText()).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(job.getStatus()).isEqualTo(OcrJob.Status.FAILED);
+        assertThat(job.getError()).contains("quota exceeded");
+
+        OcrJob retry = service.submit("user", image);
+        assertThat(retry).isNotSameAs(job);
+    }
+
+    @Test
+    @DisplayName("前処理で長辺を縮小しグレースケール化する")
+    void preprocess_shouldDownscaleAndConvertToGrayscale() throws IOException {
+        BufferedImage color = new BufferedImage(4000, 2000, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(color, "png", out);
+
+        BufferedImage processed = ImageIO.read(new ByteArrayInputStream(OcrJobService.preprocess(out.toByteArray())));
+
+        assertThat(processed.getWidth()).isEqualTo(OcrJobService.PREPROCESS_MAX_EDGE);
+        assertThat(processed.getHeight()).isEqualTo(OcrJobService.PREPROCESS_MAX_EDGE / 2);
+        assertThat(processed.getType()).isEqualTo(BufferedImage.TYPE_BYTE_GRAY);
+
+        byte[] notAnImage = "not-an-image".getBytes(StandardCharsets.UTF_8);
+        assertThat(OcrJobService.preprocess(notAnImage)).isSameAs(notAnImage);
+    }
+}
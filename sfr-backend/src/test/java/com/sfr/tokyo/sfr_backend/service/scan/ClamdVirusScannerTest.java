@@ -0,0 +1,198 @@
+package com.sfr.tokyo.sfr_backend.service.scan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * clamd の IDSESSION/INSTREAM プロトコルを話すローカルのスタンドインサーバーに対するテスト
+ */
+class ClamdVirusScannerTest {
+
+    private ServerSocket serverSocket;
+    private ExecutorService serverThreads;
+    private final AtomicInteger acceptedConnections = new AtomicInteger();
+    /** 設定中は応答後に接続を切る（clamd のアイドル切断の代わり） */
+    private final AtomicBoolean dropAfterReply = new AtomicBoolean();
+    private final Semaphore dropped = new Semaphore(0);
+    private ClamdVirusScanner scanner;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        serverThreads = Executors.newCachedThreadPool();
+        serverThreads.submit(this::acceptLoop);
+        scanner = new ClamdVirusScanner("localhost", serverSocket.getLocalPort(), 4, 5000, 1024, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        scanner.close();
+        serverSocket.close();
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("INSTREAMでチャンク送信し、クリーン/検出の判定を受け取る")
+    void scan_shouldReturnVerdictsFromClamd() throws IOException {
+        assertThat(scan("hello world".repeat(500)).isClean()).isTrue();
+
+        ScanVerdict infected = scan("prefix EICAR-STANDARD-ANTIVIRUS-TEST-FILE suffix");
+        assertThat(infected.status()).isEqualTo(ScanVerdict.Status.INFECTED);
+        assertThat(infected.signature()).isEqualTo("Eicar-Test-Signature");
+    }
+
+    @Test
+    @DisplayName("IDSESSION接続をプールして再利用する")
+    void scan_shouldReusePooledConnection() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            assertThat(scan("file-" + i).isClean()).isTrue();
+        }
+        assertThat(acceptedConnections).hasValue(1);
+        assertThat(scanner.getIdleConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("並行スキャンはプールサイズ以内の接続で処理する")
+    void scan_shouldHandleConcurrentSessions() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ScanVerdict>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String content = "concurrent-" + i;
+                futures.add(clients.submit(() -> scan(content)));
+            }
+            for (Future<ScanVerdict> future : futures) {
+                assertThat(future.get().isClean()).isTrue();
+            }
+        } finally {
+            clients.shutdown();
+        }
+        assertThat(acceptedConnections.get()).isBetween(1, 4);
+    }
+
+    @Test
+    @DisplayName("中断したセッションの接続は再利用しない")
+    void abortedSession_shouldDiscardConnection() throws IOException {
+        try (VirusScanner.ScanSession session = scanner.openSession()) {
+            session.write(new byte[] { 1, 2, 3 }, 0, 3);
+        }
+        assertThat(scanner.getIdleConnectionCount()).isZero();
+        assertThat(scan("after-abort").isClean()).isTrue();
+    }
+
+    @Test
+    @DisplayName("プール中にclamd側で切れた接続は捨てて新しい接続でスキャンする")
+    void scan_shouldReconnectWhenPooledConnectionWasDropped() throws Exception {
+        dropAfterReply.set(true);
+        assertThat(scan("first").isClean()).isTrue();
+        assertThat(dropped.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        dropAfterReply.set(false);
+
+        assertThat(scan("second").isClean()).isTrue();
+        assertThat(acceptedConnections).hasValue(2);
+        assertThat(scanner.getIdleConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("clamdの応答形式を解釈する")
+    void parseReply_shouldHandleClamdFormats() {
+        assertThat(ClamdVirusScanner.parseReply("1: stream: OK").isClean()).isTrue();
+        assertThat(ClamdVirusScanner.parseReply("stream: Win.Test.EICAR_HDB-1 FOUND").signature())
+                .isEqualTo("Win.Test.EICAR_HDB-1");
+        assertThat(ClamdVirusScanner.parseReply("INSTREAM size limit exceeded. ERROR").status())
+                .isEqualTo(ScanVerdict.Status.ERROR);
+    }
+
+    private ScanVerdict scan(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+        try (VirusScanner.ScanSession session = scanner.openSession()) {
+            session.write(bytes, 0, bytes.length);
+            return session.finish();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                acceptedConnections.incrementAndGet();
+                serverThreads.submit(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    /** 最小限の clamd スタンドイン: IDSESSION / INSTREAM / END のみ対応 */
+    private void serve(Socket socket) {
+        try (socket; DataInputStream in = new DataInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream()) {
+            int requestId = 0;
+            while (true) {
+                String command = readCommand(in);
+                if (command == null || command.equals("zEND")) {
+                    return;
+                }
+                if (command.equals("zIDSESSION")) {
+                    continue;
+                }
+                if (!command.equals("zINSTREAM")) {
+                    out.write("UNKNOWN COMMAND\0".getBytes(StandardCharsets.US_ASCII));
+                    return;
+                }
+                ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                int length;
+                while ((length = in.readInt()) > 0) {
+                    payload.write(in.readNBytes(length));
+                }
+                requestId++;
+                String body = payload.toString(StandardCharsets.US_ASCII);
+                String reply = body.contains("EICAR-STANDARD-ANTIVIRUS-TEST-FILE")
+                        ? requestId + ": stream: Eicar-Test-Signature FOUND\0"
+                        : requestId + ": stream: OK\0";
+                out.write(reply.getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                if (dropAfterReply.get()) {
+                    socket.close();
+                    dropped.release();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // クライアント切断
+        }
+    }
+
+    private static String readCommand(DataInputStream in) throws IOException {
+        ByteArrayOutputStream command = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != 0) {
+            if (b < 0) {
+                return null;
+            }
+            command.write(b);
+        }
+        return command.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,278 @@
+package com.sfr.tokyo.sfr_backend.service.scan;
+
+import com.sfr.tokyo.sfr_backend.config.UploadScanConfig;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadScanServiceTest {
+
+    private static final String EICAR = "X5O!P%@AP[4\\PZX54(P^)7CC)7}$EICAR-STANDARD-ANTIVIRUS-TEST-FILE!$H+H*";
+
+    @TempDir
+    Path tempDir;
+
+    private Path quarantineDir;
+    private Path uploadDir;
+    private AtomicInteger sessionsOpened;
+    private AtomicInteger scansFinished;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        quarantineDir = tempDir.resolve("quarantine");
+        uploadDir = Files.createDirectories(tempDir.resolve("uploads"));
+        sessionsOpened = new AtomicInteger();
+        scansFinished = new AtomicInteger();
+        clock = new MutableClock();
+    }
+
+    private UploadScanService service(VirusScanner delegate, boolean failOpen) {
+        VirusScanner counting = () -> {
+            sessionsOpened.incrementAndGet();
+            VirusScanner.ScanSession session = delegate.openSession();
+            return new VirusScanner.ScanSession() {
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    session.write(buffer, offset, length);
+                }
+
+                @Override
+                public ScanVerdict finish() throws IOException {
+                    scansFinished.incrementAndGet();
+                    return session.finish();
+                }
+
+                @Override
+                public void close() {
+                    session.close();
+                }
+            };
+        };
+        return new UploadScanService(counting, quarantineDir.toString(), 100, failOpen, 60_000, clock);
+    }
+
+    @Test
+    @DisplayName("クリーンなファイルは保存先へ昇格し隔離領域に残らない")
+    void storeScanned_shouldPromoteCleanFile() throws IOException {
+        UploadScanService service = service(new StubVirusScanner(), false);
+        MockMultipartFile file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[200_000]);
+
+        Path target = uploadDir.resolve("photo.jpg");
+        service.storeScanned(file, target);
+
+        assertThat(target).exists().hasSize(200_000);
+        try (var files = Files.list(quarantineDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("EICARを含むファイルは拒否され保存先にも隔離領域にも残らない")
+    void storeScanned_shouldRejectInfectedFile() {
+        UploadScanService service = service(new StubVirusScanner(), false);
+        MockMultipartFile file = new MockMultipartFile("file", "virus.jpg", "image/jpeg",
+                EICAR.getBytes(StandardCharsets.US_ASCII));
+
+        Path target = uploadDir.resolve("virus.jpg");
+        assertThatThrownBy(() -> service.storeScanned(file, target))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.MALWARE_DETECTED);
+
+        assertThat(target).doesNotExist();
+        assertThat(quarantineDir.toFile().list()).isEmpty();
+        assertThat(service.getInfectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("チャンク境界をまたぐシグネチャも検出する")
+    void stubScanner_shouldDetectSignatureAcrossChunks() throws IOException {
+        byte[] payload = ("padding-" + EICAR).getBytes(StandardCharsets.US_ASCII);
+        try (VirusScanner.ScanSession session = new StubVirusScanner().openSession()) {
+            for (byte b : payload) {
+                session.write(new byte[] { b }, 0, 1);
+            }
+            assertThat(session.finish().status()).isEqualTo(ScanVerdict.Status.INFECTED);
+        }
+    }
+
+    @Test
+    @DisplayName("同一内容の再アップロードはスキャン判定を待たずに中断する")
+    void storeScanned_shouldSkipRescanForDuplicateContent() throws IOException {
+        UploadScanService service = service(new StubVirusScanner(), false);
+        byte[] content = "same-image-bytes".getBytes(StandardCharsets.UTF_8);
+
+        service.storeScanned(new MockMultipartFile("file", "a.png", "image/png", content), uploadDir.resolve("a.png"));
+        service.storeScanned(new MockMultipartFile("file", "b.png", "image/png", content), uploadDir.resolve("b.png"));
+        ScanVerdict verdict = service.scan(new MockMultipartFile("file", "c.png", "image/png", content));
+
+        assertThat(verdict.isClean()).isTrue();
+        assertThat(sessionsOpened).hasValue(3);
+        assertThat(scansFinished).hasValue(1);
+        assertThat(service.getCacheHitCount()).isEqualTo(2);
+        assertThat(uploadDir.resolve("b.png")).exists();
+    }
+
+    @Test
+    @DisplayName("アップロードの入力ストリームは1回だけ開く")
+    void storeScanned_shouldReadUploadOnce() throws IOException {
+        UploadScanService service = service(new StubVirusScanner(), false);
+        AtomicInteger streamsOpened = new AtomicInteger();
+        MockMultipartFile file = new MockMultipartFile("file", "a.png", "image/png", new byte[150_000]) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                streamsOpened.incrementAndGet();
+                return super.getInputStream();
+            }
+        };
+
+        service.storeScanned(file, uploadDir.resolve("a.png"));
+        service.storeScanned(file, uploadDir.resolve("b.png"));
+
+        assertThat(streamsOpened).hasValue(2);
+        assertThat(uploadDir.resolve("b.png")).hasSize(150_000);
+    }
+
+    @Test
+    @DisplayName("クリーン判定は有効期間を過ぎると再スキャンし、感染判定は保持する")
+    void scan_shouldExpireCleanVerdictsOnly() throws IOException {
+        UploadScanService service = service(new StubVirusScanner(), false);
+        byte[] clean = "clean-bytes".getBytes(StandardCharsets.UTF_8);
+        byte[] infected = EICAR.getBytes(StandardCharsets.US_ASCII);
+
+        service.scan(new MockMultipartFile("file", "a.png", "image/png", clean));
+        service.scan(new MockMultipartFile("file", "v.png", "image/png", infected));
+        clock.advance(60_000);
+        ScanVerdict rescanned = service.scan(new MockMultipartFile("file", "a.png", "image/png", clean));
+        ScanVerdict stillInfected = service.scan(new MockMultipartFile("file", "v.png", "image/png", infected));
+
+        assertThat(rescanned.isClean()).isTrue();
+        assertThat(stillInfected.status()).isEqualTo(ScanVerdict.Status.INFECTED);
+        assertThat(scansFinished).hasValue(3);
+        assertThat(service.getCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("隔離ファイルへの書き込みと同じバッファをスキャナへ送る")
+    void storeScanned_shouldScanWhileWriting() throws IOException {
+        List<Long> quarantinedSizes = new ArrayList<>();
+        VirusScanner observing = () -> new VirusScanner.ScanSession() {
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                try (var files = Files.list(quarantineDir)) {
+                    quarantinedSizes.add(files.findFirst().orElseThrow().toFile().length());
+                }
+            }
+
+            @Override
+            public ScanVerdict finish() {
+                return ScanVerdict.clean();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        UploadScanService service = service(observing, false);
+
+        service.storeScanned(new MockMultipartFile("file", "a.png", "image/png", new byte[300_000]),
+                uploadDir.resolve("a.png"));
+
+        // スキャナへ渡した時点では隔離ファイルはまだ書きかけ
+        assertThat(quarantinedSizes).hasSizeGreaterThan(1);
+        assertThat(quarantinedSizes.get(0)).isLessThan(300_000L);
+        assertThat(uploadDir.resolve("a.png")).hasSize(300_000);
+    }
+
+    @Test
+    @DisplayName("未知のスキャンモードでは起動時に失敗する")
+    void virusScanner_shouldFailClosedOnUnknownMode() {
+        UploadScanConfig config = new UploadScanConfig();
+
+        assertThatThrownBy(() -> config.virusScanner("none", "localhost", 3310, 1, 1000, 65536, 1000))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(config.virusScanner("clamd", "localhost", 3310, 1, 1000, 65536, 1000))
+                .isInstanceOf(ClamdVirusScanner.class);
+    }
+
+    @Test
+    @DisplayName("スキャナ障害時は既定で拒否し、判定はキャッシュしない")
+    void storeScanned_shouldFailClosedWhenScannerUnavailable() {
+        VirusScanner unavailable = () -> {
+            throw new IOException("connection refused");
+        };
+        UploadScanService service = service(unavailable, false);
+        MockMultipartFile file = new MockMultipartFile("file", "a.png", "image/png", new byte[10]);
+
+        assertThatThrownBy(() -> service.storeScanned(file, uploadDir.resolve("a.png")))
+                .isInstanceOf(BusinessException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.SCAN_UNAVAILABLE);
+        assertThatThrownBy(() -> service.storeScanned(file, uploadDir.resolve("a.png")))
+                .isInstanceOf(BusinessException.class);
+        assertThat(sessionsOpened).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("fail-open 設定ではスキャナ障害時も保存する")
+    void storeScanned_shouldAcceptWhenFailOpen() throws IOException {
+        VirusScanner unavailable = () -> {
+            throw new IOException("connection refused");
+        };
+        UploadScanService service = service(unavailable, true);
+
+        service.storeScanned(new MockMultipartFile("file", "a.png", "image/png", new byte[10]),
+                uploadDir.resolve("a.png"));
+
+        assertThat(uploadDir.resolve("a.png")).exists();
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis = 1_000_000L;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
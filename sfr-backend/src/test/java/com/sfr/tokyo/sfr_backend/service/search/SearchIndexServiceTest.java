@@ -0,0 +1,200 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SearchIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SearchIndexService(tempDir.toString(), 1000);
+        service.loadSnapshot();
+    }
+
+    private static SearchDocument topic(long id, long forumId, String title, String body, String tags) {
+        return new SearchDocument(SearchDocumentType.TOPIC, id, forumId, null, title, body, tags);
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+
+    @Test
+    @DisplayName("日本語は2-gram、英数字は単語単位で正規化してトークン化する")
+    void tokenize_shouldProduceBigramsForCjk() {
+        assertThat(SearchTokenizer.tokenize("学習フォーラム")).containsExactly("学習", "習フ", "フォ", "ォー", "ーラ", "ラム");
+        assertThat(SearchTokenizer.tokenize("Ｊａｖａ Spring-Boot")).containsExactly("java", "spring", "boot");
+        assertThat(SearchTokenizer.tokenize("本")).containsExactly("本");
+        assertThat(SearchTokenizer.indexTokens("日本語")).containsExactly("日", "本", "語", "日本", "本語");
+    }
+
+    @Test
+    @DisplayName("1文字の日本語クエリは語中の文字にも一致する")
+    void search_shouldMatchSingleCjkCharacter() {
+        service.index(topic(1, 10, "日本語入門", "本文", null));
+        service.index(topic(2, 10, "英語", "文法", null));
+
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "語", null, null))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "門", null, null))).containsExactly(1L);
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "日本", null, null))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("総件数はDBで除外された文書を除いて数える")
+    void page_shouldCountOnlyVisibleHits() {
+        List<SearchHit> hits = List.of(new SearchHit(5, 3.0), new SearchHit(4, 2.0), new SearchHit(3, 1.5),
+                new SearchHit(2, 1.0), new SearchHit(1, 0.5));
+        // 4 は削除済み、2 は非表示
+        List<List<Long>> loaded = new ArrayList<>();
+        Page<Long> page = SearchResults.page(hits, PageRequest.of(0, 2),
+                ids -> ids.stream().filter(id -> id != 4L && id != 2L).toList(),
+                ids -> {
+                    loaded.add(ids);
+                    return ids;
+                }, id -> id, id -> true);
+
+        assertThat(page.getContent()).containsExactly(5L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        // エンティティはページの分だけ読む
+        assertThat(loaded).containsExactly(List.of(5L, 3L));
+    }
+
+    @Test
+    @DisplayName("IDの確認後に除外された文書はページから落とす")
+    void page_shouldDropEntitiesHiddenAfterIdCheck() {
+        List<SearchHit> hits = List.of(new SearchHit(3, 2.0), new SearchHit(2, 1.0), new SearchHit(1, 0.5));
+
+        Page<Long> second = SearchResults.page(hits, PageRequest.of(1, 2), ids -> ids, ids -> ids, id -> id,
+                id -> id != 1L);
+        Page<Long> empty = SearchResults.page(List.of(), PageRequest.of(0, 2), ids -> {
+            throw new AssertionError("no query for empty hits");
+        }, ids -> ids, id -> id, id -> true);
+
+        assertThat(second.getContent()).isEmpty();
+        assertThat(second.getTotalElements()).isEqualTo(3);
+        assertThat(empty.getTotalElements()).isZero();
+    }
+
+    @Test
+    @DisplayName("再構築中にコミットされた登録・削除は差し替え後も残る")
+    void rebuild_shouldReplayChangesMadeDuringRebuild() {
+        service.index(topic(1, 10, "削除予定", "本文", null));
+        service.index(topic(2, 10, "更新前", "本文", null));
+
+        int count = service.rebuild(SearchDocumentType.TOPIC, sink -> {
+            // DB から読んだ時点の内容
+            sink.accept(topic(1, 10, "削除予定", "本文", null));
+            sink.accept(topic(2, 10, "更新前", "本文", null));
+            // 読み込み中に別トランザクションがコミット
+            service.remove(SearchDocumentType.TOPIC, 1);
+            service.index(topic(2, 10, "更新後", "本文", null));
+            service.index(topic(3, 10, "新規", "本文", null));
+        });
+
+        assertThat(count).isEqualTo(2);
+        assertThat(service.search(SearchDocumentType.TOPIC, "削除", null, null)).isEmpty();
+        assertThat(service.search(SearchDocumentType.TOPIC, "更新前", null, null)).isEmpty();
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "更新後", null, null))).containsExactly(2L);
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "新規", null, null))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("後から開始された再構築があれば古い再構築は差し替えない")
+    void rebuild_shouldNotSwapSupersededRebuild() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(topic(1, 10, "現行", "本文", null));
+
+        InvertedIndex.Rebuild stale = index.beginRebuild(SearchDocumentType.TOPIC);
+        stale.add(topic(9, 10, "古い再構築", "本文", null));
+        try (InvertedIndex.Rebuild latest = index.beginRebuild(SearchDocumentType.TOPIC)) {
+            latest.add(topic(1, 10, "現行", "本文", null));
+            assertThat(stale.commit()).isFalse();
+            assertThat(latest.commit()).isTrue();
+        }
+
+        assertThat(index.size(SearchDocumentType.TOPIC)).isEqualTo(1);
+        assertThat(index.search(SearchDocumentType.TOPIC, SearchTokenizer.tokenize("古い"), null, null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("BM25で関連度の高い文書を先に返し、全語を含む文書のみヒットする")
+    void search_shouldRankByBm25WithAndSemantics() {
+        service.index(topic(1, 10, "Java入門", "変数と型について", null));
+        service.index(topic(2, 10, "Spring入門", "Java Java Java のフレームワーク", null));
+        service.index(topic(3, 10, "料理", "レシピ", null));
+
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "java", null, null))).containsExactly(2L, 1L);
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "java 入門", null, null))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "java レシピ", null, null))).isEmpty();
+        assertThat(service.search(SearchDocumentType.TOPIC, "  ", null, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("スコープと言語で絞り込める")
+    void search_shouldFilterByScopeAndLanguage() {
+        service.index(topic(1, 10, "投票", "制度", null));
+        service.index(topic(2, 20, "投票", "制度", null));
+        service.index(new SearchDocument(SearchDocumentType.FAQ, 5, null, "ja", "投票方法", "説明", null));
+        service.index(new SearchDocument(SearchDocumentType.FAQ, 6, null, "en", "投票方法", "description", null));
+
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "投票", 20L, null))).containsExactly(2L);
+        assertThat(ids(service.search(SearchDocumentType.FAQ, "投票", null, "en"))).containsExactly(6L);
+        assertThat(ids(service.search(SearchDocumentType.FORUM, "投票", null, null))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("タグ検索は完全一致のみヒットする")
+    void searchByTag_shouldMatchExactTag() {
+        service.index(topic(1, 10, "a", "b", "java,spring"));
+        service.index(topic(2, 10, "c", "d", "javascript"));
+
+        assertThat(ids(service.searchByTag(SearchDocumentType.TOPIC, "Java", null, null))).containsExactly(1L);
+        assertThat(ids(service.searchByTag(SearchDocumentType.TOPIC, "script", null, null))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("更新で旧内容が置き換わり、削除した文書はヒットしない")
+    void indexAndRemove_shouldReplaceDocuments() {
+        service.index(topic(1, 10, "古いタイトル", "本文", null));
+        service.index(topic(1, 10, "新しいタイトル", "本文", null));
+        assertThat(service.search(SearchDocumentType.TOPIC, "古い", null, null)).isEmpty();
+        assertThat(ids(service.search(SearchDocumentType.TOPIC, "新しい", null, null))).containsExactly(1L);
+
+        service.sync(SearchDocumentType.TOPIC, 1L, null);
+        assertThat(service.search(SearchDocumentType.TOPIC, "新しい", null, null)).isEmpty();
+        assertThat(service.getDocumentCounts()).containsEntry(SearchDocumentType.TOPIC, 0);
+    }
+
+    @Test
+    @DisplayName("スナップショットから再起動時にインデックスを復元する")
+    void flush_shouldPersistSnapshotForRestart() {
+        service.index(topic(1, 10, "学習フォーラム", "本文", "java"));
+        service.index(new SearchDocument(SearchDocumentType.MANIFESTO, 3, null, "ja", "理念", "包摂性", null));
+        service.flush();
+
+        SearchIndexService restarted = new SearchIndexService(tempDir.toString(), 1000);
+        restarted.loadSnapshot();
+
+        assertThat(restarted.isLoadedFromSnapshot()).isTrue();
+        assertThat(ids(restarted.search(SearchDocumentType.TOPIC, "フォーラム", 10L, null))).containsExactly(1L);
+        assertThat(ids(restarted.searchByTag(SearchDocumentType.TOPIC, "java", null, null))).containsExactly(1L);
+        assertThat(ids(restarted.search(SearchDocumentType.MANIFESTO, "包摂", null, "ja"))).containsExactly(3L);
+    }
+}
@@ -0,0 +1,141 @@
+package com.sfr.tokyo.sfr_backend.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * 特徴語ベクトルによる類似文書検索と関心プロファイルのテスト
+ */
+class SimilarityIndexTest {
+
+    private static final UUID USER = UUID.randomUUID();
+
+    @TempDir
+    Path tempDir;
+
+    private SearchIndexService searchIndexService;
+    private InterestProfileService interestProfileService;
+
+    @BeforeEach
+    void setUp() {
+        searchIndexService = new SearchIndexService(tempDir.toString(), 1000);
+        searchIndexService.loadSnapshot();
+        interestProfileService = new InterestProfileService(searchIndexService, tempDir.toString(), 100, 16, 0.5);
+    }
+
+    private void topic(long id, String title, String body, String tags) {
+        searchIndexService.index(new SearchDocument(SearchDocumentType.TOPIC, id, 10L, null, title, body, tags));
+    }
+
+    private void seedTopics() {
+        topic(1, "Spring Boot 入門", "DI コンテナ と トランザクション の 基本", "java,spring");
+        topic(2, "Spring Boot トランザクション", "DI と トランザクション 境界 の 設計", "java,spring");
+        topic(3, "Python データ分析", "pandas で 集計 と 可視化", "python");
+        topic(4, "pandas 集計 テクニック", "groupby と 可視化 の 実例", "python");
+        topic(5, "料理 レシピ", "カレー の 作り方", "cooking");
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+
+    @Test
+    @DisplayName("類似文書は特徴語を多く共有する順に並び、自分自身は含まれない")
+    void similar_shouldRankBySharedTerms() {
+        seedTopics();
+
+        List<Long> related = ids(searchIndexService.similar(SearchDocumentType.TOPIC, 1, null, null, 3));
+
+        assertThat(related).first().isEqualTo(2L);
+        assertThat(related).doesNotContain(1L, 5L);
+        assertThat(ids(searchIndexService.similar(SearchDocumentType.TOPIC, 3, null, null, 1))).containsExactly(4L);
+        assertThat(searchIndexService.similar(SearchDocumentType.TOPIC, 99, null, null, 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("特徴語ベクトルは重みの合計が1に正規化され、更新・削除に追従する")
+    void termVector_shouldFollowIndexUpdates() {
+        seedTopics();
+
+        Map<String, Double> vector = searchIndexService.termVector(SearchDocumentType.TOPIC, 3);
+        assertThat(vector.values().stream().mapToDouble(Double::doubleValue).sum()).isCloseTo(1.0, offset(1e-9));
+        assertThat(vector).containsKey("pandas");
+
+        topic(3, "カレー の 隠し味", "料理 の 実例", "cooking");
+        assertThat(searchIndexService.termVector(SearchDocumentType.TOPIC, 3)).doesNotContainKey("pandas");
+        assertThat(ids(searchIndexService.similar(SearchDocumentType.TOPIC, 3, null, null, 1))).containsExactly(5L);
+
+        searchIndexService.remove(SearchDocumentType.TOPIC, 3);
+        assertThat(searchIndexService.termVector(SearchDocumentType.TOPIC, 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("関心プロファイルは行動のたびに更新され、新しい関心ほど推薦の上位に来る")
+    void recommend_shouldFollowRecentActivity() {
+        seedTopics();
+        assertThat(interestProfileService.recommend(USER, SearchDocumentType.TOPIC, Set.of(), 5)).isEmpty();
+
+        interestProfileService.recordActivity(USER, SearchDocumentType.TOPIC, 1, InterestProfileService.Signal.VIEW);
+        assertThat(ids(interestProfileService.recommend(USER, SearchDocumentType.TOPIC, Set.of(1L), 5)))
+                .first().isEqualTo(2L);
+
+        for (int i = 0; i < 3; i++) {
+            interestProfileService.recordActivity(USER, SearchDocumentType.TOPIC, 3,
+                    InterestProfileService.Signal.COMMENT);
+        }
+        List<Long> recommended = ids(interestProfileService.recommend(USER, SearchDocumentType.TOPIC, Set.of(3L), 5));
+        assertThat(recommended).first().isEqualTo(4L);
+        assertThat(recommended).doesNotContain(3L, 5L);
+        assertThat(interestProfileService.profileOf(USER)).hasSizeLessThanOrEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("関心プロファイルはスナップショットから復元できる")
+    void profiles_shouldSurviveRestart() {
+        seedTopics();
+        interestProfileService.recordActivity(USER, SearchDocumentType.TOPIC, 4, InterestProfileService.Signal.AUTHOR);
+        Map<String, Double> before = interestProfileService.profileOf(USER);
+        interestProfileService.flush();
+
+        InterestProfileService restarted = new InterestProfileService(searchIndexService, tempDir.toString(), 100, 16,
+                0.5);
+        restarted.loadSnapshot();
+
+        assertThat(restarted.profileOf(USER)).isEqualTo(before);
+        assertThat(ids(restarted.recommend(USER, SearchDocumentType.TOPIC, Set.of(4L), 1))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("数千件の文書でも類似検索は即座に返る")
+    void similar_shouldStayFastOnLargerCorpus() {
+        String[] subjects = { "Spring", "Python", "料理", "投票", "翻訳", "音楽", "写真", "旅行" };
+        for (int i = 0; i < 4000; i++) {
+            String subject = subjects[i % subjects.length];
+            topic(i + 1, subject + " の 話題 " + i, subject + " に関する 質問 と 回答 番号" + (i % 97), "tag" + (i % 31));
+        }
+        for (int i = 0; i < 200; i++) {
+            searchIndexService.similar(SearchDocumentType.TOPIC, i + 1, null, null, 10);
+        }
+
+        int runs = 1000;
+        long started = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            assertThat(searchIndexService.similar(SearchDocumentType.TOPIC, (i % 4000) + 1, null, null, 10))
+                    .isNotEmpty();
+        }
+        double averageMillis = (System.nanoTime() - started) / 1_000_000.0 / runs;
+        System.out.printf("similar() average over %d runs on 4000 topics: %.3f ms%n", runs, averageMillis);
+        assertThat(averageMillis).isLessThan(20.0);
+    }
+}
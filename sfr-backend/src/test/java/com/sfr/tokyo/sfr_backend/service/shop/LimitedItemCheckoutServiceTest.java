@@ -0,0 +1,121 @@
+package com.sfr.tokyo.sfr_backend.service.shop;
+
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItem;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemRepository;
+import com.sfr.tokyo.sfr_backend.service.shop.SfrPaymentService.PurchaseRequest;
+import com.sfr.tokyo.sfr_backend.service.shop.SfrPaymentService.PurchaseResult;
+import com.sfr.tokyo.sfr_backend.service.shop.admission.FlashSaleAdmissionQueue;
+import com.sfr.tokyo.sfr_backend.service.shop.inventory.InventoryReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LimitedItemCheckoutServiceTest {
+
+    private static final Long ITEM_ID = 7L;
+    private static final Long RESERVATION_ID = 70L;
+    private static final String BUYER_ID = "buyer";
+
+    @Mock
+    private FlashSaleAdmissionQueue admissionQueue;
+
+    @Mock
+    private InventoryReservationService inventoryReservationService;
+
+    @Mock
+    private SfrPaymentService sfrPaymentService;
+
+    @Mock
+    private LimitedItemRepository limitedItemRepository;
+
+    private LimitedItemCheckoutService checkoutService;
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = new LimitedItemCheckoutService(admissionQueue, inventoryReservationService,
+                sfrPaymentService, limitedItemRepository, 3);
+        when(admissionQueue.consume(eq("ticket"), eq(BUYER_ID), any()))
+                .thenAnswer(inv -> inv.<Function<Long, Object>>getArgument(2).apply(ITEM_ID));
+        when(limitedItemRepository.findById(ITEM_ID)).thenReturn(Optional.of(LimitedItem.builder()
+                .id(ITEM_ID).sellerId("seller").sfrPrice(new BigDecimal("10")).build()));
+        when(inventoryReservationService.reserve(eq(ITEM_ID), eq(BUYER_ID), any(Integer.class)))
+                .thenReturn(LimitedItemReservation.builder().id(RESERVATION_ID).itemId(ITEM_ID).build());
+        when(sfrPaymentService.processPurchase(any())).thenReturn(PurchaseResult.success("購入完了"));
+    }
+
+    @Test
+    @DisplayName("決済後に予約が期限切れで確定できなければ、同じ金額で決済を取り消して失敗を返す")
+    void purchase_shouldRefundWhenConfirmFailsAfterPayment() {
+        doThrow(new BusinessException(ErrorCode.BUSINESS_RULE_VIOLATION, "予約が無効または期限切れです"))
+                .when(inventoryReservationService).confirm(RESERVATION_ID, BUYER_ID);
+
+        PurchaseResult result = checkoutService.purchase("ticket", BUYER_ID, 1L, 2);
+
+        assertThat(result.isSuccess()).isFalse();
+        ArgumentCaptor<PurchaseRequest> refunded = ArgumentCaptor.forClass(PurchaseRequest.class);
+        verify(sfrPaymentService).refundPurchase(refunded.capture());
+        assertThat(refunded.getValue().getBuyerId()).isEqualTo(BUYER_ID);
+        assertThat(refunded.getValue().getSellerId()).isEqualTo("seller");
+        assertThat(refunded.getValue().getTotalPrice()).isEqualByComparingTo("20");
+        verify(inventoryReservationService, never()).release(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("決済の取り消しにも失敗した場合は例外を呼び出し元へ返す")
+    void purchase_shouldPropagateRefundFailure() {
+        doThrow(new BusinessException(ErrorCode.BUSINESS_RULE_VIOLATION, "予約が無効または期限切れです"))
+                .when(inventoryReservationService).confirm(RESERVATION_ID, BUYER_ID);
+        doThrow(new IllegalArgumentException("Insufficient balance"))
+                .when(sfrPaymentService).refundPurchase(any());
+
+        assertThatThrownBy(() -> checkoutService.purchase("ticket", BUYER_ID, 1L, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("確定できれば決済結果をそのまま返し、取り消さない")
+    void purchase_shouldConfirmAfterPayment() {
+        PurchaseResult result = checkoutService.purchase("ticket", BUYER_ID, 1L, 1);
+
+        assertThat(result.isSuccess()).isTrue();
+        verify(inventoryReservationService).confirm(RESERVATION_ID, BUYER_ID);
+        verify(sfrPaymentService, never()).refundPurchase(any());
+    }
+
+    @Test
+    @DisplayName("1チケットあたりの上限を超える数量はチケットを使わずに拒否する")
+    void purchase_shouldRejectQuantityAboveCap() {
+        assertThatThrownBy(() -> checkoutService.purchase("ticket", BUYER_ID, 1L, 4))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.BAD_REQUEST);
+        assertThatThrownBy(() -> checkoutService.purchase("ticket", BUYER_ID, 1L, 0))
+                .isInstanceOf(BusinessException.class);
+
+        verify(admissionQueue, never()).consume(any(), any(), any());
+    }
+}
@@ -145,6 +145,16 @@ class SfrPaymentServiceTest {
         assertEquals(PURCHASE_AMOUNT, validRequest.getTotalPrice());
     }
 
+    @Test
+    void testRefundPurchase_購入者へ全額返金し販売者への支払いを戻す() {
+        // When
+        sfrPaymentService.refundPurchase(validRequest);
+
+        // Then
+        verify(userBalanceService).subtractBalance(SELLER_ID, SPACE_ID, PURCHASE_AMOUNT.multiply(new BigDecimal("0.95")));
+        verify(userBalanceService).addBalance(BUYER_ID, SPACE_ID, PURCHASE_AMOUNT);
+    }
+
     @Test
     void testPurchaseResult_成功結果() {
         // Given & When
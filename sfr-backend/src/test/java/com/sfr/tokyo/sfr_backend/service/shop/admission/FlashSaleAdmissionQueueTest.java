@@ -0,0 +1,181 @@
+package com.sfr.tokyo.sfr_backend.service.shop.admission;
+
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.service.shop.admission.AdmissionTicket.State;
+import com.sfr.tokyo.sfr_backend.service.shop.inventory.InventoryReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FlashSaleAdmissionQueueTest {
+
+    private static final Long ITEM_ID = 1L;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private InventoryReservationService inventoryReservationService;
+
+    private final AtomicInteger stock = new AtomicInteger(100);
+
+    @BeforeEach
+    void setUp() {
+        when(inventoryReservationService.getAvailableStock(ITEM_ID)).thenAnswer(inv -> stock.get());
+    }
+
+    private FlashSaleAdmissionQueue queue(double admitsPerSecond, long windowSeconds, long abandonSeconds) {
+        return new FlashSaleAdmissionQueue(inventoryReservationService, admitsPerSecond, 200, windowSeconds,
+                abandonSeconds, 300, 1000);
+    }
+
+    private static List<AdmissionStatus> joinAll(FlashSaleAdmissionQueue queue, int buyers) {
+        List<AdmissionStatus> joined = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            joined.add(queue.join(ITEM_ID, "buyer-" + i));
+        }
+        return joined;
+    }
+
+    @Test
+    @DisplayName("到着順に設定レートで入場させ、待機順位を返す")
+    void admit_shouldAdmitInFifoOrderAtConfiguredRate() {
+        FlashSaleAdmissionQueue queue = queue(2, 60, 30);
+        List<AdmissionStatus> joined = joinAll(queue, 5);
+        assertThat(joined).extracting(AdmissionStatus::getPosition).containsExactly(1L, 2L, 3L, 4L, 5L);
+
+        assertThat(queue.admit(System.nanoTime() + SECOND)).isEqualTo(2);
+
+        assertThat(queue.status(joined.get(0).getTicketId(), "buyer-0").getState()).isEqualTo(State.ADMITTED);
+        assertThat(queue.status(joined.get(1).getTicketId(), "buyer-1").getAdmissionExpiresAt()).isNotNull();
+        AdmissionStatus third = queue.status(joined.get(2).getTicketId(), "buyer-2");
+        assertThat(third.getState()).isEqualTo(State.WAITING);
+        assertThat(third.getPosition()).isEqualTo(1L);
+        assertThat(third.getEstimatedWaitSeconds()).isEqualTo(1L);
+        assertThat(queue.getWaitingCount()).isEqualTo(3);
+        assertThat(queue.getAdmittedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("入場数は残り在庫を超えず、在庫がすべて予約済みになると待機者と新規参加を拒否する")
+    void admit_shouldBoundByStockAndRejectWhenFullyReserved() {
+        FlashSaleAdmissionQueue queue = queue(100, 60, 30);
+        stock.set(3);
+        List<AdmissionStatus> joined = joinAll(queue, 10);
+
+        assertThat(queue.admit(System.nanoTime() + SECOND)).isEqualTo(3);
+        assertThat(queue.admit(System.nanoTime() + 2 * SECOND)).isZero();
+
+        // 入場者が購入して在庫を予約
+        Long purchased = queue.consume(joined.get(0).getTicketId(), "buyer-0", itemId -> {
+            stock.set(2);
+            return itemId;
+        });
+        assertThat(purchased).isEqualTo(ITEM_ID);
+        assertThat(queue.admit(System.nanoTime() + 3 * SECOND)).isZero();
+
+        stock.set(0);
+        queue.admit(System.nanoTime() + 4 * SECOND);
+        AdmissionStatus rejected = queue.status(joined.get(9).getTicketId(), "buyer-9");
+        assertThat(rejected.getState()).isEqualTo(State.REJECTED);
+        assertThat(rejected.getMessage()).isEqualTo("在庫がすべて予約済みです");
+        assertThat(queue.getWaitingCount()).isZero();
+        assertThatThrownBy(() -> queue.join(ITEM_ID, "late"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.OUT_OF_STOCK);
+    }
+
+    @Test
+    @DisplayName("同じ購入者の再参加は同じチケットを返し、未入場・使用済み・他人のチケットは購入に使えない")
+    void consume_shouldRequireOwnAdmittedTicket() {
+        FlashSaleAdmissionQueue queue = queue(1, 60, 30);
+        AdmissionStatus first = queue.join(ITEM_ID, "alice");
+        assertThat(queue.join(ITEM_ID, "alice").getTicketId()).isEqualTo(first.getTicketId());
+        AdmissionStatus second = queue.join(ITEM_ID, "bob");
+
+        assertThatThrownBy(() -> queue.consume(first.getTicketId(), "alice", itemId -> itemId))
+                .isInstanceOf(BusinessException.class).hasMessage("まだ入場できません");
+        queue.admit(System.nanoTime() + SECOND);
+        assertThatThrownBy(() -> queue.consume(first.getTicketId(), "bob", itemId -> itemId))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.NOT_FOUND);
+
+        queue.consume(first.getTicketId(), "alice", itemId -> itemId);
+        assertThatThrownBy(() -> queue.consume(first.getTicketId(), "alice", itemId -> itemId))
+                .isInstanceOf(BusinessException.class);
+        assertThat(queue.join(ITEM_ID, "alice").getTicketId()).isNotEqualTo(first.getTicketId());
+        assertThat(queue.status(second.getTicketId(), "bob").getPosition()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("入場枠は在庫予約が終わるまで空けず、予約中に次の待機者を入場させない")
+    void consume_shouldHoldAdmissionUntilReserved() {
+        FlashSaleAdmissionQueue queue = queue(100, 60, 30);
+        stock.set(2);
+        List<AdmissionStatus> joined = joinAll(queue, 3);
+        long now = System.nanoTime();
+        assertThat(queue.admit(now + SECOND)).isEqualTo(2);
+
+        Integer admittedWhileReserving = queue.consume(joined.get(0).getTicketId(), "buyer-0", itemId -> {
+            int admitted = queue.admit(now + 2 * SECOND);
+            stock.set(1);
+            return admitted;
+        });
+
+        assertThat(admittedWhileReserving).isZero();
+        assertThat(queue.getAdmittedCount()).isEqualTo(1);
+        assertThat(queue.status(joined.get(2).getTicketId(), "buyer-2").getState()).isEqualTo(State.WAITING);
+
+        // 予約に失敗しても枠は空く
+        assertThatThrownBy(() -> queue.consume(joined.get(1).getTicketId(), "buyer-1", itemId -> {
+            throw new BusinessException(ErrorCode.OUT_OF_STOCK, "在庫不足です");
+        })).isInstanceOf(BusinessException.class);
+        assertThat(queue.getAdmittedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("入場期限切れのチケットは枠を空け、次の待機者が入場できる")
+    void sweep_shouldExpireUnusedAdmissions() {
+        FlashSaleAdmissionQueue queue = queue(100, 0, 30);
+        stock.set(1);
+        List<AdmissionStatus> joined = joinAll(queue, 2);
+
+        long now = System.nanoTime();
+        assertThat(queue.admit(now + SECOND)).isEqualTo(1);
+        assertThat(queue.admit(now + 2 * SECOND)).isZero();
+
+        queue.sweep(now + 3 * SECOND);
+        assertThat(queue.status(joined.get(0).getTicketId(), "buyer-0").getState()).isEqualTo(State.EXPIRED);
+        assertThatThrownBy(() -> queue.consume(joined.get(0).getTicketId(), "buyer-0", itemId -> itemId))
+                .isInstanceOf(BusinessException.class);
+        assertThat(queue.admit(System.nanoTime() + 4 * SECOND)).isEqualTo(1);
+        assertThat(queue.status(joined.get(1).getTicketId(), "buyer-1").getState()).isEqualTo(State.ADMITTED);
+    }
+
+    @Test
+    @DisplayName("ポーリングが途絶えた待機者は入場させずに破棄する")
+    void admit_shouldDropAbandonedTickets() {
+        FlashSaleAdmissionQueue queue = queue(100, 60, 0);
+        List<AdmissionStatus> joined = joinAll(queue, 3);
+
+        assertThat(queue.admit(System.nanoTime() + SECOND)).isZero();
+        assertThat(joined).allSatisfy(status ->
+                assertThat(queue.status(status.getTicketId(), "buyer-" + joined.indexOf(status)).getState())
+                        .isEqualTo(State.EXPIRED));
+    }
+}
@@ -0,0 +1,165 @@
+package com.sfr.tokyo.sfr_backend.service.shop.inventory;
+
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItem;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation.ReservationStatus;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemRepository;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 在庫予約の同時実行テスト（H2 上の実リポジトリ）
+ *
+ * 各スレッドが個別のトランザクションで条件付き UPDATE を発行し、DB の行ロックだけで売り越しが防がれることを確かめる。
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "shop.inventory.counter.resync-interval-ms=0"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("在庫予約 同時実行テスト")
+class InventoryReservationConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Configuration
+    @EntityScan(basePackageClasses = LimitedItem.class)
+    @EnableJpaRepositories(basePackageClasses = LimitedItemRepository.class, includeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE,
+            classes = { LimitedItemRepository.class, LimitedItemReservationRepository.class }))
+    @Import({ InventoryReservationService.class, HotItemStockCounter.class })
+    static class InventoryRepositories {
+    }
+
+    @Autowired
+    private InventoryReservationService service;
+
+    @Autowired
+    private LimitedItemRepository limitedItemRepository;
+
+    @Autowired
+    private LimitedItemReservationRepository reservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAllInBatch();
+        limitedItemRepository.deleteAllInBatch();
+    }
+
+    private Long createItem(int stock) {
+        return limitedItemRepository.save(LimitedItem.builder()
+                .sellerId("seller")
+                .title("限定アイテム")
+                .sfrPrice(BigDecimal.TEN)
+                .stockQuantity(stock)
+                .status(LimitedItem.ItemStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    private static int countSuccesses(int tasks, Callable<Boolean> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < tasks; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("条件付き UPDATE は同時実行でも在庫数を超えて成功しない")
+    void decrementStockIfAvailable_shouldNeverOversell() throws Exception {
+        int stock = 50;
+        Long itemId = createItem(stock);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        int succeeded = countSuccesses(1000, () -> tx.execute(status -> limitedItemRepository
+                .decrementStockIfAvailable(itemId, 1, LimitedItem.ItemStatus.ACTIVE, LocalDateTime.now()) == 1));
+
+        assertThat(succeeded).isEqualTo(stock);
+        assertThat(limitedItemRepository.findById(itemId).orElseThrow().getStockQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("数千件の同時予約でも在庫数を超えて予約されず、在庫は負にならない")
+    void reserve_shouldNotOversellUnderConcurrentPurchases() throws Exception {
+        int stock = 100;
+        int buyers = 2000;
+        Long itemId = createItem(stock);
+
+        int[] counter = { 0 };
+        int succeeded = countSuccesses(buyers, () -> {
+            String buyerId;
+            synchronized (counter) {
+                buyerId = "buyer-" + counter[0]++;
+            }
+            try {
+                service.reserve(itemId, buyerId, 1);
+                return true;
+            } catch (BusinessException e) {
+                assertThat(e.getErrorCode()).isEqualTo(ErrorCode.OUT_OF_STOCK);
+                return false;
+            }
+        });
+
+        LimitedItem item = limitedItemRepository.findById(itemId).orElseThrow();
+        assertThat(succeeded).isEqualTo(stock);
+        assertThat(item.getStockQuantity()).isZero();
+        assertThat(item.getStatus()).isEqualTo(LimitedItem.ItemStatus.SOLD_OUT);
+        assertThat(reservationRepository.findAll())
+                .hasSize(stock)
+                .allSatisfy(reservation -> assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.HELD));
+    }
+}
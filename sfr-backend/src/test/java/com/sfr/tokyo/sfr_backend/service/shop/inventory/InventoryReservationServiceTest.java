@@ -0,0 +1,256 @@
+package com.sfr.tokyo.sfr_backend.service.shop.inventory;
+
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItem;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation;
+import com.sfr.tokyo.sfr_backend.entity.shop.LimitedItemReservation.ReservationStatus;
+import com.sfr.tokyo.sfr_backend.exception.BusinessException;
+import com.sfr.tokyo.sfr_backend.exception.ErrorCode;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemRepository;
+import com.sfr.tokyo.sfr_backend.repository.shop.LimitedItemReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * 在庫予約のテスト
+ * リポジトリは条件付き UPDATE と同じ原子性を持つインメモリ実装で代替する
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InventoryReservationServiceTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    @Mock
+    private LimitedItemRepository limitedItemRepository;
+
+    @Mock
+    private LimitedItemReservationRepository reservationRepository;
+
+    /** DB 上の在庫（stock = stock - ? WHERE stock >= ? を synchronized で再現） */
+    private final AtomicInteger dbStock = new AtomicInteger();
+    private final AtomicInteger decrementCalls = new AtomicInteger();
+    private final AtomicInteger minObservedStock = new AtomicInteger(Integer.MAX_VALUE);
+    private final Map<Long, LimitedItemReservation> reservations = new ConcurrentHashMap<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+
+    private HotItemStockCounter counter;
+    private InventoryReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(limitedItemRepository.findStockByIdAndStatus(ITEM_ID, LimitedItem.ItemStatus.ACTIVE))
+                .thenAnswer(inv -> Optional.of(dbStock.get()));
+        when(limitedItemRepository.decrementStockIfAvailable(eq(ITEM_ID), anyInt(), eq(LimitedItem.ItemStatus.ACTIVE),
+                any(LocalDateTime.class))).thenAnswer(inv -> {
+                    decrementCalls.incrementAndGet();
+                    int quantity = inv.getArgument(1);
+                    synchronized (dbStock) {
+                        if (dbStock.get() < quantity) {
+                            return 0;
+                        }
+                        minObservedStock.accumulateAndGet(dbStock.addAndGet(-quantity), Math::min);
+                        return 1;
+                    }
+                });
+        when(limitedItemRepository.incrementStock(eq(ITEM_ID), anyInt(), any(LocalDateTime.class)))
+                .thenAnswer(inv -> {
+                    dbStock.addAndGet(inv.getArgument(1));
+                    return 1;
+                });
+        when(limitedItemRepository.existsById(ITEM_ID)).thenReturn(true);
+        when(reservationRepository.save(any(LimitedItemReservation.class))).thenAnswer(inv -> {
+            LimitedItemReservation reservation = inv.getArgument(0);
+            reservation.setId(reservationIds.incrementAndGet());
+            reservations.put(reservation.getId(), reservation);
+            return reservation;
+        });
+        when(reservationRepository.findById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(reservations.get(inv.<Long>getArgument(0))));
+        when(reservationRepository.transitionActive(anyLong(), anyString(), any(), any(), any(LocalDateTime.class)))
+                .thenAnswer(inv -> transition(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2),
+                        inv.getArgument(3), inv.getArgument(4)));
+        when(reservationRepository.transition(anyLong(), any(), any(), any(LocalDateTime.class)))
+                .thenAnswer(inv -> transition(inv.getArgument(0), null, inv.getArgument(1), inv.getArgument(2), null));
+
+        counter = new HotItemStockCounter(60_000);
+        service = new InventoryReservationService(limitedItemRepository, reservationRepository, counter, 600, 500);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private int transition(Long id, String buyerId, ReservationStatus from, ReservationStatus to, LocalDateTime now) {
+        LimitedItemReservation reservation = reservations.get(id);
+        synchronized (reservations) {
+            if (reservation == null || reservation.getStatus() != from
+                    || (buyerId != null && !buyerId.equals(reservation.getBuyerId()))
+                    || (now != null && !reservation.getExpiresAt().isAfter(now))) {
+                return 0;
+            }
+            reservation.setStatus(to);
+            return 1;
+        }
+    }
+
+    @Test
+    @DisplayName("数千件の同時購入でも在庫数を超えて予約されず、在庫切れ後はDBに到達しない")
+    void reserve_shouldNotOversellUnderConcurrentPurchases() throws Exception {
+        int stock = 100;
+        int buyers = 5000;
+        dbStock.set(stock);
+
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < buyers; i++) {
+                String buyerId = "buyer-" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        service.reserve(ITEM_ID, buyerId, 1);
+                        return true;
+                    } catch (BusinessException e) {
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.OUT_OF_STOCK);
+                        soldOut.incrementAndGet();
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+
+            assertThat(succeeded).isEqualTo(stock);
+            assertThat(soldOut).hasValue(buyers - stock);
+            assertThat(dbStock).hasValue(0);
+            assertThat(minObservedStock.get()).isZero();
+            assertThat(reservations).hasSize(stock);
+            // 在庫切れ後の要求はカウンタで拒否され、条件付き UPDATE は在庫数分しか発行されない
+            assertThat(decrementCalls).hasValue(stock);
+            assertThat(counter.getShedCount()).isEqualTo(buyers - stock);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("カウンタが DB より多い在庫を持っていた場合、ロールバック後のカウンタは DB の在庫に揃う")
+    void reserve_shouldResyncAfterRollbackRelease() {
+        dbStock.set(5);
+        assertThat(counter.getOrLoadAvailable(ITEM_ID, id -> dbStock.get())).isEqualTo(5);
+        dbStock.set(0); // 管理画面などカウンタを通さない変更
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThatThrownBy(() -> service.reserve(ITEM_ID, "alice", 2))
+                .isInstanceOf(BusinessException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.OUT_OF_STOCK);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertThat(counter.getAvailable(ITEM_ID)).isZero();
+    }
+
+    @Test
+    @DisplayName("取消した予約の在庫は再び購入できる")
+    void release_shouldReturnStock() {
+        dbStock.set(1);
+        LimitedItemReservation reservation = service.reserve(ITEM_ID, "alice", 1);
+        assertThatThrownBy(() -> service.reserve(ITEM_ID, "bob", 1))
+                .isInstanceOf(BusinessException.class);
+
+        service.release(reservation.getId(), "alice");
+
+        assertThat(dbStock).hasValue(1);
+        assertThat(service.reserve(ITEM_ID, "bob", 1).getBuyerId()).isEqualTo("bob");
+    }
+
+    @Test
+    @DisplayName("本人以外・確定済みの予約は確定できない")
+    void confirm_shouldRejectForeignOrDuplicateConfirmation() {
+        dbStock.set(5);
+        LimitedItemReservation reservation = service.reserve(ITEM_ID, "alice", 2);
+
+        assertThatThrownBy(() -> service.confirm(reservation.getId(), "mallory"))
+                .isInstanceOf(BusinessException.class);
+        assertThat(service.confirm(reservation.getId(), "alice").getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThatThrownBy(() -> service.confirm(reservation.getId(), "alice"))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> service.release(reservation.getId(), "alice"))
+                .isInstanceOf(BusinessException.class);
+        assertThat(dbStock).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("期限切れの予約は在庫へ戻り、確定できなくなる")
+    void expireReservations_shouldRestoreStock() {
+        dbStock.set(2);
+        LimitedItemReservation reservation = service.reserve(ITEM_ID, "alice", 2);
+        reservation.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(reservationRepository.findExpired(eq(ReservationStatus.HELD), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(reservation));
+
+        assertThat(service.expireReservations()).isEqualTo(1);
+        assertThat(service.expireReservations()).isZero();
+
+        assertThat(dbStock).hasValue(2);
+        assertThat(counter.getAvailable(ITEM_ID)).isEqualTo(2);
+        assertThatThrownBy(() -> service.confirm(reservation.getId(), "alice"))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("在庫トークンが尽きても再同期間隔を過ぎればDBの在庫を読み直す")
+    void counter_shouldResyncFromDatabaseWhenStale() {
+        HotItemStockCounter fastResync = new HotItemStockCounter(0);
+        AtomicInteger stock = new AtomicInteger(1);
+
+        assertThat(fastResync.tryAcquire(ITEM_ID, 1, id -> stock.get())).isTrue();
+        stock.set(3); // 他ノードでの補充
+        assertThat(fastResync.tryAcquire(ITEM_ID, 2, id -> stock.get())).isTrue();
+        assertThat(fastResync.getAvailable(ITEM_ID)).isEqualTo(1);
+        assertThat(fastResync.tryAcquire(99L, 1, id -> null)).isFalse();
+        assertThat(fastResync.getAvailable(99L)).isNull();
+    }
+}